@@ -21,12 +21,18 @@ package org.apache.flink.api.java.io.jdbc;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 
+import org.apache.flink.api.common.io.FieldPredicate;
+import org.apache.flink.api.common.io.FilterableInputFormat;
 import org.apache.flink.api.common.io.NonParallelInput;
+import org.apache.flink.api.common.io.ProjectableInputFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,14 +49,24 @@ import org.apache.flink.types.NullValue;
 /**
  * InputFormat to read data from a database and generate tuples.
  * The InputFormat has to be configured using the supplied InputFormatBuilder.
+ * <p>
+ * Projections and predicates that are pushed into the format are applied by the database:
+ * the query is wrapped into a query that selects only the projected columns of the rows
+ * that satisfy the predicates. The database compares values with its own type rules and
+ * collations, so only predicates for which it is guaranteed to keep every row that the
+ * program's filter keeps are pushed: comparisons of integer columns with integer values,
+ * and null checks. All other predicates are left to the program's filter.
  * 
  * @param <OUT>
  * @see Tuple
  * @see DriverManager
  */
-public class JDBCInputFormat<OUT extends Tuple> extends RichInputFormat<OUT, InputSplit> implements NonParallelInput {
+public class JDBCInputFormat<OUT extends Tuple> extends RichInputFormat<OUT, InputSplit>
+		implements NonParallelInput, ProjectableInputFormat, FilterableInputFormat {
 	private static final long serialVersionUID = 1L;
 
+	private static final String PUSHDOWN_QUERY_ALIAS = "flink_source";
+
 	private static final Logger LOG = LoggerFactory.getLogger(JDBCInputFormat.class);
 
 	private String username;
@@ -65,6 +81,12 @@ public class JDBCInputFormat<OUT extends Tuple> extends RichInputFormat<OUT, Inp
 
 	private int[] columnTypes = null;
 
+	private int[] projectedFields;
+	private ArrayList<FieldPredicate> predicates;
+
+	/** The result set columns of the tuple fields, or null, if they are the same */
+	private transient int[] columnIndexes;
+
 	public JDBCInputFormat() {
 	}
 
@@ -72,6 +94,16 @@ public class JDBCInputFormat<OUT extends Tuple> extends RichInputFormat<OUT, Inp
 	public void configure(Configuration parameters) {
 	}
 
+	@Override
+	public void setProjectedFields(int[] fields) {
+		this.projectedFields = fields;
+	}
+
+	@Override
+	public void setPredicates(List<FieldPredicate> predicates) {
+		this.predicates = new ArrayList<FieldPredicate>(predicates);
+	}
+
 	/**
 	 * Connects to the source database and executes the query.
 	 *
@@ -82,8 +114,12 @@ public class JDBCInputFormat<OUT extends Tuple> extends RichInputFormat<OUT, Inp
 	public void open(InputSplit ignored) throws IOException {
 		try {
 			establishConnection();
-			statement = dbConn.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
-			resultSet = statement.executeQuery(query);
+			if (projectedFields == null && (predicates == null || predicates.isEmpty())) {
+				statement = dbConn.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+				resultSet = statement.executeQuery(query);
+			} else {
+				executePushdownQuery();
+			}
 		} catch (SQLException se) {
 			close();
 			throw new IllegalArgumentException("open() failed." + se.getMessage(), se);
@@ -101,6 +137,184 @@ public class JDBCInputFormat<OUT extends Tuple> extends RichInputFormat<OUT, Inp
 		}
 	}
 
+	/**
+	 * Executes the query with the projection and the predicates applied by the database. If the
+	 * driver cannot describe the columns of the query without executing it, or the database does
+	 * not accept the query as a subquery, the query itself is executed and the projection is
+	 * applied to its rows. The predicates are then left to the program's filter.
+	 */
+	private void executePushdownQuery() throws SQLException {
+		try {
+			QueryColumn[] columns = describeColumns();
+			if (columns != null) {
+				executeWrappedQuery(columns);
+				return;
+			}
+			LOG.info("The columns of the query cannot be determined, reading all of them.");
+		} catch (SQLException se) {
+			LOG.info("Could not push the projection and predicates into the query, reading all columns and rows. - "
+				+ se.getMessage());
+			closeStatement();
+		}
+
+		statement = dbConn.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+		resultSet = statement.executeQuery(query);
+		if (projectedFields != null) {
+			columnIndexes = new int[projectedFields.length];
+			for (int i = 0; i < projectedFields.length; i++) {
+				columnIndexes[i] = projectedFields[i] + 1;
+			}
+		}
+	}
+
+	private void executeWrappedQuery(QueryColumn[] columns) throws SQLException {
+		String quote = dbConn.getMetaData().getIdentifierQuoteString();
+		quote = quote == null || quote.trim().isEmpty() ? "" : quote;
+
+		StringBuilder sql = new StringBuilder("SELECT ");
+		if (projectedFields == null) {
+			sql.append('*');
+		} else {
+			for (int i = 0; i < projectedFields.length; i++) {
+				if (projectedFields[i] >= columns.length) {
+					throw new IllegalArgumentException("Projected field " + projectedFields[i] + " does not exist, "
+						+ "the query has " + columns.length + " columns.");
+				}
+				sql.append(i == 0 ? "" : ", ").append(quote).append(columns[projectedFields[i]].name).append(quote);
+			}
+		}
+		sql.append(" FROM (").append(query).append(") ").append(PUSHDOWN_QUERY_ALIAS);
+
+		// the predicates refer to the columns of the query, regardless of the projection
+		List<Object> parameters = new ArrayList<Object>();
+		if (predicates != null) {
+			String connective = " WHERE ";
+			for (FieldPredicate predicate : predicates) {
+				if (predicate.getField() >= columns.length || !canPushDown(predicate, columns[predicate.getField()])) {
+					continue;
+				}
+				QueryColumn column = columns[predicate.getField()];
+				String columnName = quote + column.name + quote;
+				sql.append(connective);
+				connective = " AND ";
+				if (predicate.getComparison().hasValue()) {
+					parameters.add(predicate.getValue());
+					if (column.nullable) {
+						// a null integer is read as 0, so the program's filter decides about null rows
+						sql.append('(').append(columnName).append(' ').append(predicate.getComparison().getSymbol())
+							.append(" ? OR ").append(columnName).append(" IS NULL)");
+					} else {
+						sql.append(columnName).append(' ').append(predicate.getComparison().getSymbol()).append(" ?");
+					}
+				} else {
+					sql.append(columnName).append(' ').append(predicate.getComparison().getSymbol());
+				}
+			}
+		}
+
+		LOG.debug("Executing query with pushed down projection and predicates: " + sql);
+
+		PreparedStatement preparedStatement = dbConn.prepareStatement(sql.toString(),
+			ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+		statement = preparedStatement;
+		for (int i = 0; i < parameters.size(); i++) {
+			preparedStatement.setObject(i + 1, parameters.get(i));
+		}
+		resultSet = preparedStatement.executeQuery();
+	}
+
+	/**
+	 * Checks whether the database keeps all rows that the given predicate keeps, when evaluated
+	 * on the values that this format reads from the column.
+	 *
+	 * <p>Integer columns are compared exactly by the database and by the program, as long as the
+	 * predicate's value is an integer as well. Strings, floating point numbers, and decimals are
+	 * compared with the database's collations and precisions, which may differ from Java's.
+	 * A null check is safe if SQL NULL and Java null coincide: the format reads SQL NULL as null
+	 * only for strings, and never reads null for SQL values that are not NULL.
+	 */
+	private static boolean canPushDown(FieldPredicate predicate, QueryColumn column) {
+		switch (predicate.getComparison()) {
+			case IS_NULL:
+				return true;
+			case IS_NOT_NULL:
+				return isStringType(column.type);
+			default:
+				return isIntegerType(column.type) && isIntegerValue(predicate.getValue());
+		}
+	}
+
+	private static boolean isIntegerType(int sqlType) {
+		return sqlType == java.sql.Types.TINYINT || sqlType == java.sql.Types.SMALLINT
+			|| sqlType == java.sql.Types.INTEGER || sqlType == java.sql.Types.BIGINT;
+	}
+
+	private static boolean isStringType(int sqlType) {
+		return sqlType == java.sql.Types.CHAR || sqlType == java.sql.Types.NCHAR
+			|| sqlType == java.sql.Types.VARCHAR || sqlType == java.sql.Types.LONGVARCHAR
+			|| sqlType == java.sql.Types.LONGNVARCHAR;
+	}
+
+	private static boolean isIntegerValue(Object value) {
+		return value instanceof Byte || value instanceof Short || value instanceof Integer || value instanceof Long;
+	}
+
+	/**
+	 * Gets the labels, types, and nullability of the query's columns from the database, without
+	 * executing the query.
+	 *
+	 * @return The columns, or null, if the driver cannot describe the query.
+	 * @throws SQLException Thrown, if the query cannot be described, for example because the
+	 *                      driver does not support it.
+	 */
+	private QueryColumn[] describeColumns() throws SQLException {
+		PreparedStatement describedStatement = dbConn.prepareStatement(query);
+		try {
+			ResultSetMetaData metaData = describedStatement.getMetaData();
+			if (metaData == null) {
+				return null;
+			}
+			QueryColumn[] columns = new QueryColumn[metaData.getColumnCount()];
+			for (int i = 0; i < columns.length; i++) {
+				columns[i] = new QueryColumn(metaData.getColumnLabel(i + 1), metaData.getColumnType(i + 1),
+					metaData.isNullable(i + 1) != ResultSetMetaData.columnNoNulls);
+			}
+			return columns;
+		} finally {
+			describedStatement.close();
+		}
+	}
+
+	/**
+	 * A column of the query, as described by the database.
+	 */
+	private static final class QueryColumn {
+		final String name;
+		final int type;
+		final boolean nullable;
+
+		QueryColumn(String name, int type, boolean nullable) {
+			this.name = name;
+			this.type = type;
+			this.nullable = nullable;
+		}
+	}
+
+	private void closeStatement() {
+		try {
+			if (resultSet != null) {
+				resultSet.close();
+			}
+			if (statement != null) {
+				statement.close();
+			}
+		} catch (SQLException se) {
+			LOG.info("Statement couldn't be closed - " + se.getMessage());
+		}
+		resultSet = null;
+		statement = null;
+	}
+
 	/**
 	 * Closes all resources used.
 	 *
@@ -137,7 +351,8 @@ public class JDBCInputFormat<OUT extends Tuple> extends RichInputFormat<OUT, Inp
 	@Override
 	public boolean reachedEnd() throws IOException {
 		try {
-			if (resultSet.isLast()) {
+			if (resultSet.isLast() || (!resultSet.isBeforeFirst() && resultSet.getRow() == 0)) {
+				// the last row has been read, or the result is empty
 				close();
 				return true;
 			}
@@ -174,13 +389,23 @@ public class JDBCInputFormat<OUT extends Tuple> extends RichInputFormat<OUT, Inp
 
 	private void extractTypes(OUT tuple) throws SQLException, IOException {
 		ResultSetMetaData resultSetMetaData = resultSet.getMetaData();
-		columnTypes = new int[resultSetMetaData.getColumnCount()];
+		if (columnIndexes == null) {
+			columnIndexes = new int[resultSetMetaData.getColumnCount()];
+			for (int pos = 0; pos < columnIndexes.length; pos++) {
+				columnIndexes[pos] = pos + 1;
+			}
+		}
+		columnTypes = new int[columnIndexes.length];
 		if (tuple.getArity() != columnTypes.length) {
 			close();
 			throw new IOException("Tuple size does not match columncount");
 		}
 		for (int pos = 0; pos < columnTypes.length; pos++) {
-			columnTypes[pos] = resultSetMetaData.getColumnType(pos + 1);
+			if (columnIndexes[pos] > resultSetMetaData.getColumnCount()) {
+				close();
+				throw new IOException("Projected field " + (columnIndexes[pos] - 1) + " does not exist");
+			}
+			columnTypes[pos] = resultSetMetaData.getColumnType(columnIndexes[pos]);
 		}
 	}
 
@@ -196,64 +421,64 @@ public class JDBCInputFormat<OUT extends Tuple> extends RichInputFormat<OUT, Inp
 					reuse.setField(NullValue.getInstance(), pos);
 					break;
 				case java.sql.Types.BOOLEAN:
-					reuse.setField(resultSet.getBoolean(pos + 1), pos);
+					reuse.setField(resultSet.getBoolean(columnIndexes[pos]), pos);
 					break;
 				case java.sql.Types.BIT:
-					reuse.setField(resultSet.getBoolean(pos + 1), pos);
+					reuse.setField(resultSet.getBoolean(columnIndexes[pos]), pos);
 					break;
 				case java.sql.Types.CHAR:
-					reuse.setField(resultSet.getString(pos + 1), pos);
+					reuse.setField(resultSet.getString(columnIndexes[pos]), pos);
 					break;
 				case java.sql.Types.NCHAR:
-					reuse.setField(resultSet.getString(pos + 1), pos);
+					reuse.setField(resultSet.getString(columnIndexes[pos]), pos);
 					break;
 				case java.sql.Types.VARCHAR:
-					reuse.setField(resultSet.getString(pos + 1), pos);
+					reuse.setField(resultSet.getString(columnIndexes[pos]), pos);
 					break;
 				case java.sql.Types.LONGVARCHAR:
-					reuse.setField(resultSet.getString(pos + 1), pos);
+					reuse.setField(resultSet.getString(columnIndexes[pos]), pos);
 					break;
 				case java.sql.Types.LONGNVARCHAR:
-					reuse.setField(resultSet.getString(pos + 1), pos);
+					reuse.setField(resultSet.getString(columnIndexes[pos]), pos);
 					break;
 				case java.sql.Types.TINYINT:
-					reuse.setField(resultSet.getShort(pos + 1), pos);
+					reuse.setField(resultSet.getShort(columnIndexes[pos]), pos);
 					break;
 				case java.sql.Types.SMALLINT:
-					reuse.setField(resultSet.getShort(pos + 1), pos);
+					reuse.setField(resultSet.getShort(columnIndexes[pos]), pos);
 					break;
 				case java.sql.Types.BIGINT:
-					reuse.setField(resultSet.getLong(pos + 1), pos);
+					reuse.setField(resultSet.getLong(columnIndexes[pos]), pos);
 					break;
 				case java.sql.Types.INTEGER:
-					reuse.setField(resultSet.getInt(pos + 1), pos);
+					reuse.setField(resultSet.getInt(columnIndexes[pos]), pos);
 					break;
 				case java.sql.Types.FLOAT:
-					reuse.setField(resultSet.getDouble(pos + 1), pos);
+					reuse.setField(resultSet.getDouble(columnIndexes[pos]), pos);
 					break;
 				case java.sql.Types.REAL:
-					reuse.setField(resultSet.getFloat(pos + 1), pos);
+					reuse.setField(resultSet.getFloat(columnIndexes[pos]), pos);
 					break;
 				case java.sql.Types.DOUBLE:
-					reuse.setField(resultSet.getDouble(pos + 1), pos);
+					reuse.setField(resultSet.getDouble(columnIndexes[pos]), pos);
 					break;
 				case java.sql.Types.DECIMAL:
-					reuse.setField(resultSet.getBigDecimal(pos + 1).doubleValue(), pos);
+					reuse.setField(resultSet.getBigDecimal(columnIndexes[pos]).doubleValue(), pos);
 					break;
 				case java.sql.Types.NUMERIC:
-					reuse.setField(resultSet.getBigDecimal(pos + 1).doubleValue(), pos);
+					reuse.setField(resultSet.getBigDecimal(columnIndexes[pos]).doubleValue(), pos);
 					break;
 				case java.sql.Types.DATE:
-					reuse.setField(resultSet.getDate(pos + 1).toString(), pos);
+					reuse.setField(resultSet.getDate(columnIndexes[pos]).toString(), pos);
 					break;
 				case java.sql.Types.TIME:
-					reuse.setField(resultSet.getTime(pos + 1).getTime(), pos);
+					reuse.setField(resultSet.getTime(columnIndexes[pos]).getTime(), pos);
 					break;
 				case java.sql.Types.TIMESTAMP:
-					reuse.setField(resultSet.getTimestamp(pos + 1).toString(), pos);
+					reuse.setField(resultSet.getTimestamp(columnIndexes[pos]).toString(), pos);
 					break;
 				case java.sql.Types.SQLXML:
-					reuse.setField(resultSet.getSQLXML(pos + 1).toString(), pos);
+					reuse.setField(resultSet.getSQLXML(columnIndexes[pos]).toString(), pos);
 					break;
 				default:
 					throw new SQLException("Unsupported sql-type [" + columnTypes[pos] + "] on column [" + pos + "]");
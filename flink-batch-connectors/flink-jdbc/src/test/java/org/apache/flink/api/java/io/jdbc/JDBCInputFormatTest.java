@@ -23,9 +23,13 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
 
 import org.junit.Assert;
 
+import org.apache.flink.api.common.io.FieldPredicate;
+import org.apache.flink.api.common.io.FieldPredicate.Comparison;
 import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.api.java.tuple.Tuple5;
 import org.junit.After;
@@ -192,4 +196,106 @@ public class JDBCInputFormatTest {
 		Assert.assertEquals(5, recordCount);
 	}
 
+	@Test
+	public void testProjectionAndPredicatePushdown() throws IOException {
+		jdbcInputFormat = JDBCInputFormat.buildJDBCInputFormat()
+				.setDrivername("org.apache.derby.jdbc.EmbeddedDriver")
+				.setDBUrl("jdbc:derby:memory:ebookshop")
+				.setQuery("select * from books")
+				.finish();
+		jdbcInputFormat.setProjectedFields(new int[] {4, 0});
+		// the predicates refer to the columns of the query, not to the projected fields
+		jdbcInputFormat.setPredicates(Arrays.asList(
+				new FieldPredicate(4, Comparison.GREATER, 20),
+				new FieldPredicate(0, Comparison.LESS, 1004L)));
+		jdbcInputFormat.open(null);
+		Tuple2 tuple = new Tuple2();
+		int recordCount = 0;
+		while (!jdbcInputFormat.reachedEnd()) {
+			jdbcInputFormat.nextRecord(tuple);
+			Assert.assertEquals(dbData[recordCount + 1][4], tuple.getField(0));
+			Assert.assertEquals(dbData[recordCount + 1][0], tuple.getField(1));
+			recordCount++;
+		}
+		Assert.assertEquals(2, recordCount);
+	}
+
+	@Test
+	public void testPredicatesWithDatabaseSpecificSemanticsAreNotPushedDown() throws IOException {
+		jdbcInputFormat = JDBCInputFormat.buildJDBCInputFormat()
+				.setDrivername("org.apache.derby.jdbc.EmbeddedDriver")
+				.setDBUrl("jdbc:derby:memory:ebookshop")
+				.setQuery("select * from books")
+				.finish();
+		// strings are compared with the database's collation, floating point numbers with its precision
+		jdbcInputFormat.setPredicates(Arrays.asList(
+				new FieldPredicate(2, Comparison.EQUAL, "nobody"),
+				new FieldPredicate(3, Comparison.GREATER, 100.0),
+				new FieldPredicate(4, Comparison.GREATER, 100.0)));
+		jdbcInputFormat.open(null);
+		Tuple5 tuple = new Tuple5();
+		int recordCount = 0;
+		while (!jdbcInputFormat.reachedEnd()) {
+			jdbcInputFormat.nextRecord(tuple);
+			recordCount++;
+		}
+		Assert.assertEquals(5, recordCount);
+	}
+
+	@Test
+	public void testPushedDownComparisonsKeepNullRows() throws IOException {
+		jdbcInputFormat = JDBCInputFormat.buildJDBCInputFormat()
+				.setDrivername("org.apache.derby.jdbc.EmbeddedDriver")
+				.setDBUrl("jdbc:derby:memory:ebookshop")
+				.setQuery("select id, cast(null as int) as missing from books")
+				.finish();
+		// a null integer is read as 0, which satisfies the predicate
+		jdbcInputFormat.setPredicates(Collections.singletonList(new FieldPredicate(1, Comparison.LESS, 10)));
+		jdbcInputFormat.open(null);
+		Tuple2 tuple = new Tuple2();
+		int recordCount = 0;
+		while (!jdbcInputFormat.reachedEnd()) {
+			jdbcInputFormat.nextRecord(tuple);
+			Assert.assertEquals(0, tuple.getField(1));
+			recordCount++;
+		}
+		Assert.assertEquals(5, recordCount);
+	}
+
+	@Test
+	public void testPushdownFallbackForQueriesThatCannotBeWrapped() throws IOException {
+		// the database does not accept this query as a subquery
+		jdbcInputFormat = JDBCInputFormat.buildJDBCInputFormat()
+				.setDrivername("org.apache.derby.jdbc.EmbeddedDriver")
+				.setDBUrl("jdbc:derby:memory:ebookshop")
+				.setQuery("select * from books for read only")
+				.finish();
+		jdbcInputFormat.setProjectedFields(new int[] {4, 0});
+		jdbcInputFormat.setPredicates(Collections.singletonList(new FieldPredicate(0, Comparison.EQUAL, 1002)));
+		jdbcInputFormat.open(null);
+		Tuple2 tuple = new Tuple2();
+		int recordCount = 0;
+		while (!jdbcInputFormat.reachedEnd()) {
+			jdbcInputFormat.nextRecord(tuple);
+			// the projection is applied to the rows, the predicates are left to the program's filter
+			Assert.assertEquals(dbData[recordCount][4], tuple.getField(0));
+			Assert.assertEquals(dbData[recordCount][0], tuple.getField(1));
+			recordCount++;
+		}
+		Assert.assertEquals(5, recordCount);
+	}
+
+	@Test
+	public void testEmptyResult() throws IOException {
+		jdbcInputFormat = JDBCInputFormat.buildJDBCInputFormat()
+				.setDrivername("org.apache.derby.jdbc.EmbeddedDriver")
+				.setDBUrl("jdbc:derby:memory:ebookshop")
+				.setQuery("select * from books")
+				.finish();
+		jdbcInputFormat.setPredicates(Collections.singletonList(new FieldPredicate(0, Comparison.IS_NULL, null)));
+		jdbcInputFormat.open(null);
+		Assert.assertTrue(jdbcInputFormat.reachedEnd());
+		jdbcInputFormat.close();
+	}
+
 }
@@ -180,14 +180,17 @@ public class LocalExecutor extends PlanExecutor {
 			try {
 				Configuration configuration = this.flink.configuration();
 
-				Optimizer pc = new Optimizer(new DataStatistics(), configuration);
+				DataStatistics statistics = DataStatistics.fromConfiguration(configuration);
+				Optimizer pc = new Optimizer(statistics, configuration);
 				OptimizedPlan op = pc.compile(plan);
 
 				JobGraphGenerator jgg = new JobGraphGenerator(configuration);
 				JobGraph jobGraph = jgg.compileJobGraph(op, plan.getJobId());
 
 				boolean sysoutPrint = isPrintingStatusDuringExecution();
-				return flink.submitJobAndWait(jobGraph, sysoutPrint);
+				JobExecutionResult result = flink.submitJobAndWait(jobGraph, sysoutPrint);
+				statistics.recordRuntimeStatistics(result.getAllAccumulatorResults(), configuration);
+				return DataStatistics.removeRuntimeStatistics(result);
 			}
 			finally {
 				if (shutDownAtEnd) {
@@ -72,6 +72,9 @@ public class Client {
 	/** The optimizer used in the optimization of batch programs */
 	final Optimizer compiler;
 
+	/** The statistics used by the optimizer, including those observed during earlier executions */
+	private final DataStatistics statistics;
+
 	/** The actor system used to communicate with the JobManager */
 	private final ActorSystem actorSystem;
 
@@ -130,7 +133,8 @@ public class Client {
 	 */
 	public Client(Configuration config, int maxSlots) throws IOException {
 		this.config = Preconditions.checkNotNull(config);
-		this.compiler = new Optimizer(new DataStatistics(), new DefaultCostEstimator(), config);
+		this.statistics = DataStatistics.fromConfiguration(config);
+		this.compiler = new Optimizer(statistics, new DefaultCostEstimator(), config);
 		this.maxSlots = maxSlots;
 
 		LOG.info("Starting client actor system");
@@ -376,7 +380,10 @@ public class Client {
 
 		try {
 			this.lastJobID = jobGraph.getJobID();
-			return JobClient.submitJobAndWait(actorSystem, leaderRetrievalService, jobGraph, timeout, printStatusDuringExecution, classLoader);
+			JobExecutionResult result = JobClient.submitJobAndWait(actorSystem, leaderRetrievalService, jobGraph,
+					timeout, printStatusDuringExecution, classLoader);
+			statistics.recordRuntimeStatistics(result.getAllAccumulatorResults(), config);
+			return DataStatistics.removeRuntimeStatistics(result);
 		} catch (JobExecutionException e) {
 			throw new ProgramInvocationException("The program execution failed: " + e.getMessage(), e);
 		}
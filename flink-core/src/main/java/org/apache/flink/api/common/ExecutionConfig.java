@@ -86,6 +86,8 @@ public class ExecutionConfig implements Serializable {
 
 	private boolean forceAvro = false;
 
+	private boolean pojoCodeGeneration = false;
+
 	private CodeAnalysisMode codeAnalysisMode = CodeAnalysisMode.DISABLE;
 
 	/** If set to true, progress updates are printed to System.out during execution */
@@ -350,6 +352,32 @@ public class ExecutionConfig implements Serializable {
 		return forceAvro;
 	}
 
+	/**
+	 * Enables the generation of specialized classes that access the fields of POJOs directly,
+	 * instead of through reflection, when POJOs are serialized and compared. Types whose fields
+	 * cannot be accessed by generated code fall back to reflection.
+	 */
+	public ExecutionConfig enablePojoCodeGeneration() {
+		pojoCodeGeneration = true;
+		return this;
+	}
+
+	/**
+	 * Disables the generation of specialized classes for POJO field access.
+	 * @see #enablePojoCodeGeneration()
+	 */
+	public ExecutionConfig disablePojoCodeGeneration() {
+		pojoCodeGeneration = false;
+		return this;
+	}
+
+	/**
+	 * Returns whether POJO fields are accessed by generated code. @see #enablePojoCodeGeneration()
+	 */
+	public boolean isPojoCodeGenerationEnabled() {
+		return pojoCodeGeneration;
+	}
+
 	/**
 	 * Enables reusing objects that Flink internally uses for deserialization and passing
 	 * data to user-code functions. Keep in mind that this can lead to bugs when the
@@ -619,6 +647,7 @@ public class ExecutionConfig implements Serializable {
 				objectReuse == other.objectReuse &&
 				autoTypeRegistrationEnabled == other.autoTypeRegistrationEnabled &&
 				forceAvro == other.forceAvro &&
+				pojoCodeGeneration == other.pojoCodeGeneration &&
 				Objects.equals(codeAnalysisMode, other.codeAnalysisMode) &&
 				printProgressDuringExecution == other.printProgressDuringExecution &&
 				Objects.equals(globalJobParameters, other.globalJobParameters) &&
@@ -645,6 +674,7 @@ public class ExecutionConfig implements Serializable {
 			objectReuse,
 			autoTypeRegistrationEnabled,
 			forceAvro,
+			pojoCodeGeneration,
 			codeAnalysisMode,
 			printProgressDuringExecution,
 			globalJobParameters,
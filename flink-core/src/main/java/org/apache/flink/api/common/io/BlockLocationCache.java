@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.flink.api.common.io;
+
+import org.apache.flink.core.fs.BlockLocation;
+import org.apache.flink.core.fs.FileStatus;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.Path;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache for the block locations of whole files, keyed by the file path, length, and
+ * modification time. A file that is rewritten gets a new modification time and hence a new
+ * entry, so that re-submitting a job over the same (unchanged) files does not fetch the
+ * locations of every file again. If an entry is stale nonetheless, only the locality of the
+ * affected splits suffers, never the correctness.
+ *
+ * <p>The least recently used entries are evicted when the cache is full. A cache with a capacity
+ * of zero does not cache anything.
+ */
+final class BlockLocationCache {
+
+	private final int capacity;
+
+	private final LinkedHashMap<Key, BlockLocation[]> cache;
+
+	BlockLocationCache(final int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("The capacity of the cache must not be negative.");
+		}
+		this.capacity = capacity;
+		this.cache = new LinkedHashMap<Key, BlockLocation[]>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, BlockLocation[]> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * Gets the locations of all blocks of the given file, ordered by their offset. The returned
+	 * array is owned by the caller.
+	 */
+	BlockLocation[] getFileBlockLocations(FileSystem fs, FileStatus file) throws IOException {
+		final Key key = new Key(file);
+
+		BlockLocation[] blocks;
+		synchronized (cache) {
+			blocks = cache.get(key);
+		}
+
+		if (blocks == null) {
+			blocks = fs.getFileBlockLocations(file, 0, file.getLen());
+			Arrays.sort(blocks);
+
+			if (capacity > 0) {
+				synchronized (cache) {
+					cache.put(key, blocks);
+				}
+			}
+		}
+
+		return blocks.clone();
+	}
+
+	int size() {
+		synchronized (cache) {
+			return cache.size();
+		}
+	}
+
+	void clear() {
+		synchronized (cache) {
+			cache.clear();
+		}
+	}
+
+	// --------------------------------------------------------------------------------------------
+
+	private static final class Key {
+
+		private final Path path;
+
+		private final long length;
+
+		private final long modificationTime;
+
+		Key(FileStatus file) {
+			this.path = file.getPath();
+			this.length = file.getLen();
+			this.modificationTime = file.getModificationTime();
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (31 * path.hashCode() + (int) (length ^ (length >>> 32)))
+					+ (int) (modificationTime ^ (modificationTime >>> 32));
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj == this) {
+				return true;
+			}
+			if (obj == null || obj.getClass() != Key.class) {
+				return false;
+			}
+			Key that = (Key) obj;
+			return this.length == that.length && this.modificationTime == that.modificationTime
+					&& this.path.equals(that.path);
+		}
+	}
+}
@@ -32,6 +32,7 @@ import org.apache.flink.core.fs.FileInputSplit;
 import org.apache.flink.core.fs.FileStatus;
 import org.apache.flink.core.fs.FileSystem;
 import org.apache.flink.core.fs.Path;
+import org.apache.flink.types.parser.ByteScanner;
 
 import com.google.common.base.Charsets;
 
@@ -311,6 +312,12 @@ public abstract class DelimitedInputFormat<OT> extends FileInputFormat<OT> {
 			if(unsplittable) {
 				return stats;
 			}
+			// the same holds for compressed files, since the samples are taken from the uncompressed bytes
+			for (FileStatus file : allFiles) {
+				if (getInflaterInputStreamFactory(file.getPath()) != null) {
+					return stats;
+				}
+			}
 			
 			// compute how many samples to take, depending on the defined upper and lower bound
 			final int numSamples;
@@ -497,6 +504,17 @@ public abstract class DelimitedInputFormat<OT> extends FileInputFormat<OT> {
 			int startPos = this.readPos;
 			int count;
 
+			if (this.delimiter.length == 1) {
+				// common case of a single byte delimiter: scan for it word-wise
+				int delimPos = ByteScanner.indexOf(this.readBuffer, this.readPos, this.limit, this.delimiter[0]);
+				if (delimPos >= 0) {
+					this.readPos = delimPos + 1;
+					i = 1;
+				} else {
+					this.readPos = this.limit;
+				}
+			}
+
 			while (this.readPos < this.limit && i < this.delimiter.length) {
 				if ((this.readBuffer[this.readPos++]) == this.delimiter[i]) {
 					i++;
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.common.io;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+import org.apache.flink.annotation.Experimental;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A simple predicate on a single field of the records produced by an input format, comparing the
+ * field to a constant value. Predicates are handed to a {@link FilterableInputFormat} as a
+ * conjunction, i.e., a record qualifies if all of the predicates hold for it.
+ *
+ * <p>As in SQL, a comparison with a null field value never holds. Only {@link Comparison#IS_NULL}
+ * holds for null values.
+ */
+@Experimental
+public final class FieldPredicate implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The comparisons that a predicate can apply to a field.
+	 */
+	public enum Comparison {
+		EQUAL("="),
+		NOT_EQUAL("<>"),
+		LESS("<"),
+		LESS_OR_EQUAL("<="),
+		GREATER(">"),
+		GREATER_OR_EQUAL(">="),
+		IS_NULL("IS NULL"),
+		IS_NOT_NULL("IS NOT NULL");
+
+		private final String symbol;
+
+		Comparison(String symbol) {
+			this.symbol = symbol;
+		}
+
+		/**
+		 * Gets the SQL symbol of the comparison, for example <code>&lt;=</code> or <code>IS NULL</code>.
+		 */
+		public String getSymbol() {
+			return symbol;
+		}
+
+		/**
+		 * Checks whether the comparison compares the field to a value, as opposed to only checking for null.
+		 */
+		public boolean hasValue() {
+			return this != IS_NULL && this != IS_NOT_NULL;
+		}
+	}
+
+	private final int field;
+
+	private final Comparison comparison;
+
+	private final Object value;
+
+	/**
+	 * Creates a predicate that compares a field to a value.
+	 *
+	 * @param field The position of the field in the records of the input format, without a projection.
+	 * @param comparison The comparison to apply.
+	 * @param value The value to compare the field to, or null, for {@link Comparison#IS_NULL} and
+	 *              {@link Comparison#IS_NOT_NULL}.
+	 */
+	public FieldPredicate(int field, Comparison comparison, Object value) {
+		checkArgument(field >= 0, "The field position must not be negative.");
+		checkNotNull(comparison, "The comparison must not be null.");
+		if (comparison.hasValue()) {
+			checkArgument(value instanceof Comparable && value instanceof Serializable,
+				"The value of a comparison must be comparable and serializable.");
+		} else {
+			checkArgument(value == null, "A null check does not take a value.");
+		}
+
+		this.field = field;
+		this.comparison = comparison;
+		this.value = value;
+	}
+
+	public int getField() {
+		return field;
+	}
+
+	public Comparison getComparison() {
+		return comparison;
+	}
+
+	public Object getValue() {
+		return value;
+	}
+
+	/**
+	 * Evaluates the predicate for the given value of the field. Numbers of different types are
+	 * compared by their numeric value.
+	 *
+	 * @param fieldValue The value of the field, may be null.
+	 * @return True, if the predicate holds for the field value.
+	 */
+	public boolean evaluate(Object fieldValue) {
+		switch (comparison) {
+			case IS_NULL:
+				return fieldValue == null;
+			case IS_NOT_NULL:
+				return fieldValue != null;
+			default:
+				if (fieldValue == null) {
+					return false;
+				}
+		}
+
+		final int cmp = compare(fieldValue, value);
+		switch (comparison) {
+			case EQUAL:
+				return cmp == 0;
+			case NOT_EQUAL:
+				return cmp != 0;
+			case LESS:
+				return cmp < 0;
+			case LESS_OR_EQUAL:
+				return cmp <= 0;
+			case GREATER:
+				return cmp > 0;
+			case GREATER_OR_EQUAL:
+				return cmp >= 0;
+			default:
+				throw new IllegalStateException("Unknown comparison: " + comparison);
+		}
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static int compare(Object first, Object second) {
+		if (first instanceof Number && second instanceof Number && first.getClass() != second.getClass()) {
+			if (isFloatingPoint(first) || isFloatingPoint(second)) {
+				return Double.compare(((Number) first).doubleValue(), ((Number) second).doubleValue());
+			}
+			return toBigDecimal((Number) first).compareTo(toBigDecimal((Number) second));
+		}
+		return ((Comparable) first).compareTo(second);
+	}
+
+	private static boolean isFloatingPoint(Object number) {
+		return number instanceof Double || number instanceof Float;
+	}
+
+	private static BigDecimal toBigDecimal(Number number) {
+		return number instanceof BigDecimal ? (BigDecimal) number : new BigDecimal(number.toString());
+	}
+
+	// --------------------------------------------------------------------------------------------
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof FieldPredicate)) {
+			return false;
+		}
+		FieldPredicate other = (FieldPredicate) obj;
+		return field == other.field && comparison == other.comparison &&
+			(value == null ? other.value == null : value.equals(other.value));
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (31 * field + comparison.hashCode()) + (value == null ? 0 : value.hashCode());
+	}
+
+	@Override
+	public String toString() {
+		return comparison.hasValue() ?
+			"f" + field + " " + comparison.getSymbol() + " " + value :
+			"f" + field + " " + comparison.getSymbol();
+	}
+}
@@ -21,17 +21,26 @@ package org.apache.flink.api.common.io;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.google.common.base.Preconditions;
 import org.apache.flink.annotation.Public;
 import org.apache.flink.api.common.io.compression.DeflateInflaterInputStreamFactory;
-import org.apache.flink.api.common.io.compression.GzipInflaterInputStreamFactory;
+import org.apache.flink.api.common.io.compression.BlockGzipInflaterInputStreamFactory;
 import org.apache.flink.api.common.io.compression.InflaterInputStreamFactory;
+import org.apache.flink.api.common.io.compression.SplittableInflaterInputStreamFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.flink.api.common.io.statistics.BaseStatistics;
@@ -74,6 +83,16 @@ public abstract class FileInputFormat<OT> extends RichInputFormat<OT, FileInputS
 	 */
 	private static long DEFAULT_OPENING_TIMEOUT;
 
+	/**
+	 * The default number of threads that list directories and fetch block locations when creating the splits.
+	 */
+	private static int DEFAULT_SPLIT_ENUMERATION_THREADS;
+
+	/**
+	 * The block locations of the files seen by previous split enumerations in this JVM.
+	 */
+	private static BlockLocationCache BLOCK_LOCATION_CACHE;
+
 	/**
 	 * A mapping of file extensions to decompression algorithms based on DEFLATE. Such compressions lead to
 	 * unsplittable files.
@@ -104,12 +123,31 @@ public abstract class FileInputFormat<OT> extends RichInputFormat<OT, FileInputS
 		} else {
 			DEFAULT_OPENING_TIMEOUT = to;
 		}
+
+		final int threads = GlobalConfiguration.getInteger(ConfigConstants.FILESYSTEM_SPLIT_ENUMERATION_THREADS_KEY,
+			ConfigConstants.DEFAULT_FILESYSTEM_SPLIT_ENUMERATION_THREADS);
+		if (threads < 1) {
+			LOG.error("Invalid number of split enumeration threads: " + threads + ". Using default value of " +
+				ConfigConstants.DEFAULT_FILESYSTEM_SPLIT_ENUMERATION_THREADS);
+			DEFAULT_SPLIT_ENUMERATION_THREADS = ConfigConstants.DEFAULT_FILESYSTEM_SPLIT_ENUMERATION_THREADS;
+		} else {
+			DEFAULT_SPLIT_ENUMERATION_THREADS = threads;
+		}
+
+		int cacheSize = GlobalConfiguration.getInteger(ConfigConstants.FILESYSTEM_BLOCK_LOCATION_CACHE_SIZE_KEY,
+			ConfigConstants.DEFAULT_FILESYSTEM_BLOCK_LOCATION_CACHE_SIZE);
+		if (cacheSize < 0) {
+			LOG.error("Invalid block location cache size: " + cacheSize + ". Using default value of " +
+				ConfigConstants.DEFAULT_FILESYSTEM_BLOCK_LOCATION_CACHE_SIZE);
+			cacheSize = ConfigConstants.DEFAULT_FILESYSTEM_BLOCK_LOCATION_CACHE_SIZE;
+		}
+		BLOCK_LOCATION_CACHE = new BlockLocationCache(cacheSize);
 	}
 
 	private static void initDefaultInflaterInputStreamFactories() {
 		InflaterInputStreamFactory<?>[] defaultFactories = {
 				DeflateInflaterInputStreamFactory.getInstance(),
-				GzipInflaterInputStreamFactory.getInstance()
+				BlockGzipInflaterInputStreamFactory.getInstance()
 		};
 		for (InflaterInputStreamFactory<?> inputStreamFactory : defaultFactories) {
 			for (String fileExtension : inputStreamFactory.getCommonFileExtensions()) {
@@ -155,6 +193,10 @@ public abstract class FileInputFormat<OT> extends RichInputFormat<OT, FileInputS
 	static long getDefaultOpeningTimeout() {
 		return DEFAULT_OPENING_TIMEOUT;
 	}
+
+	static BlockLocationCache getBlockLocationCache() {
+		return BLOCK_LOCATION_CACHE;
+	}
 	
 	// --------------------------------------------------------------------------------------------
 	//  Variables for internal operation.
@@ -216,6 +258,11 @@ public abstract class FileInputFormat<OT> extends RichInputFormat<OT, FileInputS
 	 * structure is enabled.
 	 */
 	protected boolean enumerateNestedFiles = false;
+
+	/**
+	 * The number of threads that list directories and fetch block locations when creating the splits.
+	 */
+	protected int splitEnumerationThreads = DEFAULT_SPLIT_ENUMERATION_THREADS;
 	
 	// --------------------------------------------------------------------------------------------
 	//  Constructors
@@ -299,6 +346,17 @@ public abstract class FileInputFormat<OT> extends RichInputFormat<OT, FileInputS
 		this.openTimeout = openTimeout;
 	}
 
+	public int getSplitEnumerationThreads() {
+		return splitEnumerationThreads;
+	}
+
+	public void setSplitEnumerationThreads(int splitEnumerationThreads) {
+		if (splitEnumerationThreads < 1) {
+			throw new IllegalArgumentException("The number of split enumeration threads must be at least 1.");
+		}
+		this.splitEnumerationThreads = splitEnumerationThreads;
+	}
+
 	// --------------------------------------------------------------------------------------------
 	// Getting information about the split that is currently open
 	// --------------------------------------------------------------------------------------------
@@ -458,36 +516,45 @@ public abstract class FileInputFormat<OT> extends RichInputFormat<OT, FileInputS
 			files.add(pathFile);
 			totalLength += pathFile.getLen();
 		}
+		// get the block locations of all files, concurrently if there are many of them
+		final BlockLocation[][] fileBlocks = getFileBlockLocations(fs, files);
+
 		// returns if unsplittable
 		if(unsplittable) {
 			int splitNum = 0;
-			for (final FileStatus file : files) {
-				final BlockLocation[] blocks = fs.getFileBlockLocations(file, 0, file.getLen());
-				Set<String> hosts = new HashSet<String>();
-				for(BlockLocation block : blocks) {
-					hosts.addAll(Arrays.asList(block.getHosts()));
-				}
+			for (int fileNum = 0; fileNum < files.size(); fileNum++) {
+				final FileStatus file = files.get(fileNum);
 				long len = file.getLen();
-				if(testForUnsplittable(file)) {
+				if(testForUnsplittable(file) || getInflaterInputStreamFactory(file.getPath()) != null) {
 					len = READ_WHOLE_SPLIT_FLAG;
 				}
 				FileInputSplit fis = new FileInputSplit(splitNum++, file.getPath(), 0, len,
-						hosts.toArray(new String[hosts.size()]));
+						getAllHosts(fileBlocks[fileNum]));
 				inputSplits.add(fis);
 			}
 			return inputSplits.toArray(new FileInputSplit[inputSplits.size()]);
 		}
-		
+
+		// compressed files can still be split, if they consist of independently compressed blocks
+		final boolean[] wholeFiles = findUnsplittableCompressedFiles(fs, files);
 
 		final long maxSplitSize = (minNumSplits < 1) ? Long.MAX_VALUE : (totalLength / minNumSplits +
 					(totalLength % minNumSplits == 0 ? 0 : 1));
 
 		// now that we have the files, generate the splits
 		int splitNum = 0;
-		for (final FileStatus file : files) {
+		for (int fileNum = 0; fileNum < files.size(); fileNum++) {
 
+			final FileStatus file = files.get(fileNum);
+			final BlockLocation[] blocks = fileBlocks[fileNum];
 			final long len = file.getLen();
 			final long blockSize = file.getBlockSize();
+
+			if (wholeFiles[fileNum]) {
+				inputSplits.add(new FileInputSplit(splitNum++, file.getPath(), 0, READ_WHOLE_SPLIT_FLAG,
+					getAllHosts(blocks)));
+				continue;
+			}
 			
 			final long minSplitSize;
 			if (this.minSplitSize <= blockSize) {
@@ -508,10 +575,6 @@ public abstract class FileInputFormat<OT> extends RichInputFormat<OT, FileInputS
 
 			if (len > 0) {
 
-				// get the block locations and make sure they are in order with respect to their offset
-				final BlockLocation[] blocks = fs.getFileBlockLocations(file, 0, len);
-				Arrays.sort(blocks);
-
 				long bytesUnassigned = len;
 				long position = 0;
 
@@ -539,7 +602,6 @@ public abstract class FileInputFormat<OT> extends RichInputFormat<OT, FileInputS
 				}
 			} else {
 				// special case with a file of zero bytes size
-				final BlockLocation[] blocks = fs.getFileBlockLocations(file, 0, 0);
 				String[] hosts;
 				if (blocks.length > 0) {
 					hosts = blocks[0].getHosts();
@@ -561,13 +623,17 @@ public abstract class FileInputFormat<OT> extends RichInputFormat<OT, FileInputS
 	private long addFilesInDir(Path path, List<FileStatus> files, boolean logExcludedFiles)
 			throws IOException {
 		final FileSystem fs = path.getFileSystem();
+		return addFilesInDir(path, listDirectories(fs, path), files, logExcludedFiles);
+	}
 
+	private long addFilesInDir(Path path, Map<Path, FileStatus[]> listings, List<FileStatus> files,
+			boolean logExcludedFiles) {
 		long length = 0;
 
-		for(FileStatus dir: fs.listStatus(path)) {
+		for(FileStatus dir: listings.get(path)) {
 			if (dir.isDir()) {
 				if (acceptFile(dir) && enumerateNestedFiles) {
-					length += addFilesInDir(dir.getPath(), files, logExcludedFiles);
+					length += addFilesInDir(dir.getPath(), listings, files, logExcludedFiles);
 				} else {
 					if (logExcludedFiles && LOG.isDebugEnabled()) {
 						LOG.debug("Directory "+dir.getPath().toString()+" did not pass the file-filter and is excluded.");
@@ -589,15 +655,170 @@ public abstract class FileInputFormat<OT> extends RichInputFormat<OT, FileInputS
 		return length;
 	}
 
+	/**
+	 * Lists the given directory and, if nested files are enumerated, all accepted directories below it.
+	 * The directories are listed level by level, and the directories of one level concurrently.
+	 *
+	 * @return The contents of each listed directory.
+	 */
+	private Map<Path, FileStatus[]> listDirectories(final FileSystem fs, Path root) throws IOException {
+		final Map<Path, FileStatus[]> listings = new HashMap<Path, FileStatus[]>();
+
+		List<Path> level = Collections.singletonList(root);
+		while (!level.isEmpty()) {
+			final FileStatus[][] levelListings = runConcurrently(level, new FileStatus[level.size()][],
+				new EnumerationCall<Path, FileStatus[]>() {
+					@Override
+					public FileStatus[] call(Path dir) throws IOException {
+						return fs.listStatus(dir);
+					}
+				});
+
+			final List<Path> nextLevel = new ArrayList<Path>();
+			for (int i = 0; i < levelListings.length; i++) {
+				listings.put(level.get(i), levelListings[i]);
+
+				if (enumerateNestedFiles) {
+					for (FileStatus status : levelListings[i]) {
+						if (status.isDir() && acceptFile(status)) {
+							nextLevel.add(status.getPath());
+						}
+					}
+				}
+			}
+			level = nextLevel;
+		}
+		return listings;
+	}
+
+	/**
+	 * Gets the block locations of the given files, ordered by their offset. The locations are taken from the
+	 * block location cache if the files did not change since their locations were last fetched.
+	 */
+	private BlockLocation[][] getFileBlockLocations(final FileSystem fs, List<FileStatus> files) throws IOException {
+		final BlockLocationCache cache = BLOCK_LOCATION_CACHE;
+
+		return runConcurrently(files, new BlockLocation[files.size()][],
+			new EnumerationCall<FileStatus, BlockLocation[]>() {
+				@Override
+				public BlockLocation[] call(FileStatus file) throws IOException {
+					return cache.getFileBlockLocations(fs, file);
+				}
+			});
+	}
+
+	/**
+	 * Checks which of the given files are compressed and need to be decompressed as a whole. Compressed files
+	 * whose {@link SplittableInflaterInputStreamFactory} reports them as splittable are split like other files.
+	 */
+	private boolean[] findUnsplittableCompressedFiles(final FileSystem fs, List<FileStatus> files) throws IOException {
+		final Boolean[] unsplittableFiles = runConcurrently(files, new Boolean[files.size()],
+			new EnumerationCall<FileStatus, Boolean>() {
+				@Override
+				public Boolean call(FileStatus file) throws IOException {
+					final InflaterInputStreamFactory<?> factory = getInflaterInputStreamFactory(file.getPath());
+					if (factory == null) {
+						return false;
+					} else if (!(factory instanceof SplittableInflaterInputStreamFactory)) {
+						return true;
+					}
+
+					final FSDataInputStream in = fs.open(file.getPath());
+					try {
+						return !((SplittableInflaterInputStreamFactory<?>) factory).isSplittable(in);
+					} finally {
+						in.close();
+					}
+				}
+			});
+
+		final boolean[] result = new boolean[unsplittableFiles.length];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = unsplittableFiles[i];
+		}
+		return result;
+	}
+
+	private static String[] getAllHosts(BlockLocation[] blocks) throws IOException {
+		final Set<String> hosts = new HashSet<String>();
+		for (BlockLocation block : blocks) {
+			hosts.addAll(Arrays.asList(block.getHosts()));
+		}
+		return hosts.toArray(new String[hosts.size()]);
+	}
+
+	/**
+	 * Applies the call to all inputs, using up to {@link #splitEnumerationThreads} threads, and stores the
+	 * results in the given array in the order of the inputs.
+	 */
+	private <I, O> O[] runConcurrently(final List<I> inputs, final O[] results,
+			final EnumerationCall<I, O> enumerationCall) throws IOException {
+
+		final int numThreads = Math.min(this.splitEnumerationThreads, inputs.size());
+		if (numThreads <= 1) {
+			for (int i = 0; i < results.length; i++) {
+				results[i] = enumerationCall.call(inputs.get(i));
+			}
+			return results;
+		}
+
+		final ExecutorService executor = Executors.newFixedThreadPool(numThreads, SPLIT_ENUMERATION_THREAD_FACTORY);
+		try {
+			final AtomicInteger nextInput = new AtomicInteger();
+			final List<Future<Void>> futures = new ArrayList<Future<Void>>(numThreads);
+
+			for (int t = 0; t < numThreads; t++) {
+				futures.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						int i;
+						while ((i = nextInput.getAndIncrement()) < results.length) {
+							results[i] = enumerationCall.call(inputs.get(i));
+						}
+						return null;
+					}
+				}));
+			}
+
+			for (Future<Void> future : futures) {
+				try {
+					future.get();
+				}
+				catch (ExecutionException e) {
+					final Throwable cause = e.getCause();
+					if (cause instanceof IOException) {
+						throw (IOException) cause;
+					} else if (cause instanceof RuntimeException) {
+						throw (RuntimeException) cause;
+					} else if (cause instanceof Error) {
+						throw (Error) cause;
+					} else {
+						throw new IOException("Enumerating the input splits failed.", cause);
+					}
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException("Interrupted while enumerating the input splits.");
+				}
+			}
+			return results;
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
 	protected boolean testForUnsplittable(FileStatus pathFile) {
-		if(getInflaterInputStreamFactory(pathFile.getPath()) != null) {
+		// files of splittable compression formats are checked when creating the splits
+		InflaterInputStreamFactory<?> factory = getInflaterInputStreamFactory(pathFile.getPath());
+		if(factory != null && !(factory instanceof SplittableInflaterInputStreamFactory)) {
 			unsplittable = true;
 			return true;
 		}
 		return false;
 	}
 
-	private InflaterInputStreamFactory<?> getInflaterInputStreamFactory(Path path) {
+	protected InflaterInputStreamFactory<?> getInflaterInputStreamFactory(Path path) {
 		String fileExtension = extractFileExtension(path.getName());
 		if (fileExtension != null) {
 			return getInflaterInputStreamFactory(fileExtension);
@@ -693,6 +914,9 @@ public abstract class FileInputFormat<OT> extends RichInputFormat<OT, FileInputS
 	 * When overriding this method, also consider adapting {@link FileInputFormat#testForUnsplittable} if your
 	 * stream decoration renders the input file unsplittable. Also consider calling existing superclass implementations.
 	 *
+	 * <p>Splits of files in a splittable compression format are ranges of compressed bytes. For these, the
+	 * split length is set to the number of decompressed bytes in the split.
+	 *
 	 * @param inputStream is the input stream to decorated
 	 * @param fileSplit   is the file split for which the input stream shall be decorated
 	 * @return the decorated input stream
@@ -703,6 +927,18 @@ public abstract class FileInputFormat<OT> extends RichInputFormat<OT, FileInputS
 		// Wrap stream in a extracting (decompressing) stream if file ends with a known compression file extension.
 		InflaterInputStreamFactory<?> inflaterInputStreamFactory = getInflaterInputStreamFactory(fileSplit.getPath());
 		if (inflaterInputStreamFactory != null) {
+			if (inflaterInputStreamFactory instanceof SplittableInflaterInputStreamFactory &&
+					fileSplit.getLength() != READ_WHOLE_SPLIT_FLAG) {
+				final SplittableInflaterInputStreamFactory<?> splittableFactory =
+					(SplittableInflaterInputStreamFactory<?>) inflaterInputStreamFactory;
+
+				if (splittableFactory.isSplittable(inputStream)) {
+					this.splitLength = splittableFactory.getDecompressedLength(inputStream,
+						fileSplit.getStart(), fileSplit.getLength());
+					return splittableFactory.createSplitInputStream(inputStream, fileSplit.getStart());
+				}
+				inputStream.seek(0);
+			}
 			return new InputStreamFSInputWrapper(inflaterInputStreamFactory.create(stream));
 		}
 
@@ -923,4 +1159,28 @@ public abstract class FileInputFormat<OT> extends RichInputFormat<OT, FileInputS
 	 * The config parameter which defines whether input directories are recursively traversed.
 	 */
 	public static final String ENUMERATE_NESTED_FILES_FLAG = "recursive.file.enumeration";
+
+	// --------------------------------------------------------------------------------------------
+	//  Split enumeration utilities
+	// --------------------------------------------------------------------------------------------
+
+	/**
+	 * A file system call made for each directory or file while enumerating the input splits.
+	 */
+	private interface EnumerationCall<I, O> {
+
+		O call(I input) throws IOException;
+	}
+
+	private static final ThreadFactory SPLIT_ENUMERATION_THREAD_FACTORY = new ThreadFactory() {
+
+		private final AtomicInteger threadNumber = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "Flink split enumeration thread " + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	};
 }
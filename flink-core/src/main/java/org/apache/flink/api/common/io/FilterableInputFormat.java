@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.common.io;
+
+import java.util.List;
+
+import org.apache.flink.annotation.Experimental;
+
+/**
+ * Optional interface for input formats that can skip records which do not satisfy simple
+ * predicates, for example by pushing them into a database query or a scan filter, so that those
+ * records are not read at all.
+ *
+ * <p>The predicates are a hint: a format may apply only some of them, or none at all. The program
+ * still filters the records that the format produces, so the result is correct in either case.
+ *
+ * @see FieldPredicate
+ */
+@Experimental
+public interface FilterableInputFormat {
+
+	/**
+	 * Sets the predicates that the records produced by this format have to satisfy. The predicates
+	 * form a conjunction. Their field positions refer to the fields of the records that the format
+	 * produces without a projection, also if the format is a {@link ProjectableInputFormat} that
+	 * produces only some of the fields.
+	 *
+	 * <p>A format must only skip records for which it is certain that the program's filter would
+	 * discard them. A predicate that the format cannot evaluate exactly as
+	 * {@link FieldPredicate#evaluate(Object)} does on the produced field values must be ignored,
+	 * or relaxed such that it keeps every record that satisfies it.
+	 *
+	 * <p>This method is called before the format is configured.
+	 *
+	 * @param predicates The conjunctive predicates.
+	 */
+	void setPredicates(List<FieldPredicate> predicates);
+}
@@ -26,6 +26,7 @@ import com.google.common.primitives.Ints;
 import org.apache.flink.annotation.Public;
 import org.apache.flink.core.fs.FileInputSplit;
 import org.apache.flink.core.fs.Path;
+import org.apache.flink.types.parser.ByteScanner;
 import org.apache.flink.types.parser.FieldParser;
 import org.apache.flink.types.parser.StringParser;
 import org.apache.flink.types.parser.StringValueParser;
@@ -444,12 +445,8 @@ public abstract class GenericCsvInputFormat<OT> extends DelimitedInputFormat<OT>
 
 			// quoted string parsing enabled and field is quoted
 			// search for ending quote character, continue when it is escaped
-			i++;
-
-			while (i < limit && (bytes[i] != quoteCharacter || bytes[i-1] == BACKSLASH)){
-				i++;
-			}
-			i++;
+			i = ByteScanner.indexOfUnescaped(bytes, i + 1, limit, quoteCharacter, BACKSLASH);
+			i = (i < 0 ? limit : i) + 1;
 
 			if (i == limit) {
 				// we are at the end of the record
@@ -463,11 +460,9 @@ public abstract class GenericCsvInputFormat<OT> extends DelimitedInputFormat<OT>
 			}
 		} else {
 			// field is not quoted
-			while(i < delimLimit && !FieldParser.delimiterNext(bytes, i, delim)) {
-				i++;
-			}
+			i = ByteScanner.indexOf(bytes, i, limit, delim);
 
-			if (i >= delimLimit) {
+			if (i < 0) {
 				// no delimiter found. We are at the end of the record
 				return limit;
 			} else {
@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.common.io;
+
+import org.apache.flink.annotation.Experimental;
+
+/**
+ * Optional interface for input formats that produce tuples and can read only some of the fields
+ * of their records, for example by selecting only some columns of a database query.
+ *
+ * <p>Once a projection is set, the format produces tuples that consist only of the projected
+ * fields, in the order in which they are given. Programs that project the records of such a
+ * format directly after reading them have the projection applied by the format instead.
+ */
+@Experimental
+public interface ProjectableInputFormat {
+
+	/**
+	 * Sets the fields that the format produces. The positions refer to the fields of the tuples
+	 * that the format produces without a projection. This method is called before the format is
+	 * configured.
+	 *
+	 * @param fields The positions of the fields to produce, in the order in which they are produced.
+	 */
+	void setProjectedFields(int[] fields);
+}
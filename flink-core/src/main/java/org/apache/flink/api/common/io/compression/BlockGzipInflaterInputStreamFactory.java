@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.flink.api.common.io.compression;
+
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.types.parser.ByteScanner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Factory for input streams that decompress the GZIP compression format, and that split files in the
+ * blocked GZIP format (BGZF) at block boundaries.
+ *
+ * <p>A BGZF file is a series of GZIP members of at most 64 KiBytes each, whose headers carry the size of
+ * the member in an extra field. Such files are valid GZIP files and are decompressed as a whole by any
+ * GZIP implementation. But since the members can also be found and decompressed individually, a BGZF file
+ * can be split. Splitting requires the block headers to carry only the block size in their extra field,
+ * as written by bgzip and htslib. Files written by other GZIP implementations are not splittable and are
+ * decompressed as a whole.
+ */
+public class BlockGzipInflaterInputStreamFactory implements SplittableInflaterInputStreamFactory<GZIPInputStream> {
+
+	/** The maximum size of a block, compressed as well as decompressed. */
+	static final int MAX_BLOCK_SIZE = 64 * 1024;
+
+	/** The length of the fixed part of a GZIP member header, up to and including the extra field length. */
+	static final int FIXED_HEADER_LENGTH = 12;
+
+	/** The length of a block header with only the block size in the extra field, as written by common tools. */
+	private static final int STANDARD_HEADER_LENGTH = 18;
+
+	private static final byte GZIP_ID1 = 31;
+
+	private static final byte GZIP_ID2 = (byte) 139;
+
+	private static final byte GZIP_CM_DEFLATE = 8;
+
+	private static final int GZIP_FLAG_EXTRA = 4;
+
+	private static BlockGzipInflaterInputStreamFactory INSTANCE = null;
+
+	public static BlockGzipInflaterInputStreamFactory getInstance() {
+		if (INSTANCE == null) {
+			INSTANCE = new BlockGzipInflaterInputStreamFactory();
+		}
+		return INSTANCE;
+	}
+
+	@Override
+	public GZIPInputStream create(InputStream in) throws IOException {
+		return new GZIPInputStream(in);
+	}
+
+	@Override
+	public Collection<String> getCommonFileExtensions() {
+		return Arrays.asList("gz", "gzip", "bgz");
+	}
+
+	@Override
+	public boolean isSplittable(FSDataInputStream in) throws IOException {
+		final byte[] header = new byte[STANDARD_HEADER_LENGTH];
+		return readFully(in, header, 0, header.length) == header.length && header[0] == GZIP_ID1 &&
+				isStandardBlockHeader(header, 0);
+	}
+
+	@Override
+	public long getDecompressedLength(FSDataInputStream in, long start, long length) throws IOException {
+		final byte[] buffer = new byte[2 * MAX_BLOCK_SIZE];
+
+		long blockStart = findBlockStart(in, start, buffer);
+		if (blockStart < 0) {
+			return 0;
+		}
+
+		final long end = start + length;
+		long decompressedLength = 0;
+
+		// the sizes of the blocks are in their headers and trailers, no need to decompress them
+		while (blockStart < end) {
+			in.seek(blockStart);
+			final int blockSize = readBlockSize(in, buffer);
+			if (blockSize < 0) {
+				break;
+			} else if (blockSize == 0) {
+				throw new IOException("Invalid header of the compressed block at position " + blockStart + '.');
+			}
+
+			in.seek(blockStart + blockSize - 4);
+			if (readFully(in, buffer, 0, 4) < 4) {
+				throw new IOException("Truncated compressed block at position " + blockStart + '.');
+			}
+			decompressedLength += readIntLittleEndian(buffer, 0) & 0xffffffffL;
+			blockStart += blockSize;
+		}
+		return decompressedLength;
+	}
+
+	@Override
+	public FSDataInputStream createSplitInputStream(FSDataInputStream in, long start) throws IOException {
+		final long blockStart = findBlockStart(in, start, new byte[2 * MAX_BLOCK_SIZE]);
+		if (blockStart >= 0) {
+			in.seek(blockStart);
+		}
+		return new BlockGzipInputStream(in, start, blockStart < 0);
+	}
+
+	// --------------------------------------------------------------------------------------------
+	//  Block format
+	// --------------------------------------------------------------------------------------------
+
+	/**
+	 * Finds the first block that starts at or after the given position. Candidates are recognized by the
+	 * magic bytes of a standard block header, and confirmed by another block header (or the end of the file)
+	 * directly following the candidate block.
+	 *
+	 * @return the position of the block, or -1, if no block starts at or after the given position
+	 */
+	static long findBlockStart(FSDataInputStream in, long start, byte[] buffer) throws IOException {
+		if (start == 0) {
+			return 0;
+		}
+
+		// a block starts within each block size of bytes, unless the file ends
+		in.seek(start);
+		final int windowLength = readFully(in, buffer, 0, buffer.length);
+		final int candidateLimit = windowLength - STANDARD_HEADER_LENGTH + 1;
+		final byte[] header = new byte[STANDARD_HEADER_LENGTH];
+
+		int pos = 0;
+		while (pos < candidateLimit) {
+			pos = ByteScanner.indexOf(buffer, pos, candidateLimit, GZIP_ID1);
+			if (pos < 0) {
+				break;
+			}
+
+			if (isStandardBlockHeader(buffer, pos)) {
+				final long candidate = start + pos;
+				in.seek(candidate + readShortLittleEndian(buffer, pos + 16) + 1);
+				if (readBlockSize(in, header) != 0) {
+					return candidate;
+				}
+			}
+			pos++;
+		}
+
+		if (windowLength < buffer.length) {
+			return -1;
+		} else {
+			throw new IOException("Could not find a compressed block after position " + start + '.');
+		}
+	}
+
+	/**
+	 * Reads the header of a block into the buffer.
+	 *
+	 * @return the size of the block including header and trailer, or -1, if the stream is at its end,
+	 *         or 0, if the data is not the header of a block
+	 */
+	static int readBlockSize(InputStream in, byte[] buffer) throws IOException {
+		final int read = readFully(in, buffer, 0, FIXED_HEADER_LENGTH);
+		if (read == 0) {
+			return -1;
+		} else if (read < FIXED_HEADER_LENGTH || buffer[0] != GZIP_ID1 || buffer[1] != GZIP_ID2 ||
+				buffer[2] != GZIP_CM_DEFLATE || (buffer[3] & GZIP_FLAG_EXTRA) == 0) {
+			return 0;
+		}
+
+		final int extraLength = readShortLittleEndian(buffer, 10);
+		if (FIXED_HEADER_LENGTH + extraLength > buffer.length ||
+				readFully(in, buffer, FIXED_HEADER_LENGTH, extraLength) < extraLength) {
+			return 0;
+		}
+
+		// look for the sub-field with the block size
+		int pos = FIXED_HEADER_LENGTH;
+		final int extraEnd = FIXED_HEADER_LENGTH + extraLength;
+		while (pos + 4 <= extraEnd) {
+			final int fieldLength = readShortLittleEndian(buffer, pos + 2);
+			if (buffer[pos] == 'B' && buffer[pos + 1] == 'C' && fieldLength == 2 && pos + 6 <= extraEnd) {
+				return readShortLittleEndian(buffer, pos + 4) + 1;
+			}
+			pos += 4 + fieldLength;
+		}
+		return 0;
+	}
+
+	/**
+	 * Gets the length of the block header in the buffer, as read by {@link #readBlockSize(InputStream, byte[])}.
+	 */
+	static int getHeaderLength(byte[] header) {
+		return FIXED_HEADER_LENGTH + readShortLittleEndian(header, 10);
+	}
+
+	private static boolean isStandardBlockHeader(byte[] bytes, int pos) {
+		return bytes[pos + 1] == GZIP_ID2 && bytes[pos + 2] == GZIP_CM_DEFLATE &&
+				(bytes[pos + 3] & GZIP_FLAG_EXTRA) != 0 && bytes[pos + 10] == 6 && bytes[pos + 11] == 0 &&
+				bytes[pos + 12] == 'B' && bytes[pos + 13] == 'C' && bytes[pos + 14] == 2 && bytes[pos + 15] == 0;
+	}
+
+	static int readShortLittleEndian(byte[] bytes, int pos) {
+		return (bytes[pos] & 0xff) | (bytes[pos + 1] & 0xff) << 8;
+	}
+
+	static int readIntLittleEndian(byte[] bytes, int pos) {
+		return (bytes[pos] & 0xff) | (bytes[pos + 1] & 0xff) << 8 | (bytes[pos + 2] & 0xff) << 16 |
+				(bytes[pos + 3] & 0xff) << 24;
+	}
+
+	/**
+	 * Reads the given number of bytes, unless the stream ends before.
+	 *
+	 * @return the number of bytes read
+	 */
+	static int readFully(InputStream in, byte[] buffer, int offset, int length) throws IOException {
+		int read = 0;
+		while (read < length) {
+			final int count = in.read(buffer, offset + read, length - read);
+			if (count < 0) {
+				break;
+			}
+			read += count;
+		}
+		return read;
+	}
+}
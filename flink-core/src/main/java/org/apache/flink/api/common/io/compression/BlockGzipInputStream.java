@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.flink.api.common.io.compression;
+
+import org.apache.flink.core.fs.FSDataInputStream;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static org.apache.flink.api.common.io.compression.BlockGzipInflaterInputStreamFactory.MAX_BLOCK_SIZE;
+import static org.apache.flink.api.common.io.compression.BlockGzipInflaterInputStreamFactory.getHeaderLength;
+import static org.apache.flink.api.common.io.compression.BlockGzipInflaterInputStreamFactory.readBlockSize;
+import static org.apache.flink.api.common.io.compression.BlockGzipInflaterInputStreamFactory.readFully;
+import static org.apache.flink.api.common.io.compression.BlockGzipInflaterInputStreamFactory.readIntLittleEndian;
+
+/**
+ * Decompresses the blocks of a blocked GZIP (BGZF) file one after the other, starting at the current
+ * position of the given stream. The position of this stream starts at the given value and advances with
+ * every decompressed byte. The stream can only seek forward.
+ */
+final class BlockGzipInputStream extends FSDataInputStream {
+
+	private final FSDataInputStream in;
+
+	private final Inflater inflater = new Inflater(true);
+
+	private final CRC32 crc = new CRC32();
+
+	private final byte[] compressed = new byte[MAX_BLOCK_SIZE];
+
+	private final byte[] decompressed = new byte[MAX_BLOCK_SIZE];
+
+	private int readPos;
+
+	private int limit;
+
+	private long position;
+
+	private boolean endOfStream;
+
+	BlockGzipInputStream(FSDataInputStream in, long position, boolean endOfStream) {
+		this.in = in;
+		this.position = position;
+		this.endOfStream = endOfStream;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (this.readPos == this.limit && !nextBlock()) {
+			return -1;
+		}
+		this.position++;
+		return this.decompressed[this.readPos++] & 0xff;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		if (this.readPos == this.limit && !nextBlock()) {
+			return -1;
+		}
+
+		final int count = Math.min(len, this.limit - this.readPos);
+		System.arraycopy(this.decompressed, this.readPos, b, off, count);
+		this.readPos += count;
+		this.position += count;
+		return count;
+	}
+
+	@Override
+	public void seek(long desired) throws IOException {
+		if (desired < this.position) {
+			throw new IllegalArgumentException("Decompressing stream: cannot search backwards.");
+		}
+
+		while (this.position < desired) {
+			if (this.readPos == this.limit && !nextBlock()) {
+				throw new EOFException("Unexpected EOF during forward seek.");
+			}
+			final int count = (int) Math.min(desired - this.position, this.limit - this.readPos);
+			this.readPos += count;
+			this.position += count;
+		}
+	}
+
+	@Override
+	public long getPos() throws IOException {
+		return this.position;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return this.limit - this.readPos;
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.inflater.end();
+		this.in.close();
+	}
+
+	private boolean nextBlock() throws IOException {
+		while (!this.endOfStream) {
+			final int blockSize = readBlockSize(this.in, this.compressed);
+			if (blockSize < 0) {
+				this.endOfStream = true;
+				break;
+			} else if (blockSize == 0) {
+				throw new IOException("Invalid header of a compressed block.");
+			}
+
+			final int headerLength = getHeaderLength(this.compressed);
+			if (blockSize < headerLength + 8 ||
+					readFully(this.in, this.compressed, headerLength, blockSize - headerLength) < blockSize - headerLength) {
+				throw new IOException("Truncated compressed block.");
+			}
+
+			final int size = readIntLittleEndian(this.compressed, blockSize - 4);
+			if (size < 0 || size > MAX_BLOCK_SIZE) {
+				throw new IOException("Invalid size of a compressed block: " + size);
+			}
+
+			this.inflater.reset();
+			this.inflater.setInput(this.compressed, headerLength, blockSize - headerLength - 8);
+			int count = 0;
+			try {
+				while (count < size) {
+					final int inflated = this.inflater.inflate(this.decompressed, count, size - count);
+					if (inflated == 0 && (this.inflater.finished() || this.inflater.needsInput() ||
+							this.inflater.needsDictionary())) {
+						break;
+					}
+					count += inflated;
+				}
+			}
+			catch (DataFormatException e) {
+				throw new IOException("Corrupt compressed block: " + e.getMessage(), e);
+			}
+			if (count != size) {
+				throw new IOException("Corrupt compressed block: expected " + size + " bytes, but got " + count + '.');
+			}
+
+			this.crc.reset();
+			this.crc.update(this.decompressed, 0, count);
+			if ((int) this.crc.getValue() != readIntLittleEndian(this.compressed, blockSize - 8)) {
+				throw new IOException("Corrupt compressed block: checksum mismatch.");
+			}
+
+			if (count > 0) {
+				this.readPos = 0;
+				this.limit = count;
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.flink.api.common.io.compression;
+
+import org.apache.flink.core.fs.FSDataInputStream;
+
+import java.io.IOException;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * An {@link InflaterInputStreamFactory} for compression formats whose files may consist of independently
+ * compressed blocks. Such files can be split at block boundaries and decompressed in parallel.
+ *
+ * <p>A split of such a file is a range of compressed bytes. It consists of all blocks that start within
+ * that range. The positions of the stream that decompresses a split begin at the start of the split's
+ * range and advance with every decompressed byte. This way, the decompressed data of a split can be
+ * treated like a range of an uncompressed file.
+ */
+public interface SplittableInflaterInputStreamFactory<T extends InflaterInputStream> extends InflaterInputStreamFactory<T> {
+
+	/**
+	 * Checks whether the given file consists of independently compressed blocks and can hence be split.
+	 *
+	 * @param in is the compressed input stream, positioned at the beginning of the file
+	 * @return true, if the file can be split, false if it needs to be decompressed as a whole
+	 */
+	boolean isSplittable(FSDataInputStream in) throws IOException;
+
+	/**
+	 * Computes the number of decompressed bytes in all blocks that start within the given range.
+	 *
+	 * @param in is the compressed input stream of a splittable file
+	 * @param start is the start of the range of compressed bytes
+	 * @param length is the length of the range of compressed bytes
+	 * @return the number of decompressed bytes in the range
+	 */
+	long getDecompressedLength(FSDataInputStream in, long start, long length) throws IOException;
+
+	/**
+	 * Creates a stream that decompresses the given splittable file, beginning with the first block that
+	 * starts at or after the given position. The positions of the returned stream begin at the given position.
+	 *
+	 * @param in is the compressed input stream of a splittable file
+	 * @param start is the start of the range of compressed bytes
+	 * @return the decompressing stream
+	 */
+	FSDataInputStream createSplitInputStream(FSDataInputStream in, long start) throws IOException;
+}
@@ -63,6 +63,8 @@ public class BulkIterationBase<T> extends SingleInputOperator<T, T, AbstractRich
 	
 	private int numberOfIterations = -1;
 	
+	private int maxStaleness;
+	
 	protected Operator<?> terminationCriterion;
 	
 	// --------------------------------------------------------------------------------------------
@@ -147,6 +149,25 @@ public class BulkIterationBase<T> extends SingleInputOperator<T, T, AbstractRich
 		return this.numberOfIterations;
 	}
 	
+	/**
+	 * Sets the maximum number of supersteps, by which the workers of the iteration may run ahead of the
+	 * slowest worker. With a staleness of zero (the default), all workers are synchronized after each
+	 * superstep. With a staleness of k, a worker starts superstep s as soon as superstep s - k has been
+	 * completed by all workers, and sees the global aggregates of the latest completed superstep.
+	 * 
+	 * @param maxStaleness The maximum number of supersteps a worker may run ahead.
+	 */
+	public void setMaxStaleness(int maxStaleness) {
+		if (maxStaleness < 0) {
+			throw new IllegalArgumentException("The maximum staleness must not be negative.");
+		}
+		this.maxStaleness = maxStaleness;
+	}
+	
+	public int getMaxStaleness() {
+		return this.maxStaleness;
+	}
+	
 	@Override
 	public AggregatorRegistry getAggregators() {
 		return this.aggregators;
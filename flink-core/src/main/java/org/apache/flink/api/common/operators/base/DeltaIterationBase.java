@@ -73,9 +73,16 @@ public class DeltaIterationBase<ST, WT> extends DualInputOperator<ST, WT, ST, Ab
 	 */
 	private int maxNumberOfIterations = -1;
 
+	/**
+	 * The maximum number of supersteps, by which the workers may run ahead of the slowest worker.
+	 */
+	private int maxStaleness;
+
 	private final AggregatorRegistry aggregators = new AggregatorRegistry();
 	
 	private boolean solutionSetUnManaged;
+	
+	private boolean solutionSetSpillable;
 
 	// --------------------------------------------------------------------------------------------
 
@@ -112,6 +119,25 @@ public class DeltaIterationBase<ST, WT> extends DualInputOperator<ST, WT, ST, Ab
 		return this.maxNumberOfIterations;
 	}
 	
+	/**
+	 * Sets the maximum number of supersteps, by which the workers of the iteration may run ahead of the
+	 * slowest worker.
+	 * 
+	 * @param maxStaleness The maximum number of supersteps a worker may run ahead.
+	 * 
+	 * @see BulkIterationBase#setMaxStaleness(int)
+	 */
+	public void setMaxStaleness(int maxStaleness) {
+		if (maxStaleness < 0) {
+			throw new IllegalArgumentException("The maximum staleness must not be negative.");
+		}
+		this.maxStaleness = maxStaleness;
+	}
+	
+	public int getMaxStaleness() {
+		return this.maxStaleness;
+	}
+	
 	@Override
 	public AggregatorRegistry getAggregators() {
 		return this.aggregators;
@@ -270,6 +296,30 @@ public class DeltaIterationBase<ST, WT> extends DualInputOperator<ST, WT, ST, Ab
 		return solutionSetUnManaged;
 	}
 	
+	/**
+	 * Sets whether the solution set may spill partitions to disk, if it does not fit into its managed memory.
+	 * Spilled partitions are read back into memory when they are probed. This setting has no effect, if the
+	 * solution set is kept in unmanaged memory.
+	 * 
+	 * @param solutionSetSpillable True to let the solution set spill to disk, false to keep it completely in memory.
+	 * 
+	 * @see #isSolutionSetSpillable()
+	 */
+	public void setSolutionSetSpillable(boolean solutionSetSpillable) {
+		this.solutionSetSpillable = solutionSetSpillable;
+	}
+	
+	/**
+	 * Gets whether the solution set may spill partitions to disk.
+	 * 
+	 * @return True, if the solution set may spill to disk, false if it is kept completely in memory.
+	 * 
+	 * @see #setSolutionSetSpillable(boolean)
+	 */
+	public boolean isSolutionSetSpillable() {
+		return solutionSetSpillable;
+	}
+	
 	// --------------------------------------------------------------------------------------------
 	// Place-holder Operators
 	// --------------------------------------------------------------------------------------------
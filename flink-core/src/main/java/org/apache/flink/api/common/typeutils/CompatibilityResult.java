@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.common.typeutils;
+
+/**
+ * The result of checking whether data written by a previous serializer can be read by the current
+ * serializer, see {@link TypeSerializer#ensureCompatibility(TypeSerializerConfigSnapshot)}.
+ *
+ * <p>There are three possible outcomes:
+ * <ul>
+ *     <li>The data is compatible and can be read directly with the current serializer.</li>
+ *     <li>The data requires migration, and a {@link ConvertDeserializer} is given that reads the
+ *         data in the previous format and converts it into instances of the current format.</li>
+ *     <li>The data requires migration, but no convert deserializer is available. The data can
+ *         not be read with the current serializer.</li>
+ * </ul>
+ *
+ * @param <T> The type of the data.
+ */
+public final class CompatibilityResult<T> {
+
+	private static final CompatibilityResult<?> COMPATIBLE = new CompatibilityResult<>(false, null);
+
+	private static final CompatibilityResult<?> INCOMPATIBLE = new CompatibilityResult<>(true, null);
+
+	/** Whether the data needs to be migrated before it can be used with the current serializer */
+	private final boolean requiresMigration;
+
+	/** The deserializer that reads the data in the previous format, may be null */
+	private final TypeSerializer<T> convertDeserializer;
+
+	private CompatibilityResult(boolean requiresMigration, TypeSerializer<T> convertDeserializer) {
+		this.requiresMigration = requiresMigration;
+		this.convertDeserializer = convertDeserializer;
+	}
+
+	/**
+	 * Checks whether the data needs to be migrated before it can be used with the current serializer.
+	 *
+	 * @return True, if the data needs to be migrated, false if it can be read directly.
+	 */
+	public boolean isRequiresMigration() {
+		return requiresMigration;
+	}
+
+	/**
+	 * Gets the deserializer that reads data in the previous format and converts it into the format
+	 * of the current serializer. This is only set if the data requires migration.
+	 *
+	 * @return The convert deserializer, or null, if the data cannot be migrated.
+	 */
+	public TypeSerializer<T> getConvertDeserializer() {
+		return convertDeserializer;
+	}
+
+	// --------------------------------------------------------------------------------------------
+
+	/**
+	 * Creates a result that indicates that the data can be read directly by the current serializer.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> CompatibilityResult<T> compatible() {
+		return (CompatibilityResult<T>) COMPATIBLE;
+	}
+
+	/**
+	 * Creates a result that indicates that the data must be migrated with the given convert
+	 * deserializer before it can be used with the current serializer.
+	 *
+	 * @param convertDeserializer The deserializer that reads the data in the previous format.
+	 */
+	public static <T> CompatibilityResult<T> requiresMigration(TypeSerializer<T> convertDeserializer) {
+		return convertDeserializer == null ?
+				CompatibilityResult.<T>incompatible() :
+				new CompatibilityResult<T>(true, convertDeserializer);
+	}
+
+	/**
+	 * Creates a result that indicates that the data cannot be read by the current serializer.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> CompatibilityResult<T> incompatible() {
+		return (CompatibilityResult<T>) INCOMPATIBLE;
+	}
+
+	@Override
+	public String toString() {
+		return !requiresMigration ? "compatible" :
+				(convertDeserializer == null ? "incompatible" : "requires migration with " + convertDeserializer);
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.common.typeutils;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+
+/**
+ * A configuration snapshot for serializers of composite types whose serialization format is
+ * determined by the serialized type and the serializers of the nested fields, such as tuples.
+ */
+public class CompositeTypeSerializerConfigSnapshot extends TypeSerializerConfigSnapshot {
+
+	private static final long serialVersionUID = 1L;
+
+	/** The name of the class of the serialized composite type */
+	private final String typeClassName;
+
+	/** The snapshots of the serializers for the nested fields */
+	private final TypeSerializerConfigSnapshot[] fieldSerializerConfigs;
+
+	/**
+	 * Creates a snapshot for the given composite type serializer.
+	 *
+	 * @param serializer The serializer of the composite type.
+	 * @param typeClass The class of the serialized composite type.
+	 * @param fieldSerializers The serializers for the nested fields.
+	 */
+	public CompositeTypeSerializerConfigSnapshot(
+			TypeSerializer<?> serializer,
+			Class<?> typeClass,
+			TypeSerializer<?>[] fieldSerializers) {
+
+		this(serializer.getClass().getName(), typeClass.getName(), snapshotConfigurations(fieldSerializers));
+	}
+
+	/**
+	 * Creates a snapshot from the given class names and field serializer snapshots.
+	 *
+	 * @param serializerClassName The name of the class of the composite type serializer.
+	 * @param typeClassName The name of the class of the serialized composite type.
+	 * @param fieldSerializerConfigs The snapshots of the serializers for the nested fields.
+	 */
+	public CompositeTypeSerializerConfigSnapshot(
+			String serializerClassName,
+			String typeClassName,
+			TypeSerializerConfigSnapshot[] fieldSerializerConfigs) {
+
+		super(serializerClassName);
+		this.typeClassName = Preconditions.checkNotNull(typeClassName);
+		this.fieldSerializerConfigs = Preconditions.checkNotNull(fieldSerializerConfigs);
+	}
+
+	private static TypeSerializerConfigSnapshot[] snapshotConfigurations(TypeSerializer<?>[] serializers) {
+		TypeSerializerConfigSnapshot[] configs = new TypeSerializerConfigSnapshot[serializers.length];
+		for (int i = 0; i < serializers.length; i++) {
+			configs[i] = Preconditions.checkNotNull(serializers[i].snapshotConfiguration());
+		}
+		return configs;
+	}
+
+	/**
+	 * Gets the name of the class of the serialized composite type.
+	 *
+	 * @return The name of the serialized class.
+	 */
+	public String getTypeClassName() {
+		return typeClassName;
+	}
+
+	/**
+	 * Gets the snapshots of the serializers for the nested fields.
+	 *
+	 * @return The snapshots of the field serializers.
+	 */
+	public TypeSerializerConfigSnapshot[] getFieldSerializerConfigs() {
+		return fieldSerializerConfigs;
+	}
+
+	// --------------------------------------------------------------------------------------------
+
+	@Override
+	public boolean equals(Object obj) {
+		if (super.equals(obj)) {
+			CompositeTypeSerializerConfigSnapshot other = (CompositeTypeSerializerConfigSnapshot) obj;
+			return typeClassName.equals(other.typeClassName) &&
+					Arrays.equals(fieldSerializerConfigs, other.fieldSerializerConfigs);
+		}
+		else {
+			return false;
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (31 * super.hashCode() + typeClassName.hashCode()) + Arrays.hashCode(fieldSerializerConfigs);
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.common.typeutils;
+
+import com.google.common.base.Preconditions;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+
+import java.io.IOException;
+
+/**
+ * Base class for deserializers that read data in the format of a previous version of a serializer
+ * and convert it into instances as created by the current serializer. Convert deserializers are
+ * returned as part of a {@link CompatibilityResult} and are only used to migrate existing data,
+ * for example when restoring state. They cannot write data; migrated data is always written
+ * with the current serializer.
+ *
+ * @param <T> The type of the data.
+ */
+public abstract class ConvertDeserializer<T> extends TypeSerializer<T> {
+
+	private static final long serialVersionUID = 1L;
+
+	/** The current serializer, which creates and copies the instances */
+	protected final TypeSerializer<T> currentSerializer;
+
+	protected ConvertDeserializer(TypeSerializer<T> currentSerializer) {
+		this.currentSerializer = Preconditions.checkNotNull(currentSerializer);
+	}
+
+	/**
+	 * Gets the current serializer, into whose format this deserializer converts the data.
+	 *
+	 * @return The current serializer.
+	 */
+	public TypeSerializer<T> getCurrentSerializer() {
+		return currentSerializer;
+	}
+
+	@Override
+	public boolean isImmutableType() {
+		return currentSerializer.isImmutableType();
+	}
+
+	@Override
+	public TypeSerializer<T> duplicate() {
+		return this;
+	}
+
+	@Override
+	public T createInstance() {
+		return currentSerializer.createInstance();
+	}
+
+	@Override
+	public T copy(T from) {
+		return currentSerializer.copy(from);
+	}
+
+	@Override
+	public T copy(T from, T reuse) {
+		return currentSerializer.copy(from, reuse);
+	}
+
+	@Override
+	public int getLength() {
+		return -1;
+	}
+
+	@Override
+	public T deserialize(T reuse, DataInputView source) throws IOException {
+		return deserialize(source);
+	}
+
+	@Override
+	public void serialize(T record, DataOutputView target) throws IOException {
+		throw new UnsupportedOperationException("A convert deserializer cannot write data.");
+	}
+
+	@Override
+	public void copy(DataInputView source, DataOutputView target) throws IOException {
+		throw new UnsupportedOperationException("A convert deserializer cannot write data.");
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj == this;
+	}
+
+	@Override
+	public boolean canEqual(Object obj) {
+		return obj == this;
+	}
+
+	@Override
+	public int hashCode() {
+		return System.identityHashCode(this);
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " to " + currentSerializer;
+	}
+}
@@ -147,6 +147,45 @@ public abstract class TypeSerializer<T> implements Serializable {
 	 */
 	public abstract void copy(DataInputView source, DataOutputView target) throws IOException;
 
+	// --------------------------------------------------------------------------------------------
+	// Serialization format snapshots and compatibility
+	// --------------------------------------------------------------------------------------------
+
+	/**
+	 * Creates a snapshot of the configuration of this serializer. The snapshot is written together
+	 * with data serialized by this serializer, for example in checkpoints of key/value state, and is
+	 * used to check whether a future version of the serializer can still read the data.
+	 * 
+	 * The default snapshot only records the class of this serializer. Serializers whose format depends
+	 * on their configuration (for example on the serialized type or on nested serializers) should
+	 * override this method together with {@link #ensureCompatibility(TypeSerializerConfigSnapshot)}.
+	 * 
+	 * @return A snapshot of the configuration of this serializer.
+	 */
+	public TypeSerializerConfigSnapshot snapshotConfiguration() {
+		return new TypeSerializerConfigSnapshot(getClass().getName());
+	}
+
+	/**
+	 * Checks whether data that was written by a serializer with the given configuration can be read
+	 * by this serializer. The result states whether the data can be read directly, or whether it must
+	 * be migrated, possibly through a {@link ConvertDeserializer} that reads the previous format.
+	 * 
+	 * The default implementation considers data written by a serializer of the same class as compatible.
+	 * 
+	 * @param configSnapshot The configuration snapshot of the serializer that wrote the data.
+	 * @return The result of the compatibility check.
+	 */
+	public CompatibilityResult<T> ensureCompatibility(TypeSerializerConfigSnapshot configSnapshot) {
+		if (configSnapshot != null && configSnapshot.getClass() == TypeSerializerConfigSnapshot.class &&
+				getClass().getName().equals(configSnapshot.getSerializerClassName())) {
+			return CompatibilityResult.compatible();
+		}
+		else {
+			return CompatibilityResult.incompatible();
+		}
+	}
+
 	public abstract boolean equals(Object obj);
 
 	/**
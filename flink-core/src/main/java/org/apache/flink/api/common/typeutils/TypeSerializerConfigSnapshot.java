@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.common.typeutils;
+
+import com.google.common.base.Preconditions;
+
+import java.io.Serializable;
+
+/**
+ * A snapshot of the configuration of a {@link TypeSerializer}. The snapshot is written together with
+ * data that was serialized by the serializer (for example into a checkpoint of key/value state). When
+ * the data is read again, possibly by a newer version of the serializer, the snapshot is passed to
+ * {@link TypeSerializer#ensureCompatibility(TypeSerializerConfigSnapshot)} to check whether the data
+ * can be read directly or needs to be migrated.
+ *
+ * <p>Snapshots are deserialized before it is known whether the user types are still compatible.
+ * They should therefore not hold references to user classes, but only class names, primitive values,
+ * and nested snapshots.
+ *
+ * <p>The base snapshot only records the serializer class and is used by serializers that do not
+ * have any configuration that affects their serialization format.
+ */
+public class TypeSerializerConfigSnapshot implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** The name of the class of the serializer that created this snapshot */
+	private final String serializerClassName;
+
+	/** The version of the serialization format described by this snapshot */
+	private final int version;
+
+	/**
+	 * Creates a snapshot for a serializer without any format-relevant configuration.
+	 *
+	 * @param serializerClassName The name of the class of the serializer.
+	 */
+	public TypeSerializerConfigSnapshot(String serializerClassName) {
+		this(serializerClassName, 0);
+	}
+
+	/**
+	 * Creates a snapshot for a serializer with the given format version.
+	 *
+	 * @param serializerClassName The name of the class of the serializer.
+	 * @param version The version of the serialization format.
+	 */
+	protected TypeSerializerConfigSnapshot(String serializerClassName, int version) {
+		this.serializerClassName = Preconditions.checkNotNull(serializerClassName);
+		this.version = version;
+	}
+
+	/**
+	 * Gets the name of the class of the serializer that created this snapshot.
+	 *
+	 * @return The name of the serializer class.
+	 */
+	public String getSerializerClassName() {
+		return serializerClassName;
+	}
+
+	/**
+	 * Gets the version of the serialization format described by this snapshot.
+	 *
+	 * @return The version of the serialization format.
+	 */
+	public int getVersion() {
+		return version;
+	}
+
+	// --------------------------------------------------------------------------------------------
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this) {
+			return true;
+		}
+		else if (obj != null && obj.getClass() == getClass()) {
+			TypeSerializerConfigSnapshot other = (TypeSerializerConfigSnapshot) obj;
+			return serializerClassName.equals(other.serializerClassName) && version == other.version;
+		}
+		else {
+			return false;
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * serializerClassName.hashCode() + version;
+	}
+
+	@Override
+	public String toString() {
+		return serializerClassName + " (version " + version + ')';
+	}
+}
@@ -20,6 +20,7 @@ package org.apache.flink.api.common.typeutils.base.array;
 import static java.lang.Math.min;
 import org.apache.flink.api.common.typeutils.TypeComparator;
 import org.apache.flink.api.common.typeutils.base.ByteComparator;
+import org.apache.flink.core.memory.MemorySegment;
 
 public class BytePrimitiveArrayComparator extends PrimitiveArrayComparator<byte[], ByteComparator> {
 	public BytePrimitiveArrayComparator(boolean ascending) {
@@ -47,6 +48,35 @@ public class BytePrimitiveArrayComparator extends PrimitiveArrayComparator<byte[
 		return ascending ? cmp : -cmp;
 	}
 
+	@Override
+	public boolean supportsNormalizedKey() {
+		return true;
+	}
+
+	@Override
+	public int getNormalizeKeyLen() {
+		return Integer.MAX_VALUE;
+	}
+
+	@Override
+	public boolean isNormalizedKeyPrefixOnly(int keyBytes) {
+		return true;
+	}
+
+	@Override
+	public void putNormalizedKey(byte[] record, MemorySegment target, int offset, int numBytes) {
+		// flip the sign bit so that the signed byte order becomes the unsigned byte order,
+		// shorter arrays are padded with zeros, which sorts them before their extensions
+		final int limit = offset + numBytes;
+		final int len = min(record.length, numBytes);
+		for (int i = 0; i < len; i++) {
+			target.put(offset++, (byte) (record[i] ^ 0x80));
+		}
+		while (offset < limit) {
+			target.put(offset++, (byte) 0);
+		}
+	}
+
 	@Override
 	public TypeComparator<byte[]> duplicate() {
 		BytePrimitiveArrayComparator dupe = new BytePrimitiveArrayComparator(this.ascending);
@@ -159,6 +159,12 @@ public final class ConfigConstants {
 	 */
 	public static final String TASK_MANAGER_NETWORK_DEFAULT_IO_MODE = "taskmanager.network.defaultIOMode";
 
+	/**
+	 * Flag indicating whether blocking intermediate results write the data of all subpartitions
+	 * into a single file per producer instead of one spill file per subpartition.
+	 */
+	public static final String TASK_MANAGER_NETWORK_SORT_MERGE_BLOCKING_SHUFFLE = "taskmanager.network.sortMergeBlockingShuffle";
+
 	/**
 	 * The config parameter defining the number of task slots of a task manager.
 	 */
@@ -198,6 +204,12 @@ public final class ConfigConstants {
 	 * Parameter to switch hash join bloom filters for spilled partitions on and off.
 	 */
 	public static final String RUNTIME_HASH_JOIN_BLOOM_FILTERS_KEY = "taskmanager.runtime.hashjoin-bloom-filters";
+
+	/**
+	 * Parameter to switch on the adaptive hash join, which chooses the build side, or falls back to
+	 * a sort-merge join, after having seen the actual sizes of the inputs.
+	 */
+	public static final String RUNTIME_HASH_JOIN_ADAPTIVE_KEY = "taskmanager.runtime.hashjoin-adaptive";
 	
 	/**
 	 * The config parameter defining the timeout for filesystem stream opening.
@@ -312,6 +324,29 @@ public final class ConfigConstants {
 	 */
 	public static final String FILESYSTEM_OUTPUT_ALWAYS_CREATE_DIRECTORY_KEY = "fs.output.always-create-directory";
 
+	/**
+	 * Key for the number of threads that list directories and fetch block locations concurrently when
+	 * file input formats create their input splits.
+	 */
+	public static final String FILESYSTEM_SPLIT_ENUMERATION_THREADS_KEY = "fs.input.split-enumeration-threads";
+
+	/**
+	 * Key for the maximum number of files whose block locations are cached between the creation of input
+	 * splits, for example across job submissions. A value of 0 disables the cache.
+	 */
+	public static final String FILESYSTEM_BLOCK_LOCATION_CACHE_SIZE_KEY = "fs.input.block-location-cache-size";
+
+	/**
+	 * Key for the size of the buffer in which input streams of the local file system read ahead.
+	 * A value of 0 disables the read-ahead.
+	 */
+	public static final String LOCAL_FS_READ_AHEAD_SIZE_KEY = "fs.local.read-ahead-size";
+
+	/**
+	 * Key to specify whether input streams of the local file system map the files into memory.
+	 */
+	public static final String LOCAL_FS_MEMORY_MAPPED_INPUT_KEY = "fs.local.memory-mapped-input";
+
 	// ---------------------------- Compiler -------------------------------
 
 	/**
@@ -330,6 +365,13 @@ public final class ConfigConstants {
 	 * The maximum length of a single sampled record before the sampling is aborted.
 	 */
 	public static final String DELIMITED_FORMAT_MAX_SAMPLE_LENGTH_KEY = "compiler.delimited-informat.max-sample-len";
+
+	/**
+	 * The directory, in which the statistics of the operators observed during job executions are
+	 * kept. If set, the runtime collects the output statistics of the operators and the optimizer
+	 * uses them for subsequent submissions of the same program.
+	 */
+	public static final String RUNTIME_STATISTICS_DIRECTORY_KEY = "compiler.runtime-statistics.dir";
 	
 	
 	// ------------------------- JobManager Web Frontend ----------------------
@@ -581,6 +623,11 @@ public final class ConfigConstants {
 	 */
 	public static final String DEFAULT_TASK_MANAGER_NETWORK_DEFAULT_IO_MODE = "sync";
 
+	/**
+	 * By default, blocking intermediate results use one spill file per subpartition.
+	 */
+	public static final boolean DEFAULT_TASK_MANAGER_NETWORK_SORT_MERGE_BLOCKING_SHUFFLE = false;
+
 	/**
 	 * Flag indicating whether to start a thread, which repeatedly logs the memory usage of the JVM.
 	 */
@@ -607,6 +654,11 @@ public final class ConfigConstants {
 	 * Default setting for the switch for hash join bloom filters for spilled partitions.
 	 */
 	public static final boolean DEFAULT_RUNTIME_HASH_JOIN_BLOOM_FILTERS = false;
+
+	/**
+	 * Default setting for the switch for the adaptive hash join.
+	 */
+	public static final boolean DEFAULT_RUNTIME_HASH_JOIN_ADAPTIVE = false;
 	
 	/**
 	 * The default value for the maximum spilling fan in/out.
@@ -655,6 +707,26 @@ public final class ConfigConstants {
 	 * The default behavior for output directory creating (create only directory when parallelism &gt; 1).
 	 */
 	public static final boolean DEFAULT_FILESYSTEM_ALWAYS_CREATE_DIRECTORY = false;
+
+	/**
+	 * The default number of threads that enumerate the input splits of file input formats.
+	 */
+	public static final int DEFAULT_FILESYSTEM_SPLIT_ENUMERATION_THREADS = 8;
+
+	/**
+	 * The default maximum number of files whose block locations are cached.
+	 */
+	public static final int DEFAULT_FILESYSTEM_BLOCK_LOCATION_CACHE_SIZE = 100000;
+
+	/**
+	 * The default size of the read-ahead buffer of local file system input streams (64 KiBytes).
+	 */
+	public static final int DEFAULT_LOCAL_FS_READ_AHEAD_SIZE = 64 * 1024;
+
+	/**
+	 * The default behavior for memory mapping local input files (= read them through a read-ahead buffer)
+	 */
+	public static final boolean DEFAULT_LOCAL_FS_MEMORY_MAPPED_INPUT = false;
 	
 	
 	// ---------------------------- Compiler -------------------------------
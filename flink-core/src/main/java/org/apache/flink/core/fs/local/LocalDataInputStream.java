@@ -15,20 +15,23 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
-
 package org.apache.flink.core.fs.local;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 import org.apache.flink.core.fs.FSDataInputStream;
 
 /**
  * The <code>LocalDataInputStream</code> class is a wrapper class for a data
  * input stream to the local file system.
- * 
+ * <p>
+ * With a read-ahead buffer, the stream reads the file in chunks of the buffer size into
+ * a heap byte buffer, so that small reads (as by data input views) do not each cause
+ * a system call. Reads that are at least as large as the buffer bypass it.
  */
 public class LocalDataInputStream extends FSDataInputStream {
 
@@ -37,6 +40,21 @@ public class LocalDataInputStream extends FSDataInputStream {
 	 */
 	private FileInputStream fis = null;
 
+	/**
+	 * The channel of the file input stream.
+	 */
+	private final FileChannel fileChannel;
+
+	/**
+	 * The read-ahead buffer, or <code>null</code>, if reads go directly to the file.
+	 */
+	private final ByteBuffer readAheadBuffer;
+
+	/**
+	 * The position of the file channel, if there is a read-ahead buffer.
+	 */
+	private long channelPosition;
+
 	/**
 	 * Constructs a new <code>LocalDataInputStream</code> object from a given {@link File} object.
 	 * 
@@ -46,34 +64,107 @@ public class LocalDataInputStream extends FSDataInputStream {
 	 *         thrown if the data input stream cannot be created
 	 */
 	public LocalDataInputStream(final File file) throws IOException {
+		this(file, 0);
+	}
+
+	/**
+	 * Constructs a new <code>LocalDataInputStream</code> object from a given {@link File} object.
+	 * 
+	 * @param file
+	 *        the {@link File} object the data stream is written to
+	 * @param readAheadSize
+	 *        the size of the read-ahead buffer in bytes, or 0 to read directly from the file
+	 * @throws IOException
+	 *         thrown if the data input stream cannot be created
+	 */
+	public LocalDataInputStream(final File file, final int readAheadSize) throws IOException {
+		if (readAheadSize < 0) {
+			throw new IllegalArgumentException("The read-ahead size must not be negative.");
+		}
 
 		this.fis = new FileInputStream(file);
+		this.fileChannel = this.fis.getChannel();
+
+		if (readAheadSize > 0) {
+			this.readAheadBuffer = ByteBuffer.allocate(readAheadSize);
+			this.readAheadBuffer.limit(0);
+		} else {
+			this.readAheadBuffer = null;
+		}
 	}
 
 
 	@Override
 	public void seek(final long desired) throws IOException {
-
-		this.fis.getChannel().position(desired);
+		if (this.readAheadBuffer != null) {
+			// stay within the buffered data, if possible
+			final long bufferStart = this.channelPosition - this.readAheadBuffer.limit();
+			if (desired >= bufferStart && desired <= this.channelPosition) {
+				this.readAheadBuffer.position((int) (desired - bufferStart));
+				return;
+			}
+
+			this.readAheadBuffer.limit(0);
+			this.channelPosition = desired;
+		}
+
+		this.fileChannel.position(desired);
 	}
 
 	@Override
 	public long getPos() throws IOException {
-		return this.fis.getChannel().position();
+		if (this.readAheadBuffer != null) {
+			return this.channelPosition - this.readAheadBuffer.remaining();
+		}
+		return this.fileChannel.position();
 	}
 
 
 	@Override
 	public int read() throws IOException {
-
-		return this.fis.read();
+		if (this.readAheadBuffer == null) {
+			return this.fis.read();
+		}
+
+		if (!this.readAheadBuffer.hasRemaining() && !fillReadAheadBuffer()) {
+			return -1;
+		}
+		return this.readAheadBuffer.get() & 0xff;
 	}
 
 
 	@Override
 	public int read(final byte[] buffer, final int offset, final int length) throws IOException {
-
-		return this.fis.read(buffer, offset, length);
+		if (this.readAheadBuffer == null) {
+			return this.fis.read(buffer, offset, length);
+		}
+		if (length == 0) {
+			return 0;
+		}
+
+		int read = 0;
+		while (read < length) {
+			final int remaining = this.readAheadBuffer.remaining();
+			if (remaining > 0) {
+				final int count = Math.min(remaining, length - read);
+				this.readAheadBuffer.get(buffer, offset + read, count);
+				read += count;
+			}
+			else if (length - read >= this.readAheadBuffer.capacity()) {
+				// large reads go directly into the target array
+				this.readAheadBuffer.limit(0);
+				final int count = this.fis.read(buffer, offset + read, length - read);
+				if (count < 0) {
+					break;
+				}
+				this.channelPosition += count;
+				read += count;
+			}
+			else if (!fillReadAheadBuffer()) {
+				break;
+			}
+		}
+		return read == 0 ? -1 : read;
 	}
 
 
@@ -86,13 +177,35 @@ public class LocalDataInputStream extends FSDataInputStream {
 
 	@Override
 	public int available() throws IOException {
+		if (this.readAheadBuffer != null) {
+			return (int) Math.min(Integer.MAX_VALUE, (long) this.readAheadBuffer.remaining() + this.fis.available());
+		}
 		return this.fis.available();
 	}
 
 
 	@Override
 	public long skip(final long n) throws IOException {
+		if (this.readAheadBuffer != null) {
+			if (n <= 0) {
+				return 0;
+			}
+			seek(getPos() + n);
+			return n;
+		}
 		return this.fis.skip(n);
 	}
 
+	private boolean fillReadAheadBuffer() throws IOException {
+		// reading into the backing array avoids the temporary direct buffer of a channel read
+		final int read = this.fis.read(this.readAheadBuffer.array(), 0, this.readAheadBuffer.capacity());
+		if (read <= 0) {
+			this.readAheadBuffer.limit(0);
+			return false;
+		}
+
+		this.readAheadBuffer.position(0).limit(read);
+		this.channelPosition += read;
+		return true;
+	}
 }
@@ -34,6 +34,8 @@ import java.net.UnknownHostException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.apache.flink.configuration.ConfigConstants;
+import org.apache.flink.configuration.GlobalConfiguration;
 import org.apache.flink.core.fs.BlockLocation;
 import org.apache.flink.core.fs.FSDataInputStream;
 import org.apache.flink.core.fs.FSDataOutputStream;
@@ -64,6 +66,16 @@ public class LocalFileSystem extends FileSystem {
 	 */
 	private final String hostName;
 
+	/**
+	 * The size of the read-ahead buffer of the input streams.
+	 */
+	private final int readAheadSize;
+
+	/**
+	 * Flag whether input streams map the files into memory.
+	 */
+	private final boolean memoryMappedInput;
+
 	private static final Logger LOG = LoggerFactory.getLogger(LocalFileSystem.class);
 
 	/**
@@ -81,6 +93,17 @@ public class LocalFileSystem extends FileSystem {
 		}
 
 		this.hostName = tmp;
+
+		int readAheadSize = GlobalConfiguration.getInteger(ConfigConstants.LOCAL_FS_READ_AHEAD_SIZE_KEY,
+			ConfigConstants.DEFAULT_LOCAL_FS_READ_AHEAD_SIZE);
+		if (readAheadSize < 0) {
+			LOG.error("Invalid read-ahead size for local input streams: " + readAheadSize + ". Using default value of " +
+				ConfigConstants.DEFAULT_LOCAL_FS_READ_AHEAD_SIZE);
+			readAheadSize = ConfigConstants.DEFAULT_LOCAL_FS_READ_AHEAD_SIZE;
+		}
+		this.readAheadSize = readAheadSize;
+		this.memoryMappedInput = GlobalConfiguration.getBoolean(ConfigConstants.LOCAL_FS_MEMORY_MAPPED_INPUT_KEY,
+			ConfigConstants.DEFAULT_LOCAL_FS_MEMORY_MAPPED_INPUT);
 	}
 
 
@@ -131,14 +154,20 @@ public class LocalFileSystem extends FileSystem {
 
 	@Override
 	public FSDataInputStream open(final Path f, final int bufferSize) throws IOException {
-		return open(f);
+		return open(pathToFile(f), bufferSize);
 	}
 
 
 	@Override
 	public FSDataInputStream open(final Path f) throws IOException {
-		final File file = pathToFile(f);
-		return new LocalDataInputStream(file);
+		return open(pathToFile(f), this.readAheadSize);
+	}
+
+	private FSDataInputStream open(final File file, final int readAheadSize) throws IOException {
+		if (this.memoryMappedInput) {
+			return new LocalMappedDataInputStream(file);
+		}
+		return new LocalDataInputStream(file, readAheadSize);
 	}
 
 
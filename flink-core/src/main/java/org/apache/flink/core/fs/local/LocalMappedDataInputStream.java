@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.flink.core.fs.local;
+
+import org.apache.flink.core.fs.FSDataInputStream;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * An input stream to a file in the local file system that maps the file into memory, region by
+ * region, instead of reading it through system calls. Reads are copies from the mapped region.
+ *
+ * <p>The stream sees the length of the file at the time it was opened. It is hence suited for
+ * input files that do not change while they are read.
+ */
+public class LocalMappedDataInputStream extends FSDataInputStream {
+
+	/** The size of the regions in which files are mapped into memory. */
+	private static final int DEFAULT_REGION_SIZE = 256 * 1024 * 1024;
+
+	private final FileInputStream fis;
+
+	private final FileChannel fileChannel;
+
+	private final long fileLength;
+
+	private final int regionSize;
+
+	/** The currently mapped region of the file, or null, if no region is mapped. */
+	private MappedByteBuffer region;
+
+	/** The position in the file where the current region starts. */
+	private long regionStart;
+
+	/** The position in the file, if no region is mapped. */
+	private long position;
+
+	public LocalMappedDataInputStream(File file) throws IOException {
+		this(file, DEFAULT_REGION_SIZE);
+	}
+
+	LocalMappedDataInputStream(File file, int regionSize) throws IOException {
+		if (regionSize <= 0) {
+			throw new IllegalArgumentException("The region size must be positive.");
+		}
+
+		this.fis = new FileInputStream(file);
+		this.fileChannel = this.fis.getChannel();
+		this.fileLength = this.fileChannel.size();
+		this.regionSize = regionSize;
+	}
+
+	@Override
+	public void seek(long desired) throws IOException {
+		if (desired < 0) {
+			throw new IOException("Cannot seek to a negative position.");
+		}
+
+		if (this.region != null && desired >= this.regionStart && desired <= this.regionStart + this.region.limit()) {
+			this.region.position((int) (desired - this.regionStart));
+		} else {
+			releaseRegion();
+			this.position = desired;
+		}
+	}
+
+	@Override
+	public long getPos() throws IOException {
+		return this.region != null ? this.regionStart + this.region.position() : this.position;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!ensureRegion()) {
+			return -1;
+		}
+		return this.region.get() & 0xff;
+	}
+
+	@Override
+	public int read(byte[] buffer, int offset, int length) throws IOException {
+		if (length == 0) {
+			return 0;
+		}
+
+		int read = 0;
+		while (read < length && ensureRegion()) {
+			final int count = Math.min(this.region.remaining(), length - read);
+			this.region.get(buffer, offset + read, count);
+			read += count;
+		}
+		return read == 0 ? -1 : read;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return (int) Math.max(0, Math.min(Integer.MAX_VALUE, this.fileLength - getPos()));
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		final long pos = getPos();
+		final long skipped = Math.max(0, Math.min(n, this.fileLength - pos));
+		seek(pos + skipped);
+		return skipped;
+	}
+
+	@Override
+	public void close() throws IOException {
+		releaseRegion();
+		this.fis.close();
+	}
+
+	/**
+	 * Makes sure that a region with remaining data is mapped.
+	 *
+	 * @return false, if the stream is at the end of the file
+	 */
+	private boolean ensureRegion() throws IOException {
+		if (this.region != null) {
+			if (this.region.hasRemaining()) {
+				return true;
+			}
+			releaseRegion();
+		}
+
+		if (this.position >= this.fileLength) {
+			return false;
+		}
+
+		final long size = Math.min(this.regionSize, this.fileLength - this.position);
+		this.region = this.fileChannel.map(FileChannel.MapMode.READ_ONLY, this.position, size);
+		this.regionStart = this.position;
+		return true;
+	}
+
+	private void releaseRegion() {
+		if (this.region != null) {
+			this.position = this.regionStart + this.region.position();
+			final MappedByteBuffer released = this.region;
+			this.region = null;
+			unmap(released);
+		}
+	}
+
+	/**
+	 * Releases the mapping right away, rather than when the buffer is garbage collected, if the JVM allows.
+	 */
+	private static void unmap(MappedByteBuffer buffer) {
+		try {
+			Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+			cleanerMethod.setAccessible(true);
+			Object cleaner = cleanerMethod.invoke(buffer);
+			if (cleaner != null) {
+				cleaner.getClass().getMethod("clean").invoke(cleaner);
+			}
+		}
+		catch (Throwable t) {
+			// the mapping is released when the buffer is garbage collected
+		}
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.flink.types.parser;
+
+import org.apache.flink.core.memory.MemoryUtils;
+
+import java.nio.ByteOrder;
+
+/**
+ * Utilities to find bytes and byte sequences, such as delimiters and quote characters, in byte
+ * arrays. The scans examine eight bytes at a time: each word is compared against the searched
+ * byte in all positions at once (SWAR, "SIMD within a register"), and only a word that contains
+ * a match is inspected further.
+ */
+@SuppressWarnings("restriction")
+public final class ByteScanner {
+
+	private static final sun.misc.Unsafe UNSAFE = MemoryUtils.UNSAFE;
+
+	private static final long BYTE_ARRAY_BASE_OFFSET = UNSAFE.arrayBaseOffset(byte[].class);
+
+	private static final boolean LITTLE_ENDIAN = MemoryUtils.NATIVE_BYTE_ORDER == ByteOrder.LITTLE_ENDIAN;
+
+	private static final long ONES = 0x0101010101010101L;
+
+	private static final long HIGH_BITS = 0x8080808080808080L;
+
+	/**
+	 * Returns the position of the first occurrence of the given byte in the range
+	 * {@code [from, limit)} of the array, or -1, if the byte does not occur in that range.
+	 */
+	public static int indexOf(byte[] bytes, int from, int limit, byte value) {
+		if (limit > bytes.length) {
+			throw new IndexOutOfBoundsException("limit: " + limit + ", length: " + bytes.length);
+		}
+
+		int pos = from;
+		if (limit - from >= 8) {
+			final long pattern = (value & 0xffL) * ONES;
+
+			for (; pos <= limit - 8; pos += 8) {
+				long word = UNSAFE.getLong(bytes, BYTE_ARRAY_BASE_OFFSET + pos);
+				if (!LITTLE_ENDIAN) {
+					// the bit trick finds the first match in the least significant byte
+					word = Long.reverseBytes(word);
+				}
+
+				// bytes that equal the value become zero, whose high bit survives the masking
+				final long x = word ^ pattern;
+				final long matches = (x - ONES) & ~x & HIGH_BITS;
+				if (matches != 0) {
+					return pos + (Long.numberOfTrailingZeros(matches) >>> 3);
+				}
+			}
+		}
+
+		for (; pos < limit; pos++) {
+			if (bytes[pos] == value) {
+				return pos;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the position of the first occurrence of the given byte sequence that lies completely
+	 * within the range {@code [from, limit)} of the array, or -1, if there is no such occurrence.
+	 */
+	public static int indexOf(byte[] bytes, int from, int limit, byte[] sequence) {
+		if (sequence.length == 1) {
+			return indexOf(bytes, from, limit, sequence[0]);
+		}
+
+		final int lastStart = limit - sequence.length;
+		int pos = from;
+		while (pos <= lastStart) {
+			pos = indexOf(bytes, pos, lastStart + 1, sequence[0]);
+			if (pos < 0) {
+				return -1;
+			}
+			if (FieldParser.delimiterNext(bytes, pos, sequence)) {
+				return pos;
+			}
+			pos++;
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the position of the first occurrence of the given byte in the range
+	 * {@code [from, limit)} of the array that is not preceded by the escape byte, or -1, if there
+	 * is no such occurrence. The byte before {@code from} is checked as well and must exist.
+	 */
+	public static int indexOfUnescaped(byte[] bytes, int from, int limit, byte value, byte escape) {
+		int pos = from;
+		while (pos < limit) {
+			pos = indexOf(bytes, pos, limit, value);
+			if (pos < 0) {
+				return -1;
+			}
+			if (bytes[pos - 1] != escape) {
+				return pos;
+			}
+			pos++;
+		}
+		return -1;
+	}
+
+	/** Should not be instantiated */
+	private ByteScanner() {}
+}
@@ -45,14 +45,10 @@ public class StringParser extends FieldParser<String> {
 
 		if(quotedStringParsing && bytes[i] == quoteCharacter) {
 			// quoted string parsing enabled and first character Vis a quote
-			i++;
-
 			// search for ending quote character, continue when it is escaped
-			while (i < limit && (bytes[i] != quoteCharacter || bytes[i-1] == BACKSLASH)){
-				i++;
-			}
+			i = ByteScanner.indexOfUnescaped(bytes, i + 1, limit, quoteCharacter, BACKSLASH);
 
-			if (i == limit) {
+			if (i < 0) {
 				setErrorState(ParseErrorState.UNTERMINATED_QUOTED_STRING);
 				return -1;
 			} else {
@@ -75,11 +71,9 @@ public class StringParser extends FieldParser<String> {
 		} else {
 
 			// look for delimiter
-			while( i < delimLimit && !delimiterNext(bytes, i, delimiter)) {
-				i++;
-			}
+			i = ByteScanner.indexOf(bytes, i, limit, delimiter);
 
-			if (i >= delimLimit) {
+			if (i < 0) {
 				// no delimiter found. Take the full string
 				this.result = new String(bytes, startPos, limit - startPos);
 				return limit;
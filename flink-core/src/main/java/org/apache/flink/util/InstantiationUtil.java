@@ -30,6 +30,7 @@ import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.ObjectStreamClass;
+import java.io.Serializable;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Modifier;
 import java.util.HashMap;
@@ -299,6 +300,23 @@ public final class InstantiationUtil {
 		}
 	}
 	
+	/**
+	 * Clones the given serializable object using Java serialization.
+	 *
+	 * @param obj Object to clone
+	 * @param classLoader The classloader to resolve the classes of the clone with
+	 * @param <T> Type of the object to clone
+	 * @return The cloned object
+	 * @throws IOException Thrown, if the object could not be serialized or deserialized
+	 * @throws ClassNotFoundException Thrown, if a class of the object is not found by the classloader
+	 */
+	public static <T extends Serializable> T clone(T obj, ClassLoader classLoader) throws IOException, ClassNotFoundException {
+		if (obj == null) {
+			return null;
+		}
+		return deserializeObject(serializeObject(obj), classLoader);
+	}
+	
 	// --------------------------------------------------------------------------------------------
 	
 	/**
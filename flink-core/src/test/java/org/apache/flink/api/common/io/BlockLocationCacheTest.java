@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.flink.api.common.io;
+
+import org.apache.flink.core.fs.BlockLocation;
+import org.apache.flink.core.fs.FileStatus;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.core.fs.local.LocalFileSystem;
+import org.apache.flink.testutils.TestFileUtils;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class BlockLocationCacheTest {
+
+	@Test
+	public void testCachedUntilModified() throws IOException {
+		final CountingFileSystem fs = new CountingFileSystem();
+		final BlockLocationCache cache = new BlockLocationCache(10);
+
+		final File file = new File(TestFileUtils.createTempFile(1000).replace("file:", ""));
+		final Path path = new Path(file.toURI());
+
+		BlockLocation[] first = cache.getFileBlockLocations(fs, fs.getFileStatus(path));
+		BlockLocation[] second = cache.getFileBlockLocations(fs, fs.getFileStatus(path));
+
+		assertEquals(1, fs.calls);
+		assertEquals(1, first.length);
+		assertEquals(first[0], second[0]);
+		assertNotSame(first, second);
+
+		// a modified file is fetched again
+		assertTrue(file.setLastModified(file.lastModified() - 10000));
+		cache.getFileBlockLocations(fs, fs.getFileStatus(path));
+		assertEquals(2, fs.calls);
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void testEviction() throws IOException {
+		final CountingFileSystem fs = new CountingFileSystem();
+		final BlockLocationCache cache = new BlockLocationCache(2);
+
+		FileStatus[] files = new FileStatus[3];
+		for (int i = 0; i < files.length; i++) {
+			files[i] = fs.getFileStatus(new Path(TestFileUtils.createTempFile(100 + i)));
+		}
+
+		cache.getFileBlockLocations(fs, files[0]);
+		cache.getFileBlockLocations(fs, files[1]);
+		cache.getFileBlockLocations(fs, files[0]);
+		cache.getFileBlockLocations(fs, files[2]);
+		assertEquals(3, fs.calls);
+		assertEquals(2, cache.size());
+
+		// the least recently used entry was evicted
+		cache.getFileBlockLocations(fs, files[0]);
+		assertEquals(3, fs.calls);
+		cache.getFileBlockLocations(fs, files[1]);
+		assertEquals(4, fs.calls);
+	}
+
+	@Test
+	public void testDisabledCache() throws IOException {
+		final CountingFileSystem fs = new CountingFileSystem();
+		final BlockLocationCache cache = new BlockLocationCache(0);
+
+		FileStatus file = fs.getFileStatus(new Path(TestFileUtils.createTempFile(100)));
+		cache.getFileBlockLocations(fs, file);
+		cache.getFileBlockLocations(fs, file);
+
+		assertEquals(2, fs.calls);
+		assertEquals(0, cache.size());
+	}
+
+	private static final class CountingFileSystem extends LocalFileSystem {
+
+		private int calls;
+
+		@Override
+		public BlockLocation[] getFileBlockLocations(FileStatus file, long start, long len) throws IOException {
+			calls++;
+			return super.getFileBlockLocations(file, start, len);
+		}
+	}
+}
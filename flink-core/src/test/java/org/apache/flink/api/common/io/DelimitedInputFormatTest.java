@@ -40,6 +40,7 @@ import java.util.List;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.core.fs.FileInputSplit;
 import org.apache.flink.core.fs.Path;
+import org.apache.flink.testutils.TestFileUtils;
 
 import org.junit.After;
 import org.junit.Before;
@@ -363,6 +364,48 @@ public class DelimitedInputFormatTest {
 		}
 	}
 	
+	@Test
+	public void testReadBlockCompressedSplits() {
+		try {
+			StringBuilder contents = new StringBuilder();
+			List<String> expected = new ArrayList<String>();
+			for (int i = 0; i < 20000; i++) {
+				String line = "line " + i + " of the compressed file";
+				contents.append(line).append('\n');
+				expected.add(line);
+			}
+
+			// small blocks, so that many lines cross block boundaries
+			final String path = TestFileUtils.createTempBlockGzipFile(contents.toString().getBytes(), 1000);
+
+			format.setFilePath(path);
+			format.setBufferSize(100);
+			format.configure(new Configuration());
+
+			FileInputSplit[] splits = format.createInputSplits(7);
+			assertTrue(splits.length >= 7);
+
+			List<String> result = new ArrayList<String>();
+			for (FileInputSplit split : splits) {
+				assertTrue(split.getLength() >= 0);
+
+				format.open(split);
+				String next;
+				while ((next = format.nextRecord(null)) != null) {
+					result.add(next);
+				}
+				assertTrue(format.reachedEnd());
+				format.close();
+			}
+
+			assertEquals(expected, result);
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+
 	private static FileInputSplit createTempFile(String contents) throws IOException {
 		File tempFile = File.createTempFile("test_contents", "tmp");
 		tempFile.deleteOnExit();
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.common.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.apache.flink.api.common.io.FieldPredicate.Comparison;
+import org.apache.flink.core.testutils.CommonTestUtils;
+import org.junit.Test;
+
+public class FieldPredicateTest {
+
+	@Test
+	public void testComparisons() {
+		assertTrue(new FieldPredicate(0, Comparison.EQUAL, 5).evaluate(5));
+		assertFalse(new FieldPredicate(0, Comparison.EQUAL, 5).evaluate(6));
+		assertTrue(new FieldPredicate(0, Comparison.NOT_EQUAL, "a").evaluate("b"));
+		assertTrue(new FieldPredicate(0, Comparison.LESS, "b").evaluate("a"));
+		assertFalse(new FieldPredicate(0, Comparison.LESS, "b").evaluate("b"));
+		assertTrue(new FieldPredicate(0, Comparison.LESS_OR_EQUAL, "b").evaluate("b"));
+		assertTrue(new FieldPredicate(0, Comparison.GREATER, 1.5).evaluate(2.0));
+		assertFalse(new FieldPredicate(0, Comparison.GREATER_OR_EQUAL, 1.5).evaluate(1.0));
+	}
+
+	@Test
+	public void testNumbersOfDifferentTypes() {
+		assertTrue(new FieldPredicate(0, Comparison.EQUAL, 5).evaluate(5L));
+		assertTrue(new FieldPredicate(0, Comparison.EQUAL, 5).evaluate((short) 5));
+		assertTrue(new FieldPredicate(0, Comparison.LESS, 5).evaluate(4.5));
+		assertTrue(new FieldPredicate(0, Comparison.GREATER, Long.MAX_VALUE - 1).evaluate(new BigDecimal(Long.MAX_VALUE)));
+		assertFalse(new FieldPredicate(0, Comparison.EQUAL, Long.MAX_VALUE - 1).evaluate(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void testNulls() {
+		assertTrue(new FieldPredicate(0, Comparison.IS_NULL, null).evaluate(null));
+		assertFalse(new FieldPredicate(0, Comparison.IS_NULL, null).evaluate(1));
+		assertTrue(new FieldPredicate(0, Comparison.IS_NOT_NULL, null).evaluate(1));
+
+		// comparisons with null never hold
+		assertFalse(new FieldPredicate(0, Comparison.EQUAL, 1).evaluate(null));
+		assertFalse(new FieldPredicate(0, Comparison.NOT_EQUAL, 1).evaluate(null));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testComparisonWithoutValue() {
+		new FieldPredicate(0, Comparison.EQUAL, null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNullCheckWithValue() {
+		new FieldPredicate(0, Comparison.IS_NULL, 1);
+	}
+
+	@Test
+	public void testSerialization() throws Exception {
+		FieldPredicate predicate = new FieldPredicate(3, Comparison.GREATER_OR_EQUAL, "abc");
+		assertEquals(predicate, CommonTestUtils.createCopySerializable(predicate));
+		assertEquals("f3 >= abc", predicate.toString());
+	}
+}
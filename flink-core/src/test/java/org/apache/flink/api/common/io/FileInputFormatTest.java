@@ -249,6 +249,90 @@ public class FileInputFormatTest {
 		}
 	}
 
+	// ------------------------------------------------------------------------
+	//  Split enumeration
+	// ------------------------------------------------------------------------
+
+	@Test
+	public void testConcurrentSplitEnumeration() {
+		try {
+			// create a nested directory structure with files of different sizes
+			File tempDir = new File(System.getProperty("java.io.tmpdir"));
+			File root;
+			do {
+				root = new File(tempDir, TestFileUtils.randomFileName(""));
+			}
+			while (root.exists());
+
+			assertTrue(root.mkdirs());
+			root.deleteOnExit();
+
+			for (int d = 0; d < 5; d++) {
+				File dir = new File(root, "dir" + d);
+				assertTrue(dir.mkdirs());
+				dir.deleteOnExit();
+
+				File nested = new File(dir, "nested");
+				assertTrue(nested.mkdirs());
+				nested.deleteOnExit();
+
+				for (int f = 0; f < 10; f++) {
+					writeFile(new File(f % 2 == 0 ? dir : nested, "file" + f), 100 * d + f);
+				}
+				writeFile(new File(dir, "_ignored"), 10);
+			}
+
+			Configuration config = new Configuration();
+			config.setBoolean(FileInputFormat.ENUMERATE_NESTED_FILES_FLAG, true);
+
+			final DummyFileInputFormat sequential = new DummyFileInputFormat();
+			sequential.setFilePath(root.toURI().toString());
+			sequential.setSplitEnumerationThreads(1);
+			sequential.configure(config);
+
+			final DummyFileInputFormat concurrent = new DummyFileInputFormat();
+			concurrent.setFilePath(root.toURI().toString());
+			concurrent.setSplitEnumerationThreads(8);
+			concurrent.configure(config);
+
+			FileInputSplit[] expected = sequential.createInputSplits(7);
+			FileInputSplit[] splits = concurrent.createInputSplits(7);
+
+			assertTrue(expected.length >= 50);
+			assertEquals(expected.length, splits.length);
+			for (int i = 0; i < splits.length; i++) {
+				assertEquals(expected[i].getSplitNumber(), splits[i].getSplitNumber());
+				assertEquals(expected[i].getPath(), splits[i].getPath());
+				assertEquals(expected[i].getStart(), splits[i].getStart());
+				assertEquals(expected[i].getLength(), splits[i].getLength());
+				assertArrayEquals(expected[i].getHostnames(), splits[i].getHostnames());
+			}
+
+			// the statistics see the same files
+			long totalSize = 0;
+			for (FileInputSplit split : splits) {
+				totalSize += split.getLength();
+			}
+			assertEquals(totalSize, concurrent.getStatistics(null).getTotalInputSize());
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			Assert.fail(e.getMessage());
+		}
+	}
+
+	private static void writeFile(File file, int size) throws IOException {
+		file.deleteOnExit();
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			for (int i = 0; i < size; i++) {
+				out.write('a');
+			}
+		} finally {
+			out.close();
+		}
+	}
+
 	// ------------------------------------------------------------------------
 	//  Ignored Files
 	// ------------------------------------------------------------------------
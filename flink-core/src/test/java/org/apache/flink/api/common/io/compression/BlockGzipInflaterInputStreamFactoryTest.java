@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.flink.api.common.io.compression;
+
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.testutils.TestFileUtils;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BlockGzipInflaterInputStreamFactoryTest {
+
+	private final BlockGzipInflaterInputStreamFactory factory = BlockGzipInflaterInputStreamFactory.getInstance();
+
+	@Test
+	public void testDecompressAsGzip() throws IOException {
+		final byte[] data = createData(100000);
+		final Path path = new Path(TestFileUtils.createTempBlockGzipFile(data, 7000));
+
+		InputStream in = factory.create(FileSystem.getLocalFileSystem().open(path));
+		try {
+			assertArrayEquals(data, readAll(in));
+		} finally {
+			in.close();
+		}
+	}
+
+	@Test
+	public void testSplittable() throws IOException {
+		final Path blockGzip = new Path(TestFileUtils.createTempBlockGzipFile(createData(1000), 100));
+
+		File file = File.createTempFile("flink_test_", ".gz");
+		file.deleteOnExit();
+		GZIPOutputStream out = new GZIPOutputStream(new FileOutputStream(file));
+		out.write(createData(1000));
+		out.close();
+		final Path gzip = new Path(file.toURI());
+
+		assertTrue(isSplittable(blockGzip));
+		assertFalse(isSplittable(gzip));
+	}
+
+	@Test
+	public void testSplits() throws IOException {
+		final byte[] data = createData(200000);
+		final Path path = new Path(TestFileUtils.createTempBlockGzipFile(data, 3000));
+		final long fileLength = FileSystem.getLocalFileSystem().getFileStatus(path).getLen();
+
+		for (long splitSize : new long[] {101, 1000, 4999, 20000, fileLength - 1, fileLength}) {
+			ByteArrayOutputStream result = new ByteArrayOutputStream();
+
+			for (long start = 0; start < fileLength; start += splitSize) {
+				final long length = Math.min(splitSize, fileLength - start);
+
+				FSDataInputStream in = FileSystem.getLocalFileSystem().open(path);
+				final long decompressedLength = factory.getDecompressedLength(in, start, length);
+				FSDataInputStream split = factory.createSplitInputStream(in, start);
+				try {
+					assertEquals(start, split.getPos());
+					for (long i = 0; i < decompressedLength; i++) {
+						result.write(split.read());
+					}
+					assertEquals(start + decompressedLength, split.getPos());
+				} finally {
+					split.close();
+				}
+			}
+
+			assertArrayEquals("split size " + splitSize, data, result.toByteArray());
+		}
+	}
+
+	@Test
+	public void testSplitWithoutBlocks() throws IOException {
+		final byte[] data = createData(20000);
+		final Path path = new Path(TestFileUtils.createTempBlockGzipFile(data, 10000));
+		final long fileLength = FileSystem.getLocalFileSystem().getFileStatus(path).getLen();
+
+		// the last bytes of the file contain no block start
+		FSDataInputStream in = FileSystem.getLocalFileSystem().open(path);
+		assertEquals(0, factory.getDecompressedLength(in, fileLength - 2, 2));
+		FSDataInputStream split = factory.createSplitInputStream(in, fileLength - 2);
+		try {
+			assertEquals(-1, split.read());
+		} finally {
+			split.close();
+		}
+	}
+
+	private boolean isSplittable(Path path) throws IOException {
+		FSDataInputStream in = FileSystem.getLocalFileSystem().open(path);
+		try {
+			return factory.isSplittable(in);
+		} finally {
+			in.close();
+		}
+	}
+
+	private static byte[] createData(int length) {
+		// compressible, but not trivially so
+		Random rnd = new Random(length);
+		byte[] data = new byte[length];
+		for (int i = 0; i < length; i++) {
+			data[i] = (byte) ('a' + rnd.nextInt(8));
+		}
+		return data;
+	}
+
+	private static byte[] readAll(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[4096];
+		int read;
+		while ((read = in.read(buffer)) != -1) {
+			out.write(buffer, 0, read);
+		}
+		return out.toByteArray();
+	}
+}
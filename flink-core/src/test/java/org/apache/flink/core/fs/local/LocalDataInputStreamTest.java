@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.core.fs.local;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.junit.Test;
+
+/**
+ * Tests the read-ahead {@link LocalDataInputStream} and the {@link LocalMappedDataInputStream} by checking
+ * random sequences of reads, seeks and skips against the contents of the file.
+ */
+public class LocalDataInputStreamTest {
+
+	private static final int FILE_SIZE = 20000;
+
+	@Test
+	public void testWithoutReadAhead() throws IOException {
+		testRandomAccess(new StreamFactory() {
+			@Override
+			public FSDataInputStream open(File file) throws IOException {
+				return new LocalDataInputStream(file, 0);
+			}
+		});
+	}
+
+	@Test
+	public void testWithReadAhead() throws IOException {
+		for (final int readAheadSize : new int[] { 1, 7, 4096 }) {
+			testRandomAccess(new StreamFactory() {
+				@Override
+				public FSDataInputStream open(File file) throws IOException {
+					return new LocalDataInputStream(file, readAheadSize);
+				}
+			});
+		}
+	}
+
+	@Test
+	public void testMemoryMapped() throws IOException {
+		for (final int regionSize : new int[] { 100, 4096, FILE_SIZE + 1 }) {
+			testRandomAccess(new StreamFactory() {
+				@Override
+				public FSDataInputStream open(File file) throws IOException {
+					return new LocalMappedDataInputStream(file, regionSize);
+				}
+			});
+		}
+	}
+
+	@Test
+	public void testEmptyFile() throws IOException {
+		final File file = writeTempFile(new byte[0]);
+		try {
+			FSDataInputStream[] streams = {
+				new LocalDataInputStream(file, 0),
+				new LocalDataInputStream(file, 4096),
+				new LocalMappedDataInputStream(file)
+			};
+			for (FSDataInputStream in : streams) {
+				try {
+					assertEquals(-1, in.read());
+					assertEquals(-1, in.read(new byte[10], 0, 10));
+					assertEquals(0, in.available());
+					assertEquals(0, in.getPos());
+				} finally {
+					in.close();
+				}
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeReadAheadSize() throws IOException {
+		final File file = writeTempFile(new byte[0]);
+		try {
+			new LocalDataInputStream(file, -1);
+		} finally {
+			file.delete();
+		}
+	}
+
+	// --------------------------------------------------------------------------------------------
+
+	private static void testRandomAccess(StreamFactory factory) throws IOException {
+		final Random rnd = new Random(42);
+		final byte[] data = new byte[FILE_SIZE];
+		rnd.nextBytes(data);
+
+		final File file = writeTempFile(data);
+		try {
+			final FSDataInputStream in = factory.open(file);
+			try {
+				int pos = 0;
+				for (int i = 0; i < 5000; i++) {
+					switch (rnd.nextInt(5)) {
+						case 0: {
+							assertEquals(pos < data.length ? data[pos++] & 0xff : -1, in.read());
+							break;
+						}
+						case 1: {
+							final int length = rnd.nextInt(rnd.nextBoolean() ? 16 : 8192);
+							final byte[] buffer = new byte[length + 2];
+							final int read = in.read(buffer, 1, length);
+							final int expected = Math.min(length, data.length - pos);
+							if (length == 0) {
+								assertEquals(0, read);
+							} else if (expected == 0) {
+								assertEquals(-1, read);
+							} else {
+								assertEquals(expected, read);
+								final byte[] expectedBuffer = new byte[length + 2];
+								System.arraycopy(data, pos, expectedBuffer, 1, expected);
+								assertArrayEquals(expectedBuffer, buffer);
+								pos += read;
+							}
+							break;
+						}
+						case 2: {
+							// seek close to the current position, so that buffered data can be reused
+							pos = Math.max(0, Math.min(data.length, pos + rnd.nextInt(64) - 32));
+							in.seek(pos);
+							break;
+						}
+						case 3: {
+							pos = rnd.nextInt(data.length + 1);
+							in.seek(pos);
+							break;
+						}
+						default: {
+							final int n = rnd.nextInt(Math.min(100, data.length - pos) + 1);
+							assertEquals(n, in.skip(n));
+							pos += n;
+							break;
+						}
+					}
+					assertEquals(pos, in.getPos());
+					assertEquals(data.length - pos, in.available());
+				}
+			} finally {
+				in.close();
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	private static File writeTempFile(byte[] data) throws IOException {
+		final File file = File.createTempFile("local-input-stream", ".bin");
+		file.deleteOnExit();
+		final FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(data);
+		} finally {
+			out.close();
+		}
+		return file;
+	}
+
+	private interface StreamFactory {
+		FSDataInputStream open(File file) throws IOException;
+	}
+}
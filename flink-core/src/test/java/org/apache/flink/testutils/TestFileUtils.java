@@ -24,6 +24,9 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
 
 public class TestFileUtils {
 	
@@ -97,6 +100,55 @@ public class TestFileUtils {
 		return f.toURI().toString();
 	}
 	
+	/**
+	 * Creates a file in the blocked GZIP format (BGZF), which compresses each chunk of the given number of
+	 * bytes into a separate GZIP member, followed by an empty end-of-file member.
+	 */
+	public static String createTempBlockGzipFile(byte[] contents, int chunkSize) throws IOException {
+		File f = File.createTempFile(FILE_PREFIX, ".gz");
+		f.deleteOnExit();
+
+		BufferedOutputStream out = new BufferedOutputStream(new FileOutputStream(f));
+		try {
+			for (int pos = 0; pos < contents.length; pos += chunkSize) {
+				writeBlockGzipMember(out, contents, pos, Math.min(chunkSize, contents.length - pos));
+			}
+			writeBlockGzipMember(out, contents, 0, 0);
+		} finally {
+			out.close();
+		}
+		return f.toURI().toString();
+	}
+
+	private static void writeBlockGzipMember(OutputStream out, byte[] data, int offset, int length) throws IOException {
+		Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		deflater.setInput(data, offset, length);
+		deflater.finish();
+		byte[] compressed = new byte[length + 1024];
+		int compressedLength = 0;
+		while (!deflater.finished()) {
+			compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+		}
+		deflater.end();
+
+		CRC32 crc = new CRC32();
+		crc.update(data, offset, length);
+
+		int blockSize = 18 + compressedLength + 8;
+		out.write(new byte[] {31, (byte) 139, 8, 4, 0, 0, 0, 0, 0, (byte) 255, 6, 0, 'B', 'C', 2, 0,
+			(byte) (blockSize - 1), (byte) ((blockSize - 1) >>> 8)});
+		out.write(compressed, 0, compressedLength);
+		writeIntLittleEndian(out, (int) crc.getValue());
+		writeIntLittleEndian(out, length);
+	}
+
+	private static void writeIntLittleEndian(OutputStream out, int value) throws IOException {
+		out.write(value);
+		out.write(value >>> 8);
+		out.write(value >>> 16);
+		out.write(value >>> 24);
+	}
+
 	// ------------------------------------------------------------------------
 
 	public static String createTempFileDir(long ... bytes) throws IOException {
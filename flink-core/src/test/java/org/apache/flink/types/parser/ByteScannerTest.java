@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.flink.types.parser;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class ByteScannerTest {
+
+	@Test
+	public void testIndexOfAllPositions() {
+		final byte[] values = {0, 1, '\n', ',', '"', (byte) 0x7f, (byte) 0x80, (byte) 0xff};
+
+		for (byte value : values) {
+			for (int len = 0; len < 40; len++) {
+				for (int pos = 0; pos < len; pos++) {
+					byte[] bytes = new byte[len];
+					for (int k = 0; k < len; k++) {
+						bytes[k] = (byte) (value + 1 + (k % 3));
+					}
+					bytes[pos] = value;
+
+					for (int from = 0; from <= len; from++) {
+						for (int limit = from; limit <= len; limit++) {
+							int expected = (pos >= from && pos < limit) ? pos : -1;
+							assertEquals(expected, ByteScanner.indexOf(bytes, from, limit, value));
+						}
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testIndexOfRandom() {
+		final Random rnd = new Random(0x5eedL);
+
+		for (int run = 0; run < 2000; run++) {
+			byte[] bytes = new byte[rnd.nextInt(200)];
+			for (int k = 0; k < bytes.length; k++) {
+				// small alphabet, so that matches are frequent
+				bytes[k] = (byte) (rnd.nextInt(6) - 3);
+			}
+			byte value = (byte) (rnd.nextInt(8) - 4);
+			byte[] sequence = new byte[1 + rnd.nextInt(3)];
+			for (int k = 0; k < sequence.length; k++) {
+				sequence[k] = (byte) (rnd.nextInt(6) - 3);
+			}
+
+			int from = bytes.length == 0 ? 0 : rnd.nextInt(bytes.length);
+			int limit = from + rnd.nextInt(bytes.length - from + 1);
+
+			assertEquals(naiveIndexOf(bytes, from, limit, value), ByteScanner.indexOf(bytes, from, limit, value));
+			assertEquals(naiveIndexOf(bytes, from, limit, sequence), ByteScanner.indexOf(bytes, from, limit, sequence));
+		}
+	}
+
+	@Test
+	public void testIndexOfSequence() {
+		byte[] bytes = "a|b||c|||d".getBytes();
+		byte[] delim = "||".getBytes();
+
+		assertEquals(3, ByteScanner.indexOf(bytes, 0, bytes.length, delim));
+		assertEquals(6, ByteScanner.indexOf(bytes, 4, bytes.length, delim));
+		assertEquals(-1, ByteScanner.indexOf(bytes, 0, 4, delim));
+		assertEquals(-1, ByteScanner.indexOf(bytes, 8, bytes.length, delim));
+	}
+
+	@Test
+	public void testIndexOfUnescaped() {
+		byte[] bytes = "\"abc\\\"def\\\"ghijklmnop\"qrs\"".getBytes();
+
+		assertEquals(21, ByteScanner.indexOfUnescaped(bytes, 1, bytes.length, (byte) '"', (byte) '\\'));
+		assertEquals(25, ByteScanner.indexOfUnescaped(bytes, 22, bytes.length, (byte) '"', (byte) '\\'));
+		assertEquals(-1, ByteScanner.indexOfUnescaped(bytes, 1, 21, (byte) '"', (byte) '\\'));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testLimitBeyondArray() {
+		ByteScanner.indexOf(new byte[16], 0, 17, (byte) 0);
+	}
+
+	private static int naiveIndexOf(byte[] bytes, int from, int limit, byte value) {
+		for (int i = from; i < limit; i++) {
+			if (bytes[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static int naiveIndexOf(byte[] bytes, int from, int limit, byte[] sequence) {
+		for (int i = from; i <= limit - sequence.length; i++) {
+			if (FieldParser.delimiterNext(bytes, i, sequence)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
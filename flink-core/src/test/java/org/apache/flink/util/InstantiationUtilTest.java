@@ -32,6 +32,8 @@ import java.io.ObjectOutputStream;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -84,6 +86,17 @@ public class InstantiationUtilTest extends TestLogger {
 		assertEquals("Serialized record is not equal after serialization.", toSerialize, deserialized);
 	}
 	
+	@Test
+	public void testClone() throws Exception {
+		final StringValue original = new StringValue("clone me");
+
+		StringValue clone = InstantiationUtil.clone(original, getClass().getClassLoader());
+
+		assertEquals(original, clone);
+		assertNotSame(original, clone);
+		assertNull(InstantiationUtil.clone((StringValue) null, getClass().getClassLoader()));
+	}
+
 	@Test
 	public void testWriteToConfigFailingSerialization() {
 		try {
@@ -18,14 +18,18 @@
 
 package org.apache.flink.api.java.operators;
 
+import java.util.Arrays;
+
 import org.apache.flink.api.common.io.InputFormat;
 import org.apache.flink.api.common.io.NonParallelInput;
+import org.apache.flink.api.common.io.ProjectableInputFormat;
 import org.apache.flink.api.common.operators.GenericDataSourceBase;
 import org.apache.flink.api.common.operators.OperatorInformation;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
 import org.apache.flink.api.java.ExecutionEnvironment;
 import org.apache.flink.api.java.io.SplitDataProperties;
 import org.apache.flink.configuration.Configuration;
+import org.apache.flink.util.InstantiationUtil;
 
 /**
  * An operation that creates a new data set (data source). The operation acts as the
@@ -118,21 +122,63 @@ public class DataSource<OUT> extends Operator<OUT, DataSource<OUT>> {
 	// --------------------------------------------------------------------------------------------
 	
 	protected GenericDataSourceBase<OUT, ?> translateToDataFlow() {
+		GenericDataSourceBase<OUT, ?> source = createDataSourceBase(this.inputFormat, getType(), getSourceName());
+		if(this.splitDataProperties != null) {
+			source.setSplitDataProperties(this.splitDataProperties);
+		}
+		return source;
+	}
+
+	/**
+	 * Translates this data source such that its input format produces only the given fields,
+	 * thereby applying a projection of the data source's records right when reading them.
+	 * The input format must implement {@link ProjectableInputFormat}. It is copied before the
+	 * projection is set, so this data source remains unchanged.
+	 *
+	 * @param projectedFields The fields to produce.
+	 * @param projectedType The type of the projected records.
+	 * @return The data source that produces the projected records.
+	 */
+	<R> GenericDataSourceBase<R, ?> translateToDataFlow(int[] projectedFields, TypeInformation<R> projectedType) {
+		final InputFormat<?, ?> projectingFormat;
+		try {
+			projectingFormat = (InputFormat<?, ?>) InstantiationUtil.deserializeObject(
+				InstantiationUtil.serializeObject(this.inputFormat), this.inputFormat.getClass().getClassLoader());
+		}
+		catch (Exception e) {
+			throw new RuntimeException("Error while creating the data flow plan for the program: "
+				+ "Could not copy the input format to push a projection into it: " + e.getMessage(), e);
+		}
+		((ProjectableInputFormat) projectingFormat).setProjectedFields(projectedFields);
+
+		return createDataSourceBase(projectingFormat, projectedType,
+			getSourceName() + " -> Projection " + Arrays.toString(projectedFields));
+	}
+
+	/**
+	 * Checks whether a projection of this data source's records can be applied by its input format.
+	 */
+	boolean supportsProjectionPushdown() {
+		// split data properties refer to the fields of the records before the projection
+		return this.inputFormat instanceof ProjectableInputFormat && this.splitDataProperties == null;
+	}
+
+	private String getSourceName() {
 		String name = this.name != null ? this.name : "at "+dataSourceLocationName+" ("+inputFormat.getClass().getName()+")";
 		if (name.length() > 150) {
 			name = name.substring(0, 150);
 		}
-		
+		return name;
+	}
+
+	private <T> GenericDataSourceBase<T, ?> createDataSourceBase(InputFormat<?, ?> format, TypeInformation<T> type, String name) {
 		@SuppressWarnings({ "unchecked", "rawtypes" })
-		GenericDataSourceBase<OUT, ?> source = new GenericDataSourceBase(this.inputFormat,
-				new OperatorInformation<OUT>(getType()), name);
+		GenericDataSourceBase<T, ?> source = new GenericDataSourceBase(format,
+				new OperatorInformation<T>(type), name);
 		source.setParallelism(parallelism);
 		if(this.parameters != null) {
 			source.getParameters().addAll(this.parameters);
 		}
-		if(this.splitDataProperties != null) {
-			source.setSplitDataProperties(this.splitDataProperties);
-		}
 		return source;
 	}
 
@@ -57,8 +57,12 @@ public class DeltaIteration<ST, WT> {
 	
 	private int parallelism = -1;
 	
+	private int maxStaleness;
+	
 	private boolean solutionSetUnManaged;
 	
+	private boolean solutionSetSpillable;
+	
 	
 	public DeltaIteration(ExecutionEnvironment context, TypeInformation<ST> type, DataSet<ST> solutionSet, DataSet<WT> workset, Keys<ST> keys, int maxIterations) {
 		initialSolutionSet = solutionSet;
@@ -186,6 +190,33 @@ public class DeltaIteration<ST, WT> {
 		return parallelism;
 	}
 	
+	/**
+	 * Sets the maximum number of supersteps, by which the parallel instances of the iteration may run ahead of the
+	 * slowest instance. By default, all parallel instances are synchronized after each superstep.
+	 * 
+	 * @param maxStaleness The maximum number of supersteps an instance may run ahead.
+	 * 
+	 * @return The DeltaIteration itself, to allow chaining function calls.
+	 * 
+	 * @see IterativeDataSet#setMaxStaleness(int)
+	 */
+	public DeltaIteration<ST, WT> setMaxStaleness(int maxStaleness) {
+		Preconditions.checkArgument(maxStaleness >= 0, "The maximum staleness must not be negative.");
+		this.maxStaleness = maxStaleness;
+		return this;
+	}
+	
+	/**
+	 * Gets the maximum number of supersteps, by which the parallel instances of the iteration may run ahead.
+	 * 
+	 * @return The maximum staleness of the iteration.
+	 * 
+	 * @see #setMaxStaleness(int)
+	 */
+	public int getMaxStaleness() {
+		return maxStaleness;
+	}
+	
 	/**
 	 * Registers an {@link Aggregator} for the iteration. Aggregators can be used to maintain simple statistics during the
 	 * iteration, such as number of elements processed. The aggregators compute global aggregates: After each iteration step,
@@ -237,6 +268,33 @@ public class DeltaIteration<ST, WT> {
 		return solutionSetUnManaged;
 	}
 	
+	/**
+	 * Sets whether the solution set may spill partitions to disk, if it does not fit into its managed memory.
+	 * Spilled partitions are read back into memory when they are probed. This setting has no effect, if the
+	 * solution set is kept in unmanaged memory.
+	 * 
+	 * @param solutionSetSpillable True to let the solution set spill to disk, false to keep it completely in memory.
+	 * 
+	 * @return The DeltaIteration itself, to allow chaining function calls.
+	 * 
+	 * @see #isSolutionSetSpillable()
+	 */
+	public DeltaIteration<ST, WT> setSolutionSetSpillable(boolean solutionSetSpillable) {
+		this.solutionSetSpillable = solutionSetSpillable;
+		return this;
+	}
+	
+	/**
+	 * Gets whether the solution set may spill partitions to disk.
+	 * 
+	 * @return True, if the solution set may spill to disk, false if it is kept completely in memory.
+	 * 
+	 * @see #setSolutionSetSpillable(boolean)
+	 */
+	public boolean isSolutionSetSpillable() {
+		return solutionSetSpillable;
+	}
+	
 	// --------------------------------------------------------------------------------------------
 	
 	/**
@@ -28,6 +28,8 @@ import org.apache.flink.api.java.DataSet;
 import org.apache.flink.api.java.ExecutionEnvironment;
 import org.apache.flink.types.Value;
 
+import com.google.common.base.Preconditions;
+
 /**
  * The IterativeDataSet represents the start of an iteration. It is created from the DataSet that 
  * represents the initial solution set via the {@link DataSet#iterate(int)} method.
@@ -41,6 +43,8 @@ public class IterativeDataSet<T> extends SingleInputOperator<T, T, IterativeData
 	private final AggregatorRegistry aggregators = new AggregatorRegistry();
 	
 	private int maxIterations;
+	
+	private int maxStaleness;
 
 	public IterativeDataSet(ExecutionEnvironment context, TypeInformation<T> type, DataSet<T> input, int maxIterations) {
 		super(input, type);
@@ -89,6 +93,38 @@ public class IterativeDataSet<T> extends SingleInputOperator<T, T, IterativeData
 		return maxIterations;
 	}
 	
+	/**
+	 * Sets the maximum number of supersteps, by which the parallel instances of the iteration may run ahead of the
+	 * slowest instance. By default (a staleness of zero), all parallel instances are synchronized after each superstep.
+	 * <p>
+	 * With a staleness of k, an instance starts superstep s as soon as superstep s - k has been completed by all
+	 * instances, instead of waiting for all instances to complete superstep s - 1. The global aggregates, which an
+	 * instance sees via the iteration runtime context, are then those of the latest completed superstep, and the
+	 * convergence criterion is evaluated on the globally completed supersteps. Once the iteration converged, all instances
+	 * run k more supersteps before the iteration terminates. This is only sensible for algorithms which converge to the
+	 * same result regardless of the order in which updates are seen, such as connected components.
+	 * 
+	 * @param maxStaleness The maximum number of supersteps an instance may run ahead.
+	 * 
+	 * @return The IterativeDataSet itself, to allow chaining function calls.
+	 */
+	public IterativeDataSet<T> setMaxStaleness(int maxStaleness) {
+		Preconditions.checkArgument(maxStaleness >= 0, "The maximum staleness must not be negative.");
+		this.maxStaleness = maxStaleness;
+		return this;
+	}
+	
+	/**
+	 * Gets the maximum number of supersteps, by which the parallel instances of the iteration may run ahead.
+	 * 
+	 * @return The maximum staleness of the iteration.
+	 * 
+	 * @see #setMaxStaleness(int)
+	 */
+	public int getMaxStaleness() {
+		return maxStaleness;
+	}
+	
 	/**
 	 * Registers an {@link Aggregator} for the iteration. Aggregators can be used to maintain simple statistics during the
 	 * iteration, such as number of elements processed. The aggregators compute global aggregates: After each iteration step,
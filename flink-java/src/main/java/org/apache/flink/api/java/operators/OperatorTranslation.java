@@ -34,6 +34,7 @@ import org.apache.flink.api.common.operators.Operator;
 import org.apache.flink.api.common.operators.UnaryOperatorInformation;
 import org.apache.flink.api.common.operators.base.BulkIterationBase;
 import org.apache.flink.api.common.operators.base.DeltaIterationBase;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
 import org.apache.flink.configuration.Configuration;
 
 public class OperatorTranslation {
@@ -41,10 +42,17 @@ public class OperatorTranslation {
 	/** The already translated operations */
 	private Map<DataSet<?>, Operator<?>> translated = new HashMap<DataSet<?>, Operator<?>>();
 	
+	/** The number of operations that consume each data set */
+	private Map<DataSet<?>, Integer> numConsumers = new HashMap<DataSet<?>, Integer>();
+	
 	
 	public Plan translateToPlan(List<DataSink<?>> sinks, String jobName) {
 		List<GenericDataSinkBase<?>> planSinks = new ArrayList<GenericDataSinkBase<?>>();
 		
+		for (DataSink<?> sink : sinks) {
+			countConsumers(sink.getDataSet());
+		}
+		
 		for (DataSink<?> sink : sinks) {
 			planSinks.add(translate(sink));
 		}
@@ -82,6 +90,9 @@ public class OperatorTranslation {
 		if (dataSet instanceof DataSource) {
 			dataFlowOp = ((DataSource<T>) dataSet).translateToDataFlow();
 		}
+		else if (dataSet instanceof ProjectOperator && isProjectionPushdownPossible((ProjectOperator<?, ?>) dataSet)) {
+			dataFlowOp = translateProjectionIntoDataSource((ProjectOperator<?, ?>) dataSet);
+		}
 		else if (dataSet instanceof SingleInputOperator) {
 			dataFlowOp = translateSingleInputOperator((SingleInputOperator<?, ?, ?>) dataSet);
 		}
@@ -144,6 +155,24 @@ public class OperatorTranslation {
 		return dataFlowOp;
 	}
 	
+	/**
+	 * A projection can be applied by the input format of the data source it projects, if the format
+	 * supports projections and the projection is the only consumer of the data source.
+	 */
+	private boolean isProjectionPushdownPossible(ProjectOperator<?, ?> op) {
+		DataSet<?> input = op.getInput();
+		Integer consumers = numConsumers.get(input);
+		return input instanceof DataSource && ((DataSource<?>) input).supportsProjectionPushdown()
+			&& consumers != null && consumers == 1;
+	}
+	
+	private <O> Operator<O> translateProjectionIntoDataSource(ProjectOperator<?, ?> op) {
+		@SuppressWarnings("unchecked")
+		TypeInformation<O> projectedType = (TypeInformation<O>) op.getResultType();
+		
+		return ((DataSource<?>) op.getInput()).translateToDataFlow(op.fields, projectedType);
+	}
+	
 	private <I1, I2, O> org.apache.flink.api.common.operators.Operator<O> translateTwoInputOperator(TwoInputOperator<?, ?, ?, ?> op) {
 		
 		@SuppressWarnings("unchecked")
@@ -194,6 +223,7 @@ public class OperatorTranslation {
 		Operator<T> translatedBody = translate(iterationEnd.getNextPartialSolution());
 		iterationOperator.setNextPartialSolution(translatedBody);
 		iterationOperator.setMaximumNumberOfIterations(iterationHead.getMaxIterations());
+		iterationOperator.setMaxStaleness(iterationHead.getMaxStaleness());
 		iterationOperator.setInput(translate(iterationHead.getInput()));
 		
 		iterationOperator.getAggregators().addAll(iterationHead.getAggregators());
@@ -216,6 +246,7 @@ public class OperatorTranslation {
 				iterationEnd.getKeyPositions(), name);
 		
 		iterationOperator.setMaximumNumberOfIterations(iterationEnd.getMaxIterations());
+		iterationOperator.setMaxStaleness(iterationHead.getMaxStaleness());
 		
 		if (iterationHead.getParallelism() > 0) {
 			iterationOperator.setParallelism(iterationHead.getParallelism());
@@ -240,10 +271,52 @@ public class OperatorTranslation {
 		iterationOperator.getAggregators().addAll(iterationHead.getAggregators());
 		
 		iterationOperator.setSolutionSetUnManaged(iterationHead.isSolutionSetUnManaged());
+		iterationOperator.setSolutionSetSpillable(iterationHead.isSolutionSetSpillable());
 		
 		return iterationOperator;
 	}
 	
+	/**
+	 * Counts for each data set the operations that consume it, traversing the program from the given data set.
+	 */
+	private void countConsumers(DataSet<?> dataSet) {
+		Integer previous = numConsumers.get(dataSet);
+		numConsumers.put(dataSet, previous == null ? 1 : previous + 1);
+		if (previous != null) {
+			// the inputs of the data set have been counted before
+			return;
+		}
+		
+		if (dataSet instanceof SingleInputOperator) {
+			countConsumers(((SingleInputOperator<?, ?, ?>) dataSet).getInput());
+		}
+		else if (dataSet instanceof TwoInputOperator) {
+			countConsumers(((TwoInputOperator<?, ?, ?, ?>) dataSet).getInput1());
+			countConsumers(((TwoInputOperator<?, ?, ?, ?>) dataSet).getInput2());
+		}
+		else if (dataSet instanceof BulkIterationResultSet) {
+			BulkIterationResultSet<?> iterationEnd = (BulkIterationResultSet<?>) dataSet;
+			countConsumers(iterationEnd.getIterationHead());
+			countConsumers(iterationEnd.getNextPartialSolution());
+			if (iterationEnd.getTerminationCriterion() != null) {
+				countConsumers(iterationEnd.getTerminationCriterion());
+			}
+		}
+		else if (dataSet instanceof DeltaIterationResultSet) {
+			DeltaIterationResultSet<?, ?> iterationEnd = (DeltaIterationResultSet<?, ?>) dataSet;
+			countConsumers(iterationEnd.getNextSolutionSet());
+			countConsumers(iterationEnd.getNextWorkset());
+			countConsumers(iterationEnd.getIterationHead().getInitialSolutionSet());
+			countConsumers(iterationEnd.getIterationHead().getInitialWorkset());
+		}
+		
+		if (dataSet instanceof UdfOperator) {
+			for (DataSet<?> bcSet : ((UdfOperator<?>) dataSet).getBroadcastSets().values()) {
+				countConsumers(bcSet);
+			}
+		}
+	}
+	
 	private void translateBcVariables(DataSet<?> setOrOp, Operator<?> dataFlowOp) {
 		// check if this is actually an operator that could have broadcast variables
 		if (setOrOp instanceof UdfOperator) {
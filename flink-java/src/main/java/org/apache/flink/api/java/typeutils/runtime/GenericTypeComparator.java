@@ -20,6 +20,11 @@ package org.apache.flink.api.java.typeutils.runtime;
 
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Date;
 
 import org.apache.flink.api.common.typeutils.TypeComparator;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
@@ -31,6 +36,10 @@ import org.apache.flink.util.InstantiationUtil;
 
 /**
  * TypeComparator for all types that extend Comparable.
+ *
+ * <p>Normalized keys are supported for types implementing {@link NormalizableKey}, and through
+ * built-in order preserving encodings for {@link Date}, {@link java.sql.Date}, {@link Time},
+ * {@link Timestamp}, {@link BigInteger}, and {@link BigDecimal}.
  */
 public class GenericTypeComparator<T extends Comparable<T>> extends TypeComparator<T> {
 
@@ -40,12 +49,17 @@ public class GenericTypeComparator<T extends Comparable<T>> extends TypeComparat
 
 	private final Class<T> type;
 
+	private final NormalizedKeyType normalizedKeyType;
+
 	private TypeSerializer<T> serializer;
 
 	private transient T reference;
 
 	private transient T tmpReference;
 
+	/** scratch buffer for the variable length normalized key encodings */
+	private transient byte[] keyBuffer;
+
 	@SuppressWarnings("rawtypes")
 	private final TypeComparator[] comparators = new TypeComparator[] {this};
 
@@ -55,12 +69,14 @@ public class GenericTypeComparator<T extends Comparable<T>> extends TypeComparat
 		this.ascending = ascending;
 		this.serializer = serializer;
 		this.type = type;
+		this.normalizedKeyType = NormalizedKeyType.forType(type);
 	}
 
 	private GenericTypeComparator(GenericTypeComparator<T> toClone) {
 		this.ascending = toClone.ascending;
 		this.serializer = toClone.serializer.duplicate();
 		this.type = toClone.type;
+		this.normalizedKeyType = toClone.normalizedKeyType;
 	}
 
 	@Override
@@ -112,17 +128,28 @@ public class GenericTypeComparator<T extends Comparable<T>> extends TypeComparat
 
 	@Override
 	public boolean supportsNormalizedKey() {
-		return NormalizableKey.class.isAssignableFrom(this.type);
+		return this.normalizedKeyType != NormalizedKeyType.NONE;
 	}
 
 	@Override
 	public int getNormalizeKeyLen() {
-		if (this.reference == null) {
-			this.reference = InstantiationUtil.instantiate(this.type);
+		switch (this.normalizedKeyType) {
+			case NORMALIZABLE_KEY:
+				if (this.reference == null) {
+					this.reference = InstantiationUtil.instantiate(this.type);
+				}
+				NormalizableKey<?> key = (NormalizableKey<?>) this.reference;
+				return key.getMaxNormalizedKeyLen();
+			case DATE:
+				return 8;
+			case TIMESTAMP:
+				return 12;
+			case BIG_INTEGER:
+			case BIG_DECIMAL:
+				return Integer.MAX_VALUE;
+			default:
+				return 0;
 		}
-
-		NormalizableKey<?> key = (NormalizableKey<?>) this.reference;
-		return key.getMaxNormalizedKeyLen();
 	}
 
 	@Override
@@ -132,8 +159,25 @@ public class GenericTypeComparator<T extends Comparable<T>> extends TypeComparat
 
 	@Override
 	public void putNormalizedKey(T record, MemorySegment target, int offset, int numBytes) {
-		NormalizableKey<?> key = (NormalizableKey<?>) record;
-		key.copyNormalizedKey(target, offset, numBytes);
+		switch (this.normalizedKeyType) {
+			case NORMALIZABLE_KEY:
+				((NormalizableKey<?>) record).copyNormalizedKey(target, offset, numBytes);
+				break;
+			case DATE:
+				putDateNormalizedKey((Date) record, target, offset, numBytes);
+				break;
+			case TIMESTAMP:
+				putTimestampNormalizedKey((Timestamp) record, target, offset, numBytes);
+				break;
+			case BIG_INTEGER:
+				putBigIntegerNormalizedKey((BigInteger) record, target, offset, numBytes);
+				break;
+			case BIG_DECIMAL:
+				putBigDecimalNormalizedKey((BigDecimal) record, target, offset, numBytes);
+				break;
+			default:
+				throw new UnsupportedOperationException();
+		}
 	}
 
 	@Override
@@ -158,6 +202,155 @@ public class GenericTypeComparator<T extends Comparable<T>> extends TypeComparat
 		return comparators;
 	}
 
+	// ------------------------------------------------------------------------
+	//  Normalized key encodings
+	// ------------------------------------------------------------------------
+
+	private void putDateNormalizedKey(Date record, MemorySegment target, int offset, int numBytes) {
+		byte[] key = getKeyBuffer(8);
+		putLong(key, 0, record.getTime() - Long.MIN_VALUE);
+		copyKey(key, 8, target, offset, numBytes, (byte) 0);
+	}
+
+	private void putTimestampNormalizedKey(Timestamp record, MemorySegment target, int offset, int numBytes) {
+		// the time in milliseconds already contains the millisecond part of the nanos,
+		// the full nanos break ties among timestamps within the same millisecond
+		byte[] key = getKeyBuffer(12);
+		putLong(key, 0, record.getTime() - Long.MIN_VALUE);
+		putInt(key, 8, record.getNanos());
+		copyKey(key, 12, target, offset, numBytes, (byte) 0);
+	}
+
+	private void putBigIntegerNormalizedKey(BigInteger record, MemorySegment target, int offset, int numBytes) {
+		// the header orders by sign and bit length: negative numbers with more bits are smaller,
+		// non-negative numbers with more bits are larger. Numbers with the same sign and bit length
+		// have two's complement representations of the same length, which order like unsigned bytes.
+		final int bitLen = record.bitLength();
+		final int header = record.signum() >= 0 ? (0x80000000 | bitLen) : (0x7fffffff - bitLen);
+		final byte[] bytes = record.toByteArray();
+		final int keyLen = 4 + Math.min(bytes.length, Math.max(numBytes - 4, 0));
+
+		byte[] key = getKeyBuffer(keyLen);
+		putInt(key, 0, header);
+		System.arraycopy(bytes, 0, key, 4, keyLen - 4);
+		copyKey(key, keyLen, target, offset, numBytes, (byte) 0);
+	}
+
+	private void putBigDecimalNormalizedKey(BigDecimal record, MemorySegment target, int offset, int numBytes) {
+		// layout: sign byte, decimal exponent of the normalized form 0.d1d2d3... x 10^exp,
+		// and the digits packed in pairs into one byte each. Trailing zero digits are stripped, so
+		// that numbers with the same value but different scales have the same key. For negative
+		// numbers, all bytes after the sign byte are complemented to reverse their order.
+		final int signum = record.signum();
+		if (signum == 0) {
+			byte[] key = getKeyBuffer(1);
+			key[0] = 1;
+			copyKey(key, 1, target, offset, numBytes, (byte) 0);
+			return;
+		}
+
+		final BigDecimal normalized = record.stripTrailingZeros();
+		final String digits = normalized.unscaledValue().abs().toString();
+		final long exponent = (long) digits.length() - normalized.scale();
+
+		final int expBits;
+		final int numDigitBytes;
+		final byte digitPadding;
+		if (exponent > Integer.MAX_VALUE || exponent < Integer.MIN_VALUE) {
+			// clamp the exponent and replace the digits by padding that places the number beyond
+			// all numbers with an unclamped exponent, the full comparison decides among the clamped ones
+			expBits = exponent > 0 ? Integer.MAX_VALUE : Integer.MIN_VALUE;
+			numDigitBytes = 0;
+			digitPadding = exponent > 0 ? (byte) 0xff : 0;
+		} else {
+			expBits = (int) exponent;
+			numDigitBytes = Math.min((digits.length() + 1) / 2, Math.max(numBytes - 5, 0));
+			digitPadding = 0;
+		}
+
+		final int keyLen = 5 + numDigitBytes;
+		final byte[] key = getKeyBuffer(keyLen);
+		key[0] = (byte) (signum < 0 ? 0 : 2);
+		putInt(key, 1, expBits ^ Integer.MIN_VALUE);
+		for (int i = 0; i < numDigitBytes; i++) {
+			final int hi = digits.charAt(2 * i) - '0';
+			final int lo = 2 * i + 1 < digits.length() ? digits.charAt(2 * i + 1) - '0' : 0;
+			key[5 + i] = (byte) (hi * 10 + lo);
+		}
+
+		if (signum < 0) {
+			for (int i = 1; i < keyLen; i++) {
+				key[i] = (byte) ~key[i];
+			}
+			copyKey(key, keyLen, target, offset, numBytes, (byte) ~digitPadding);
+		} else {
+			copyKey(key, keyLen, target, offset, numBytes, digitPadding);
+		}
+	}
+
+	private byte[] getKeyBuffer(int minLen) {
+		if (this.keyBuffer == null || this.keyBuffer.length < minLen) {
+			this.keyBuffer = new byte[Math.max(minLen, 16)];
+		}
+		return this.keyBuffer;
+	}
+
+	private static void putLong(byte[] key, int pos, long value) {
+		for (int i = 0; i < 8; i++) {
+			key[pos + i] = (byte) (value >>> ((7 - i) << 3));
+		}
+	}
+
+	private static void putInt(byte[] key, int pos, int value) {
+		for (int i = 0; i < 4; i++) {
+			key[pos + i] = (byte) (value >>> ((3 - i) << 3));
+		}
+	}
+
+	private static void copyKey(byte[] key, int keyLen, MemorySegment target, int offset, int numBytes, byte padding) {
+		final int len = Math.min(keyLen, numBytes);
+		if (len > 0) {
+			target.put(offset, key, 0, len);
+		}
+		for (int i = len; i < numBytes; i++) {
+			target.put(offset + i, padding);
+		}
+	}
+
+	/**
+	 * The normalized key encoding used for a type.
+	 */
+	private enum NormalizedKeyType {
+		NONE,
+		NORMALIZABLE_KEY,
+		DATE,
+		TIMESTAMP,
+		BIG_INTEGER,
+		BIG_DECIMAL;
+
+		static NormalizedKeyType forType(Class<?> type) {
+			if (NormalizableKey.class.isAssignableFrom(type)) {
+				return NORMALIZABLE_KEY;
+			}
+			// only the exact classes, subclasses may define a different order
+			else if (type == Timestamp.class) {
+				return TIMESTAMP;
+			}
+			else if (type == Date.class || type == java.sql.Date.class || type == Time.class) {
+				return DATE;
+			}
+			else if (type == BigInteger.class) {
+				return BIG_INTEGER;
+			}
+			else if (type == BigDecimal.class) {
+				return BIG_DECIMAL;
+			}
+			else {
+				return NONE;
+			}
+		}
+	}
+
 	// ------------------------------------------------------------------------
 
 	@Override
@@ -41,10 +41,15 @@ public final class PojoComparator<T> extends CompositeTypeComparator<T> implemen
 	// Reflection fields for the comp fields
 	private transient Field[] keyFields;
 
+	// Reads the key fields, either generated or through reflection
+	private transient PojoFieldAccessor accessor;
+
 	private final TypeComparator<Object>[] comparators;
 
 	private final int[] normalizedKeyLengths;
 
+	private final boolean[] invertedNormalizedKeyFields;
+
 	private final int numLeadingNormalizableKeys;
 
 	private final int normalizableKeyPrefixLen;
@@ -55,16 +60,30 @@ public final class PojoComparator<T> extends CompositeTypeComparator<T> implemen
 
 	private final Class<T> type;
 
-	@SuppressWarnings("unchecked")
+	private final boolean generateAccessor;
+
 	public PojoComparator(Field[] keyFields, TypeComparator<?>[] comparators, TypeSerializer<T> serializer, Class<T> type) {
+		this(keyFields, comparators, serializer, type, false);
+	}
+
+	/**
+	 * Creates a comparator that optionally reads the key fields through a generated accessor.
+	 *
+	 * @see PojoFieldAccessorGenerator
+	 */
+	@SuppressWarnings("unchecked")
+	public PojoComparator(Field[] keyFields, TypeComparator<?>[] comparators, TypeSerializer<T> serializer,
+			Class<T> type, boolean generateAccessor) {
 		this.keyFields = keyFields;
 		this.comparators = (TypeComparator<Object>[]) comparators;
 
 		this.type = type;
 		this.serializer = serializer;
+		this.generateAccessor = generateAccessor;
 
 		// set up auxiliary fields for normalized key support
 		this.normalizedKeyLengths = new int[keyFields.length];
+		this.invertedNormalizedKeyFields = new boolean[keyFields.length];
 		int nKeys = 0;
 		int nKeyLen = 0;
 		boolean inverted = false;
@@ -85,8 +104,8 @@ public final class PojoComparator<T> extends CompositeTypeComparator<T> implemen
 					inverted = k.invertNormalizedKey();
 				}
 				else if (k.invertNormalizedKey() != inverted) {
-					// if a successor does not agree on the invertion direction, it cannot be part of the normalized key
-					break;
+					// if a successor does not agree on the inversion direction, its key is complemented
+					this.invertedNormalizedKeyFields[i] = true;
 				}
 
 				nKeys++;
@@ -102,6 +121,11 @@ public final class PojoComparator<T> extends CompositeTypeComparator<T> implemen
 					nKeyLen = Integer.MAX_VALUE;
 					break;
 				}
+				if (k.isNormalizedKeyPrefixOnly(len)) {
+					// the key does not fully determine the order of this field, so the keys of
+					// the subsequent fields must not become part of the normalized key
+					break;
+				}
 			} else {
 				break;
 			}
@@ -109,11 +133,15 @@ public final class PojoComparator<T> extends CompositeTypeComparator<T> implemen
 		this.numLeadingNormalizableKeys = nKeys;
 		this.normalizableKeyPrefixLen = nKeyLen;
 		this.invertNormKey = inverted;
+
+		this.accessor = PojoFieldAccessorGenerator.createAccessor(type, keyFields, generateAccessor);
 	}
 
 	@SuppressWarnings("unchecked")
 	private PojoComparator(PojoComparator<T> toClone) {
 		this.keyFields = toClone.keyFields;
+		this.accessor = toClone.accessor;
+		this.generateAccessor = toClone.generateAccessor;
 		this.comparators = new TypeComparator[toClone.comparators.length];
 
 		for (int i = 0; i < toClone.comparators.length; i++) {
@@ -121,6 +149,7 @@ public final class PojoComparator<T> extends CompositeTypeComparator<T> implemen
 		}
 
 		this.normalizedKeyLengths = toClone.normalizedKeyLengths;
+		this.invertedNormalizedKeyFields = toClone.invertedNormalizedKeyFields;
 		this.numLeadingNormalizableKeys = toClone.numLeadingNormalizableKeys;
 		this.normalizableKeyPrefixLen = toClone.normalizableKeyPrefixLen;
 		this.invertNormKey = toClone.invertNormKey;
@@ -171,6 +200,7 @@ public final class PojoComparator<T> extends CompositeTypeComparator<T> implemen
 						+ " (" + fieldName + ")");
 			}
 		}
+		accessor = PojoFieldAccessorGenerator.createAccessor(type, keyFields, generateAccessor);
 	}
 
 	public Field[] getKeyFields() {
@@ -204,6 +234,13 @@ public final class PojoComparator<T> extends CompositeTypeComparator<T> implemen
 		return object;
 	}
 
+	private Object accessKeyField(int keyField, Object object) {
+		if (object == null) {
+			throw new NullKeyFieldException("Unable to access field " + keyFields[keyField] + " on object null");
+		}
+		return accessor.get(object, keyField);
+	}
+
 	@Override
 	public int hash(T value) {
 		int i = 0;
@@ -211,7 +248,7 @@ public final class PojoComparator<T> extends CompositeTypeComparator<T> implemen
 		for (; i < this.keyFields.length; i++) {
 			code *= TupleComparatorBase.HASH_SALT[i & 0x1F];
 			try {
-				code += this.comparators[i].hash(accessField(keyFields[i], value));
+				code += this.comparators[i].hash(accessKeyField(i, value));
 			}catch(NullPointerException npe) {
 				throw new RuntimeException("A NullPointerException occured while accessing a key field in a POJO. " +
 						"Most likely, the value grouped/joined on is null. Field name: "+keyFields[i].getName(), npe);
@@ -225,7 +262,7 @@ public final class PojoComparator<T> extends CompositeTypeComparator<T> implemen
 	public void setReference(T toCompare) {
 		int i = 0;
 		for (; i < this.keyFields.length; i++) {
-			this.comparators[i].setReference(accessField(keyFields[i], toCompare));
+			this.comparators[i].setReference(accessKeyField(i, toCompare));
 		}
 	}
 
@@ -233,7 +270,7 @@ public final class PojoComparator<T> extends CompositeTypeComparator<T> implemen
 	public boolean equalToReference(T candidate) {
 		int i = 0;
 		for (; i < this.keyFields.length; i++) {
-			if (!this.comparators[i].equalToReference(accessField(keyFields[i], candidate))) {
+			if (!this.comparators[i].equalToReference(accessKeyField(i, candidate))) {
 				return false;
 			}
 		}
@@ -263,7 +300,7 @@ public final class PojoComparator<T> extends CompositeTypeComparator<T> implemen
 	public int compare(T first, T second) {
 		int i = 0;
 		for (; i < keyFields.length; i++) {
-			int cmp = comparators[i].compare(accessField(keyFields[i], first), accessField(keyFields[i], second));
+			int cmp = comparators[i].compare(accessKeyField(i, first), accessKeyField(i, second));
 			if (cmp != 0) {
 				return cmp;
 			}
@@ -298,7 +335,9 @@ public final class PojoComparator<T> extends CompositeTypeComparator<T> implemen
 	public boolean isNormalizedKeyPrefixOnly(int keyBytes) {
 		return this.numLeadingNormalizableKeys < this.keyFields.length ||
 				this.normalizableKeyPrefixLen == Integer.MAX_VALUE ||
-				this.normalizableKeyPrefixLen > keyBytes;
+				this.normalizableKeyPrefixLen > keyBytes ||
+				this.comparators[this.numLeadingNormalizableKeys - 1].isNormalizedKeyPrefixOnly(
+						this.normalizedKeyLengths[this.numLeadingNormalizableKeys - 1]);
 	}
 
 	@Override
@@ -308,7 +347,13 @@ public final class PojoComparator<T> extends CompositeTypeComparator<T> implemen
 		{
 			int len = this.normalizedKeyLengths[i];
 			len = numBytes >= len ? len : numBytes;
-			this.comparators[i].putNormalizedKey(accessField(keyFields[i], value), target, offset, len);
+			this.comparators[i].putNormalizedKey(accessKeyField(i, value), target, offset, len);
+			if (this.invertedNormalizedKeyFields[i]) {
+				// the field's order differs from the first field, complementing the key reverses it
+				for (int k = offset; k < offset + len; k++) {
+					target.put(k, (byte) ~target.get(k));
+				}
+			}
 			numBytes -= len;
 			offset += len;
 		}
@@ -344,7 +389,7 @@ public final class PojoComparator<T> extends CompositeTypeComparator<T> implemen
 	public int extractKeys(Object record, Object[] target, int index) {
 		int localIndex = index;
 		for (int i = 0; i < comparators.length; i++) {
-			localIndex += comparators[i].extractKeys(accessField(keyFields[i], record), target, localIndex);
+			localIndex += comparators[i].extractKeys(accessKeyField(i, record), target, localIndex);
 		}
 		return localIndex - index;
 	}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.typeutils.runtime;
+
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+
+import java.io.IOException;
+
+/**
+ * Reads and writes the fields of a POJO, for the {@link PojoSerializer} and the
+ * {@link PojoComparator}. The fields are addressed by their position in the field array
+ * that the accessor was created for.
+ *
+ * <p>The serialization methods write the fields in the format of the {@link PojoSerializer}:
+ * every field is preceded by a boolean that marks null values.</p>
+ *
+ * @see PojoFieldAccessorGenerator
+ */
+public abstract class PojoFieldAccessor {
+
+	/**
+	 * Creates a new instance of the POJO class, without initializing its fields.
+	 */
+	public abstract Object newInstance();
+
+	/**
+	 * Returns the value of the field at the given position. Primitive values are boxed.
+	 */
+	public abstract Object get(Object pojo, int field);
+
+	/**
+	 * Sets the value of the field at the given position. Primitive values must be boxed.
+	 */
+	public abstract void set(Object pojo, int field, Object value);
+
+	/**
+	 * Writes all fields of the given POJO, using the given serializers for the field values.
+	 */
+	public abstract void serializeFields(Object pojo, TypeSerializer<Object>[] fieldSerializers,
+			DataOutputView target) throws IOException;
+
+	/**
+	 * Reads all fields into the given POJO, creating new field values.
+	 */
+	public abstract void deserializeFields(Object pojo, TypeSerializer<Object>[] fieldSerializers,
+			DataInputView source) throws IOException;
+
+	/**
+	 * Reads all fields into the given POJO, reusing the current field values where possible.
+	 */
+	public abstract void deserializeFieldsWithReuse(Object pojo, TypeSerializer<Object>[] fieldSerializers,
+			DataInputView source) throws IOException;
+}
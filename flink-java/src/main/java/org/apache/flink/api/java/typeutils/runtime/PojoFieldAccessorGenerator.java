@@ -0,0 +1,578 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.typeutils.runtime;
+
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.base.BooleanSerializer;
+import org.apache.flink.api.common.typeutils.base.ByteSerializer;
+import org.apache.flink.api.common.typeutils.base.CharSerializer;
+import org.apache.flink.api.common.typeutils.base.DoubleSerializer;
+import org.apache.flink.api.common.typeutils.base.FloatSerializer;
+import org.apache.flink.api.common.typeutils.base.IntSerializer;
+import org.apache.flink.api.common.typeutils.base.LongSerializer;
+import org.apache.flink.api.common.typeutils.base.ShortSerializer;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates {@link PojoFieldAccessor} classes that access the fields of a POJO type directly,
+ * through field instructions or calls of the getters and setters, instead of through reflection.
+ * Primitive fields are written and read without boxing.
+ *
+ * <p>The generated classes are defined in a class loader below the class loader of the POJO
+ * class, and are cached per POJO class. Accessors can only be generated if the POJO class, its
+ * fields (or their getters and setters) and the field types are public. For all other types, the
+ * {@link ReflectivePojoFieldAccessor} is used.</p>
+ */
+public final class PojoFieldAccessorGenerator implements Opcodes {
+
+	private static final Logger LOG = LoggerFactory.getLogger(PojoFieldAccessorGenerator.class);
+
+	private static final String GENERATED_PACKAGE = "org/apache/flink/api/java/typeutils/runtime/generated/";
+
+	private static final String ACCESSOR = Type.getInternalName(PojoFieldAccessor.class);
+	private static final String SERIALIZER = Type.getInternalName(TypeSerializer.class);
+	private static final String OUTPUT_VIEW = Type.getInternalName(DataOutputView.class);
+	private static final String INPUT_VIEW = Type.getInternalName(DataInputView.class);
+
+	/** Generated classes per POJO class and field list. The classes are only weakly referenced,
+	 * so that the cache does not keep user code class loaders alive. */
+	private static final Map<Class<?>, Map<String, WeakReference<Class<?>>>> CACHE =
+			new WeakHashMap<Class<?>, Map<String, WeakReference<Class<?>>>>();
+
+	private static final AtomicInteger CLASS_COUNTER = new AtomicInteger();
+
+	/**
+	 * Creates an accessor for the given fields of the given POJO class. If {@code generate} is
+	 * false, or no accessor can be generated for the type, a reflective accessor is returned.
+	 */
+	public static PojoFieldAccessor createAccessor(Class<?> clazz, Field[] fields, boolean generate) {
+		if (generate) {
+			try {
+				Class<?> accessorClass = getOrGenerateAccessorClass(clazz, fields);
+				if (accessorClass != null) {
+					return (PojoFieldAccessor) accessorClass.newInstance();
+				}
+			} catch (Throwable t) {
+				LOG.warn("Could not generate a field accessor for {}, falling back to reflection.", clazz.getName(), t);
+			}
+		}
+		return new ReflectivePojoFieldAccessor(clazz, fields);
+	}
+
+	/**
+	 * Checks whether the given field serializers are the ones that generated accessors inline for
+	 * primitive fields. Only then the generated accessors write the same format as the serializers.
+	 */
+	public static boolean hasDefaultPrimitiveSerializers(Field[] fields, TypeSerializer<?>[] fieldSerializers) {
+		for (int i = 0; i < fields.length; i++) {
+			Class<?> type = fields[i].getType();
+			if (type.isPrimitive() && getDefaultSerializerClass(type) != fieldSerializers[i].getClass()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static synchronized Class<?> getOrGenerateAccessorClass(Class<?> clazz, Field[] fields) {
+		StringBuilder keyBuilder = new StringBuilder();
+		for (Field field : fields) {
+			keyBuilder.append(field.getDeclaringClass().getName()).append('#').append(field.getName()).append(';');
+		}
+		String key = keyBuilder.toString();
+
+		Map<String, WeakReference<Class<?>>> accessors = CACHE.get(clazz);
+		if (accessors == null) {
+			accessors = new HashMap<String, WeakReference<Class<?>>>();
+			CACHE.put(clazz, accessors);
+		}
+		WeakReference<Class<?>> ref = accessors.get(key);
+		Class<?> accessorClass = ref == null ? null : ref.get();
+		if (accessorClass == null) {
+			accessorClass = generateAccessorClass(clazz, fields);
+			if (accessorClass == null) {
+				// remember that the type cannot be generated, the cache value is never null otherwise
+				accessors.put(key, new WeakReference<Class<?>>(ReflectivePojoFieldAccessor.class));
+			} else {
+				accessors.put(key, new WeakReference<Class<?>>(accessorClass));
+			}
+		}
+		return accessorClass == ReflectivePojoFieldAccessor.class ? null : accessorClass;
+	}
+
+	// --------------------------------------------------------------------------------------------
+	//  Code generation
+	// --------------------------------------------------------------------------------------------
+
+	private static Class<?> generateAccessorClass(Class<?> clazz, Field[] fields) {
+		ClassLoader parent = clazz.getClassLoader();
+		if (parent == null || !isAccessible(clazz)) {
+			LOG.debug("Cannot generate a field accessor for {}, the class is not accessible.", clazz.getName());
+			return null;
+		}
+
+		boolean instantiable = !clazz.isInterface() && !Modifier.isAbstract(clazz.getModifiers());
+		if (instantiable) {
+			try {
+				instantiable = Modifier.isPublic(clazz.getConstructor().getModifiers());
+			} catch (NoSuchMethodException e) {
+				instantiable = false;
+			}
+		}
+
+		FieldAccess[] accesses = new FieldAccess[fields.length];
+		for (int i = 0; i < fields.length; i++) {
+			accesses[i] = FieldAccess.forField(clazz, fields[i]);
+			if (accesses[i] == null) {
+				LOG.debug("Cannot generate a field accessor for {}, the field {} is not accessible.",
+						clazz.getName(), fields[i].getName());
+				return null;
+			}
+		}
+
+		String className = GENERATED_PACKAGE + "PojoFieldAccessor$" + clazz.getSimpleName() + "$" + CLASS_COUNTER.incrementAndGet();
+		String owner = Type.getInternalName(clazz);
+
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		// class file version 49 does not require stack map frames
+		cw.visit(V1_5, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, className, null, ACCESSOR, null);
+
+		generateConstructor(cw);
+		generateNewInstance(cw, owner, instantiable);
+		generateGet(cw, owner, accesses);
+		generateSet(cw, owner, accesses);
+		generateSerializeFields(cw, owner, accesses);
+		generateDeserializeFields(cw, owner, accesses, false);
+		generateDeserializeFields(cw, owner, accesses, true);
+
+		cw.visitEnd();
+
+		Class<?> accessorClass = new AccessorClassLoader(parent).define(className.replace('/', '.'), cw.toByteArray());
+		if (!PojoFieldAccessor.class.isAssignableFrom(accessorClass)) {
+			// the class loader of the POJO sees a different version of Flink
+			return null;
+		}
+		return accessorClass;
+	}
+
+	private static void generateConstructor(ClassWriter cw) {
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitMethodInsn(INVOKESPECIAL, ACCESSOR, "<init>", "()V", false);
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	private static void generateNewInstance(ClassWriter cw, String owner, boolean instantiable) {
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "newInstance", "()Ljava/lang/Object;", null, null);
+		mv.visitCode();
+		if (instantiable) {
+			mv.visitTypeInsn(NEW, owner);
+			mv.visitInsn(DUP);
+			mv.visitMethodInsn(INVOKESPECIAL, owner, "<init>", "()V", false);
+		} else {
+			mv.visitInsn(ACONST_NULL);
+		}
+		mv.visitInsn(ARETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	private static void generateGet(ClassWriter cw, String owner, FieldAccess[] accesses) {
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "get", "(Ljava/lang/Object;I)Ljava/lang/Object;", null, null);
+		mv.visitCode();
+
+		Label[] cases = createLabels(accesses.length);
+		Label defaultCase = new Label();
+		mv.visitVarInsn(ILOAD, 2);
+		mv.visitTableSwitchInsn(0, accesses.length - 1, defaultCase, cases);
+		for (int i = 0; i < accesses.length; i++) {
+			mv.visitLabel(cases[i]);
+			mv.visitVarInsn(ALOAD, 1);
+			mv.visitTypeInsn(CHECKCAST, owner);
+			accesses[i].generateGet(mv, owner);
+			box(mv, accesses[i].type);
+			mv.visitInsn(ARETURN);
+		}
+		mv.visitLabel(defaultCase);
+		throwIndexOutOfBounds(mv);
+
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	private static void generateSet(ClassWriter cw, String owner, FieldAccess[] accesses) {
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "set", "(Ljava/lang/Object;ILjava/lang/Object;)V", null, null);
+		mv.visitCode();
+
+		Label[] cases = createLabels(accesses.length);
+		Label defaultCase = new Label();
+		mv.visitVarInsn(ILOAD, 2);
+		mv.visitTableSwitchInsn(0, accesses.length - 1, defaultCase, cases);
+		for (int i = 0; i < accesses.length; i++) {
+			mv.visitLabel(cases[i]);
+			mv.visitVarInsn(ALOAD, 1);
+			mv.visitTypeInsn(CHECKCAST, owner);
+			mv.visitVarInsn(ALOAD, 3);
+			unboxOrCast(mv, accesses[i].type);
+			accesses[i].generateSet(mv, owner);
+			mv.visitInsn(RETURN);
+		}
+		mv.visitLabel(defaultCase);
+		throwIndexOutOfBounds(mv);
+
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	/**
+	 * Locals: 1 = pojo, 2 = field serializers, 3 = target view, 4 = typed pojo, 5 = field value.
+	 */
+	private static void generateSerializeFields(ClassWriter cw, String owner, FieldAccess[] accesses) {
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "serializeFields",
+				"(Ljava/lang/Object;[L" + SERIALIZER + ";L" + OUTPUT_VIEW + ";)V", null,
+				new String[] {"java/io/IOException"});
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitTypeInsn(CHECKCAST, owner);
+		mv.visitVarInsn(ASTORE, 4);
+
+		for (int i = 0; i < accesses.length; i++) {
+			FieldAccess access = accesses[i];
+			if (access.type.isPrimitive()) {
+				// primitive fields are never null
+				mv.visitVarInsn(ALOAD, 3);
+				mv.visitInsn(ICONST_0);
+				mv.visitMethodInsn(INVOKEINTERFACE, OUTPUT_VIEW, "writeBoolean", "(Z)V", true);
+				mv.visitVarInsn(ALOAD, 3);
+				mv.visitVarInsn(ALOAD, 4);
+				access.generateGet(mv, owner);
+				PrimitiveIO io = PrimitiveIO.forType(access.type);
+				mv.visitMethodInsn(INVOKEINTERFACE, OUTPUT_VIEW, io.writeMethod, io.writeDescriptor, true);
+			} else {
+				Label notNull = new Label();
+				Label end = new Label();
+				mv.visitVarInsn(ALOAD, 4);
+				access.generateGet(mv, owner);
+				mv.visitVarInsn(ASTORE, 5);
+				mv.visitVarInsn(ALOAD, 5);
+				mv.visitJumpInsn(IFNONNULL, notNull);
+				mv.visitVarInsn(ALOAD, 3);
+				mv.visitInsn(ICONST_1);
+				mv.visitMethodInsn(INVOKEINTERFACE, OUTPUT_VIEW, "writeBoolean", "(Z)V", true);
+				mv.visitJumpInsn(GOTO, end);
+				mv.visitLabel(notNull);
+				mv.visitVarInsn(ALOAD, 3);
+				mv.visitInsn(ICONST_0);
+				mv.visitMethodInsn(INVOKEINTERFACE, OUTPUT_VIEW, "writeBoolean", "(Z)V", true);
+				loadSerializer(mv, i);
+				mv.visitVarInsn(ALOAD, 5);
+				mv.visitVarInsn(ALOAD, 3);
+				mv.visitMethodInsn(INVOKEVIRTUAL, SERIALIZER, "serialize",
+						"(Ljava/lang/Object;L" + OUTPUT_VIEW + ";)V", false);
+				mv.visitLabel(end);
+			}
+		}
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	/**
+	 * Locals: 1 = pojo, 2 = field serializers, 3 = source view, 4 = typed pojo, 5 = field value.
+	 */
+	private static void generateDeserializeFields(ClassWriter cw, String owner, FieldAccess[] accesses, boolean reuse) {
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, reuse ? "deserializeFieldsWithReuse" : "deserializeFields",
+				"(Ljava/lang/Object;[L" + SERIALIZER + ";L" + INPUT_VIEW + ";)V", null,
+				new String[] {"java/io/IOException"});
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitTypeInsn(CHECKCAST, owner);
+		mv.visitVarInsn(ASTORE, 4);
+
+		for (int i = 0; i < accesses.length; i++) {
+			FieldAccess access = accesses[i];
+			Label end = new Label();
+
+			mv.visitVarInsn(ALOAD, 3);
+			mv.visitMethodInsn(INVOKEINTERFACE, INPUT_VIEW, "readBoolean", "()Z", true);
+
+			if (access.type.isPrimitive()) {
+				// a primitive field cannot be null, so the value is always present
+				mv.visitJumpInsn(IFNE, end);
+				mv.visitVarInsn(ALOAD, 4);
+				mv.visitVarInsn(ALOAD, 3);
+				PrimitiveIO io = PrimitiveIO.forType(access.type);
+				mv.visitMethodInsn(INVOKEINTERFACE, INPUT_VIEW, io.readMethod, io.readDescriptor, true);
+				access.generateSet(mv, owner);
+			} else {
+				Label read = new Label();
+				mv.visitJumpInsn(IFEQ, read);
+				mv.visitVarInsn(ALOAD, 4);
+				mv.visitInsn(ACONST_NULL);
+				access.generateSet(mv, owner);
+				mv.visitJumpInsn(GOTO, end);
+
+				mv.visitLabel(read);
+				if (reuse) {
+					Label fresh = new Label();
+					Label store = new Label();
+					mv.visitVarInsn(ALOAD, 4);
+					access.generateGet(mv, owner);
+					mv.visitVarInsn(ASTORE, 5);
+					mv.visitVarInsn(ALOAD, 5);
+					mv.visitJumpInsn(IFNULL, fresh);
+					loadSerializer(mv, i);
+					mv.visitVarInsn(ALOAD, 5);
+					mv.visitVarInsn(ALOAD, 3);
+					mv.visitMethodInsn(INVOKEVIRTUAL, SERIALIZER, "deserialize",
+							"(Ljava/lang/Object;L" + INPUT_VIEW + ";)Ljava/lang/Object;", false);
+					mv.visitVarInsn(ASTORE, 5);
+					mv.visitJumpInsn(GOTO, store);
+					mv.visitLabel(fresh);
+					loadSerializer(mv, i);
+					mv.visitVarInsn(ALOAD, 3);
+					mv.visitMethodInsn(INVOKEVIRTUAL, SERIALIZER, "deserialize",
+							"(L" + INPUT_VIEW + ";)Ljava/lang/Object;", false);
+					mv.visitVarInsn(ASTORE, 5);
+					mv.visitLabel(store);
+					mv.visitVarInsn(ALOAD, 4);
+					mv.visitVarInsn(ALOAD, 5);
+				} else {
+					mv.visitVarInsn(ALOAD, 4);
+					loadSerializer(mv, i);
+					mv.visitVarInsn(ALOAD, 3);
+					mv.visitMethodInsn(INVOKEVIRTUAL, SERIALIZER, "deserialize",
+							"(L" + INPUT_VIEW + ";)Ljava/lang/Object;", false);
+				}
+				mv.visitTypeInsn(CHECKCAST, Type.getInternalName(access.type));
+				access.generateSet(mv, owner);
+			}
+			mv.visitLabel(end);
+		}
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	private static void loadSerializer(MethodVisitor mv, int index) {
+		mv.visitVarInsn(ALOAD, 2);
+		mv.visitLdcInsn(index);
+		mv.visitInsn(AALOAD);
+	}
+
+	private static Label[] createLabels(int num) {
+		Label[] labels = new Label[num];
+		for (int i = 0; i < num; i++) {
+			labels[i] = new Label();
+		}
+		return labels;
+	}
+
+	private static void throwIndexOutOfBounds(MethodVisitor mv) {
+		mv.visitTypeInsn(NEW, "java/lang/IndexOutOfBoundsException");
+		mv.visitInsn(DUP);
+		mv.visitMethodInsn(INVOKESPECIAL, "java/lang/IndexOutOfBoundsException", "<init>", "()V", false);
+		mv.visitInsn(ATHROW);
+	}
+
+	private static void box(MethodVisitor mv, Class<?> type) {
+		if (type.isPrimitive()) {
+			Class<?> boxed = PrimitiveIO.forType(type).boxedType;
+			mv.visitMethodInsn(INVOKESTATIC, Type.getInternalName(boxed), "valueOf",
+					"(" + Type.getDescriptor(type) + ")" + Type.getDescriptor(boxed), false);
+		}
+	}
+
+	private static void unboxOrCast(MethodVisitor mv, Class<?> type) {
+		if (type.isPrimitive()) {
+			String boxed = Type.getInternalName(PrimitiveIO.forType(type).boxedType);
+			mv.visitTypeInsn(CHECKCAST, boxed);
+			mv.visitMethodInsn(INVOKEVIRTUAL, boxed, type.getName() + "Value", "()" + Type.getDescriptor(type), false);
+		} else {
+			mv.visitTypeInsn(CHECKCAST, Type.getInternalName(type));
+		}
+	}
+
+	private static boolean isAccessible(Class<?> type) {
+		while (type.isArray()) {
+			type = type.getComponentType();
+		}
+		return type.isPrimitive() || Modifier.isPublic(type.getModifiers());
+	}
+
+	private static Class<?> getDefaultSerializerClass(Class<?> primitiveType) {
+		return PrimitiveIO.forType(primitiveType).serializerClass;
+	}
+
+	// --------------------------------------------------------------------------------------------
+
+	/**
+	 * How a field is read and written: directly, or through its getter and setter.
+	 */
+	private static final class FieldAccess {
+
+		final Field field;
+		final Class<?> type;
+		final Method getter;
+		final Method setter;
+
+		private FieldAccess(Field field, Method getter, Method setter) {
+			this.field = field;
+			this.type = field.getType();
+			this.getter = getter;
+			this.setter = setter;
+		}
+
+		static FieldAccess forField(Class<?> clazz, Field field) {
+			if (!isAccessible(field.getType())) {
+				return null;
+			}
+			int modifiers = field.getModifiers();
+			if (Modifier.isPublic(modifiers) && !Modifier.isFinal(modifiers) && !Modifier.isStatic(modifiers)
+					&& isAccessible(field.getDeclaringClass())) {
+				return new FieldAccess(field, null, null);
+			}
+
+			// same conventions as in the TypeExtractor
+			String fieldNameLow = field.getName().toLowerCase().replaceAll("_", "");
+			Method getter = null;
+			Method setter = null;
+			for (Method m : clazz.getMethods()) {
+				if (!isAccessible(m.getDeclaringClass()) || Modifier.isStatic(m.getModifiers())) {
+					continue;
+				}
+				String methodNameLow = m.getName().endsWith("_$eq") ?
+						m.getName().toLowerCase().replaceAll("_", "").replaceFirst("\\$eq$", "_\\$eq") :
+						m.getName().toLowerCase().replaceAll("_", "");
+				if ((methodNameLow.equals("get" + fieldNameLow) || methodNameLow.equals("is" + fieldNameLow)
+						|| methodNameLow.equals(fieldNameLow))
+						&& m.getParameterTypes().length == 0 && m.getReturnType() == field.getType()) {
+					getter = m;
+				}
+				if ((methodNameLow.equals("set" + fieldNameLow) || methodNameLow.equals(fieldNameLow + "_$eq"))
+						&& m.getParameterTypes().length == 1
+						&& m.getParameterTypes()[0] == field.getType() && m.getReturnType() == void.class) {
+					setter = m;
+				}
+			}
+			if (getter == null || setter == null) {
+				return null;
+			}
+			return new FieldAccess(field, getter, setter);
+		}
+
+		/** Expects the typed POJO on the stack, leaves the field value on the stack. */
+		void generateGet(MethodVisitor mv, String owner) {
+			if (getter == null) {
+				mv.visitFieldInsn(GETFIELD, owner, field.getName(), Type.getDescriptor(type));
+			} else {
+				mv.visitMethodInsn(INVOKEVIRTUAL, owner, getter.getName(), Type.getMethodDescriptor(getter), false);
+			}
+		}
+
+		/** Expects the typed POJO and the field value on the stack. */
+		void generateSet(MethodVisitor mv, String owner) {
+			if (setter == null) {
+				mv.visitFieldInsn(PUTFIELD, owner, field.getName(), Type.getDescriptor(type));
+			} else {
+				mv.visitMethodInsn(INVOKEVIRTUAL, owner, setter.getName(), Type.getMethodDescriptor(setter), false);
+			}
+		}
+	}
+
+	/**
+	 * The methods to read and write a primitive type, matching its default serializer.
+	 */
+	private enum PrimitiveIO {
+		BOOLEAN(boolean.class, Boolean.class, BooleanSerializer.class, "Boolean", "Z"),
+		BYTE(byte.class, Byte.class, ByteSerializer.class, "Byte", "B"),
+		SHORT(short.class, Short.class, ShortSerializer.class, "Short", "S"),
+		CHAR(char.class, Character.class, CharSerializer.class, "Char", "C"),
+		INT(int.class, Integer.class, IntSerializer.class, "Int", "I"),
+		LONG(long.class, Long.class, LongSerializer.class, "Long", "J"),
+		FLOAT(float.class, Float.class, FloatSerializer.class, "Float", "F"),
+		DOUBLE(double.class, Double.class, DoubleSerializer.class, "Double", "D");
+
+		final Class<?> type;
+		final Class<?> boxedType;
+		final Class<?> serializerClass;
+		final String writeMethod;
+		final String writeDescriptor;
+		final String readMethod;
+		final String readDescriptor;
+
+		PrimitiveIO(Class<?> type, Class<?> boxedType, Class<?> serializerClass, String name, String descriptor) {
+			this.type = type;
+			this.boxedType = boxedType;
+			this.serializerClass = serializerClass;
+			this.writeMethod = "write" + name;
+			// DataOutput takes ints for the smaller integral types
+			boolean widened = type == byte.class || type == short.class || type == char.class;
+			this.writeDescriptor = "(" + (widened ? "I" : descriptor) + ")V";
+			this.readMethod = "read" + name;
+			this.readDescriptor = "()" + descriptor;
+		}
+
+		static PrimitiveIO forType(Class<?> type) {
+			for (PrimitiveIO io : values()) {
+				if (io.type == type) {
+					return io;
+				}
+			}
+			throw new IllegalArgumentException("Not a primitive type: " + type);
+		}
+	}
+
+	/**
+	 * Class loader that defines a single generated accessor class.
+	 */
+	private static final class AccessorClassLoader extends ClassLoader {
+
+		AccessorClassLoader(ClassLoader parent) {
+			super(parent);
+		}
+
+		Class<?> define(String name, byte[] bytecode) {
+			return defineClass(name, bytecode, 0, bytecode.length);
+		}
+	}
+
+	private PojoFieldAccessorGenerator() {
+		throw new RuntimeException();
+	}
+}
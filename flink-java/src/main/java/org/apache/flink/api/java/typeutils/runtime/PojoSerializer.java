@@ -35,10 +35,14 @@ import java.util.Objects;
 import com.google.common.base.Preconditions;
 import org.apache.flink.api.common.ExecutionConfig;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.common.typeutils.CompatibilityResult;
+import org.apache.flink.api.common.typeutils.ConvertDeserializer;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.TypeSerializerConfigSnapshot;
 import org.apache.flink.api.java.typeutils.TypeExtractor;
 import org.apache.flink.core.memory.DataInputView;
 import org.apache.flink.core.memory.DataOutputView;
+import org.apache.flink.util.InstantiationUtil;
 
 
 public final class PojoSerializer<T> extends TypeSerializer<T> {
@@ -67,6 +71,10 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 	private transient ClassLoader cl;
 	// We need to handle these ourselves in writeObject()/readObject()
 	private transient Field[] fields;
+	// Reads and writes the fields, either generated or through reflection
+	private transient PojoFieldAccessor accessor;
+	// Created lazily, since the field serializers need to be serialized for it
+	private transient PojoSerializerConfigSnapshot configSnapshot;
 
 	@SuppressWarnings("unchecked")
 	public PojoSerializer(
@@ -86,6 +94,7 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 		for (int i = 0; i < numFields; i++) {
 			this.fields[i].setAccessible(true);
 		}
+		this.accessor = createAccessor();
 
 		cl = Thread.currentThread().getContextClassLoader();
 
@@ -151,10 +160,18 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 			}
 		}
 
+		accessor = createAccessor();
+
 		cl = Thread.currentThread().getContextClassLoader();
 		subclassSerializerCache = new HashMap<Class<?>, TypeSerializer<?>>();
 	}
 
+	private PojoFieldAccessor createAccessor() {
+		boolean generate = executionConfig.isPojoCodeGenerationEnabled() &&
+				PojoFieldAccessorGenerator.hasDefaultPrimitiveSerializers(fields, fieldSerializers);
+		return PojoFieldAccessorGenerator.createAccessor(clazz, fields, generate);
+	}
+
 	private TypeSerializer<?> getSubclassSerializer(Class<?> subclass) {
 		TypeSerializer<?> result = subclassSerializerCache.get(subclass);
 		if (result == null) {
@@ -218,23 +235,15 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 		if (clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers())) {
 			return null;
 		}
-		try {
-			T t = clazz.newInstance();
-			initializeFields(t);
-			return t;
-		}
-		catch (Exception e) {
-			throw new RuntimeException("Cannot instantiate class.", e);
-		}
+		@SuppressWarnings("unchecked")
+		T t = (T) accessor.newInstance();
+		initializeFields(t);
+		return t;
 	}
 
 	protected void initializeFields(T t) {
 		for (int i = 0; i < numFields; i++) {
-			try {
-				fields[i].set(t, fieldSerializers[i].createInstance());
-			} catch (IllegalAccessException e) {
-				throw new RuntimeException("Cannot initialize fields.", e);
-			}
+			accessor.set(t, i, fieldSerializers[i].createInstance());
 		}
 	}
 
@@ -247,28 +256,17 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 
 		Class<?> actualType = from.getClass();
 		if (actualType == clazz) {
-			T target;
-			try {
-				target = (T) from.getClass().newInstance();
-			}
-			catch (Throwable t) {
-				throw new RuntimeException("Cannot instantiate class.", t);
-			}
+			T target = (T) accessor.newInstance();
 			// no subclass
-			try {
-				for (int i = 0; i < numFields; i++) {
-					Object value = fields[i].get(from);
-					if (value != null) {
-						Object copy = fieldSerializers[i].copy(value);
-						fields[i].set(target, copy);
-					}
-					else {
-						fields[i].set(target, null);
-					}
+			for (int i = 0; i < numFields; i++) {
+				Object value = accessor.get(from, i);
+				if (value != null) {
+					Object copy = fieldSerializers[i].copy(value);
+					accessor.set(target, i, copy);
+				}
+				else {
+					accessor.set(target, i, null);
 				}
-			} catch (IllegalAccessException e) {
-				throw new RuntimeException("Error during POJO copy, this should not happen since we check the fields before.");
-
 			}
 			return target;
 		} else {
@@ -292,26 +290,22 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 		}
 
 		if (actualType == clazz) {
-			try {
-				for (int i = 0; i < numFields; i++) {
-					Object value = fields[i].get(from);
-					if (value != null) {
-						Object reuseValue = fields[i].get(reuse);
-						Object copy;
-						if(reuseValue != null) {
-							copy = fieldSerializers[i].copy(value, reuseValue);
-						}
-						else {
-							copy = fieldSerializers[i].copy(value);
-						}
-						fields[i].set(reuse, copy);
+			for (int i = 0; i < numFields; i++) {
+				Object value = accessor.get(from, i);
+				if (value != null) {
+					Object reuseValue = accessor.get(reuse, i);
+					Object copy;
+					if(reuseValue != null) {
+						copy = fieldSerializers[i].copy(value, reuseValue);
 					}
 					else {
-						fields[i].set(reuse, null);
+						copy = fieldSerializers[i].copy(value);
 					}
+					accessor.set(reuse, i, copy);
+				}
+				else {
+					accessor.set(reuse, i, null);
 				}
-			} catch (IllegalAccessException e) {
-				throw new RuntimeException("Error during POJO copy, this should not happen since we check the fields" + "before.");
 			}
 		} else {
 			TypeSerializer subclassSerializer = getSubclassSerializer(actualType);
@@ -364,20 +358,7 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 
 
 		if ((flags & NO_SUBCLASS) != 0) {
-			try {
-				for (int i = 0; i < numFields; i++) {
-					Object o = fields[i].get(value);
-					if (o == null) {
-						target.writeBoolean(true); // null field handling
-					} else {
-						target.writeBoolean(false);
-						fieldSerializers[i].serialize(o, target);
-					}
-				}
-			} catch (IllegalAccessException e) {
-				throw new RuntimeException("Error during POJO copy, this should not happen since we check the fields" + "before.");
-
-			}
+			accessor.serializeFields(value, fieldSerializers, target);
 		} else {
 			// subclass
 			if (subclassSerializer != null) {
@@ -387,8 +368,19 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 	}
 
 	@Override
-	@SuppressWarnings({"unchecked", "rawtypes"})
 	public T deserialize(DataInputView source) throws IOException {
+		return deserialize(source, null, null);
+	}
+
+	/**
+	 * Deserializes a record. If field readers are given, the fields of the record are read in the
+	 * format of a previous version of this serializer, as described by the readers, and every
+	 * field value is assigned to the field at the corresponding target position (or dropped,
+	 * if the target position is negative).
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private T deserialize(DataInputView source, TypeSerializer<Object>[] fieldReaders, int[] targetFields)
+			throws IOException {
 		int flags = source.readByte();
 		if((flags & IS_NULL) != 0) {
 			return null;
@@ -422,19 +414,17 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 		}
 
 		if ((flags & NO_SUBCLASS) != 0) {
-			try {
-				for (int i = 0; i < numFields; i++) {
+			if (fieldReaders == null) {
+				accessor.deserializeFields(target, fieldSerializers, source);
+			} else {
+				for (int i = 0; i < fieldReaders.length; i++) {
 					boolean isNull = source.readBoolean();
-					if (isNull) {
-						fields[i].set(target, null);
-					} else {
-						Object field = fieldSerializers[i].deserialize(source);
-						fields[i].set(target, field);
+					Object value = isNull ? null : fieldReaders[i].deserialize(source);
+					int pos = targetFields[i];
+					if (pos >= 0 && (value != null || !fields[pos].getType().isPrimitive())) {
+						accessor.set(target, pos, value);
 					}
 				}
-			} catch (IllegalAccessException e) {
-				throw new RuntimeException("Error during POJO copy, this should not happen since we check the fields" + "before.");
-
 			}
 		} else {
 			if (subclassSerializer != null) {
@@ -488,29 +478,7 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 		}
 
 		if ((flags & NO_SUBCLASS) != 0) {
-			try {
-				for (int i = 0; i < numFields; i++) {
-					boolean isNull = source.readBoolean();
-					if (isNull) {
-						fields[i].set(reuse, null);
-					} else {
-						Object field;
-
-						Object reuseField = fields[i].get(reuse);
-						if(reuseField != null) {
-							field = fieldSerializers[i].deserialize(reuseField, source);
-						}
-						else {
-							field = fieldSerializers[i].deserialize(source);
-						}
-
-						fields[i].set(reuse, field);
-					}
-				}
-			} catch (IllegalAccessException e) {
-				throw new RuntimeException(
-						"Error during POJO copy, this should not happen since we check the fields before.");
-			}
+			accessor.deserializeFieldsWithReuse(reuse, fieldSerializers, source);
 		} else {
 			if (subclassSerializer != null) {
 				reuse = (T) subclassSerializer.deserialize(reuse, source);
@@ -563,6 +531,135 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 		}
 	}
 	
+	// --------------------------------------------------------------------------------------------
+	// Serialization format snapshots and compatibility
+	// --------------------------------------------------------------------------------------------
+
+	@Override
+	public PojoSerializerConfigSnapshot snapshotConfiguration() {
+		if (configSnapshot == null) {
+			String[] fieldNames = new String[numFields];
+			TypeSerializerConfigSnapshot[] fieldSerializerConfigs = new TypeSerializerConfigSnapshot[numFields];
+			byte[][] serializedFieldSerializers = new byte[numFields][];
+
+			for (int i = 0; i < numFields; i++) {
+				fieldNames[i] = fields[i].getName();
+				fieldSerializerConfigs[i] = fieldSerializers[i].snapshotConfiguration();
+				try {
+					serializedFieldSerializers[i] = InstantiationUtil.serializeObject(fieldSerializers[i]);
+				} catch (IOException e) {
+					throw new RuntimeException("Could not serialize the serializer of field " + fieldNames[i], e);
+				}
+			}
+
+			String[] registeredSubclassNames = new String[registeredClasses.size()];
+			int i = 0;
+			for (Class<?> registeredClass : registeredClasses.keySet()) {
+				registeredSubclassNames[i++] = registeredClass.getName();
+			}
+
+			configSnapshot = new PojoSerializerConfigSnapshot(clazz.getName(), fieldNames,
+					fieldSerializerConfigs, serializedFieldSerializers, registeredSubclassNames);
+		}
+		return configSnapshot;
+	}
+
+	/**
+	 * Checks whether data written by a previous version of this serializer can be read. Fields are
+	 * matched by name, so that data written before fields were added to or removed from the POJO
+	 * can be migrated: values of removed fields are skipped, and added fields keep the value they
+	 * are initialized with in {@link #createInstance()}. Values of fields whose serializers require
+	 * migration themselves are converted with the convert deserializers of the field serializers.
+	 *
+	 * <p>Instances of subclasses are read with the current subclass serializers. Changing the set
+	 * of registered subclasses breaks the compatibility.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public CompatibilityResult<T> ensureCompatibility(TypeSerializerConfigSnapshot configSnapshot) {
+		if (!(configSnapshot instanceof PojoSerializerConfigSnapshot) ||
+				configSnapshot.getVersion() != PojoSerializerConfigSnapshot.VERSION) {
+			return CompatibilityResult.incompatible();
+		}
+
+		PojoSerializerConfigSnapshot config = (PojoSerializerConfigSnapshot) configSnapshot;
+		if (!clazz.getName().equals(config.getPojoClassName()) ||
+				!Arrays.equals(snapshotConfiguration().getRegisteredSubclassNames(), config.getRegisteredSubclassNames())) {
+			return CompatibilityResult.incompatible();
+		}
+
+		String[] previousFieldNames = config.getFieldNames();
+		TypeSerializer<Object>[] fieldReaders = new TypeSerializer[previousFieldNames.length];
+		int[] targetFields = new int[previousFieldNames.length];
+		boolean requiresMigration = previousFieldNames.length != numFields;
+
+		for (int i = 0; i < previousFieldNames.length; i++) {
+			int pos = getFieldIndex(previousFieldNames[i]);
+			targetFields[i] = pos;
+			requiresMigration |= pos != i;
+
+			if (pos >= 0) {
+				CompatibilityResult<Object> fieldResult =
+						fieldSerializers[pos].ensureCompatibility(config.getFieldSerializerConfigs()[i]);
+				if (!fieldResult.isRequiresMigration()) {
+					fieldReaders[i] = fieldSerializers[pos];
+				} else if (fieldResult.getConvertDeserializer() != null) {
+					fieldReaders[i] = fieldResult.getConvertDeserializer();
+					requiresMigration = true;
+				} else {
+					return CompatibilityResult.incompatible();
+				}
+			} else {
+				// the field was removed, its data is read with the previous serializer and dropped
+				try {
+					fieldReaders[i] = InstantiationUtil.deserializeObject(
+							config.getSerializedFieldSerializer(i), clazz.getClassLoader());
+				} catch (Exception e) {
+					return CompatibilityResult.incompatible();
+				}
+			}
+		}
+
+		return requiresMigration ?
+				CompatibilityResult.requiresMigration(new PojoConvertDeserializer<T>(this, fieldReaders, targetFields)) :
+				CompatibilityResult.<T>compatible();
+	}
+
+	private int getFieldIndex(String fieldName) {
+		for (int i = 0; i < numFields; i++) {
+			if (fields[i].getName().equals(fieldName)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Reads POJOs in the format of a previous version of the {@link PojoSerializer}.
+	 */
+	private static final class PojoConvertDeserializer<T> extends ConvertDeserializer<T> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final TypeSerializer<Object>[] fieldReaders;
+
+		private final int[] targetFields;
+
+		PojoConvertDeserializer(PojoSerializer<T> currentSerializer,
+				TypeSerializer<Object>[] fieldReaders, int[] targetFields) {
+			super(currentSerializer);
+			this.fieldReaders = fieldReaders;
+			this.targetFields = targetFields;
+		}
+
+		@Override
+		public T deserialize(DataInputView source) throws IOException {
+			return ((PojoSerializer<T>) currentSerializer).deserialize(source, fieldReaders, targetFields);
+		}
+	}
+
+	// --------------------------------------------------------------------------------------------
+
 	@Override
 	public int hashCode() {
 		return 31 * (31 * Arrays.hashCode(fieldSerializers) + Arrays.hashCode(registeredSerializers)) +
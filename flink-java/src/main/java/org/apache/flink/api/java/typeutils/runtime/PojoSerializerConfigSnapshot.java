@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.typeutils.runtime;
+
+import com.google.common.base.Preconditions;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.TypeSerializerConfigSnapshot;
+
+import java.util.Arrays;
+
+/**
+ * The configuration snapshot of a {@link PojoSerializer}. Next to the POJO class, it records the
+ * names of the serialized fields in the order in which they are written, the configuration snapshots
+ * of the field serializers, and the registered subclasses.
+ *
+ * <p>The field serializers themselves are kept in serialized form, so that data of fields that
+ * have been removed from the POJO can still be skipped when the data is migrated. They are only
+ * deserialized when needed, since they may refer to user classes that no longer exist.
+ */
+public final class PojoSerializerConfigSnapshot extends TypeSerializerConfigSnapshot {
+
+	private static final long serialVersionUID = 1L;
+
+	/** The version of the POJO serialization format */
+	public static final int VERSION = 1;
+
+	/** The name of the POJO class */
+	private final String pojoClassName;
+
+	/** The names of the fields, in the order in which they are serialized */
+	private final String[] fieldNames;
+
+	/** The snapshots of the field serializers */
+	private final TypeSerializerConfigSnapshot[] fieldSerializerConfigs;
+
+	/** The field serializers, serialized with Java serialization */
+	private final byte[][] serializedFieldSerializers;
+
+	/** The names of the registered subclasses, in the order of their tags */
+	private final String[] registeredSubclassNames;
+
+	public PojoSerializerConfigSnapshot(
+			String pojoClassName,
+			String[] fieldNames,
+			TypeSerializerConfigSnapshot[] fieldSerializerConfigs,
+			byte[][] serializedFieldSerializers,
+			String[] registeredSubclassNames) {
+
+		super(PojoSerializer.class.getName(), VERSION);
+
+		Preconditions.checkArgument(fieldNames.length == fieldSerializerConfigs.length &&
+				fieldNames.length == serializedFieldSerializers.length,
+				"The number of field names, field serializer configurations, and field serializers must match.");
+
+		this.pojoClassName = Preconditions.checkNotNull(pojoClassName);
+		this.fieldNames = fieldNames;
+		this.fieldSerializerConfigs = fieldSerializerConfigs;
+		this.serializedFieldSerializers = serializedFieldSerializers;
+		this.registeredSubclassNames = Preconditions.checkNotNull(registeredSubclassNames);
+	}
+
+	public String getPojoClassName() {
+		return pojoClassName;
+	}
+
+	public String[] getFieldNames() {
+		return fieldNames;
+	}
+
+	public TypeSerializerConfigSnapshot[] getFieldSerializerConfigs() {
+		return fieldSerializerConfigs;
+	}
+
+	/**
+	 * Gets the serialized form of the serializer for the field at the given position. The serializer
+	 * can be restored via {@link org.apache.flink.util.InstantiationUtil#deserializeObject(byte[], ClassLoader)}
+	 * and be cast to a {@link TypeSerializer}.
+	 *
+	 * @param pos The position of the field.
+	 * @return The serialized field serializer.
+	 */
+	public byte[] getSerializedFieldSerializer(int pos) {
+		return serializedFieldSerializers[pos];
+	}
+
+	public String[] getRegisteredSubclassNames() {
+		return registeredSubclassNames;
+	}
+
+	// --------------------------------------------------------------------------------------------
+
+	@Override
+	public boolean equals(Object obj) {
+		if (super.equals(obj)) {
+			PojoSerializerConfigSnapshot other = (PojoSerializerConfigSnapshot) obj;
+			return pojoClassName.equals(other.pojoClassName) &&
+					Arrays.equals(fieldNames, other.fieldNames) &&
+					Arrays.equals(fieldSerializerConfigs, other.fieldSerializerConfigs) &&
+					Arrays.equals(registeredSubclassNames, other.registeredSubclassNames);
+		}
+		else {
+			return false;
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (31 * pojoClassName.hashCode() + Arrays.hashCode(fieldNames)) +
+				Arrays.hashCode(registeredSubclassNames);
+	}
+
+	@Override
+	public String toString() {
+		return "PojoSerializerConfigSnapshot (" + pojoClassName + ", fields " + Arrays.toString(fieldNames) + ')';
+	}
+}
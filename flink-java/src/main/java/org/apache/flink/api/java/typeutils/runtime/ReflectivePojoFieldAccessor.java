@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.typeutils.runtime;
+
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+
+/**
+ * A {@link PojoFieldAccessor} that accesses the fields through reflection. It works for all
+ * POJO types and is used whenever no accessor can be generated.
+ */
+public final class ReflectivePojoFieldAccessor extends PojoFieldAccessor {
+
+	private final Class<?> clazz;
+
+	private final Field[] fields;
+
+	public ReflectivePojoFieldAccessor(Class<?> clazz, Field[] fields) {
+		this.clazz = clazz;
+		this.fields = fields;
+		for (Field field : fields) {
+			field.setAccessible(true);
+		}
+	}
+
+	@Override
+	public Object newInstance() {
+		try {
+			return clazz.newInstance();
+		}
+		catch (Exception e) {
+			throw new RuntimeException("Cannot instantiate class.", e);
+		}
+	}
+
+	@Override
+	public Object get(Object pojo, int field) {
+		try {
+			return fields[field].get(pojo);
+		} catch (IllegalAccessException e) {
+			throw new RuntimeException("This should not happen since we call setAccessible(true) in the constructor."
+					+ " field: " + fields[field] + " obj: " + pojo);
+		}
+	}
+
+	@Override
+	public void set(Object pojo, int field, Object value) {
+		try {
+			fields[field].set(pojo, value);
+		} catch (IllegalAccessException e) {
+			throw new RuntimeException("This should not happen since we call setAccessible(true) in the constructor."
+					+ " field: " + fields[field] + " obj: " + pojo);
+		}
+	}
+
+	@Override
+	public void serializeFields(Object pojo, TypeSerializer<Object>[] fieldSerializers, DataOutputView target) throws IOException {
+		for (int i = 0; i < fields.length; i++) {
+			Object o = get(pojo, i);
+			if (o == null) {
+				target.writeBoolean(true); // null field handling
+			} else {
+				target.writeBoolean(false);
+				fieldSerializers[i].serialize(o, target);
+			}
+		}
+	}
+
+	@Override
+	public void deserializeFields(Object pojo, TypeSerializer<Object>[] fieldSerializers, DataInputView source) throws IOException {
+		for (int i = 0; i < fields.length; i++) {
+			boolean isNull = source.readBoolean();
+			if (isNull) {
+				set(pojo, i, null);
+			} else {
+				set(pojo, i, fieldSerializers[i].deserialize(source));
+			}
+		}
+	}
+
+	@Override
+	public void deserializeFieldsWithReuse(Object pojo, TypeSerializer<Object>[] fieldSerializers, DataInputView source) throws IOException {
+		for (int i = 0; i < fields.length; i++) {
+			boolean isNull = source.readBoolean();
+			if (isNull) {
+				set(pojo, i, null);
+			} else {
+				Object field;
+
+				Object reuseField = get(pojo, i);
+				if (reuseField != null) {
+					field = fieldSerializers[i].deserialize(reuseField, source);
+				}
+				else {
+					field = fieldSerializers[i].deserialize(source);
+				}
+
+				set(pojo, i, field);
+			}
+		}
+	}
+}
@@ -132,6 +132,9 @@ public final class TupleComparator<T extends Tuple> extends TupleComparatorBase<
 				int len = this.normalizedKeyLengths[i];
 				len = numBytes >= len ? len : numBytes;
 				this.comparators[i].putNormalizedKey(value.getFieldNotNull(this.keyPositions[i]), target, offset, len);
+				if (this.invertedNormalizedKeyFields[i]) {
+					invertNormalizedKeyBytes(target, offset, len);
+				}
 				numBytes -= len;
 				offset += len;
 			}
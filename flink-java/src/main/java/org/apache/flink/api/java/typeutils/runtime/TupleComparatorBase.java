@@ -25,6 +25,7 @@ import org.apache.flink.api.common.typeutils.TypeComparator;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.core.memory.DataInputView;
 import org.apache.flink.core.memory.DataOutputView;
+import org.apache.flink.core.memory.MemorySegment;
 import org.apache.flink.types.KeyFieldOutOfBoundsException;
 import org.apache.flink.types.NullKeyFieldException;
 
@@ -42,6 +43,9 @@ public abstract class TupleComparatorBase<T> extends CompositeTypeComparator<T>
 
 	protected int[] normalizedKeyLengths;
 
+	/** flags for the fields whose normalized key is complemented, because their order differs from the first field */
+	protected boolean[] invertedNormalizedKeyFields;
+
 	protected int numLeadingNormalizableKeys;
 
 	protected int normalizableKeyPrefixLen;
@@ -67,6 +71,7 @@ public abstract class TupleComparatorBase<T> extends CompositeTypeComparator<T>
 
 		// set up auxiliary fields for normalized key support
 		this.normalizedKeyLengths = new int[keyPositions.length];
+		this.invertedNormalizedKeyFields = new boolean[keyPositions.length];
 		int nKeys = 0;
 		int nKeyLen = 0;
 		boolean inverted = false;
@@ -81,8 +86,8 @@ public abstract class TupleComparatorBase<T> extends CompositeTypeComparator<T>
 					inverted = k.invertNormalizedKey();
 				}
 				else if (k.invertNormalizedKey() != inverted) {
-					// if a successor does not agree on the inversion direction, it cannot be part of the normalized key
-					break;
+					// if a successor does not agree on the inversion direction, its key is complemented
+					this.invertedNormalizedKeyFields[i] = true;
 				}
 
 				nKeys++;
@@ -98,6 +103,11 @@ public abstract class TupleComparatorBase<T> extends CompositeTypeComparator<T>
 					nKeyLen = Integer.MAX_VALUE;
 					break;
 				}
+				if (k.isNormalizedKeyPrefixOnly(len)) {
+					// the key does not fully determine the order of this field, so the keys of
+					// the subsequent fields must not become part of the normalized key
+					break;
+				}
 			} else {
 				break;
 			}
@@ -128,6 +138,7 @@ public abstract class TupleComparatorBase<T> extends CompositeTypeComparator<T>
 		}
 
 		this.normalizedKeyLengths = toClone.normalizedKeyLengths;
+		this.invertedNormalizedKeyFields = toClone.invertedNormalizedKeyFields;
 		this.numLeadingNormalizableKeys = toClone.numLeadingNormalizableKeys;
 		this.normalizableKeyPrefixLen = toClone.normalizableKeyPrefixLen;
 		this.invertNormKey = toClone.invertNormKey;
@@ -225,13 +236,24 @@ public abstract class TupleComparatorBase<T> extends CompositeTypeComparator<T>
 	public boolean isNormalizedKeyPrefixOnly(int keyBytes) {
 		return this.numLeadingNormalizableKeys < this.keyPositions.length ||
 				this.normalizableKeyPrefixLen == Integer.MAX_VALUE ||
-				this.normalizableKeyPrefixLen > keyBytes;
+				this.normalizableKeyPrefixLen > keyBytes ||
+				this.comparators[this.numLeadingNormalizableKeys - 1].isNormalizedKeyPrefixOnly(
+						this.normalizedKeyLengths[this.numLeadingNormalizableKeys - 1]);
 	}
 
 	@Override
 	public boolean invertNormalizedKey() {
 		return this.invertNormKey;
 	}
+
+	/**
+	 * Complements the given bytes of a normalized key, which reverses their order.
+	 */
+	protected final void invertNormalizedKeyBytes(MemorySegment target, int offset, int numBytes) {
+		for (int i = offset; i < offset + numBytes; i++) {
+			target.put(i, (byte) ~target.get(i));
+		}
+	}
 	
 	
 	@Override
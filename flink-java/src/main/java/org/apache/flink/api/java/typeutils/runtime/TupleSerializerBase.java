@@ -19,7 +19,11 @@
 package org.apache.flink.api.java.typeutils.runtime;
 
 import com.google.common.base.Preconditions;
+import org.apache.flink.api.common.typeutils.CompatibilityResult;
+import org.apache.flink.api.common.typeutils.CompositeTypeSerializerConfigSnapshot;
+import org.apache.flink.api.common.typeutils.ConvertDeserializer;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.TypeSerializerConfigSnapshot;
 import org.apache.flink.core.memory.DataInputView;
 import org.apache.flink.core.memory.DataOutputView;
 
@@ -76,6 +80,80 @@ public abstract class TupleSerializerBase<T> extends TypeSerializer<T> {
 		}
 	}
 	
+	// --------------------------------------------------------------------------------------------
+	// Serialization format snapshots and compatibility
+	// --------------------------------------------------------------------------------------------
+
+	@Override
+	public CompositeTypeSerializerConfigSnapshot snapshotConfiguration() {
+		return new CompositeTypeSerializerConfigSnapshot(this, tupleClass, fieldSerializers);
+	}
+
+	/**
+	 * Checks whether data written by a previous version of this serializer can be read. The data is
+	 * compatible if all field serializers are compatible. If some of the field serializers require
+	 * migration, the fields are read with their convert deserializers.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public CompatibilityResult<T> ensureCompatibility(TypeSerializerConfigSnapshot configSnapshot) {
+		if (!(configSnapshot instanceof CompositeTypeSerializerConfigSnapshot) ||
+				!getClass().getName().equals(configSnapshot.getSerializerClassName())) {
+			return CompatibilityResult.incompatible();
+		}
+
+		CompositeTypeSerializerConfigSnapshot config = (CompositeTypeSerializerConfigSnapshot) configSnapshot;
+		TypeSerializerConfigSnapshot[] fieldConfigs = config.getFieldSerializerConfigs();
+		if (!tupleClass.getName().equals(config.getTypeClassName()) || fieldConfigs.length != arity) {
+			return CompatibilityResult.incompatible();
+		}
+
+		TypeSerializer<Object>[] fieldReaders = new TypeSerializer[arity];
+		boolean requiresMigration = false;
+
+		for (int i = 0; i < arity; i++) {
+			CompatibilityResult<Object> fieldResult = fieldSerializers[i].ensureCompatibility(fieldConfigs[i]);
+			if (!fieldResult.isRequiresMigration()) {
+				fieldReaders[i] = fieldSerializers[i];
+			} else if (fieldResult.getConvertDeserializer() != null) {
+				fieldReaders[i] = fieldResult.getConvertDeserializer();
+				requiresMigration = true;
+			} else {
+				return CompatibilityResult.incompatible();
+			}
+		}
+
+		return requiresMigration ?
+				CompatibilityResult.requiresMigration(new TupleConvertDeserializer<T>(this, fieldReaders)) :
+				CompatibilityResult.<T>compatible();
+	}
+
+	/**
+	 * Reads tuples whose fields are in the format of previous versions of the field serializers.
+	 */
+	private static final class TupleConvertDeserializer<T> extends ConvertDeserializer<T> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final TypeSerializer<Object>[] fieldReaders;
+
+		TupleConvertDeserializer(TupleSerializerBase<T> currentSerializer, TypeSerializer<Object>[] fieldReaders) {
+			super(currentSerializer);
+			this.fieldReaders = fieldReaders;
+		}
+
+		@Override
+		public T deserialize(DataInputView source) throws IOException {
+			Object[] fields = new Object[fieldReaders.length];
+			for (int i = 0; i < fields.length; i++) {
+				fields[i] = fieldReaders[i].deserialize(source);
+			}
+			return ((TupleSerializerBase<T>) currentSerializer).createInstance(fields);
+		}
+	}
+
+	// --------------------------------------------------------------------------------------------
+
 	@Override
 	public int hashCode() {
 		return 31 * Arrays.hashCode(fieldSerializers) + Objects.hash(tupleClass, arity);
@@ -47,8 +47,11 @@ import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -67,6 +70,30 @@ public class KryoSerializer<T> extends TypeSerializer<T> {
 
 	private static final Logger LOG = LoggerFactory.getLogger(KryoSerializer.class);
 
+	/** The maximum number of Kryo instances that are cached per thread */
+	private static final int MAX_CACHED_KRYO_INSTANCES_PER_THREAD = 16;
+
+	/**
+	 * The configured Kryo instances of the current thread. Duplicates of a serializer (and other
+	 * serializers with the same configuration) that are used by the same thread share one Kryo
+	 * instance, so that Kryo is not set up again for every duplicate. Kryo instances are not
+	 * thread-safe, so they are never shared across threads.
+	 */
+	private static final ThreadLocal<Map<KryoConfiguration, Kryo>> CACHED_KRYO_INSTANCES =
+			new ThreadLocal<Map<KryoConfiguration, Kryo>>() {
+				@Override
+				protected Map<KryoConfiguration, Kryo> initialValue() {
+					return new LinkedHashMap<KryoConfiguration, Kryo>(16, 0.75f, true) {
+						private static final long serialVersionUID = 1L;
+
+						@Override
+						protected boolean removeEldestEntry(Map.Entry<KryoConfiguration, Kryo> eldest) {
+							return size() > MAX_CACHED_KRYO_INSTANCES_PER_THREAD;
+						}
+					};
+				}
+			};
+
 	// ------------------------------------------------------------------------
 
 	private final LinkedHashMap<Class<?>, ExecutionConfig.SerializableSerializer<?>> registeredTypesWithSerializers;
@@ -321,53 +348,135 @@ public class KryoSerializer<T> extends TypeSerializer<T> {
 
 	private void checkKryoInitialized() {
 		if (this.kryo == null) {
-			this.kryo = getKryoInstance();
-
-			// disable reference tracking. reference tracking is costly, usually unnecessary, and
-			// inconsistent with Flink's own serialization (which does not do reference tracking)
-			kryo.setReferences(false);
-			
-			// Throwable and all subclasses should be serialized via java serialization
-			kryo.addDefaultSerializer(Throwable.class, new JavaSerializer());
-
-			// Add default serializers first, so that they type registrations without a serializer
-			// are registered with a default serializer
-			for (Map.Entry<Class<?>, ExecutionConfig.SerializableSerializer<?>> entry: defaultSerializers.entrySet()) {
-				kryo.addDefaultSerializer(entry.getKey(), entry.getValue().getSerializer());
-			}
+			KryoConfiguration configuration = new KryoConfiguration(this, Thread.currentThread().getContextClassLoader());
+			Map<KryoConfiguration, Kryo> cachedInstances = CACHED_KRYO_INSTANCES.get();
 
-			for (Map.Entry<Class<?>, Class<? extends Serializer<?>>> entry: defaultSerializerClasses.entrySet()) {
-				kryo.addDefaultSerializer(entry.getKey(), entry.getValue());
+			this.kryo = cachedInstances.get(configuration);
+			if (this.kryo == null) {
+				this.kryo = createConfiguredKryo();
+				cachedInstances.put(configuration, kryo);
 			}
+		}
+	}
+
+	private Kryo createConfiguredKryo() {
+		Kryo kryo = getKryoInstance();
+
+		// disable reference tracking. reference tracking is costly, usually unnecessary, and
+		// inconsistent with Flink's own serialization (which does not do reference tracking)
+		kryo.setReferences(false);
+		
+		// Throwable and all subclasses should be serialized via java serialization
+		kryo.addDefaultSerializer(Throwable.class, new JavaSerializer());
+
+		// Add default serializers first, so that they type registrations without a serializer
+		// are registered with a default serializer
+		for (Map.Entry<Class<?>, ExecutionConfig.SerializableSerializer<?>> entry: defaultSerializers.entrySet()) {
+			kryo.addDefaultSerializer(entry.getKey(), entry.getValue().getSerializer());
+		}
+
+		for (Map.Entry<Class<?>, Class<? extends Serializer<?>>> entry: defaultSerializerClasses.entrySet()) {
+			kryo.addDefaultSerializer(entry.getKey(), entry.getValue());
+		}
 
-			// register the type of our class
+		// register the type of our class
+		kryo.register(type);
+
+		// register given types. we do this first so that any registration of a
+		// more specific serializer overrides this
+		for (Class<?> type : registeredTypes) {
 			kryo.register(type);
+		}
 
-			// register given types. we do this first so that any registration of a
-			// more specific serializer overrides this
-			for (Class<?> type : registeredTypes) {
-				kryo.register(type);
-			}
+		// register given serializer classes
+		for (Map.Entry<Class<?>, Class<? extends Serializer<?>>> e : registeredTypesWithSerializerClasses.entrySet()) {
+			Class<?> typeClass = e.getKey();
+			Class<? extends Serializer<?>> serializerClass = e.getValue();
+
+			Serializer<?> serializer =
+					ReflectionSerializerFactory.makeSerializer(kryo, serializerClass, typeClass);
+			kryo.register(typeClass, serializer);
+		}
+
+		// register given serializers
+		for (Map.Entry<Class<?>, ExecutionConfig.SerializableSerializer<?>> e : registeredTypesWithSerializers.entrySet()) {
+			kryo.register(e.getKey(), e.getValue().getSerializer());
+		}
+		// this is needed for Avro but can not be added on demand.
+		kryo.register(GenericData.Array.class, new SpecificInstanceCollectionSerializerForArrayList());
 
-			// register given serializer classes
-			for (Map.Entry<Class<?>, Class<? extends Serializer<?>>> e : registeredTypesWithSerializerClasses.entrySet()) {
-				Class<?> typeClass = e.getKey();
-				Class<? extends Serializer<?>> serializerClass = e.getValue();
+		kryo.setRegistrationRequired(false);
+		kryo.setClassLoader(Thread.currentThread().getContextClassLoader());
 
-				Serializer<?> serializer =
-						ReflectionSerializerFactory.makeSerializer(kryo, serializerClass, typeClass);
-				kryo.register(typeClass, serializer);
+		return kryo;
+	}
+
+	/**
+	 * The configuration that determines how a Kryo instance is set up for a serializer: the
+	 * serialized type, the registrations in their order (which determines the registration IDs),
+	 * and the class loader. Registrations with serializer instances are only considered equal if
+	 * they are the same (or empty), since the serializer instances do not implement {@code equals()}.
+	 */
+	private static final class KryoConfiguration {
+
+		private final Class<?> serializerClass;
+		private final Class<?> type;
+		private final ClassLoader classLoader;
+
+		private final List<Class<?>> registeredTypes;
+		private final List<Map.Entry<Class<?>, Class<? extends Serializer<?>>>> registeredTypesWithSerializerClasses;
+		private final List<Map.Entry<Class<?>, Class<? extends Serializer<?>>>> defaultSerializerClasses;
+
+		private final Map<Class<?>, ExecutionConfig.SerializableSerializer<?>> registeredTypesWithSerializers;
+		private final Map<Class<?>, ExecutionConfig.SerializableSerializer<?>> defaultSerializers;
+
+		KryoConfiguration(KryoSerializer<?> serializer, ClassLoader classLoader) {
+			this.serializerClass = serializer.getClass();
+			this.type = serializer.type;
+			this.classLoader = classLoader;
+
+			// copy the registrations, the collections may still be changed by the execution config
+			this.registeredTypes = new ArrayList<>(serializer.registeredTypes);
+			this.registeredTypesWithSerializerClasses = copyEntries(serializer.registeredTypesWithSerializerClasses);
+			this.defaultSerializerClasses = copyEntries(serializer.defaultSerializerClasses);
+
+			this.registeredTypesWithSerializers = serializer.registeredTypesWithSerializers;
+			this.defaultSerializers = serializer.defaultSerializers;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj instanceof KryoConfiguration) {
+				KryoConfiguration other = (KryoConfiguration) obj;
+				return serializerClass == other.serializerClass &&
+						type == other.type &&
+						classLoader == other.classLoader &&
+						registeredTypes.equals(other.registeredTypes) &&
+						registeredTypesWithSerializerClasses.equals(other.registeredTypesWithSerializerClasses) &&
+						defaultSerializerClasses.equals(other.defaultSerializerClasses) &&
+						sameOrEmpty(registeredTypesWithSerializers, other.registeredTypesWithSerializers) &&
+						sameOrEmpty(defaultSerializers, other.defaultSerializers);
+			} else {
+				return false;
 			}
+		}
 
-			// register given serializers
-			for (Map.Entry<Class<?>, ExecutionConfig.SerializableSerializer<?>> e : registeredTypesWithSerializers.entrySet()) {
-				kryo.register(e.getKey(), e.getValue().getSerializer());
+		@Override
+		public int hashCode() {
+			return 31 * (31 * Objects.hash(serializerClass, type, registeredTypes) +
+					registeredTypesWithSerializerClasses.hashCode()) + System.identityHashCode(classLoader);
+		}
+
+		private static <K, V> List<Map.Entry<K, V>> copyEntries(Map<K, V> map) {
+			List<Map.Entry<K, V>> entries = new ArrayList<>(map.size());
+			for (Map.Entry<K, V> entry : map.entrySet()) {
+				entries.add(new AbstractMap.SimpleImmutableEntry<>(entry));
 			}
-			// this is needed for Avro but can not be added on demand.
-			kryo.register(GenericData.Array.class, new SpecificInstanceCollectionSerializerForArrayList());
+			return entries;
+		}
 
-			kryo.setRegistrationRequired(false);
-			kryo.setClassLoader(Thread.currentThread().getContextClassLoader());
+		private static boolean sameOrEmpty(Map<?, ?> a, Map<?, ?> b) {
+			return a == b || (a.isEmpty() && b.isEmpty());
 		}
 	}
 
@@ -375,6 +484,10 @@ public class KryoSerializer<T> extends TypeSerializer<T> {
 	// For testing
 	// --------------------------------------------------------------------------------------------
 	
+	/**
+	 * Gets the Kryo instance of this serializer. Note that the instance is shared with the other
+	 * serializers of the same configuration that are used by the current thread.
+	 */
 	public Kryo getKryo() {
 		checkKryoInitialized();
 		return this.kryo;
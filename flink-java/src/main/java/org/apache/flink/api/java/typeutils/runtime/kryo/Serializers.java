@@ -28,6 +28,10 @@ import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.specific.SpecificRecordBase;
 import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.common.typeutils.CompositeType;
+import org.apache.flink.api.java.Utils;
+import org.apache.flink.api.java.typeutils.GenericTypeInfo;
 import org.apache.flink.api.java.typeutils.TypeExtractor;
 import org.joda.time.DateTime;
 import org.joda.time.Interval;
@@ -40,6 +44,7 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 
@@ -53,43 +58,70 @@ import java.util.Set;
  * Also, there is a Java Annotation for adding a default serializer (@DefaultSerializer) to classes.
  */
 public class Serializers {
+
+	/**
+	 * NOTE: This method is not a public Flink API.
+	 *
+	 * Registers all generic types that are contained in the given type with Kryo, unless the
+	 * automatic type registration is disabled in the given config. The types are registered in a
+	 * deterministic order, so that all serializers created from the config (on the client and on
+	 * all TaskManagers) assign the same compact Kryo registration IDs to them.
+	 */
+	public static void registerGenericTypes(TypeInformation<?> typeInfo, ExecutionConfig config) {
+		if (config.isAutoTypeRegistrationDisabled()) {
+			return;
+		}
+		if (typeInfo instanceof GenericTypeInfo) {
+			recursivelyRegisterType(((GenericTypeInfo<?>) typeInfo).getTypeClass(), config);
+		}
+		else if (typeInfo instanceof CompositeType) {
+			List<GenericTypeInfo<?>> genericTypesInComposite = new ArrayList<>();
+			Utils.getContainedGenericTypes((CompositeType<?>) typeInfo, genericTypesInComposite);
+			for (GenericTypeInfo<?> gt : genericTypesInComposite) {
+				recursivelyRegisterType(gt.getTypeClass(), config);
+			}
+		}
+	}
+
 	/**
 	 * NOTE: This method is not a public Flink API.
 	 *
 	 * This method walks the entire hierarchy of the given type and registers all types it encounters
-	 * to Kryo.
+	 * to Kryo. This includes the types of the fields declared in super classes, the component
+	 * types of arrays, and the type arguments of generic fields.
 	 * It also watches for types which need special serializers.
 	 */
-	private static Set<Class<?>> alreadySeen = new HashSet<Class<?>>();
-
 	public static void recursivelyRegisterType(Class<?> type, ExecutionConfig config) {
-		alreadySeen.add(type);
-		if(type.isPrimitive()) {
+		recursivelyRegisterType(type, config, new HashSet<Class<?>>());
+	}
+
+	private static void recursivelyRegisterType(Class<?> type, ExecutionConfig config, Set<Class<?>> alreadySeen) {
+		if (!alreadySeen.add(type) || type.isPrimitive()) {
 			return;
 		}
 		config.registerKryoType(type);
 		addSerializerForType(config, type);
 
-		Field[] fields = type.getDeclaredFields();
-		for(Field field : fields) {
-			if(Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())) {
-				continue;
-			}
-			Type fieldType = field.getGenericType();
-			if(fieldType instanceof ParameterizedType) { // field has generics
-				ParameterizedType parameterizedFieldType = (ParameterizedType) fieldType;
-				for(Type t: parameterizedFieldType.getActualTypeArguments()) {
-					if(TypeExtractor.isClassType(t) ) {
-						Class clazz = TypeExtractor.typeToClass(t);
-						if(!alreadySeen.contains(clazz)) {
-							recursivelyRegisterType(TypeExtractor.typeToClass(t), config);
+		if (type.isArray()) {
+			recursivelyRegisterType(type.getComponentType(), config, alreadySeen);
+			return;
+		}
+
+		for (Class<?> clazz = type; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+			for (Field field : clazz.getDeclaredFields()) {
+				if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())) {
+					continue;
+				}
+				Type fieldType = field.getGenericType();
+				if (fieldType instanceof ParameterizedType) { // field has generics
+					ParameterizedType parameterizedFieldType = (ParameterizedType) fieldType;
+					for (Type t : parameterizedFieldType.getActualTypeArguments()) {
+						if (TypeExtractor.isClassType(t)) {
+							recursivelyRegisterType(TypeExtractor.typeToClass(t), config, alreadySeen);
 						}
 					}
 				}
-			}
-			Class<?> clazz = field.getType();
-			if(!alreadySeen.contains(clazz)) {
-				recursivelyRegisterType(clazz, config);
+				recursivelyRegisterType(field.getType(), config, alreadySeen);
 			}
 		}
 	}
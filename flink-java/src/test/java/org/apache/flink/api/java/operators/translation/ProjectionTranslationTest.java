@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.operators.translation;
+
+import org.apache.flink.api.common.Plan;
+import org.apache.flink.api.common.io.GenericInputFormat;
+import org.apache.flink.api.common.io.ProjectableInputFormat;
+import org.apache.flink.api.common.operators.GenericDataSinkBase;
+import org.apache.flink.api.common.operators.GenericDataSourceBase;
+import org.apache.flink.api.common.operators.Operator;
+import org.apache.flink.api.common.operators.base.MapOperatorBase;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.java.DataSet;
+import org.apache.flink.api.java.ExecutionEnvironment;
+import org.apache.flink.api.java.io.DiscardingOutputFormat;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.api.java.typeutils.TupleTypeInfo;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@SuppressWarnings("serial")
+public class ProjectionTranslationTest {
+
+	private static final TupleTypeInfo<Tuple3<Long, Double, String>> TYPE = new TupleTypeInfo<Tuple3<Long, Double, String>>(
+			BasicTypeInfo.LONG_TYPE_INFO, BasicTypeInfo.DOUBLE_TYPE_INFO, BasicTypeInfo.STRING_TYPE_INFO);
+
+	@Test
+	public void testProjectionPushedIntoDataSource() {
+		ExecutionEnvironment env = ExecutionEnvironment.getExecutionEnvironment();
+
+		ProjectableFormat format = new ProjectableFormat();
+		DataSet<Tuple3<Long, Double, String>> input = env.createInput(format, TYPE);
+		input.<Tuple2<String, Long>>project(2, 0).output(new DiscardingOutputFormat<Tuple2<String, Long>>());
+
+		Plan p = env.createProgramPlan();
+		Operator<?> sinkInput = p.getDataSinks().iterator().next().getInput();
+
+		assertTrue(sinkInput instanceof GenericDataSourceBase);
+		GenericDataSourceBase<?, ?> source = (GenericDataSourceBase<?, ?>) sinkInput;
+		assertEquals(new TupleTypeInfo<Tuple2<String, Long>>(BasicTypeInfo.STRING_TYPE_INFO, BasicTypeInfo.LONG_TYPE_INFO),
+				source.getOperatorInfo().getOutputType());
+
+		// the projection is set on a copy of the format
+		ProjectableFormat projectingFormat = (ProjectableFormat) source.getFormatWrapper().getUserCodeObject();
+		assertNotSame(format, projectingFormat);
+		assertArrayEquals(new int[] {2, 0}, projectingFormat.projectedFields);
+		assertNull(format.projectedFields);
+	}
+
+	@Test
+	public void testProjectionNotPushedIntoSharedDataSource() {
+		ExecutionEnvironment env = ExecutionEnvironment.getExecutionEnvironment();
+
+		DataSet<Tuple3<Long, Double, String>> input = env.createInput(new ProjectableFormat(), TYPE);
+		input.<Tuple2<String, Long>>project(2, 0).output(new DiscardingOutputFormat<Tuple2<String, Long>>());
+		input.output(new DiscardingOutputFormat<Tuple3<Long, Double, String>>());
+
+		Plan p = env.createProgramPlan();
+		for (GenericDataSinkBase<?> sink : p.getDataSinks()) {
+			if (sink.getInput() instanceof MapOperatorBase) {
+				Operator<?> source = ((MapOperatorBase<?, ?, ?>) sink.getInput()).getInput();
+				assertEquals(TYPE, source.getOperatorInfo().getOutputType());
+			} else {
+				assertEquals(TYPE, sink.getInput().getOperatorInfo().getOutputType());
+			}
+		}
+	}
+
+	@Test
+	public void testProjectionNotPushedIntoOtherFormats() {
+		ExecutionEnvironment env = ExecutionEnvironment.getExecutionEnvironment();
+
+		DataSet<Tuple3<Long, Double, String>> input = env.fromElements(new Tuple3<Long, Double, String>(1L, 2.0, "3"));
+		input.<Tuple2<String, Long>>project(2, 0).output(new DiscardingOutputFormat<Tuple2<String, Long>>());
+
+		Plan p = env.createProgramPlan();
+		assertTrue(p.getDataSinks().iterator().next().getInput() instanceof MapOperatorBase);
+	}
+
+	private static class ProjectableFormat extends GenericInputFormat<Tuple3<Long, Double, String>>
+			implements ProjectableInputFormat {
+
+		int[] projectedFields;
+
+		@Override
+		public void setProjectedFields(int[] fields) {
+			this.projectedFields = fields;
+		}
+
+		@Override
+		public boolean reachedEnd() throws IOException {
+			return true;
+		}
+
+		@Override
+		public Tuple3<Long, Double, String> nextRecord(Tuple3<Long, Double, String> reuse) throws IOException {
+			return null;
+		}
+	}
+}
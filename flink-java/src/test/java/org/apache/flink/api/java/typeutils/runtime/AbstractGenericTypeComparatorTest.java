@@ -98,7 +98,7 @@ abstract public class AbstractGenericTypeComparatorTest {
 
 	// ------------------------------------------------------------------------
 
-	private <T> void runTests(T... sortedTestData) {
+	protected <T> void runTests(T... sortedTestData) {
 		ComparatorTestInstance<T> testBase = new ComparatorTestInstance<T>(sortedTestData);
 		testBase.testAll();
 	}
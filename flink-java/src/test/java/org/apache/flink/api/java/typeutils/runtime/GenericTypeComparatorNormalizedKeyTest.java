@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.flink.api.java.typeutils.runtime;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.java.typeutils.runtime.kryo.KryoSerializer;
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.core.memory.MemorySegmentFactory;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that the built-in normalized key encodings of the {@link GenericTypeComparator} order
+ * like the types' natural order when the key is long enough to hold the complete value.
+ */
+public class GenericTypeComparatorNormalizedKeyTest {
+
+	private static final int KEY_LEN = 64;
+
+	private static final int NUM_VALUES = 200;
+
+	@Test
+	public void testBigIntegerKeysMatchNaturalOrder() {
+		Random rnd = new Random(2727349837423L);
+		BigInteger[] values = new BigInteger[NUM_VALUES];
+		for (int i = 0; i < values.length; i++) {
+			BigInteger value = new BigInteger(rnd.nextInt(200), rnd);
+			values[i] = rnd.nextBoolean() ? value.negate() : value;
+		}
+		checkKeys(values, BigInteger.class);
+	}
+
+	@Test
+	public void testBigDecimalKeysMatchNaturalOrder() {
+		Random rnd = new Random(8238476234234L);
+		BigDecimal[] values = new BigDecimal[NUM_VALUES];
+		for (int i = 0; i < values.length; i++) {
+			BigInteger unscaled = new BigInteger(rnd.nextInt(150), rnd);
+			values[i] = new BigDecimal(rnd.nextBoolean() ? unscaled.negate() : unscaled, rnd.nextInt(41) - 20);
+		}
+		// the same values with different scales
+		values[0] = new BigDecimal("12.50");
+		values[1] = new BigDecimal("12.5");
+		values[2] = new BigDecimal("-0.0100");
+		values[3] = new BigDecimal("-0.01");
+		values[4] = new BigDecimal("0.000");
+		checkKeys(values, BigDecimal.class);
+	}
+
+	@Test
+	public void testTimestampKeysMatchNaturalOrder() {
+		Random rnd = new Random(6723462346234L);
+		Timestamp[] values = new Timestamp[NUM_VALUES];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = new Timestamp((rnd.nextInt(2000) - 1000) * 1000L);
+			values[i].setNanos(rnd.nextInt(4) * 250000000 + rnd.nextInt(3));
+		}
+		checkKeys(values, Timestamp.class);
+	}
+
+	@Test
+	public void testBigDecimalPrefixKeys() {
+		// numbers that differ only beyond the first key bytes must not be ordered by the prefix
+		GenericTypeComparator<BigDecimal> comparator = createComparator(BigDecimal.class);
+		BigDecimal small = new BigDecimal("1.23456789012345678");
+		BigDecimal large = new BigDecimal("1.23456789012345679");
+
+		MemorySegment seg = MemorySegmentFactory.allocateUnpooledSegment(16);
+		comparator.putNormalizedKey(small, seg, 0, 8);
+		comparator.putNormalizedKey(large, seg, 8, 8);
+		assertTrue(comparator.isNormalizedKeyPrefixOnly(8));
+		assertEquals(0, seg.compare(seg, 0, 8, 8));
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static void checkKeys(Comparable[] values, Class<?> type) {
+		GenericTypeComparator comparator = new GenericTypeComparator(true, new KryoSerializer(type, new ExecutionConfig()), type);
+		assertTrue(comparator.supportsNormalizedKey());
+
+		MemorySegment keys = MemorySegmentFactory.allocateUnpooledSegment(values.length * KEY_LEN);
+		for (int i = 0; i < values.length; i++) {
+			comparator.putNormalizedKey(values[i], keys, i * KEY_LEN, KEY_LEN);
+		}
+
+		for (int i = 0; i < values.length; i++) {
+			for (int j = 0; j < values.length; j++) {
+				int expected = Integer.signum(values[i].compareTo(values[j]));
+				int actual = Integer.signum(keys.compare(keys, i * KEY_LEN, j * KEY_LEN, KEY_LEN));
+				assertEquals(values[i] + " <> " + values[j], expected, actual);
+			}
+		}
+	}
+
+	private static <T extends Comparable<T>> GenericTypeComparator<T> createComparator(Class<T> type) {
+		return new GenericTypeComparator<T>(true, new KryoSerializer<T>(type, new ExecutionConfig()), type);
+	}
+}
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.typeutils.runtime;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.typeutils.TypeExtractor;
+import org.apache.flink.core.memory.DataInputViewStreamWrapper;
+import org.apache.flink.core.memory.DataOutputViewStreamWrapper;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Field;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link PojoFieldAccessorGenerator}.
+ */
+public class PojoFieldAccessorGeneratorTest {
+
+	@Test
+	public void testPublicFields() throws Exception {
+		Field[] fields = getFields(PrimitivePojo.class, "b", "by", "s", "c", "i", "l", "f", "d", "str");
+		PojoFieldAccessor accessor = PojoFieldAccessorGenerator.createAccessor(PrimitivePojo.class, fields, true);
+		assertFalse(accessor instanceof ReflectivePojoFieldAccessor);
+
+		PrimitivePojo pojo = (PrimitivePojo) accessor.newInstance();
+		accessor.set(pojo, 4, 42);
+		accessor.set(pojo, 5, 43L);
+		accessor.set(pojo, 8, "foo");
+		assertEquals(42, pojo.i);
+		assertEquals(43L, pojo.l);
+		assertEquals("foo", pojo.str);
+		assertEquals(42, accessor.get(pojo, 4));
+		assertEquals("foo", accessor.get(pojo, 8));
+	}
+
+	@Test
+	public void testGettersAndSetters() throws Exception {
+		Field[] fields = getFields(GetterSetterPojo.class, "count", "name");
+		PojoFieldAccessor accessor = PojoFieldAccessorGenerator.createAccessor(GetterSetterPojo.class, fields, true);
+		assertFalse(accessor instanceof ReflectivePojoFieldAccessor);
+
+		GetterSetterPojo pojo = new GetterSetterPojo();
+		accessor.set(pojo, 0, 7);
+		accessor.set(pojo, 1, "bar");
+		assertEquals(7, pojo.getCount());
+		assertEquals("bar", pojo.getName());
+		assertEquals(7, accessor.get(pojo, 0));
+		assertEquals("bar", accessor.get(pojo, 1));
+	}
+
+	@Test
+	public void testFallbackForInaccessibleTypes() throws Exception {
+		Field[] fields = getFields(PrivatePojo.class, "value");
+		assertTrue(PojoFieldAccessorGenerator.createAccessor(PrivatePojo.class, fields, true)
+				instanceof ReflectivePojoFieldAccessor);
+
+		// generation disabled
+		fields = getFields(PrimitivePojo.class, "i");
+		assertTrue(PojoFieldAccessorGenerator.createAccessor(PrimitivePojo.class, fields, false)
+				instanceof ReflectivePojoFieldAccessor);
+	}
+
+	@Test
+	public void testGeneratedClassIsCached() throws Exception {
+		Field[] fields = getFields(PrimitivePojo.class, "i", "str");
+		assertSame(
+				PojoFieldAccessorGenerator.createAccessor(PrimitivePojo.class, fields, true).getClass(),
+				PojoFieldAccessorGenerator.createAccessor(PrimitivePojo.class, fields, true).getClass());
+	}
+
+	@Test
+	public void testSameFormatAsReflectiveSerializer() throws Exception {
+		TypeSerializer<PrimitivePojo> reflective = TypeExtractor.getForClass(PrimitivePojo.class)
+				.createSerializer(new ExecutionConfig());
+		TypeSerializer<PrimitivePojo> generated = TypeExtractor.getForClass(PrimitivePojo.class)
+				.createSerializer(new ExecutionConfig().enablePojoCodeGeneration());
+
+		PrimitivePojo pojo = new PrimitivePojo();
+		pojo.b = true;
+		pojo.by = -3;
+		pojo.s = 1234;
+		pojo.c = 'x';
+		pojo.i = Integer.MIN_VALUE;
+		pojo.l = Long.MAX_VALUE;
+		pojo.f = 1.5f;
+		pojo.d = -2.25;
+		pojo.str = null;
+
+		byte[] reflectiveBytes = serialize(reflective, pojo);
+		byte[] generatedBytes = serialize(generated, pojo);
+		assertArrayEquals(reflectiveBytes, generatedBytes);
+
+		pojo.str = "some string";
+		generatedBytes = serialize(generated, pojo);
+		assertArrayEquals(serialize(reflective, pojo), generatedBytes);
+
+		PrimitivePojo copy = generated.deserialize(new DataInputViewStreamWrapper(new ByteArrayInputStream(generatedBytes)));
+		assertEquals(pojo, copy);
+
+		PrimitivePojo reuse = generated.createInstance();
+		reuse.str = "reused";
+		copy = generated.deserialize(reuse, new DataInputViewStreamWrapper(new ByteArrayInputStream(generatedBytes)));
+		assertSame(reuse, copy);
+		assertEquals(pojo, copy);
+	}
+
+	// --------------------------------------------------------------------------------------------
+
+	private static <T> byte[] serialize(TypeSerializer<T> serializer, T value) throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		serializer.serialize(value, new DataOutputViewStreamWrapper(bytes));
+		return bytes.toByteArray();
+	}
+
+	private static Field[] getFields(Class<?> clazz, String... names) throws Exception {
+		Field[] fields = new Field[names.length];
+		for (int i = 0; i < names.length; i++) {
+			fields[i] = clazz.getDeclaredField(names[i]);
+		}
+		return fields;
+	}
+
+	public static class PrimitivePojo {
+		public boolean b;
+		public byte by;
+		public short s;
+		public char c;
+		public int i;
+		public long l;
+		public float f;
+		public double d;
+		public String str;
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof PrimitivePojo)) {
+				return false;
+			}
+			PrimitivePojo other = (PrimitivePojo) obj;
+			return b == other.b && by == other.by && s == other.s && c == other.c && i == other.i &&
+					l == other.l && f == other.f && d == other.d &&
+					(str == null ? other.str == null : str.equals(other.str));
+		}
+
+		@Override
+		public int hashCode() {
+			return i;
+		}
+	}
+
+	public static class GetterSetterPojo {
+		private int count;
+		private String name;
+
+		public int getCount() {
+			return count;
+		}
+
+		public void setCount(int count) {
+			this.count = count;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+	}
+
+	private static class PrivatePojo {
+		public int value;
+	}
+}
@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.typeutils.runtime;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeutils.CompatibilityResult;
+import org.apache.flink.api.common.typeutils.CompositeTypeSerializerConfigSnapshot;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.TypeSerializerConfigSnapshot;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.typeutils.TypeExtractor;
+import org.apache.flink.core.memory.DataInputViewStreamWrapper;
+import org.apache.flink.core.memory.DataOutputViewStreamWrapper;
+import org.apache.flink.util.InstantiationUtil;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the compatibility checks and the state migration of the {@link PojoSerializer}
+ * and the {@link TupleSerializer}.
+ */
+public class PojoSerializerCompatibilityTest {
+
+	@Test
+	public void testSameSerializerIsCompatible() throws Exception {
+		TypeSerializer<PojoV1> serializer = createSerializer(PojoV1.class);
+
+		// the snapshot is shipped with the state, so it goes through Java serialization
+		TypeSerializerConfigSnapshot snapshot = InstantiationUtil.deserializeObject(
+				InstantiationUtil.serializeObject(serializer.snapshotConfiguration()), getClass().getClassLoader());
+
+		assertEquals(serializer.snapshotConfiguration(), snapshot);
+		assertFalse(createSerializer(PojoV1.class).ensureCompatibility(snapshot).isRequiresMigration());
+	}
+
+	@Test
+	public void testMigrateAddedAndRemovedFields() throws Exception {
+		TypeSerializer<PojoV1> previousSerializer = createSerializer(PojoV1.class);
+		TypeSerializer<PojoV2> currentSerializer = createSerializer(PojoV2.class);
+
+		PojoV1 previous = new PojoV1();
+		previous.id = 42L;
+		previous.name = "forty-two";
+		previous.removed = 3.0;
+		previous.count = 7;
+
+		byte[] data = serialize(previousSerializer, previous);
+
+		CompatibilityResult<PojoV2> result = currentSerializer.ensureCompatibility(
+				renamedSnapshot(previousSerializer, PojoV2.class));
+		assertTrue(result.isRequiresMigration());
+		assertNotNull(result.getConvertDeserializer());
+
+		PojoV2 current = result.getConvertDeserializer().deserialize(
+				new DataInputViewStreamWrapper(new ByteArrayInputStream(data)));
+
+		assertEquals(42L, current.id);
+		assertEquals("forty-two", current.name);
+		assertEquals(Integer.valueOf(7), current.count);
+		assertEquals(0, current.added);
+		assertEquals("", current.addedName);
+
+		// null values are kept
+		previous.name = null;
+		current = result.getConvertDeserializer().deserialize(
+				new DataInputViewStreamWrapper(new ByteArrayInputStream(serialize(previousSerializer, previous))));
+		assertNull(current.name);
+	}
+
+	@Test
+	public void testMigrateNestedPojoInTuple() throws Exception {
+		TypeSerializer<PojoV1> previousPojoSerializer = createSerializer(PojoV1.class);
+		TypeSerializer<PojoV2> currentPojoSerializer = createSerializer(PojoV2.class);
+
+		@SuppressWarnings("unchecked")
+		TupleSerializer<Tuple2<Integer, PojoV1>> previousSerializer = new TupleSerializer<>(
+				(Class<Tuple2<Integer, PojoV1>>) (Class<?>) Tuple2.class,
+				new TypeSerializer<?>[] { createSerializer(Integer.class), previousPojoSerializer });
+
+		@SuppressWarnings("unchecked")
+		TupleSerializer<Tuple2<Integer, PojoV2>> currentSerializer = new TupleSerializer<>(
+				(Class<Tuple2<Integer, PojoV2>>) (Class<?>) Tuple2.class,
+				new TypeSerializer<?>[] { createSerializer(Integer.class), currentPojoSerializer });
+
+		// the snapshot of the previous tuple serializer, with the renamed nested POJO snapshot
+		TypeSerializerConfigSnapshot[] fieldConfigs = previousSerializer.snapshotConfiguration().getFieldSerializerConfigs();
+		CompositeTypeSerializerConfigSnapshot renamedSnapshot = new CompositeTypeSerializerConfigSnapshot(
+				TupleSerializer.class.getName(), Tuple2.class.getName(), new TypeSerializerConfigSnapshot[] {
+						fieldConfigs[0], renamedSnapshot(previousPojoSerializer, PojoV2.class) });
+
+		assertFalse(currentSerializer.ensureCompatibility(currentSerializer.snapshotConfiguration()).isRequiresMigration());
+		assertNull(currentSerializer.ensureCompatibility(previousSerializer.snapshotConfiguration()).getConvertDeserializer());
+
+		CompatibilityResult<Tuple2<Integer, PojoV2>> result =
+				currentSerializer.ensureCompatibility(renamedSnapshot);
+		assertTrue(result.isRequiresMigration());
+		assertNotNull(result.getConvertDeserializer());
+
+		PojoV1 pojo = new PojoV1();
+		pojo.id = 1L;
+		pojo.name = "one";
+		byte[] data = serialize(previousSerializer, new Tuple2<>(17, pojo));
+
+		Tuple2<Integer, PojoV2> current = result.getConvertDeserializer().deserialize(
+				new DataInputViewStreamWrapper(new ByteArrayInputStream(data)));
+		assertEquals(Integer.valueOf(17), current.f0);
+		assertEquals(1L, current.f1.id);
+		assertEquals("one", current.f1.name);
+	}
+
+	@Test
+	public void testChangedFieldTypeIsIncompatible() throws Exception {
+		TypeSerializer<PojoV1> previousSerializer = createSerializer(PojoV1.class);
+		TypeSerializer<PojoWithChangedType> currentSerializer = createSerializer(PojoWithChangedType.class);
+
+		CompatibilityResult<PojoWithChangedType> result = currentSerializer.ensureCompatibility(
+				renamedSnapshot(previousSerializer, PojoWithChangedType.class));
+		assertTrue(result.isRequiresMigration());
+		assertNull(result.getConvertDeserializer());
+	}
+
+	@Test
+	public void testOtherPojoIsIncompatible() throws Exception {
+		CompatibilityResult<PojoV2> result = createSerializer(PojoV2.class).ensureCompatibility(
+				createSerializer(PojoV1.class).snapshotConfiguration());
+		assertTrue(result.isRequiresMigration());
+		assertNull(result.getConvertDeserializer());
+	}
+
+	// --------------------------------------------------------------------------------------------
+
+	private static <T> TypeSerializer<T> createSerializer(Class<T> clazz) {
+		return TypeExtractor.getForClass(clazz).createSerializer(new ExecutionConfig());
+	}
+
+	private static <T> byte[] serialize(TypeSerializer<T> serializer, T value) throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		serializer.serialize(value, new DataOutputViewStreamWrapper(bytes));
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Simulates an evolution of a POJO class by pretending that the snapshot of the previous
+	 * version was taken for the class of the current version.
+	 */
+	private static PojoSerializerConfigSnapshot renamedSnapshot(TypeSerializer<?> serializer, Class<?> newClass) {
+		PojoSerializerConfigSnapshot snapshot = (PojoSerializerConfigSnapshot) serializer.snapshotConfiguration();
+		int numFields = snapshot.getFieldNames().length;
+		byte[][] serializedFieldSerializers = new byte[numFields][];
+		for (int i = 0; i < numFields; i++) {
+			serializedFieldSerializers[i] = snapshot.getSerializedFieldSerializer(i);
+		}
+		return new PojoSerializerConfigSnapshot(newClass.getName(), snapshot.getFieldNames(),
+				snapshot.getFieldSerializerConfigs(), serializedFieldSerializers, snapshot.getRegisteredSubclassNames());
+	}
+
+	public static class PojoV1 {
+		public long id;
+		public String name;
+		public double removed;
+		public Integer count;
+	}
+
+	public static class PojoV2 {
+		public long id;
+		public String name;
+		public int added;
+		public String addedName;
+		public Integer count;
+	}
+
+	public static class PojoWithChangedType {
+		public long id;
+		public String name;
+		public String removed;
+		public Integer count;
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.flink.api.java.typeutils.runtime;
+
+import org.apache.flink.api.common.typeutils.TypeComparator;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.base.IntComparator;
+import org.apache.flink.api.common.typeutils.base.IntSerializer;
+import org.apache.flink.api.common.typeutils.base.LongComparator;
+import org.apache.flink.api.common.typeutils.base.LongSerializer;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.typeutils.runtime.tuple.base.TupleComparatorTestBase;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Tests a tuple comparator whose key fields are sorted in different directions.
+ */
+public class TupleComparatorMixedOrderTest extends TupleComparatorTestBase<Tuple2<Integer, Long>> {
+
+	@SuppressWarnings("unchecked")
+	Tuple2<Integer, Long>[] data = new Tuple2[]{
+		new Tuple2<Integer, Long>(-3, 10L),
+		new Tuple2<Integer, Long>(-3, -10L),
+		new Tuple2<Integer, Long>(4, 25L),
+		new Tuple2<Integer, Long>(4, 5L),
+		new Tuple2<Integer, Long>(4, 0L),
+		new Tuple2<Integer, Long>(4, -1L),
+		new Tuple2<Integer, Long>(17, Long.MAX_VALUE),
+		new Tuple2<Integer, Long>(17, Long.MIN_VALUE)
+	};
+
+	@Test
+	public void testNormalizedKeyCoversAllFields() {
+		TypeComparator<Tuple2<Integer, Long>> comparator = getComparator(true);
+		assertEquals(12, comparator.getNormalizeKeyLen());
+		assertFalse(comparator.isNormalizedKeyPrefixOnly(12));
+	}
+
+	@Override
+	protected TupleComparator<Tuple2<Integer, Long>> createComparator(boolean ascending) {
+		return new TupleComparator<Tuple2<Integer, Long>>(
+				new int[]{0, 1},
+				new TypeComparator[]{
+					new IntComparator(ascending),
+					new LongComparator(!ascending)
+				},
+				new TypeSerializer[]{ IntSerializer.INSTANCE, LongSerializer.INSTANCE });
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	protected TupleSerializer<Tuple2<Integer, Long>> createSerializer() {
+		return new TupleSerializer<Tuple2<Integer, Long>>(
+				(Class<Tuple2<Integer, Long>>) (Class<?>) Tuple2.class,
+				new TypeSerializer[]{
+					new IntSerializer(),
+					new LongSerializer()});
+	}
+
+	@Override
+	protected Tuple2<Integer, Long>[] getSortedTestData() {
+		return data;
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.flink.api.java.typeutils.runtime;
+
+import org.apache.flink.api.common.typeutils.TypeComparator;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.base.IntComparator;
+import org.apache.flink.api.common.typeutils.base.IntSerializer;
+import org.apache.flink.api.common.typeutils.base.array.IntPrimitiveArrayComparator;
+import org.apache.flink.api.common.typeutils.base.array.IntPrimitiveArraySerializer;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.typeutils.runtime.tuple.base.TupleComparatorTestBase;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests a tuple comparator whose first key is a nested tuple with a field that does not support
+ * normalized keys. The normalized key of the nested tuple is only a prefix, so the subsequent
+ * key field must not be part of the normalized key.
+ */
+public class TupleComparatorNestedPrefixKeyTest extends TupleComparatorTestBase<Tuple2<Tuple2<Integer, int[]>, Integer>> {
+
+	@SuppressWarnings("unchecked")
+	Tuple2<Tuple2<Integer, int[]>, Integer>[] data = new Tuple2[]{
+		new Tuple2<Tuple2<Integer, int[]>, Integer>(new Tuple2<Integer, int[]>(1, new int[]{1}), 9),
+		new Tuple2<Tuple2<Integer, int[]>, Integer>(new Tuple2<Integer, int[]>(1, new int[]{2}), 5),
+		new Tuple2<Tuple2<Integer, int[]>, Integer>(new Tuple2<Integer, int[]>(1, new int[]{2}), 7),
+		new Tuple2<Tuple2<Integer, int[]>, Integer>(new Tuple2<Integer, int[]>(1, new int[]{3}), 1),
+		new Tuple2<Tuple2<Integer, int[]>, Integer>(new Tuple2<Integer, int[]>(2, new int[]{0}), 0)
+	};
+
+	@Test
+	public void testNormalizedKeyStopsAfterPrefixKey() {
+		TypeComparator<Tuple2<Tuple2<Integer, int[]>, Integer>> comparator = getComparator(true);
+		assertEquals(4, comparator.getNormalizeKeyLen());
+		assertTrue(comparator.isNormalizedKeyPrefixOnly(4));
+	}
+
+	@Override
+	protected void deepEquals(String message, Tuple2<Tuple2<Integer, int[]>, Integer> should, Tuple2<Tuple2<Integer, int[]>, Integer> is) {
+		assertEquals(message, should.f0.f0, is.f0.f0);
+		assertArrayEquals(message, should.f0.f1, is.f0.f1);
+		assertEquals(message, should.f1, is.f1);
+	}
+
+	@Override
+	protected TupleComparator<Tuple2<Tuple2<Integer, int[]>, Integer>> createComparator(boolean ascending) {
+		return new TupleComparator<Tuple2<Tuple2<Integer, int[]>, Integer>>(
+				new int[]{0, 1},
+				new TypeComparator[]{
+					new TupleComparator<Tuple2<Integer, int[]>>(
+							new int[]{0, 1},
+							new TypeComparator[]{
+								new IntComparator(ascending),
+								new IntPrimitiveArrayComparator(ascending)
+							},
+							new TypeSerializer[]{ IntSerializer.INSTANCE, IntPrimitiveArraySerializer.INSTANCE }),
+					new IntComparator(ascending)
+				},
+				new TypeSerializer[]{ createNestedSerializer(), IntSerializer.INSTANCE });
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	protected TupleSerializer<Tuple2<Tuple2<Integer, int[]>, Integer>> createSerializer() {
+		return new TupleSerializer<Tuple2<Tuple2<Integer, int[]>, Integer>>(
+				(Class<Tuple2<Tuple2<Integer, int[]>, Integer>>) (Class<?>) Tuple2.class,
+				new TypeSerializer[]{
+					createNestedSerializer(),
+					new IntSerializer()});
+	}
+
+	@SuppressWarnings("unchecked")
+	private static TupleSerializer<Tuple2<Integer, int[]>> createNestedSerializer() {
+		return new TupleSerializer<Tuple2<Integer, int[]>>(
+				(Class<Tuple2<Integer, int[]>>) (Class<?>) Tuple2.class,
+				new TypeSerializer[]{
+					new IntSerializer(),
+					new IntPrimitiveArraySerializer()});
+	}
+
+	@Override
+	protected Tuple2<Tuple2<Integer, int[]>, Integer>[] getSortedTestData() {
+		return data;
+	}
+}
@@ -21,10 +21,80 @@ package org.apache.flink.api.java.typeutils.runtime.kryo;
 import org.apache.flink.api.common.ExecutionConfig;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.api.java.typeutils.runtime.AbstractGenericTypeComparatorTest;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
 
 public class KryoGenericTypeComparatorTest extends AbstractGenericTypeComparatorTest {
 	@Override
 	protected <T> TypeSerializer<T> createSerializer(Class<T> type) {
 		return new KryoSerializer<T>(type, new ExecutionConfig());
 	}
+
+	@Test
+	public void testBigInteger() {
+		runTests(
+				new BigInteger("-123456789012345678901234567890"),
+				BigInteger.valueOf(Long.MIN_VALUE),
+				BigInteger.valueOf(-256),
+				BigInteger.valueOf(-255),
+				BigInteger.valueOf(-2),
+				BigInteger.valueOf(-1),
+				BigInteger.ZERO,
+				BigInteger.ONE,
+				BigInteger.valueOf(127),
+				BigInteger.valueOf(128),
+				BigInteger.valueOf(255),
+				BigInteger.valueOf(Long.MAX_VALUE),
+				new BigInteger("123456789012345678901234567890"),
+				new BigInteger("123456789012345678901234567891")
+		);
+	}
+
+	@Test
+	public void testBigDecimal() {
+		runTests(
+				new BigDecimal("-1234567890.123456789"),
+				new BigDecimal("-1234567890.12345678"),
+				new BigDecimal("-100"),
+				new BigDecimal("-99.99"),
+				new BigDecimal("-1"),
+				new BigDecimal("-0.0001"),
+				new BigDecimal("-0.00001"),
+				BigDecimal.ZERO,
+				new BigDecimal("1E-10"),
+				new BigDecimal("0.5"),
+				new BigDecimal("1"),
+				new BigDecimal("1.01"),
+				new BigDecimal("1.1"),
+				new BigDecimal("9.99"),
+				new BigDecimal("10"),
+				new BigDecimal("1234567890.12345678"),
+				new BigDecimal("1234567890.123456789"),
+				new BigDecimal("1E+20")
+		);
+	}
+
+	@Test
+	public void testTimestamp() {
+		runTests(
+				new Timestamp(-1000L),
+				new Timestamp(0L),
+				new Timestamp(1L),
+				new Timestamp(999L),
+				new Timestamp(1444055880000L)
+		);
+	}
+
+	@Test
+	public void testSqlDate() {
+		runTests(
+				new java.sql.Date(-86400000L),
+				new java.sql.Date(0L),
+				new java.sql.Date(86400000L),
+				new java.sql.Date(1444055880000L)
+		);
+	}
 }
\ No newline at end of file
@@ -176,4 +176,31 @@ public class KryoGenericTypeSerializerTest extends AbstractGenericTypeSerializer
 		Kryo kryo = serializer.getKryo();
 		assertFalse(kryo.getReferences());
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testKryoInstanceSharedByDuplicatesInSameThread() throws Exception {
+		final KryoSerializer<String> serializer = new KryoSerializer<>(String.class, new ExecutionConfig());
+		final Kryo kryo = serializer.getKryo();
+
+		assertSame(kryo, serializer.duplicate().getKryo());
+
+		// serializers with other registrations use other instances
+		ExecutionConfig otherConfig = new ExecutionConfig();
+		otherConfig.registerKryoType(DateTime.class);
+		assertNotSame(kryo, new KryoSerializer<>(String.class, otherConfig).getKryo());
+
+		// instances are not shared across threads
+		final Kryo[] otherThreadKryo = new Kryo[1];
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				otherThreadKryo[0] = serializer.duplicate().getKryo();
+			}
+		};
+		thread.start();
+		thread.join();
+
+		assertNotNull(otherThreadKryo[0]);
+		assertNotSame(kryo, otherThreadKryo[0]);
+	}
+}
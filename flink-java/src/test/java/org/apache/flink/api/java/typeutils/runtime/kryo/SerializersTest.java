@@ -19,10 +19,17 @@ package org.apache.flink.api.java.typeutils.runtime.kryo;
 
 import de.javakaffee.kryoserializers.jodatime.JodaIntervalSerializer;
 import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.typeutils.GenericTypeInfo;
+import org.apache.flink.api.java.typeutils.TupleTypeInfo;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.core.memory.DataOutputViewStreamWrapper;
 import org.joda.time.Interval;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 
 public class SerializersTest {
@@ -48,6 +55,19 @@ public class SerializersTest {
 		ArrayList<FromGeneric> addGenType;
 	}
 
+	public static class FromSuperclass {
+		String value;
+	}
+	public static class FromArray {
+		long value;
+	}
+	public static class Base {
+		FromSuperclass fromSuperclass;
+	}
+	public static class Derived extends Base {
+		FromArray[] fromArray;
+	}
+
 	@Test
 	public void testTypeRegistration() {
 		ExecutionConfig conf = new ExecutionConfig();
@@ -63,4 +83,55 @@ public class SerializersTest {
 		Assert.assertTrue(kryo.getKryo().getRegistration(FromGeneric.class).getId() > 0);
 		Assert.assertTrue(kryo.getKryo().getRegistration(Node.class).getId() > 0);
 	}
+
+	@Test
+	public void testTypeRegistrationOfSuperclassFieldsAndArrays() {
+		ExecutionConfig conf = new ExecutionConfig();
+		Serializers.recursivelyRegisterType(Derived.class, conf);
+
+		Assert.assertTrue(conf.getRegisteredKryoTypes().contains(FromSuperclass.class));
+		Assert.assertTrue(conf.getRegisteredKryoTypes().contains(FromArray[].class));
+		Assert.assertTrue(conf.getRegisteredKryoTypes().contains(FromArray.class));
+	}
+
+	@Test
+	public void testTypeRegistrationForEveryConfig() {
+		// the types must be registered with every config, not only with the first one
+		for (int i = 0; i < 2; i++) {
+			ExecutionConfig conf = new ExecutionConfig();
+			Serializers.recursivelyRegisterType(ClassWithNested.class, conf);
+			Assert.assertTrue(conf.getRegisteredKryoTypes().contains(Node.class));
+		}
+	}
+
+	@Test
+	public void testGenericTypeRegistration() throws IOException {
+		ExecutionConfig conf = new ExecutionConfig();
+		Serializers.registerGenericTypes(new TupleTypeInfo<Tuple2<String, Derived>>(
+				BasicTypeInfo.STRING_TYPE_INFO, new GenericTypeInfo<>(Derived.class)), conf);
+
+		Assert.assertTrue(conf.getRegisteredKryoTypes().contains(Derived.class));
+		Assert.assertTrue(conf.getRegisteredKryoTypes().contains(FromArray.class));
+
+		// the registered types are written with compact IDs instead of their class names
+		Derived value = new Derived();
+		value.fromSuperclass = new FromSuperclass();
+		value.fromArray = new FromArray[] { new FromArray() };
+
+		int registeredSize = serializedSize(new KryoSerializer<>(Base.class, conf), value);
+		int unregisteredSize = serializedSize(new KryoSerializer<>(Base.class, new ExecutionConfig()), value);
+		Assert.assertTrue(registeredSize < unregisteredSize - Derived.class.getName().length());
+
+		// no types are registered if the automatic registration is disabled
+		conf = new ExecutionConfig();
+		conf.disableAutoTypeRegistration();
+		Serializers.registerGenericTypes(new GenericTypeInfo<>(Derived.class), conf);
+		Assert.assertTrue(conf.getRegisteredKryoTypes().isEmpty());
+	}
+
+	private static <T> int serializedSize(KryoSerializer<T> serializer, T value) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		serializer.serialize(value, new DataOutputViewStreamWrapper(bytes));
+		return bytes.size();
+	}
 }
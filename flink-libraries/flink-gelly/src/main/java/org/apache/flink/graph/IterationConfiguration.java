@@ -41,8 +41,14 @@ public abstract class IterationConfiguration {
 	/** flag that defines whether the solution set is kept in managed memory **/
 	private boolean unmanagedSolutionSet = false;
 
+	/** flag that defines whether the solution set may spill to disk **/
+	private boolean spillableSolutionSet = false;
+
 	/** flag that defines whether the number of vertices option is set **/
 	private boolean optNumVertices = false;
+
+	/** the maximum number of supersteps the parallel instances may run ahead **/
+	private int maxStaleness = 0;
 	
 	public IterationConfiguration() {}
 
@@ -111,6 +117,49 @@ public abstract class IterationConfiguration {
 		return this.unmanagedSolutionSet;
 	}
 
+	/**
+	 * Defines whether the solution set may spill partitions to disk, if it does not fit into its
+	 * managed memory. This has no effect, if the solution set is kept in unmanaged memory.
+	 * By default, the solution set is kept completely in memory.
+	 * 
+	 * @param spillable True, to let the solution set spill to disk, false otherwise.
+	 */
+	public void setSolutionSetSpillable(boolean spillable) {
+		this.spillableSolutionSet = spillable;
+	}
+
+	/**
+	 * Gets whether the solution set may spill partitions to disk.
+	 * 
+	 * @return True, if the solution set may spill to disk, false otherwise.
+	 */
+	public boolean isSolutionSetSpillable() {
+		return this.spillableSolutionSet;
+	}
+
+	/**
+	 * Sets the maximum number of supersteps, by which the parallel instances of the iteration may
+	 * run ahead of the slowest instance. By default, all instances are synchronized after each superstep.
+	 * 
+	 * @param maxStaleness The maximum number of supersteps an instance may run ahead.
+	 * 
+	 * @see org.apache.flink.api.java.operators.IterativeDataSet#setMaxStaleness(int)
+	 */
+	public void setMaxStaleness(int maxStaleness) {
+		Preconditions.checkArgument(maxStaleness >= 0, "The maximum staleness must not be negative.");
+		this.maxStaleness = maxStaleness;
+	}
+
+	/**
+	 * Gets the maximum number of supersteps, by which the parallel instances of the iteration may
+	 * run ahead of the slowest instance.
+	 * 
+	 * @return The maximum staleness of the iteration.
+	 */
+	public int getMaxStaleness() {
+		return maxStaleness;
+	}
+
 	/**
 	 * Gets whether the number of vertices option is set.
 	 * By default, the number of vertices option is not set.
@@ -152,6 +152,8 @@ public class GatherSumApplyIteration<K, VV, EV, M> implements CustomUnaryOperati
 					"Gather-sum-apply iteration (" + gather + " | " + sum + " | " + apply + ")"));
 			iteration.parallelism(this.configuration.getParallelism());
 			iteration.setSolutionSetUnManaged(this.configuration.isSolutionSetUnmanagedMemory());
+			iteration.setSolutionSetSpillable(this.configuration.isSolutionSetSpillable());
+			iteration.setMaxStaleness(this.configuration.getMaxStaleness());
 
 			// register all aggregators
 			for (Map.Entry<String, Aggregator<?>> entry : this.configuration.getAggregators().entrySet()) {
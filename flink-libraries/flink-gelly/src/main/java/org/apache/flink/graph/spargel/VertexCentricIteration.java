@@ -531,6 +531,8 @@ public class VertexCentricIteration<K, VV, Message, EV>
 			iteration.name(this.configuration.getName("Vertex-centric iteration (" + updateFunction + " | " + messagingFunction + ")"));
 			iteration.parallelism(this.configuration.getParallelism());
 			iteration.setSolutionSetUnManaged(this.configuration.isSolutionSetUnmanagedMemory());
+			iteration.setSolutionSetSpillable(this.configuration.isSolutionSetSpillable());
+			iteration.setMaxStaleness(this.configuration.getMaxStaleness());
 
 			// register all aggregators
 			for (Map.Entry<String, Aggregator<?>> entry : this.configuration.getAggregators().entrySet()) {
@@ -20,20 +20,24 @@ package org.apache.flink.api.java.table
 
 import java.lang.reflect.Modifier
 
+import org.apache.flink.api.common.io.{FieldPredicate, FilterableInputFormat, InputFormat}
 import org.apache.flink.api.common.operators.base.JoinOperatorBase.JoinHint
 import org.apache.flink.api.common.typeinfo.TypeInformation
 import org.apache.flink.api.common.typeutils.CompositeType
 import org.apache.flink.api.java.aggregation.AggregationFunction
 import org.apache.flink.api.java.operators.JoinOperator.EquiJoin
 import org.apache.flink.api.java.operators.Keys.ExpressionKeys
-import org.apache.flink.api.java.operators.{GroupReduceOperator, Keys, MapOperator, UnsortedGrouping}
+import org.apache.flink.api.java.operators.{DataSource, GroupReduceOperator, Keys, MapOperator, UnsortedGrouping}
 import org.apache.flink.api.java.{DataSet => JavaDataSet}
-import org.apache.flink.api.table.expressions.analysis.ExtractEquiJoinFields
+import org.apache.flink.api.table.expressions.analysis.{ExtractEquiJoinFields, ExtractFieldPredicates}
 import org.apache.flink.api.table.plan._
 import org.apache.flink.api.table.runtime._
 import org.apache.flink.api.table.expressions._
 import org.apache.flink.api.table.typeinfo.{RenameOperator, RenamingProxyTypeInfo, RowTypeInfo}
 import org.apache.flink.api.table.{ExpressionException, Row, Table}
+import org.apache.flink.util.InstantiationUtil
+
+import scala.collection.JavaConverters._
 
 /**
  * [[PlanTranslator]] for creating [[Table]]s from Java [[org.apache.flink.api.java.DataSet]]s and
@@ -51,7 +55,13 @@ class JavaBatchTranslator extends PlanTranslator {
 
     val rowDataSet = createSelect(expressions, repr, inputType)
 
-    Table(Root(rowDataSet, resultFields))
+    repr match {
+      case source: DataSource[A] if source.getInputFormat.isInstanceOf[FilterableInputFormat] =>
+        Table(Root(FilterableRoot(rowDataSet, source, inputType, expressions), resultFields))
+
+      case _ =>
+        Table(Root(rowDataSet, resultFields))
+    }
   }
 
   override def translate[A](op: PlanNode)(implicit tpe: TypeInformation[A]): JavaDataSet[A] = {
@@ -118,6 +128,9 @@ class JavaBatchTranslator extends PlanTranslator {
       case Root(dataSet: JavaDataSet[Row], resultFields) =>
         dataSet
 
+      case Root(root: FilterableRoot[_], resultFields) =>
+        root.rows
+
       case Root(_, _) =>
         throw new ExpressionException("Invalid Root for JavaBatchTranslator: " + op + ". " +
           "Did you try converting a Table based on a DataSet to a DataStream or vice-versa?")
@@ -268,6 +281,12 @@ class JavaBatchTranslator extends PlanTranslator {
         result
 
 
+      case Filter(Root(root: FilterableRoot[_], resultFields), predicate) =>
+        val translatedInput = root.withPredicates(predicate, resultFields)
+        val inType = translatedInput.getType.asInstanceOf[CompositeType[Row]]
+        val filter = new ExpressionFilterFunction[Row](predicate, inType)
+        translatedInput.filter(filter).name(predicate.toString)
+
       case Filter(input, predicate) =>
         val translatedInput = translateInternal(input)
         val inType = translatedInput.getType.asInstanceOf[CompositeType[Row]]
@@ -281,6 +300,58 @@ class JavaBatchTranslator extends PlanTranslator {
     }
   }
 
+  /**
+   * The input of a [[Table]] that is read by a [[FilterableInputFormat]]. Filters that are
+   * applied directly to the table are pushed into a copy of the input format. The filter
+   * itself is still applied to the rows, as the input format may ignore the predicates.
+   */
+  private case class FilterableRoot[A](
+      rows: JavaDataSet[Row],
+      source: DataSource[A],
+      inputType: CompositeType[A],
+      expressions: Seq[Expression]) {
+
+    def withPredicates(
+        predicate: Expression,
+        resultFields: Seq[(String, TypeInformation[_])]): JavaDataSet[Row] = {
+
+      val fieldIndices = resultFields.map(_._1).zip(expressions).flatMap {
+        case (name, Naming(ResolvedFieldReference(inputName, _), _)) =>
+          Some(name -> inputType.getFieldIndex(inputName))
+        case (name, ResolvedFieldReference(inputName, _)) =>
+          Some(name -> inputType.getFieldIndex(inputName))
+        case _ => None
+      }.filter(_._2 >= 0).toMap
+
+      val predicates = ExtractFieldPredicates(predicate, fieldIndices)
+      if (predicates.isEmpty) {
+        return rows
+      }
+
+      val format = source.getInputFormat
+      val filteringFormat = InstantiationUtil.deserializeObject(
+          InstantiationUtil.serializeObject(format),
+          format.getClass.getClassLoader).asInstanceOf[InputFormat[A, _]]
+      filteringFormat.asInstanceOf[FilterableInputFormat].setPredicates(predicates.asJava)
+
+      val name = Option(source.getName).getOrElse(format.getClass.getSimpleName)
+      val filteringSource = new DataSource[A](
+        source.getExecutionEnvironment,
+        filteringFormat,
+        source.getResultType,
+        name)
+        .name(s"$name (${predicates.mkString(" AND ")})")
+      if (source.getParallelism > 0) {
+        filteringSource.setParallelism(source.getParallelism)
+      }
+      if (source.getParameters != null) {
+        filteringSource.withParameters(source.getParameters)
+      }
+
+      createSelect(expressions, filteringSource, inputType)
+    }
+  }
+
   private def createSelect[I](
       fields: Seq[Expression],
       input: JavaDataSet[I],
@@ -17,22 +17,158 @@
  */
 package org.apache.flink.api.table
 
+import org.apache.flink.api.table.typeinfo.BinaryRowFormat
+import org.apache.flink.core.memory.{DataInputView, DataOutputView, MemorySegment, MemorySegmentFactory}
+
 /**
  * This is used for executing Table API operations. We use manually generated
  * TypeInfo to check the field types and create serializers and comparators.
+ *
+ * A row that was deserialized by the [[org.apache.flink.api.table.typeinfo.RowSerializer]]
+ * keeps its binary representation (see [[BinaryRowFormat]]) and deserializes a field only
+ * when it is accessed for the first time. Fields of primitive types can be read in place,
+ * without deserializing them, through the typed getters such as [[getInt]].
  */
 class Row(arity: Int) extends Product {
 
   private val fields = new Array[Any](arity)
 
+  // the binary representation, if the row was deserialized from one
+  private var format: BinaryRowFormat = null
+  private var bytes: Array[Byte] = null
+  private var segment: MemorySegment = null
+  private var length: Int = 0
+
+  // whether a field was set after the binary representation was read
+  private var modified: Boolean = false
+
   def productArity = fields.length
 
-  def productElement(i: Int): Any = fields(i)
+  def productElement(i: Int): Any = {
+    val field = fields(i)
+    if (field.asInstanceOf[AnyRef] eq Row.Unread) {
+      val value = format.readField(segment, i)
+      fields(i) = value
+      value
+    } else {
+      field
+    }
+  }
 
-  def setField(i: Int, value: Any): Unit = fields(i) = value
+  def setField(i: Int, value: Any): Unit = {
+    fields(i) = value
+    modified = true
+  }
 
   def canEqual(that: Any) = false
 
-  override def toString = fields.mkString(",")
+  override def toString = productIterator.mkString(",")
+
+  // --------------------------------------------------------------------------------------------
+  //  Typed field access
+  // --------------------------------------------------------------------------------------------
+
+  def isNullAt(i: Int): Boolean = {
+    if (isUnread(i)) format.isNullAt(segment, i) else fields(i) == null
+  }
+
+  def getInt(i: Int): Int = {
+    if (isUnreadInPlace(i)) format.getInt(segment, i) else productElement(i).asInstanceOf[Int]
+  }
+
+  def getLong(i: Int): Long = {
+    if (isUnreadInPlace(i)) format.getLong(segment, i) else productElement(i).asInstanceOf[Long]
+  }
+
+  def getShort(i: Int): Short = {
+    if (isUnreadInPlace(i)) format.getShort(segment, i) else productElement(i).asInstanceOf[Short]
+  }
+
+  def getByte(i: Int): Byte = {
+    if (isUnreadInPlace(i)) format.getByte(segment, i) else productElement(i).asInstanceOf[Byte]
+  }
+
+  def getFloat(i: Int): Float = {
+    if (isUnreadInPlace(i)) format.getFloat(segment, i) else productElement(i).asInstanceOf[Float]
+  }
+
+  def getDouble(i: Int): Double = {
+    if (isUnreadInPlace(i)) {
+      format.getDouble(segment, i)
+    } else {
+      productElement(i).asInstanceOf[Double]
+    }
+  }
+
+  def getBoolean(i: Int): Boolean = {
+    if (isUnreadInPlace(i)) {
+      format.getBoolean(segment, i)
+    } else {
+      productElement(i).asInstanceOf[Boolean]
+    }
+  }
+
+  def getChar(i: Int): Char = {
+    if (isUnreadInPlace(i)) format.getChar(segment, i) else productElement(i).asInstanceOf[Char]
+  }
+
+  private def isUnread(i: Int): Boolean = fields(i).asInstanceOf[AnyRef] eq Row.Unread
+
+  private def isUnreadInPlace(i: Int): Boolean = isUnread(i) && format.isReadableInPlace(i)
+
+  // --------------------------------------------------------------------------------------------
+  //  Binary representation
+  // --------------------------------------------------------------------------------------------
+
+  /**
+   * Reads the binary representation of the row from the source. The fields are not
+   * deserialized before they are accessed.
+   */
+  private[table] def readBinary(format: BinaryRowFormat, source: DataInputView, len: Int): Unit = {
+    ensureCapacity(len)
+    source.readFully(bytes, 0, len)
+    attachBinary(format, len)
+  }
+
+  /**
+   * Copies the binary representation of the given row into this row.
+   */
+  private[table] def copyBinary(from: Row): Unit = {
+    ensureCapacity(from.length)
+    System.arraycopy(from.bytes, 0, bytes, 0, from.length)
+    attachBinary(from.format, from.length)
+  }
+
+  /**
+   * Returns the format of the binary representation if it can be written as it is, i.e.,
+   * no field was set after it was read, or null otherwise.
+   */
+  private[table] def unmodifiedBinaryFormat: BinaryRowFormat = {
+    if (modified) null else format
+  }
+
+  private[table] def writeBinary(target: DataOutputView): Unit = {
+    target.writeInt(length)
+    target.write(bytes, 0, length)
+  }
+
+  private def ensureCapacity(len: Int): Unit = {
+    if (bytes == null || bytes.length < len) {
+      bytes = new Array[Byte](len)
+      segment = MemorySegmentFactory.wrap(bytes)
+    }
+  }
+
+  private def attachBinary(format: BinaryRowFormat, len: Int): Unit = {
+    this.format = format
+    this.length = len
+    this.modified = false
+    java.util.Arrays.fill(fields.asInstanceOf[Array[AnyRef]], Row.Unread)
+  }
+}
+
+object Row {
 
+  /** Marker for fields that were not yet deserialized from the binary representation. */
+  private object Unread
 }
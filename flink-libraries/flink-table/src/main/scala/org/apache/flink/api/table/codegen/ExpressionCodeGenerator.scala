@@ -696,11 +696,33 @@ abstract class ExpressionCodeGenerator[R](
         s"($fieldTpe) $inputTerm.$methodTerm()"
 
       case ProductAccessor(i) =>
-        s"($fieldTpe) $inputTerm.productElement($i)"
+        rowGetterFor(fieldType) match {
+          // read primitive fields of rows in place instead of deserializing them
+          case Some(getter) =>
+            s"($inputTerm.isNullAt($i) ? null : $fieldTpe.valueOf($inputTerm.$getter($i)))"
+
+          case None =>
+            s"($fieldTpe) $inputTerm.productElement($i)"
+        }
 
     }
   }
 
+  /**
+   * Returns the typed getter of [[org.apache.flink.api.table.Row]] for fields of the given type.
+   */
+  protected def rowGetterFor(tpe: TypeInformation[_]): Option[String] = tpe match {
+    case BasicTypeInfo.INT_TYPE_INFO => Some("getInt")
+    case BasicTypeInfo.LONG_TYPE_INFO => Some("getLong")
+    case BasicTypeInfo.SHORT_TYPE_INFO => Some("getShort")
+    case BasicTypeInfo.BYTE_TYPE_INFO => Some("getByte")
+    case BasicTypeInfo.FLOAT_TYPE_INFO => Some("getFloat")
+    case BasicTypeInfo.DOUBLE_TYPE_INFO => Some("getDouble")
+    case BasicTypeInfo.BOOLEAN_TYPE_INFO => Some("getBoolean")
+    case BasicTypeInfo.CHAR_TYPE_INFO => Some("getChar")
+    case _ => None
+  }
+
   sealed abstract class FieldAccessor
 
   case class ObjectFieldAccessor(fieldName: String) extends FieldAccessor
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.api.table.expressions.analysis
+
+import org.apache.flink.api.common.io.FieldPredicate
+import org.apache.flink.api.common.io.FieldPredicate.Comparison
+import org.apache.flink.api.table.expressions._
+
+/**
+ * Extractor for the simple conjuncts of a predicate that an input format can apply while
+ * reading, i.e. comparisons of a field with a literal and null checks that are not below an
+ * `Or` or a `Not`. The given field indices map the names of the fields to their positions in
+ * the records of the input format; fields without a position are not considered.
+ */
+object ExtractFieldPredicates {
+  def apply(predicate: Expression, fieldIndices: Map[String, Int]): Seq[FieldPredicate] = {
+
+    def comparison(field: String, cmp: Comparison, value: Any): Seq[FieldPredicate] = {
+      value match {
+        case v: Comparable[_] with java.io.Serializable if fieldIndices.contains(field) =>
+          Seq(new FieldPredicate(fieldIndices(field), cmp, v))
+        case _ => Seq()
+      }
+    }
+
+    def nullCheck(field: String, cmp: Comparison): Seq[FieldPredicate] = {
+      fieldIndices.get(field).map(new FieldPredicate(_, cmp, null)).toSeq
+    }
+
+    predicate match {
+      case And(left, right) => apply(left, fieldIndices) ++ apply(right, fieldIndices)
+
+      case IsNull(ResolvedFieldReference(name, _)) => nullCheck(name, Comparison.IS_NULL)
+      case IsNotNull(ResolvedFieldReference(name, _)) => nullCheck(name, Comparison.IS_NOT_NULL)
+
+      case cmp: BinaryComparison => (cmp.left, cmp.right) match {
+        case (ResolvedFieldReference(name, _), Literal(value, _)) =>
+          comparison(name, comparisonOf(cmp), value)
+        case (Literal(value, _), ResolvedFieldReference(name, _)) =>
+          comparison(name, mirrored(comparisonOf(cmp)), value)
+        case _ => Seq()
+      }
+
+      case _ => Seq()
+    }
+  }
+
+  private def comparisonOf(cmp: BinaryComparison): Comparison = cmp match {
+    case _: EqualTo => Comparison.EQUAL
+    case _: NotEqualTo => Comparison.NOT_EQUAL
+    case _: GreaterThan => Comparison.GREATER
+    case _: GreaterThanOrEqual => Comparison.GREATER_OR_EQUAL
+    case _: LessThan => Comparison.LESS
+    case _: LessThanOrEqual => Comparison.LESS_OR_EQUAL
+  }
+
+  /**
+   * The comparison with swapped operands, e.g. `5 < 'a` is `'a > 5`.
+   */
+  private def mirrored(cmp: Comparison): Comparison = cmp match {
+    case Comparison.GREATER => Comparison.LESS
+    case Comparison.GREATER_OR_EQUAL => Comparison.LESS_OR_EQUAL
+    case Comparison.LESS => Comparison.GREATER
+    case Comparison.LESS_OR_EQUAL => Comparison.GREATER_OR_EQUAL
+    case other => other
+  }
+}
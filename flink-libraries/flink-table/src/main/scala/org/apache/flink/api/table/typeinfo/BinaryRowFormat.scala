@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.api.table.typeinfo
+
+import org.apache.flink.api.common.typeutils.TypeSerializer
+import org.apache.flink.api.common.typeutils.base._
+import org.apache.flink.api.table.Row
+import org.apache.flink.core.memory.{DataOutputView, MemorySegment}
+import org.apache.flink.runtime.util.{DataInputDeserializer, DataOutputSerializer}
+
+/**
+ * The binary layout of a [[Row]] as written by the [[RowSerializer]]. A serialized row
+ * consists of its length, followed by
+ *
+ *  - a null bitmap with one bit per field,
+ *  - a fixed-length section with one slot per field. Fields whose serializer has a fixed
+ *    length are stored in their slot, the slots of all other fields hold the offset and
+ *    length of the field's bytes in the variable-length section,
+ *  - the variable-length section.
+ *
+ * Any field can therefore be located without deserializing the preceding fields, and fields
+ * of primitive types can be read in place.
+ */
+class BinaryRowFormat(val fieldSerializers: Array[TypeSerializer[Any]]) {
+
+  val arity: Int = fieldSerializers.length
+
+  private val nullBitsLength: Int = (arity + 7) >>> 3
+
+  // length of the field in the fixed-length section, -1 for variable-length fields
+  private val fixedLengths: Array[Int] = fieldSerializers.map { s =>
+    if (s.getLength > 0) s.getLength else -1
+  }
+
+  // offset of each field's slot in the fixed-length section
+  private val slotOffsets: Array[Int] = fixedLengths.scanLeft(nullBitsLength) {
+    (offset, len) => offset + (if (len > 0) len else 8)
+  }
+
+  // the variable-length section starts after the last slot
+  private val variableSectionOffset: Int = slotOffsets(arity)
+
+  private val readableInPlace: Array[Boolean] = fieldSerializers.map(_.asInstanceOf[AnyRef]).map {
+    case _: IntSerializer | _: LongSerializer | _: ShortSerializer | _: ByteSerializer |
+         _: FloatSerializer | _: DoubleSerializer | _: BooleanSerializer | _: CharSerializer =>
+      true
+    case _ => false
+  }
+
+  def isReadableInPlace(field: Int): Boolean = readableInPlace(field)
+
+  def isNullAt(segment: MemorySegment, field: Int): Boolean = {
+    (segment.get(field >>> 3) & (1 << (field & 7))) != 0
+  }
+
+  def getInt(segment: MemorySegment, field: Int): Int = {
+    segment.getIntBigEndian(slotOffsets(field))
+  }
+
+  def getLong(segment: MemorySegment, field: Int): Long = {
+    segment.getLongBigEndian(slotOffsets(field))
+  }
+
+  def getShort(segment: MemorySegment, field: Int): Short = {
+    segment.getShortBigEndian(slotOffsets(field))
+  }
+
+  def getByte(segment: MemorySegment, field: Int): Byte = {
+    segment.get(slotOffsets(field))
+  }
+
+  def getFloat(segment: MemorySegment, field: Int): Float = {
+    java.lang.Float.intBitsToFloat(segment.getIntBigEndian(slotOffsets(field)))
+  }
+
+  def getDouble(segment: MemorySegment, field: Int): Double = {
+    java.lang.Double.longBitsToDouble(segment.getLongBigEndian(slotOffsets(field)))
+  }
+
+  def getBoolean(segment: MemorySegment, field: Int): Boolean = {
+    segment.get(slotOffsets(field)) != 0
+  }
+
+  def getChar(segment: MemorySegment, field: Int): Char = {
+    segment.getCharBigEndian(slotOffsets(field))
+  }
+
+  /**
+   * Deserializes a single field of the row.
+   */
+  def readField(segment: MemorySegment, field: Int): Any = {
+    if (isNullAt(segment, field)) {
+      null
+    } else {
+      val slot = slotOffsets(field)
+      val source = if (fixedLengths(field) > 0) {
+        new DataInputDeserializer(segment.wrap(slot, fixedLengths(field)))
+      } else {
+        val offset = variableSectionOffset + segment.getIntBigEndian(slot)
+        new DataInputDeserializer(segment.wrap(offset, segment.getIntBigEndian(slot + 4)))
+      }
+      fieldSerializers(field).deserialize(source)
+    }
+  }
+
+  /**
+   * Writes the binary representation of the given row. The buffers are used to assemble the
+   * sections, the null bitmap must have the length returned by [[createNullBits]].
+   */
+  def write(
+      row: Row,
+      target: DataOutputView,
+      nullBits: Array[Byte],
+      fixedSection: DataOutputSerializer,
+      variableSection: DataOutputSerializer): Unit = {
+
+    java.util.Arrays.fill(nullBits, 0.toByte)
+    fixedSection.clear()
+    variableSection.clear()
+
+    var i = 0
+    while (i < arity) {
+      val value = row.productElement(i)
+      if (value == null) {
+        nullBits(i >>> 3) = (nullBits(i >>> 3) | (1 << (i & 7))).toByte
+        var j = if (fixedLengths(i) > 0) fixedLengths(i) else 8
+        while (j > 0) {
+          fixedSection.writeByte(0)
+          j -= 1
+        }
+      } else if (fixedLengths(i) > 0) {
+        fieldSerializers(i).serialize(value, fixedSection)
+      } else {
+        val start = variableSection.length()
+        fieldSerializers(i).serialize(value, variableSection)
+        fixedSection.writeInt(start)
+        fixedSection.writeInt(variableSection.length() - start)
+      }
+      i += 1
+    }
+
+    target.writeInt(nullBitsLength + fixedSection.length() + variableSection.length())
+    target.write(nullBits)
+    target.write(fixedSection.getByteArray(), 0, fixedSection.length())
+    target.write(variableSection.getByteArray(), 0, variableSection.length())
+  }
+
+  def createNullBits(): Array[Byte] = new Array[Byte](nullBitsLength)
+
+  override def equals(obj: Any): Boolean = {
+    obj match {
+      case other: BinaryRowFormat => fieldSerializers.sameElements(other.fieldSerializers)
+      case _ => false
+    }
+  }
+
+  override def hashCode(): Int = {
+    java.util.Arrays.hashCode(fieldSerializers.asInstanceOf[Array[AnyRef]])
+  }
+}
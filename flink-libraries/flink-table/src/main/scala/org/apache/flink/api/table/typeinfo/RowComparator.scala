@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.api.table.typeinfo
+
+import org.apache.flink.api.common.typeutils.{TypeComparator, TypeSerializer}
+import org.apache.flink.api.scala.typeutils.CaseClassComparator
+import org.apache.flink.api.table.Row
+import org.apache.flink.core.memory.DataInputView
+
+/**
+ * Comparator for [[Row]]. Serialized rows are not a sequence of their serialized fields, so
+ * serialized rows are compared by reading them with the [[RowSerializer]], which only
+ * deserializes the key fields.
+ */
+class RowComparator(
+    keys: Array[Int],
+    fieldComparators: Array[TypeComparator[_]],
+    fieldSerializers: Array[TypeSerializer[_]],
+    rowSerializer: RowSerializer)
+  extends CaseClassComparator[Row](keys, fieldComparators, fieldSerializers) {
+
+  @transient private var first: Row = null
+
+  @transient private var second: Row = null
+
+  override def duplicate: TypeComparator[Row] = {
+    // ensure that the serializers are available
+    instantiateDeserializationUtils()
+    val result = new RowComparator(keyPositions, comparators, serializers, rowSerializer.duplicate)
+    result.privateDuplicate(this)
+    result
+  }
+
+  override def compareSerialized(firstSource: DataInputView, secondSource: DataInputView): Int = {
+    if (first == null) {
+      first = rowSerializer.createInstance
+      second = rowSerializer.createInstance
+    }
+    first = rowSerializer.deserialize(first, firstSource)
+    second = rowSerializer.deserialize(second, secondSource)
+    compare(first, second)
+  }
+}
@@ -20,18 +20,32 @@ package org.apache.flink.api.table.typeinfo
 import org.apache.flink.api.table.Row
 import org.apache.flink.api.common.typeutils.TypeSerializer
 import org.apache.flink.core.memory.{DataOutputView, DataInputView}
+import org.apache.flink.runtime.util.DataOutputSerializer
 
 /**
- * Serializer for [[Row]].
+ * Serializer for [[Row]]. Rows are written in the layout described by [[BinaryRowFormat]].
+ * Deserialized rows keep their binary representation and deserialize fields lazily, and rows
+ * whose fields were not modified are written by copying their binary representation.
  */
 class RowSerializer(val fieldSerializers: Array[TypeSerializer[Any]])
   extends TypeSerializer[Row] {
 
+  @transient private lazy val format = new BinaryRowFormat(fieldSerializers)
+
+  @transient private lazy val nullBits = format.createNullBits()
+
+  @transient private lazy val fixedSection = new DataOutputSerializer(64)
+
+  @transient private lazy val variableSection = new DataOutputSerializer(256)
+
+  // a format that is not the same instance as ours, but equal to it
+  @transient private var compatibleFormat: BinaryRowFormat = null
+
   override def isImmutableType: Boolean = false
 
   override def getLength: Int = -1
 
-  override def duplicate = this
+  override def duplicate = new RowSerializer(fieldSerializers.map(_.duplicate()))
 
   override def createInstance: Row = {
     new Row(fieldSerializers.length)
@@ -43,11 +57,15 @@ class RowSerializer(val fieldSerializers: Array[TypeSerializer[Any]])
     if (from.productArity != len) {
       throw new RuntimeException("Row arity of reuse and from do not match.")
     }
+    if (isCompatible(from.unmodifiedBinaryFormat)) {
+      reuse.copyBinary(from)
+      return reuse
+    }
     var i = 0
     while (i < len) {
       val reuseField = reuse.productElement(i)
       val fromField = from.productElement(i).asInstanceOf[AnyRef]
-      val copy = fieldSerializers(i).copy(fromField, reuseField)
+      val copy = if (fromField == null) null else fieldSerializers(i).copy(fromField, reuseField)
       reuse.setField(i, copy)
       i += 1
     }
@@ -61,10 +79,14 @@ class RowSerializer(val fieldSerializers: Array[TypeSerializer[Any]])
       throw new RuntimeException("Row arity of reuse and from do not match.")
     }
     val result = new Row(len)
+    if (isCompatible(from.unmodifiedBinaryFormat)) {
+      result.copyBinary(from)
+      return result
+    }
     var i = 0
     while (i < len) {
       val fromField = from.productElement(i).asInstanceOf[AnyRef]
-      val copy = fieldSerializers(i).copy(fromField)
+      val copy = if (fromField == null) null else fieldSerializers(i).copy(fromField)
       result.setField(i, copy)
       i += 1
     }
@@ -72,12 +94,10 @@ class RowSerializer(val fieldSerializers: Array[TypeSerializer[Any]])
   }
 
   override def serialize(value: Row, target: DataOutputView) {
-    val len = fieldSerializers.length
-    var i = 0
-    while (i < len) {
-      val serializer = fieldSerializers(i)
-      serializer.serialize(value.productElement(i), target)
-      i += 1
+    if (isCompatible(value.unmodifiedBinaryFormat)) {
+      value.writeBinary(target)
+    } else {
+      format.write(value, target, nullBits, fixedSection, variableSection)
     }
   }
 
@@ -88,33 +108,32 @@ class RowSerializer(val fieldSerializers: Array[TypeSerializer[Any]])
       throw new RuntimeException("Row arity of reuse and fields do not match.")
     }
 
-    var i = 0
-    while (i < len) {
-      val field = reuse.productElement(i).asInstanceOf[AnyRef]
-      reuse.setField(i, fieldSerializers(i).deserialize(field, source))
-      i += 1
-    }
+    reuse.readBinary(format, source, source.readInt())
     reuse
   }
 
   override def deserialize(source: DataInputView): Row = {
-    val len = fieldSerializers.length
-
-    val result = new Row(len)
-    var i = 0
-    while (i < len) {
-      result.setField(i, fieldSerializers(i).deserialize(source))
-      i += 1
-    }
+    val result = new Row(fieldSerializers.length)
+    result.readBinary(format, source, source.readInt())
     result
   }
 
   override def copy(source: DataInputView, target: DataOutputView): Unit = {
-    val len = fieldSerializers.length
-    var i = 0
-    while (i < len) {
-      fieldSerializers(i).copy(source, target)
-      i += 1
+    val len = source.readInt()
+    target.writeInt(len)
+    target.write(source, len)
+  }
+
+  private def isCompatible(rowFormat: BinaryRowFormat): Boolean = {
+    if (rowFormat == null) {
+      false
+    } else if ((rowFormat eq format) || (rowFormat eq compatibleFormat)) {
+      true
+    } else if (rowFormat == format) {
+      compatibleFormat = rowFormat
+      true
+    } else {
+      false
     }
   }
 
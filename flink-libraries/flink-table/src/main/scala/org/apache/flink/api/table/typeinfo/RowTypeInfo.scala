@@ -20,10 +20,13 @@ package org.apache.flink.api.table.typeinfo
 import org.apache.flink.api.common.ExecutionConfig
 import org.apache.flink.api.table.Row
 import org.apache.flink.api.common.typeinfo.TypeInformation
-import org.apache.flink.api.common.typeutils.TypeSerializer
+import org.apache.flink.api.common.typeutils.CompositeType.TypeComparatorBuilder
+import org.apache.flink.api.common.typeutils.{TypeComparator, TypeSerializer}
 import org.apache.flink.api.table.expressions.Expression
 import org.apache.flink.api.scala.typeutils.{CaseClassTypeInfo}
 
+import scala.collection.mutable.ArrayBuffer
+
 /**
  * TypeInformation for [[Row]].
  */
@@ -47,5 +50,32 @@ class RowTypeInfo(
 
     new RowSerializer(fieldSerializers)
   }
+
+  override def createTypeComparatorBuilder(): TypeComparatorBuilder[Row] = {
+    new RowTypeComparatorBuilder
+  }
+
+  private class RowTypeComparatorBuilder extends TypeComparatorBuilder[Row] {
+    val fieldComparators: ArrayBuffer[TypeComparator[_]] = new ArrayBuffer[TypeComparator[_]]()
+    val logicalKeyFields: ArrayBuffer[Int] = new ArrayBuffer[Int]()
+
+    override def initializeTypeComparatorBuilder(size: Int): Unit = {}
+
+    override def addComparatorField(fieldId: Int, comparator: TypeComparator[_]): Unit = {
+      fieldComparators += comparator
+      logicalKeyFields += fieldId
+    }
+
+    override def createTypeComparator(config: ExecutionConfig): TypeComparator[Row] = {
+      val maxIndex = logicalKeyFields.max
+
+      new RowComparator(
+        logicalKeyFields.toArray,
+        fieldComparators.toArray,
+        types.take(maxIndex + 1).map(_.createSerializer(config)),
+        createSerializer(config).asInstanceOf[RowSerializer]
+      )
+    }
+  }
 }
 
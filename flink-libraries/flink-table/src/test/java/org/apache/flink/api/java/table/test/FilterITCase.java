@@ -18,6 +18,10 @@
 
 package org.apache.flink.api.java.table.test;
 
+import org.apache.flink.api.common.io.FieldPredicate;
+import org.apache.flink.api.common.io.FilterableInputFormat;
+import org.apache.flink.api.common.io.GenericInputFormat;
+import org.apache.flink.api.common.io.NonParallelInput;
 import org.apache.flink.api.table.Table;
 import org.apache.flink.api.table.Row;
 import org.apache.flink.api.java.DataSet;
@@ -30,8 +34,13 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import static org.junit.Assert.assertEquals;
+
 @RunWith(Parameterized.class)
 public class FilterITCase extends MultipleProgramsTestBase {
 
@@ -141,5 +150,78 @@ public class FilterITCase extends MultipleProgramsTestBase {
 		String expected = "300,1,Hello\n";
 		compareResultAsText(results, expected);
 	}
-}
 
+	@Test
+	public void testFilterPushedIntoInputFormat() throws Exception {
+		ExecutionEnvironment env = ExecutionEnvironment.getExecutionEnvironment();
+		TableEnvironment tableEnv = new TableEnvironment();
+
+		DataSet<Tuple3<Integer, Long, String>> input = env.createInput(new FilterableTupleInputFormat());
+
+		Table table = tableEnv.fromDataSet(input, "a, b, c");
+
+		Table result = table.filter("a >= 17 && a % 2 = 0");
+
+		DataSet<Row> ds = tableEnv.toDataSet(result, Row.class);
+		List<Row> results = ds.collect();
+		String expected = "18,6,Comment#12\n" + "20,6,Comment#14\n";
+		compareResultAsText(results, expected);
+
+		// only the comparison with a literal can be applied by the input format
+		assertEquals(Collections.singletonList(new FieldPredicate(0, FieldPredicate.Comparison.GREATER_OR_EQUAL, 17)),
+				FilterableTupleInputFormat.pushedPredicates);
+	}
+
+	/**
+	 * Input format that produces the tuples of {@link CollectionDataSets#get3TupleDataSet} and
+	 * skips the tuples that do not satisfy the pushed down predicates.
+	 */
+	public static class FilterableTupleInputFormat extends GenericInputFormat<Tuple3<Integer, Long, String>>
+			implements FilterableInputFormat, NonParallelInput {
+
+		private static final long serialVersionUID = 1L;
+
+		static volatile List<FieldPredicate> pushedPredicates;
+
+		private List<FieldPredicate> predicates = new ArrayList<>();
+
+		private transient int next;
+
+		@Override
+		public void setPredicates(List<FieldPredicate> predicates) {
+			this.predicates = new ArrayList<>(predicates);
+			pushedPredicates = this.predicates;
+		}
+
+		@Override
+		public boolean reachedEnd() throws IOException {
+			while (next < 21 && !satisfiesPredicates(next + 1)) {
+				next++;
+			}
+			return next >= 21;
+		}
+
+		@Override
+		public Tuple3<Integer, Long, String> nextRecord(Tuple3<Integer, Long, String> reuse) throws IOException {
+			next++;
+			return createTuple(next);
+		}
+
+		private boolean satisfiesPredicates(int id) {
+			Tuple3<Integer, Long, String> tuple = createTuple(id);
+			for (FieldPredicate predicate : predicates) {
+				if (!predicate.evaluate(tuple.getField(predicate.getField()))) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private static Tuple3<Integer, Long, String> createTuple(int id) {
+			long group = (long) Math.ceil((Math.sqrt(8 * id + 1) - 1) / 2);
+			String text = id <= 6 ? new String[] {"Hi", "Hello", "Hello world", "Hello world, how are you?",
+					"I am fine.", "Luke Skywalker"}[id - 1] : "Comment#" + (id - 6);
+			return new Tuple3<>(id, group, text);
+		}
+	}
+}
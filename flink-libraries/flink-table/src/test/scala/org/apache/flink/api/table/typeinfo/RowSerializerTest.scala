@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.api.table.typeinfo
+
+import java.io.{ByteArrayInputStream, ByteArrayOutputStream}
+
+import org.apache.flink.api.common.ExecutionConfig
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo._
+import org.apache.flink.api.common.typeinfo.PrimitiveArrayTypeInfo
+import org.apache.flink.api.table.Row
+import org.apache.flink.core.memory.{DataInputViewStreamWrapper, DataOutputViewStreamWrapper}
+import org.apache.flink.util.TestLogger
+import org.junit.Assert._
+import org.junit.Test
+import org.scalatest.junit.JUnitSuiteLike
+
+class RowSerializerTest extends TestLogger with JUnitSuiteLike {
+
+  private val rowType = new RowTypeInfo(
+    Seq(INT_TYPE_INFO, STRING_TYPE_INFO, DOUBLE_TYPE_INFO, LONG_TYPE_INFO,
+      PrimitiveArrayTypeInfo.BYTE_PRIMITIVE_ARRAY_TYPE_INFO, BOOLEAN_TYPE_INFO),
+    Seq("a", "b", "c", "d", "e", "f"))
+
+  private val config = new ExecutionConfig
+
+  @Test
+  def testRoundTrip(): Unit = {
+    val serializer = rowType.createSerializer(config)
+    val row = createRow(42, "hello", 3.5, Long.MinValue, Array[Byte](1, 2, 3), true)
+    val nulls = createRow(null, null, null, null, null, null)
+
+    val bytes = serialize(serializer, row, nulls)
+    val source = new DataInputViewStreamWrapper(new ByteArrayInputStream(bytes))
+
+    val copy = serializer.deserialize(source)
+    assertEquals(42, copy.productElement(0))
+    assertEquals("hello", copy.productElement(1))
+    assertEquals(3.5, copy.productElement(2))
+    assertEquals(Long.MinValue, copy.productElement(3))
+    assertArrayEquals(Array[Byte](1, 2, 3), copy.productElement(4).asInstanceOf[Array[Byte]])
+    assertEquals(true, copy.productElement(5))
+
+    val nullCopy = serializer.deserialize(copy, source)
+    for (i <- 0 until rowType.getArity) {
+      assertTrue(nullCopy.isNullAt(i))
+      assertNull(nullCopy.productElement(i))
+    }
+  }
+
+  @Test
+  def testInPlaceFieldAccess(): Unit = {
+    val serializer = rowType.createSerializer(config)
+    val row = createRow(-7, "a string", 1.25, 1234567890123L, Array[Byte](), false)
+
+    val copy = serializer.deserialize(new DataInputViewStreamWrapper(
+      new ByteArrayInputStream(serialize(serializer, row))))
+
+    assertFalse(copy.isNullAt(0))
+    assertEquals(-7, copy.getInt(0))
+    assertEquals(1.25, copy.getDouble(2), 0.0)
+    assertEquals(1234567890123L, copy.getLong(3))
+    assertFalse(copy.getBoolean(5))
+    assertEquals("a string", copy.productElement(1))
+  }
+
+  @Test
+  def testModifiedRowIsReserialized(): Unit = {
+    val serializer = rowType.createSerializer(config)
+    val row = createRow(1, "one", 1.0, 1L, Array[Byte](1), true)
+
+    val copy = serializer.deserialize(new DataInputViewStreamWrapper(
+      new ByteArrayInputStream(serialize(serializer, row))))
+
+    // unmodified rows are written as they were read
+    assertArrayEquals(serialize(serializer, row), serialize(serializer, copy))
+
+    copy.setField(1, "two")
+    copy.setField(3, null)
+    val modified = serializer.deserialize(new DataInputViewStreamWrapper(
+      new ByteArrayInputStream(serialize(serializer.duplicate, copy))))
+
+    assertEquals(1, modified.getInt(0))
+    assertEquals("two", modified.productElement(1))
+    assertTrue(modified.isNullAt(3))
+    assertArrayEquals(Array[Byte](1), modified.productElement(4).asInstanceOf[Array[Byte]])
+  }
+
+  @Test
+  def testCopy(): Unit = {
+    val serializer = rowType.createSerializer(config)
+    val row = createRow(3, "three", 3.0, 3L, Array[Byte](3), true)
+
+    val deserialized = serializer.deserialize(new DataInputViewStreamWrapper(
+      new ByteArrayInputStream(serialize(serializer, row))))
+
+    for (from <- Seq(row, deserialized)) {
+      val copy = serializer.copy(from)
+      val reused = serializer.copy(from, serializer.createInstance)
+      for (r <- Seq(copy, reused)) {
+        assertEquals(3, r.getInt(0))
+        assertEquals("three", r.productElement(1))
+        assertArrayEquals(Array[Byte](3), r.productElement(4).asInstanceOf[Array[Byte]])
+      }
+    }
+  }
+
+  @Test
+  def testCompareSerialized(): Unit = {
+    val serializer = rowType.createSerializer(config)
+    val comparator = rowType.createComparator(Array(1, 0), Array(true, true), 0, config)
+
+    val smaller = createRow(2, "abc", 0.0, 0L, Array[Byte](), true)
+    val larger = createRow(1, "abd", 0.0, 0L, Array[Byte](), true)
+
+    val bytes = serialize(serializer, smaller, larger)
+    val first = new DataInputViewStreamWrapper(new ByteArrayInputStream(bytes))
+    val second = new DataInputViewStreamWrapper(new ByteArrayInputStream(bytes))
+    serializer.deserialize(second)
+
+    assertTrue(comparator.compareSerialized(first, second) < 0)
+    assertTrue(comparator.duplicate().compare(larger, smaller) > 0)
+  }
+
+  private def createRow(values: Any*): Row = {
+    val row = new Row(values.length)
+    values.zipWithIndex.foreach { case (v, i) => row.setField(i, v) }
+    row
+  }
+
+  private def serialize(
+      serializer: org.apache.flink.api.common.typeutils.TypeSerializer[Row],
+      rows: Row*): Array[Byte] = {
+    val out = new ByteArrayOutputStream()
+    val view = new DataOutputViewStreamWrapper(out)
+    rows.foreach(serializer.serialize(_, view))
+    out.toByteArray
+  }
+}
@@ -18,19 +18,44 @@
 
 package org.apache.flink.optimizer;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Properties;
 
+import org.apache.flink.api.common.JobExecutionResult;
 import org.apache.flink.api.common.io.statistics.BaseStatistics;
+import org.apache.flink.configuration.ConfigConstants;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.runtime.operators.util.OperatorStatisticsCollector;
 
 /**
  * The collection of access methods that can be used to retrieve statistical information about the
  * data processed in a job. Currently this method acts as an entry point only for obtaining cached
  * statistics.
+ *
+ * <p> Besides the statistics of the inputs, the object holds the output statistics of operators, as
+ * they have been observed during earlier executions. They are identified by the fingerprint of the
+ * optimizer node (see {@link org.apache.flink.optimizer.dag.OptimizerNode#getFingerprint()}) and can
+ * be persisted to a file, such that they survive across client sessions.
  */
 public class DataStatistics {
+
+	/** The name of the file in the runtime statistics directory, which holds the operator statistics. */
+	public static final String OPERATOR_STATISTICS_FILE_NAME = "operator-statistics.properties";
+
+	private static final String NUM_RECORDS_SUFFIX = ".records";
+
+	private static final String RECORD_WIDTH_SUFFIX = ".width";
 	
 	private final Map<String, BaseStatistics> baseStatisticsCache;
+
+	private final Map<String, OperatorRuntimeStatistics> operatorStatisticsCache;
 	
 	// --------------------------------------------------------------------------------------------
 	
@@ -39,6 +64,7 @@ public class DataStatistics {
 	 */
 	public DataStatistics() {
 		this.baseStatisticsCache = new HashMap<String, BaseStatistics>();
+		this.operatorStatisticsCache = new HashMap<String, OperatorRuntimeStatistics>();
 	}
 	
 	// --------------------------------------------------------------------------------------------
@@ -66,4 +92,247 @@ public class DataStatistics {
 			this.baseStatisticsCache.put(identifier, statistics);
 		}
 	}
+
+	// --------------------------------------------------------------------------------------------
+
+	/**
+	 * Gets the observed output statistics of the operator with the given fingerprint.
+	 *
+	 * @param fingerprint The fingerprint of the optimizer node.
+	 * @return The statistics observed for the operator, or null, if none have been observed.
+	 */
+	public OperatorRuntimeStatistics getOperatorStatistics(String fingerprint) {
+		synchronized (this.operatorStatisticsCache) {
+			return this.operatorStatisticsCache.get(fingerprint);
+		}
+	}
+
+	/**
+	 * Caches the given operator statistics under the given fingerprint.
+	 *
+	 * @param statistics The statistics to cache.
+	 * @param fingerprint The fingerprint of the optimizer node.
+	 */
+	public void cacheOperatorStatistics(OperatorRuntimeStatistics statistics, String fingerprint) {
+		synchronized (this.operatorStatisticsCache) {
+			this.operatorStatisticsCache.put(fingerprint, statistics);
+		}
+	}
+
+	/**
+	 * Extracts the operator statistics from the accumulator results of an executed job and caches
+	 * them. Accumulators that were not produced by the
+	 * {@link OperatorStatisticsCollector} are ignored.
+	 *
+	 * @param accumulatorResults The accumulator results of the job.
+	 * @return The number of operators for which statistics have been cached.
+	 */
+	public int addRuntimeStatistics(Map<String, Object> accumulatorResults) {
+		// fingerprint -> { records, sampled records, sampled bytes }
+		final Map<String, long[]> collected = new HashMap<String, long[]>();
+
+		for (Map.Entry<String, Object> entry : accumulatorResults.entrySet()) {
+			final String name = entry.getKey();
+			final int metricStart = name.lastIndexOf('.');
+			if (!name.startsWith(OperatorStatisticsCollector.ACCUMULATOR_PREFIX) ||
+					metricStart <= OperatorStatisticsCollector.ACCUMULATOR_PREFIX.length() ||
+					!(entry.getValue() instanceof Long))
+			{
+				continue;
+			}
+
+			final String fingerprint = name.substring(OperatorStatisticsCollector.ACCUMULATOR_PREFIX.length(), metricStart);
+			final String metric = name.substring(metricStart + 1);
+			final long value = (Long) entry.getValue();
+
+			long[] values = collected.get(fingerprint);
+			if (values == null) {
+				values = new long[3];
+				collected.put(fingerprint, values);
+			}
+
+			if (metric.equals(OperatorStatisticsCollector.NUM_RECORDS)) {
+				values[0] = value;
+			}
+			else if (metric.equals(OperatorStatisticsCollector.NUM_SAMPLED_RECORDS)) {
+				values[1] = value;
+			}
+			else if (metric.equals(OperatorStatisticsCollector.NUM_SAMPLED_BYTES)) {
+				values[2] = value;
+			}
+		}
+
+		for (Map.Entry<String, long[]> entry : collected.entrySet()) {
+			final long[] values = entry.getValue();
+			final float width = values[1] > 0 ? values[2] / (float) values[1] : OperatorRuntimeStatistics.WIDTH_UNKNOWN;
+			cacheOperatorStatistics(new OperatorRuntimeStatistics(values[0], width), entry.getKey());
+		}
+		return collected.size();
+	}
+
+	/**
+	 * Reads operator statistics from the given file, as written by {@link #writeOperatorStatistics(File)},
+	 * and adds them to the cache. A file that does not exist is treated as an empty one.
+	 *
+	 * @param file The file to read the statistics from.
+	 * @throws IOException Thrown, if the file could not be read.
+	 */
+	public void readOperatorStatistics(File file) throws IOException {
+		if (!file.exists()) {
+			return;
+		}
+
+		final Properties properties = new Properties();
+		InputStream in = new FileInputStream(file);
+		try {
+			properties.load(in);
+		}
+		finally {
+			in.close();
+		}
+
+		for (String name : properties.stringPropertyNames()) {
+			if (!name.endsWith(NUM_RECORDS_SUFFIX)) {
+				continue;
+			}
+			final String fingerprint = name.substring(0, name.length() - NUM_RECORDS_SUFFIX.length());
+			try {
+				long numRecords = Long.parseLong(properties.getProperty(name));
+				float width = Float.parseFloat(properties.getProperty(fingerprint + RECORD_WIDTH_SUFFIX,
+						String.valueOf(OperatorRuntimeStatistics.WIDTH_UNKNOWN)));
+				cacheOperatorStatistics(new OperatorRuntimeStatistics(numRecords, width), fingerprint);
+			}
+			catch (IllegalArgumentException e) {
+				Optimizer.LOG.warn("Ignoring corrupt operator statistics for fingerprint " + fingerprint + '.');
+			}
+		}
+	}
+
+	/**
+	 * Writes all cached operator statistics to the given file. The file is first written under a
+	 * temporary name and then moved to its final place, such that concurrent readers never see a
+	 * partially written file.
+	 *
+	 * @param file The file to write the statistics to.
+	 * @throws IOException Thrown, if the file could not be written.
+	 */
+	public void writeOperatorStatistics(File file) throws IOException {
+		final Properties properties = new Properties();
+		synchronized (this.operatorStatisticsCache) {
+			for (Map.Entry<String, OperatorRuntimeStatistics> entry : this.operatorStatisticsCache.entrySet()) {
+				properties.setProperty(entry.getKey() + NUM_RECORDS_SUFFIX, String.valueOf(entry.getValue().getNumRecords()));
+				properties.setProperty(entry.getKey() + RECORD_WIDTH_SUFFIX, String.valueOf(entry.getValue().getAvgRecordWidth()));
+			}
+		}
+
+		final File parent = file.getAbsoluteFile().getParentFile();
+		if (!parent.exists() && !parent.mkdirs() && !parent.exists()) {
+			throw new IOException("Could not create the directory " + parent + " for the operator statistics.");
+		}
+
+		final File tmpFile = File.createTempFile(file.getName(), ".tmp", parent);
+		try {
+			OutputStream out = new FileOutputStream(tmpFile);
+			try {
+				properties.store(out, "Operator statistics observed during program executions");
+			}
+			finally {
+				out.close();
+			}
+
+			if (!tmpFile.renameTo(file)) {
+				// some platforms do not replace existing files on rename
+				if (!file.delete() || !tmpFile.renameTo(file)) {
+					throw new IOException("Could not move the operator statistics to " + file + '.');
+				}
+			}
+		}
+		finally {
+			if (tmpFile.exists()) {
+				tmpFile.delete();
+			}
+		}
+	}
+
+	/**
+	 * Creates a new statistics object and loads the operator statistics from the runtime statistics
+	 * directory, if one is configured. Failures to read the statistics are logged and otherwise ignored,
+	 * as the statistics only improve the estimates of the optimizer.
+	 *
+	 * @param config The configuration, which may define the runtime statistics directory.
+	 * @return The statistics object.
+	 */
+	public static DataStatistics fromConfiguration(Configuration config) {
+		final DataStatistics statistics = new DataStatistics();
+		final File file = getOperatorStatisticsFile(config);
+		if (file != null) {
+			try {
+				statistics.readOperatorStatistics(file);
+			}
+			catch (IOException e) {
+				Optimizer.LOG.warn("Could not read the operator statistics from " + file + ": " + e.getMessage(), e);
+			}
+		}
+		return statistics;
+	}
+
+	/**
+	 * Adds the operator statistics contained in the given accumulator results and persists all
+	 * statistics in the runtime statistics directory, if one is configured.
+	 *
+	 * @param accumulatorResults The accumulator results of an executed job.
+	 * @param config The configuration, which may define the runtime statistics directory.
+	 */
+	public void recordRuntimeStatistics(Map<String, Object> accumulatorResults, Configuration config) {
+		final File file = getOperatorStatisticsFile(config);
+		if (file == null || accumulatorResults == null || addRuntimeStatistics(accumulatorResults) == 0) {
+			return;
+		}
+
+		try {
+			writeOperatorStatistics(file);
+		}
+		catch (IOException e) {
+			Optimizer.LOG.warn("Could not write the operator statistics to " + file + ": " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Removes the accumulators of the {@link OperatorStatisticsCollector} from the given job result.
+	 * They are only meant to be recorded by {@link #recordRuntimeStatistics(Map, Configuration)} and
+	 * are not part of the result, which is handed to the program.
+	 *
+	 * @param result The result of an executed job.
+	 * @return The result without the operator statistics accumulators.
+	 */
+	public static JobExecutionResult removeRuntimeStatistics(JobExecutionResult result) {
+		final Map<String, Object> accumulatorResults = result.getAllAccumulatorResults();
+		if (accumulatorResults == null) {
+			return result;
+		}
+
+		final Map<String, Object> userAccumulatorResults = new HashMap<String, Object>(accumulatorResults.size());
+		for (Map.Entry<String, Object> entry : accumulatorResults.entrySet()) {
+			if (!entry.getKey().startsWith(OperatorStatisticsCollector.ACCUMULATOR_PREFIX)) {
+				userAccumulatorResults.put(entry.getKey(), entry.getValue());
+			}
+		}
+
+		if (userAccumulatorResults.size() == accumulatorResults.size()) {
+			return result;
+		}
+		return new JobExecutionResult(result.getJobID(), result.getNetRuntime(), userAccumulatorResults);
+	}
+
+	/**
+	 * Gets the file that holds the operator statistics, as configured by
+	 * {@link ConfigConstants#RUNTIME_STATISTICS_DIRECTORY_KEY}.
+	 *
+	 * @param config The configuration.
+	 * @return The statistics file, or null, if no runtime statistics directory is configured.
+	 */
+	public static File getOperatorStatisticsFile(Configuration config) {
+		final String directory = config.getString(ConfigConstants.RUNTIME_STATISTICS_DIRECTORY_KEY, null);
+		return directory == null ? null : new File(directory, OPERATOR_STATISTICS_FILE_NAME);
+	}
 }
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.optimizer;
+
+/**
+ * The output statistics of an operator, as they have been observed during an earlier execution
+ * of the same program.
+ */
+public class OperatorRuntimeStatistics {
+
+	/** Constant indicating that the average record width is unknown. */
+	public static final float WIDTH_UNKNOWN = -1.0f;
+
+	private final long numRecords;
+
+	private final float avgRecordWidth;
+
+	/**
+	 * Creates new statistics.
+	 *
+	 * @param numRecords The total number of records produced by all parallel instances of the operator.
+	 * @param avgRecordWidth The average serialized width of a record in bytes, or {@link #WIDTH_UNKNOWN}.
+	 */
+	public OperatorRuntimeStatistics(long numRecords, float avgRecordWidth) {
+		if (numRecords < 0) {
+			throw new IllegalArgumentException("The number of records must not be negative.");
+		}
+		this.numRecords = numRecords;
+		this.avgRecordWidth = avgRecordWidth > 0.0f ? avgRecordWidth : WIDTH_UNKNOWN;
+	}
+
+	public long getNumRecords() {
+		return numRecords;
+	}
+
+	public float getAvgRecordWidth() {
+		return avgRecordWidth;
+	}
+
+	/**
+	 * Gets the total size of the output in bytes, or -1, if the record width is unknown.
+	 */
+	public long getOutputSize() {
+		return avgRecordWidth == WIDTH_UNKNOWN ? -1 : (long) Math.ceil(numRecords * avgRecordWidth);
+	}
+
+	@Override
+	public String toString() {
+		return "OperatorRuntimeStatistics (records=" + numRecords + ", width=" + avgRecordWidth + ")";
+	}
+}
@@ -190,6 +190,21 @@ public class DataSourceNode extends OptimizerNode {
 		}
 	}
 
+	@Override
+	protected void addFingerprintProperties(StringBuilder fingerprint) {
+		super.addFingerprintProperties(fingerprint);
+
+		// distinguish the same program reading different inputs
+		final String statisticsKey = getOperator().getStatisticsKey();
+		if (statisticsKey != null) {
+			fingerprint.append("|key:").append(statisticsKey);
+		}
+		else if (FileInputFormat.class.isAssignableFrom(getOperator().getFormatWrapper().getUserCodeClass())) {
+			final FileInputFormat<?> format = (FileInputFormat<?>) getOperator().getFormatWrapper().getUserCodeObject();
+			fingerprint.append("|path:").append(format.getFilePath());
+		}
+	}
+
 	@Override
 	public void computeInterestingPropertiesForInputs(CostEstimator estimator) {
 		// no children, so nothing to compute
@@ -18,6 +18,9 @@
 
 package org.apache.flink.optimizer.dag;
 
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -35,6 +38,7 @@ import org.apache.flink.api.common.operators.SemanticProperties;
 import org.apache.flink.api.common.operators.util.FieldSet;
 import org.apache.flink.optimizer.CompilerException;
 import org.apache.flink.optimizer.DataStatistics;
+import org.apache.flink.optimizer.OperatorRuntimeStatistics;
 import org.apache.flink.optimizer.costs.CostEstimator;
 import org.apache.flink.optimizer.dataproperties.InterestingProperties;
 import org.apache.flink.optimizer.dataproperties.RequestedGlobalProperties;
@@ -43,6 +47,7 @@ import org.apache.flink.optimizer.plan.PlanNode;
 import org.apache.flink.optimizer.plandump.DumpableConnection;
 import org.apache.flink.optimizer.plandump.DumpableNode;
 import org.apache.flink.runtime.operators.shipping.ShipStrategyType;
+import org.apache.flink.util.StringUtils;
 import org.apache.flink.util.Visitable;
 import org.apache.flink.util.Visitor;
 
@@ -110,6 +115,8 @@ public abstract class OptimizerNode implements Visitable<OptimizerNode>, Estimat
 	
 	protected List<PlanNode> cachedPlans;	// cache candidates, because the may be accessed repeatedly
 
+	private String fingerprint;			// identifies the node across submissions of the same program
+
 	// ------------------------------------------------------------------------
 	//                      Constructor / Setup
 	// ------------------------------------------------------------------------
@@ -593,6 +600,9 @@ public abstract class OptimizerNode implements Visitable<OptimizerNode>, Estimat
 		if (this.estimatedNumRecords < 0) {
 			this.estimatedNumRecords = -1;
 		}
+
+		// overwrite the default estimates with the statistics observed during earlier executions
+		final boolean observed = applyRuntimeStatistics(statistics);
 		
 		// overwrite default estimates with hints, if given
 		if (getOperator() == null || getOperator().getCompilerHints() == null) {
@@ -607,6 +617,11 @@ public abstract class OptimizerNode implements Visitable<OptimizerNode>, Estimat
 		if (hints.getOutputCardinality() >= 0) {
 			this.estimatedNumRecords = hints.getOutputCardinality();
 		}
+
+		// the observed statistics already reflect the selectivity and the width of the records
+		if (observed) {
+			return;
+		}
 		
 		if (hints.getFilterFactor() >= 0.0f) {
 			if (this.estimatedNumRecords >= 0) {
@@ -637,6 +652,84 @@ public abstract class OptimizerNode implements Visitable<OptimizerNode>, Estimat
 	}
 	
 	protected abstract void computeOperatorSpecificDefaultEstimates(DataStatistics statistics);
+
+	/**
+	 * Sets the estimates to the output statistics that have been observed for this node during
+	 * earlier executions of the same program, if there are any.
+	 *
+	 * @return True, if statistics have been observed for this node, false otherwise.
+	 */
+	private boolean applyRuntimeStatistics(DataStatistics statistics) {
+		if (statistics == null) {
+			return false;
+		}
+
+		final OperatorRuntimeStatistics observed = statistics.getOperatorStatistics(getFingerprint());
+		if (observed == null) {
+			return false;
+		}
+
+		this.estimatedNumRecords = observed.getNumRecords();
+		final long outputSize = observed.getOutputSize();
+		if (outputSize >= 0) {
+			this.estimatedOutputSize = outputSize;
+		}
+		return true;
+	}
+
+	// ------------------------------------------------------------------------
+	// Fingerprinting
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Gets the fingerprint of this node. The fingerprint is derived from the type of the node, the
+	 * operator and its user code, and the fingerprints of all inputs. It is therefore the same for
+	 * the corresponding nodes of different submissions of the same program, and is used to look up
+	 * the statistics that have been observed for the node during earlier executions.
+	 *
+	 * @return The fingerprint of this node, as a hex string.
+	 */
+	public String getFingerprint() {
+		if (this.fingerprint == null) {
+			StringBuilder bld = new StringBuilder();
+			addFingerprintProperties(bld);
+
+			for (DagConnection conn : getIncomingConnections()) {
+				bld.append("|in:").append(conn.getSource().getFingerprint());
+			}
+			for (DagConnection conn : getBroadcastConnections()) {
+				bld.append("|bc:").append(conn.getSource().getFingerprint());
+			}
+
+			try {
+				MessageDigest digest = MessageDigest.getInstance("MD5");
+				byte[] hash = digest.digest(bld.toString().getBytes(Charset.forName("UTF-8")));
+				this.fingerprint = StringUtils.byteToHexString(hash);
+			}
+			catch (NoSuchAlgorithmException e) {
+				throw new CompilerException("MD5 digest is not available to compute the node fingerprint.", e);
+			}
+		}
+		return this.fingerprint;
+	}
+
+	/**
+	 * Adds the properties of this node, which identify it independently of its inputs, to the
+	 * given fingerprint description.
+	 *
+	 * @param fingerprint The description of the node from which its fingerprint is computed.
+	 */
+	protected void addFingerprintProperties(StringBuilder fingerprint) {
+		fingerprint.append(getClass().getName());
+
+		final Operator<?> op = getOperator();
+		if (op != null) {
+			fingerprint.append('|').append(op.getClass().getName()).append('|').append(op.getName());
+			if (op.getUserCodeWrapper() != null) {
+				fingerprint.append('|').append(op.getUserCodeWrapper().getUserCodeClass().getName());
+			}
+		}
+	}
 	
 	// ------------------------------------------------------------------------
 	// Reading of stub annotations
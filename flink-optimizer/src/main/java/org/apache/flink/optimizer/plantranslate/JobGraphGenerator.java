@@ -129,6 +129,8 @@ public class JobGraphGenerator implements Visitor<PlanNode> {
 	private final int defaultMaxFan;
 	
 	private final float defaultSortSpillingThreshold;
+
+	private final boolean collectOperatorStatistics; // whether the tasks record their output statistics
 	
 	private int iterationIdEnumerator = 1;
 	
@@ -146,6 +148,7 @@ public class JobGraphGenerator implements Visitor<PlanNode> {
 	public JobGraphGenerator() {
 		this.defaultMaxFan = ConfigConstants.DEFAULT_SPILLING_MAX_FAN;
 		this.defaultSortSpillingThreshold = ConfigConstants.DEFAULT_SORT_SPILLING_THRESHOLD;
+		this.collectOperatorStatistics = false;
 	}
 	
 	public JobGraphGenerator(Configuration config) {
@@ -153,6 +156,7 @@ public class JobGraphGenerator implements Visitor<PlanNode> {
 			ConfigConstants.DEFAULT_SPILLING_MAX_FAN);
 		this.defaultSortSpillingThreshold = config.getFloat(ConfigConstants.DEFAULT_SORT_SPILLING_THRESHOLD_KEY,
 			ConfigConstants.DEFAULT_SORT_SPILLING_THRESHOLD);
+		this.collectOperatorStatistics = config.getString(ConfigConstants.RUNTIME_STATISTICS_DIRECTORY_KEY, null) != null;
 	}
 
 	/**
@@ -385,6 +389,10 @@ public class JobGraphGenerator implements Visitor<PlanNode> {
 		catch (Exception e) {
 			throw new CompilerException("Error translating node '" + node + "': " + e.getMessage(), e);
 		}
+
+		if (this.collectOperatorStatistics) {
+			configureOperatorStatistics(node, vertex);
+		}
 		
 		// check if a vertex was created, or if it was chained or skipped
 		if (vertex != null) {
@@ -882,6 +890,34 @@ public class JobGraphGenerator implements Visitor<PlanNode> {
 		return vertex;
 	}
 
+	/**
+	 * Configures the task of the given node to record its output statistics under the fingerprint
+	 * of the node's optimizer node. Operators inside iterations are skipped, because their output
+	 * accumulates over all supersteps.
+	 */
+	private void configureOperatorStatistics(PlanNode node, JobVertex vertex) {
+		if (this.currentIteration != null || node instanceof SinkPlanNode || node.getOutgoingChannels().isEmpty() ||
+				!(node instanceof SourcePlanNode || node instanceof SingleInputPlanNode || node instanceof DualInputPlanNode))
+		{
+			return;
+		}
+
+		final TaskConfig config;
+		if (vertex != null) {
+			config = new TaskConfig(vertex.getConfiguration());
+		}
+		else {
+			final TaskInChain chainedTask = this.chainedTasks.get(node);
+			if (chainedTask == null || chainedTask == ALREADY_VISITED_PLACEHOLDER) {
+				return;
+			}
+			config = chainedTask.getTaskConfig();
+		}
+
+		config.setOperatorStatistics(node.getOptimizerNode().getFingerprint(),
+				node.getOutgoingChannels().get(0).getSerializer());
+	}
+
 	private InputFormatVertex createDataSourceVertex(SourcePlanNode node) throws CompilerException {
 		final InputFormatVertex vertex = new InputFormatVertex(node.getNodeName());
 		final TaskConfig config = new TaskConfig(vertex.getConfiguration());
@@ -1038,6 +1074,7 @@ public class JobGraphGenerator implements Visitor<PlanNode> {
 		}
 		
 		headConfig.setSolutionSetUnmanaged(iteration.getIterationNode().getIterationContract().isSolutionSetUnManaged());
+		headConfig.setSolutionSetSpillable(iteration.getIterationNode().getIterationContract().isSolutionSetSpillable());
 		
 		// create the iteration descriptor and the iteration to it
 		IterationDescriptor descr = this.iterations.get(iteration);
@@ -1284,6 +1321,13 @@ public class JobGraphGenerator implements Visitor<PlanNode> {
 		}
 		syncConfig.setNumberOfIterations(maxNumIterations);
 		
+		// the head needs to know the number of iterations itself, if it may run ahead of the sync
+		final int maxStaleness = bulkNode.getIterationNode().getIterationContract().getMaxStaleness();
+		if (maxStaleness > 0) {
+			headConfig.setIterationHeadMaxStaleness(maxStaleness);
+			headConfig.setNumberOfIterations(maxNumIterations);
+		}
+		
 		// connect the sync task
 		sync.connectNewDataSetAsInput(headVertex, DistributionPattern.POINTWISE);
 		
@@ -1420,6 +1464,13 @@ public class JobGraphGenerator implements Visitor<PlanNode> {
 			}
 			syncConfig.setNumberOfIterations(maxNumIterations);
 			
+			// the head needs to know the number of iterations itself, if it may run ahead of the sync
+			final int maxStaleness = iterNode.getIterationNode().getIterationContract().getMaxStaleness();
+			if (maxStaleness > 0) {
+				headConfig.setIterationHeadMaxStaleness(maxStaleness);
+				headConfig.setNumberOfIterations(maxNumIterations);
+			}
+			
 			// connect the sync task
 			sync.connectNewDataSetAsInput(headVertex, DistributionPattern.POINTWISE);
 		}
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.optimizer;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.flink.api.common.JobExecutionResult;
+import org.apache.flink.api.common.JobID;
+import org.apache.flink.api.common.Plan;
+import org.apache.flink.api.common.functions.MapFunction;
+import org.apache.flink.api.java.DataSet;
+import org.apache.flink.api.java.ExecutionEnvironment;
+import org.apache.flink.api.java.io.DiscardingOutputFormat;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.optimizer.plan.DualInputPlanNode;
+import org.apache.flink.optimizer.plan.OptimizedPlan;
+import org.apache.flink.optimizer.plan.SinkPlanNode;
+import org.apache.flink.optimizer.util.CompilerTestBase;
+import org.apache.flink.runtime.operators.DriverStrategy;
+import org.apache.flink.runtime.operators.shipping.ShipStrategyType;
+import org.apache.flink.runtime.operators.util.OperatorStatisticsCollector;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests that the optimizer picks up the operator statistics observed during earlier executions.
+ */
+@SuppressWarnings("serial")
+public class RuntimeStatisticsCompilerTest extends CompilerTestBase {
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	@Test
+	public void testObservedStatisticsChangeJoinStrategy() {
+		try {
+			DualInputPlanNode join = compileAndGetJoinNode();
+
+			// without any statistics, both inputs are repartitioned
+			assertEquals(ShipStrategyType.PARTITION_HASH, join.getInput1().getShipStrategy());
+			assertEquals(ShipStrategyType.PARTITION_HASH, join.getInput2().getShipStrategy());
+
+			final String smallFingerprint = join.getInput1().getSource().getOptimizerNode().getFingerprint();
+			final String largeFingerprint = join.getInput2().getSource().getOptimizerNode().getFingerprint();
+			assertNotEquals(smallFingerprint, largeFingerprint);
+
+			// report the statistics as they would be collected by the runtime
+			Map<String, Object> accumulators = new HashMap<String, Object>();
+			addAccumulators(accumulators, smallFingerprint, 10L, 10L, 120L);
+			addAccumulators(accumulators, largeFingerprint, 1000000000L, 1000L, 20000L);
+			accumulators.put("user-accumulator", 17L);
+
+			assertEquals(2, dataStats.addRuntimeStatistics(accumulators));
+			assertEquals(12.0f, dataStats.getOperatorStatistics(smallFingerprint).getAvgRecordWidth(), 0.0f);
+
+			// the same program compiles to the same fingerprints and uses the observed statistics
+			join = compileAndGetJoinNode();
+			assertEquals(smallFingerprint, join.getInput1().getSource().getOptimizerNode().getFingerprint());
+			assertEquals(10L, join.getInput1().getSource().getOptimizerNode().getEstimatedNumRecords());
+			assertEquals(120L, join.getInput1().getSource().getOptimizerNode().getEstimatedOutputSize());
+
+			assertEquals(ShipStrategyType.BROADCAST, join.getInput1().getShipStrategy());
+			assertEquals(ShipStrategyType.FORWARD, join.getInput2().getShipStrategy());
+			assertEquals(DriverStrategy.HYBRIDHASH_BUILD_FIRST, join.getDriverStrategy());
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			fail(e.getClass().getSimpleName() + ": " + e.getMessage());
+		}
+	}
+
+	@Test
+	public void testPersistOperatorStatistics() {
+		try {
+			File file = new File(tempFolder.newFolder(), DataStatistics.OPERATOR_STATISTICS_FILE_NAME);
+
+			DataStatistics statistics = new DataStatistics();
+			statistics.cacheOperatorStatistics(new OperatorRuntimeStatistics(42L, 16.5f), "abc");
+			statistics.cacheOperatorStatistics(new OperatorRuntimeStatistics(7L, OperatorRuntimeStatistics.WIDTH_UNKNOWN), "def");
+			statistics.writeOperatorStatistics(file);
+
+			// overwriting an existing file must work as well
+			statistics.writeOperatorStatistics(file);
+
+			DataStatistics restored = new DataStatistics();
+			restored.readOperatorStatistics(file);
+
+			assertEquals(42L, restored.getOperatorStatistics("abc").getNumRecords());
+			assertEquals(16.5f, restored.getOperatorStatistics("abc").getAvgRecordWidth(), 0.0f);
+			assertEquals(693L, restored.getOperatorStatistics("abc").getOutputSize());
+
+			assertEquals(7L, restored.getOperatorStatistics("def").getNumRecords());
+			assertEquals(-1L, restored.getOperatorStatistics("def").getOutputSize());
+
+			assertNull(restored.getOperatorStatistics("ghi"));
+
+			// a missing file is no error
+			new DataStatistics().readOperatorStatistics(new File(tempFolder.getRoot(), "missing"));
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			fail(e.getClass().getSimpleName() + ": " + e.getMessage());
+		}
+	}
+
+	@Test
+	public void testRemoveRuntimeStatistics() {
+		try {
+			Map<String, Object> accumulators = new HashMap<String, Object>();
+			addAccumulators(accumulators, "abc", 10L, 1L, 12L);
+			accumulators.put("user-accumulator", 17L);
+
+			JobID jobId = new JobID();
+			JobExecutionResult result = DataStatistics.removeRuntimeStatistics(
+					new JobExecutionResult(jobId, 42L, accumulators));
+
+			assertEquals(jobId, result.getJobID());
+			assertEquals(42L, result.getNetRuntime());
+			assertEquals(1, result.getAllAccumulatorResults().size());
+			assertEquals(17L, result.getAllAccumulatorResults().get("user-accumulator"));
+
+			// results without operator statistics are returned as they are
+			assertSame(result, DataStatistics.removeRuntimeStatistics(result));
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			fail(e.getClass().getSimpleName() + ": " + e.getMessage());
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	private DualInputPlanNode compileAndGetJoinNode() {
+		ExecutionEnvironment env = ExecutionEnvironment.getExecutionEnvironment();
+
+		DataSet<Long> small = env.generateSequence(1, 1000).map(new Identity()).name("small");
+		DataSet<Long> large = env.generateSequence(1, 1000).map(new Identity()).name("large");
+
+		small.join(large).where("*").equalTo("*").output(new DiscardingOutputFormat<Tuple2<Long, Long>>());
+
+		Plan plan = env.createProgramPlan();
+		OptimizedPlan op = compileWithStats(plan);
+
+		return (DualInputPlanNode) ((SinkPlanNode) op.getDataSinks().iterator().next()).getInput().getSource();
+	}
+
+	private static void addAccumulators(Map<String, Object> accumulators, String fingerprint,
+			long numRecords, long numSampled, long sampledBytes)
+	{
+		accumulators.put(OperatorStatisticsCollector.getAccumulatorName(fingerprint,
+				OperatorStatisticsCollector.NUM_RECORDS), numRecords);
+		accumulators.put(OperatorStatisticsCollector.getAccumulatorName(fingerprint,
+				OperatorStatisticsCollector.NUM_SAMPLED_RECORDS), numSampled);
+		accumulators.put(OperatorStatisticsCollector.getAccumulatorName(fingerprint,
+				OperatorStatisticsCollector.NUM_SAMPLED_BYTES), sampledBytes);
+	}
+
+	private static final class Identity implements MapFunction<Long, Long> {
+
+		@Override
+		public Long map(Long value) {
+			return value;
+		}
+	}
+}
@@ -66,6 +66,10 @@ public class RandomAccessInputView extends AbstractPagedInputView implements See
 		seekInput(this.segments.get(bufferNum), offset, bufferNum < this.segments.size() - 1 ? this.segmentSize : this.limitInLastSegment);
 	}
 
+	public long getReadPosition() {
+		return (((long) this.currentSegmentIndex) << this.segmentSizeBits) + getCurrentPositionInSegment();
+	}
+
 
 	@Override
 	protected MemorySegment nextSegment(MemorySegment current) throws EOFException {
@@ -139,6 +139,10 @@ public class NetworkEnvironment {
 		return configuration.ioMode();
 	}
 
+	public boolean isSortMergeBlockingShuffle() {
+		return configuration.sortMergeBlockingShuffle();
+	}
+
 	public ResultPartitionConsumableNotifier getPartitionConsumableNotifier() {
 		return partitionConsumableNotifier;
 	}
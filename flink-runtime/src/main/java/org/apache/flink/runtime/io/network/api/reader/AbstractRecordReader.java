@@ -19,15 +19,21 @@
 package org.apache.flink.runtime.io.network.api.reader;
 
 import org.apache.flink.core.io.IOReadableWritable;
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.core.memory.MemorySegmentFactory;
 import org.apache.flink.runtime.accumulators.AccumulatorRegistry;
+import org.apache.flink.runtime.io.network.api.EndOfSuperstepEvent;
 import org.apache.flink.runtime.io.network.api.serialization.RecordDeserializer;
 import org.apache.flink.runtime.io.network.api.serialization.RecordDeserializer.DeserializationResult;
 import org.apache.flink.runtime.io.network.api.serialization.SpillingAdaptiveSpanningRecordDeserializer;
 import org.apache.flink.runtime.io.network.buffer.Buffer;
+import org.apache.flink.runtime.io.network.buffer.FreeingBufferRecycler;
 import org.apache.flink.runtime.io.network.partition.consumer.BufferOrEvent;
 import org.apache.flink.runtime.io.network.partition.consumer.InputGate;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 
 /**
  * A record-oriented reader.
@@ -44,6 +50,17 @@ abstract class AbstractRecordReader<T extends IOReadableWritable> extends Abstra
 
 	private boolean isFinished;
 
+	// - Superstep alignment (iterative readers only) -------------------------
+
+	/** Flags indicating which channels have already reached the end of the current superstep. */
+	private final boolean[] channelsAtEndOfSuperstep;
+
+	/** Buffers and events of channels, which are already ahead in the next superstep. */
+	private final ArrayDeque<BufferOrEvent> deferredBuffersOrEvents = new ArrayDeque<BufferOrEvent>();
+
+	/** Deferred buffers and events, which are replayed in the current superstep. */
+	private final ArrayDeque<BufferOrEvent> replayedBuffersOrEvents = new ArrayDeque<BufferOrEvent>();
+
 	@SuppressWarnings("unchecked")
 	protected AbstractRecordReader(InputGate inputGate) {
 		super(inputGate);
@@ -53,6 +70,8 @@ abstract class AbstractRecordReader<T extends IOReadableWritable> extends Abstra
 		for (int i = 0; i < recordDeserializers.length; i++) {
 			recordDeserializers[i] = new SpillingAdaptiveSpanningRecordDeserializer<T>();
 		}
+
+		this.channelsAtEndOfSuperstep = new boolean[inputGate.getNumberOfInputChannels()];
 	}
 
 	protected boolean getNextRecord(T target) throws IOException, InterruptedException {
@@ -76,7 +95,7 @@ abstract class AbstractRecordReader<T extends IOReadableWritable> extends Abstra
 				}
 			}
 
-			final BufferOrEvent bufferOrEvent = inputGate.getNextBufferOrEvent();
+			final BufferOrEvent bufferOrEvent = getNextBufferOrEvent();
 
 			if (bufferOrEvent.isBuffer()) {
 				currentRecordDeserializer = recordDeserializers[bufferOrEvent.getChannelIndex()];
@@ -93,6 +112,10 @@ abstract class AbstractRecordReader<T extends IOReadableWritable> extends Abstra
 							+ "serialization routines. In the case of Kryo, check the respective Kryo serializer.");
 				}
 
+				if (bufferOrEvent.getEvent().getClass() == EndOfSuperstepEvent.class) {
+					channelsAtEndOfSuperstep[bufferOrEvent.getChannelIndex()] = true;
+				}
+
 				if (handleEvent(bufferOrEvent.getEvent())) {
 					if (inputGate.isFinished()) {
 						isFinished = true;
@@ -107,6 +130,64 @@ abstract class AbstractRecordReader<T extends IOReadableWritable> extends Abstra
 		}
 	}
 
+	@Override
+	public void startNextSuperstep() {
+		super.startNextSuperstep();
+
+		Arrays.fill(channelsAtEndOfSuperstep, false);
+
+		// Replay everything, which has been deferred during the previous superstep
+		replayedBuffersOrEvents.addAll(deferredBuffersOrEvents);
+		deferredBuffersOrEvents.clear();
+	}
+
+	/**
+	 * Returns the next buffer or event of the current superstep.
+	 *
+	 * <p> Iterative readers only see the data of one superstep at a time. If the producers of
+	 * some channels are already ahead (which happens with iterations that do not synchronize all
+	 * workers after each superstep), the data of such channels is deferred until the next
+	 * superstep is started. Deferred buffers are copied to unpooled memory in order to not hold
+	 * back buffers of the input gate, which are needed to make progress on the other channels.
+	 */
+	private BufferOrEvent getNextBufferOrEvent() throws IOException, InterruptedException {
+		while (true) {
+			BufferOrEvent next = replayedBuffersOrEvents.poll();
+			final boolean isReplayed = next != null;
+
+			if (!isReplayed) {
+				next = inputGate.getNextBufferOrEvent();
+			}
+
+			if (!channelsAtEndOfSuperstep[next.getChannelIndex()]) {
+				return next;
+			}
+
+			if (next.isBuffer() && !isReplayed) {
+				next = new BufferOrEvent(copyToUnpooledBuffer(next.getBuffer()), next.getChannelIndex());
+			}
+
+			deferredBuffersOrEvents.add(next);
+		}
+	}
+
+	private static Buffer copyToUnpooledBuffer(Buffer buffer) {
+		try {
+			final int size = buffer.getSize();
+			final MemorySegment segment = MemorySegmentFactory.allocateUnpooledSegment(size);
+
+			buffer.getMemorySegment().copyTo(0, segment, 0, size);
+
+			final Buffer copy = new Buffer(segment, FreeingBufferRecycler.INSTANCE);
+			copy.setSize(size);
+
+			return copy;
+		}
+		finally {
+			buffer.recycle();
+		}
+	}
+
 	public void clearBuffers() {
 		for (RecordDeserializer<?> deserializer : recordDeserializers) {
 			Buffer buffer = deserializer.getCurrentBuffer();
@@ -114,6 +195,19 @@ abstract class AbstractRecordReader<T extends IOReadableWritable> extends Abstra
 				buffer.recycle();
 			}
 		}
+
+		clearDeferredBuffers(deferredBuffersOrEvents);
+		clearDeferredBuffers(replayedBuffersOrEvents);
+	}
+
+	private static void clearDeferredBuffers(ArrayDeque<BufferOrEvent> buffersOrEvents) {
+		for (BufferOrEvent bufferOrEvent : buffersOrEvents) {
+			if (bufferOrEvent.isBuffer() && !bufferOrEvent.getBuffer().isRecycled()) {
+				bufferOrEvent.getBuffer().recycle();
+			}
+		}
+
+		buffersOrEvents.clear();
 	}
 
 	@Override
@@ -138,7 +138,8 @@ public class ResultPartition implements BufferPoolOwner {
 			ResultPartitionManager partitionManager,
 			ResultPartitionConsumableNotifier partitionConsumableNotifier,
 			IOManager ioManager,
-			IOMode defaultIoMode) {
+			IOMode defaultIoMode,
+			boolean sortMergeBlockingShuffle) {
 
 		this.owningTaskName = checkNotNull(owningTaskName);
 		this.jobId = checkNotNull(jobId);
@@ -152,9 +153,20 @@ public class ResultPartition implements BufferPoolOwner {
 		// Create the subpartitions.
 		switch (partitionType) {
 			case BLOCKING:
-				for (int i = 0; i < subpartitions.length; i++) {
-					subpartitions[i] = new SpillableSubpartition(
-							i, this, ioManager, defaultIoMode);
+				if (sortMergeBlockingShuffle) {
+					// All subpartitions share a single data file
+					SortMergePartitionFile partitionFile = new SortMergePartitionFile(
+							subpartitions.length, ioManager);
+
+					for (int i = 0; i < subpartitions.length; i++) {
+						subpartitions[i] = new SortMergeSubpartition(i, this, partitionFile);
+					}
+				}
+				else {
+					for (int i = 0; i < subpartitions.length; i++) {
+						subpartitions[i] = new SpillableSubpartition(
+								i, this, ioManager, defaultIoMode);
+					}
 				}
 
 				break;
@@ -0,0 +1,344 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.io.network.partition;
+
+import org.apache.flink.runtime.io.disk.iomanager.BufferFileWriter;
+import org.apache.flink.runtime.io.disk.iomanager.IOManager;
+import org.apache.flink.runtime.io.network.api.EndOfPartitionEvent;
+import org.apache.flink.runtime.io.network.api.serialization.EventSerializer;
+import org.apache.flink.runtime.io.network.buffer.Buffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * The buffers and the single data file shared by all {@link SortMergeSubpartition} instances of
+ * a blocking {@link ResultPartition}.
+ *
+ * <p> Buffers are bucketed by their target subpartition in memory. Whenever the buffer pool asks
+ * for memory back and when the partition is finished, all buckets are written in subpartition
+ * order to one data file. Each write appends at most one contiguous region per subpartition and
+ * records it in an in-memory index, which the read views use to read the offset ranges of their
+ * subpartition. In contrast to {@link SpillableSubpartition}, this creates a single file per
+ * producer instead of one file per subpartition, which keeps the number of files and random I/O
+ * low for large all-to-all exchanges.
+ */
+class SortMergePartitionFile {
+
+	private static final Logger LOG = LoggerFactory.getLogger(SortMergePartitionFile.class);
+
+	/** Length of the header written by the buffer file writer in front of each buffer. */
+	static final int BUFFER_HEADER_LENGTH = 8;
+
+	/** The in-memory buffers of each subpartition, which have not been written yet. */
+	private final List<ArrayList<Buffer>> buckets;
+
+	/** The written regions of the data file for each subpartition (in write order). */
+	private final List<List<Region>> index;
+
+	/** Flags indicating which subpartitions have been finished. */
+	private final boolean[] finishedSubpartitions;
+
+	/** The I/O manager to create the file writer from. */
+	private final IOManager ioManager;
+
+	/** The writer of the data file. As long as this is null, nothing has been written. */
+	private BufferFileWriter fileWriter;
+
+	/** The channel to read the data file from. Opened after the partition has been finished. */
+	private FileChannel fileReadChannel;
+
+	/** The position at which the next buffer will be written to the data file. */
+	private long writePosition;
+
+	/** The number of buffers, which are currently held in memory. */
+	private int numberOfBufferedBuffers;
+
+	private int numberOfFinishedSubpartitions;
+
+	/** Flag indicating whether all subpartitions have been finished and the file is complete. */
+	private boolean isFinished;
+
+	/** Flag indicating whether the file has been released. */
+	private volatile boolean isReleased;
+
+	SortMergePartitionFile(int numberOfSubpartitions, IOManager ioManager) {
+		checkArgument(numberOfSubpartitions > 0, "No subpartitions.");
+
+		this.buckets = new ArrayList<ArrayList<Buffer>>(numberOfSubpartitions);
+		this.index = new ArrayList<List<Region>>(numberOfSubpartitions);
+
+		for (int i = 0; i < numberOfSubpartitions; i++) {
+			buckets.add(new ArrayList<Buffer>());
+			index.add(new ArrayList<Region>());
+		}
+
+		this.finishedSubpartitions = new boolean[numberOfSubpartitions];
+		this.ioManager = checkNotNull(ioManager);
+	}
+
+	synchronized boolean add(int subpartitionIndex, Buffer buffer) {
+		checkNotNull(buffer);
+
+		if (isReleased || finishedSubpartitions[subpartitionIndex]) {
+			return false;
+		}
+
+		buckets.get(subpartitionIndex).add(buffer);
+		numberOfBufferedBuffers++;
+
+		return true;
+	}
+
+	/**
+	 * Finishes the given subpartition. After the last subpartition has been finished, all
+	 * remaining buffers are written and the data file is closed.
+	 *
+	 * @return Whether the subpartition has been finished by this call.
+	 */
+	boolean finish(int subpartitionIndex) throws IOException {
+		final BufferFileWriter writer;
+
+		synchronized (this) {
+			if (!add(subpartitionIndex, EventSerializer.toBuffer(EndOfPartitionEvent.INSTANCE))) {
+				return false;
+			}
+
+			finishedSubpartitions[subpartitionIndex] = true;
+
+			if (++numberOfFinishedSubpartitions < buckets.size()) {
+				return true;
+			}
+
+			writeBuckets();
+
+			writer = fileWriter;
+		}
+
+		// Wait for all outstanding writes before consumers can read the file. This must not hold
+		// the lock, because the buffer pool might concurrently ask us to release memory.
+		writer.close();
+
+		synchronized (this) {
+			if (!isReleased) {
+				fileReadChannel = new RandomAccessFile(writer.getChannelID().getPath(), "r").getChannel();
+
+				isFinished = true;
+
+				LOG.debug("Finished {}.", this);
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Writes all in-memory buffers to the data file.
+	 *
+	 * @return The number of written buffers.
+	 */
+	synchronized int writeBuckets() throws IOException {
+		if (isReleased || isFinished || numberOfBufferedBuffers == 0) {
+			return 0;
+		}
+
+		if (fileWriter == null) {
+			fileWriter = ioManager.createBufferFileWriter(ioManager.createChannel());
+		}
+
+		final int numberOfBuffers = numberOfBufferedBuffers;
+
+		for (int i = 0; i < buckets.size(); i++) {
+			final ArrayList<Buffer> bucket = buckets.get(i);
+
+			if (bucket.isEmpty()) {
+				continue;
+			}
+
+			final long regionStart = writePosition;
+
+			for (Buffer buffer : bucket) {
+				// The size has to be read before the write request, which recycles the buffer.
+				writePosition += BUFFER_HEADER_LENGTH + buffer.getSize();
+
+				fileWriter.writeBlock(buffer);
+			}
+
+			index.get(i).add(new Region(regionStart, writePosition - regionStart));
+
+			bucket.clear();
+		}
+
+		numberOfBufferedBuffers = 0;
+
+		LOG.debug("Wrote {} buffers of {}.", numberOfBuffers, this);
+
+		return numberOfBuffers;
+	}
+
+	/**
+	 * Returns the written regions of the given subpartition in the order they have been written.
+	 */
+	synchronized List<Region> getRegions(int subpartitionIndex) {
+		checkState(isFinished, "Partition file has not been finished yet.");
+
+		return Collections.unmodifiableList(index.get(subpartitionIndex));
+	}
+
+	synchronized boolean isFinished() {
+		return isFinished;
+	}
+
+	/**
+	 * Reads the buffer written at the given position of the data file into the given buffer.
+	 *
+	 * <p> Reads are positional and may be issued concurrently by the read views of all
+	 * subpartitions.
+	 *
+	 * @return The number of bytes read from the file including the buffer header.
+	 */
+	long readInto(Buffer buffer, long position) throws IOException {
+		final FileChannel channel;
+
+		synchronized (this) {
+			checkState(isFinished, "Partition file has not been finished yet.");
+			channel = fileReadChannel;
+		}
+
+		final ByteBuffer header = ByteBuffer.allocate(BUFFER_HEADER_LENGTH);
+		readFully(channel, header, position);
+		header.flip();
+
+		final boolean isBuffer = header.getInt() == 1;
+		final int size = header.getInt();
+
+		if (size > buffer.getMemorySegment().size()) {
+			throw new IllegalStateException("Buffer is too small for data: " + buffer.getMemorySegment().size() + " bytes available, but " + size + " needed. This is most likely due to an serialized event, which is larger than the buffer size.");
+		}
+
+		buffer.setSize(size);
+
+		readFully(channel, buffer.getNioBuffer(), position + BUFFER_HEADER_LENGTH);
+
+		if (!isBuffer) {
+			buffer.tagAsEvent();
+		}
+
+		return BUFFER_HEADER_LENGTH + size;
+	}
+
+	void release() throws IOException {
+		final FileChannel readChannel;
+		final BufferFileWriter writer;
+
+		synchronized (this) {
+			if (isReleased) {
+				return;
+			}
+
+			isReleased = true;
+
+			// Recycle all in-memory buffers
+			for (ArrayList<Buffer> bucket : buckets) {
+				for (Buffer buffer : bucket) {
+					buffer.recycle();
+				}
+
+				bucket.clear();
+			}
+
+			numberOfBufferedBuffers = 0;
+
+			readChannel = fileReadChannel;
+			writer = fileWriter;
+		}
+
+		try {
+			if (readChannel != null) {
+				readChannel.close();
+			}
+		}
+		finally {
+			// Wait for outstanding writes and delete the file
+			if (writer != null) {
+				writer.closeAndDelete();
+			}
+		}
+	}
+
+	boolean isReleased() {
+		return isReleased;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("SortMergePartitionFile [%d subpartitions, %d buffers in-memory, " +
+						"%d bytes written, finished? %s, released? %s]",
+				buckets.size(), numberOfBufferedBuffers, writePosition, isFinished, isReleased);
+	}
+
+	// ------------------------------------------------------------------------
+
+	private static void readFully(FileChannel channel, ByteBuffer target, long position) throws IOException {
+		while (target.hasRemaining()) {
+			int read = channel.read(target, position);
+
+			if (read < 0) {
+				throw new EOFException("Unexpected end of partition file.");
+			}
+
+			position += read;
+		}
+	}
+
+	/**
+	 * A contiguous region of the data file, which belongs to a single subpartition.
+	 */
+	static final class Region {
+
+		private final long offset;
+
+		private final long length;
+
+		Region(long offset, long length) {
+			this.offset = offset;
+			this.length = length;
+		}
+
+		long getOffset() {
+			return offset;
+		}
+
+		long getLength() {
+			return length;
+		}
+	}
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.io.network.partition;
+
+import org.apache.flink.runtime.io.network.buffer.Buffer;
+import org.apache.flink.runtime.io.network.buffer.BufferProvider;
+
+import java.io.IOException;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A blocking subpartition, which shares a single data file with all other subpartitions of its
+ * parent partition.
+ *
+ * <p> Buffers are kept in-memory in a per subpartition bucket of the {@link SortMergePartitionFile}
+ * until the buffer pool asks for memory back or the partition is finished. The buckets of all
+ * subpartitions are then written in subpartition order to the shared file, from which the
+ * subpartition is consumed via the offset ranges of its regions.
+ */
+class SortMergeSubpartition extends ResultSubpartition {
+
+	/** The data file shared by all subpartitions of the parent partition. */
+	private final SortMergePartitionFile partitionFile;
+
+	/** Flag indicating whether the subpartition has been released. */
+	private volatile boolean isReleased;
+
+	/** The read view to consume this subpartition. */
+	private ResultSubpartitionView readView;
+
+	SortMergeSubpartition(int index, ResultPartition parent, SortMergePartitionFile partitionFile) {
+		super(index, parent);
+
+		this.partitionFile = checkNotNull(partitionFile);
+	}
+
+	@Override
+	public boolean add(Buffer buffer) throws IOException {
+		checkNotNull(buffer);
+
+		if (isReleased) {
+			return false;
+		}
+
+		return partitionFile.add(index, buffer);
+	}
+
+	@Override
+	public void finish() throws IOException {
+		partitionFile.finish(index);
+	}
+
+	@Override
+	public void release() throws IOException {
+		final ResultSubpartitionView view;
+
+		synchronized (this) {
+			if (isReleased) {
+				return;
+			}
+
+			// Get the view...
+			view = readView;
+			readView = null;
+
+			isReleased = true;
+		}
+
+		// The shared file is released with the first subpartition, because all subpartitions are
+		// released together with their parent partition.
+		partitionFile.release();
+
+		// Release the view outside of the synchronized block
+		if (view != null) {
+			view.notifySubpartitionConsumed();
+		}
+	}
+
+	@Override
+	int releaseMemory() throws IOException {
+		return partitionFile.writeBuckets();
+	}
+
+	@Override
+	public boolean isReleased() {
+		return isReleased || partitionFile.isReleased();
+	}
+
+	@Override
+	public ResultSubpartitionView createReadView(BufferProvider bufferProvider) throws IOException {
+		synchronized (this) {
+			if (!partitionFile.isFinished()) {
+				throw new IllegalStateException("Partition has not been finished yet, " +
+						"but blocking subpartitions can only be consumed after they have " +
+						"been finished.");
+			}
+
+			if (readView != null) {
+				throw new IllegalStateException("Subpartition is being or already has been " +
+						"consumed, but we currently allow subpartitions to only be consumed once.");
+			}
+
+			readView = new SortMergeSubpartitionView(
+					this,
+					partitionFile,
+					partitionFile.getRegions(index),
+					bufferProvider.getMemorySegmentSize());
+
+			return readView;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("SortMergeSubpartition [index %d, read view? %s, %s]",
+				index, readView != null, partitionFile);
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.io.network.partition;
+
+import org.apache.flink.runtime.io.network.buffer.Buffer;
+import org.apache.flink.runtime.io.network.partition.SortMergePartitionFile.Region;
+import org.apache.flink.runtime.io.network.partition.SpilledSubpartitionViewSyncIO.SpillReadBufferPool;
+import org.apache.flink.runtime.util.event.NotificationListener;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * View over a {@link SortMergeSubpartition}, which reads the regions of the subpartition from the
+ * shared data file of the parent partition.
+ *
+ * <p> Reads are done synchronously.
+ */
+class SortMergeSubpartitionView implements ResultSubpartitionView {
+
+	/** The subpartition this view belongs to. */
+	private final ResultSubpartition parent;
+
+	/** The data file to read from. */
+	private final SortMergePartitionFile partitionFile;
+
+	/** The regions of the subpartition in the data file. */
+	private final List<Region> regions;
+
+	/** The buffer pool to read data into. */
+	private final SpillReadBufferPool bufferPool;
+
+	/** Index of the region currently read. */
+	private int currentRegion;
+
+	/** The file position of the next buffer to read. */
+	private long currentPosition;
+
+	/** The number of bytes left to read in the current region. */
+	private long remainingRegionBytes;
+
+	/** Flag indicating whether all resources have been released. */
+	private final AtomicBoolean isReleased = new AtomicBoolean();
+
+	SortMergeSubpartitionView(
+			ResultSubpartition parent,
+			SortMergePartitionFile partitionFile,
+			List<Region> regions,
+			int memorySegmentSize) {
+
+		this.parent = checkNotNull(parent);
+		this.partitionFile = checkNotNull(partitionFile);
+		this.regions = checkNotNull(regions);
+		this.bufferPool = new SpillReadBufferPool(2, memorySegmentSize);
+
+		this.currentRegion = -1;
+	}
+
+	@Override
+	public Buffer getNextBuffer() throws IOException, InterruptedException {
+		if (isReleased()) {
+			return null;
+		}
+
+		while (remainingRegionBytes == 0) {
+			if (++currentRegion >= regions.size()) {
+				return null;
+			}
+
+			currentPosition = regions.get(currentRegion).getOffset();
+			remainingRegionBytes = regions.get(currentRegion).getLength();
+		}
+
+		// It's OK to request the buffer in a blocking fashion as the buffer pool is NOT shared
+		// among all consumed subpartitions.
+		final Buffer buffer = bufferPool.requestBufferBlocking();
+
+		if (buffer == null) {
+			return null;
+		}
+
+		try {
+			final long bytesRead = partitionFile.readInto(buffer, currentPosition);
+
+			currentPosition += bytesRead;
+			remainingRegionBytes -= bytesRead;
+
+			return buffer;
+		}
+		catch (IOException e) {
+			buffer.recycle();
+			throw e;
+		}
+	}
+
+	@Override
+	public boolean registerListener(NotificationListener listener) throws IOException {
+		return false;
+	}
+
+	@Override
+	public void notifySubpartitionConsumed() throws IOException {
+		parent.onConsumedSubpartition();
+	}
+
+	@Override
+	public void releaseAllResources() throws IOException {
+		if (isReleased.compareAndSet(false, true)) {
+			bufferPool.destroy();
+		}
+	}
+
+	@Override
+	public boolean isReleased() {
+		return parent.isReleased() || isReleased.get();
+	}
+
+	@Override
+	public Throwable getFailureCause() {
+		return parent.getFailureCause();
+	}
+}
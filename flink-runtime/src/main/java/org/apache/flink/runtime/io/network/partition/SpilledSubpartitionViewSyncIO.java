@@ -126,13 +126,13 @@ class SpilledSubpartitionViewSyncIO implements ResultSubpartitionView {
 	 * TODO Replace with asynchronous buffer pool request as this introduces extra buffers per
 	 * consumed subpartition.
 	 */
-	private static class SpillReadBufferPool implements BufferRecycler {
+	static class SpillReadBufferPool implements BufferRecycler {
 
 		private final Queue<Buffer> buffers;
 
 		private boolean isDestroyed;
 
-		public SpillReadBufferPool(int numberOfBuffers, int memorySegmentSize) {
+		SpillReadBufferPool(int numberOfBuffers, int memorySegmentSize) {
 			this.buffers = new ArrayDeque<Buffer>(numberOfBuffers);
 
 			synchronized (buffers) {
@@ -155,7 +155,7 @@ class SpilledSubpartitionViewSyncIO implements ResultSubpartitionView {
 			}
 		}
 
-		private Buffer requestBufferBlocking() throws InterruptedException {
+		Buffer requestBufferBlocking() throws InterruptedException {
 			synchronized (buffers) {
 				while (true) {
 					if (isDestroyed) {
@@ -173,7 +173,7 @@ class SpilledSubpartitionViewSyncIO implements ResultSubpartitionView {
 			}
 		}
 
-		private void destroy() {
+		void destroy() {
 			synchronized (buffers) {
 				isDestroyed = true;
 				buffers.notifyAll();
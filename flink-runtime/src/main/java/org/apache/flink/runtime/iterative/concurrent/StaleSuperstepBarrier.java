@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.iterative.concurrent;
+
+import org.apache.flink.runtime.event.TaskEvent;
+import org.apache.flink.runtime.iterative.event.AllWorkersDoneEvent;
+import org.apache.flink.runtime.iterative.event.TerminationEvent;
+import org.apache.flink.runtime.iterative.task.RuntimeAggregatorRegistry;
+import org.apache.flink.runtime.util.event.EventListener;
+import org.apache.flink.types.Value;
+
+/**
+ * The barrier of an iteration head, which runs with bounded staleness.
+ *
+ * <p> In contrast to the {@link SuperstepBarrier}, which is reset for each superstep, this
+ * barrier counts all supersteps, which have been globally completed by the synchronization task.
+ * The head only waits for the completion of the superstep, which lies the maximum staleness
+ * behind its own, and continues with the latest global aggregates available at that time.
+ */
+public class StaleSuperstepBarrier implements EventListener<TaskEvent> {
+
+	private final ClassLoader userCodeClassLoader;
+
+	private final Object lock = new Object();
+
+	/** The number of supersteps, which have been completed by all workers. */
+	private int numberOfCompletedSupersteps;
+
+	/** The superstep, in which the synchronization task signaled termination, or -1. */
+	private int terminationSuperstep = -1;
+
+	private String[] aggregatorNames;
+
+	private Value[] aggregates;
+
+	/** Flag indicating whether the aggregates have not been handed to the head yet. */
+	private boolean hasNewAggregates;
+
+	public StaleSuperstepBarrier(ClassLoader userCodeClassLoader) {
+		this.userCodeClassLoader = userCodeClassLoader;
+	}
+
+	/**
+	 * Waits until the given superstep has been completed by all workers or until termination
+	 * has been signaled.
+	 */
+	public void waitForSuperstep(int superstep) throws InterruptedException {
+		synchronized (lock) {
+			while (numberOfCompletedSupersteps < superstep && terminationSuperstep == -1) {
+				lock.wait();
+			}
+		}
+	}
+
+	/**
+	 * Waits until termination has been signaled.
+	 */
+	public void waitForTermination() throws InterruptedException {
+		synchronized (lock) {
+			while (terminationSuperstep == -1) {
+				lock.wait();
+			}
+		}
+	}
+
+	public int getNumberOfCompletedSupersteps() {
+		synchronized (lock) {
+			return numberOfCompletedSupersteps;
+		}
+	}
+
+	public boolean terminationSignaled() {
+		synchronized (lock) {
+			return terminationSuperstep != -1;
+		}
+	}
+
+	/**
+	 * Returns the superstep, in which termination has been signaled, or -1 if termination has
+	 * not been signaled yet.
+	 */
+	public int getTerminationSuperstep() {
+		synchronized (lock) {
+			return terminationSuperstep;
+		}
+	}
+
+	/**
+	 * Hands the latest global aggregates to the given registry, if there are any new ones since
+	 * the last call.
+	 *
+	 * @return Whether the global aggregates of the registry have been updated.
+	 */
+	public boolean updateGlobalAggregates(RuntimeAggregatorRegistry aggregatorRegistry) {
+		synchronized (lock) {
+			if (!hasNewAggregates) {
+				return false;
+			}
+
+			aggregatorRegistry.updateGlobalAggregates(aggregatorNames, aggregates);
+			hasNewAggregates = false;
+
+			return true;
+		}
+	}
+
+	@Override
+	public void onEvent(TaskEvent event) {
+		synchronized (lock) {
+			if (event instanceof TerminationEvent) {
+				terminationSuperstep = numberOfCompletedSupersteps + 1;
+			}
+			else if (event instanceof AllWorkersDoneEvent) {
+				AllWorkersDoneEvent wde = (AllWorkersDoneEvent) event;
+				aggregatorNames = wde.getAggregatorNames();
+				aggregates = wde.getAggregates(userCodeClassLoader);
+				hasNewAggregates = true;
+
+				numberOfCompletedSupersteps++;
+			}
+			else {
+				throw new IllegalArgumentException("Unknown event type.");
+			}
+
+			lock.notifyAll();
+		}
+	}
+}
@@ -20,7 +20,7 @@ package org.apache.flink.runtime.iterative.io;
 
 import java.io.IOException;
 
-import org.apache.flink.runtime.operators.hash.CompactingHashTable;
+import org.apache.flink.runtime.operators.hash.AbstractMutableHashTable;
 import org.apache.flink.util.Collector;
 
 /**
@@ -36,13 +36,13 @@ public class SolutionSetFastUpdateOutputCollector<T> implements Collector<T> {
 
 	private final Collector<T> delegate;
 
-	private final CompactingHashTable<T> solutionSet;
+	private final AbstractMutableHashTable<T> solutionSet;
 
-	public SolutionSetFastUpdateOutputCollector(CompactingHashTable<T> solutionSet) {
+	public SolutionSetFastUpdateOutputCollector(AbstractMutableHashTable<T> solutionSet) {
 		this(solutionSet, null);
 	}
 
-	public SolutionSetFastUpdateOutputCollector(CompactingHashTable<T> solutionSet, Collector<T> delegate) {
+	public SolutionSetFastUpdateOutputCollector(AbstractMutableHashTable<T> solutionSet, Collector<T> delegate) {
 		this.solutionSet = solutionSet;
 		this.delegate = delegate;
 	}
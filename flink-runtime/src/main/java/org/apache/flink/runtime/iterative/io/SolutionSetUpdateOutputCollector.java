@@ -20,7 +20,7 @@ package org.apache.flink.runtime.iterative.io;
 
 import java.io.IOException;
 
-import org.apache.flink.runtime.operators.hash.CompactingHashTable;
+import org.apache.flink.runtime.operators.hash.AbstractMutableHashTable;
 import org.apache.flink.util.Collector;
 
 /**
@@ -37,13 +37,13 @@ public class SolutionSetUpdateOutputCollector<T> implements Collector<T> {
 
 	private final Collector<T> delegate;
 
-	private final CompactingHashTable<T> solutionSet;
+	private final AbstractMutableHashTable<T> solutionSet;
 
-	public SolutionSetUpdateOutputCollector(CompactingHashTable<T> solutionSet) {
+	public SolutionSetUpdateOutputCollector(AbstractMutableHashTable<T> solutionSet) {
 		this(solutionSet, null);
 	}
 
-	public SolutionSetUpdateOutputCollector(CompactingHashTable<T> solutionSet, Collector<T> delegate) {
+	public SolutionSetUpdateOutputCollector(AbstractMutableHashTable<T> solutionSet, Collector<T> delegate) {
 		this.solutionSet = solutionSet;
 		this.delegate = delegate;
 	}
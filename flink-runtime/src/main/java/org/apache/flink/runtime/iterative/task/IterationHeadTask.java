@@ -45,6 +45,7 @@ import org.apache.flink.runtime.iterative.concurrent.IterationAggregatorBroker;
 import org.apache.flink.runtime.iterative.concurrent.SolutionSetBroker;
 import org.apache.flink.runtime.iterative.concurrent.SolutionSetUpdateBarrier;
 import org.apache.flink.runtime.iterative.concurrent.SolutionSetUpdateBarrierBroker;
+import org.apache.flink.runtime.iterative.concurrent.StaleSuperstepBarrier;
 import org.apache.flink.runtime.iterative.concurrent.SuperstepBarrier;
 import org.apache.flink.runtime.iterative.concurrent.SuperstepKickoffLatch;
 import org.apache.flink.runtime.iterative.concurrent.SuperstepKickoffLatchBroker;
@@ -53,7 +54,9 @@ import org.apache.flink.runtime.iterative.event.TerminationEvent;
 import org.apache.flink.runtime.iterative.event.WorkerDoneEvent;
 import org.apache.flink.runtime.iterative.io.SerializedUpdateBuffer;
 import org.apache.flink.runtime.operators.BatchTask;
+import org.apache.flink.runtime.operators.hash.AbstractMutableHashTable;
 import org.apache.flink.runtime.operators.hash.CompactingHashTable;
+import org.apache.flink.runtime.operators.hash.SpillingSolutionSetTable;
 import org.apache.flink.runtime.operators.util.TaskConfig;
 import org.apache.flink.types.Value;
 import org.apache.flink.util.Collector;
@@ -71,6 +74,12 @@ import org.apache.flink.util.MutableObjectIterator;
  * iteration is done, the head
  * will send a {@link TerminationEvent} to all it's connected tasks, signaling them to shutdown.
  * <p>
+ * If the iteration runs with a maximum staleness of k > 0 supersteps, the head does not wait for the
+ * {@link AllWorkersDoneEvent} of its current superstep, but only for the one of the superstep k steps behind,
+ * and continues with the latest global aggregates it has received so far. Once termination has been signaled for
+ * some superstep, all heads finish exactly k supersteps later, which keeps the end-of-superstep events of all
+ * connected tasks consistent.
+ * <p>
  * Assumption on the ordering of the outputs: - The first n output gates write to channels that go to the tasks of the
  * step function. - The next m output gates to to the tasks that consume the final solution. - The last output gate
  * connects to the synchronization task.
@@ -155,7 +164,7 @@ public class IterationHeadTask<X, Y, S extends Function, OT> extends AbstractIte
 		return backChannel;
 	}
 	
-	private <BT> CompactingHashTable<BT> initCompactingHashTable() throws Exception {
+	private <BT> AbstractMutableHashTable<BT> initSolutionSetHashTable(boolean spillable) throws Exception {
 		// get some memory
 		double hashjoinMemorySize = config.getRelativeSolutionSetMemory();
 		final ClassLoader userCodeClassLoader = getUserCodeClassLoader();
@@ -166,13 +175,17 @@ public class IterationHeadTask<X, Y, S extends Function, OT> extends AbstractIte
 		TypeSerializer<BT> solutionTypeSerializer = solutionTypeSerializerFactory.getSerializer();
 		TypeComparator<BT> solutionTypeComparator = solutionTypeComparatorFactory.createComparator();
 
-		CompactingHashTable<BT> hashTable = null;
+		AbstractMutableHashTable<BT> hashTable = null;
 		List<MemorySegment> memSegments = null;
 		boolean success = false;
 		try {
 			int numPages = getMemoryManager().computeNumberOfPages(hashjoinMemorySize);
 			memSegments = getMemoryManager().allocatePages(getOwningNepheleTask(), numPages);
-			hashTable = new CompactingHashTable<BT>(solutionTypeSerializer, solutionTypeComparator, memSegments);
+			if (spillable) {
+				hashTable = new SpillingSolutionSetTable<BT>(solutionTypeSerializer, solutionTypeComparator, memSegments, getIOManager());
+			} else {
+				hashTable = new CompactingHashTable<BT>(solutionTypeSerializer, solutionTypeComparator, memSegments);
+			}
 			success = true;
 			return hashTable;
 		} finally {
@@ -207,7 +220,7 @@ public class IterationHeadTask<X, Y, S extends Function, OT> extends AbstractIte
 		return new JoinHashMap<BT>(solutionTypeSerializer, solutionTypeComparator);
 	}
 	
-	private void readInitialSolutionSet(CompactingHashTable<X> solutionSet, MutableObjectIterator<X> solutionSetInput) throws IOException {
+	private void readInitialSolutionSet(AbstractMutableHashTable<X> solutionSet, MutableObjectIterator<X> solutionSetInput) throws IOException {
 		solutionSet.open();
 		solutionSet.buildTableWithUniqueKey(solutionSetInput);
 	}
@@ -228,26 +241,39 @@ public class IterationHeadTask<X, Y, S extends Function, OT> extends AbstractIte
 		return barrier;
 	}
 
+	private StaleSuperstepBarrier initStaleSuperstepBarrier() {
+		StaleSuperstepBarrier barrier = new StaleSuperstepBarrier(getUserCodeClassLoader());
+		this.toSync.subscribeToEvent(barrier, AllWorkersDoneEvent.class);
+		this.toSync.subscribeToEvent(barrier, TerminationEvent.class);
+		return barrier;
+	}
+
 	@Override
 	public void run() throws Exception {
 		final String brokerKey = brokerKey();
 		final int workerIndex = getEnvironment().getTaskInfo().getIndexOfThisSubtask();
 		
 		final boolean objectSolutionSet = config.isSolutionSetUnmanaged();
+		final boolean spillableSolutionSet = config.isSolutionSetSpillable();
 
-		CompactingHashTable<X> solutionSet = null; // if workset iteration
+		AbstractMutableHashTable<X> solutionSet = null; // if workset iteration
 		JoinHashMap<X> solutionSetObjectMap = null; // if workset iteration with unmanaged solution set
 		
 		boolean waitForSolutionSetUpdate = config.getWaitForSolutionSetUpdate();
 		boolean isWorksetIteration = config.getIsWorksetIteration();
 
+		final int maxStaleness = config.getIterationHeadMaxStaleness();
+		final boolean isStale = maxStaleness > 0;
+
 		try {
 			/* used for receiving the current iteration result from iteration tail */
 			SuperstepKickoffLatch nextStepKickoff = new SuperstepKickoffLatch();
 			SuperstepKickoffLatchBroker.instance().handIn(brokerKey, nextStepKickoff);
 			
 			BlockingBackChannel backChannel = initBackChannel();
-			SuperstepBarrier barrier = initSuperstepBarrier();
+			SuperstepBarrier barrier = isStale ? null : initSuperstepBarrier();
+			StaleSuperstepBarrier staleBarrier = isStale ? initStaleSuperstepBarrier() : null;
+			final int maxNumberOfIterations = isStale ? config.getNumberOfIterations() : -1;
 			SolutionSetUpdateBarrier solutionSetUpdateBarrier = null;
 
 			feedbackDataInput = config.getIterationHeadPartialSolutionOrWorksetInputIndex();
@@ -269,7 +295,7 @@ public class IterationHeadTask<X, Y, S extends Function, OT> extends AbstractIte
 					readInitialSolutionSet(solutionSetObjectMap, solutionSetInput);
 					SolutionSetBroker.instance().handIn(brokerKey, solutionSetObjectMap);
 				} else {
-					solutionSet = initCompactingHashTable();
+					solutionSet = initSolutionSetHashTable(spillableSolutionSet);
 					readInitialSolutionSet(solutionSet, solutionSetInput);
 					SolutionSetBroker.instance().handIn(brokerKey, solutionSet);
 				}
@@ -305,7 +331,9 @@ public class IterationHeadTask<X, Y, S extends Function, OT> extends AbstractIte
 					log.info(formatLogString("starting iteration [" + currentIteration() + "]"));
 				}
 
-				barrier.setup();
+				if (!isStale) {
+					barrier.setup();
+				}
 
 				if (waitForSolutionSetUpdate) {
 					solutionSetUpdateBarrier.setup();
@@ -330,6 +358,12 @@ public class IterationHeadTask<X, Y, S extends Function, OT> extends AbstractIte
 					log.info(formatLogString("finishing iteration [" + currentIteration() + "]"));
 				}
 
+				if (isStale) {
+					runStaleSynchronization(staleBarrier, maxStaleness, maxNumberOfIterations, workerIndex,
+							aggregatorRegistry, nextStepKickoff);
+					continue;
+				}
+
 				sendEventToSync(new WorkerDoneEvent(workerIndex, aggregatorRegistry.getAllAggregators()));
 
 				if (log.isInfoEnabled()) {
@@ -390,6 +424,52 @@ public class IterationHeadTask<X, Y, S extends Function, OT> extends AbstractIte
 		}
 	}
 
+	/**
+	 * Synchronizes the end of the current superstep with bounded staleness: the head only waits for the superstep
+	 * {@code maxStaleness} steps behind to be completed by all workers before it starts the next superstep.
+	 */
+	private void runStaleSynchronization(StaleSuperstepBarrier barrier, int maxStaleness, int maxNumberOfIterations,
+			int workerIndex, RuntimeAggregatorRegistry aggregatorRegistry, SuperstepKickoffLatch nextStepKickoff)
+			throws IOException, InterruptedException
+	{
+		final int superstep = currentIteration();
+
+		// the sync task does not expect any events after it has signaled termination
+		if (!barrier.terminationSignaled()) {
+			sendEventToSync(new WorkerDoneEvent(workerIndex, aggregatorRegistry.getAllAggregators()));
+		}
+		aggregatorRegistry.resetAggregators();
+
+		if (log.isInfoEnabled()) {
+			log.info(formatLogString("waiting for other workers to finish iteration [" + (superstep - maxStaleness)
+				+ "] in iteration [" + superstep + "]"));
+		}
+
+		barrier.waitForSuperstep(superstep - maxStaleness);
+
+		// all heads have to finish in the same superstep, which is either the last one or the one that lies the
+		// maximum staleness behind the superstep, in which termination has been signaled
+		final boolean isLastSuperstep = superstep >= maxNumberOfIterations ||
+				(barrier.terminationSignaled() && superstep >= barrier.getTerminationSuperstep() + maxStaleness);
+
+		if (isLastSuperstep) {
+			// make sure that the sync task does not wait for us anymore
+			barrier.waitForTermination();
+
+			if (log.isInfoEnabled()) {
+				log.info(formatLogString("head received termination request in iteration [" + superstep + "]"));
+			}
+			requestTermination();
+			nextStepKickoff.signalTermination();
+		} else {
+			incrementIterationCounter();
+
+			barrier.updateGlobalAggregates(aggregatorRegistry);
+
+			nextStepKickoff.triggerNextSuperstep();
+		}
+	}
+
 	private void streamOutFinalOutputBulk(MutableObjectIterator<X> results) throws IOException {
 		final Collector<X> out = this.finalOutputCollector;
 		X record = this.solutionTypeSerializer.getSerializer().createInstance();
@@ -399,7 +479,7 @@ public class IterationHeadTask<X, Y, S extends Function, OT> extends AbstractIte
 		}
 	}
 	
-	private void streamSolutionSetToFinalOutput(CompactingHashTable<X> hashTable) throws IOException {
+	private void streamSolutionSetToFinalOutput(AbstractMutableHashTable<X> hashTable) throws IOException {
 		final MutableObjectIterator<X> results = hashTable.getEntryIterator();
 		final Collector<X> output = this.finalOutputCollector;
 		X record = solutionTypeSerializer.getSerializer().createInstance();
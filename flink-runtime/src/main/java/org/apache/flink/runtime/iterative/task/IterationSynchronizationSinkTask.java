@@ -185,6 +185,11 @@ public class IterationSynchronizationSinkTask extends AbstractInvokable implemen
 	private void readHeadEventChannel(IntValue rec) throws IOException {
 		// reset the handler
 		eventHandler.resetEndOfSuperstep();
+
+		// the heads might have already reported the end of this superstep, if they run with bounded staleness
+		if (eventHandler.isEndOfSuperstep()) {
+			return;
+		}
 		
 		// read (and thereby process all events in the handler's event handling functions)
 		try {
@@ -59,6 +59,11 @@ public class RuntimeAggregatorRegistry {
 	}
 	
 	public void updateGlobalAggregatesAndReset(String[] names, Value[] aggregates) {
+		updateGlobalAggregates(names, aggregates);
+		resetAggregators();
+	}
+	
+	public void updateGlobalAggregates(String[] names, Value[] aggregates) {
 		if (names == null || aggregates == null || names.length != aggregates.length) {
 			throw new IllegalArgumentException();
 		}
@@ -67,8 +72,9 @@ public class RuntimeAggregatorRegistry {
 		for (int i = 0 ; i < names.length; i++) {
 			this.previousGlobalAggregate.put(names[i], aggregates[i]);
 		}
-		
-		// reset all aggregators
+	}
+	
+	public void resetAggregators() {
 		for (Aggregator<?> agg : this.aggregators.values()) {
 			agg.reset();
 		}
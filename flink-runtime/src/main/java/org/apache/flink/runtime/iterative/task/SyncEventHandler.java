@@ -18,7 +18,10 @@
 
 package org.apache.flink.runtime.iterative.task;
 
+import java.util.ArrayDeque;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.flink.api.common.aggregators.Aggregator;
 import org.apache.flink.runtime.event.TaskEvent;
@@ -28,6 +31,13 @@ import org.apache.flink.types.Value;
 
 import com.google.common.base.Preconditions;
 
+/**
+ * Aggregates the {@link WorkerDoneEvent}s of all iteration heads and interrupts the reading thread once each head
+ * has reported the end of the current superstep.
+ * <p>
+ * Heads running with bounded staleness may already report the end of later supersteps before the current one is
+ * complete. Such events are buffered and only aggregated after the end of the current superstep has been reset.
+ */
 public class SyncEventHandler implements EventListener<TaskEvent> {
 	
 	private final ClassLoader userCodeClassLoader;
@@ -40,6 +50,12 @@ public class SyncEventHandler implements EventListener<TaskEvent> {
 	
 	private boolean endOfSuperstep;
 
+	/** The workers, which have already reported the end of the current superstep. */
+	private final Set<Integer> workersDone = new HashSet<Integer>();
+
+	/** Events of workers, which are already ahead in a later superstep. */
+	private final ArrayDeque<WorkerDoneEvent> deferredEvents = new ArrayDeque<WorkerDoneEvent>();
+
 
 	public SyncEventHandler(int numberOfEventsUntilEndOfSuperstep, Map<String, Aggregator<?>> aggregators, ClassLoader userCodeClassLoader) {
 		Preconditions.checkArgument(numberOfEventsUntilEndOfSuperstep > 0);
@@ -58,10 +74,19 @@ public class SyncEventHandler implements EventListener<TaskEvent> {
 	}
 
 	private void onWorkerDoneEvent(WorkerDoneEvent workerDoneEvent) {
-		if (this.endOfSuperstep) {
-			throw new RuntimeException("Encountered WorderDoneEvent when still in End-of-Superstep status.");
+		if (this.endOfSuperstep || workersDone.contains(workerDoneEvent.getWorkerIndex())) {
+			// the worker is ahead, we handle its event in a later superstep
+			deferredEvents.add(workerDoneEvent);
+			return;
 		}
-		
+
+		if (handleWorkerDoneEvent(workerDoneEvent)) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private boolean handleWorkerDoneEvent(WorkerDoneEvent workerDoneEvent) {
+		workersDone.add(workerDoneEvent.getWorkerIndex());
 		workerDoneEventCounter++;
 
 		String[] aggNames = workerDoneEvent.getAggregatorNames();
@@ -79,15 +104,35 @@ public class SyncEventHandler implements EventListener<TaskEvent> {
 
 		if (workerDoneEventCounter % numberOfEventsUntilEndOfSuperstep == 0) {
 			endOfSuperstep = true;
-			Thread.currentThread().interrupt();
+			return true;
 		}
+
+		return false;
 	}
 	
 	public boolean isEndOfSuperstep() {
 		return this.endOfSuperstep;
 	}
 	
+	/**
+	 * Resets the end-of-superstep status and handles the deferred events of the next superstep. If all workers have
+	 * already reported the end of the next superstep, the handler is directly at the end-of-superstep again.
+	 */
 	public void resetEndOfSuperstep() {
 		this.endOfSuperstep = false;
+		this.workersDone.clear();
+
+		final int numberOfDeferredEvents = deferredEvents.size();
+
+		for (int i = 0; i < numberOfDeferredEvents; i++) {
+			WorkerDoneEvent event = deferredEvents.poll();
+
+			if (this.endOfSuperstep || workersDone.contains(event.getWorkerIndex())) {
+				deferredEvents.add(event);
+			}
+			else {
+				handleWorkerDoneEvent(event);
+			}
+		}
 	}
 }
@@ -54,6 +54,7 @@ import org.apache.flink.runtime.operators.sort.UnilateralSortMerger;
 import org.apache.flink.runtime.operators.util.CloseableInputProvider;
 import org.apache.flink.runtime.operators.util.DistributedRuntimeUDFContext;
 import org.apache.flink.runtime.operators.util.LocalStrategy;
+import org.apache.flink.runtime.operators.util.OperatorStatisticsCollector;
 import org.apache.flink.runtime.operators.util.ReaderIterator;
 import org.apache.flink.runtime.operators.util.TaskConfig;
 import org.apache.flink.runtime.plugable.DeserializationDelegate;
@@ -1287,6 +1288,7 @@ public class BatchTask<S extends Function, OT> extends AbstractInvokable impleme
 					// last in chain, instantiate the output collector for this task
 					previous = getOutputCollector(nepheleTask, chainedStubConf, cl, eventualOutputs, 0, chainedStubConf.getNumOutputs(), reporter);
 				}
+				previous = collectOperatorStatistics(previous, chainedStubConf, cl, accumulatorMap);
 
 				ct.setup(chainedStubConf, taskName, previous, nepheleTask, cl, executionConfig, accumulatorMap);
 				chainedTasksTarget.add(0, ct);
@@ -1294,12 +1296,29 @@ public class BatchTask<S extends Function, OT> extends AbstractInvokable impleme
 				previous = ct;
 			}
 			// the collector of the first in the chain is the collector for the nephele task
-			return (Collector<T>) previous;
+			return collectOperatorStatistics((Collector<T>) previous, config, cl, accumulatorMap);
 		}
 		// else
 
 		// instantiate the output collector the default way from this configuration
-		return getOutputCollector(nepheleTask , config, cl, eventualOutputs, 0, numOutputs, reporter);
+		Collector<T> output = getOutputCollector(nepheleTask , config, cl, eventualOutputs, 0, numOutputs, reporter);
+		return collectOperatorStatistics(output, config, cl, accumulatorMap);
+	}
+
+	/**
+	 * Wraps the given output collector such that it records the output statistics of the operator,
+	 * if the configuration requests so. Otherwise, the collector is returned unchanged.
+	 */
+	private static <T> Collector<T> collectOperatorStatistics(Collector<T> output, TaskConfig config, ClassLoader cl,
+			Map<String, Accumulator<?,?>> accumulatorMap)
+	{
+		final String key = config.getOperatorStatisticsKey();
+		if (key == null || accumulatorMap == null) {
+			return output;
+		}
+
+		final TypeSerializerFactory<T> serializerFactory = config.getOperatorStatisticsSerializer(cl);
+		return new OperatorStatisticsCollector<T>(output, serializerFactory.getSerializer(), key, accumulatorMap);
 	}
 	
 	// --------------------------------------------------------------------------------------------
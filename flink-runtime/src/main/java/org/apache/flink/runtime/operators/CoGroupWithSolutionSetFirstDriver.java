@@ -30,18 +30,21 @@ import org.apache.flink.api.common.typeutils.TypePairComparatorFactory;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.runtime.iterative.concurrent.SolutionSetBroker;
 import org.apache.flink.runtime.iterative.task.AbstractIterativeTask;
-import org.apache.flink.runtime.operators.hash.CompactingHashTable;
+import org.apache.flink.runtime.operators.hash.AbstractHashTableProber;
+import org.apache.flink.runtime.operators.hash.AbstractMutableHashTable;
+import org.apache.flink.runtime.operators.hash.SpillingSolutionSetTable;
 import org.apache.flink.runtime.operators.util.TaskConfig;
 import org.apache.flink.runtime.util.NonReusingKeyGroupedIterator;
 import org.apache.flink.runtime.util.ReusingKeyGroupedIterator;
 import org.apache.flink.runtime.util.SingleElementIterator;
 import org.apache.flink.util.Collector;
+import org.apache.flink.util.MutableObjectIterator;
 
 public class CoGroupWithSolutionSetFirstDriver<IT1, IT2, OT> implements ResettableDriver<CoGroupFunction<IT1, IT2, OT>, OT> {
 	
 	private TaskContext<CoGroupFunction<IT1, IT2, OT>, OT> taskContext;
 	
-	private CompactingHashTable<IT1> hashTable;
+	private AbstractMutableHashTable<IT1> hashTable;
 	
 	private JoinHashMap<IT1> objectMap;
 	
@@ -111,8 +114,8 @@ public class CoGroupWithSolutionSetFirstDriver<IT1, IT2, OT> implements Resettab
 			String identifier = iterativeTaskContext.brokerKey();
 			
 			Object table = SolutionSetBroker.instance().get(identifier);
-			if (table instanceof CompactingHashTable) {
-				this.hashTable = (CompactingHashTable<IT1>) table;
+			if (table instanceof AbstractMutableHashTable) {
+				this.hashTable = (AbstractMutableHashTable<IT1>) table;
 				solutionSetSerializer = this.hashTable.getBuildSideSerializer();
 				solutionSetComparator = this.hashTable.getBuildSideComparator().duplicate();
 			}
@@ -164,10 +167,10 @@ public class CoGroupWithSolutionSetFirstDriver<IT1, IT2, OT> implements Resettab
 		final Iterable<IT1> emptySolutionSide = Collections.emptySet();
 
 		if (objectReuseEnabled) {
-			final ReusingKeyGroupedIterator<IT2> probeSideInput = new ReusingKeyGroupedIterator<IT2>(taskContext.<IT2>getInput(0), probeSideSerializer, probeSideComparator);
+			final ReusingKeyGroupedIterator<IT2> probeSideInput = new ReusingKeyGroupedIterator<IT2>(getProbeSideInput(), probeSideSerializer, probeSideComparator);
 			if (this.hashTable != null) {
-				final CompactingHashTable<IT1> join = hashTable;
-				final CompactingHashTable<IT1>.HashTableProber<IT2> prober = join.getProber(this.probeSideComparator, this.pairComparator);
+				final AbstractMutableHashTable<IT1> join = hashTable;
+				final AbstractHashTableProber<IT2, IT1> prober = join.getProber(this.probeSideComparator, this.pairComparator);
 
 
 				IT1 buildSideRecord = solutionSideRecord;
@@ -201,10 +204,10 @@ public class CoGroupWithSolutionSetFirstDriver<IT1, IT2, OT> implements Resettab
 				}
 			}
 		} else {
-			final NonReusingKeyGroupedIterator<IT2> probeSideInput = new NonReusingKeyGroupedIterator<IT2>(taskContext.<IT2>getInput(0), probeSideComparator);
+			final NonReusingKeyGroupedIterator<IT2> probeSideInput = new NonReusingKeyGroupedIterator<IT2>(getProbeSideInput(), probeSideComparator);
 			if (this.hashTable != null) {
-				final CompactingHashTable<IT1> join = hashTable;
-				final CompactingHashTable<IT1>.HashTableProber<IT2> prober = join.getProber(this
+				final AbstractMutableHashTable<IT1> join = hashTable;
+				final AbstractHashTableProber<IT2, IT1> prober = join.getProber(this
 						.probeSideComparator, this.pairComparator);
 
 				IT1 buildSideRecord;
@@ -241,6 +244,16 @@ public class CoGroupWithSolutionSetFirstDriver<IT1, IT2, OT> implements Resettab
 		}
 	}
 
+	@SuppressWarnings("unchecked")
+	private MutableObjectIterator<IT2> getProbeSideInput() {
+		final MutableObjectIterator<IT2> input = taskContext.<IT2>getInput(0);
+
+		if (hashTable instanceof SpillingSolutionSetTable) {
+			return ((SpillingSolutionSetTable<IT1>) hashTable).getProbeIterator(input, probeSideComparator, probeSideSerializer);
+		}
+		return input;
+	}
+
 	@Override
 	public void cleanup() {}
 	
@@ -28,19 +28,22 @@ import org.apache.flink.api.common.typeutils.TypePairComparatorFactory;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.runtime.iterative.concurrent.SolutionSetBroker;
 import org.apache.flink.runtime.iterative.task.AbstractIterativeTask;
-import org.apache.flink.runtime.operators.hash.CompactingHashTable;
+import org.apache.flink.runtime.operators.hash.AbstractHashTableProber;
+import org.apache.flink.runtime.operators.hash.AbstractMutableHashTable;
+import org.apache.flink.runtime.operators.hash.SpillingSolutionSetTable;
 import org.apache.flink.runtime.operators.util.TaskConfig;
 import org.apache.flink.runtime.util.EmptyIterator;
 import org.apache.flink.runtime.util.NonReusingKeyGroupedIterator;
 import org.apache.flink.runtime.util.ReusingKeyGroupedIterator;
 import org.apache.flink.runtime.util.SingleElementIterator;
 import org.apache.flink.util.Collector;
+import org.apache.flink.util.MutableObjectIterator;
 
 public class CoGroupWithSolutionSetSecondDriver<IT1, IT2, OT> implements ResettableDriver<CoGroupFunction<IT1, IT2, OT>, OT> {
 	
 	private TaskContext<CoGroupFunction<IT1, IT2, OT>, OT> taskContext;
 	
-	private CompactingHashTable<IT2> hashTable;
+	private AbstractMutableHashTable<IT2> hashTable;
 	
 	private JoinHashMap<IT2> objectMap;
 	
@@ -109,8 +112,8 @@ public class CoGroupWithSolutionSetSecondDriver<IT1, IT2, OT> implements Resetta
 			String identifier = iterativeTaskContext.brokerKey();
 			Object table = SolutionSetBroker.instance().get(identifier);
 			
-			if (table instanceof CompactingHashTable) {
-				this.hashTable = (CompactingHashTable<IT2>) table;
+			if (table instanceof AbstractMutableHashTable) {
+				this.hashTable = (AbstractMutableHashTable<IT2>) table;
 				solutionSetSerializer = this.hashTable.getBuildSideSerializer();
 				solutionSetComparator = this.hashTable.getBuildSideComparator().duplicate();
 			}
@@ -163,11 +166,11 @@ public class CoGroupWithSolutionSetSecondDriver<IT1, IT2, OT> implements Resetta
 		final Iterable<IT2> emptySolutionSide = EmptyIterator.<IT2>get();
 
 		if (objectReuseEnabled) {
-			final ReusingKeyGroupedIterator<IT1> probeSideInput = new ReusingKeyGroupedIterator<IT1>(taskContext.<IT1>getInput(0), probeSideSerializer, probeSideComparator);
+			final ReusingKeyGroupedIterator<IT1> probeSideInput = new ReusingKeyGroupedIterator<IT1>(getProbeSideInput(), probeSideSerializer, probeSideComparator);
 
 			if (this.hashTable != null) {
-				final CompactingHashTable<IT2> join = hashTable;
-				final CompactingHashTable<IT2>.HashTableProber<IT1> prober = join.getProber(this.probeSideComparator, this.pairComparator);
+				final AbstractMutableHashTable<IT2> join = hashTable;
+				final AbstractHashTableProber<IT1, IT2> prober = join.getProber(this.probeSideComparator, this.pairComparator);
 
 				IT2 buildSideRecord = solutionSideRecord;
 
@@ -201,11 +204,11 @@ public class CoGroupWithSolutionSetSecondDriver<IT1, IT2, OT> implements Resetta
 			}
 		} else {
 			final NonReusingKeyGroupedIterator<IT1> probeSideInput = 
-					new NonReusingKeyGroupedIterator<IT1>(taskContext.<IT1>getInput(0), probeSideComparator);
+					new NonReusingKeyGroupedIterator<IT1>(getProbeSideInput(), probeSideComparator);
 
 			if (this.hashTable != null) {
-				final CompactingHashTable<IT2> join = hashTable;
-				final CompactingHashTable<IT2>.HashTableProber<IT1> prober = join.getProber(this.probeSideComparator, this.pairComparator);
+				final AbstractMutableHashTable<IT2> join = hashTable;
+				final AbstractHashTableProber<IT1, IT2> prober = join.getProber(this.probeSideComparator, this.pairComparator);
 
 				IT2 buildSideRecord;
 
@@ -241,6 +244,16 @@ public class CoGroupWithSolutionSetSecondDriver<IT1, IT2, OT> implements Resetta
 		}
 	}
 
+	@SuppressWarnings("unchecked")
+	private MutableObjectIterator<IT1> getProbeSideInput() {
+		final MutableObjectIterator<IT1> input = taskContext.<IT1>getInput(0);
+
+		if (hashTable instanceof SpillingSolutionSetTable) {
+			return ((SpillingSolutionSetTable<IT2>) hashTable).getProbeIterator(input, probeSideComparator, probeSideSerializer);
+		}
+		return input;
+	}
+
 	@Override
 	public void cleanup() {}
 	
@@ -26,6 +26,7 @@ import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.configuration.ConfigConstants;
 import org.apache.flink.runtime.io.disk.iomanager.IOManager;
 import org.apache.flink.runtime.memory.MemoryManager;
+import org.apache.flink.runtime.operators.hash.AdaptiveHashJoinIterator;
 import org.apache.flink.runtime.operators.hash.NonReusingBuildFirstHashJoinIterator;
 import org.apache.flink.runtime.operators.hash.NonReusingBuildSecondHashJoinIterator;
 import org.apache.flink.runtime.operators.hash.ReusingBuildFirstHashJoinIterator;
@@ -122,8 +123,27 @@ public class JoinDriver<IT1, IT2, OT> implements Driver<FlatJoinFunction<IT1, IT
 				ConfigConstants.RUNTIME_HASH_JOIN_BLOOM_FILTERS_KEY,
 				ConfigConstants.DEFAULT_RUNTIME_HASH_JOIN_BLOOM_FILTERS);
 
+		boolean hashJoinAdaptive = taskContext.getTaskManagerInfo().getConfiguration().getBoolean(
+				ConfigConstants.RUNTIME_HASH_JOIN_ADAPTIVE_KEY,
+				ConfigConstants.DEFAULT_RUNTIME_HASH_JOIN_ADAPTIVE);
+
 		// create and return joining iterator according to provided local strategy.
-		if (objectReuseEnabled) {
+		if (hashJoinAdaptive && (ls == DriverStrategy.HYBRIDHASH_BUILD_FIRST || ls == DriverStrategy.HYBRIDHASH_BUILD_SECOND)) {
+			// the hash join decides on the build side (or a sort-merge join) only after having seen the inputs
+			this.joinIterator = new AdaptiveHashJoinIterator<>(in1, in2,
+					this.taskContext.<IT1>getInputSerializer(0), comparator1,
+					this.taskContext.<IT2>getInputSerializer(1), comparator2,
+					pairComparatorFactory,
+					memoryManager, ioManager,
+					this.taskContext.getOwningNepheleTask(),
+					fractionAvailableMemory,
+					config.getFilehandlesDriver(),
+					config.getSpillingThresholdDriver(),
+					ls == DriverStrategy.HYBRIDHASH_BUILD_FIRST,
+					objectReuseEnabled,
+					hashJoinUseBitMaps);
+		}
+		else if (objectReuseEnabled) {
 			switch (ls) {
 				case INNER_MERGE:
 					this.joinIterator = new ReusingMergeInnerJoinIterator<>(in1, in2, 
@@ -28,7 +28,9 @@ import org.apache.flink.api.common.typeutils.TypePairComparatorFactory;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.runtime.iterative.concurrent.SolutionSetBroker;
 import org.apache.flink.runtime.iterative.task.AbstractIterativeTask;
-import org.apache.flink.runtime.operators.hash.CompactingHashTable;
+import org.apache.flink.runtime.operators.hash.AbstractHashTableProber;
+import org.apache.flink.runtime.operators.hash.AbstractMutableHashTable;
+import org.apache.flink.runtime.operators.hash.SpillingSolutionSetTable;
 import org.apache.flink.runtime.operators.util.TaskConfig;
 import org.apache.flink.util.Collector;
 import org.apache.flink.util.MutableObjectIterator;
@@ -37,10 +39,12 @@ public class JoinWithSolutionSetFirstDriver<IT1, IT2, OT> implements ResettableD
 	
 	private TaskContext<FlatJoinFunction<IT1, IT2, OT>, OT> taskContext;
 	
-	private CompactingHashTable<IT1> hashTable;
+	private AbstractMutableHashTable<IT1> hashTable;
 	
 	private JoinHashMap<IT1> objectMap;
 	
+	private TypeSerializer<IT2> probeSideSerializer;
+	
 	private TypeComparator<IT2> probeSideComparator;
 	
 	private TypePairComparator<IT2, IT1> pairComparator;
@@ -104,8 +108,8 @@ public class JoinWithSolutionSetFirstDriver<IT1, IT2, OT> implements ResettableD
 			String identifier = iterativeTaskContext.brokerKey();
 			
 			Object table = SolutionSetBroker.instance().get(identifier);
-			if (table instanceof CompactingHashTable) {
-				this.hashTable = (CompactingHashTable<IT1>) table;
+			if (table instanceof AbstractMutableHashTable) {
+				this.hashTable = (AbstractMutableHashTable<IT1>) table;
 				solutionSetSerializer = this.hashTable.getBuildSideSerializer();
 				solutionSetComparator = this.hashTable.getBuildSideComparator().duplicate();
 			}
@@ -124,7 +128,7 @@ public class JoinWithSolutionSetFirstDriver<IT1, IT2, OT> implements ResettableD
 		TaskConfig config = taskContext.getTaskConfig();
 		ClassLoader classLoader = taskContext.getUserCodeClassLoader();
 		
-		TypeSerializer<IT2> probeSideSerializer = taskContext.<IT2>getInputSerializer(0).getSerializer();
+		this.probeSideSerializer = taskContext.<IT2>getInputSerializer(0).getSerializer();
 		
 		TypeComparatorFactory<IT2> probeSideComparatorFactory = config.getDriverComparator(0, classLoader);
 		this.probeSideComparator = probeSideComparatorFactory.createComparator();
@@ -152,15 +156,15 @@ public class JoinWithSolutionSetFirstDriver<IT1, IT2, OT> implements ResettableD
 	public void run() throws Exception {
 		final FlatJoinFunction<IT1, IT2, OT> joinFunction = taskContext.getStub();
 		final Collector<OT> collector = taskContext.getOutputCollector();
-		final MutableObjectIterator<IT2> probeSideInput = taskContext.<IT2>getInput(0);
+		final MutableObjectIterator<IT2> probeSideInput = getProbeSideInput();
 		
 
 		if (objectReuseEnabled) {
 			IT2 probeSideRecord = this.probeSideRecord;
 
 			if (hashTable != null) {
-				final CompactingHashTable<IT1> join = hashTable;
-				final CompactingHashTable<IT1>.HashTableProber<IT2> prober = join.getProber(probeSideComparator, pairComparator);
+				final AbstractMutableHashTable<IT1> join = hashTable;
+				final AbstractHashTableProber<IT2, IT1> prober = join.getProber(probeSideComparator, pairComparator);
 
 
 				IT1 buildSideRecord = this.solutionSideRecord;
@@ -185,8 +189,8 @@ public class JoinWithSolutionSetFirstDriver<IT1, IT2, OT> implements ResettableD
 			IT2 probeSideRecord;
 
 			if (hashTable != null) {
-				final CompactingHashTable<IT1> join = hashTable;
-				final CompactingHashTable<IT1>.HashTableProber<IT2> prober = join.getProber(probeSideComparator, pairComparator);
+				final AbstractMutableHashTable<IT1> join = hashTable;
+				final AbstractHashTableProber<IT2, IT1> prober = join.getProber(probeSideComparator, pairComparator);
 
 
 				IT1 buildSideRecord;
@@ -210,6 +214,16 @@ public class JoinWithSolutionSetFirstDriver<IT1, IT2, OT> implements ResettableD
 		}
 	}
 
+	@SuppressWarnings("unchecked")
+	private MutableObjectIterator<IT2> getProbeSideInput() {
+		final MutableObjectIterator<IT2> input = taskContext.<IT2>getInput(0);
+
+		if (hashTable instanceof SpillingSolutionSetTable) {
+			return ((SpillingSolutionSetTable<IT1>) hashTable).getProbeIterator(input, probeSideComparator, probeSideSerializer);
+		}
+		return input;
+	}
+
 	@Override
 	public void cleanup() {}
 	
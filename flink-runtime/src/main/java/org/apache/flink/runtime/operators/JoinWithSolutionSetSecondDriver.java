@@ -28,7 +28,9 @@ import org.apache.flink.api.common.typeutils.TypePairComparatorFactory;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.runtime.iterative.concurrent.SolutionSetBroker;
 import org.apache.flink.runtime.iterative.task.AbstractIterativeTask;
-import org.apache.flink.runtime.operators.hash.CompactingHashTable;
+import org.apache.flink.runtime.operators.hash.AbstractHashTableProber;
+import org.apache.flink.runtime.operators.hash.AbstractMutableHashTable;
+import org.apache.flink.runtime.operators.hash.SpillingSolutionSetTable;
 import org.apache.flink.runtime.operators.util.TaskConfig;
 import org.apache.flink.util.Collector;
 import org.apache.flink.util.MutableObjectIterator;
@@ -37,10 +39,12 @@ public class JoinWithSolutionSetSecondDriver<IT1, IT2, OT> implements Resettable
 	
 	private TaskContext<FlatJoinFunction<IT1, IT2, OT>, OT> taskContext;
 	
-	private CompactingHashTable<IT2> hashTable;
+	private AbstractMutableHashTable<IT2> hashTable;
 	
 	private JoinHashMap<IT2> objectMap;
 	
+	private TypeSerializer<IT1> probeSideSerializer;
+	
 	private TypeComparator<IT1> probeSideComparator;
 	
 	private TypePairComparator<IT1, IT2> pairComparator;
@@ -104,8 +108,8 @@ public class JoinWithSolutionSetSecondDriver<IT1, IT2, OT> implements Resettable
 			String identifier = iterativeTaskContext.brokerKey();
 			Object table = SolutionSetBroker.instance().get(identifier);
 			
-			if (table instanceof CompactingHashTable) {
-				this.hashTable = (CompactingHashTable<IT2>) table;
+			if (table instanceof AbstractMutableHashTable) {
+				this.hashTable = (AbstractMutableHashTable<IT2>) table;
 				solutionSetSerializer = this.hashTable.getBuildSideSerializer();
 				solutionSetComparator = this.hashTable.getBuildSideComparator().duplicate();
 			}
@@ -125,7 +129,7 @@ public class JoinWithSolutionSetSecondDriver<IT1, IT2, OT> implements Resettable
 		TaskConfig config = taskContext.getTaskConfig();
 		ClassLoader classLoader = taskContext.getUserCodeClassLoader();
 		
-		TypeSerializer<IT1> probeSideSerializer = taskContext.<IT1>getInputSerializer(0).getSerializer();
+		this.probeSideSerializer = taskContext.<IT1>getInputSerializer(0).getSerializer();
 		
 		TypeComparatorFactory<IT1> probeSideComparatorFactory = config.getDriverComparator(0, classLoader); 
 		
@@ -155,14 +159,14 @@ public class JoinWithSolutionSetSecondDriver<IT1, IT2, OT> implements Resettable
 
 		final FlatJoinFunction<IT1, IT2, OT> joinFunction = taskContext.getStub();
 		final Collector<OT> collector = taskContext.getOutputCollector();
-		final MutableObjectIterator<IT1> probeSideInput = taskContext.getInput(0);
+		final MutableObjectIterator<IT1> probeSideInput = getProbeSideInput();
 
 		if (objectReuseEnabled) {
 			IT1 probeSideRecord = this.probeSideRecord;
 
 			if (hashTable != null) {
-				final CompactingHashTable<IT2> join = hashTable;
-				final CompactingHashTable<IT2>.HashTableProber<IT1> prober = join.getProber(probeSideComparator, pairComparator);
+				final AbstractMutableHashTable<IT2> join = hashTable;
+				final AbstractHashTableProber<IT1, IT2> prober = join.getProber(probeSideComparator, pairComparator);
 
 
 				IT2 buildSideRecord = this.solutionSideRecord;
@@ -187,8 +191,8 @@ public class JoinWithSolutionSetSecondDriver<IT1, IT2, OT> implements Resettable
 			IT1 probeSideRecord;
 
 			if (hashTable != null) {
-				final CompactingHashTable<IT2> join = hashTable;
-				final CompactingHashTable<IT2>.HashTableProber<IT1> prober = join.getProber(probeSideComparator, pairComparator);
+				final AbstractMutableHashTable<IT2> join = hashTable;
+				final AbstractHashTableProber<IT1, IT2> prober = join.getProber(probeSideComparator, pairComparator);
 
 
 				IT2 buildSideRecord;
@@ -213,6 +217,16 @@ public class JoinWithSolutionSetSecondDriver<IT1, IT2, OT> implements Resettable
 		}
 	}
 
+	@SuppressWarnings("unchecked")
+	private MutableObjectIterator<IT1> getProbeSideInput() {
+		final MutableObjectIterator<IT1> input = taskContext.<IT1>getInput(0);
+
+		if (hashTable instanceof SpillingSolutionSetTable) {
+			return ((SpillingSolutionSetTable<IT2>) hashTable).getProbeIterator(input, probeSideComparator, probeSideSerializer);
+		}
+		return input;
+	}
+
 	@Override
 	public void cleanup() {}
 	
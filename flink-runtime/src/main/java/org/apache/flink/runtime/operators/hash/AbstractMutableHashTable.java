@@ -65,6 +65,8 @@ public abstract class AbstractMutableHashTable<T> {
 	
 	// ------------- Modifier -------------
 	
+	public abstract void buildTableWithUniqueKey(MutableObjectIterator<T> input) throws IOException;
+	
 	public abstract void insert(T record) throws IOException;
 	
 	public abstract void insertOrReplaceRecord(T record) throws IOException;
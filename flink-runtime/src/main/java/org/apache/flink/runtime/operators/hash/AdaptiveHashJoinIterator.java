@@ -0,0 +1,627 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.operators.hash;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.flink.api.common.functions.FlatJoinFunction;
+import org.apache.flink.api.common.typeutils.TypeComparator;
+import org.apache.flink.api.common.typeutils.TypePairComparatorFactory;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.TypeSerializerFactory;
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.runtime.io.disk.ChannelReaderInputViewIterator;
+import org.apache.flink.runtime.io.disk.InputViewIterator;
+import org.apache.flink.runtime.io.disk.RandomAccessInputView;
+import org.apache.flink.runtime.io.disk.SimpleCollectingOutputView;
+import org.apache.flink.runtime.io.disk.iomanager.BlockChannelReader;
+import org.apache.flink.runtime.io.disk.iomanager.BlockChannelWriter;
+import org.apache.flink.runtime.io.disk.iomanager.ChannelReaderInputView;
+import org.apache.flink.runtime.io.disk.iomanager.ChannelWriterOutputView;
+import org.apache.flink.runtime.io.disk.iomanager.FileIOChannel;
+import org.apache.flink.runtime.io.disk.iomanager.IOManager;
+import org.apache.flink.runtime.jobgraph.tasks.AbstractInvokable;
+import org.apache.flink.runtime.memory.ListMemorySegmentSource;
+import org.apache.flink.runtime.memory.MemoryAllocationException;
+import org.apache.flink.runtime.memory.MemoryManager;
+import org.apache.flink.runtime.operators.DriverStrategy;
+import org.apache.flink.runtime.operators.sort.NonReusingMergeInnerJoinIterator;
+import org.apache.flink.runtime.operators.sort.ReusingMergeInnerJoinIterator;
+import org.apache.flink.runtime.operators.sort.UnilateralSortMerger;
+import org.apache.flink.runtime.operators.util.JoinTaskIterator;
+import org.apache.flink.util.Collector;
+import org.apache.flink.util.MutableObjectIterator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link JoinTaskIterator} that decides on the local join strategy only after it has seen the
+ * sizes of its inputs, instead of relying on the estimates of the optimizer.
+ *
+ * <p> The iterator first reads the build side that was chosen by the optimizer ahead, until either
+ * the input is exhausted or it has become too large to be kept in the hash table's memory. In the first case, the hybrid hash join proceeds as planned. Otherwise, the iterator reads
+ * the other input in the same way. If that one fits into memory, the roles of the inputs are swapped.
+ * If neither input fits, the iterator falls back to a sort-merge join, whose cost, unlike the cost
+ * of a recursively spilling hash join, does not depend on the key distribution. If the memory is too
+ * small for the sorters of that fallback, the hash join chosen by the optimizer is kept.
+ *
+ * <p> The records that have been read ahead are kept in memory pages, as long as these leave the hash
+ * table enough memory to hold the records, too. Only once they do not, the records are moved to a
+ * spill file, which costs one additional pass over at most a memory's worth of records of the input.
+ * The records that have already been read are replayed from memory or from the spill file before
+ * the remaining records of the respective input.
+ */
+public class AdaptiveHashJoinIterator<V1, V2, O> implements JoinTaskIterator<V1, V2, O> {
+
+	private static final Logger LOG = LoggerFactory.getLogger(AdaptiveHashJoinIterator.class);
+
+	/** The fraction of the hash table's memory, which the build side may occupy to count as fitting. */
+	private static final float BUILD_SIDE_FILL_FACTOR = 0.8f;
+
+	/** The number of memory pages used to write and replay the spill files. */
+	private static final int NUM_IO_PAGES = 4;
+
+	/** The fraction of the memory given to each of the sorters of the sort-merge fallback. */
+	private static final double SORTER_MEMORY_FRACTION = 0.4;
+
+	/** The minimum number of memory pages that a {@link UnilateralSortMerger} accepts. */
+	private static final int MIN_NUM_SORTER_PAGES = 12;
+
+	/** The minimum number of memory pages that the merge join iterators accept. */
+	private static final int MIN_NUM_MERGE_PAGES = 2;
+
+	private final MutableObjectIterator<V1> firstInput;
+
+	private final MutableObjectIterator<V2> secondInput;
+
+	private final TypeSerializerFactory<V1> serializerFactory1;
+
+	private final TypeSerializerFactory<V2> serializerFactory2;
+
+	private final TypeComparator<V1> comparator1;
+
+	private final TypeComparator<V2> comparator2;
+
+	private final TypePairComparatorFactory<V1, V2> pairComparatorFactory;
+
+	private final MemoryManager memManager;
+
+	private final IOManager ioManager;
+
+	private final AbstractInvokable ownerTask;
+
+	private final double memoryFraction;
+
+	private final int maxNumFileHandles;
+
+	private final float spillingThreshold;
+
+	private final boolean plannedBuildFirst;
+
+	private final boolean objectReuseEnabled;
+
+	private final boolean useBitmapFilters;
+
+	/** The fraction of the memory given to each of the sorters of the sort-merge fallback. */
+	private final double sorterFraction;
+
+	/** The number of memory pages for the merge join of the sort-merge fallback. */
+	private final int numMergePages;
+
+	/** The memory for the spill files, which is not part of the memory of the chosen strategy. */
+	private final List<MemorySegment> ioMemory;
+
+	/** The inputs that have been read ahead, whose memory or spill files need to be released on close. */
+	private final List<ReadAheadInput<?>> readAheadInputs = new ArrayList<ReadAheadInput<?>>(2);
+
+	private final List<UnilateralSortMerger<?>> sorters = new ArrayList<UnilateralSortMerger<?>>(2);
+
+	private volatile JoinTaskIterator<V1, V2, O> delegate;
+
+	private DriverStrategy chosenStrategy;
+
+	private volatile boolean running = true;
+
+	// --------------------------------------------------------------------------------------------
+
+	public AdaptiveHashJoinIterator(
+			MutableObjectIterator<V1> firstInput,
+			MutableObjectIterator<V2> secondInput,
+			TypeSerializerFactory<V1> serializerFactory1,
+			TypeComparator<V1> comparator1,
+			TypeSerializerFactory<V2> serializerFactory2,
+			TypeComparator<V2> comparator2,
+			TypePairComparatorFactory<V1, V2> pairComparatorFactory,
+			MemoryManager memManager, IOManager ioManager,
+			AbstractInvokable ownerTask,
+			double memoryFraction,
+			int maxNumFileHandles,
+			float spillingThreshold,
+			boolean plannedBuildFirst,
+			boolean objectReuseEnabled,
+			boolean useBitmapFilters) throws MemoryAllocationException
+	{
+		this.firstInput = firstInput;
+		this.secondInput = secondInput;
+		this.serializerFactory1 = serializerFactory1;
+		this.serializerFactory2 = serializerFactory2;
+		this.comparator1 = comparator1;
+		this.comparator2 = comparator2;
+		this.pairComparatorFactory = pairComparatorFactory;
+		this.memManager = memManager;
+		this.ioManager = ioManager;
+		this.ownerTask = ownerTask;
+		this.memoryFraction = memoryFraction;
+		this.maxNumFileHandles = maxNumFileHandles;
+		this.spillingThreshold = spillingThreshold;
+		this.plannedBuildFirst = plannedBuildFirst;
+		this.objectReuseEnabled = objectReuseEnabled;
+		this.useBitmapFilters = useBitmapFilters;
+
+		// the sorters and the merge of the fallback share the memory, except the pages that replay the spill files
+		final int totalPages = memManager.computeNumberOfPages(memoryFraction);
+		final int numSorterPages = Math.max(MIN_NUM_SORTER_PAGES,
+				(int) ((totalPages - NUM_IO_PAGES) * SORTER_MEMORY_FRACTION));
+		this.sorterFraction = memoryFraction * numSorterPages / totalPages;
+		this.numMergePages = totalPages - NUM_IO_PAGES - 2 * numSorterPages;
+
+		this.ioMemory = memManager.allocatePages(ownerTask, NUM_IO_PAGES);
+	}
+
+	// --------------------------------------------------------------------------------------------
+
+	@Override
+	public void open() throws IOException, MemoryAllocationException, InterruptedException {
+		final int numPages = this.memManager.computeNumberOfPages(this.memoryFraction) - NUM_IO_PAGES;
+		final long threshold = (long) (numPages * (long) this.memManager.getPageSize() * BUILD_SIDE_FILL_FACTOR);
+
+		// records read into memory pages must leave the hash table enough of the remaining pages to hold them
+		final int maxBufferPages = Math.max(0, Math.min(
+				(int) (numPages * BUILD_SIDE_FILL_FACTOR / (1 + BUILD_SIDE_FILL_FACTOR)),
+				numPages - MutableHashTable.MIN_NUM_MEMORY_SEGMENTS));
+
+		if (this.plannedBuildFirst) {
+			final ReadAheadInput<V1> first = readAhead(this.firstInput, this.serializerFactory1.getSerializer(), threshold, maxBufferPages);
+			if (first.isComplete() || !this.running) {
+				useHashJoin(true, first.getIterator(), this.secondInput);
+				return;
+			}
+
+			final ReadAheadInput<V2> second = readAhead(this.secondInput, this.serializerFactory2.getSerializer(), threshold, maxBufferPages);
+			if (second.isComplete()) {
+				useHashJoin(false, first.getIterator(), second.getIterator());
+			}
+			else if (canFallBackToSortMerge()) {
+				useSortMergeJoin(first.getIterator(), second.getIterator());
+			}
+			else {
+				useHashJoin(true, first.getIterator(), second.getIterator());
+			}
+		}
+		else {
+			final ReadAheadInput<V2> second = readAhead(this.secondInput, this.serializerFactory2.getSerializer(), threshold, maxBufferPages);
+			if (second.isComplete() || !this.running) {
+				useHashJoin(false, this.firstInput, second.getIterator());
+				return;
+			}
+
+			final ReadAheadInput<V1> first = readAhead(this.firstInput, this.serializerFactory1.getSerializer(), threshold, maxBufferPages);
+			if (first.isComplete()) {
+				useHashJoin(true, first.getIterator(), second.getIterator());
+			}
+			else if (canFallBackToSortMerge()) {
+				useSortMergeJoin(first.getIterator(), second.getIterator());
+			}
+			else {
+				useHashJoin(false, first.getIterator(), second.getIterator());
+			}
+		}
+	}
+
+	@Override
+	public void close() {
+		if (this.delegate != null) {
+			this.delegate.close();
+		}
+		for (UnilateralSortMerger<?> sorter : this.sorters) {
+			sorter.close();
+		}
+		for (ReadAheadInput<?> readAhead : this.readAheadInputs) {
+			try {
+				readAhead.close();
+			}
+			catch (Throwable t) {
+				LOG.error("Could not release the records that the adaptive hash join has read ahead.", t);
+			}
+		}
+		this.memManager.release(this.ioMemory);
+	}
+
+	@Override
+	public boolean callWithNextKey(FlatJoinFunction<V1, V2, O> matchFunction, Collector<O> collector) throws Exception {
+		return this.delegate.callWithNextKey(matchFunction, collector);
+	}
+
+	@Override
+	public void abort() {
+		this.running = false;
+		final JoinTaskIterator<V1, V2, O> delegate = this.delegate;
+		if (delegate != null) {
+			delegate.abort();
+		}
+	}
+
+	/**
+	 * Gets the local strategy that has been chosen after looking at the inputs, or null, if the
+	 * iterator has not been opened yet.
+	 */
+	public DriverStrategy getChosenStrategy() {
+		return this.chosenStrategy;
+	}
+
+	// --------------------------------------------------------------------------------------------
+
+	/**
+	 * Checks whether the memory of the join suffices for the sorters and the merge of the sort-merge
+	 * fallback. If it does not, the iterator stays with the hash join chosen by the optimizer.
+	 */
+	private boolean canFallBackToSortMerge() {
+		if (this.numMergePages >= MIN_NUM_MERGE_PAGES) {
+			return true;
+		}
+		LOG.warn("Neither input fits into the memory of the hash join, but the memory is too small for the " +
+				"sort-merge fallback. Keeping the hash join chosen by the optimizer.");
+		return false;
+	}
+
+	private void useHashJoin(boolean buildFirst, MutableObjectIterator<V1> in1, MutableObjectIterator<V2> in2)
+			throws IOException, MemoryAllocationException, InterruptedException
+	{
+		if (buildFirst != this.plannedBuildFirst) {
+			LOG.info("Swapping the build side of the hash join, because the " + (buildFirst ? "first" : "second") +
+					" input is smaller than estimated by the optimizer.");
+		}
+
+		// the hash table gets the memory of the join, except the pages that replay the read records
+		int numBufferPages = 0;
+		for (ReadAheadInput<?> readAhead : this.readAheadInputs) {
+			numBufferPages += readAhead.getNumBufferPages();
+		}
+		final int totalPages = this.memManager.computeNumberOfPages(this.memoryFraction);
+		final double fraction = this.memoryFraction * (totalPages - NUM_IO_PAGES - numBufferPages) / totalPages;
+
+		final TypeSerializer<V1> serializer1 = this.serializerFactory1.getSerializer();
+		final TypeSerializer<V2> serializer2 = this.serializerFactory2.getSerializer();
+
+		if (buildFirst) {
+			this.chosenStrategy = DriverStrategy.HYBRIDHASH_BUILD_FIRST;
+			this.delegate = this.objectReuseEnabled ?
+				new ReusingBuildFirstHashJoinIterator<V1, V2, O>(in1, in2, serializer1, this.comparator1,
+						serializer2, this.comparator2,
+						this.pairComparatorFactory.createComparator21(this.comparator1, this.comparator2),
+						this.memManager, this.ioManager, this.ownerTask, fraction, false, this.useBitmapFilters) :
+				new NonReusingBuildFirstHashJoinIterator<V1, V2, O>(in1, in2, serializer1, this.comparator1,
+						serializer2, this.comparator2,
+						this.pairComparatorFactory.createComparator21(this.comparator1, this.comparator2),
+						this.memManager, this.ioManager, this.ownerTask, fraction, false, this.useBitmapFilters);
+		}
+		else {
+			this.chosenStrategy = DriverStrategy.HYBRIDHASH_BUILD_SECOND;
+			this.delegate = this.objectReuseEnabled ?
+				new ReusingBuildSecondHashJoinIterator<V1, V2, O>(in1, in2, serializer1, this.comparator1,
+						serializer2, this.comparator2,
+						this.pairComparatorFactory.createComparator12(this.comparator1, this.comparator2),
+						this.memManager, this.ioManager, this.ownerTask, fraction, false, this.useBitmapFilters) :
+				new NonReusingBuildSecondHashJoinIterator<V1, V2, O>(in1, in2, serializer1, this.comparator1,
+						serializer2, this.comparator2,
+						this.pairComparatorFactory.createComparator12(this.comparator1, this.comparator2),
+						this.memManager, this.ioManager, this.ownerTask, fraction, false, this.useBitmapFilters);
+		}
+		this.delegate.open();
+	}
+
+	private void useSortMergeJoin(MutableObjectIterator<V1> in1, MutableObjectIterator<V2> in2)
+			throws IOException, MemoryAllocationException, InterruptedException
+	{
+		LOG.info("Falling back to a sort-merge join, because neither input fits into the memory of the hash join.");
+		this.chosenStrategy = DriverStrategy.INNER_MERGE;
+
+		final UnilateralSortMerger<V1> sorter1 = new UnilateralSortMerger<V1>(this.memManager, this.ioManager,
+				in1, this.ownerTask, this.serializerFactory1, this.comparator1.duplicate(),
+				this.sorterFraction, this.maxNumFileHandles, this.spillingThreshold, this.objectReuseEnabled);
+		this.sorters.add(sorter1);
+
+		final UnilateralSortMerger<V2> sorter2 = new UnilateralSortMerger<V2>(this.memManager, this.ioManager,
+				in2, this.ownerTask, this.serializerFactory2, this.comparator2.duplicate(),
+				this.sorterFraction, this.maxNumFileHandles, this.spillingThreshold, this.objectReuseEnabled);
+		this.sorters.add(sorter2);
+
+		final TypeSerializer<V1> serializer1 = this.serializerFactory1.getSerializer();
+		final TypeSerializer<V2> serializer2 = this.serializerFactory2.getSerializer();
+
+		this.delegate = this.objectReuseEnabled ?
+			new ReusingMergeInnerJoinIterator<V1, V2, O>(sorter1.getIterator(), sorter2.getIterator(),
+					serializer1, this.comparator1, serializer2, this.comparator2,
+					this.pairComparatorFactory.createComparator12(this.comparator1, this.comparator2),
+					this.memManager, this.ioManager, this.numMergePages, this.ownerTask) :
+			new NonReusingMergeInnerJoinIterator<V1, V2, O>(sorter1.getIterator(), sorter2.getIterator(),
+					serializer1, this.comparator1, serializer2, this.comparator2,
+					this.pairComparatorFactory.createComparator12(this.comparator1, this.comparator2),
+					this.memManager, this.ioManager, this.numMergePages, this.ownerTask);
+		this.delegate.open();
+	}
+
+	/**
+	 * Reads the records of the given input ahead, until the input is exhausted or the read records
+	 * exceed the given number of bytes. The records are kept in at most the given number of memory
+	 * pages, and are moved to a spill file once they do not fit into these any more.
+	 */
+	private <T> ReadAheadInput<T> readAhead(MutableObjectIterator<T> input, TypeSerializer<T> serializer,
+			long maxBytes, int maxBufferPages) throws IOException, MemoryAllocationException
+	{
+		final int pageSize = this.memManager.getPageSize();
+		T record = serializer.createInstance();
+
+		ArrayList<MemorySegment> buffer = null;
+		long bufferedBytes = 0;
+
+		if (maxBufferPages > 0) {
+			final List<MemorySegment> freePages = this.memManager.allocatePages(this.ownerTask, maxBufferPages);
+			buffer = new ArrayList<MemorySegment>(maxBufferPages);
+			final SimpleCollectingOutputView bufferView =
+					new SimpleCollectingOutputView(buffer, new ListMemorySegmentSource(freePages), pageSize);
+
+			boolean complete = false;
+			boolean full = false;
+			try {
+				while (this.running) {
+					if ((record = input.next(record)) == null) {
+						complete = true;
+						break;
+					}
+					bufferedBytes = bufferView.getCurrentOffset();
+					try {
+						serializer.serialize(record, bufferView);
+					}
+					catch (EOFException e) {
+						// the buffer holds the records before the current one, which is written again below
+						full = true;
+						break;
+					}
+				}
+				if (!full) {
+					bufferedBytes = bufferView.getCurrentOffset();
+				}
+			}
+			catch (IOException e) {
+				this.memManager.release(buffer);
+				throw e;
+			}
+			finally {
+				this.memManager.release(freePages);
+			}
+
+			if (!full) {
+				final int limitInLastPage = (int) (bufferedBytes - (buffer.size() - 1) * (long) pageSize);
+				final ReadAheadInput<T> buffered = new ReadAheadInput<T>(buffer, limitInLastPage, complete, input, serializer);
+				this.readAheadInputs.add(buffered);
+
+				if (LOG.isDebugEnabled()) {
+					LOG.debug("Read " + (complete ? "complete input" : "input prefix") + " of " + bufferedBytes +
+							" bytes into memory ahead of choosing the join strategy.");
+				}
+				return buffered;
+			}
+		}
+
+		final FileIOChannel.ID channel = this.ioManager.createChannel();
+		final BlockChannelWriter<MemorySegment> writer = this.ioManager.createBlockChannelWriter(channel);
+
+		final List<MemorySegment> writeMemory = new ArrayList<MemorySegment>(this.ioMemory.subList(0, 2));
+		final ChannelWriterOutputView out = new ChannelWriterOutputView(writer, writeMemory, pageSize);
+
+		boolean complete = false;
+		try {
+			if (buffer != null) {
+				// move the records of the full buffer and the one that did not fit into the spill file
+				out.write(new RandomAccessInputView(buffer, pageSize), (int) bufferedBytes);
+				serializer.serialize(record, out);
+			}
+
+			while (this.running && out.getBytesWritten() <= maxBytes) {
+				if ((record = input.next(record)) == null) {
+					complete = true;
+					break;
+				}
+				serializer.serialize(record, out);
+			}
+			out.close();
+		}
+		catch (IOException e) {
+			writer.closeAndDelete();
+			throw e;
+		}
+		finally {
+			if (buffer != null) {
+				this.memManager.release(buffer);
+			}
+		}
+
+		final ReadAheadInput<T> spilled = new ReadAheadInput<T>(channel, out.getBlockCount(), complete, input, serializer);
+		this.readAheadInputs.add(spilled);
+
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("Read " + (complete ? "complete input" : "input prefix") + " of " + out.getBytesWritten() +
+					" bytes into a spill file ahead of choosing the join strategy.");
+		}
+		return spilled;
+	}
+
+	// --------------------------------------------------------------------------------------------
+
+	/**
+	 * An input, whose first records have been read into memory pages or into a spill file.
+	 */
+	private final class ReadAheadInput<T> {
+
+		private final ArrayList<MemorySegment> buffer;
+
+		private final int limitInLastPage;
+
+		private final FileIOChannel.ID channel;
+
+		private final int numBlocks;
+
+		private final boolean complete;
+
+		private final MutableObjectIterator<T> remainder;
+
+		private final TypeSerializer<T> serializer;
+
+		private BlockChannelReader<MemorySegment> reader;
+
+		private ChannelReaderInputView inView;
+
+		ReadAheadInput(ArrayList<MemorySegment> buffer, int limitInLastPage, boolean complete,
+				MutableObjectIterator<T> remainder, TypeSerializer<T> serializer)
+		{
+			this(buffer, limitInLastPage, null, 0, complete, remainder, serializer);
+		}
+
+		ReadAheadInput(FileIOChannel.ID channel, int numBlocks, boolean complete,
+				MutableObjectIterator<T> remainder, TypeSerializer<T> serializer)
+		{
+			this(null, 0, channel, numBlocks, complete, remainder, serializer);
+		}
+
+		private ReadAheadInput(ArrayList<MemorySegment> buffer, int limitInLastPage, FileIOChannel.ID channel,
+				int numBlocks, boolean complete, MutableObjectIterator<T> remainder, TypeSerializer<T> serializer)
+		{
+			this.buffer = buffer;
+			this.limitInLastPage = limitInLastPage;
+			this.channel = channel;
+			this.numBlocks = numBlocks;
+			this.complete = complete;
+			this.remainder = remainder;
+			this.serializer = serializer;
+		}
+
+		/**
+		 * Checks whether the read records are all records of the input.
+		 */
+		boolean isComplete() {
+			return complete;
+		}
+
+		/**
+		 * Gets the number of memory pages that hold the read records, which is zero, if they have
+		 * been spilled.
+		 */
+		int getNumBufferPages() {
+			return buffer == null ? 0 : buffer.size();
+		}
+
+		/**
+		 * Gets an iterator, which replays the read records and continues with the records of the
+		 * input, which have not been read yet.
+		 */
+		MutableObjectIterator<T> getIterator() throws IOException {
+			final MutableObjectIterator<T> replay;
+			if (buffer != null) {
+				final RandomAccessInputView bufferView = new RandomAccessInputView(buffer, memManager.getPageSize(), limitInLastPage);
+				replay = new InputViewIterator<T>(bufferView, serializer);
+			}
+			else {
+				final List<MemorySegment> readMemory = new ArrayList<MemorySegment>(2);
+				for (int i = 0; i < 2; i++) {
+					readMemory.add(ioMemory.get(2 * readAheadInputs.indexOf(this) + i));
+				}
+
+				this.reader = ioManager.createBlockChannelReader(channel);
+				this.inView = new ChannelReaderInputView(reader, readMemory, numBlocks, false);
+				replay = new ChannelReaderInputViewIterator<T>(inView, null, serializer);
+			}
+			return new ConcatenatingIterator<T>(replay, complete ? null : remainder);
+		}
+
+		/**
+		 * Releases the memory pages, or closes and deletes the spill file.
+		 */
+		void close() throws IOException {
+			if (buffer != null) {
+				memManager.release(buffer);
+			}
+			else if (reader != null) {
+				if (!inView.isClosed()) {
+					inView.close();
+				}
+				reader.closeAndDelete();
+			}
+			else {
+				ioManager.deleteChannel(channel);
+			}
+		}
+	}
+
+	/**
+	 * An iterator that returns the records of a first iterator and then those of an optional second
+	 * one. Once exhausted, the iterator does not touch the underlying iterators any more.
+	 */
+	private static final class ConcatenatingIterator<T> implements MutableObjectIterator<T> {
+
+		private MutableObjectIterator<T> current;
+
+		private MutableObjectIterator<T> next;
+
+		ConcatenatingIterator(MutableObjectIterator<T> first, MutableObjectIterator<T> second) {
+			this.current = first;
+			this.next = second;
+		}
+
+		@Override
+		public T next(T reuse) throws IOException {
+			while (current != null) {
+				T record = current.next(reuse);
+				if (record != null) {
+					return record;
+				}
+				current = next;
+				next = null;
+			}
+			return null;
+		}
+
+		@Override
+		public T next() throws IOException {
+			while (current != null) {
+				T record = current.next();
+				if (record != null) {
+					return record;
+				}
+				current = next;
+				next = null;
+			}
+			return null;
+		}
+	}
+}
@@ -317,6 +317,7 @@ public class CompactingHashTable<T> extends AbstractMutableHashTable<T> {
 	//  adding data to the hash table
 	// ------------------------------------------------------------------------
 	
+	@Override
 	public void buildTableWithUniqueKey(final MutableObjectIterator<T> input) throws IOException {
 		// go over the complete input and insert every element into the hash table
 		
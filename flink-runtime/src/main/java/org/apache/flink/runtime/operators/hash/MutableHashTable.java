@@ -99,7 +99,7 @@ public class MutableHashTable<BT, PT> implements MemorySegmentSource {
 	/**
 	 * The minimum number of memory segments the hash join needs to be supplied with in order to work.
 	 */
-	private static final int MIN_NUM_MEMORY_SEGMENTS = 33;
+	static final int MIN_NUM_MEMORY_SEGMENTS = 33;
 	
 	/**
 	 * The maximum number of partitions, which defines the spilling granularity. Each recursion, the
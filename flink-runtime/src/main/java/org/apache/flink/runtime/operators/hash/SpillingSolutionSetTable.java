@@ -0,0 +1,1157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.operators.hash;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.flink.api.common.typeutils.TypeComparator;
+import org.apache.flink.api.common.typeutils.TypePairComparator;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.runtime.io.disk.RandomAccessInputView;
+import org.apache.flink.runtime.io.disk.iomanager.BlockChannelReader;
+import org.apache.flink.runtime.io.disk.iomanager.BlockChannelWriter;
+import org.apache.flink.runtime.io.disk.iomanager.ChannelReaderInputView;
+import org.apache.flink.runtime.io.disk.iomanager.ChannelWriterOutputView;
+import org.apache.flink.runtime.io.disk.iomanager.IOManager;
+import org.apache.flink.runtime.memory.AbstractPagedOutputView;
+import org.apache.flink.runtime.util.MathUtils;
+import org.apache.flink.util.MutableObjectIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A hash table for the solution set of delta iterations, which spills partitions to disk, if the
+ * solution set does not fit into the given memory.
+ *
+ * <p> Like in the {@link MutableHashTable}, the records are divided into partitions by their hash
+ * code. A partition is either held in memory, where it consists of data pages, to which the records
+ * are appended, and an open addressing index pointing into these pages, or it is spilled to a file.
+ * When the memory runs out, the largest partition, which is not currently probed, is spilled. A
+ * spilled partition keeps a single write buffer, through which inserted and updated records are
+ * appended to its file. It is read back into memory when it is probed, with later versions of a
+ * record replacing the earlier ones.
+ *
+ * <p> Updated records are appended to the data pages as well, leaving their earlier versions behind.
+ * Similar to the {@link CompactingHashTable}, a partition is compacted to the records its index
+ * points to, once the outdated versions make up half of its records and memory is needed, and
+ * before it is spilled.
+ *
+ * <p> Probing the records one by one would load a spilled partition for every record, which hits
+ * it. The probe side input should therefore be wrapped by
+ * {@link #getProbeIterator(MutableObjectIterator, TypeComparator, TypeSerializer)}, which defers the
+ * records for spilled partitions to disk until the input is exhausted and then returns them
+ * partition by partition.
+ *
+ * <p> The table is shared by the tasks probing and updating the solution set, which may run in
+ * different threads. All accesses to it are hence synchronized on the table.
+ */
+public class SpillingSolutionSetTable<T> extends AbstractMutableHashTable<T> {
+
+	private static final Logger LOG = LoggerFactory.getLogger(SpillingSolutionSetTable.class);
+
+	/** The minimum number of memory segments the table needs to be supplied with. */
+	private static final int MIN_NUM_MEMORY_SEGMENTS = 33;
+
+	/** The maximum number of partitions. */
+	private static final int MAX_NUM_PARTITIONS = 128;
+
+	/**
+	 * The size of an index slot in bits. A slot holds the hash code of the record (4 bytes, followed by
+	 * 4 bytes padding) and its pointer into the data pages plus one (8 bytes), where zero marks an empty slot.
+	 */
+	private static final int SLOT_SIZE_BITS = 4;
+
+	private static final int SLOT_POINTER_OFFSET = 8;
+
+	// ------------------------------------------------------------------------
+
+	/** The free memory segments. */
+	private final ArrayList<MemorySegment> availableMemory;
+
+	/** The I/O manager used to spill the partitions. */
+	private final IOManager ioManager;
+
+	private final int segmentSize;
+
+	private final int segmentSizeBits;
+
+	private final int segmentSizeMask;
+
+	private final int slotsPerSegmentBits;
+
+	private final int slotsPerSegmentMask;
+
+	/** The open probe iterators, whose resources are released when the table is closed. */
+	private final List<DeferringProbeIterator<?>> openProbeIterators = new ArrayList<DeferringProbeIterator<?>>();
+
+	private Partition[] partitions;
+
+	/** The shift to get the partition number from the (non-negative) hash code. */
+	private int partitionShift;
+
+	/** Instance to deserialize the candidates into, when inserting records. */
+	private T candidate;
+
+	/** Instance to deserialize the records of spilled partitions into, when loading them. */
+	private T loadRecord;
+
+	/** Instance to deserialize the records into, when compacting a partition. */
+	private T compactionRecord;
+
+	private volatile boolean running = true;
+
+	private boolean closed = true;
+
+	public SpillingSolutionSetTable(
+			TypeSerializer<T> buildSideSerializer,
+			TypeComparator<T> buildSideComparator,
+			List<MemorySegment> memorySegments,
+			IOManager ioManager) {
+
+		super(buildSideSerializer, buildSideComparator);
+
+		checkNotNull(memorySegments);
+		checkArgument(memorySegments.size() >= MIN_NUM_MEMORY_SEGMENTS,
+				"Too few memory segments provided. Hash table needs at least " + MIN_NUM_MEMORY_SEGMENTS + " memory segments.");
+
+		this.ioManager = checkNotNull(ioManager);
+		this.availableMemory = new ArrayList<MemorySegment>(memorySegments);
+
+		this.segmentSize = memorySegments.get(0).size();
+		this.segmentSizeBits = MathUtils.log2strict(this.segmentSize);
+		this.segmentSizeMask = this.segmentSize - 1;
+		checkArgument(this.segmentSize >= (1 << SLOT_SIZE_BITS), "Memory segments are too small.");
+
+		this.slotsPerSegmentBits = this.segmentSizeBits - SLOT_SIZE_BITS;
+		this.slotsPerSegmentMask = (1 << this.slotsPerSegmentBits) - 1;
+	}
+
+	// ------------------------------------------------------------------------
+	//  Life-cycle
+	// ------------------------------------------------------------------------
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public synchronized void open() {
+		if (!closed) {
+			throw new IllegalStateException("currently not closed.");
+		}
+		closed = false;
+
+		final int numPartitions = Math.min(MAX_NUM_PARTITIONS, Integer.highestOneBit(availableMemory.size() / 4));
+		this.partitionShift = 31 - MathUtils.log2strict(numPartitions);
+
+		this.partitions = new SpillingSolutionSetTable.Partition[numPartitions];
+		for (int i = 0; i < numPartitions; i++) {
+			this.partitions[i] = new Partition(availableMemory.remove(availableMemory.size() - 1),
+					availableMemory.remove(availableMemory.size() - 1));
+		}
+
+		this.candidate = buildSideSerializer.createInstance();
+		this.loadRecord = buildSideSerializer.createInstance();
+		this.compactionRecord = buildSideSerializer.createInstance();
+	}
+
+	@Override
+	public synchronized void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+
+		LOG.debug("Closing solution set hash table and releasing resources.");
+
+		for (DeferringProbeIterator<?> iterator : new ArrayList<DeferringProbeIterator<?>>(openProbeIterators)) {
+			iterator.releaseResources();
+		}
+
+		for (Partition partition : partitions) {
+			partition.releaseResources();
+		}
+		partitions = null;
+	}
+
+	@Override
+	public void abort() {
+		this.running = false;
+		LOG.debug("Cancelling solution set hash table operations.");
+	}
+
+	@Override
+	public synchronized List<MemorySegment> getFreeMemory() {
+		if (!closed) {
+			throw new IllegalStateException("Cannot return memory while the hash table is open.");
+		}
+		return availableMemory;
+	}
+
+	// ------------------------------------------------------------------------
+	//  Modifiers
+	// ------------------------------------------------------------------------
+
+	@Override
+	public void buildTableWithUniqueKey(MutableObjectIterator<T> input) throws IOException {
+		T record = buildSideSerializer.createInstance();
+
+		while (running && (record = input.next(record)) != null) {
+			insertOrReplaceRecord(record);
+		}
+	}
+
+	/**
+	 * Inserts the given record. As the table has to look up the record anyways, in case its partition
+	 * is spilled, this is the same as {@link #insertOrReplaceRecord(Object)}.
+	 */
+	@Override
+	public void insert(T record) throws IOException {
+		insertOrReplaceRecord(record);
+	}
+
+	@Override
+	public synchronized void insertOrReplaceRecord(T record) throws IOException {
+		if (closed) {
+			return;
+		}
+
+		final int hashCode = hash(buildSideComparator.hash(record));
+		final Partition partition = partitions[hashCode >>> partitionShift];
+
+		if (partition.isInMemory()) {
+			if (partition.insertOrReplace(record, hashCode)) {
+				return;
+			}
+
+			// no other partition could be spilled to make room for the record
+			partition.spill();
+		}
+
+		partition.appendToSpillFile(record);
+	}
+
+	// ------------------------------------------------------------------------
+	//  Accessors
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Returns an iterator over all records of the table. Spilled partitions are read back into memory
+	 * one after the other.
+	 */
+	@Override
+	public MutableObjectIterator<T> getEntryIterator() {
+		return new EntryIterator();
+	}
+
+	@Override
+	public <PT> ProbeSideProber<PT> getProber(TypeComparator<PT> probeSideComparator, TypePairComparator<PT, T> pairComparator) {
+		return new ProbeSideProber<PT>(probeSideComparator, pairComparator);
+	}
+
+	/**
+	 * Wraps the probe side input, such that records hitting spilled partitions are returned only after
+	 * all other records, grouped by partition, and each partition is brought into memory once.
+	 *
+	 * <p> Consecutive records with equal keys are kept together, so the order of key groups of a
+	 * grouped input is preserved.
+	 *
+	 * @param input The probe side input.
+	 * @param probeSideComparator The comparator for the probe side records.
+	 * @param probeSideSerializer The serializer for the probe side records.
+	 */
+	public <PT> MutableObjectIterator<PT> getProbeIterator(
+			MutableObjectIterator<PT> input,
+			TypeComparator<PT> probeSideComparator,
+			TypeSerializer<PT> probeSideSerializer) {
+
+		DeferringProbeIterator<PT> iterator = new DeferringProbeIterator<PT>(
+				input, probeSideComparator.duplicate(), probeSideSerializer);
+
+		synchronized (this) {
+			openProbeIterators.add(iterator);
+		}
+
+		return iterator;
+	}
+
+	/**
+	 * Returns the number of partitions, which are currently spilled.
+	 */
+	public synchronized int getNumSpilledPartitions() {
+		int numSpilled = 0;
+		if (partitions != null) {
+			for (Partition partition : partitions) {
+				if (!partition.isInMemory()) {
+					numSpilled++;
+				}
+			}
+		}
+		return numSpilled;
+	}
+
+	/**
+	 * Returns the number of records in the spill files of the spilled partitions, including outdated
+	 * versions of records, which have been updated while the partition was spilled.
+	 */
+	public synchronized long getNumSpilledRecords() {
+		long numRecords = 0;
+		if (partitions != null) {
+			for (Partition partition : partitions) {
+				if (!partition.isInMemory()) {
+					numRecords += partition.numSpilled;
+				}
+			}
+		}
+		return numRecords;
+	}
+
+	// ------------------------------------------------------------------------
+	//  Memory management
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Gets a free memory segment. If there is none, the in-memory partitions other than the requesting
+	 * one, which consist mostly of outdated records, are compacted. If that does not free a segment,
+	 * the largest in-memory partition, which is neither the requesting one nor pinned, is spilled.
+	 *
+	 * @param requester The partition requesting the memory, or null.
+	 * @return A free memory segment or null, if no partition could be spilled.
+	 */
+	private MemorySegment nextFreeSegment(Partition requester) throws IOException {
+		if (availableMemory.isEmpty()) {
+			for (Partition partition : partitions) {
+				if (partition != requester && partition.isInMemory() && partition.hasMostlyOutdatedRecords()) {
+					partition.compact();
+					if (!availableMemory.isEmpty()) {
+						return availableMemory.remove(availableMemory.size() - 1);
+					}
+				}
+			}
+
+			Partition victim = null;
+			for (Partition partition : partitions) {
+				if (partition != requester && partition.isInMemory() && partition.pinCount == 0 &&
+						(victim == null || partition.getNumSegments() > victim.getNumSegments())) {
+					victim = partition;
+				}
+			}
+
+			if (victim == null) {
+				return null;
+			}
+
+			victim.spill();
+		}
+
+		return availableMemory.remove(availableMemory.size() - 1);
+	}
+
+	private int getPartitionNumber(int hashCode) {
+		return hashCode >>> partitionShift;
+	}
+
+	/**
+	 * The same hash function as in the {@link CompactingHashTable}.
+	 *
+	 * @param code The integer to be hashed.
+	 * @return The non-negative hash code for the integer.
+	 */
+	private static int hash(int code) {
+		code = (code + 0x7ed55d16) + (code << 12);
+		code = (code ^ 0xc761c23c) ^ (code >>> 19);
+		code = (code + 0x165667b1) + (code << 5);
+		code = (code + 0xd3a2646c) ^ (code << 9);
+		code = (code + 0xfd7046c5) + (code << 3);
+		code = (code ^ 0xb55a4f09) ^ (code >>> 16);
+		return code >= 0 ? code : -(code + 1);
+	}
+
+	// ------------------------------------------------------------------------
+	//  Partitions
+	// ------------------------------------------------------------------------
+
+	/**
+	 * A partition of the table, which is either in memory or spilled.
+	 */
+	private final class Partition {
+
+		/** The data pages, if the partition is in memory. */
+		private final ArrayList<MemorySegment> pages = new ArrayList<MemorySegment>();
+
+		private PageWriteView writeView;
+
+		private RandomAccessInputView readView;
+
+		/** The number of records appended to the data pages, including outdated versions. */
+		private long numAppended;
+
+		/** The index segments, if the partition is in memory. */
+		private MemorySegment[] index;
+
+		private int slotMask;
+
+		private int numEntries;
+
+		private int growthThreshold;
+
+		/** The writer to the spill file, if the partition is spilled. */
+		private BlockChannelWriter<MemorySegment> spillWriter;
+
+		private ChannelWriterOutputView spillView;
+
+		/** The number of records in the spill file, including outdated versions. */
+		private long numSpilled;
+
+		/** The number of probe iterators, which are currently replaying records for this partition. */
+		private int pinCount;
+
+		Partition(MemorySegment indexSegment, MemorySegment firstPage) {
+			initInMemory(indexSegment, firstPage);
+		}
+
+		boolean isInMemory() {
+			return index != null;
+		}
+
+		int getNumSegments() {
+			return index == null ? 1 : index.length + pages.size();
+		}
+
+		private void initInMemory(MemorySegment indexSegment, MemorySegment firstPage) {
+			clearIndexSegment(indexSegment);
+			index = new MemorySegment[] { indexSegment };
+			slotMask = (1 << slotsPerSegmentBits) - 1;
+			numEntries = 0;
+			growthThreshold = (slotMask + 1) / 4 * 3;
+
+			pages.add(firstPage);
+			writeView = new PageWriteView(firstPage);
+			readView = new RandomAccessInputView(pages, segmentSize);
+			numAppended = 0;
+		}
+
+		// --------------------------------------------------------------------
+
+		/**
+		 * Inserts the record into the in-memory partition or replaces the record with the same key.
+		 *
+		 * @return False, if the memory is exhausted and no other partition could be spilled.
+		 */
+		boolean insertOrReplace(T record, int hashCode) throws IOException {
+			if (numEntries >= growthThreshold && !growIndex()) {
+				return false;
+			}
+
+			final int slot = findSlot(record, hashCode);
+
+			long pointer;
+			try {
+				pointer = writeView.append(record);
+			}
+			catch (EOFException e) {
+				if (!hasMostlyOutdatedRecords()) {
+					return false;
+				}
+
+				// the slot stays valid, as the compaction only moves the records
+				compact();
+				try {
+					pointer = writeView.append(record);
+				}
+				catch (EOFException ee) {
+					return false;
+				}
+			}
+
+			final MemorySegment segment = index[slot >>> slotsPerSegmentBits];
+			final int offset = (slot & slotsPerSegmentMask) << SLOT_SIZE_BITS;
+
+			if (segment.getLong(offset + SLOT_POINTER_OFFSET) == 0) {
+				numEntries++;
+			}
+			segment.putInt(offset, hashCode);
+			segment.putLong(offset + SLOT_POINTER_OFFSET, pointer + 1);
+			return true;
+		}
+
+		/**
+		 * Finds the slot of the record with the same key as the given one, or the empty slot, where
+		 * it is to be inserted.
+		 */
+		private int findSlot(T record, int hashCode) throws IOException {
+			buildSideComparator.setReference(record);
+
+			int slot = hashCode & slotMask;
+			while (true) {
+				final MemorySegment segment = index[slot >>> slotsPerSegmentBits];
+				final int offset = (slot & slotsPerSegmentMask) << SLOT_SIZE_BITS;
+				final long pointer = segment.getLong(offset + SLOT_POINTER_OFFSET);
+
+				if (pointer == 0) {
+					return slot;
+				}
+
+				if (segment.getInt(offset) == hashCode) {
+					candidate = readRecordAt(pointer - 1, candidate);
+					if (buildSideComparator.equalToReference(candidate)) {
+						return slot;
+					}
+				}
+
+				slot = (slot + 1) & slotMask;
+			}
+		}
+
+		/**
+		 * Looks up the record matching the probe side record, which the pair comparator has been
+		 * set up with.
+		 */
+		<PT> T lookup(TypePairComparator<PT, T> pairComparator, int hashCode, T reuse) throws IOException {
+			int slot = hashCode & slotMask;
+			while (true) {
+				final MemorySegment segment = index[slot >>> slotsPerSegmentBits];
+				final int offset = (slot & slotsPerSegmentMask) << SLOT_SIZE_BITS;
+				final long pointer = segment.getLong(offset + SLOT_POINTER_OFFSET);
+
+				if (pointer == 0) {
+					return null;
+				}
+
+				if (segment.getInt(offset) == hashCode) {
+					T record = readRecordAt(pointer - 1, reuse);
+					if (pairComparator.equalToReference(record)) {
+						return record;
+					}
+				}
+
+				slot = (slot + 1) & slotMask;
+			}
+		}
+
+		T readRecordAt(long pointer, T reuse) throws IOException {
+			readView.setReadPosition(pointer);
+			return reuse == null ? buildSideSerializer.deserialize(readView) : buildSideSerializer.deserialize(reuse, readView);
+		}
+
+		/**
+		 * Doubles the number of index slots.
+		 *
+		 * @return False, if the memory for the new index could not be allocated.
+		 */
+		private boolean growIndex() throws IOException {
+			final MemorySegment[] newIndex = new MemorySegment[index.length * 2];
+			for (int i = 0; i < newIndex.length; i++) {
+				final MemorySegment segment = nextFreeSegment(this);
+				if (segment == null) {
+					for (int k = 0; k < i; k++) {
+						availableMemory.add(newIndex[k]);
+					}
+					return false;
+				}
+				clearIndexSegment(segment);
+				newIndex[i] = segment;
+			}
+
+			final int newSlotMask = (newIndex.length << slotsPerSegmentBits) - 1;
+			final int slotsPerSegment = 1 << slotsPerSegmentBits;
+
+			for (MemorySegment segment : index) {
+				for (int i = 0; i < slotsPerSegment; i++) {
+					final int offset = i << SLOT_SIZE_BITS;
+					final long pointer = segment.getLong(offset + SLOT_POINTER_OFFSET);
+
+					if (pointer != 0) {
+						final int hashCode = segment.getInt(offset);
+
+						int slot = hashCode & newSlotMask;
+						while (newIndex[slot >>> slotsPerSegmentBits].getLong(
+								((slot & slotsPerSegmentMask) << SLOT_SIZE_BITS) + SLOT_POINTER_OFFSET) != 0) {
+							slot = (slot + 1) & newSlotMask;
+						}
+
+						final MemorySegment target = newIndex[slot >>> slotsPerSegmentBits];
+						final int targetOffset = (slot & slotsPerSegmentMask) << SLOT_SIZE_BITS;
+						target.putInt(targetOffset, hashCode);
+						target.putLong(targetOffset + SLOT_POINTER_OFFSET, pointer);
+					}
+				}
+				availableMemory.add(segment);
+			}
+
+			index = newIndex;
+			slotMask = newSlotMask;
+			growthThreshold = (newSlotMask + 1) / 4 * 3;
+			return true;
+		}
+
+		/**
+		 * Checks whether at least half of the records in the data pages are outdated versions.
+		 */
+		boolean hasMostlyOutdatedRecords() {
+			return numAppended > numEntries && numAppended >= 2 * (long) numEntries;
+		}
+
+		/**
+		 * Moves the records, which the index points to, to the beginning of the data pages and releases
+		 * the pages, which are not needed anymore. The records are moved in the order they were
+		 * appended, so a record is never written behind the position it is read from.
+		 */
+		void compact() throws IOException {
+			LOG.debug("Compacting solution set partition with {} records, of which {} are outdated.",
+					numAppended, numAppended - numEntries);
+
+			final long numRecords = numAppended;
+			numAppended = 0;
+			readView.setReadPosition(0);
+			writeView.resetTo(0);
+
+			for (long i = 0; i < numRecords; i++) {
+				final long pointer = readView.getReadPosition();
+				compactionRecord = buildSideSerializer.deserialize(compactionRecord, readView);
+
+				final int slot = findSlotPointingTo(pointer, hash(buildSideComparator.hash(compactionRecord)));
+				if (slot >= 0) {
+					final long newPointer = writeView.append(compactionRecord);
+					index[slot >>> slotsPerSegmentBits].putLong(
+							((slot & slotsPerSegmentMask) << SLOT_SIZE_BITS) + SLOT_POINTER_OFFSET, newPointer + 1);
+				}
+			}
+
+			while (pages.size() > writeView.currentPageIndex + 1) {
+				availableMemory.add(pages.remove(pages.size() - 1));
+			}
+		}
+
+		/**
+		 * Finds the slot pointing to the record at the given position, or returns -1, if the record
+		 * is an outdated version.
+		 */
+		private int findSlotPointingTo(long pointer, int hashCode) {
+			int slot = hashCode & slotMask;
+			while (true) {
+				final long slotPointer = index[slot >>> slotsPerSegmentBits].getLong(
+						((slot & slotsPerSegmentMask) << SLOT_SIZE_BITS) + SLOT_POINTER_OFFSET);
+
+				if (slotPointer == 0) {
+					return -1;
+				}
+				if (slotPointer == pointer + 1) {
+					return slot;
+				}
+
+				slot = (slot + 1) & slotMask;
+			}
+		}
+
+		private void clearIndexSegment(MemorySegment segment) {
+			for (int offset = 0; offset < segmentSize; offset += (1 << SLOT_SIZE_BITS)) {
+				segment.putLong(offset + SLOT_POINTER_OFFSET, 0);
+			}
+		}
+
+		// --------------------------------------------------------------------
+
+		/**
+		 * Writes the records of the partition to a new spill file and releases all memory but one
+		 * segment, which is kept as the write buffer of the file. The partition is compacted before,
+		 * so that no outdated records are written.
+		 */
+		void spill() throws IOException {
+			LOG.debug("Spilling solution set partition with {} records.", numEntries);
+
+			if (numAppended > numEntries) {
+				compact();
+			}
+
+			final MemorySegment writeBuffer = index[0];
+			for (int i = 1; i < index.length; i++) {
+				availableMemory.add(index[i]);
+			}
+			index = null;
+
+			final List<MemorySegment> buffer = new ArrayList<MemorySegment>(1);
+			buffer.add(writeBuffer);
+
+			spillWriter = ioManager.createBlockChannelWriter(ioManager.createChannel());
+			spillView = new ChannelWriterOutputView(spillWriter, buffer, segmentSize);
+
+			readView.setReadPosition(0);
+			for (long i = 0; i < numAppended; i++) {
+				buildSideSerializer.copy(readView, spillView);
+			}
+			numSpilled = numAppended;
+
+			availableMemory.addAll(pages);
+			pages.clear();
+			writeView = null;
+			readView = null;
+			numAppended = 0;
+		}
+
+		void appendToSpillFile(T record) throws IOException {
+			buildSideSerializer.serialize(record, spillView);
+			numSpilled++;
+		}
+
+		/**
+		 * Reads the spill file back into memory and deletes it.
+		 */
+		void load() throws IOException {
+			LOG.debug("Loading spilled solution set partition with {} records.", numSpilled);
+
+			final List<MemorySegment> buffer = spillView.close();
+			final BlockChannelReader<MemorySegment> reader = ioManager.createBlockChannelReader(spillWriter.getChannelID());
+			final ChannelReaderInputView in = new ChannelReaderInputView(reader, buffer, spillView.getBlockCount(), false);
+
+			final long numRecords = numSpilled;
+			spillWriter = null;
+			spillView = null;
+			numSpilled = 0;
+
+			try {
+				final MemorySegment indexSegment = nextFreeSegment(this);
+				final MemorySegment firstPage = indexSegment == null ? null : nextFreeSegment(this);
+				if (firstPage == null) {
+					if (indexSegment != null) {
+						availableMemory.add(indexSegment);
+					}
+					throw new IOException("Not enough memory to load a spilled solution set partition.");
+				}
+
+				initInMemory(indexSegment, firstPage);
+
+				for (long i = 0; i < numRecords; i++) {
+					loadRecord = buildSideSerializer.deserialize(loadRecord, in);
+					if (!insertOrReplace(loadRecord, hash(buildSideComparator.hash(loadRecord)))) {
+						throw new IOException("A partition of the solution set is too large to be held in memory. " +
+								"Please increase the memory for the solution set.");
+					}
+				}
+
+				// drop the versions of the records, which have been updated while the partition was spilled
+				if (hasMostlyOutdatedRecords()) {
+					compact();
+				}
+			}
+			finally {
+				availableMemory.addAll(in.close());
+				reader.deleteChannel();
+			}
+		}
+
+		void releaseResources() {
+			if (isInMemory()) {
+				for (MemorySegment segment : index) {
+					availableMemory.add(segment);
+				}
+				index = null;
+
+				availableMemory.addAll(pages);
+				pages.clear();
+				writeView = null;
+				readView = null;
+			}
+			else if (spillView != null) {
+				try {
+					availableMemory.addAll(spillView.close());
+				}
+				catch (IOException e) {
+					LOG.error("Error closing the spill file of a solution set partition.", e);
+				}
+				finally {
+					spillWriter.deleteChannel();
+					spillWriter = null;
+					spillView = null;
+				}
+			}
+		}
+
+		// --------------------------------------------------------------------
+
+		/**
+		 * Appends records to the data pages. If a record does not fit into the pages anymore, the
+		 * view is set back to the start of the record.
+		 */
+		private final class PageWriteView extends AbstractPagedOutputView {
+
+			private int currentPageIndex;
+
+			PageWriteView(MemorySegment firstPage) {
+				super(firstPage, firstPage.size(), 0);
+			}
+
+			long append(T record) throws IOException {
+				final long pointer = getCurrentPointer();
+				try {
+					buildSideSerializer.serialize(record, this);
+					numAppended++;
+					return pointer;
+				}
+				catch (EOFException e) {
+					resetTo(pointer);
+					throw e;
+				}
+			}
+
+			private long getCurrentPointer() {
+				return (((long) currentPageIndex) << segmentSizeBits) + getCurrentPositionInSegment();
+			}
+
+			private void resetTo(long pointer) {
+				int pageIndex = (int) (pointer >>> segmentSizeBits);
+				int offset = (int) (pointer & segmentSizeMask);
+
+				// a pointer to the beginning of a page is the end of the previous one
+				if (offset == 0 && pageIndex > 0) {
+					pageIndex--;
+					offset = segmentSize;
+				}
+
+				currentPageIndex = pageIndex;
+				seekOutput(pages.get(pageIndex), offset);
+			}
+
+			@Override
+			protected MemorySegment nextSegment(MemorySegment current, int positionInCurrent) throws IOException {
+				final int nextPageIndex = currentPageIndex + 1;
+
+				// pages behind a reset position are reused
+				if (nextPageIndex < pages.size()) {
+					currentPageIndex = nextPageIndex;
+					return pages.get(nextPageIndex);
+				}
+
+				final MemorySegment next = nextFreeSegment(Partition.this);
+				if (next == null) {
+					throw new EOFException();
+				}
+
+				pages.add(next);
+				currentPageIndex = nextPageIndex;
+				return next;
+			}
+		}
+	}
+
+	// ------------------------------------------------------------------------
+	//  Iterators and prober
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Iterates over the partitions and their index slots, loading spilled partitions on the way.
+	 */
+	private final class EntryIterator implements MutableObjectIterator<T> {
+
+		private int partitionNumber;
+
+		private int slot;
+
+		@Override
+		public T next(T reuse) throws IOException {
+			synchronized (SpillingSolutionSetTable.this) {
+				if (closed) {
+					return null;
+				}
+
+				while (partitionNumber < partitions.length) {
+					final Partition partition = partitions[partitionNumber];
+					if (!partition.isInMemory()) {
+						partition.load();
+					}
+
+					while (slot <= partition.slotMask) {
+						final MemorySegment segment = partition.index[slot >>> slotsPerSegmentBits];
+						final long pointer = segment.getLong(((slot & slotsPerSegmentMask) << SLOT_SIZE_BITS) + SLOT_POINTER_OFFSET);
+						slot++;
+
+						if (pointer != 0) {
+							return partition.readRecordAt(pointer - 1, reuse);
+						}
+					}
+
+					partitionNumber++;
+					slot = 0;
+				}
+
+				return null;
+			}
+		}
+
+		@Override
+		public T next() throws IOException {
+			return next(buildSideSerializer.createInstance());
+		}
+	}
+
+	/**
+	 * Probes the table with single records, loading spilled partitions on demand.
+	 */
+	public final class ProbeSideProber<PT> extends AbstractHashTableProber<PT, T> {
+
+		private ProbeSideProber(TypeComparator<PT> probeTypeComparator, TypePairComparator<PT, T> pairComparator) {
+			super(probeTypeComparator, pairComparator);
+		}
+
+		@Override
+		public T getMatchFor(PT probeSideRecord, T reuse) {
+			synchronized (SpillingSolutionSetTable.this) {
+				if (closed) {
+					return null;
+				}
+
+				final int hashCode = hash(probeTypeComparator.hash(probeSideRecord));
+				final Partition partition = partitions[getPartitionNumber(hashCode)];
+
+				try {
+					if (!partition.isInMemory()) {
+						partition.load();
+					}
+
+					pairComparator.setReference(probeSideRecord);
+					return partition.lookup(pairComparator, hashCode, reuse);
+				}
+				catch (IOException e) {
+					throw new RuntimeException("Error probing the solution set: " + e.getMessage(), e);
+				}
+			}
+		}
+
+		@Override
+		public T getMatchFor(PT probeSideRecord) {
+			return getMatchFor(probeSideRecord, null);
+		}
+
+		@Override
+		public void updateMatch(T record) throws IOException {
+			insertOrReplaceRecord(record);
+		}
+	}
+
+	/**
+	 * Passes through the probe side records for in-memory partitions and writes the ones for spilled
+	 * partitions to one file per partition. After the input is exhausted, it brings the partitions
+	 * into memory one by one and returns their deferred records.
+	 */
+	private final class DeferringProbeIterator<PT> implements MutableObjectIterator<PT> {
+
+		private final MutableObjectIterator<PT> input;
+
+		private final TypeComparator<PT> comparator;
+
+		private final TypeSerializer<PT> serializer;
+
+		private final DeferredRecords[] deferred;
+
+		/** Copy of the last record with a new key, which the comparator is set up with. */
+		private PT lastKey;
+
+		private boolean hasLastKey;
+
+		private boolean lastKeyDeferred;
+
+		private boolean inputExhausted;
+
+		/** The partition, whose deferred records are currently returned, or -1. */
+		private int replayPartition = -1;
+
+		@SuppressWarnings("unchecked")
+		DeferringProbeIterator(MutableObjectIterator<PT> input, TypeComparator<PT> comparator, TypeSerializer<PT> serializer) {
+			this.input = checkNotNull(input);
+			this.comparator = checkNotNull(comparator);
+			this.serializer = checkNotNull(serializer);
+			this.deferred = new SpillingSolutionSetTable.DeferredRecords[MAX_NUM_PARTITIONS];
+			this.lastKey = serializer.createInstance();
+		}
+
+		@Override
+		public PT next(PT reuse) throws IOException {
+			if (!inputExhausted) {
+				PT record;
+				while ((record = input.next(reuse)) != null) {
+					if (!deferIfSpilled(record)) {
+						return record;
+					}
+					reuse = record;
+				}
+				inputExhausted = true;
+			}
+			return nextDeferred(reuse);
+		}
+
+		@Override
+		public PT next() throws IOException {
+			return next(serializer.createInstance());
+		}
+
+		/**
+		 * Writes the record to the deferred records of its partition, if the partition is spilled.
+		 * Records with the same key as the previous one follow its decision.
+		 */
+		private boolean deferIfSpilled(PT record) throws IOException {
+			synchronized (SpillingSolutionSetTable.this) {
+				if (closed) {
+					return false;
+				}
+
+				final int partitionNumber = getPartitionNumber(hash(comparator.hash(record)));
+
+				final boolean defer;
+				if (hasLastKey && comparator.equalToReference(record)) {
+					defer = lastKeyDeferred;
+				}
+				else {
+					lastKey = serializer.copy(record, lastKey);
+					comparator.setReference(lastKey);
+					hasLastKey = true;
+
+					defer = !partitions[partitionNumber].isInMemory() && createDeferredRecords(partitionNumber);
+					lastKeyDeferred = defer;
+				}
+
+				if (defer) {
+					serializer.serialize(record, deferred[partitionNumber].view);
+					deferred[partitionNumber].numRecords++;
+				}
+				return defer;
+			}
+		}
+
+		private boolean createDeferredRecords(int partitionNumber) throws IOException {
+			if (deferred[partitionNumber] != null) {
+				return true;
+			}
+
+			final MemorySegment segment = nextFreeSegment(null);
+			if (segment == null) {
+				// the record is probed directly instead
+				return false;
+			}
+
+			deferred[partitionNumber] = new DeferredRecords(segment);
+			return true;
+		}
+
+		private PT nextDeferred(PT reuse) throws IOException {
+			synchronized (SpillingSolutionSetTable.this) {
+				while (!closed) {
+					if (replayPartition >= 0) {
+						final DeferredRecords records = deferred[replayPartition];
+						if (records.numRecords > 0) {
+							records.numRecords--;
+							return serializer.deserialize(reuse, records.replayView);
+						}
+
+						records.release();
+						deferred[replayPartition] = null;
+						partitions[replayPartition].pinCount--;
+					}
+
+					if (!startNextReplay()) {
+						openProbeIterators.remove(this);
+						return null;
+					}
+				}
+				return null;
+			}
+		}
+
+		private boolean startNextReplay() throws IOException {
+			for (int i = replayPartition + 1; i < deferred.length; i++) {
+				if (deferred[i] != null) {
+					replayPartition = i;
+
+					final Partition partition = partitions[i];
+					partition.pinCount++;
+					if (!partition.isInMemory()) {
+						partition.load();
+					}
+
+					deferred[i].startReplay();
+					return true;
+				}
+			}
+
+			replayPartition = deferred.length;
+			return false;
+		}
+
+		void releaseResources() {
+			for (int i = 0; i < deferred.length; i++) {
+				if (deferred[i] != null) {
+					deferred[i].release();
+					deferred[i] = null;
+				}
+			}
+			openProbeIterators.remove(this);
+		}
+	}
+
+	/**
+	 * The deferred probe side records of a spilled partition, written through a single buffer.
+	 */
+	private final class DeferredRecords {
+
+		private final BlockChannelWriter<MemorySegment> writer;
+
+		private ChannelWriterOutputView view;
+
+		private BlockChannelReader<MemorySegment> reader;
+
+		private ChannelReaderInputView replayView;
+
+		private long numRecords;
+
+		DeferredRecords(MemorySegment buffer) throws IOException {
+			final List<MemorySegment> memory = new ArrayList<MemorySegment>(1);
+			memory.add(buffer);
+
+			this.writer = ioManager.createBlockChannelWriter(ioManager.createChannel());
+			this.view = new ChannelWriterOutputView(writer, memory, segmentSize);
+		}
+
+		void startReplay() throws IOException {
+			final List<MemorySegment> memory = view.close();
+			reader = ioManager.createBlockChannelReader(writer.getChannelID());
+			replayView = new ChannelReaderInputView(reader, memory, view.getBlockCount(), false);
+			view = null;
+		}
+
+		void release() {
+			try {
+				if (view != null) {
+					availableMemory.addAll(view.close());
+				}
+				else {
+					availableMemory.addAll(replayView.close());
+				}
+			}
+			catch (IOException e) {
+				LOG.error("Error closing the deferred probe side records of a solution set partition.", e);
+			}
+			finally {
+				writer.deleteChannel();
+			}
+		}
+	}
+}
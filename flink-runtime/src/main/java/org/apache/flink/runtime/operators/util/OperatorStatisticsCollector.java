@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.operators.util;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.apache.flink.api.common.accumulators.Accumulator;
+import org.apache.flink.api.common.accumulators.LongCounter;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.runtime.util.DataOutputSerializer;
+import org.apache.flink.util.Collector;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A collector that records the number of records emitted by an operator and samples their
+ * serialized width, before forwarding them to the actual output collector.
+ *
+ * <p> The statistics are reported through accumulators, whose names are derived from the
+ * statistics key of the operator (see {@link #getAccumulatorName(String, String)}). The client
+ * picks them up from the job's accumulator results and feeds them back into the optimizer.
+ */
+public class OperatorStatisticsCollector<T> implements Collector<T> {
+
+	/** The prefix of the names of all accumulators, which hold operator statistics. */
+	public static final String ACCUMULATOR_PREFIX = "__operator-stats.";
+
+	/** The accumulator suffix for the total number of records. */
+	public static final String NUM_RECORDS = "records";
+
+	/** The accumulator suffix for the number of records, whose width has been sampled. */
+	public static final String NUM_SAMPLED_RECORDS = "sampled-records";
+
+	/** The accumulator suffix for the accumulated width of the sampled records. */
+	public static final String NUM_SAMPLED_BYTES = "sampled-bytes";
+
+	/** Every n-th record is serialized to determine its width. */
+	private static final int SAMPLING_INTERVAL = 128;
+
+	private final Collector<T> delegate;
+
+	private final TypeSerializer<T> serializer;
+
+	private final DataOutputSerializer sampleBuffer = new DataOutputSerializer(64);
+
+	private final LongCounter numRecords = new LongCounter();
+
+	private final LongCounter numSampledRecords = new LongCounter();
+
+	private final LongCounter numSampledBytes = new LongCounter();
+
+	private int countdown;
+
+	public OperatorStatisticsCollector(Collector<T> delegate, TypeSerializer<T> serializer, String key,
+			Map<String, Accumulator<?, ?>> accumulatorMap)
+	{
+		this.delegate = checkNotNull(delegate);
+		this.serializer = checkNotNull(serializer);
+
+		checkNotNull(key);
+		accumulatorMap.put(getAccumulatorName(key, NUM_RECORDS), numRecords);
+		accumulatorMap.put(getAccumulatorName(key, NUM_SAMPLED_RECORDS), numSampledRecords);
+		accumulatorMap.put(getAccumulatorName(key, NUM_SAMPLED_BYTES), numSampledBytes);
+	}
+
+	@Override
+	public void collect(T record) {
+		numRecords.add(1L);
+
+		if (countdown-- == 0) {
+			countdown = SAMPLING_INTERVAL - 1;
+			try {
+				serializer.serialize(record, sampleBuffer);
+				numSampledRecords.add(1L);
+				numSampledBytes.add(sampleBuffer.length());
+			}
+			catch (IOException e) {
+				// the record width is only an estimate, we simply skip this sample
+			}
+			finally {
+				sampleBuffer.clear();
+			}
+		}
+
+		delegate.collect(record);
+	}
+
+	@Override
+	public void close() {
+		delegate.close();
+	}
+
+	public static String getAccumulatorName(String key, String metric) {
+		return ACCUMULATOR_PREFIX + key + '.' + metric;
+	}
+}
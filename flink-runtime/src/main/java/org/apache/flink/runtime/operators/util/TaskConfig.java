@@ -193,6 +193,8 @@ public class TaskConfig implements Serializable {
 	
 	private static final String ITERATION_HEAD_SYNC_OUT_INDEX = "iterative.head.sync-index.";
 	
+	private static final String ITERATION_HEAD_MAX_STALENESS = "iterative.head.max-staleness";
+	
 	private static final String ITERATION_CONVERGENCE_CRITERION = "iterative.terminationCriterion";
 	
 	private static final String ITERATION_CONVERGENCE_CRITERION_AGG_NAME = "iterative.terminationCriterion.agg.name";
@@ -221,6 +223,16 @@ public class TaskConfig implements Serializable {
 	
 	private static final String SOLUTION_SET_OBJECTS = "itertive.ss.obj";
 
+	private static final String SOLUTION_SET_SPILLABLE = "iterative.ss-spillable";
+
+	// -------------------------------- Runtime Statistics ----------------------------------------
+
+	private static final String OPERATOR_STATISTICS_KEY = "stats.key";
+
+	private static final String OPERATOR_STATISTICS_SERIALIZER = "stats.serializer";
+
+	private static final String OPERATOR_STATISTICS_SERIALIZER_PARAMETERS = "stats.serializer.params";
+
 	// ---------------------------------- Miscellaneous -------------------------------------------
 	
 	private static final char SEPARATOR = '.';
@@ -890,6 +902,17 @@ public class TaskConfig implements Serializable {
 		return outputIndex;
 	}
 	
+	public void setIterationHeadMaxStaleness(int maxStaleness) {
+		if (maxStaleness < 0) {
+			throw new IllegalArgumentException();
+		}
+		this.config.setInteger(ITERATION_HEAD_MAX_STALENESS, maxStaleness);
+	}
+
+	public int getIterationHeadMaxStaleness() {
+		return this.config.getInteger(ITERATION_HEAD_MAX_STALENESS, 0);
+	}
+	
 	public void setIterationHeadFinalOutputConfig(TaskConfig conf) {
 		this.config.addAll(conf.config, ITERATION_HEAD_FINAL_OUT_CONFIG_PREFIX);
 	}
@@ -1151,6 +1174,31 @@ public class TaskConfig implements Serializable {
 		return config.getBoolean(SOLUTION_SET_OBJECTS, false);
 	}
 	
+	public void setSolutionSetSpillable(boolean spillable) {
+		config.setBoolean(SOLUTION_SET_SPILLABLE, spillable);
+	}
+	
+	public boolean isSolutionSetSpillable() {
+		return config.getBoolean(SOLUTION_SET_SPILLABLE, false);
+	}
+
+	/**
+	 * Sets the key under which the output statistics of this task are reported, together with the
+	 * serializer that is used to sample the width of the records.
+	 */
+	public void setOperatorStatistics(String key, TypeSerializerFactory<?> serializer) {
+		config.setString(OPERATOR_STATISTICS_KEY, key);
+		setTypeSerializerFactory(serializer, OPERATOR_STATISTICS_SERIALIZER, OPERATOR_STATISTICS_SERIALIZER_PARAMETERS);
+	}
+
+	public String getOperatorStatisticsKey() {
+		return config.getString(OPERATOR_STATISTICS_KEY, null);
+	}
+
+	public <T> TypeSerializerFactory<T> getOperatorStatisticsSerializer(ClassLoader cl) {
+		return getTypeSerializerFactory(OPERATOR_STATISTICS_SERIALIZER, OPERATOR_STATISTICS_SERIALIZER_PARAMETERS, cl);
+	}
+	
 	// --------------------------------------------------------------------------------------------
 	//                          Utility class for nested Configurations
 	// --------------------------------------------------------------------------------------------
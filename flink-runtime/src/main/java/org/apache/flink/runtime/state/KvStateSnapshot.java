@@ -40,6 +40,11 @@ public interface KvStateSnapshot<K, V, Backend extends StateBackend<Backend>> ex
 	/**
 	 * Loads the key/value state back from this snapshot.
 	 *
+	 * <p>The given serializers may be newer versions of the serializers that wrote the snapshot.
+	 * Implementations check the compatibility of the serializers against the configuration snapshots
+	 * of the original serializers (see {@link TypeSerializer#ensureCompatibility}) and migrate the
+	 * state to the format of the given serializers where necessary.
+	 *
 	 * @param stateBackend The state backend that created this snapshot and can restore the key/value state
 	 *                     from this snapshot.
 	 * @param keySerializer The serializer for the keys.
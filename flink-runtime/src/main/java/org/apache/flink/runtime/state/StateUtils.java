@@ -18,6 +18,9 @@
 
 package org.apache.flink.runtime.state;
 
+import org.apache.flink.api.common.typeutils.CompatibilityResult;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.TypeSerializerConfigSnapshot;
 import org.apache.flink.runtime.jobgraph.tasks.StatefulTask;
 
 /**
@@ -53,6 +56,50 @@ public class StateUtils {
 		typedOp.setInitialState(typedHandle, recoveryTimestamp);
 	}
 
+	/**
+	 * Gets the serializer with which state data that was written by a serializer with the given
+	 * configuration is read. If the data is compatible with the current serializer, this is the
+	 * current serializer. If the data requires migration, this is the convert deserializer that
+	 * reads the data in the previous format and converts it into the current format.
+	 * 
+	 * Snapshots taken before the serializer configurations were recorded only contain the name of
+	 * the serializer class. Their data is read with the current serializer, if it is of the same class.
+	 * 
+	 * @param currentSerializer The serializer that is used for the restored state.
+	 * @param configSnapshot The configuration snapshot of the serializer that wrote the data, or null.
+	 * @param serializerClassName The class name of the serializer that wrote the data.
+	 * @param <T> The type of the data.
+	 * 
+	 * @return The serializer to read the data with.
+	 * 
+	 * @throws IllegalArgumentException Thrown, if the data cannot be read or migrated by the current serializer.
+	 */
+	public static <T> TypeSerializer<T> getRestoreSerializer(
+			TypeSerializer<T> currentSerializer, TypeSerializerConfigSnapshot configSnapshot, String serializerClassName) {
+
+		if (configSnapshot == null) {
+			if (currentSerializer.getClass().getName().equals(serializerClassName)) {
+				return currentSerializer;
+			}
+			else {
+				throw new IllegalArgumentException("Cannot restore the state with serializer " + currentSerializer +
+						". The state was serialized with " + serializerClassName + ".");
+			}
+		}
+
+		CompatibilityResult<T> result = currentSerializer.ensureCompatibility(configSnapshot);
+		if (!result.isRequiresMigration()) {
+			return currentSerializer;
+		}
+		else if (result.getConvertDeserializer() != null) {
+			return result.getConvertDeserializer();
+		}
+		else {
+			throw new IllegalArgumentException("Cannot restore the state with serializer " + currentSerializer +
+					". The state was serialized with an incompatible serializer (" + configSnapshot + ").");
+		}
+	}
+
 	// ------------------------------------------------------------------------
 
 	/** Do not instantiate */
@@ -19,10 +19,12 @@
 package org.apache.flink.runtime.state.filesystem;
 
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.TypeSerializerConfigSnapshot;
 import org.apache.flink.core.fs.FSDataInputStream;
 import org.apache.flink.core.fs.Path;
 import org.apache.flink.core.memory.DataInputViewStreamWrapper;
 import org.apache.flink.runtime.state.KvStateSnapshot;
+import org.apache.flink.runtime.state.StateUtils;
 
 import java.io.IOException;
 import java.util.HashMap;
@@ -43,6 +45,12 @@ public class FsHeapKvStateSnapshot<K, V> extends AbstractFileState implements Kv
 	/** Name of the value serializer class */
 	private final String valueSerializerClassName;
 
+	/** Configuration snapshot of the key serializer, null for snapshots taken before it was recorded */
+	private final TypeSerializerConfigSnapshot keySerializerConfig;
+
+	/** Configuration snapshot of the value serializer, null for snapshots taken before it was recorded */
+	private final TypeSerializerConfigSnapshot valueSerializerConfig;
+
 	/**
 	 * Creates a new state snapshot with data in the file system.
 	 *
@@ -54,6 +62,8 @@ public class FsHeapKvStateSnapshot<K, V> extends AbstractFileState implements Kv
 		super(filePath);
 		this.keySerializerClassName = keySerializer.getClass().getName();
 		this.valueSerializerClassName = valueSerializer.getClass().getName();
+		this.keySerializerConfig = keySerializer.snapshotConfiguration();
+		this.valueSerializerConfig = valueSerializer.snapshotConfiguration();
 	}
 
 	@Override
@@ -65,14 +75,11 @@ public class FsHeapKvStateSnapshot<K, V> extends AbstractFileState implements Kv
 			ClassLoader classLoader,
 			long recoveryTimestamp) throws Exception {
 
-		// validity checks
-		if (!keySerializer.getClass().getName().equals(keySerializerClassName) ||
-				!valueSerializer.getClass().getName().equals(valueSerializerClassName)) {
-			throw new IllegalArgumentException(
-					"Cannot restore the state from the snapshot with the given serializers. " +
-							"State (K/V) was serialized with (" + valueSerializerClassName +
-							"/" + keySerializerClassName + ")");
-		}
+		// the serializers to read the state with, possibly migrating it to the format of the given serializers
+		final TypeSerializer<K> keyReader = StateUtils.getRestoreSerializer(
+				keySerializer, keySerializerConfig, keySerializerClassName);
+		final TypeSerializer<V> valueReader = StateUtils.getRestoreSerializer(
+				valueSerializer, valueSerializerConfig, valueSerializerClassName);
 		
 		// state restore
 		try (FSDataInputStream inStream = stateBackend.getFileSystem().open(getFilePath())) {
@@ -82,8 +89,8 @@ public class FsHeapKvStateSnapshot<K, V> extends AbstractFileState implements Kv
 			HashMap<K, V> stateMap = new HashMap<>(numEntries);
 			
 			for (int i = 0; i < numEntries; i++) {
-				K key = keySerializer.deserialize(inView);
-				V value = valueSerializer.deserialize(inView);
+				K key = keyReader.deserialize(inView);
+				V value = valueReader.deserialize(inView);
 				stateMap.put(key, value);
 			}
 			
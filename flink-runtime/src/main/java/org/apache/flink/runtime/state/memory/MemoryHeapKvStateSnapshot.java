@@ -19,7 +19,9 @@
 package org.apache.flink.runtime.state.memory;
 
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.TypeSerializerConfigSnapshot;
 import org.apache.flink.runtime.state.KvStateSnapshot;
+import org.apache.flink.runtime.state.StateUtils;
 import org.apache.flink.runtime.util.DataInputDeserializer;
 
 import java.util.HashMap;
@@ -40,6 +42,12 @@ public class MemoryHeapKvStateSnapshot<K, V> implements KvStateSnapshot<K, V, Me
 
 	/** Name of the value serializer class */
 	private final String valueSerializerClassName;
+
+	/** Configuration snapshot of the key serializer, null for snapshots taken before it was recorded */
+	private final TypeSerializerConfigSnapshot keySerializerConfig;
+
+	/** Configuration snapshot of the value serializer, null for snapshots taken before it was recorded */
+	private final TypeSerializerConfigSnapshot valueSerializerConfig;
 	
 	/** The serialized data of the state key/value pairs */
 	private final byte[] data;
@@ -59,6 +67,8 @@ public class MemoryHeapKvStateSnapshot<K, V> implements KvStateSnapshot<K, V, Me
 						TypeSerializer<V> valueSerializer, byte[] data, int numEntries) {
 		this.keySerializerClassName = keySerializer.getClass().getName();
 		this.valueSerializerClassName = valueSerializer.getClass().getName();
+		this.keySerializerConfig = keySerializer.snapshotConfiguration();
+		this.valueSerializerConfig = valueSerializer.snapshotConfiguration();
 		this.data = data;
 		this.numEntries = numEntries;
 	}
@@ -72,22 +82,19 @@ public class MemoryHeapKvStateSnapshot<K, V> implements KvStateSnapshot<K, V, Me
 			ClassLoader classLoader,
 			long recoveryTimestamp) throws Exception {
 
-		// validity checks
-		if (!keySerializer.getClass().getName().equals(keySerializerClassName) ||
-			!valueSerializer.getClass().getName().equals(valueSerializerClassName)) {
-				throw new IllegalArgumentException(
-						"Cannot restore the state from the snapshot with the given serializers. " +
-						"State (K/V) was serialized with (" + valueSerializerClassName + 
-						"/" + keySerializerClassName + ")");
-		}
+		// the serializers to read the state with, possibly migrating it to the format of the given serializers
+		final TypeSerializer<K> keyReader = StateUtils.getRestoreSerializer(
+				keySerializer, keySerializerConfig, keySerializerClassName);
+		final TypeSerializer<V> valueReader = StateUtils.getRestoreSerializer(
+				valueSerializer, valueSerializerConfig, valueSerializerClassName);
 		
 		// restore state
 		HashMap<K, V> stateMap = new HashMap<>(numEntries);
 		DataInputDeserializer in = new DataInputDeserializer(data, 0, data.length);
 		
 		for (int i = 0; i < numEntries; i++) {
-			K key = keySerializer.deserialize(in);
-			V value = valueSerializer.deserialize(in);
+			K key = keyReader.deserialize(in);
+			V value = valueReader.deserialize(in);
 			stateMap.put(key, value);
 		}
 		
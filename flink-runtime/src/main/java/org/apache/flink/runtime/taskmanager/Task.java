@@ -290,7 +290,8 @@ public class Task implements Runnable {
 					networkEnvironment.getPartitionManager(),
 					networkEnvironment.getPartitionConsumableNotifier(),
 					ioManager,
-					networkEnvironment.getDefaultIOMode());
+					networkEnvironment.getDefaultIOMode(),
+					networkEnvironment.isSortMergeBlockingShuffle());
 
 			this.writers[i] = new ResultPartitionWriter(this.producedPartitions[i]);
 		}
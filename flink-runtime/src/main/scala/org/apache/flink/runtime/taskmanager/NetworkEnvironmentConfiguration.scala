@@ -28,4 +28,5 @@ case class NetworkEnvironmentConfiguration(
   memoryType: MemoryType,
   ioMode: IOMode,
   nettyConfig: Option[NettyConfig] = None,
-  partitionRequestInitialAndMaxBackoff: (Integer, Integer) = (500, 3000))
+  partitionRequestInitialAndMaxBackoff: (Integer, Integer) = (500, 3000),
+  sortMergeBlockingShuffle: Boolean = false)
@@ -1824,12 +1824,18 @@ object TaskManager {
 
     val ioMode : IOMode = if (syncOrAsync == "async") IOMode.ASYNC else IOMode.SYNC
 
+    // Single file per producer for blocking intermediate results
+    val sortMergeBlockingShuffle = configuration.getBoolean(
+      ConfigConstants.TASK_MANAGER_NETWORK_SORT_MERGE_BLOCKING_SHUFFLE,
+      ConfigConstants.DEFAULT_TASK_MANAGER_NETWORK_SORT_MERGE_BLOCKING_SHUFFLE)
+
     val networkConfig = NetworkEnvironmentConfiguration(
       numNetworkBuffers,
       pageSize,
       memType,
       ioMode,
-      nettyConfig)
+      nettyConfig,
+      sortMergeBlockingShuffle = sortMergeBlockingShuffle)
 
     // ----> timeouts, library caching, profiling
 
@@ -80,7 +80,7 @@ public class NetworkEnvironmentTest {
 			NetworkEnvironmentConfiguration config = new NetworkEnvironmentConfiguration(
 					NUM_BUFFERS, BUFFER_SIZE, MemoryType.HEAP,
 					IOManager.IOMode.SYNC, new Some<>(nettyConf),
-					new Tuple2<>(0, 0));
+					new Tuple2<>(0, 0), false);
 
 			NetworkEnvironment env = new NetworkEnvironment(
 				TestingUtils.defaultExecutionContext(),
@@ -173,7 +173,8 @@ public class NetworkEnvironmentTest {
 				MemoryType.HEAP,
 				IOManager.IOMode.SYNC,
 				Some.<NettyConfig>empty(),
-				new Tuple2<>(0, 0));
+				new Tuple2<>(0, 0),
+				false);
 
 		NetworkEnvironment env = new NetworkEnvironment(
 				TestingUtils.defaultExecutionContext(),
@@ -230,6 +231,7 @@ public class NetworkEnvironmentTest {
 				env.getPartitionManager(),
 				env.getPartitionConsumableNotifier(),
 				mock(IOManager.class),
-				env.getDefaultIOMode());
+				env.getDefaultIOMode(),
+				env.isSortMergeBlockingShuffle());
 	}
 }
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.io.network.partition;
+
+import org.apache.flink.runtime.io.disk.iomanager.FileIOChannel;
+import org.apache.flink.runtime.io.disk.iomanager.IOManager;
+import org.apache.flink.runtime.io.disk.iomanager.IOManagerAsync;
+import org.apache.flink.runtime.io.network.api.EndOfPartitionEvent;
+import org.apache.flink.runtime.io.network.api.serialization.EventSerializer;
+import org.apache.flink.runtime.io.network.buffer.Buffer;
+import org.apache.flink.runtime.io.network.util.TestBufferFactory;
+import org.apache.flink.runtime.io.network.util.TestInfiniteBufferProvider;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class SortMergeSubpartitionTest extends SubpartitionTestBase {
+
+	/** Asynchronous I/O manager */
+	private static final IOManager ioManager = new IOManagerAsync();
+
+	@AfterClass
+	public static void shutdown() {
+		ioManager.shutdown();
+	}
+
+	@Override
+	ResultSubpartition createSubpartition() {
+		return new SortMergeSubpartition(
+				0, mock(ResultPartition.class), new SortMergePartitionFile(1, ioManager));
+	}
+
+	/**
+	 * Tests that the buffers of all subpartitions are written to a single file and that each
+	 * subpartition reads back exactly its own buffers in the order they were added, across
+	 * multiple spills.
+	 */
+	@Test
+	public void testSingleFileForAllSubpartitions() throws Exception {
+		final int numberOfSubpartitions = 4;
+
+		final IOManager spyIOManager = spy(ioManager);
+		final SortMergePartitionFile partitionFile = new SortMergePartitionFile(
+				numberOfSubpartitions, spyIOManager);
+
+		final SortMergeSubpartition[] subpartitions = new SortMergeSubpartition[numberOfSubpartitions];
+		for (int i = 0; i < numberOfSubpartitions; i++) {
+			subpartitions[i] = new SortMergeSubpartition(i, mock(ResultPartition.class), partitionFile);
+		}
+
+		try {
+			int value = 0;
+
+			for (int round = 0; round < 3; round++) {
+				// Interleave the subpartitions as a record writer would do
+				for (int i = 0; i < 2 * numberOfSubpartitions; i++) {
+					assertTrue(subpartitions[i % numberOfSubpartitions].add(createBuffer(value++)));
+				}
+
+				// Simulate memory pressure after each round
+				assertEquals(2 * numberOfSubpartitions, subpartitions[0].releaseMemory());
+				assertEquals(0, subpartitions[1].releaseMemory());
+			}
+
+			// Subpartitions are not consumable before all of them have been finished
+			for (int i = 0; i < numberOfSubpartitions - 1; i++) {
+				subpartitions[i].finish();
+
+				try {
+					subpartitions[i].createReadView(new TestInfiniteBufferProvider());
+					fail("Did not throw expected exception.");
+				}
+				catch (IllegalStateException expected) {
+				}
+			}
+
+			subpartitions[numberOfSubpartitions - 1].finish();
+
+			verify(spyIOManager, times(1)).createBufferFileWriter(any(FileIOChannel.ID.class));
+
+			for (int i = 0; i < numberOfSubpartitions; i++) {
+				ResultSubpartitionView view = subpartitions[i].createReadView(
+						new TestInfiniteBufferProvider());
+
+				int expected = i;
+				Buffer buffer;
+
+				while ((buffer = view.getNextBuffer()) != null) {
+					if (buffer.isBuffer()) {
+						assertEquals(expected, buffer.getMemorySegment().getInt(0));
+						expected += numberOfSubpartitions;
+					}
+					else {
+						assertEquals(EndOfPartitionEvent.class, EventSerializer
+								.fromBuffer(buffer, getClass().getClassLoader()).getClass());
+					}
+
+					buffer.recycle();
+				}
+
+				assertEquals(value + i, expected);
+
+				view.releaseAllResources();
+			}
+		}
+		finally {
+			for (SortMergeSubpartition subpartition : subpartitions) {
+				subpartition.release();
+			}
+		}
+
+		assertTrue(partitionFile.isReleased());
+	}
+
+	@Test
+	public void testReleasePartitionAndGetNext() throws Exception {
+		SortMergeSubpartition partition = (SortMergeSubpartition) createSubpartition();
+
+		partition.add(createBuffer(0));
+		partition.finish();
+
+		ResultSubpartitionView readView = partition.createReadView(new TestInfiniteBufferProvider());
+
+		assertNotNull(readView.getNextBuffer());
+
+		partition.release();
+
+		assertNull(readView.getNextBuffer());
+		assertFalse(partition.add(createBuffer(1)));
+	}
+
+	private static Buffer createBuffer(int value) {
+		Buffer buffer = TestBufferFactory.createBuffer(4);
+		buffer.getMemorySegment().putInt(0, value);
+		return buffer;
+	}
+}
@@ -123,7 +123,8 @@ public class LocalInputChannelTest {
 					partitionManager,
 					partitionConsumableNotifier,
 					ioManager,
-					ASYNC);
+					ASYNC,
+					false);
 
 			// Create a buffer pool for this partition
 			partition.registerBufferPool(
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.iterative.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.apache.flink.api.common.aggregators.Aggregator;
+import org.apache.flink.api.common.aggregators.AggregatorWithName;
+import org.apache.flink.api.common.aggregators.LongSumAggregator;
+import org.apache.flink.runtime.iterative.event.AllWorkersDoneEvent;
+import org.apache.flink.runtime.iterative.event.TerminationEvent;
+import org.apache.flink.runtime.iterative.task.RuntimeAggregatorRegistry;
+import org.apache.flink.types.LongValue;
+import org.junit.Test;
+
+public class StaleSuperstepBarrierTest {
+
+	@Test
+	public void waitForStaleSuperstep() throws Exception {
+		final StaleSuperstepBarrier barrier = new StaleSuperstepBarrier(getClass().getClassLoader());
+
+		// nothing to wait for in the first supersteps
+		barrier.waitForSuperstep(0);
+
+		Thread head = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					barrier.waitForSuperstep(2);
+				}
+				catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		});
+		head.start();
+
+		barrier.onEvent(new AllWorkersDoneEvent());
+		assertEquals(1, barrier.getNumberOfCompletedSupersteps());
+
+		head.join(50);
+		assertTrue(head.isAlive());
+
+		barrier.onEvent(new AllWorkersDoneEvent());
+		head.join();
+
+		assertEquals(2, barrier.getNumberOfCompletedSupersteps());
+		assertFalse(barrier.terminationSignaled());
+	}
+
+	@Test
+	public void terminationReleasesWaitingHead() throws Exception {
+		final StaleSuperstepBarrier barrier = new StaleSuperstepBarrier(getClass().getClassLoader());
+
+		Thread head = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					barrier.waitForSuperstep(5);
+					barrier.waitForTermination();
+				}
+				catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		});
+		head.start();
+
+		barrier.onEvent(new AllWorkersDoneEvent());
+		barrier.onEvent(new AllWorkersDoneEvent());
+		barrier.onEvent(new TerminationEvent());
+
+		head.join();
+
+		assertTrue(barrier.terminationSignaled());
+		assertEquals(3, barrier.getTerminationSuperstep());
+	}
+
+	@Test
+	public void updateLatestGlobalAggregates() throws Exception {
+		final String name = "sum";
+		final StaleSuperstepBarrier barrier = new StaleSuperstepBarrier(getClass().getClassLoader());
+		final RuntimeAggregatorRegistry registry = new RuntimeAggregatorRegistry(
+				Collections.<AggregatorWithName<?>>singleton(
+						new AggregatorWithName<LongValue>(name, new LongSumAggregator())));
+
+		assertFalse(barrier.updateGlobalAggregates(registry));
+
+		barrier.onEvent(new AllWorkersDoneEvent(Collections.<String, Aggregator<?>>singletonMap(name, aggregator(1))));
+		barrier.onEvent(new AllWorkersDoneEvent(Collections.<String, Aggregator<?>>singletonMap(name, aggregator(2))));
+
+		assertTrue(barrier.updateGlobalAggregates(registry));
+		assertEquals(new LongValue(2), registry.getPreviousGlobalAggregate(name));
+
+		// the aggregates are only handed over once
+		assertFalse(barrier.updateGlobalAggregates(registry));
+	}
+
+	private static LongSumAggregator aggregator(long value) {
+		LongSumAggregator aggregator = new LongSumAggregator();
+		aggregator.aggregate(value);
+		return aggregator;
+	}
+}
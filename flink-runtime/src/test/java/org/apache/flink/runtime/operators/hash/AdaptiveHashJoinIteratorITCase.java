@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.operators.hash;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.flink.api.common.functions.FlatJoinFunction;
+import org.apache.flink.api.common.typeutils.TypeSerializerFactory;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.typeutils.runtime.RuntimePairComparatorFactory;
+import org.apache.flink.api.java.typeutils.runtime.RuntimeSerializerFactory;
+import org.apache.flink.runtime.io.disk.iomanager.FileIOChannel;
+import org.apache.flink.runtime.io.disk.iomanager.IOManagerAsync;
+import org.apache.flink.runtime.jobgraph.tasks.AbstractInvokable;
+import org.apache.flink.runtime.memory.MemoryManager;
+import org.apache.flink.runtime.operators.DriverStrategy;
+import org.apache.flink.runtime.operators.hash.NonReusingHashJoinIteratorITCase.TupleMatch;
+import org.apache.flink.runtime.operators.hash.NonReusingHashJoinIteratorITCase.TupleMatchRemovingJoin;
+import org.apache.flink.runtime.operators.testutils.DiscardingOutputCollector;
+import org.apache.flink.runtime.operators.testutils.DummyInvokable;
+import org.apache.flink.runtime.operators.testutils.TestData;
+import org.apache.flink.runtime.operators.testutils.TestData.TupleGenerator;
+import org.apache.flink.runtime.operators.testutils.TestData.TupleGenerator.KeyMode;
+import org.apache.flink.runtime.operators.testutils.TestData.TupleGenerator.ValueMode;
+import org.apache.flink.util.MutableObjectIterator;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AdaptiveHashJoinIteratorITCase {
+
+	private static final int MEMORY_SIZE = 64 * 32 * 1024;	// 64 pages of 32 KiBytes
+
+	private static final int SMALL_INPUT_SIZE = 500;
+
+	// inputs that fit into the read-ahead memory, and such that fit into the hash table only
+	private static final int BUFFERED_INPUT_SIZE = 300;
+	private static final int SPILLED_INPUT_SIZE = 700;
+	private static final int LARGE_INPUT_SIZE = 5000;
+
+	private static final long SEED1 = 561349061987311L;
+	private static final long SEED2 = 231434613412342L;
+
+	private final AbstractInvokable parentTask = new DummyInvokable();
+
+	private CountingIOManager ioManager;
+	private MemoryManager memoryManager;
+
+	private TypeSerializerFactory<Tuple2<Integer, String>> serializerFactory;
+
+	@SuppressWarnings("unchecked")
+	@Before
+	public void beforeTest() {
+		this.serializerFactory = new RuntimeSerializerFactory<Tuple2<Integer, String>>(
+				TestData.getIntStringTupleSerializer(), (Class<Tuple2<Integer, String>>) (Class<?>) Tuple2.class);
+
+		this.memoryManager = new MemoryManager(MEMORY_SIZE, 1);
+		this.ioManager = new CountingIOManager();
+	}
+
+	@After
+	public void afterTest() {
+		if (this.ioManager != null) {
+			this.ioManager.shutdown();
+			if (!this.ioManager.isProperlyShutDown()) {
+				Assert.fail("I/O manager failed to properly shut down.");
+			}
+			this.ioManager = null;
+		}
+
+		if (this.memoryManager != null) {
+			Assert.assertTrue("Memory Leak: Not all memory has been returned to the memory manager.",
+				this.memoryManager.verifyEmpty());
+			this.memoryManager.shutdown();
+			this.memoryManager = null;
+		}
+	}
+
+	@Test
+	public void testKeepPlannedBuildSide() {
+		runJoin(SMALL_INPUT_SIZE, LARGE_INPUT_SIZE, true, false, DriverStrategy.HYBRIDHASH_BUILD_FIRST);
+		runJoin(LARGE_INPUT_SIZE, SMALL_INPUT_SIZE, false, true, DriverStrategy.HYBRIDHASH_BUILD_SECOND);
+	}
+
+	@Test
+	public void testSpillOnlyBuildSideExceedingReadAheadMemory() {
+		runJoin(BUFFERED_INPUT_SIZE, LARGE_INPUT_SIZE, true, false, DriverStrategy.HYBRIDHASH_BUILD_FIRST);
+		Assert.assertEquals("The build side should have been kept in memory.", 0, this.ioManager.numChannels);
+
+		runJoin(SPILLED_INPUT_SIZE, LARGE_INPUT_SIZE, true, true, DriverStrategy.HYBRIDHASH_BUILD_FIRST);
+		Assert.assertEquals("The build side should have been spilled.", 1, this.ioManager.numChannels);
+
+		runJoin(LARGE_INPUT_SIZE, SPILLED_INPUT_SIZE, true, false, DriverStrategy.HYBRIDHASH_BUILD_SECOND);
+		Assert.assertEquals("Both inputs should have been spilled.", 3, this.ioManager.numChannels);
+
+		runJoin(LARGE_INPUT_SIZE, BUFFERED_INPUT_SIZE, true, true, DriverStrategy.HYBRIDHASH_BUILD_SECOND);
+		Assert.assertEquals("Only the probe side should have been spilled.", 4, this.ioManager.numChannels);
+	}
+
+	@Test
+	public void testSwapBuildSide() {
+		runJoin(LARGE_INPUT_SIZE, SMALL_INPUT_SIZE, true, false, DriverStrategy.HYBRIDHASH_BUILD_SECOND);
+		runJoin(SMALL_INPUT_SIZE, LARGE_INPUT_SIZE, false, true, DriverStrategy.HYBRIDHASH_BUILD_FIRST);
+	}
+
+	@Test
+	public void testFallBackToSortMerge() {
+		runJoin(LARGE_INPUT_SIZE, LARGE_INPUT_SIZE, true, false, DriverStrategy.INNER_MERGE);
+		runJoin(LARGE_INPUT_SIZE, LARGE_INPUT_SIZE, false, true, DriverStrategy.INNER_MERGE);
+	}
+
+	@Test
+	public void testSmallMemoryFraction() {
+		// 38 of the 64 pages leave the hash table just enough memory
+		runJoin(SMALL_INPUT_SIZE, LARGE_INPUT_SIZE, 38 / 64.0, true, false, DriverStrategy.HYBRIDHASH_BUILD_FIRST);
+		runJoin(LARGE_INPUT_SIZE, SMALL_INPUT_SIZE, 38 / 64.0, true, true, DriverStrategy.HYBRIDHASH_BUILD_SECOND);
+		runJoin(LARGE_INPUT_SIZE, LARGE_INPUT_SIZE, 38 / 64.0, false, false, DriverStrategy.INNER_MERGE);
+
+		// 30 of the 64 pages are the least the sorters and the merge of the fallback get along with
+		runJoin(LARGE_INPUT_SIZE, LARGE_INPUT_SIZE, 30 / 64.0, true, true, DriverStrategy.INNER_MERGE);
+	}
+
+	@Test
+	public void testKeepHashJoinIfSortMergeLacksMemory() {
+		// 29 of the 64 pages are too few for the sort-merge fallback, so the hash join stays, and
+		// with it the error that the planned strategy reports about the small memory
+		AdaptiveHashJoinIterator<Tuple2<Integer, String>, Tuple2<Integer, String>, Tuple2<Integer, String>> iterator = null;
+		try {
+			TupleGenerator generator1 = new TupleGenerator(SEED1, 500, 2048, KeyMode.RANDOM, ValueMode.RANDOM_LENGTH);
+			TupleGenerator generator2 = new TupleGenerator(SEED2, 500, 2048, KeyMode.RANDOM, ValueMode.RANDOM_LENGTH);
+
+			iterator = createIterator(new TestData.TupleGeneratorIterator(generator1, LARGE_INPUT_SIZE),
+					new TestData.TupleGeneratorIterator(generator2, LARGE_INPUT_SIZE), 29 / 64.0, true, false);
+			iterator.open();
+			Assert.fail("The hash join should have rejected the small memory.");
+		}
+		catch (IllegalArgumentException e) {
+			Assert.assertTrue(e.getMessage(), e.getMessage().contains("memory segments"));
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			Assert.fail("An exception occurred during the test: " + e.getMessage());
+		}
+		finally {
+			if (iterator != null) {
+				iterator.close();
+			}
+			// the failed hash join does not return the memory it allocated
+			this.memoryManager.releaseAll(this.parentTask);
+		}
+	}
+
+	private void runJoin(int size1, int size2, boolean plannedBuildFirst, boolean objectReuse, DriverStrategy expected) {
+		runJoin(size1, size2, 1.0, plannedBuildFirst, objectReuse, expected);
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private void runJoin(int size1, int size2, double memoryFraction, boolean plannedBuildFirst, boolean objectReuse,
+			DriverStrategy expected)
+	{
+		try {
+			TupleGenerator generator1 = new TupleGenerator(SEED1, 500, 2048, KeyMode.RANDOM, ValueMode.RANDOM_LENGTH);
+			TupleGenerator generator2 = new TupleGenerator(SEED2, 500, 2048, KeyMode.RANDOM, ValueMode.RANDOM_LENGTH);
+
+			final TestData.TupleGeneratorIterator input1 = new TestData.TupleGeneratorIterator(generator1, size1);
+			final TestData.TupleGeneratorIterator input2 = new TestData.TupleGeneratorIterator(generator2, size2);
+
+			// collect expected data
+			final Map<Integer, Collection<TupleMatch>> expectedMatchesMap = NonReusingHashJoinIteratorITCase.joinTuples(
+					NonReusingHashJoinIteratorITCase.collectTupleData(input1),
+					NonReusingHashJoinIteratorITCase.collectTupleData(input2));
+
+			final FlatJoinFunction matcher = new TupleMatchRemovingJoin(expectedMatchesMap);
+
+			// reset the generators
+			generator1.reset();
+			generator2.reset();
+			input1.reset();
+			input2.reset();
+
+			AdaptiveHashJoinIterator<Tuple2<Integer, String>, Tuple2<Integer, String>, Tuple2<Integer, String>> iterator =
+					createIterator(input1, input2, memoryFraction, plannedBuildFirst, objectReuse);
+
+			iterator.open();
+			Assert.assertEquals(expected, iterator.getChosenStrategy());
+
+			while (iterator.callWithNextKey(matcher, new DiscardingOutputCollector<Tuple2<Integer, String>>()));
+
+			iterator.close();
+
+			// assert that each expected match was seen
+			for (Entry<Integer, Collection<TupleMatch>> entry : expectedMatchesMap.entrySet()) {
+				if (!entry.getValue().isEmpty()) {
+					Assert.fail("Collection for key " + entry.getKey() + " is not empty");
+				}
+			}
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			Assert.fail("An exception occurred during the test: " + e.getMessage());
+		}
+	}
+
+	private AdaptiveHashJoinIterator<Tuple2<Integer, String>, Tuple2<Integer, String>, Tuple2<Integer, String>> createIterator(
+			MutableObjectIterator<Tuple2<Integer, String>> input1, MutableObjectIterator<Tuple2<Integer, String>> input2,
+			double memoryFraction, boolean plannedBuildFirst, boolean objectReuse) throws Exception
+	{
+		return new AdaptiveHashJoinIterator<Tuple2<Integer, String>, Tuple2<Integer, String>, Tuple2<Integer, String>>(
+				input1, input2,
+				this.serializerFactory, TestData.getIntStringTupleComparator(),
+				this.serializerFactory, TestData.getIntStringTupleComparator(),
+				new RuntimePairComparatorFactory<Tuple2<Integer, String>, Tuple2<Integer, String>>(),
+				this.memoryManager, this.ioManager, this.parentTask, memoryFraction, 64, 0.7f,
+				plannedBuildFirst, objectReuse, false);
+	}
+
+	/**
+	 * An I/O manager that counts the channels it creates.
+	 */
+	private static final class CountingIOManager extends IOManagerAsync {
+
+		private int numChannels;
+
+		@Override
+		public FileIOChannel.ID createChannel() {
+			this.numChannels++;
+			return super.createChannel();
+		}
+	}
+}
@@ -0,0 +1,334 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.operators.hash;
+
+import static org.junit.Assert.*;
+
+import org.apache.flink.api.common.typeutils.TypeComparator;
+import org.apache.flink.api.common.typeutils.TypePairComparator;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.base.LongComparator;
+import org.apache.flink.api.common.typeutils.base.LongSerializer;
+import org.apache.flink.api.common.typeutils.base.StringSerializer;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.typeutils.runtime.TupleComparator;
+import org.apache.flink.api.java.typeutils.runtime.TupleSerializer;
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.core.memory.MemorySegmentFactory;
+import org.apache.flink.runtime.io.disk.iomanager.IOManager;
+import org.apache.flink.runtime.io.disk.iomanager.IOManagerAsync;
+import org.apache.flink.util.MutableObjectIterator;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+public class SpillingSolutionSetTableTest {
+
+	private static final int NUM_SEGMENTS = 33;
+
+	private static final int SEGMENT_SIZE = 4096;
+
+	private static final IOManager ioManager = new IOManagerAsync();
+
+	private final TypeSerializer<Tuple2<Long, String>> serializer;
+	private final TypeComparator<Tuple2<Long, String>> comparator;
+
+	private final TypeComparator<Long> probeComparator;
+
+	private final TypePairComparator<Long, Tuple2<Long, String>> pairComparator;
+
+
+	public SpillingSolutionSetTableTest() {
+		TypeSerializer<?>[] fieldSerializers = { LongSerializer.INSTANCE, StringSerializer.INSTANCE };
+		@SuppressWarnings("unchecked")
+		Class<Tuple2<Long, String>> clazz = (Class<Tuple2<Long, String>>) (Class<?>) Tuple2.class;
+		this.serializer = new TupleSerializer<Tuple2<Long, String>>(clazz, fieldSerializers);
+
+		TypeComparator<?>[] comparators = { new LongComparator(true) };
+		TypeSerializer<?>[] comparatorSerializers = { LongSerializer.INSTANCE };
+
+		this.comparator = new TupleComparator<Tuple2<Long, String>>(new int[] {0}, comparators, comparatorSerializers);
+
+		this.probeComparator = new LongComparator(true);
+
+		this.pairComparator = new TypePairComparator<Long, Tuple2<Long, String>>() {
+
+			private long ref;
+
+			@Override
+			public void setReference(Long reference) {
+				ref = reference;
+			}
+
+			@Override
+			public boolean equalToReference(Tuple2<Long, String> candidate) {
+				return candidate.f0 == ref;
+			}
+
+			@Override
+			public int compareToReference(Tuple2<Long, String> candidate) {
+				long x = ref;
+				long y = candidate.f0;
+				return (x < y) ? -1 : ((x == y) ? 0 : 1);
+			}
+		};
+	}
+
+	@AfterClass
+	public static void shutdown() {
+		ioManager.shutdown();
+	}
+
+	// ------------------------------------------------------------------------
+	//  tests
+	// ------------------------------------------------------------------------
+
+	@Test
+	public void testInsertUpdateAndProbeWithSpilling() {
+		try {
+			final int numElements = 10000;
+
+			SpillingSolutionSetTable<Tuple2<Long, String>> table = new SpillingSolutionSetTable<Tuple2<Long, String>>(
+					serializer, comparator, getMemory(NUM_SEGMENTS, SEGMENT_SIZE), ioManager);
+			table.open();
+
+			for (long i = 0; i < numElements; i++) {
+				table.insertOrReplaceRecord(new Tuple2<Long, String>(i, String.valueOf(i)));
+			}
+
+			// the records do not fit into memory
+			assertTrue(table.getNumSpilledPartitions() > 0);
+
+			// update every second record, some of which are in spilled partitions
+			for (long i = 0; i < numElements; i += 2) {
+				table.insertOrReplaceRecord(new Tuple2<Long, String>(i, "updated " + i));
+			}
+
+			SpillingSolutionSetTable<Tuple2<Long, String>>.ProbeSideProber<Long> prober =
+					table.getProber(probeComparator, pairComparator);
+			Tuple2<Long, String> reuse = new Tuple2<Long, String>();
+
+			for (long i = 0; i < numElements; i++) {
+				Tuple2<Long, String> match = prober.getMatchFor(i, reuse);
+				assertNotNull("Missing record for key " + i, match);
+				assertEquals(expectedValue(i), match.f1);
+			}
+
+			assertNull(prober.getMatchFor((long) numElements, reuse));
+
+			// make sure that every key is contained exactly once via the entry iterator
+			BitSet bitSet = new BitSet(numElements);
+			MutableObjectIterator<Tuple2<Long, String>> iter = table.getEntryIterator();
+			Tuple2<Long, String> next;
+			while ((next = iter.next()) != null) {
+				int key = next.f0.intValue();
+				assertFalse("Duplicate key " + key, bitSet.get(key));
+				assertEquals(expectedValue(key), next.f1);
+				bitSet.set(key);
+			}
+			assertEquals(numElements, bitSet.cardinality());
+
+			table.close();
+			assertEquals(NUM_SEGMENTS, table.getFreeMemory().size());
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+
+	@Test
+	public void testProbeIteratorDefersSpilledPartitions() {
+		try {
+			final int numElements = 10000;
+			final int valuesPerKey = 3;
+
+			SpillingSolutionSetTable<Tuple2<Long, String>> table = new SpillingSolutionSetTable<Tuple2<Long, String>>(
+					serializer, comparator, getMemory(NUM_SEGMENTS, SEGMENT_SIZE), ioManager);
+			table.open();
+
+			for (long i = 0; i < numElements; i++) {
+				table.insertOrReplaceRecord(new Tuple2<Long, String>(i, String.valueOf(i)));
+			}
+			assertTrue(table.getNumSpilledPartitions() > 0);
+
+			// a grouped probe side with several records per key
+			MutableObjectIterator<Long> probeSide = new MutableObjectIterator<Long>() {
+
+				private long count;
+
+				@Override
+				public Long next(Long reuse) {
+					return next();
+				}
+
+				@Override
+				public Long next() {
+					return count < numElements * valuesPerKey ? count++ / valuesPerKey : null;
+				}
+			};
+
+			MutableObjectIterator<Long> probeIterator = table.getProbeIterator(
+					probeSide, probeComparator, LongSerializer.INSTANCE);
+			SpillingSolutionSetTable<Tuple2<Long, String>>.ProbeSideProber<Long> prober =
+					table.getProber(probeComparator, pairComparator);
+
+			BitSet seenKeys = new BitSet(numElements);
+			long previousKey = -1;
+			int numInGroup = 0;
+			int numProbed = 0;
+
+			Long key;
+			while ((key = probeIterator.next()) != null) {
+				numProbed++;
+
+				if (key == previousKey) {
+					numInGroup++;
+				}
+				else {
+					// the records of a key are returned together
+					assertTrue(previousKey == -1 || numInGroup == valuesPerKey);
+					assertFalse("Key group " + key + " has been split", seenKeys.get(key.intValue()));
+					seenKeys.set(key.intValue());
+
+					previousKey = key;
+					numInGroup = 1;
+				}
+
+				Tuple2<Long, String> match = prober.getMatchFor(key);
+				assertNotNull(match);
+				assertEquals(String.valueOf(key), match.f1);
+			}
+
+			assertEquals(numElements * valuesPerKey, numProbed);
+			assertEquals(numElements, seenKeys.cardinality());
+
+			table.close();
+			assertEquals(NUM_SEGMENTS, table.getFreeMemory().size());
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+
+	@Test
+	public void testRepeatedUpdatesInMemory() {
+		try {
+			final int numElements = 1000;
+			final int numSupersteps = 100;
+
+			SpillingSolutionSetTable<Tuple2<Long, String>> table = new SpillingSolutionSetTable<Tuple2<Long, String>>(
+					serializer, comparator, getMemory(NUM_SEGMENTS, SEGMENT_SIZE), ioManager);
+			table.open();
+
+			for (long i = 0; i < numElements; i++) {
+				table.insertOrReplaceRecord(new Tuple2<Long, String>(i, "0"));
+			}
+
+			// the updates of all supersteps together are far larger than the memory
+			for (int superstep = 1; superstep <= numSupersteps; superstep++) {
+				for (long i = 0; i < numElements; i++) {
+					table.insertOrReplaceRecord(new Tuple2<Long, String>(i, String.valueOf(superstep)));
+				}
+				assertEquals("Outdated records were not reclaimed in superstep " + superstep,
+						0, table.getNumSpilledPartitions());
+			}
+
+			SpillingSolutionSetTable<Tuple2<Long, String>>.ProbeSideProber<Long> prober =
+					table.getProber(probeComparator, pairComparator);
+			for (long i = 0; i < numElements; i++) {
+				Tuple2<Long, String> match = prober.getMatchFor(i);
+				assertNotNull("Missing record for key " + i, match);
+				assertEquals(String.valueOf(numSupersteps), match.f1);
+			}
+
+			table.close();
+			assertEquals(NUM_SEGMENTS, table.getFreeMemory().size());
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+
+	@Test
+	public void testRepeatedUpdatesWithSpilling() {
+		try {
+			final int numElements = 10000;
+			final int numSupersteps = 10;
+
+			SpillingSolutionSetTable<Tuple2<Long, String>> table = new SpillingSolutionSetTable<Tuple2<Long, String>>(
+					serializer, comparator, getMemory(NUM_SEGMENTS, SEGMENT_SIZE), ioManager);
+			table.open();
+
+			for (long i = 0; i < numElements; i++) {
+				table.insertOrReplaceRecord(new Tuple2<Long, String>(i, "0"));
+			}
+			assertTrue(table.getNumSpilledPartitions() > 0);
+
+			for (int superstep = 1; superstep <= numSupersteps; superstep++) {
+				// read the solution set, which loads every spilled partition once
+				BitSet bitSet = new BitSet(numElements);
+				MutableObjectIterator<Tuple2<Long, String>> iter = table.getEntryIterator();
+				Tuple2<Long, String> next;
+				while ((next = iter.next()) != null) {
+					assertEquals(String.valueOf(superstep - 1), next.f1);
+					bitSet.set(next.f0.intValue());
+				}
+				assertEquals(numElements, bitSet.cardinality());
+
+				for (long i = 0; i < numElements; i++) {
+					table.insertOrReplaceRecord(new Tuple2<Long, String>(i, String.valueOf(superstep)));
+				}
+
+				// the spill files hold at most the live records and the updates of this superstep
+				assertTrue("Outdated records were spilled in superstep " + superstep,
+						table.getNumSpilledRecords() <= 2 * numElements);
+			}
+
+			table.close();
+			assertEquals(NUM_SEGMENTS, table.getFreeMemory().size());
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+
+	// ------------------------------------------------------------------------
+	//  utilities
+	// ------------------------------------------------------------------------
+
+	private static String expectedValue(long key) {
+		return key % 2 == 0 ? "updated " + key : String.valueOf(key);
+	}
+
+	private static List<MemorySegment> getMemory(int numSegments, int segmentSize) {
+		ArrayList<MemorySegment> list = new ArrayList<MemorySegment>(numSegments);
+		for (int i = 0; i < numSegments; i++) {
+			list.add(MemorySegmentFactory.allocateUnpooledSegment(segmentSize));
+		}
+		return list;
+	}
+}
@@ -18,11 +18,18 @@
 
 package org.apache.flink.runtime.state;
 
+import org.apache.flink.api.common.typeutils.CompatibilityResult;
+import org.apache.flink.api.common.typeutils.ConvertDeserializer;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.TypeSerializerConfigSnapshot;
 import org.apache.flink.api.common.typeutils.base.FloatSerializer;
 import org.apache.flink.api.common.typeutils.base.IntSerializer;
 import org.apache.flink.api.common.typeutils.base.IntValueSerializer;
+import org.apache.flink.api.common.typeutils.base.LongSerializer;
 import org.apache.flink.api.common.typeutils.base.StringSerializer;
+import org.apache.flink.api.common.typeutils.base.TypeSerializerSingleton;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
 import org.apache.flink.api.java.typeutils.runtime.ValueSerializer;
 import org.apache.flink.runtime.state.memory.MemoryStateBackend;
 import org.apache.flink.types.IntValue;
@@ -217,6 +224,93 @@ public class MemoryStateBackendTest {
 		}
 	}
 
+	@Test
+	public void testRestoreWithMigratingSerializer() {
+		try {
+			MemoryStateBackend backend = new MemoryStateBackend();
+			KvState<Integer, Integer, MemoryStateBackend> kv =
+					backend.createKvState("s_0", "s", IntSerializer.INSTANCE, IntSerializer.INSTANCE, null);
+
+			kv.setCurrentKey(1);
+			kv.update(11);
+			kv.setCurrentKey(2);
+			kv.update(-22);
+
+			KvStateSnapshot<Integer, Integer, MemoryStateBackend> snapshot =
+					kv.snapshot(682375462378L, System.currentTimeMillis());
+
+			// restore the integer values as longs
+			@SuppressWarnings("unchecked")
+			KvStateSnapshot<Integer, Long, MemoryStateBackend> migratingSnapshot =
+					(KvStateSnapshot<Integer, Long, MemoryStateBackend>) (KvStateSnapshot<?, ?, ?>) snapshot;
+
+			KvState<Integer, Long, MemoryStateBackend> restored = migratingSnapshot.restoreState(backend,
+					IntSerializer.INSTANCE, IntToLongMigratingSerializer.INSTANCE, null, getClass().getClassLoader(), 1);
+
+			assertEquals(2, restored.size());
+			restored.setCurrentKey(1);
+			assertEquals(Long.valueOf(11L), restored.value());
+			restored.setCurrentKey(2);
+			assertEquals(Long.valueOf(-22L), restored.value());
+
+			// the restored state is written in the new format
+			KvStateSnapshot<Integer, Long, MemoryStateBackend> migratedSnapshot =
+					restored.snapshot(682375462379L, System.currentTimeMillis());
+			KvState<Integer, Long, MemoryStateBackend> restoredAgain = migratedSnapshot.restoreState(backend,
+					IntSerializer.INSTANCE, IntToLongMigratingSerializer.INSTANCE, null, getClass().getClassLoader(), 1);
+
+			restoredAgain.setCurrentKey(2);
+			assertEquals(Long.valueOf(-22L), restoredAgain.value());
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+
+	/**
+	 * Restores a snapshot, which was written before the serializer configurations were recorded in
+	 * the snapshot. It only contains the class names of the serializers.
+	 */
+	@Test
+	public void testRestoreLegacySnapshot() {
+		try (ObjectInputStream in = new ObjectInputStream(
+				getClass().getClassLoader().getResourceAsStream("memory-heap-kv-state-snapshot-legacy"))) {
+
+			MemoryStateBackend backend = new MemoryStateBackend();
+
+			@SuppressWarnings("unchecked")
+			KvStateSnapshot<Integer, String, MemoryStateBackend> snapshot =
+					(KvStateSnapshot<Integer, String, MemoryStateBackend>) in.readObject();
+
+			KvState<Integer, String, MemoryStateBackend> restored = snapshot.restoreState(backend,
+					IntSerializer.INSTANCE, StringSerializer.INSTANCE, null, getClass().getClassLoader(), 1);
+
+			assertEquals(2, restored.size());
+			restored.setCurrentKey(1);
+			assertEquals("Hello", restored.value());
+			restored.setCurrentKey(2);
+			assertEquals("World", restored.value());
+
+			// serializers of a different class are still rejected
+			@SuppressWarnings("unchecked")
+			KvStateSnapshot<Integer, StringValue, MemoryStateBackend> fakeSnapshot =
+					(KvStateSnapshot<Integer, StringValue, MemoryStateBackend>) (KvStateSnapshot<?, ?, ?>) snapshot;
+			try {
+				fakeSnapshot.restoreState(backend, IntSerializer.INSTANCE,
+						new ValueSerializer<StringValue>(StringValue.class), null, getClass().getClassLoader(), 1);
+				fail("should recognize wrong serializers");
+			}
+			catch (IllegalArgumentException e) {
+				// expected
+			}
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+
 	@Test
 	public void testRestoreWithWrongSerializers() {
 		try {
@@ -300,4 +394,83 @@ public class MemoryStateBackendTest {
 			fail(e.getMessage());
 		}
 	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * A long serializer that migrates data written by the {@link IntSerializer}.
+	 */
+	private static final class IntToLongMigratingSerializer extends TypeSerializerSingleton<Long> {
+
+		private static final long serialVersionUID = 1L;
+
+		static final IntToLongMigratingSerializer INSTANCE = new IntToLongMigratingSerializer();
+
+		private static final LongSerializer DELEGATE = LongSerializer.INSTANCE;
+
+		@Override
+		public CompatibilityResult<Long> ensureCompatibility(TypeSerializerConfigSnapshot configSnapshot) {
+			if (IntSerializer.class.getName().equals(configSnapshot.getSerializerClassName())) {
+				return CompatibilityResult.<Long>requiresMigration(new ConvertDeserializer<Long>(this) {
+					private static final long serialVersionUID = 1L;
+
+					@Override
+					public Long deserialize(DataInputView source) throws IOException {
+						return (long) source.readInt();
+					}
+				});
+			}
+			return super.ensureCompatibility(configSnapshot);
+		}
+
+		@Override
+		public boolean isImmutableType() {
+			return true;
+		}
+
+		@Override
+		public Long createInstance() {
+			return DELEGATE.createInstance();
+		}
+
+		@Override
+		public Long copy(Long from) {
+			return from;
+		}
+
+		@Override
+		public Long copy(Long from, Long reuse) {
+			return from;
+		}
+
+		@Override
+		public int getLength() {
+			return DELEGATE.getLength();
+		}
+
+		@Override
+		public void serialize(Long record, DataOutputView target) throws IOException {
+			DELEGATE.serialize(record, target);
+		}
+
+		@Override
+		public Long deserialize(DataInputView source) throws IOException {
+			return DELEGATE.deserialize(source);
+		}
+
+		@Override
+		public Long deserialize(Long reuse, DataInputView source) throws IOException {
+			return DELEGATE.deserialize(source);
+		}
+
+		@Override
+		public void copy(DataInputView source, DataOutputView target) throws IOException {
+			DELEGATE.copy(source, target);
+		}
+
+		@Override
+		public boolean canEqual(Object obj) {
+			return obj instanceof IntToLongMigratingSerializer;
+		}
+	}
 }
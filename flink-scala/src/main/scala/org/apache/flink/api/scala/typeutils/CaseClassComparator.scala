@@ -136,6 +136,9 @@ class CaseClassComparator[T <: Product](
           len = if (numBytes >= len) len else numBytes
           val comparator = comparators(i).asInstanceOf[TypeComparator[Any]]
           comparator.putNormalizedKey(value.productElement(keyPositions(i)), target, offset, len)
+          if (invertedNormalizedKeyFields(i)) {
+            invertNormalizedKeyBytes(target, offset, len)
+          }
           numBytes -= len
           offset += len
         }
@@ -0,0 +1,99 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.streaming.connectors.fs;
+
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Constants and encoding helpers that are shared by the {@link ColumnarBlockWriter} and the
+ * {@link ColumnarBlockInputFormat}.
+ *
+ * <p>
+ * A columnar block file is a sequence of self-contained blocks, there is no file header or footer.
+ * This allows the files to be truncated at any block boundary, which is what the
+ * {@link RollingSink} does when it restores from a checkpoint. Every block starts with a header:
+ *
+ * <pre>
+ *     int     magic number
+ *     int     number of rows
+ *     int     number of columns
+ *     for each column:
+ *         byte    encoding ({@link #ENCODING_PLAIN} or {@link #ENCODING_DICTIONARY})
+ *         byte    compression ({@link #COMPRESSION_NONE} or {@link #COMPRESSION_DEFLATE})
+ *         int     uncompressed length of the column chunk
+ *         int     stored length of the column chunk
+ *         boolean has min/max statistics
+ *         [int length, bytes min value, int length, bytes max value]
+ * </pre>
+ *
+ * The header is followed by the column chunks, in column order. A plain chunk contains all values,
+ * written with the serializer of the column. A dictionary chunk contains the number of distinct
+ * values and the distinct values, followed by run-length encoded dictionary ids: pairs of
+ * (run length, dictionary id), both written as variable length ints.
+ */
+final class ColumnarBlockFormat {
+
+	static final int MAGIC_NUMBER = 0x434F4C42;
+
+	static final byte ENCODING_PLAIN = 0;
+	static final byte ENCODING_DICTIONARY = 1;
+
+	static final byte COMPRESSION_NONE = 0;
+	static final byte COMPRESSION_DEFLATE = 1;
+
+	/**
+	 * Returns whether min/max statistics are kept for values of the given type. This is the case
+	 * for the basic types that have a natural order.
+	 */
+	static boolean hasStatistics(TypeInformation<?> type) {
+		return type instanceof BasicTypeInfo &&
+				Comparable.class.isAssignableFrom(type.getTypeClass());
+	}
+
+	static void writeVarInt(DataOutput out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	static int readVarInt(DataInput in) throws IOException {
+		int value = 0;
+		int shift = 0;
+		int b;
+		do {
+			b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return value;
+	}
+
+	// ------------------------------------------------------------------------
+
+	/** Private constructor to prevent instantiation. */
+	private ColumnarBlockFormat() {
+		throw new RuntimeException();
+	}
+}
@@ -0,0 +1,392 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.streaming.connectors.fs;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.io.FileInputFormat;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.tuple.Tuple;
+import org.apache.flink.api.java.typeutils.ResultTypeQueryable;
+import org.apache.flink.api.java.typeutils.TupleTypeInfo;
+import org.apache.flink.api.java.typeutils.TupleTypeInfoBase;
+import org.apache.flink.core.fs.FileInputSplit;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.core.memory.DataInputViewStreamWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static org.apache.flink.streaming.connectors.fs.ColumnarBlockFormat.COMPRESSION_DEFLATE;
+import static org.apache.flink.streaming.connectors.fs.ColumnarBlockFormat.COMPRESSION_NONE;
+import static org.apache.flink.streaming.connectors.fs.ColumnarBlockFormat.ENCODING_DICTIONARY;
+import static org.apache.flink.streaming.connectors.fs.ColumnarBlockFormat.ENCODING_PLAIN;
+import static org.apache.flink.streaming.connectors.fs.ColumnarBlockFormat.MAGIC_NUMBER;
+import static org.apache.flink.streaming.connectors.fs.ColumnarBlockFormat.readVarInt;
+
+/**
+ * A {@link FileInputFormat} that reads files that were written by the {@link ColumnarBlockWriter}.
+ *
+ * <p>
+ * The input format is created with the tuple type that was written to the files. Using
+ * {@link #selectFields(int...)} only a subset of the fields is read, the column chunks of all
+ * other fields are skipped without being decompressed or deserialized. Using
+ * {@link #addRangeFilter(int, Comparable, Comparable)} whole blocks are skipped if the minimum
+ * and maximum values that are stored for a field in the block header show that no row of
+ * the block falls into the given range. Note that the filters only prune blocks, rows of the
+ * blocks that are read are returned even if they do not match the filter.
+ *
+ * <p>
+ * Because the blocks have no sync markers the files are not split, each file is read by a
+ * single parallel instance. Files that start with {@code "_"} or {@code "."}, such as the
+ * in-progress and pending files of the sink, are not read.
+ *
+ * @param <OUT> The type of the produced tuples.
+ */
+public class ColumnarBlockInputFormat<OUT extends Tuple> extends FileInputFormat<OUT> implements ResultTypeQueryable<OUT> {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The type of the tuples that were written to the files.
+	 */
+	private final TupleTypeInfoBase<?> fileType;
+
+	/**
+	 * The positions of the fields of the file type that are read, in the order of the produced tuple.
+	 */
+	private int[] selectedFields;
+
+	private final List<RangeFilter> filters = new ArrayList<>();
+
+	private transient TypeSerializer<Object>[] fieldSerializers;
+
+	private transient DataInputViewStreamWrapper in;
+
+	private transient Inflater inflater;
+
+	private transient long end;
+
+	/**
+	 * The decoded columns of the current block, one for each selected field.
+	 */
+	private transient Object[][] columnValues;
+
+	private transient int numRowsInBlock;
+
+	private transient int currentRow;
+
+	private transient int numSkippedBlocks;
+
+	/**
+	 * Creates a new {@code ColumnarBlockInputFormat} that reads all fields of the given type.
+	 *
+	 * @param filePath The path of the file or directory to read.
+	 * @param fileType The tuple type that was written to the files.
+	 */
+	public ColumnarBlockInputFormat(Path filePath, TupleTypeInfoBase<?> fileType) {
+		super(filePath);
+		this.fileType = fileType;
+		this.unsplittable = true;
+
+		this.selectedFields = new int[fileType.getArity()];
+		for (int i = 0; i < selectedFields.length; i++) {
+			selectedFields[i] = i;
+		}
+	}
+
+	/**
+	 * Selects the fields that are read from the files. The produced tuples contain the selected
+	 * fields in the given order.
+	 *
+	 * @param fields The positions of the fields in the tuple type that was written.
+	 */
+	public ColumnarBlockInputFormat<OUT> selectFields(int... fields) {
+		if (fields == null || fields.length == 0 || fields.length > Tuple.MAX_ARITY) {
+			throw new IllegalArgumentException("Between 1 and " + Tuple.MAX_ARITY + " fields must be selected.");
+		}
+		for (int field : fields) {
+			if (field < 0 || field >= fileType.getArity()) {
+				throw new IllegalArgumentException("Field " + field + " does not exist in " + fileType + ".");
+			}
+		}
+		this.selectedFields = Arrays.copyOf(fields, fields.length);
+		return this;
+	}
+
+	/**
+	 * Adds a filter that skips all blocks in which no value of the given field lies within
+	 * {@code [min, max]}. The field must be of a basic type, either bound may be {@code null}.
+	 *
+	 * @param field The position of the field in the tuple type that was written.
+	 * @param min The inclusive lower bound, or {@code null}.
+	 * @param max The inclusive upper bound, or {@code null}.
+	 */
+	public <V extends Comparable<V>> ColumnarBlockInputFormat<OUT> addRangeFilter(int field, V min, V max) {
+		if (field < 0 || field >= fileType.getArity()) {
+			throw new IllegalArgumentException("Field " + field + " does not exist in " + fileType + ".");
+		}
+		if (!ColumnarBlockFormat.hasStatistics(fileType.getTypeAt(field))) {
+			throw new IllegalArgumentException("Field " + field + " is not of a basic type, blocks cannot be filtered by it.");
+		}
+		this.filters.add(new RangeFilter(field, min, max));
+		return this;
+	}
+
+	@Override
+	public TypeInformation<OUT> getProducedType() {
+		TypeInformation<?>[] types = new TypeInformation<?>[selectedFields.length];
+		for (int i = 0; i < selectedFields.length; i++) {
+			types[i] = fileType.getTypeAt(selectedFields[i]);
+		}
+		return new TupleTypeInfo<>(types);
+	}
+
+	// --------------------------------------------------------------------------------------------
+	// Input Format Methods
+	// --------------------------------------------------------------------------------------------
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void open(FileInputSplit split) throws IOException {
+		super.open(split);
+
+		// the job's config has the Kryo registrations and default serializers that the writer used
+		ExecutionConfig config = getRuntimeContext().getExecutionConfig();
+		fieldSerializers = new TypeSerializer[fileType.getArity()];
+		for (int i = 0; i < fieldSerializers.length; i++) {
+			TypeInformation<Object> fieldType = fileType.getTypeAt(i);
+			fieldSerializers[i] = fieldType.createSerializer(config);
+		}
+
+		in = new DataInputViewStreamWrapper(stream);
+		if (inflater == null) {
+			inflater = new Inflater();
+		}
+		end = splitStart + splitLength;
+		columnValues = new Object[selectedFields.length][];
+		numRowsInBlock = 0;
+		currentRow = 0;
+		numSkippedBlocks = 0;
+	}
+
+	@Override
+	public boolean reachedEnd() throws IOException {
+		return currentRow >= numRowsInBlock && !readNextBlock();
+	}
+
+	@Override
+	public OUT nextRecord(OUT reuse) throws IOException {
+		if (reachedEnd()) {
+			return null;
+		}
+		for (int i = 0; i < columnValues.length; i++) {
+			reuse.setField(columnValues[i][currentRow], i);
+		}
+		currentRow++;
+		return reuse;
+	}
+
+	@Override
+	public void close() throws IOException {
+		super.close();
+		if (inflater != null) {
+			inflater.end();
+			inflater = null;
+		}
+		columnValues = null;
+	}
+
+	/**
+	 * Reads the next block that is not skipped by a filter.
+	 *
+	 * @return False, if the end of the split has been reached.
+	 */
+	private boolean readNextBlock() throws IOException {
+		while (stream.getPos() < end) {
+			if (in.readInt() != MAGIC_NUMBER) {
+				throw new IOException("Corrupt columnar block file " + currentSplit.getPath() +
+						", no block starts at position " + (stream.getPos() - 4) + ".");
+			}
+			int numRows = in.readInt();
+			int numColumns = in.readInt();
+			if (numColumns != fieldSerializers.length) {
+				throw new IOException("The file " + currentSplit.getPath() + " contains " + numColumns +
+						" columns, but " + fileType + " has " + fieldSerializers.length + " fields.");
+			}
+
+			byte[] encodings = new byte[numColumns];
+			byte[] compressions = new byte[numColumns];
+			int[] uncompressedLengths = new int[numColumns];
+			int[] storedLengths = new int[numColumns];
+			boolean skipBlock = false;
+
+			for (int i = 0; i < numColumns; i++) {
+				encodings[i] = in.readByte();
+				compressions[i] = in.readByte();
+				uncompressedLengths[i] = in.readInt();
+				storedLengths[i] = in.readInt();
+				if (in.readBoolean()) {
+					Object min = readValue(fieldSerializers[i]);
+					Object max = readValue(fieldSerializers[i]);
+					for (RangeFilter filter : filters) {
+						if (filter.field == i && !filter.overlaps(min, max)) {
+							skipBlock = true;
+						}
+					}
+				}
+			}
+
+			long chunksStart = stream.getPos();
+			if (skipBlock) {
+				long blockLength = 0;
+				for (int storedLength : storedLengths) {
+					blockLength += storedLength;
+				}
+				stream.seek(chunksStart + blockLength);
+				numSkippedBlocks++;
+				continue;
+			}
+
+			long[] chunkOffsets = new long[numColumns];
+			long offset = chunksStart;
+			for (int i = 0; i < numColumns; i++) {
+				chunkOffsets[i] = offset;
+				offset += storedLengths[i];
+			}
+
+			for (int i = 0; i < selectedFields.length; i++) {
+				int field = selectedFields[i];
+				if (stream.getPos() != chunkOffsets[field]) {
+					stream.seek(chunkOffsets[field]);
+				}
+				byte[] chunk = new byte[storedLengths[field]];
+				in.readFully(chunk);
+				if (compressions[field] == COMPRESSION_DEFLATE) {
+					chunk = inflate(chunk, uncompressedLengths[field]);
+				} else if (compressions[field] != COMPRESSION_NONE) {
+					throw new IOException("Unknown compression " + compressions[field] + ".");
+				}
+				columnValues[i] = decodeColumn(chunk, encodings[field], numRows, fieldSerializers[field]);
+			}
+			// position the stream at the next block
+			if (stream.getPos() != offset) {
+				stream.seek(offset);
+			}
+
+			numRowsInBlock = numRows;
+			currentRow = 0;
+			return true;
+		}
+		return false;
+	}
+
+	private Object readValue(TypeSerializer<Object> serializer) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return serializer.deserialize(new DataInputViewStreamWrapper(new ByteArrayInputStream(bytes)));
+	}
+
+	private static Object[] decodeColumn(byte[] chunk, byte encoding, int numRows, TypeSerializer<Object> serializer) throws IOException {
+		DataInputViewStreamWrapper chunkIn = new DataInputViewStreamWrapper(new ByteArrayInputStream(chunk));
+		Object[] values = new Object[numRows];
+
+		if (encoding == ENCODING_PLAIN) {
+			for (int i = 0; i < numRows; i++) {
+				values[i] = serializer.deserialize(chunkIn);
+			}
+		} else if (encoding == ENCODING_DICTIONARY) {
+			Object[] dictionary = new Object[readVarInt(chunkIn)];
+			for (int i = 0; i < dictionary.length; i++) {
+				dictionary[i] = serializer.deserialize(chunkIn);
+			}
+			int row = 0;
+			while (row < numRows) {
+				int runLength = readVarInt(chunkIn);
+				Object value = dictionary[readVarInt(chunkIn)];
+				for (int i = 0; i < runLength; i++) {
+					// mutable values must not be shared between rows
+					values[row++] = i == 0 ? value : serializer.copy(value);
+				}
+			}
+		} else {
+			throw new IOException("Unknown encoding " + encoding + ".");
+		}
+		return values;
+	}
+
+	private byte[] inflate(byte[] data, int uncompressedLength) throws IOException {
+		inflater.reset();
+		inflater.setInput(data);
+		byte[] result = new byte[uncompressedLength];
+		try {
+			int len = 0;
+			while (len < uncompressedLength) {
+				int read = inflater.inflate(result, len, uncompressedLength - len);
+				if (read == 0 && (inflater.finished() || inflater.needsInput())) {
+					break;
+				}
+				len += read;
+			}
+			if (len != uncompressedLength) {
+				throw new IOException("Corrupt column chunk, expected " + uncompressedLength + " bytes but got " + len + ".");
+			}
+		} catch (DataFormatException e) {
+			throw new IOException("Corrupt column chunk.", e);
+		}
+		return result;
+	}
+
+	@VisibleForTesting
+	int getNumSkippedBlocks() {
+		return numSkippedBlocks;
+	}
+
+	// --------------------------------------------------------------------------------------------
+
+	/**
+	 * A filter on the range of values of a field. A block is skipped if the minimum and maximum value
+	 * of the field in the block do not overlap the range.
+	 */
+	private static final class RangeFilter implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		final int field;
+		final Comparable<Object> min;
+		final Comparable<Object> max;
+
+		@SuppressWarnings("unchecked")
+		RangeFilter(int field, Comparable<?> min, Comparable<?> max) {
+			this.field = field;
+			this.min = (Comparable<Object>) min;
+			this.max = (Comparable<Object>) max;
+		}
+
+		boolean overlaps(Object blockMin, Object blockMax) {
+			return (min == null || min.compareTo(blockMax) <= 0) &&
+					(max == null || max.compareTo(blockMin) >= 0);
+		}
+	}
+}
@@ -0,0 +1,345 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.streaming.connectors.fs;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.tuple.Tuple;
+import org.apache.flink.api.java.typeutils.InputTypeConfigurable;
+import org.apache.flink.api.java.typeutils.TupleTypeInfoBase;
+import org.apache.flink.core.memory.DataOutputViewStreamWrapper;
+import org.apache.hadoop.fs.FSDataOutputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+import static org.apache.flink.streaming.connectors.fs.ColumnarBlockFormat.COMPRESSION_DEFLATE;
+import static org.apache.flink.streaming.connectors.fs.ColumnarBlockFormat.COMPRESSION_NONE;
+import static org.apache.flink.streaming.connectors.fs.ColumnarBlockFormat.ENCODING_DICTIONARY;
+import static org.apache.flink.streaming.connectors.fs.ColumnarBlockFormat.ENCODING_PLAIN;
+import static org.apache.flink.streaming.connectors.fs.ColumnarBlockFormat.MAGIC_NUMBER;
+import static org.apache.flink.streaming.connectors.fs.ColumnarBlockFormat.writeVarInt;
+
+/**
+ * A {@link Writer} that writes the bucket files in a columnar block format. The input to the
+ * sink must be a {@link Tuple}. The files can be read with the {@link ColumnarBlockInputFormat}.
+ *
+ * <p>
+ * The writer buffers incoming rows in memory and writes them as one block once the block size
+ * (in number of rows) is reached, or when the writer is flushed. The sink flushes the writer
+ * on every checkpoint, so blocks never span a checkpoint boundary and a part file can always be
+ * truncated back to a complete block on recovery.
+ *
+ * <p>
+ * Within a block every field is stored as a separate column chunk. A column with few distinct
+ * values is dictionary encoded and the dictionary ids are run-length encoded, all other columns
+ * are stored plain. Column chunks are compressed with {@link Deflater} unless compression is
+ * disabled. For fields of a basic type, like {@code Long} or {@code String}, the minimum and
+ * maximum value of every column chunk is stored in the block header, this allows the
+ * {@code ColumnarBlockInputFormat} to skip blocks without reading them.
+ *
+ * <p>
+ * Example:
+ *
+ * <pre>{@code
+ *     new RollingSink<Tuple3<Long, String, Integer>>(outPath)
+ *         .setWriter(new ColumnarBlockWriter<Tuple3<Long, String, Integer>>().setBlockSize(64 * 1024))
+ * }</pre>
+ *
+ * @see ColumnarBlockInputFormat
+ *
+ * @param <T> The type of the tuples that are written.
+ */
+public class ColumnarBlockWriter<T extends Tuple> implements Writer<T>, InputTypeConfigurable {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The default number of rows per block.
+	 */
+	private static final int DEFAULT_BLOCK_SIZE = 16 * 1024;
+
+	/**
+	 * Columns with more distinct values than this in a block are not dictionary encoded.
+	 */
+	private static final int MAX_DICTIONARY_SIZE = 32 * 1024;
+
+	private int blockSize = DEFAULT_BLOCK_SIZE;
+
+	private boolean compress = true;
+
+	private TypeSerializer<Object>[] fieldSerializers;
+
+	private boolean[] fieldHasStatistics;
+
+	private transient FSDataOutputStream outputStream;
+
+	private transient List<Object>[] columns;
+
+	private transient int numBufferedRows;
+
+	private transient ByteArrayOutputStream chunkBuffer;
+
+	private transient Deflater deflater;
+
+	/**
+	 * Sets the number of rows that are buffered and written as one block. Larger blocks compress
+	 * better but take more memory, per open part file. The default is {@code 16384}.
+	 */
+	public ColumnarBlockWriter<T> setBlockSize(int blockSize) {
+		if (blockSize < 1) {
+			throw new IllegalArgumentException("The block size must be at least 1.");
+		}
+		this.blockSize = blockSize;
+		return this;
+	}
+
+	/**
+	 * Disables the compression of column chunks.
+	 */
+	public ColumnarBlockWriter<T> disableCompression() {
+		this.compress = false;
+		return this;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void open(FSDataOutputStream outStream) throws IOException {
+		if (outputStream != null) {
+			throw new IllegalStateException("ColumnarBlockWriter has already been opened.");
+		}
+		if (fieldSerializers == null) {
+			throw new IllegalStateException("Input type has not been initialized.");
+		}
+
+		this.outputStream = outStream;
+
+		this.columns = new List[fieldSerializers.length];
+		for (int i = 0; i < columns.length; i++) {
+			columns[i] = new ArrayList<>();
+		}
+		this.numBufferedRows = 0;
+		this.chunkBuffer = new ByteArrayOutputStream();
+		if (compress) {
+			this.deflater = new Deflater();
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		if (outputStream != null && numBufferedRows > 0) {
+			writeBlock();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		flush();
+		if (deflater != null) {
+			deflater.end();
+			deflater = null;
+		}
+		columns = null;
+		chunkBuffer = null;
+		outputStream = null;
+	}
+
+	@Override
+	public void write(T element) throws IOException {
+		if (outputStream == null) {
+			throw new IllegalStateException("ColumnarBlockWriter has not been opened.");
+		}
+		for (int i = 0; i < columns.length; i++) {
+			// the element might be reused by the caller
+			columns[i].add(fieldSerializers[i].copy(element.getField(i)));
+		}
+		if (++numBufferedRows >= blockSize) {
+			writeBlock();
+		}
+	}
+
+	private void writeBlock() throws IOException {
+		int numColumns = columns.length;
+
+		byte[][] chunks = new byte[numColumns][];
+		byte[] encodings = new byte[numColumns];
+		int[] uncompressedLengths = new int[numColumns];
+
+		for (int i = 0; i < numColumns; i++) {
+			chunkBuffer.reset();
+			DataOutputViewStreamWrapper chunkOut = new DataOutputViewStreamWrapper(chunkBuffer);
+			encodings[i] = encodeColumn(columns[i], fieldSerializers[i], chunkOut);
+			chunkOut.flush();
+
+			byte[] chunk = chunkBuffer.toByteArray();
+			uncompressedLengths[i] = chunk.length;
+			chunks[i] = compress ? deflate(chunk) : chunk;
+		}
+
+		outputStream.writeInt(MAGIC_NUMBER);
+		outputStream.writeInt(numBufferedRows);
+		outputStream.writeInt(numColumns);
+		for (int i = 0; i < numColumns; i++) {
+			outputStream.writeByte(encodings[i]);
+			outputStream.writeByte(compress ? COMPRESSION_DEFLATE : COMPRESSION_NONE);
+			outputStream.writeInt(uncompressedLengths[i]);
+			outputStream.writeInt(chunks[i].length);
+			outputStream.writeBoolean(fieldHasStatistics[i]);
+			if (fieldHasStatistics[i]) {
+				writeStatistics(columns[i], fieldSerializers[i]);
+			}
+		}
+		for (int i = 0; i < numColumns; i++) {
+			outputStream.write(chunks[i]);
+		}
+
+		for (List<Object> column : columns) {
+			column.clear();
+		}
+		numBufferedRows = 0;
+	}
+
+	/**
+	 * Writes the given column values either dictionary encoded or plain and returns the
+	 * used encoding.
+	 */
+	private static byte encodeColumn(List<Object> values, TypeSerializer<Object> serializer, DataOutputViewStreamWrapper out) throws IOException {
+		int numValues = values.size();
+
+		// try to build a dictionary, this only pays off if values repeat
+		int maxDictionarySize = Math.min(MAX_DICTIONARY_SIZE, numValues / 2);
+		Map<Object, Integer> dictionary = new HashMap<>();
+		List<Object> distinctValues = new ArrayList<>();
+		int[] ids = new int[numValues];
+
+		for (int i = 0; i < numValues && dictionary.size() <= maxDictionarySize; i++) {
+			Object value = values.get(i);
+			Integer id = dictionary.get(value);
+			if (id == null) {
+				id = distinctValues.size();
+				dictionary.put(value, id);
+				distinctValues.add(value);
+			}
+			ids[i] = id;
+		}
+
+		if (dictionary.size() > maxDictionarySize) {
+			for (Object value : values) {
+				serializer.serialize(value, out);
+			}
+			return ENCODING_PLAIN;
+		}
+
+		writeVarInt(out, distinctValues.size());
+		for (Object value : distinctValues) {
+			serializer.serialize(value, out);
+		}
+
+		int runStart = 0;
+		while (runStart < numValues) {
+			int runEnd = runStart + 1;
+			while (runEnd < numValues && ids[runEnd] == ids[runStart]) {
+				runEnd++;
+			}
+			writeVarInt(out, runEnd - runStart);
+			writeVarInt(out, ids[runStart]);
+			runStart = runEnd;
+		}
+		return ENCODING_DICTIONARY;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void writeStatistics(List<Object> values, TypeSerializer<Object> serializer) throws IOException {
+		Comparable<Object> min = null;
+		Comparable<Object> max = null;
+		for (Object value : values) {
+			Comparable<Object> comparable = (Comparable<Object>) value;
+			if (min == null || comparable.compareTo(min) < 0) {
+				min = comparable;
+			}
+			if (max == null || comparable.compareTo(max) > 0) {
+				max = comparable;
+			}
+		}
+		writeValue(min, serializer);
+		writeValue(max, serializer);
+	}
+
+	private void writeValue(Object value, TypeSerializer<Object> serializer) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputViewStreamWrapper out = new DataOutputViewStreamWrapper(bytes);
+		serializer.serialize(value, out);
+		out.flush();
+
+		outputStream.writeInt(bytes.size());
+		bytes.writeTo(outputStream);
+	}
+
+	private byte[] deflate(byte[] data) {
+		deflater.reset();
+		deflater.setInput(data);
+		deflater.finish();
+
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, data.length / 2));
+		byte[] buffer = new byte[4096];
+		while (!deflater.finished()) {
+			int len = deflater.deflate(buffer);
+			compressed.write(buffer, 0, len);
+		}
+		return compressed.toByteArray();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void setInputType(TypeInformation<?> type, ExecutionConfig executionConfig) {
+		if (!type.isTupleType()) {
+			throw new IllegalArgumentException("Input TypeInformation is not a tuple type.");
+		}
+
+		TupleTypeInfoBase<?> tupleType = (TupleTypeInfoBase<?>) type;
+
+		this.fieldSerializers = new TypeSerializer[tupleType.getArity()];
+		this.fieldHasStatistics = new boolean[tupleType.getArity()];
+		for (int i = 0; i < tupleType.getArity(); i++) {
+			TypeInformation<Object> fieldType = tupleType.getTypeAt(i);
+			this.fieldSerializers[i] = fieldType.createSerializer(executionConfig);
+			this.fieldHasStatistics[i] = ColumnarBlockFormat.hasStatistics(fieldType);
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Writer<T> duplicate() {
+		ColumnarBlockWriter<T> result = new ColumnarBlockWriter<>();
+		result.blockSize = blockSize;
+		result.compress = compress;
+		if (fieldSerializers != null) {
+			result.fieldSerializers = new TypeSerializer[fieldSerializers.length];
+			for (int i = 0; i < fieldSerializers.length; i++) {
+				result.fieldSerializers[i] = fieldSerializers[i].duplicate();
+			}
+			result.fieldHasStatistics = fieldHasStatistics;
+		}
+		return result;
+	}
+}
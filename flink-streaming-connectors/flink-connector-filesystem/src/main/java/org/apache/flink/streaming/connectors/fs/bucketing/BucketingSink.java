@@ -0,0 +1,1205 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.streaming.connectors.fs.bucketing;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.commons.lang3.time.StopWatch;
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.java.typeutils.InputTypeConfigurable;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.streaming.api.checkpoint.CheckpointNotifier;
+import org.apache.flink.streaming.api.checkpoint.Checkpointed;
+import org.apache.flink.streaming.api.functions.sink.RichSinkFunction;
+import org.apache.flink.streaming.api.operators.StreamingRuntimeContext;
+import org.apache.flink.streaming.connectors.fs.Clock;
+import org.apache.flink.streaming.connectors.fs.SequenceFileWriter;
+import org.apache.flink.streaming.connectors.fs.StringWriter;
+import org.apache.flink.streaming.connectors.fs.SystemClock;
+import org.apache.flink.streaming.connectors.fs.Writer;
+import org.apache.flink.streaming.runtime.operators.Triggerable;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocatedFileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RemoteIterator;
+import org.apache.hadoop.hdfs.DistributedFileSystem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Sink that emits its input elements to {@link org.apache.hadoop.fs.FileSystem} files within
+ * buckets. This is integrated with the checkpointing mechanism to provide exactly once semantics.
+ *
+ * <p>
+ * Unlike the {@link org.apache.flink.streaming.connectors.fs.RollingSink}, which only ever has one
+ * bucket open and closes its part file whenever the bucket changes, this sink keeps one part file
+ * open per active bucket. Elements that alternate between buckets (for example out-of-order data or
+ * data that is bucketed by a field such as a customer id) are therefore appended to the already open
+ * part files instead of closing and re-opening files for every bucket change.
+ *
+ * <p>
+ * When creating the sink a {@code basePath} must be specified. The base directory contains
+ * one directory for every bucket. The bucket directories themselves contain several part files,
+ * one for each parallel subtask of the sink. These part files contain the actual output data.
+ *
+ * <p>
+ * The sink uses a {@link Bucketer} to determine in which bucket directory each element should
+ * be written to inside the base directory. The {@code Bucketer} can, for example, use time or
+ * a property of the element to determine the bucket directory. The default {@code Bucketer} is a
+ * {@link DateTimeBucketer} which will create one new bucket every hour. You can specify
+ * a custom {@code Bucketer} using {@link #setBucketer(Bucketer)}. For example, use the
+ * {@link BasePathBucketer} if you don't want to have buckets but still want to write part-files
+ * in a fault-tolerant way.
+ *
+ * <p>
+ * The filenames of the part files contain the part prefix, the parallel subtask index of the sink
+ * and a rolling counter, for example {@code "part-1-17"}. Per default the part prefix is
+ * {@code "part"} but this can be configured using {@link #setPartPrefix(String)}. When a part file
+ * becomes bigger than the user-specified batch size the current part file is closed, the part
+ * counter is increased and a new part file is created. The batch size defaults to {@code 384MB},
+ * this can be configured using {@link #setBatchSize(long)}.
+ *
+ * <p>
+ * A bucket that has not been written to for a while is considered inactive and its part file
+ * is closed. The sink checks for inactive buckets every {@code 60 seconds} and closes the part
+ * files of all buckets that have not been written to in the last {@code 60 seconds}. Both values
+ * can be configured using {@link #setInactiveBucketCheckInterval(long)} and
+ * {@link #setInactiveBucketThreshold(long)}. In addition, the number of part files that are open
+ * at the same time is bounded by {@link #setMaxOpenBuckets(int)}. When a new part file would
+ * exceed that bound, the part file of the least recently written bucket is closed first.
+ *
+ * <p>
+ * Part files can be in one of three states: in-progress, pending or finished. The reason for this
+ * is how the sink works together with the checkpointing mechanism to provide exactly-once semantics
+ * and fault-tolerance. The part file that is currently being written to is in-progress. Once
+ * a part file is closed for writing it becomes pending. When a checkpoint is successful the
+ * currently pending files will be moved to finished. If a failure occurs the pending files
+ * will be deleted to reset state to the last checkpoint. The data in in-progress files will
+ * also have to be rolled back. If the {@code FileSystem} supports the {@code truncate} call
+ * this will be used to reset the file back to a previous state. If not, a special file
+ * with the same name as the part file and the suffix {@code ".valid-length"} will be written
+ * that contains the length up to which the file contains valid data. When reading the file
+ * it must be ensured that it is only read up to that point. The prefixes and suffixes for
+ * the different file states and valid-length files can be configured, for example with
+ * {@link #setPendingSuffix(String)}. The pending and in-progress files are tracked per bucket
+ * in the checkpointed state.
+ *
+ * <p>
+ * Note: If checkpointing is not enabled the pending files will never be moved to the finished state.
+ * In that case, the pending suffix/prefix can be set to {@code ""} to make the sink work
+ * in a non-fault-tolerant way but still provide output without prefixes and suffixes.
+ *
+ * <p>
+ * The part files are written using an instance of {@link Writer}. By default
+ * {@link StringWriter} is used, which writes the result of {@code toString()} for every element,
+ * separated by newlines. You can configure the writer using {@link #setWriter(Writer)}. For example,
+ * {@link SequenceFileWriter} can be used to write Hadoop {@code SequenceFiles}. Every open bucket
+ * uses its own duplicate of the configured writer.
+ *
+ * <p>
+ * Example:
+ *
+ * <pre>{@code
+ *     new BucketingSink<Tuple2<IntWritable, Text>>(outPath)
+ *         .setWriter(new SequenceFileWriter<IntWritable, Text>())
+ *         .setBucketer(new DateTimeBucketer<Tuple2<IntWritable, Text>>("yyyy-MM-dd--HHmm")
+ * }</pre>
+ *
+ * This will create a sink that writes to {@code SequenceFiles} and rolls every minute.
+ *
+ * @see DateTimeBucketer
+ * @see StringWriter
+ * @see SequenceFileWriter
+ *
+ * @param <T> Type of the elements emitted by this sink
+ */
+public class BucketingSink<T>
+		extends RichSinkFunction<T>
+		implements InputTypeConfigurable, Checkpointed<BucketingSink.State<T>>, CheckpointNotifier, Triggerable {
+
+	private static final long serialVersionUID = 1L;
+
+	private static Logger LOG = LoggerFactory.getLogger(BucketingSink.class);
+
+	// --------------------------------------------------------------------------------------------
+	//  User configuration values
+	// --------------------------------------------------------------------------------------------
+	// These are initialized with some defaults but are meant to be changeable by the user
+
+	/**
+	 * The default maximum size of part files.
+	 *
+	 * 6 times the default block size
+	 */
+	private final long DEFAULT_BATCH_SIZE = 1024L * 1024L * 384L;
+
+	/**
+	 * The default time between checks for inactive buckets.
+	 */
+	private final long DEFAULT_INACTIVE_BUCKET_CHECK_INTERVAL_MS = 60 * 1000L;
+
+	/**
+	 * The default threshold for marking a bucket as inactive and closing its part files.
+	 * Buckets which haven't been written to for at least this period of time become inactive.
+	 */
+	private final long DEFAULT_INACTIVE_BUCKET_THRESHOLD_MS = 60 * 1000L;
+
+	/**
+	 * The default maximum number of part files that are open at the same time.
+	 */
+	private final int DEFAULT_MAX_OPEN_BUCKETS = 64;
+
+	/**
+	 * This is used for part files that we are writing to but which where not yet confirmed
+	 * by a checkpoint.
+	 */
+	private final String DEFAULT_IN_PROGRESS_SUFFIX = ".in-progress";
+
+	/**
+	 * See above, but for prefix
+	 */
+	private final String DEFAULT_IN_PROGRESS_PREFIX = "_";
+
+	/**
+	 * This is used for part files that we are not writing to but which are not yet confirmed by
+	 * checkpoint.
+	 */
+	private final String DEFAULT_PENDING_SUFFIX = ".pending";
+
+	/**
+	 * See above, but for prefix.
+	 */
+	private final String DEFAULT_PENDING_PREFIX = "_";
+
+	/**
+	 * When truncate() is not supported on the used FileSystem we instead write a
+	 * file along the part file with this ending that contains the length up to which
+	 * the part file is valid.
+	 */
+	private final String DEFAULT_VALID_SUFFIX = ".valid-length";
+
+	/**
+	 * See above, but for prefix.
+	 */
+	private final String DEFAULT_VALID_PREFIX = "_";
+
+	/**
+	 * The default prefix for part files.
+	 */
+	private final String DEFAULT_PART_REFIX = "part";
+
+	/**
+	 * The default timeout for asynchronous operations such as recoverLease and truncate. In
+	 * milliseconds.
+	 */
+	private final long DEFAULT_ASYNC_TIMEOUT_MS = 60 * 1000;
+
+
+	/**
+	 * The base {@code Path} that stores all bucket directories.
+	 */
+	private final String basePath;
+
+	/**
+	 * The {@code Bucketer} that is used to determine the path of bucket directories.
+	 */
+	private Bucketer<T> bucketer;
+
+	/**
+	 * We have a template and call duplicate() for each bucket to get the actual
+	 * writer that is used for the part files of that bucket.
+	 */
+	private Writer<T> writerTemplate;
+
+	/**
+	 * Maximum size of part files. If files exceed this we close and create a new one in the same
+	 * bucket directory.
+	 */
+	private long batchSize;
+
+	/**
+	 * The time between checks for inactive buckets, in milliseconds.
+	 */
+	private long inactiveBucketCheckInterval;
+
+	/**
+	 * The time after which a bucket that has not been written to is considered inactive,
+	 * in milliseconds.
+	 */
+	private long inactiveBucketThreshold;
+
+	/**
+	 * The maximum number of part files that are open at the same time.
+	 */
+	private int maxOpenBuckets;
+
+	/**
+	 * If this is true we remove any leftover in-progress/pending files when the sink is opened.
+	 *
+	 * <p>
+	 * This should only be set to false if using the sink without checkpoints, to not remove
+	 * the files already in the directory.
+	 */
+	private boolean cleanupOnOpen = true;
+
+	// These are the actually configured prefixes/suffixes
+	private String inProgressSuffix = DEFAULT_IN_PROGRESS_SUFFIX;
+	private String inProgressPrefix = DEFAULT_IN_PROGRESS_PREFIX;
+
+	private String pendingSuffix = DEFAULT_PENDING_SUFFIX;
+	private String pendingPrefix = DEFAULT_PENDING_PREFIX;
+
+	private String validLengthSuffix = DEFAULT_VALID_SUFFIX;
+	private String validLengthPrefix= DEFAULT_VALID_PREFIX;
+
+	private String partPrefix = DEFAULT_PART_REFIX;
+
+	/**
+	 * The timeout for asynchronous operations such as recoverLease and truncate. In
+	 * milliseconds.
+	 */
+	private long asyncTimeout = DEFAULT_ASYNC_TIMEOUT_MS;
+
+	// --------------------------------------------------------------------------------------------
+	//  Internal fields (not configurable by user)
+	// --------------------------------------------------------------------------------------------
+
+	/**
+	 * Our subtask index, retrieved from the {@code RuntimeContext} in {@link #open}.
+	 */
+	private transient int subtaskIndex;
+
+	/**
+	 * The {@code FileSystem} of the base path, retrieved in {@link #open} or {@link #restoreState}.
+	 */
+	private transient FileSystem fs;
+
+	/**
+	 * The clock that is used for the bucketer and for determining inactive buckets.
+	 */
+	private transient Clock clock;
+
+	/**
+	 * The time of the last check for inactive buckets.
+	 */
+	private transient long lastInactiveBucketCheck;
+
+	/**
+	 * The buckets that currently have an open part file, in the order in which they were
+	 * last written to. The first entry is the least recently written bucket.
+	 */
+	private transient LinkedHashMap<String, BucketState<T>> openBuckets;
+
+	/**
+	 * We use reflection to get the hflush method or use sync as a fallback.
+	 * The idea for this and the code comes from the Flume HDFS Sink.
+	 */
+	private transient Method refHflushOrSync;
+
+	/**
+	 * We use reflection to get the .truncate() method, this is only available starting with
+	 * Hadoop 2.7
+	 */
+	private transient Method refTruncate;
+
+	/**
+	 * The state object that is handled by Flink from snapshot/restore. This contains state for
+	 * every open bucket: the current in-progress part file path, its valid length and the pending
+	 * part files.
+	 */
+	private transient State<T> state;
+
+	/**
+	 * Creates a new {@code BucketingSink} that writes files to the given base directory.
+	 *
+	 * <p>
+	 * This uses a {@link DateTimeBucketer} as bucketer and a {@link StringWriter} has writer.
+	 * The maximum bucket size is set to 384 MB.
+	 *
+	 * @param basePath The directory to which to write the bucket files.
+	 */
+	public BucketingSink(String basePath) {
+		this.basePath = basePath;
+		this.bucketer = new DateTimeBucketer<>();
+		this.batchSize = DEFAULT_BATCH_SIZE;
+		this.inactiveBucketCheckInterval = DEFAULT_INACTIVE_BUCKET_CHECK_INTERVAL_MS;
+		this.inactiveBucketThreshold = DEFAULT_INACTIVE_BUCKET_THRESHOLD_MS;
+		this.maxOpenBuckets = DEFAULT_MAX_OPEN_BUCKETS;
+		this.writerTemplate = new StringWriter<>();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void setInputType(TypeInformation<?> type, ExecutionConfig executionConfig) {
+		if (this.writerTemplate instanceof InputTypeConfigurable) {
+			((InputTypeConfigurable) writerTemplate).setInputType(type, executionConfig);
+		}
+	}
+
+	@Override
+	public void open(Configuration parameters) throws Exception {
+		super.open(parameters);
+
+		subtaskIndex = getRuntimeContext().getIndexOfThisSubtask();
+
+		if (state == null) {
+			state = new State<>();
+		}
+		if (clock == null) {
+			clock = new SystemClock();
+		}
+		openBuckets = new LinkedHashMap<>(16, 0.75f, true);
+
+		initFileSystem();
+		refTruncate = reflectTruncate(fs);
+
+		// delete pending/in-progress files that might be left if we fail while
+		// no checkpoint has yet been done
+		if (cleanupOnOpen) {
+			try {
+				if (fs.exists(new Path(basePath))) {
+					deleteLeftoverFiles();
+				}
+			} catch (IOException e) {
+				LOG.error("Error while deleting leftover pending/in-progress files: {}", e);
+				throw new RuntimeException("Error while deleting leftover pending/in-progress files.", e);
+			}
+		}
+
+		lastInactiveBucketCheck = clock.currentTimeMillis();
+		if (getRuntimeContext() instanceof StreamingRuntimeContext) {
+			((StreamingRuntimeContext) getRuntimeContext()).registerTimer(
+					lastInactiveBucketCheck + inactiveBucketCheckInterval, this);
+		}
+	}
+
+	@Override
+	public void close() throws Exception {
+		if (openBuckets != null) {
+			for (BucketState<T> bucketState : new ArrayList<>(openBuckets.values())) {
+				closeCurrentPartFile(bucketState);
+			}
+		}
+	}
+
+	@Override
+	public void invoke(T value) throws Exception {
+		Path bucketPath = bucketer.getBucketPath(clock, new Path(basePath), value);
+
+		BucketState<T> bucketState = state.getBucketState(bucketPath);
+		if (bucketState == null) {
+			bucketState = new BucketState<>(bucketPath.toString());
+			state.addBucketState(bucketState);
+		}
+
+		if (shouldRoll(bucketState)) {
+			openNewPartFile(bucketPath, bucketState);
+		} else {
+			// touch the bucket to move it to the end of the LRU order
+			openBuckets.get(bucketState.bucketPath);
+		}
+
+		long currentTime = clock.currentTimeMillis();
+		bucketState.writer.write(value);
+		bucketState.lastWrittenToTime = currentTime;
+
+		// the timer only fires if the task is idle between elements, for busy tasks
+		// we also check whenever the check interval has elapsed
+		if (currentTime - lastInactiveBucketCheck >= inactiveBucketCheckInterval) {
+			closeInactiveBuckets(currentTime);
+		}
+	}
+
+	@Override
+	public void trigger(long timestamp) throws Exception {
+		long currentTime = clock.currentTimeMillis();
+		closeInactiveBuckets(currentTime);
+
+		((StreamingRuntimeContext) getRuntimeContext()).registerTimer(
+				currentTime + inactiveBucketCheckInterval, this);
+	}
+
+	/**
+	 * Determines whether we should change the part file of the given bucket.
+	 *
+	 * <p>
+	 * This will roll if no file was created yet in the bucket or if the file size is larger
+	 * than the specified size.
+	 */
+	private boolean shouldRoll(BucketState<T> bucketState) throws IOException {
+		boolean shouldRoll = false;
+		if (bucketState.outStream == null) {
+			shouldRoll = true;
+			LOG.debug("BucketingSink {} starting new part file in bucket {}.", subtaskIndex, bucketState.bucketPath);
+		} else {
+			long writePosition = bucketState.outStream.getPos();
+			if (writePosition > batchSize) {
+				shouldRoll = true;
+				LOG.debug(
+						"BucketingSink {} starting new part file in bucket {} because file position {} is above batch size {}.",
+						subtaskIndex,
+						bucketState.bucketPath,
+						writePosition,
+						batchSize);
+			}
+		}
+		return shouldRoll;
+	}
+
+	/**
+	 * Closes the part files of all buckets that have not been written to for at least
+	 * the inactive bucket threshold.
+	 */
+	private void closeInactiveBuckets(long currentTime) throws Exception {
+		lastInactiveBucketCheck = currentTime;
+
+		List<BucketState<T>> inactiveBuckets = new ArrayList<>();
+		for (BucketState<T> bucketState : openBuckets.values()) {
+			if (bucketState.lastWrittenToTime < currentTime - inactiveBucketThreshold) {
+				inactiveBuckets.add(bucketState);
+			}
+		}
+		for (BucketState<T> bucketState : inactiveBuckets) {
+			LOG.debug("BucketingSink {} closing bucket {} due to inactivity.", subtaskIndex, bucketState.bucketPath);
+			closeCurrentPartFile(bucketState);
+		}
+	}
+
+	/**
+	 * Opens a new part file in the given bucket.
+	 *
+	 * <p>
+	 * This closes the old part file of the bucket, if any. If this would exceed the maximum number
+	 * of open part files the part file of the least recently written bucket is closed as well.
+	 */
+	private void openNewPartFile(Path bucketPath, BucketState<T> bucketState) throws Exception {
+		closeCurrentPartFile(bucketState);
+
+		if (openBuckets.size() >= maxOpenBuckets) {
+			BucketState<T> leastRecentlyUsed = openBuckets.values().iterator().next();
+			LOG.debug("BucketingSink {} closing bucket {} because there are already {} open buckets.",
+					subtaskIndex, leastRecentlyUsed.bucketPath, openBuckets.size());
+			closeCurrentPartFile(leastRecentlyUsed);
+		}
+
+		if (!fs.exists(bucketPath)) {
+			try {
+				if (fs.mkdirs(bucketPath)) {
+					LOG.debug("Created new bucket directory: {}", bucketPath);
+				}
+			} catch (IOException e) {
+				throw new RuntimeException("Could not create new bucket path.", e);
+			}
+		}
+
+		Path partPath = new Path(bucketPath, partPrefix + "-" + subtaskIndex + "-" + bucketState.partCounter);
+
+		// This should work since there is only one parallel subtask that tries names with
+		// our subtask id. Otherwise we would run into concurrency issues here.
+		while (fs.exists(partPath) || fs.exists(getPendingPathFor(partPath))) {
+			bucketState.partCounter++;
+			partPath = new Path(bucketPath, partPrefix + "-" + subtaskIndex + "-" + bucketState.partCounter);
+		}
+
+		// increase, so we don't have to check for this name next time
+		bucketState.partCounter++;
+
+		LOG.debug("Next part path is {}", partPath.toString());
+		bucketState.currentFile = partPath.toString();
+
+		bucketState.outStream = fs.create(getInProgressPathFor(partPath), false);
+
+		// We do the reflection here since this is the first time that we have a FSDataOutputStream
+		if (refHflushOrSync == null) {
+			refHflushOrSync = reflectHflushOrSync(bucketState.outStream);
+		}
+
+		if (bucketState.writer == null) {
+			bucketState.writer = writerTemplate.duplicate();
+		}
+		bucketState.writer.open(bucketState.outStream);
+
+		openBuckets.put(bucketState.bucketPath, bucketState);
+	}
+
+	/**
+	 * Closes the current part file of the given bucket.
+	 *
+	 * <p>
+	 * This moves the current in-progress part file to a pending file and adds it to the list
+	 * of pending files in the state of the bucket.
+	 */
+	private void closeCurrentPartFile(BucketState<T> bucketState) throws Exception {
+		if (bucketState.outStream != null) {
+			bucketState.writer.close();
+
+			hflushOrSync(bucketState.outStream);
+			bucketState.outStream.close();
+			bucketState.outStream = null;
+		}
+		if (bucketState.currentFile != null) {
+			Path currentPartPath = new Path(bucketState.currentFile);
+			Path inProgressPath = getInProgressPathFor(currentPartPath);
+			Path pendingPath = getPendingPathFor(currentPartPath);
+
+			fs.rename(inProgressPath, pendingPath);
+			LOG.debug("Moving in-progress bucket {} to pending file {}",
+					inProgressPath,
+					pendingPath);
+			bucketState.pendingFiles.add(currentPartPath.toString());
+			bucketState.currentFile = null;
+			bucketState.currentFileValidLength = -1;
+		}
+		openBuckets.remove(bucketState.bucketPath);
+	}
+
+	private Path getPendingPathFor(Path path) {
+		return new Path(path.getParent(), pendingPrefix + path.getName()).suffix(pendingSuffix);
+	}
+
+	private Path getInProgressPathFor(Path path) {
+		return new Path(path.getParent(), inProgressPrefix + path.getName()).suffix(inProgressSuffix);
+	}
+
+	private Path getValidLengthPathFor(Path path) {
+		return new Path(path.getParent(), validLengthPrefix + path.getName()).suffix(validLengthSuffix);
+	}
+
+	private void initFileSystem() throws IOException {
+		if (fs == null) {
+			fs = new Path(basePath).getFileSystem(new org.apache.hadoop.conf.Configuration());
+		}
+	}
+
+	/**
+	 * Deletes the pending and in-progress files of this subtask that might be left over from
+	 * a previous, failed, execution.
+	 */
+	private void deleteLeftoverFiles() throws IOException {
+		RemoteIterator<LocatedFileStatus> bucketFiles = fs.listFiles(new Path(basePath), true);
+
+		while (bucketFiles.hasNext()) {
+			LocatedFileStatus file = bucketFiles.next();
+			if (file.getPath().toString().endsWith(pendingSuffix)) {
+				// only delete files that contain our subtask index
+				if (file.getPath().toString().contains(partPrefix + "-" + subtaskIndex + "-")) {
+					LOG.debug("Deleting leftover pending file {}", file.getPath().toString());
+					fs.delete(file.getPath(), true);
+				}
+			}
+			if (file.getPath().toString().endsWith(inProgressSuffix)) {
+				// only delete files that contain our subtask index
+				if (file.getPath().toString().contains(partPrefix + "-" + subtaskIndex + "-")) {
+					LOG.debug("Deleting leftover in-progress file {}", file.getPath().toString());
+					fs.delete(file.getPath(), true);
+				}
+			}
+		}
+	}
+
+	/**
+	 * If hflush is available in this version of HDFS, then this method calls
+	 * hflush, else it calls sync.
+	 * @param os - The stream to flush/sync
+	 * @throws java.io.IOException
+	 *
+	 * <p>
+	 * Note: This code comes from Flume
+	 */
+	protected void hflushOrSync(FSDataOutputStream os) throws IOException {
+		try {
+			// At this point the refHflushOrSync cannot be null,
+			// since register method would have thrown if it was.
+			this.refHflushOrSync.invoke(os);
+		} catch (InvocationTargetException e) {
+			String msg = "Error while trying to hflushOrSync!";
+			LOG.error(msg + " " + e.getCause());
+			Throwable cause = e.getCause();
+			if(cause != null && cause instanceof IOException) {
+				throw (IOException)cause;
+			}
+			throw new RuntimeException(msg, e);
+		} catch (Exception e) {
+			String msg = "Error while trying to hflushOrSync!";
+			LOG.error(msg + " " + e);
+			throw new RuntimeException(msg, e);
+		}
+	}
+
+	/**
+	 * Gets the hflush call using reflection. Fallback to sync if hflush is not available.
+	 *
+	 * <p>
+	 * Note: This code comes from Flume
+	 */
+	private Method reflectHflushOrSync(FSDataOutputStream os) {
+		Method m = null;
+		if(os != null) {
+			Class<?> fsDataOutputStreamClass = os.getClass();
+			try {
+				m = fsDataOutputStreamClass.getMethod("hflush");
+			} catch (NoSuchMethodException ex) {
+				LOG.debug("HFlush not found. Will use sync() instead");
+				try {
+					m = fsDataOutputStreamClass.getMethod("sync");
+				} catch (Exception ex1) {
+					String msg = "Neither hflush not sync were found. That seems to be " +
+							"a problem!";
+					LOG.error(msg);
+					throw new RuntimeException(msg, ex1);
+				}
+			}
+		}
+		return m;
+	}
+
+	/**
+	 * Gets the truncate() call using reflection.
+	 *
+	 * <p>
+	 * Note: This code comes from Flume
+	 */
+	private Method reflectTruncate(FileSystem fs) {
+		Method m = null;
+		if(fs != null) {
+			Class<?> fsClass = fs.getClass();
+			try {
+				m = fsClass.getMethod("truncate", Path.class, long.class);
+			} catch (NoSuchMethodException ex) {
+				LOG.debug("Truncate not found. Will write a file with suffix '{}' " +
+						" and prefix '{}' to specify how many bytes in a bucket are valid.", validLengthSuffix, validLengthPrefix);
+				return null;
+			}
+
+
+			// verify that truncate actually works
+			FSDataOutputStream outputStream;
+			Path testPath = new Path(UUID.randomUUID().toString());
+			try {
+				outputStream = fs.create(testPath);
+				outputStream.writeUTF("hello");
+				outputStream.close();
+			} catch (IOException e) {
+				LOG.error("Could not create file for checking if truncate works.", e);
+				throw new RuntimeException("Could not create file for checking if truncate works.", e);
+			}
+
+
+			try {
+				m.invoke(fs, testPath, 2);
+			} catch (IllegalAccessException | InvocationTargetException e) {
+				LOG.debug("Truncate is not supported.", e);
+				m = null;
+			}
+
+			try {
+				fs.delete(testPath, false);
+			} catch (IOException e) {
+				LOG.error("Could not delete truncate test file.", e);
+				throw new RuntimeException("Could not delete truncate test file.", e);
+			}
+		}
+		return m;
+	}
+
+	@Override
+	public void notifyCheckpointComplete(long checkpointId) throws Exception {
+		synchronized (state.bucketStates) {
+			Iterator<Map.Entry<String, BucketState<T>>> bucketStatesIt = state.bucketStates.entrySet().iterator();
+			while (bucketStatesIt.hasNext()) {
+				BucketState<T> bucketState = bucketStatesIt.next().getValue();
+
+				Iterator<Map.Entry<Long, List<String>>> pendingCheckpointsIt =
+						bucketState.pendingFilesPerCheckpoint.entrySet().iterator();
+				while (pendingCheckpointsIt.hasNext()) {
+					Map.Entry<Long, List<String>> pendingCheckpoint = pendingCheckpointsIt.next();
+					Long pastCheckpointId = pendingCheckpoint.getKey();
+
+					if (pastCheckpointId <= checkpointId) {
+						LOG.debug("Moving pending files to final location for checkpoint {}", pastCheckpointId);
+						// All the pending files are buckets that have been completed but are waiting to be renamed
+						// to their final name
+						for (String filename : pendingCheckpoint.getValue()) {
+							Path finalPath = new Path(filename);
+							Path pendingPath = getPendingPathFor(finalPath);
+
+							fs.rename(pendingPath, finalPath);
+							LOG.debug(
+									"Moving pending file {} to final location after complete checkpoint {}.",
+									pendingPath,
+									pastCheckpointId);
+						}
+						pendingCheckpointsIt.remove();
+					}
+				}
+
+				// forget about buckets that neither have an open part file nor pending files
+				if (bucketState.outStream == null &&
+						bucketState.pendingFiles.isEmpty() &&
+						bucketState.pendingFilesPerCheckpoint.isEmpty()) {
+					LOG.debug("Removing state of inactive bucket {}.", bucketState.bucketPath);
+					bucketStatesIt.remove();
+				}
+			}
+		}
+	}
+
+	@Override
+	public State<T> snapshotState(long checkpointId, long checkpointTimestamp) throws Exception {
+		synchronized (state.bucketStates) {
+			for (BucketState<T> bucketState : state.bucketStates.values()) {
+				if (bucketState.outStream != null) {
+					bucketState.writer.flush();
+					hflushOrSync(bucketState.outStream);
+					bucketState.currentFileValidLength = bucketState.outStream.getPos();
+				}
+				bucketState.pendingFilesPerCheckpoint.put(checkpointId, bucketState.pendingFiles);
+				bucketState.pendingFiles = new ArrayList<>();
+			}
+		}
+		return state;
+	}
+
+	@Override
+	public void restoreState(State<T> state) {
+		this.state = state;
+
+		try {
+			initFileSystem();
+		} catch (IOException e) {
+			LOG.error("Error while creating FileSystem in checkpoint restore.", e);
+			throw new RuntimeException("Error while creating FileSystem in checkpoint restore.", e);
+		}
+
+		for (BucketState<T> bucketState : state.bucketStates.values()) {
+			// we can clean all the pending files since they where renamed to final files
+			// after this checkpoint was successful
+			bucketState.pendingFiles.clear();
+
+			if (bucketState.currentFile != null) {
+				restoreCurrentFile(bucketState);
+			}
+
+			// Move files that are confirmed by a checkpoint but did not get moved to final location
+			// because the checkpoint notification did not happen before a failure
+			LOG.debug("Moving pending files to final location on restore.");
+			for (Map.Entry<Long, List<String>> pendingCheckpoint : bucketState.pendingFilesPerCheckpoint.entrySet()) {
+				// All the pending files are buckets that have been completed but are waiting to be renamed
+				// to their final name
+				for (String filename : pendingCheckpoint.getValue()) {
+					Path finalPath = new Path(filename);
+					Path pendingPath = getPendingPathFor(finalPath);
+
+					try {
+						if (fs.exists(pendingPath)) {
+							LOG.debug(
+									"Moving pending file {} to final location after complete checkpoint {}.",
+									pendingPath,
+									pendingCheckpoint.getKey());
+							fs.rename(pendingPath, finalPath);
+						}
+					} catch (IOException e) {
+						LOG.error("Error while renaming pending file {} to final path {}: {}", pendingPath, finalPath, e);
+						throw new RuntimeException("Error while renaming pending file " + pendingPath + " to final path " + finalPath, e);
+					}
+				}
+			}
+		}
+
+		// all files of the restored buckets are now in their final location
+		state.bucketStates.clear();
+
+		// we need to get this here since open() has not yet been called
+		subtaskIndex = getRuntimeContext().getIndexOfThisSubtask();
+		LOG.debug("Clearing pending/in-progress files.");
+		try {
+			deleteLeftoverFiles();
+		} catch (IOException e) {
+			LOG.error("Error while deleting old pending files: {}", e);
+			throw new RuntimeException("Error while deleting old pending files.", e);
+		}
+	}
+
+	/**
+	 * Moves the file that was in-progress in the given bucket when the last checkpoint occurred
+	 * to its final location and truncates it back to the length it had at that checkpoint (or
+	 * writes a ".valid-length" file if truncate is not available).
+	 */
+	private void restoreCurrentFile(BucketState<T> bucketState) {
+		// We were writing to a file when the last checkpoint occured. This file can either
+		// be still in-progress or became a pending file at some point after the checkpoint.
+		// Either way, we have to truncate it back to a valid state (or write a .valid-length)
+		// file that specifies up to which length it is valid and rename it to the final name
+		// before starting a new bucket file.
+		Path partPath = new Path(bucketState.currentFile);
+		try {
+			Path partPendingPath = getPendingPathFor(partPath);
+			Path partInProgressPath = getInProgressPathFor(partPath);
+
+			if (fs.exists(partPendingPath)) {
+				LOG.debug("In-progress file {} has been moved to pending after checkpoint, moving to final location.", partPath);
+				// has been moved to pending in the mean time, rename to final location
+				fs.rename(partPendingPath, partPath);
+			} else if (fs.exists(partInProgressPath)) {
+				LOG.debug("In-progress file {} is still in-progress, moving to final location.", partPath);
+				// it was still in progress, rename to final path
+				fs.rename(partInProgressPath, partPath);
+			} else {
+				LOG.error("In-Progress file {} was neither moved to pending nor is still in progress.", bucketState.currentFile);
+				throw new RuntimeException("In-Progress file " + bucketState.currentFile + " " +
+						"was neither moved to pending nor is still in progress.");
+			}
+
+			refTruncate = reflectTruncate(fs);
+			// truncate it or write a ".valid-length" file to specify up to which point it is valid
+			if (refTruncate != null) {
+				LOG.debug("Truncating {} to valid length {}", partPath, bucketState.currentFileValidLength);
+				// some-one else might still hold the lease from a previous try, we are
+				// recovering, after all ...
+				if (fs instanceof DistributedFileSystem) {
+					DistributedFileSystem dfs = (DistributedFileSystem) fs;
+					LOG.debug("Trying to recover file lease {}", partPath);
+					dfs.recoverLease(partPath);
+					boolean isclosed= dfs.isFileClosed(partPath);
+					StopWatch sw = new StopWatch();
+					sw.start();
+					while(!isclosed) {
+						if(sw.getTime() > asyncTimeout) {
+							break;
+						}
+						try {
+							Thread.sleep(500);
+						} catch (InterruptedException e1) {
+							// ignore it
+						}
+						isclosed = dfs.isFileClosed(partPath);
+					}
+				}
+				Boolean truncated = (Boolean) refTruncate.invoke(fs, partPath, bucketState.currentFileValidLength);
+				if (!truncated) {
+					LOG.debug("Truncate did not immediately complete for {}, waiting...", partPath);
+
+					// we must wait for the asynchronous truncate operation to complete
+					StopWatch sw = new StopWatch();
+					sw.start();
+					long newLen = fs.getFileStatus(partPath).getLen();
+					while(newLen != bucketState.currentFileValidLength) {
+						if(sw.getTime() > asyncTimeout) {
+							break;
+						}
+						try {
+							Thread.sleep(500);
+						} catch (InterruptedException e1) {
+							// ignore it
+						}
+						newLen = fs.getFileStatus(partPath).getLen();
+					}
+					if (newLen != bucketState.currentFileValidLength) {
+						throw new RuntimeException("Truncate did not truncate to right length. Should be " + bucketState.currentFileValidLength + " is " + newLen + ".");
+					}
+				}
+
+			} else {
+				LOG.debug("Writing valid-length file for {} to specify valid length {}", partPath, bucketState.currentFileValidLength);
+				Path validLengthFilePath = getValidLengthPathFor(partPath);
+				FSDataOutputStream lengthFileOut = fs.create(validLengthFilePath);
+				lengthFileOut.writeUTF(Long.toString(bucketState.currentFileValidLength));
+				lengthFileOut.close();
+			}
+
+			// invalidate in the state object
+			bucketState.currentFile = null;
+			bucketState.currentFileValidLength = -1;
+		} catch (IOException e) {
+			LOG.error("Error while restoring BucketingSink state.", e);
+			throw new RuntimeException("Error while restoring BucketingSink state.", e);
+		} catch (InvocationTargetException | IllegalAccessException e) {
+			LOG.error("Cound not invoke truncate.", e);
+			throw new RuntimeException("Could not invoke truncate.", e);
+		}
+	}
+
+	// --------------------------------------------------------------------------------------------
+	//  Setters for User configuration values
+	// --------------------------------------------------------------------------------------------
+
+	/**
+	 * Sets the maximum bucket size in bytes.
+	 *
+	 * <p>
+	 * When a bucket part file becomes larger than this size a new bucket part file is started and
+	 * the old one is closed. The name of the bucket files depends on the {@link Bucketer}.
+	 *
+	 * @param batchSize The bucket part file size in bytes.
+	 */
+	public BucketingSink<T> setBatchSize(long batchSize) {
+		this.batchSize = batchSize;
+		return this;
+	}
+
+	/**
+	 * Sets the default time between checks for inactive buckets.
+	 *
+	 * @param interval The timeout, in milliseconds.
+	 */
+	public BucketingSink<T> setInactiveBucketCheckInterval(long interval) {
+		this.inactiveBucketCheckInterval = interval;
+		return this;
+	}
+
+	/**
+	 * Sets the default threshold for marking a bucket as inactive and closing its part files.
+	 * Buckets which haven't been written to for at least this period of time become inactive.
+	 *
+	 * @param threshold The timeout, in milliseconds.
+	 */
+	public BucketingSink<T> setInactiveBucketThreshold(long threshold) {
+		this.inactiveBucketThreshold = threshold;
+		return this;
+	}
+
+	/**
+	 * Sets the maximum number of part files that each parallel instance of the sink keeps open
+	 * at the same time. When a new part file would exceed this number, the part file of the
+	 * bucket that was least recently written to is closed. The default is {@code 64}.
+	 *
+	 * @param maxOpenBuckets The maximum number of open part files.
+	 */
+	public BucketingSink<T> setMaxOpenBuckets(int maxOpenBuckets) {
+		if (maxOpenBuckets < 1) {
+			throw new IllegalArgumentException("The maximum number of open buckets must be at least 1.");
+		}
+		this.maxOpenBuckets = maxOpenBuckets;
+		return this;
+	}
+
+	/**
+	 * Sets the {@link Bucketer} to use for determining the bucket files to write to.
+	 *
+	 * @param bucketer The bucketer to use.
+	 */
+	public BucketingSink<T> setBucketer(Bucketer<T> bucketer) {
+		this.bucketer = bucketer;
+		return this;
+	}
+
+	/**
+	 * Sets the {@link Writer} to be used for writing the incoming elements to bucket files.
+	 *
+	 * @param writer The {@code Writer} to use.
+	 */
+	public BucketingSink<T> setWriter(Writer<T> writer) {
+		this.writerTemplate = writer;
+		return this;
+	}
+
+	/**
+	 * Sets the suffix of in-progress part files. The default is {@code "in-progress"}.
+	 */
+	public BucketingSink<T> setInProgressSuffix(String inProgressSuffix) {
+		this.inProgressSuffix = inProgressSuffix;
+		return this;
+	}
+
+	/**
+	 * Sets the prefix of in-progress part files. The default is {@code "_"}.
+	 */
+	public BucketingSink<T> setInProgressPrefix(String inProgressPrefix) {
+		this.inProgressPrefix = inProgressPrefix;
+		return this;
+	}
+
+	/**
+	 * Sets the suffix of pending part files. The default is {@code ".pending"}.
+	 */
+	public BucketingSink<T> setPendingSuffix(String pendingSuffix) {
+		this.pendingSuffix = pendingSuffix;
+		return this;
+	}
+
+	/**
+	 * Sets the prefix of pending part files. The default is {@code "_"}.
+	 */
+	public BucketingSink<T> setPendingPrefix(String pendingPrefix) {
+		this.pendingPrefix = pendingPrefix;
+		return this;
+	}
+
+	/**
+	 * Sets the suffix of valid-length files. The default is {@code ".valid-length"}.
+	 */
+	public BucketingSink<T> setValidLengthSuffix(String validLengthSuffix) {
+		this.validLengthSuffix = validLengthSuffix;
+		return this;
+	}
+
+	/**
+	 * Sets the prefix of valid-length files. The default is {@code "_"}.
+	 */
+	public BucketingSink<T> setValidLengthPrefix(String validLengthPrefix) {
+		this.validLengthPrefix = validLengthPrefix;
+		return this;
+	}
+
+	/**
+	 * Sets the prefix of part files.  The default is {@code "part"}.
+	 */
+	public BucketingSink<T> setPartPrefix(String partPrefix) {
+		this.partPrefix = partPrefix;
+		return this;
+	}
+
+	/**
+	 * Disable cleanup of leftover in-progress/pending files when the sink is opened.
+	 *
+	 * <p>
+	 * This should only be disabled if using the sink without checkpoints, to not remove
+	 * the files already in the directory.
+	 */
+	public BucketingSink<T> disableCleanupOnOpen() {
+		this.cleanupOnOpen = false;
+		return this;
+	}
+
+	/**
+	 * Sets the default timeout for asynchronous operations such as recoverLease and truncate.
+	 *
+	 * @param timeout The timeout, in milliseconds.
+	 */
+	public BucketingSink<T> setAsyncTimeout(long timeout) {
+		this.asyncTimeout = timeout;
+		return this;
+	}
+
+	/**
+	 * Sets the {@link Clock} that is used for bucketing and for detecting inactive buckets.
+	 * This must be called before the sink is opened.
+	 */
+	@VisibleForTesting
+	void setClock(Clock clock) {
+		this.clock = clock;
+	}
+
+	@VisibleForTesting
+	int getNumOpenBuckets() {
+		return openBuckets.size();
+	}
+
+	// --------------------------------------------------------------------------------------------
+	//  Internal Classes
+	// --------------------------------------------------------------------------------------------
+
+	/**
+	 * This is used during snapshot/restore to keep track of in-progress/pending files,
+	 * for every bucket.
+	 */
+	static final class State<T> implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * For every bucket directory (key), we maintain a bucket state (value).
+		 */
+		final Map<String, BucketState<T>> bucketStates = new HashMap<>();
+
+		BucketState<T> getBucketState(Path bucketPath) {
+			synchronized (bucketStates) {
+				return bucketStates.get(bucketPath.toString());
+			}
+		}
+
+		void addBucketState(BucketState<T> bucketState) {
+			synchronized (bucketStates) {
+				bucketStates.put(bucketState.bucketPath, bucketState);
+			}
+		}
+	}
+
+	/**
+	 * This is used for keeping track of the current in-progress file of a bucket and files that we
+	 * mark for moving from pending to final location after we get a checkpoint-complete notification.
+	 */
+	static final class BucketState<T> implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The directory of the bucket.
+		 */
+		final String bucketPath;
+
+		/**
+		 * The file that is currently in-progress.
+		 */
+		String currentFile = null;
+
+		/**
+		 * The valid length of the in-progress file at the time of the last checkpoint.
+		 */
+		long currentFileValidLength = -1;
+
+		/**
+		 * For counting the part files inside a bucket directory. Part files follow the pattern
+		 * {@code "{part-prefix}-{subtask}-{count}"}. When creating new part files we increase the counter.
+		 */
+		int partCounter = 0;
+
+		/**
+		 * Pending files that accumulated since the last checkpoint.
+		 */
+		List<String> pendingFiles = new ArrayList<>();
+
+		/**
+		 * When doing a checkpoint we move the pending files since the last checkpoint to this map
+		 * with the id of the checkpoint. When we get the checkpoint-complete notification we move
+		 * pending files of completed checkpoints to their final location.
+		 */
+		final Map<Long, List<String>> pendingFilesPerCheckpoint = new HashMap<>();
+
+		/**
+		 * The time this bucket was last written to.
+		 */
+		transient long lastWrittenToTime;
+
+		/**
+		 * The writer for the part file of this bucket.
+		 */
+		transient Writer<T> writer;
+
+		/**
+		 * The {@code FSDataOutputStream} for the current part file, {@code null} if the bucket
+		 * has no open part file.
+		 */
+		transient FSDataOutputStream outStream;
+
+		BucketState(String bucketPath) {
+			this.bucketPath = bucketPath;
+		}
+	}
+}
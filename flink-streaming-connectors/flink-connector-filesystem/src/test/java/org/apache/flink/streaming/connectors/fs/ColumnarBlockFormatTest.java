@@ -0,0 +1,228 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.streaming.connectors.fs;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.TaskInfo;
+import org.apache.flink.api.common.accumulators.Accumulator;
+import org.apache.flink.api.common.functions.util.RuntimeUDFContext;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.java.tuple.Tuple;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.api.java.typeutils.TupleTypeInfo;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.core.fs.FileInputSplit;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the {@link ColumnarBlockWriter} and the {@link ColumnarBlockInputFormat}.
+ */
+public class ColumnarBlockFormatTest {
+
+	private static final int NUM_ROWS = 10000;
+
+	private static final int BLOCK_SIZE = 1000;
+
+	private static final TupleTypeInfo<Tuple3<Long, String, Integer>> TYPE = new TupleTypeInfo<>(
+			BasicTypeInfo.LONG_TYPE_INFO, BasicTypeInfo.STRING_TYPE_INFO, BasicTypeInfo.INT_TYPE_INFO);
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	@Test
+	public void testReadAllFields() throws Exception {
+		File file = writeFile(new ColumnarBlockWriter<Tuple3<Long, String, Integer>>().setBlockSize(BLOCK_SIZE));
+
+		ColumnarBlockInputFormat<Tuple3<Long, String, Integer>> format = createFormat(file);
+		List<Tuple3<Long, String, Integer>> result = read(format, new Tuple3<Long, String, Integer>());
+
+		assertEquals(NUM_ROWS, result.size());
+		for (int i = 0; i < NUM_ROWS; i++) {
+			assertEquals(createRow(i), result.get(i));
+		}
+	}
+
+	@Test
+	public void testUncompressed() throws Exception {
+		File file = writeFile(new ColumnarBlockWriter<Tuple3<Long, String, Integer>>()
+				.setBlockSize(BLOCK_SIZE)
+				.disableCompression());
+
+		List<Tuple3<Long, String, Integer>> result = read(createFormat(file), new Tuple3<Long, String, Integer>());
+
+		assertEquals(NUM_ROWS, result.size());
+		for (int i = 0; i < NUM_ROWS; i++) {
+			assertEquals(createRow(i), result.get(i));
+		}
+	}
+
+	@Test
+	public void testProjection() throws Exception {
+		File file = writeFile(new ColumnarBlockWriter<Tuple3<Long, String, Integer>>().setBlockSize(BLOCK_SIZE));
+
+		ColumnarBlockInputFormat<Tuple2<Integer, Long>> format =
+				new ColumnarBlockInputFormat<Tuple2<Integer, Long>>(new org.apache.flink.core.fs.Path(file.toURI().toString()), TYPE)
+						.selectFields(2, 0);
+		assertEquals(new TupleTypeInfo<>(BasicTypeInfo.INT_TYPE_INFO, BasicTypeInfo.LONG_TYPE_INFO), format.getProducedType());
+
+		List<Tuple2<Integer, Long>> result = read(format, new Tuple2<Integer, Long>());
+
+		assertEquals(NUM_ROWS, result.size());
+		for (int i = 0; i < NUM_ROWS; i++) {
+			Tuple3<Long, String, Integer> row = createRow(i);
+			assertEquals(new Tuple2<>(row.f2, row.f0), result.get(i));
+		}
+	}
+
+	@Test
+	public void testBlockSkipping() throws Exception {
+		File file = writeFile(new ColumnarBlockWriter<Tuple3<Long, String, Integer>>().setBlockSize(BLOCK_SIZE));
+
+		ColumnarBlockInputFormat<Tuple3<Long, String, Integer>> format = createFormat(file)
+				.addRangeFilter(0, 2500L, 3200L);
+
+		List<Tuple3<Long, String, Integer>> result = new ArrayList<>();
+		setRuntimeContext(format);
+		format.configure(new Configuration());
+		FileInputSplit[] splits = format.createInputSplits(1);
+		assertEquals(1, splits.length);
+		format.open(splits[0]);
+		while (!format.reachedEnd()) {
+			result.add(format.nextRecord(new Tuple3<Long, String, Integer>()));
+		}
+
+		// only the blocks [2000, 3000) and [3000, 4000) have to be read
+		assertEquals(NUM_ROWS / BLOCK_SIZE - 2, format.getNumSkippedBlocks());
+		format.close();
+
+		assertEquals(2 * BLOCK_SIZE, result.size());
+		for (int i = 0; i < result.size(); i++) {
+			assertEquals(createRow(2000 + i), result.get(i));
+		}
+	}
+
+	@Test
+	public void testSmallerThanRowFormat() throws Exception {
+		File columnarFile = writeFile(new ColumnarBlockWriter<Tuple3<Long, String, Integer>>().setBlockSize(BLOCK_SIZE));
+		File rowFile = writeFile(new StringWriter<Tuple3<Long, String, Integer>>());
+
+		assertTrue("Columnar file has " + columnarFile.length() + " bytes, row file " + rowFile.length(),
+				columnarFile.length() * 2 < rowFile.length());
+	}
+
+	@Test
+	public void testFlushWritesCompleteBlock() throws Exception {
+		ColumnarBlockWriter<Tuple3<Long, String, Integer>> writer = new ColumnarBlockWriter<>();
+		writer.setInputType(TYPE, new ExecutionConfig());
+
+		File file = new File(tempFolder.newFolder(), "part-0-0");
+		FileSystem fs = FileSystem.getLocal(new org.apache.hadoop.conf.Configuration());
+		FSDataOutputStream out = fs.create(new Path(file.toURI()));
+		writer.open(out);
+
+		for (int i = 0; i < 10; i++) {
+			writer.write(createRow(i));
+		}
+		assertEquals(0, out.getPos());
+
+		// the sink flushes the writer on every checkpoint
+		writer.flush();
+		long validLength = out.getPos();
+		assertTrue(validLength > 0);
+
+		for (int i = 10; i < 20; i++) {
+			writer.write(createRow(i));
+		}
+		assertEquals(validLength, out.getPos());
+
+		writer.close();
+		out.close();
+
+		List<Tuple3<Long, String, Integer>> result = read(createFormat(file), new Tuple3<Long, String, Integer>());
+		assertEquals(20, result.size());
+	}
+
+	// ------------------------------------------------------------------------
+
+	private static Tuple3<Long, String, Integer> createRow(int i) {
+		return new Tuple3<>((long) i, "category-" + (i / 100) % 5, i % 7);
+	}
+
+	private File writeFile(Writer<Tuple3<Long, String, Integer>> writer) throws Exception {
+		if (writer instanceof ColumnarBlockWriter) {
+			((ColumnarBlockWriter<?>) writer).setInputType(TYPE, new ExecutionConfig());
+		}
+		writer = writer.duplicate();
+
+		File file = new File(tempFolder.newFolder(), "part-0-0");
+		FileSystem fs = FileSystem.getLocal(new org.apache.hadoop.conf.Configuration());
+		FSDataOutputStream out = fs.create(new Path(file.toURI()));
+		writer.open(out);
+
+		// reuse the tuple, as a sink with object reuse would
+		Tuple3<Long, String, Integer> reuse = new Tuple3<>();
+		for (int i = 0; i < NUM_ROWS; i++) {
+			Tuple3<Long, String, Integer> row = createRow(i);
+			reuse.setFields(row.f0, row.f1, row.f2);
+			writer.write(reuse);
+		}
+		writer.close();
+		out.close();
+		return file;
+	}
+
+	private static ColumnarBlockInputFormat<Tuple3<Long, String, Integer>> createFormat(File file) {
+		return new ColumnarBlockInputFormat<>(new org.apache.flink.core.fs.Path(file.toURI().toString()), TYPE);
+	}
+
+	private static <T extends Tuple> List<T> read(ColumnarBlockInputFormat<T> format, T reuse) throws Exception {
+		List<T> result = new ArrayList<>();
+		setRuntimeContext(format);
+		format.configure(new Configuration());
+		for (FileInputSplit split : format.createInputSplits(1)) {
+			format.open(split);
+			while (!format.reachedEnd()) {
+				result.add(format.nextRecord(reuse).<T>copy());
+			}
+			format.close();
+		}
+		return result;
+	}
+
+	private static void setRuntimeContext(ColumnarBlockInputFormat<?> format) {
+		format.setRuntimeContext(new RuntimeUDFContext(new TaskInfo("test", 0, 1, 0),
+				ColumnarBlockFormatTest.class.getClassLoader(), new ExecutionConfig(),
+				new HashMap<String, Future<org.apache.flink.core.fs.Path>>(),
+				new HashMap<String, Accumulator<?, ?>>()));
+	}
+}
@@ -0,0 +1,224 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.streaming.connectors.fs.bucketing;
+
+import org.apache.flink.streaming.api.operators.StreamSink;
+import org.apache.flink.streaming.connectors.fs.Clock;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.OneInputStreamOperatorTestHarness;
+import org.apache.hadoop.fs.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the {@link BucketingSink} that write to the local file system and drive the sink
+ * through a test harness and a manual clock.
+ */
+public class BucketingSinkTest {
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	/**
+	 * Verifies that elements which alternate between buckets are appended to the open part
+	 * files instead of closing the part file on every change of the bucket.
+	 */
+	@Test
+	public void testConcurrentBuckets() throws Exception {
+		File outDir = tempFolder.newFolder();
+		BucketingSink<String> sink = createSink(outDir);
+
+		OneInputStreamOperatorTestHarness<String, Object> testHarness = createHarness(sink);
+		testHarness.open();
+
+		for (int i = 0; i < 10; i++) {
+			testHarness.processElement(new StreamRecord<>("a-" + i));
+			testHarness.processElement(new StreamRecord<>("b-" + i));
+		}
+
+		assertEquals(2, sink.getNumOpenBuckets());
+		assertArrayEquals(new String[] {"_part-0-0.in-progress"}, list(new File(outDir, "a")));
+		assertArrayEquals(new String[] {"_part-0-0.in-progress"}, list(new File(outDir, "b")));
+
+		testHarness.close();
+
+		assertArrayEquals(new String[] {"_part-0-0.pending"}, list(new File(outDir, "a")));
+		assertArrayEquals(new String[] {"_part-0-0.pending"}, list(new File(outDir, "b")));
+	}
+
+	/**
+	 * Verifies that buckets which were not written to for longer than the threshold are closed.
+	 */
+	@Test
+	public void testInactivityClosing() throws Exception {
+		File outDir = tempFolder.newFolder();
+		ManualClock clock = new ManualClock();
+		BucketingSink<String> sink = createSink(outDir)
+				.setInactiveBucketCheckInterval(100)
+				.setInactiveBucketThreshold(100);
+		sink.setClock(clock);
+
+		OneInputStreamOperatorTestHarness<String, Object> testHarness = createHarness(sink);
+		testHarness.open();
+
+		testHarness.processElement(new StreamRecord<>("a-1"));
+		clock.setCurrentTime(50);
+		testHarness.processElement(new StreamRecord<>("b-1"));
+		assertEquals(2, sink.getNumOpenBuckets());
+
+		// bucket a was last written at 0, bucket b at 50
+		clock.setCurrentTime(120);
+		testHarness.processElement(new StreamRecord<>("b-2"));
+
+		assertEquals(1, sink.getNumOpenBuckets());
+		assertArrayEquals(new String[] {"_part-0-0.pending"}, list(new File(outDir, "a")));
+		assertArrayEquals(new String[] {"_part-0-0.in-progress"}, list(new File(outDir, "b")));
+
+		// writing to a again opens a new part file
+		testHarness.processElement(new StreamRecord<>("a-2"));
+		assertArrayEquals(new String[] {"_part-0-0.pending", "_part-0-1.in-progress"}, list(new File(outDir, "a")));
+
+		testHarness.close();
+	}
+
+	/**
+	 * Verifies that the least recently written bucket is closed when the maximum number
+	 * of open buckets is reached.
+	 */
+	@Test
+	public void testMaxOpenBuckets() throws Exception {
+		File outDir = tempFolder.newFolder();
+		BucketingSink<String> sink = createSink(outDir).setMaxOpenBuckets(2);
+
+		OneInputStreamOperatorTestHarness<String, Object> testHarness = createHarness(sink);
+		testHarness.open();
+
+		testHarness.processElement(new StreamRecord<>("a-1"));
+		testHarness.processElement(new StreamRecord<>("b-1"));
+		testHarness.processElement(new StreamRecord<>("a-2"));
+		testHarness.processElement(new StreamRecord<>("c-1"));
+
+		// b is the least recently written bucket
+		assertEquals(2, sink.getNumOpenBuckets());
+		assertArrayEquals(new String[] {"_part-0-0.in-progress"}, list(new File(outDir, "a")));
+		assertArrayEquals(new String[] {"_part-0-0.pending"}, list(new File(outDir, "b")));
+		assertArrayEquals(new String[] {"_part-0-0.in-progress"}, list(new File(outDir, "c")));
+
+		testHarness.close();
+	}
+
+	/**
+	 * Verifies that pending files of all buckets are moved to their final location when the
+	 * checkpoint that covers them completes and that the state of closed buckets is dropped.
+	 */
+	@Test
+	public void testCheckpointMovesPendingFiles() throws Exception {
+		File outDir = tempFolder.newFolder();
+		ManualClock clock = new ManualClock();
+		BucketingSink<String> sink = createSink(outDir)
+				.setInactiveBucketCheckInterval(100)
+				.setInactiveBucketThreshold(100);
+		sink.setClock(clock);
+
+		OneInputStreamOperatorTestHarness<String, Object> testHarness = createHarness(sink);
+		testHarness.open();
+
+		testHarness.processElement(new StreamRecord<>("a-1"));
+		testHarness.processElement(new StreamRecord<>("b-1"));
+
+		// close bucket a because of inactivity
+		clock.setCurrentTime(200);
+		testHarness.processElement(new StreamRecord<>("b-2"));
+		assertArrayEquals(new String[] {"_part-0-0.pending"}, list(new File(outDir, "a")));
+
+		BucketingSink.State<String> state = sink.snapshotState(1L, 200L);
+		assertEquals(2, state.bucketStates.size());
+		assertTrue(state.bucketStates.get(new Path(outDir.toURI().toString(), "b").toString()).currentFileValidLength > 0);
+
+		sink.notifyCheckpointComplete(1L);
+
+		assertArrayEquals(new String[] {"part-0-0"}, list(new File(outDir, "a")));
+		assertArrayEquals(new String[] {"_part-0-0.in-progress"}, list(new File(outDir, "b")));
+
+		// bucket a has neither an open part file nor pending files anymore
+		assertEquals(1, state.bucketStates.size());
+		assertFalse(state.bucketStates.containsKey(new Path(outDir.toURI().toString(), "a").toString()));
+
+		testHarness.close();
+	}
+
+	// ------------------------------------------------------------------------
+
+	private static BucketingSink<String> createSink(File outDir) {
+		return new BucketingSink<String>(outDir.toURI().toString())
+				.setBucketer(new PrefixBucketer());
+	}
+
+	private static OneInputStreamOperatorTestHarness<String, Object> createHarness(BucketingSink<String> sink) {
+		return new OneInputStreamOperatorTestHarness<>(new StreamSink<>(sink));
+	}
+
+	private static String[] list(File dir) {
+		String[] files = dir.list();
+		// the local file system writes checksum files next to the data files
+		int numFiles = 0;
+		for (String file : files) {
+			if (!file.endsWith(".crc")) {
+				files[numFiles++] = file;
+			}
+		}
+		String[] result = Arrays.copyOf(files, numFiles);
+		Arrays.sort(result);
+		return result;
+	}
+
+	/**
+	 * Puts every element into the bucket named by the part of the element before the first dash.
+	 */
+	private static class PrefixBucketer implements Bucketer<String> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Path getBucketPath(Clock clock, Path basePath, String element) {
+			return new Path(basePath, element.substring(0, element.indexOf('-')));
+		}
+	}
+
+	private static class ManualClock implements Clock {
+
+		private long currentTime = 0;
+
+		@Override
+		public long currentTimeMillis() {
+			return currentTime;
+		}
+
+		public void setCurrentTime(long currentTime) {
+			this.currentTime = currentTime;
+		}
+	}
+}
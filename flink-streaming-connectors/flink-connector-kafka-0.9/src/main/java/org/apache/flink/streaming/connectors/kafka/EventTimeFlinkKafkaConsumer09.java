@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.connectors.kafka;
+
+import org.apache.flink.streaming.api.functions.TimestampExtractor;
+import org.apache.flink.streaming.api.functions.source.EventTimeSourceFunction;
+import org.apache.flink.streaming.util.serialization.DeserializationSchema;
+import org.apache.flink.streaming.util.serialization.KeyedDeserializationSchema;
+import org.apache.flink.streaming.util.serialization.KeyedDeserializationSchemaWrapper;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A {@link FlinkKafkaConsumer09} that assigns timestamps to the elements and emits watermarks
+ * from within the source.
+ *
+ * <p>
+ * Timestamps and watermarks are extracted separately for every Kafka partition by a copy of the
+ * given {@link TimestampExtractor}. The watermark emitted by the source is the minimum of the
+ * watermarks of all partitions that the source instance reads. Assigning the timestamps inside
+ * the consumer (instead of in a downstream operator) keeps the watermarks correct when the
+ * partitions of a source instance are read at different speeds.
+ *
+ * <p>
+ * Note that a partition that does not receive any data holds back the watermark of the source.
+ *
+ * @param <T> The type of elements produced by this consumer.
+ */
+public class EventTimeFlinkKafkaConsumer09<T> extends FlinkKafkaConsumer09<T> implements EventTimeSourceFunction<T> {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Creates a new event-time Kafka streaming source consumer for Kafka 0.9.x
+	 *
+	 * @param topic
+	 *           The name of the topic that should be consumed.
+	 * @param valueDeserializer
+	 *           The de-/serializer used to convert between Kafka's byte messages and Flink's objects.
+	 * @param timestampExtractor
+	 *           The extractor for the timestamps and watermarks of the elements of a partition.
+	 * @param props
+	 *           The properties used to configure the Kafka consumer client, and the ZooKeeper client.
+	 */
+	public EventTimeFlinkKafkaConsumer09(String topic, DeserializationSchema<T> valueDeserializer,
+			TimestampExtractor<T> timestampExtractor, Properties props) {
+		this(Collections.singletonList(topic), valueDeserializer, timestampExtractor, props);
+	}
+
+	/**
+	 * Creates a new event-time Kafka streaming source consumer for Kafka 0.9.x
+	 *
+	 * @param topic
+	 *           The name of the topic that should be consumed.
+	 * @param deserializer
+	 *           The keyed de-/serializer used to convert between Kafka's byte messages and Flink's objects.
+	 * @param timestampExtractor
+	 *           The extractor for the timestamps and watermarks of the elements of a partition.
+	 * @param props
+	 *           The properties used to configure the Kafka consumer client, and the ZooKeeper client.
+	 */
+	public EventTimeFlinkKafkaConsumer09(String topic, KeyedDeserializationSchema<T> deserializer,
+			TimestampExtractor<T> timestampExtractor, Properties props) {
+		this(Collections.singletonList(topic), deserializer, timestampExtractor, props);
+	}
+
+	/**
+	 * Creates a new event-time Kafka streaming source consumer for Kafka 0.9.x
+	 *
+	 * @param topics
+	 *           The Kafka topics to read from.
+	 * @param deserializer
+	 *           The de-/serializer used to convert between Kafka's byte messages and Flink's objects.
+	 * @param timestampExtractor
+	 *           The extractor for the timestamps and watermarks of the elements of a partition.
+	 * @param props
+	 *           The properties that are used to configure both the fetcher and the offset handler.
+	 */
+	public EventTimeFlinkKafkaConsumer09(List<String> topics, DeserializationSchema<T> deserializer,
+			TimestampExtractor<T> timestampExtractor, Properties props) {
+		this(topics, new KeyedDeserializationSchemaWrapper<>(deserializer), timestampExtractor, props);
+	}
+
+	/**
+	 * Creates a new event-time Kafka streaming source consumer for Kafka 0.9.x
+	 *
+	 * @param topics
+	 *           The Kafka topics to read from.
+	 * @param deserializer
+	 *           The keyed de-/serializer used to convert between Kafka's byte messages and Flink's objects.
+	 * @param timestampExtractor
+	 *           The extractor for the timestamps and watermarks of the elements of a partition.
+	 * @param props
+	 *           The properties that are used to configure both the fetcher and the offset handler.
+	 */
+	public EventTimeFlinkKafkaConsumer09(List<String> topics, KeyedDeserializationSchema<T> deserializer,
+			TimestampExtractor<T> timestampExtractor, Properties props) {
+		super(topics, deserializer, props);
+		this.timestampExtractor = checkNotNull(timestampExtractor, "timestampExtractor");
+	}
+}
@@ -18,14 +18,17 @@
 package org.apache.flink.streaming.connectors.kafka;
 
 import org.apache.flink.configuration.Configuration;
+import org.apache.flink.streaming.api.functions.TimestampExtractor;
 import org.apache.flink.streaming.api.operators.StreamingRuntimeContext;
 import org.apache.flink.streaming.api.watermark.Watermark;
 import org.apache.flink.streaming.connectors.kafka.internals.KafkaTopicPartition;
+import org.apache.flink.streaming.connectors.kafka.internals.PerPartitionWatermarkTracker;
 import org.apache.flink.streaming.connectors.kafka.internals.metrics.DefaultKafkaMetricAccumulator;
 import org.apache.flink.streaming.util.serialization.DeserializationSchema;
 
 import org.apache.flink.streaming.util.serialization.KeyedDeserializationSchema;
 import org.apache.flink.streaming.util.serialization.KeyedDeserializationSchemaWrapper;
+import org.apache.flink.util.InstantiationUtil;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
@@ -47,6 +50,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -85,34 +91,72 @@ public class FlinkKafkaConsumer09<T> extends FlinkKafkaConsumerBase<T> {
 	/** Boolean configuration key to disable metrics tracking **/
 	public static final String KEY_DISABLE_METRICS = "flink.disable-metrics";
 
+	/**
+	 * Configuration key to set the number of threads that deserialize and emit the fetched records.
+	 * Every thread uses its own copy of the deserialization schema, so state kept in the schema
+	 * only covers the records of the partitions of that thread.
+	 */
+	public static final String KEY_EMITTER_THREADS = "flink.emitter-threads";
+
+	/**
+	 * Configuration key to set the interval (in milliseconds) in which new partitions of the topics are discovered.
+	 * Setting it changes how partitions are assigned to the parallel consumers, so a checkpoint or savepoint
+	 * can only be restored with the setting it was taken with.
+	 */
+	public static final String KEY_PARTITION_DISCOVERY_INTERVAL = "flink.partition-discovery.interval-millis";
+
 	/**
 	 * From Kafka's Javadoc: The time, in milliseconds, spent waiting in poll if data is not
 	 * available. If 0, returns immediately with any records that are available now.
 	 */
 	public static final long DEFAULT_POLL_TIMEOUT = 100L;
 
+	/**
+	 * By default the thread that polls Kafka also deserializes and emits the records.
+	 */
+	public static final int DEFAULT_EMITTER_THREADS = 0;
+
+	/**
+	 * By default, partitions are only assigned once, when the consumer is opened.
+	 */
+	public static final long PARTITION_DISCOVERY_DISABLED = -1L;
+
+	/** The number of polled batches that may be queued for each emitter thread **/
+	private static final int EMITTER_QUEUE_CAPACITY = 4;
+
 	/** User-supplied properties for Kafka **/
 	private final Properties properties;
 	/** Ordered list of all partitions available in all subscribed partitions **/
 	private final List<KafkaTopicPartition> partitionInfos;
+	/** The subscribed topics, needed to discover new partitions **/
+	private final ArrayList<String> topics;
 
 	/** Unique ID identifying the consumer */
 	private final String consumerId;
 
+	/** Optional extractor for timestamps and watermarks, applied separately to every partition */
+	protected TimestampExtractor<T> timestampExtractor;
+
 	// ------  Runtime State  -------
 
-	/** The partitions actually handled by this consumer at runtime */
-	private transient List<TopicPartition> subscribedPartitions;
+	/** The partitions actually handled by this consumer at runtime. Replaced when partitions are discovered */
+	private transient volatile List<TopicPartition> subscribedPartitions;
 	/** For performance reasons, we are keeping two representations of the subscribed partitions **/
-	private transient List<KafkaTopicPartition> subscribedPartitionsAsFlink;
+	private transient volatile List<KafkaTopicPartition> subscribedPartitionsAsFlink;
+	/** The interval in which new partitions are discovered, or {@link #PARTITION_DISCOVERY_DISABLED} **/
+	private transient long partitionDiscoveryInterval;
 	/** The Kafka Consumer instance**/
 	private transient KafkaConsumer<byte[], byte[]> consumer;
 	/** The thread running Kafka's consumer **/
 	private transient ConsumerThread<T> consumerThread;
 	/** Exception set from the ConsumerThread */
-	private transient Throwable consumerThreadException;
+	private transient volatile Throwable consumerThreadException;
 	/** If the consumer doesn't have a Kafka partition assigned at runtime, it'll block on this waitThread **/
 	private transient Thread waitThread;
+	/** Tracks the watermark of every subscribed partition, if a timestamp extractor is set **/
+	private transient PerPartitionWatermarkTracker<T> watermarkTracker;
+	/** Set under the checkpoint lock when a deserializer signaled the end of the stream **/
+	private transient volatile boolean endOfStreamReached;
 
 
 	// ------------------------------------------------------------------------
@@ -178,7 +222,7 @@ public class FlinkKafkaConsumer09<T> extends FlinkKafkaConsumerBase<T> {
 	 */
 	public FlinkKafkaConsumer09(List<String> topics, KeyedDeserializationSchema<T> deserializer, Properties props) {
 		super(deserializer, props);
-		checkNotNull(topics, "topics");
+		this.topics = new ArrayList<>(checkNotNull(topics, "topics"));
 		this.properties = checkNotNull(props, "props");
 		setDeserializer(this.properties);
 		KafkaConsumer<byte[], byte[]> consumer = null;
@@ -265,9 +309,49 @@ public class FlinkKafkaConsumer09<T> extends FlinkKafkaConsumerBase<T> {
 		final int numConsumers = getRuntimeContext().getNumberOfParallelSubtasks();
 		final int thisConsumerIndex = getRuntimeContext().getIndexOfThisSubtask();
 
+		this.partitionDiscoveryInterval = Long.parseLong(properties.getProperty(
+				KEY_PARTITION_DISCOVERY_INTERVAL, Long.toString(PARTITION_DISCOVERY_DISABLED)));
+
 		// pick which partitions we work on
-		this.subscribedPartitionsAsFlink = assignPartitions(this.partitionInfos, numConsumers, thisConsumerIndex);
-		if(this.subscribedPartitionsAsFlink.isEmpty()) {
+		if (partitionDiscoveryInterval == PARTITION_DISCOVERY_DISABLED) {
+			this.subscribedPartitionsAsFlink = assignPartitions(this.partitionInfos, numConsumers, thisConsumerIndex);
+		} else {
+			// the assignment must not change when partitions are added to the topics
+			List<KafkaTopicPartition> assigned = new ArrayList<>();
+			for (KafkaTopicPartition partition : partitionInfos) {
+				if (assignPartition(partition, numConsumers) == thisConsumerIndex) {
+					assigned.add(partition);
+				}
+			}
+			// partitions that were discovered before the restored checkpoint
+			if (restoreToOffset != null) {
+				for (KafkaTopicPartition partition : restoreToOffset.keySet()) {
+					if (assignPartition(partition, numConsumers) == thisConsumerIndex && !assigned.contains(partition)) {
+						assigned.add(partition);
+					}
+				}
+			}
+			this.subscribedPartitionsAsFlink = assigned;
+		}
+
+		// restored partitions that are now assigned to other consumers would be read twice, here from
+		// the restored offset and by the other consumer from wherever that one starts
+		if (restoreToOffset != null) {
+			List<KafkaTopicPartition> reassigned = new ArrayList<>();
+			for (KafkaTopicPartition partition : restoreToOffset.keySet()) {
+				if (!subscribedPartitionsAsFlink.contains(partition)) {
+					reassigned.add(partition);
+				}
+			}
+			if (!reassigned.isEmpty()) {
+				throw new IllegalStateException("The restored state of this consumer contains the partitions " +
+						reassigned + ", which are assigned to other parallel consumers now. The assignment of " +
+						"partitions depends on whether '" + KEY_PARTITION_DISCOVERY_INTERVAL + "' is set, " +
+						"so the state must be restored with the same setting that it was checkpointed with.");
+			}
+		}
+
+		if(this.subscribedPartitionsAsFlink.isEmpty() && partitionDiscoveryInterval == PARTITION_DISCOVERY_DISABLED) {
 			LOG.info("This consumer doesn't have any partitions assigned");
 			this.offsetsState = null;
 			return;
@@ -279,6 +363,11 @@ public class FlinkKafkaConsumer09<T> extends FlinkKafkaConsumerBase<T> {
 		}
 		subscribedPartitions = convertToKafkaTopicPartition(subscribedPartitionsAsFlink);
 
+		if (timestampExtractor != null) {
+			this.watermarkTracker = new PerPartitionWatermarkTracker<>(
+					timestampExtractor, subscribedPartitions.size(), getRuntimeContext().getUserCodeClassLoader());
+		}
+
 		this.consumer.assign(this.subscribedPartitions);
 
 		// register Kafka metrics to Flink accumulators
@@ -397,6 +486,10 @@ public class FlinkKafkaConsumer09<T> extends FlinkKafkaConsumerBase<T> {
 	public static Map<TopicPartition, OffsetAndMetadata> convertToCommitMap(HashMap<KafkaTopicPartition, Long> checkpointOffsets) {
 		Map<TopicPartition, OffsetAndMetadata> ret = new HashMap<>(checkpointOffsets.size());
 		for(Map.Entry<KafkaTopicPartition, Long> partitionOffset: checkpointOffsets.entrySet()) {
+			if (partitionOffset.getValue() < 0) {
+				// discovered partition from which nothing was read yet
+				continue;
+			}
 			ret.put(new TopicPartition(partitionOffset.getKey().getTopic(), partitionOffset.getKey().getPartition()),
 					new OffsetAndMetadata(partitionOffset.getValue(), ""));
 		}
@@ -422,27 +515,218 @@ public class FlinkKafkaConsumer09<T> extends FlinkKafkaConsumerBase<T> {
 		}
 	}
 
+	/**
+	 * Fetches the current partitions of the subscribed topics and starts reading the new partitions
+	 * that are assigned to this consumer from their beginning. The offsets of the new partitions
+	 * become part of the checkpointed state right away, so that a restored consumer continues
+	 * reading them from the right position.
+	 *
+	 * <p>
+	 * Must only be called from the consumer thread.
+	 */
+	private void discoverPartitions(SourceContext<T> sourceContext) {
+		final int numConsumers = getRuntimeContext().getNumberOfParallelSubtasks();
+		final int thisConsumerIndex = getRuntimeContext().getIndexOfThisSubtask();
+
+		List<KafkaTopicPartition> currentPartitions = this.subscribedPartitionsAsFlink;
+		List<KafkaTopicPartition> newPartitions = new ArrayList<>();
+		for (String topic : topics) {
+			List<PartitionInfo> partitionsForTopic;
+			try {
+				synchronized (consumer) {
+					partitionsForTopic = consumer.partitionsFor(topic);
+				}
+			} catch (WakeupException we) {
+				throw we;
+			} catch (Exception e) {
+				// the metadata might be temporarily unavailable, we try again in the next round
+				LOG.warn("Could not fetch the partitions of topic {}", topic, e);
+				continue;
+			}
+			if (partitionsForTopic == null) {
+				continue;
+			}
+			for (KafkaTopicPartition partition : convertToFlinkKafkaTopicPartition(partitionsForTopic)) {
+				if (assignPartition(partition, numConsumers) == thisConsumerIndex && !currentPartitions.contains(partition)) {
+					newPartitions.add(partition);
+				}
+			}
+		}
+		if (newPartitions.isEmpty()) {
+			return;
+		}
+		LOG.info("Discovered new partitions {}", newPartitions);
+
+		List<KafkaTopicPartition> partitionsAsFlink = new ArrayList<>(currentPartitions);
+		partitionsAsFlink.addAll(newPartitions);
+		List<TopicPartition> partitions = convertToKafkaTopicPartition(partitionsAsFlink);
+		List<TopicPartition> newKafkaPartitions = convertToKafkaTopicPartition(newPartitions);
+
+		// the positions of the already assigned partitions are kept by Kafka
+		HashMap<KafkaTopicPartition, Long> startOffsets = new HashMap<>();
+		synchronized (consumer) {
+			consumer.assign(partitions);
+			consumer.seekToBeginning(newKafkaPartitions.toArray(new TopicPartition[newKafkaPartitions.size()]));
+			for (int i = 0; i < newPartitions.size(); i++) {
+				// the offsets state holds the offset of the last emitted record
+				startOffsets.put(newPartitions.get(i), consumer.position(newKafkaPartitions.get(i)) - 1);
+			}
+		}
+
+		synchronized (sourceContext.getCheckpointLock()) {
+			offsetsState.putAll(startOffsets);
+			if (watermarkTracker != null) {
+				for (int i = 0; i < newPartitions.size(); i++) {
+					watermarkTracker.addPartition();
+				}
+			}
+			// the lists are only appended to, so the indexes used by the emitter threads stay valid
+			this.subscribedPartitionsAsFlink = partitionsAsFlink;
+			this.subscribedPartitions = partitions;
+		}
+	}
+
+	/**
+	 * Deserializes the given records of one partition and emits them under a single acquisition
+	 * of the checkpoint lock. The offset of the partition is updated together with the emission,
+	 * and, if a timestamp extractor is set, timestamps are assigned and the watermark of the
+	 * partition is advanced.
+	 *
+	 * <p>
+	 * The records of a partition must always be emitted by the same thread, in order. Every thread
+	 * must use its own deserializer, because deserializers are not required to be thread-safe.
+	 *
+	 * @return False, if the end of the stream has been reached, either signaled by the given
+	 *         deserializer or by the deserializer of another emitter thread.
+	 */
+	private boolean emitRecords(SourceContext<T> sourceContext, KeyedDeserializationSchema<T> deserializer,
+			int partitionIndex, List<ConsumerRecord<byte[], byte[]>> partitionRecords) throws Exception {
+
+		// deserialization happens outside of the checkpoint lock
+		List<T> values = new ArrayList<>(partitionRecords.size());
+		boolean endOfStream = false;
+		//noinspection ForLoopReplaceableByForEach
+		for (int i = 0; i < partitionRecords.size(); i++) {
+			ConsumerRecord<byte[], byte[]> record = partitionRecords.get(i);
+			T value = deserializer.deserialize(record.key(), record.value(), record.topic(), record.partition(), record.offset());
+			if (deserializer.isEndOfStream(value)) {
+				// end of stream signaled
+				endOfStream = true;
+				break;
+			}
+			values.add(value);
+		}
+
+		if (!values.isEmpty() || endOfStream) {
+			KafkaTopicPartition flinkPartition = subscribedPartitionsAsFlink.get(partitionIndex);
+			synchronized (sourceContext.getCheckpointLock()) {
+				if (endOfStreamReached) {
+					// another emitter thread reached the end of the stream, nothing must be emitted after it
+					return false;
+				}
+				if (endOfStream) {
+					endOfStreamReached = true;
+				}
+				int numEmitted = 0;
+				try {
+					if (watermarkTracker == null) {
+						for (; numEmitted < values.size(); numEmitted++) {
+							sourceContext.collect(values.get(numEmitted));
+						}
+					} else {
+						for (; numEmitted < values.size(); numEmitted++) {
+							T value = values.get(numEmitted);
+							sourceContext.collectWithTimestamp(value, watermarkTracker.extractTimestamp(partitionIndex, value));
+						}
+					}
+				} finally {
+					// the offset must cover exactly the emitted records, also if emitting failed
+					// half way, because a checkpoint may still be taken before the task fails
+					if (numEmitted > 0) {
+						offsetsState.put(flinkPartition, partitionRecords.get(numEmitted - 1).offset());
+					}
+				}
+
+				if (watermarkTracker != null) {
+					watermarkTracker.updateCurrentWatermark(partitionIndex);
+					Watermark watermark = watermarkTracker.nextWatermark();
+					if (watermark != null) {
+						sourceContext.emitWatermark(watermark);
+					}
+				}
+			}
+		}
+		return !endOfStream;
+	}
+
 	/**
 	 * We use a separate thread for executing the KafkaConsumer.poll(timeout) call because Kafka is not
 	 * handling interrupts properly. On an interrupt (which happens automatically by Flink if the task
 	 * doesn't react to cancel() calls), the poll() method might never return.
 	 * On cancel, we'll wakeup the .poll() call and wait for it to return
+	 *
+	 * <p>
+	 * The Kafka consumer is not thread safe, so all polling happens in this thread. If emitter threads
+	 * are configured (see {@link #KEY_EMITTER_THREADS}), the polled records are handed to them for
+	 * deserialization and emission. Every partition is always handled by the same emitter thread, to
+	 * keep the records of a partition in order. Every emitter thread deserializes with its own copy of
+	 * the deserialization schema. Otherwise this thread emits the records itself.
 	 */
 	private static class ConsumerThread<T> extends Thread {
 		private final FlinkKafkaConsumer09<T> flinkKafkaConsumer;
 		private final SourceContext<T> sourceContext;
-		private boolean running = true;
+		private final EmitterThread<T>[] emitterThreads;
+		private volatile boolean running = true;
 
-		public ConsumerThread(FlinkKafkaConsumer09<T> flinkKafkaConsumer, SourceContext<T> sourceContext) {
+		@SuppressWarnings("unchecked")
+		public ConsumerThread(FlinkKafkaConsumer09<T> flinkKafkaConsumer, SourceContext<T> sourceContext) throws Exception {
 			this.flinkKafkaConsumer = flinkKafkaConsumer;
 			this.sourceContext = sourceContext;
+
+			int numEmitterThreads = Integer.parseInt(flinkKafkaConsumer.properties.getProperty(
+					KEY_EMITTER_THREADS, Integer.toString(DEFAULT_EMITTER_THREADS)));
+			if (flinkKafkaConsumer.partitionDiscoveryInterval == PARTITION_DISCOVERY_DISABLED) {
+				// there is no point in having more threads than partitions
+				numEmitterThreads = Math.min(numEmitterThreads, flinkKafkaConsumer.subscribedPartitions.size());
+			}
+
+			this.emitterThreads = new EmitterThread[Math.max(numEmitterThreads, 0)];
+			for (int i = 0; i < emitterThreads.length; i++) {
+				// the schemas, and the serializers they hold, are not required to be thread-safe
+				KeyedDeserializationSchema<T> deserializer = InstantiationUtil.clone(flinkKafkaConsumer.deserializer,
+						flinkKafkaConsumer.getRuntimeContext().getUserCodeClassLoader());
+				emitterThreads[i] = new EmitterThread<>(flinkKafkaConsumer, this, sourceContext, deserializer, i);
+			}
 		}
 
 		@Override
 		public void run() {
 			try {
+				for (EmitterThread<T> emitterThread : emitterThreads) {
+					emitterThread.start();
+				}
+
 				long pollTimeout = Long.parseLong(flinkKafkaConsumer.properties.getProperty(KEY_POLL_TIMEOUT, Long.toString(DEFAULT_POLL_TIMEOUT)));
+				long discoveryInterval = flinkKafkaConsumer.partitionDiscoveryInterval;
+				long nextDiscovery = discoveryInterval == PARTITION_DISCOVERY_DISABLED ?
+						Long.MAX_VALUE : System.currentTimeMillis() + discoveryInterval;
 				pollLoop: while (running) {
+					if (flinkKafkaConsumer.endOfStreamReached || flinkKafkaConsumer.consumerThreadException != null) {
+						// signaled by an emitter thread
+						running = false;
+						break;
+					}
+
+					if (System.currentTimeMillis() >= nextDiscovery) {
+						flinkKafkaConsumer.discoverPartitions(sourceContext);
+						nextDiscovery = System.currentTimeMillis() + discoveryInterval;
+					}
+					if (flinkKafkaConsumer.subscribedPartitions.isEmpty()) {
+						// Kafka does not allow polling without partitions, wait for partitions to be discovered
+						Thread.sleep(Math.min(pollTimeout, Math.max(nextDiscovery - System.currentTimeMillis(), 0)));
+						continue;
+					}
+
 					ConsumerRecords<byte[], byte[]> records;
 					//noinspection SynchronizeOnNonFinalField
 					synchronized (flinkKafkaConsumer.consumer) {
@@ -456,23 +740,31 @@ public class FlinkKafkaConsumer09<T> extends FlinkKafkaConsumerBase<T> {
 							continue;
 						}
 					}
+					if (records.isEmpty()) {
+						continue;
+					}
 					// get the records for each topic partition
-					for (int i = 0; i < flinkKafkaConsumer.subscribedPartitions.size(); i++) {
-						TopicPartition partition = flinkKafkaConsumer.subscribedPartitions.get(i);
-						KafkaTopicPartition flinkPartition = flinkKafkaConsumer.subscribedPartitionsAsFlink.get(i);
+					List<TopicPartition> subscribedPartitions = flinkKafkaConsumer.subscribedPartitions;
+					for (int i = 0; i < subscribedPartitions.size(); i++) {
+						TopicPartition partition = subscribedPartitions.get(i);
 						List<ConsumerRecord<byte[], byte[]>> partitionRecords = records.records(partition);
-						//noinspection ForLoopReplaceableByForEach
-						for (int j = 0; j < partitionRecords.size(); j++) {
-							ConsumerRecord<byte[], byte[]> record = partitionRecords.get(j);
-							T value = flinkKafkaConsumer.deserializer.deserialize(record.key(), record.value(), record.topic(), record.partition(),record.offset());
-							if(flinkKafkaConsumer.deserializer.isEndOfStream(value)) {
-								// end of stream signaled
+						if (partitionRecords.isEmpty()) {
+							continue;
+						}
+
+						if (emitterThreads.length == 0) {
+							if (!flinkKafkaConsumer.emitRecords(sourceContext, flinkKafkaConsumer.deserializer, i, partitionRecords)) {
 								running = false;
 								break pollLoop;
 							}
-							synchronized (sourceContext.getCheckpointLock()) {
-								sourceContext.collect(value);
-								flinkKafkaConsumer.offsetsState.put(flinkPartition, record.offset());
+						} else {
+							EmitterThread<T> emitterThread = emitterThreads[i % emitterThreads.length];
+							PartitionRecords batch = new PartitionRecords(i, partitionRecords);
+							// block if the emitter thread falls behind
+							while (!emitterThread.queue.offer(batch, pollTimeout, TimeUnit.MILLISECONDS)) {
+								if (!running || !emitterThread.isAlive()) {
+									continue pollLoop;
+								}
 							}
 						}
 					}
@@ -484,6 +776,18 @@ public class FlinkKafkaConsumer09<T> extends FlinkKafkaConsumerBase<T> {
 					LOG.debug("Stopped ConsumerThread threw exception", t);
 				}
 			} finally {
+				// no records must be emitted after the source returned from run()
+				for (EmitterThread<T> emitterThread : emitterThreads) {
+					emitterThread.shutdown();
+				}
+				for (EmitterThread<T> emitterThread : emitterThreads) {
+					try {
+						emitterThread.join();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						break;
+					}
+				}
 				try {
 					flinkKafkaConsumer.consumer.close();
 				} catch(Throwable t) {
@@ -499,6 +803,84 @@ public class FlinkKafkaConsumer09<T> extends FlinkKafkaConsumerBase<T> {
 			this.running = false;
 			this.flinkKafkaConsumer.consumer.wakeup();
 		}
+
+		/**
+		 * Stops polling and all emitter threads, after an emitter thread reached the end of the stream.
+		 * The other emitter threads do not emit any further records, because the end of the stream is
+		 * marked under the checkpoint lock.
+		 */
+		void endOfStream(EmitterThread<T> source) {
+			for (EmitterThread<T> emitterThread : emitterThreads) {
+				if (emitterThread != source) {
+					emitterThread.shutdown();
+				}
+			}
+			shutdown();
+		}
+	}
+
+	/**
+	 * Thread that deserializes and emits the polled records of a fixed subset of the partitions.
+	 */
+	private static class EmitterThread<T> extends Thread {
+		private final FlinkKafkaConsumer09<T> flinkKafkaConsumer;
+		private final ConsumerThread<T> consumerThread;
+		private final SourceContext<T> sourceContext;
+		private final KeyedDeserializationSchema<T> deserializer;
+		private final BlockingQueue<PartitionRecords> queue = new ArrayBlockingQueue<>(EMITTER_QUEUE_CAPACITY);
+		private volatile boolean running = true;
+
+		public EmitterThread(FlinkKafkaConsumer09<T> flinkKafkaConsumer, ConsumerThread<T> consumerThread,
+				SourceContext<T> sourceContext, KeyedDeserializationSchema<T> deserializer, int index) {
+			super("Kafka 0.9 Emitter Thread " + index);
+			setDaemon(true);
+			this.flinkKafkaConsumer = flinkKafkaConsumer;
+			this.consumerThread = consumerThread;
+			this.sourceContext = sourceContext;
+			this.deserializer = deserializer;
+		}
+
+		@Override
+		public void run() {
+			try {
+				while (running) {
+					PartitionRecords batch = queue.poll(50, TimeUnit.MILLISECONDS);
+					if (batch == null) {
+						continue;
+					}
+					if (!flinkKafkaConsumer.emitRecords(sourceContext, deserializer, batch.partitionIndex, batch.records)) {
+						running = false;
+						consumerThread.endOfStream(this);
+					}
+				}
+			} catch (InterruptedException e) {
+				// we are shutting down
+			} catch (Throwable t) {
+				if (running) {
+					flinkKafkaConsumer.stopWithError(t);
+				} else {
+					LOG.debug("Stopped EmitterThread threw exception", t);
+				}
+			}
+		}
+
+		public void shutdown() {
+			this.running = false;
+			interrupt();
+		}
+	}
+
+	/**
+	 * The records of one partition from one poll.
+	 */
+	private static final class PartitionRecords {
+		final int partitionIndex;
+		final List<ConsumerRecord<byte[], byte[]>> records;
+
+		PartitionRecords(int partitionIndex, List<ConsumerRecord<byte[], byte[]>> records) {
+			this.partitionIndex = partitionIndex;
+			this.records = records;
+		}
 	}
 
 	private void stopWithError(Throwable t) {
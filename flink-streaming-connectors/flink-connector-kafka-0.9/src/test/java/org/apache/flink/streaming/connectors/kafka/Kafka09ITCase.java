@@ -17,8 +17,43 @@
 
 package org.apache.flink.streaming.connectors.kafka;
 
+import kafka.admin.AdminUtils;
+import kafka.utils.ZkUtils;
+import org.apache.flink.api.common.functions.FlatMapFunction;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.typeutils.GenericTypeInfo;
+import org.apache.flink.api.java.typeutils.TypeInfoParser;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.streaming.api.checkpoint.Checkpointed;
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+import org.apache.flink.streaming.api.functions.sink.RichSinkFunction;
+import org.apache.flink.streaming.api.functions.source.RichParallelSourceFunction;
+import org.apache.flink.streaming.connectors.kafka.partitioner.KafkaPartitioner;
+import org.apache.flink.streaming.connectors.kafka.internals.KafkaTopicPartition;
+import org.apache.flink.streaming.connectors.kafka.testutils.FailingIdentityMapper;
+import org.apache.flink.streaming.connectors.kafka.testutils.MockRuntimeContext;
+import org.apache.flink.streaming.util.serialization.KeyedSerializationSchemaWrapper;
+import org.apache.flink.streaming.util.serialization.SimpleStringSchema;
+import org.apache.flink.streaming.util.serialization.TypeInformationSerializationSchema;
+import org.apache.flink.test.util.SuccessException;
+import org.apache.flink.util.Collector;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.PartitionInfo;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Properties;
+
+import static org.apache.flink.test.util.TestUtils.tryExecute;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
 
 public class Kafka09ITCase extends KafkaConsumerTestBase {
 
@@ -111,4 +146,379 @@ public class Kafka09ITCase extends KafkaConsumerTestBase {
 		runMetricsAndEndOfStreamTest();
 	}
 
+	@Test(timeout = 60000)
+	public void testPartitionDiscovery() throws Exception {
+		final String topic = "partitionDiscoveryTopic";
+		final int finalNumPartitions = 3;
+		final int elementsPerPartition = 50;
+
+		createTestTopic(topic, 1, 1);
+
+		StreamExecutionEnvironment env = StreamExecutionEnvironment.createRemoteEnvironment("localhost", flinkPort);
+		env.getConfig().disableSysoutLogging();
+
+		final TypeInformation<Tuple2<Integer, Integer>> intIntTupleType = TypeInfoParser.parse("Tuple2<Integer, Integer>");
+
+		Properties props = new Properties();
+		props.putAll(standardProps);
+		props.setProperty(FlinkKafkaConsumer09.KEY_PARTITION_DISCOVERY_INTERVAL, "100");
+
+		// the consumer only knows the initial partition when it is created
+		FlinkKafkaConsumer09<Tuple2<Integer, Integer>> consumer = new FlinkKafkaConsumer09<>(topic,
+				new TypeInformationSerializationSchema<>(intIntTupleType, env.getConfig()), props);
+
+		ZkUtils zkUtils = ((KafkaTestEnvironmentImpl) kafkaServer).getZkUtils();
+		try {
+			AdminUtils.addPartitions(zkUtils, topic, finalNumPartitions, "", true);
+		} finally {
+			zkUtils.close();
+		}
+		waitForPartitions(topic, finalNumPartitions);
+
+		writeSequence(env, topic, elementsPerPartition, finalNumPartitions);
+
+		env.addSource(consumer).setParallelism(1)
+			.flatMap(new FlatMapFunction<Tuple2<Integer, Integer>, Integer>() {
+				private final int[][] seen = new int[finalNumPartitions][elementsPerPartition];
+				private int count = 0;
+
+				@Override
+				public void flatMap(Tuple2<Integer, Integer> value, Collector<Integer> out) throws Exception {
+					if (++seen[value.f0][value.f1] > 1) {
+						throw new RuntimeException("Received a duplicate: " + value);
+					}
+					if (++count == finalNumPartitions * elementsPerPartition) {
+						throw new SuccessException();
+					}
+				}
+			}).setParallelism(1);
+
+		tryExecute(env, "Partition discovery test");
+
+		deleteTestTopic(topic);
+	}
+
+	/**
+	 * Tests that a consumer with partition discovery refuses to restore offsets of partitions that
+	 * discovery assigns to another parallel consumer, as happens when the state was checkpointed
+	 * without discovery.
+	 */
+	@Test(timeout = 60000)
+	public void testRestoreWithDifferentPartitionAssignment() throws Exception {
+		// the name makes discovery assign the partitions differently than the default assignment
+		final String topic = "restoreWithDiscoveryTopic";
+		final int numPartitions = 4;
+		final int parallelism = 2;
+
+		createTestTopic(topic, numPartitions, 1);
+
+		Properties props = new Properties();
+		props.putAll(standardProps);
+		props.setProperty(FlinkKafkaConsumer09.KEY_PARTITION_DISCOVERY_INTERVAL, "100");
+
+		// without discovery, the first consumer reads the partitions 0 and 2
+		HashMap<KafkaTopicPartition, Long> defaultAssignmentState = new HashMap<>();
+		HashMap<KafkaTopicPartition, Long> discoveryAssignmentState = new HashMap<>();
+		for (int i = 0; i < numPartitions; i++) {
+			KafkaTopicPartition partition = new KafkaTopicPartition(topic, i);
+			if (i % parallelism == 0) {
+				defaultAssignmentState.put(partition, 10L);
+			}
+			if (FlinkKafkaConsumerBase.assignPartition(partition, parallelism) == 0) {
+				discoveryAssignmentState.put(partition, 10L);
+			}
+		}
+		assertFalse(defaultAssignmentState.keySet().equals(discoveryAssignmentState.keySet()));
+
+		FlinkKafkaConsumer09<String> consumer = new FlinkKafkaConsumer09<>(topic, new SimpleStringSchema(), props);
+		consumer.setRuntimeContext(new MockRuntimeContext(parallelism, 0));
+		consumer.restoreState(defaultAssignmentState);
+		try {
+			consumer.open(new Configuration());
+			fail("The consumer should not restore the offsets of partitions that are assigned to another consumer.");
+		} catch (IllegalStateException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains(FlinkKafkaConsumer09.KEY_PARTITION_DISCOVERY_INTERVAL));
+		} finally {
+			consumer.close();
+		}
+
+		consumer = new FlinkKafkaConsumer09<>(topic, new SimpleStringSchema(), props);
+		consumer.setRuntimeContext(new MockRuntimeContext(parallelism, 0));
+		consumer.restoreState(discoveryAssignmentState);
+		consumer.open(new Configuration());
+		consumer.close();
+
+		deleteTestTopic(topic);
+	}
+
+	/**
+	 * Tests that the consumer keeps the records of every partition in order, and that it restores
+	 * exactly-once from a checkpoint, when the records are emitted by multiple emitter threads.
+	 */
+	@Test(timeout = 60000)
+	public void testEmitterThreadsExactlyOnce() throws Exception {
+		final String topic = "emitterThreadsTopic";
+		final int numPartitions = 5;
+		final int elementsPerPartition = 1000;
+		final int failAfterElements = elementsPerPartition / 3;
+		final int parallelism = 2;
+
+		createTestTopic(topic, numPartitions, 1);
+
+		writeSequence(StreamExecutionEnvironment.createRemoteEnvironment("localhost", flinkPort),
+				topic, elementsPerPartition, numPartitions);
+
+		// run the topology that fails and recovers
+
+		StreamExecutionEnvironment env = StreamExecutionEnvironment.createRemoteEnvironment("localhost", flinkPort);
+		env.enableCheckpointing(500);
+		env.setParallelism(parallelism);
+		env.setNumberOfExecutionRetries(3);
+		env.getConfig().disableSysoutLogging();
+
+		final TypeInformation<Tuple2<Integer, Integer>> intIntTupleType = TypeInfoParser.parse("Tuple2<Integer, Integer>");
+
+		Properties props = new Properties();
+		props.putAll(standardProps);
+		props.setProperty(FlinkKafkaConsumer09.KEY_EMITTER_THREADS, "3");
+		// small fetches, so that the records of a partition are handed to the emitter threads in many batches
+		props.setProperty("max.partition.fetch.bytes", "4096");
+
+		FlinkKafkaConsumer09<Tuple2<Integer, Integer>> consumer = new FlinkKafkaConsumer09<>(topic,
+				new TypeInformationSerializationSchema<>(intIntTupleType, env.getConfig()), props);
+
+		env
+				.addSource(consumer)
+				.map(new FailingIdentityMapper<Tuple2<Integer, Integer>>(failAfterElements))
+				.addSink(new ValidatingInOrderExactlyOnceSink(numPartitions, elementsPerPartition)).setParallelism(1);
+
+		FailingIdentityMapper.failedBefore = false;
+		ValidatingInOrderExactlyOnceSink.violation = null;
+		tryExecute(env, "Emitter threads exactly once test");
+
+		assertTrue("The job did not fail and recover", FailingIdentityMapper.failedBefore);
+		// a violation fails the job, which may still succeed after the restart
+		assertNull(ValidatingInOrderExactlyOnceSink.violation, ValidatingInOrderExactlyOnceSink.violation);
+
+		deleteTestTopic(topic);
+	}
+
+	/**
+	 * Tests that emitter threads do not share the deserializer. The records are deserialized with
+	 * Kryo, which corrupts records or fails when it is used by multiple threads at once.
+	 */
+	@Test(timeout = 60000)
+	public void testEmitterThreadsWithKryoSchema() throws Exception {
+		final String topic = "emitterThreadsKryoTopic";
+		final int numPartitions = 4;
+		final int elementsPerPartition = 2000;
+
+		createTestTopic(topic, numPartitions, 1);
+
+		StreamExecutionEnvironment env = StreamExecutionEnvironment.createRemoteEnvironment("localhost", flinkPort);
+		env.getConfig().disableSysoutLogging();
+		env.setNumberOfExecutionRetries(0);
+
+		final TypeInformation<KryoRecord> recordType = new GenericTypeInfo<>(KryoRecord.class);
+		final TypeInformationSerializationSchema<KryoRecord> schema =
+				new TypeInformationSerializationSchema<>(recordType, env.getConfig());
+
+		// write the records of every partition
+
+		env.addSource(new RichParallelSourceFunction<KryoRecord>() {
+			private volatile boolean running = true;
+
+			@Override
+			public void run(SourceContext<KryoRecord> ctx) throws Exception {
+				int partition = getRuntimeContext().getIndexOfThisSubtask();
+				for (int i = 0; running && i < elementsPerPartition; i++) {
+					ctx.collect(new KryoRecord(partition, i));
+				}
+			}
+
+			@Override
+			public void cancel() {
+				running = false;
+			}
+		}).setParallelism(numPartitions)
+			.addSink(kafkaServer.getProducer(topic, new KeyedSerializationSchemaWrapper<>(schema),
+					FlinkKafkaProducerBase.getPropertiesFromBrokerList(brokerConnectionStrings),
+					new KryoRecordPartitioner())).setParallelism(numPartitions);
+
+		env.execute("Write Kryo records");
+
+		// read them with one source and an emitter thread per partition
+
+		Properties props = new Properties();
+		props.putAll(standardProps);
+		props.setProperty(FlinkKafkaConsumer09.KEY_EMITTER_THREADS, Integer.toString(numPartitions));
+		// small fetches, so that the emitter threads deserialize at the same time
+		props.setProperty("max.partition.fetch.bytes", "4096");
+
+		env.addSource(new FlinkKafkaConsumer09<>(topic, schema, props)).setParallelism(1)
+			.flatMap(new FlatMapFunction<KryoRecord, Integer>() {
+				private final BitSet[] seen = new BitSet[numPartitions];
+				private int count = 0;
+
+				@Override
+				public void flatMap(KryoRecord value, Collector<Integer> out) throws Exception {
+					if (!value.isValid()) {
+						throw new RuntimeException("Received a corrupt record: " + value);
+					}
+					if (seen[value.getPartition()] == null) {
+						seen[value.getPartition()] = new BitSet(elementsPerPartition);
+					}
+					if (seen[value.getPartition()].get(value.getIndex())) {
+						throw new RuntimeException("Received a duplicate: " + value);
+					}
+					seen[value.getPartition()].set(value.getIndex());
+					if (++count == numPartitions * elementsPerPartition) {
+						throw new SuccessException();
+					}
+				}
+			}).setParallelism(1);
+
+		tryExecute(env, "Emitter threads with Kryo schema test");
+
+		deleteTestTopic(topic);
+	}
+
+	private static void waitForPartitions(String topic, int numPartitions) throws Exception {
+		Properties props = new Properties();
+		props.putAll(standardProps);
+		FlinkKafkaConsumer09.setDeserializer(props);
+
+		final long deadline = System.currentTimeMillis() + 30000;
+		while (System.currentTimeMillis() < deadline) {
+			try (KafkaConsumer<byte[], byte[]> consumer = new KafkaConsumer<>(props)) {
+				List<PartitionInfo> partitions = consumer.partitionsFor(topic);
+				if (partitions != null && partitions.size() == numPartitions) {
+					return;
+				}
+			} catch (NullPointerException npe) {
+				// workaround for KAFKA-2880: Fetcher.getTopicMetadata NullPointerException while the metadata changes
+				// we ignore the NPE and try again.
+			}
+			Thread.sleep(100);
+		}
+		fail("Partitions of the test topic were not added");
+	}
+
+	/**
+	 * Record that is not a POJO and therefore serialized with Kryo. The payload is derived from the
+	 * partition and index, so that corrupt records can be detected.
+	 */
+	public static class KryoRecord {
+
+		private int partition;
+		private int index;
+		private String payload;
+		private List<Integer> values;
+
+		@SuppressWarnings("unused")
+		private KryoRecord() {}
+
+		public KryoRecord(int partition, int index) {
+			this.partition = partition;
+			this.index = index;
+			this.payload = createPayload(partition, index);
+			this.values = createValues(partition, index);
+		}
+
+		public int getPartition() {
+			return partition;
+		}
+
+		public int getIndex() {
+			return index;
+		}
+
+		public boolean isValid() {
+			return createPayload(partition, index).equals(payload) && createValues(partition, index).equals(values);
+		}
+
+		@Override
+		public String toString() {
+			return "KryoRecord(" + partition + ", " + index + ", " + payload + ", " + values + ")";
+		}
+
+		private static String createPayload(int partition, int index) {
+			StringBuilder payload = new StringBuilder();
+			for (int i = 0; i < index % 17; i++) {
+				payload.append(partition).append('-').append(index).append(';');
+			}
+			return payload.toString();
+		}
+
+		private static List<Integer> createValues(int partition, int index) {
+			List<Integer> values = new ArrayList<>();
+			for (int i = 0; i < index % 5; i++) {
+				values.add(partition * index + i);
+			}
+			return values;
+		}
+	}
+
+	private static class KryoRecordPartitioner extends KafkaPartitioner<KryoRecord> {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public int partition(KryoRecord next, byte[] serializedKey, byte[] serializedValue, int numPartitions) {
+			return next.getPartition();
+		}
+	}
+
+	/**
+	 * Sink that expects the sequence of every partition written by {@link #writeSequence} exactly
+	 * once and in order. The expected positions are part of the checkpoint, so a restored sink
+	 * expects the records that follow the restored offsets of the source.
+	 */
+	private static class ValidatingInOrderExactlyOnceSink extends RichSinkFunction<Tuple2<Integer, Integer>>
+			implements Checkpointed<int[]> {
+
+		private static final long serialVersionUID = 1L;
+
+		/** The first out of order or duplicate element that any instance received **/
+		static volatile String violation;
+
+		private final int elementsPerPartition;
+
+		private int[] nextExpected; // this is checkpointed
+
+		ValidatingInOrderExactlyOnceSink(int numPartitions, int elementsPerPartition) {
+			this.elementsPerPartition = elementsPerPartition;
+			this.nextExpected = new int[numPartitions];
+		}
+
+		@Override
+		public void invoke(Tuple2<Integer, Integer> value) throws Exception {
+			if (value.f1 != nextExpected[value.f0]) {
+				String message = "Expected element " + nextExpected[value.f0] + " of partition " + value.f0 +
+						" but received " + value.f1;
+				if (violation == null) {
+					violation = message;
+				}
+				throw new Exception(message);
+			}
+			nextExpected[value.f0]++;
+
+			for (int next : nextExpected) {
+				if (next < elementsPerPartition) {
+					return;
+				}
+			}
+			throw new SuccessException();
+		}
+
+		@Override
+		public int[] snapshotState(long checkpointId, long checkpointTimestamp) {
+			return nextExpected.clone();
+		}
+
+		@Override
+		public void restoreState(int[] state) {
+			this.nextExpected = state;
+		}
+	}
 }
@@ -199,6 +199,24 @@ public abstract class FlinkKafkaConsumerBase<T> extends RichParallelSourceFuncti
 		return partitionsToSub;
 	}
 
+	/**
+	 * Deterministically assigns a single partition to one of the parallel consumers, independent of
+	 * the other partitions of the topic. In contrast to {@link #assignPartitions(List, int, int)},
+	 * the assignment of a partition does not change when partitions are added to a topic, so it
+	 * can be used by consumers that discover new partitions while running.
+	 *
+	 * <p>The partitions of a topic are assigned round-robin, starting at a consumer that depends on
+	 * the topic name, so that the partitions of multiple topics are spread evenly.</p>
+	 *
+	 * @return The index of the consumer that reads the partition.
+	 */
+	protected static int assignPartition(KafkaTopicPartition partition, int numConsumers) {
+		checkArgument(numConsumers > 0);
+
+		int startIndex = (partition.getTopic().hashCode() & 0x7FFFFFFF) % numConsumers;
+		return (startIndex + partition.getPartition()) % numConsumers;
+	}
+
 	/**
 	 * Method to log partition information.
 	 * @param partitionInfos List of subscribed partitions
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.streaming.connectors.kafka.internals;
+
+import org.apache.flink.streaming.api.functions.TimestampExtractor;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.util.InstantiationUtil;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Extracts timestamps and tracks watermarks separately for every Kafka partition that a
+ * consumer reads.
+ *
+ * <p>
+ * Every partition gets its own copy of the user's {@link TimestampExtractor}, so that extractors
+ * which keep state (such as the highest timestamp seen so far) only see the elements of a
+ * single partition, in order. The watermark of the consumer is the minimum of the watermarks of
+ * all its partitions. Note that a partition that does not receive any elements holds back the
+ * watermark of the consumer.
+ *
+ * <p>
+ * This class is not thread safe. Consumers that emit from multiple threads must only access it
+ * while holding the checkpoint lock.
+ *
+ * @param <T> The type of the elements.
+ */
+public class PerPartitionWatermarkTracker<T> {
+
+	private final byte[] serializedExtractor;
+
+	private final ClassLoader userCodeClassLoader;
+
+	private TimestampExtractor<T>[] extractors;
+
+	private long[] partitionWatermarks;
+
+	private long lastEmittedWatermark = Long.MIN_VALUE;
+
+	/**
+	 * Creates a new tracker for the given number of partitions.
+	 *
+	 * @param extractor The extractor that is copied for every partition.
+	 * @param numPartitions The number of partitions of the consumer.
+	 * @param userCodeClassLoader The class loader that is used to copy the extractor.
+	 */
+	@SuppressWarnings("unchecked")
+	public PerPartitionWatermarkTracker(TimestampExtractor<T> extractor, int numPartitions, ClassLoader userCodeClassLoader) {
+		checkNotNull(extractor, "extractor");
+		checkArgument(numPartitions >= 0, "The number of partitions must not be negative.");
+
+		this.userCodeClassLoader = checkNotNull(userCodeClassLoader, "userCodeClassLoader");
+		try {
+			this.serializedExtractor = InstantiationUtil.serializeObject(extractor);
+		} catch (IOException e) {
+			throw new RuntimeException("Could not serialize the timestamp extractor.", e);
+		}
+
+		this.extractors = new TimestampExtractor[numPartitions];
+		this.partitionWatermarks = new long[numPartitions];
+		Arrays.fill(partitionWatermarks, Long.MIN_VALUE);
+
+		for (int i = 0; i < numPartitions; i++) {
+			extractors[i] = copyExtractor();
+		}
+	}
+
+	/**
+	 * Adds a partition, for example one that was discovered while the consumer is running.
+	 * The watermark of the new partition starts at {@code Long.MIN_VALUE}, so the watermark of the
+	 * consumer does not advance until the new partition caught up.
+	 *
+	 * @return The index of the new partition.
+	 */
+	public int addPartition() {
+		int index = extractors.length;
+
+		extractors = Arrays.copyOf(extractors, index + 1);
+		extractors[index] = copyExtractor();
+
+		partitionWatermarks = Arrays.copyOf(partitionWatermarks, index + 1);
+		partitionWatermarks[index] = Long.MIN_VALUE;
+
+		return index;
+	}
+
+	/**
+	 * Returns the number of tracked partitions.
+	 */
+	public int getNumPartitions() {
+		return extractors.length;
+	}
+
+	/**
+	 * Extracts the timestamp of an element of the given partition. This also advances the
+	 * watermark of the partition if the extractor returns a watermark for the element.
+	 */
+	public long extractTimestamp(int partition, T element) {
+		TimestampExtractor<T> extractor = extractors[partition];
+
+		long timestamp = extractor.extractTimestamp(element, Long.MIN_VALUE);
+		long watermark = extractor.extractWatermark(element, timestamp);
+		if (watermark > partitionWatermarks[partition]) {
+			partitionWatermarks[partition] = watermark;
+		}
+		return timestamp;
+	}
+
+	/**
+	 * Advances the watermark of the given partition to the current watermark of its extractor.
+	 * This is called after a batch of elements of the partition has been processed.
+	 */
+	public void updateCurrentWatermark(int partition) {
+		long watermark = extractors[partition].getCurrentWatermark();
+		if (watermark > partitionWatermarks[partition]) {
+			partitionWatermarks[partition] = watermark;
+		}
+	}
+
+	/**
+	 * Returns the minimum of the watermarks of all partitions.
+	 */
+	public long getCurrentWatermark() {
+		if (partitionWatermarks.length == 0) {
+			// partitions may still be discovered
+			return Long.MIN_VALUE;
+		}
+		long min = Long.MAX_VALUE;
+		for (long watermark : partitionWatermarks) {
+			min = Math.min(min, watermark);
+		}
+		return min;
+	}
+
+	/**
+	 * Returns the watermark that should be emitted next, or {@code null} if the minimum of the
+	 * partition watermarks did not advance since the last emitted watermark.
+	 */
+	public Watermark nextWatermark() {
+		long watermark = getCurrentWatermark();
+		if (watermark > lastEmittedWatermark) {
+			lastEmittedWatermark = watermark;
+			return new Watermark(watermark);
+		}
+		return null;
+	}
+
+	private TimestampExtractor<T> copyExtractor() {
+		try {
+			return InstantiationUtil.deserializeObject(serializedExtractor, userCodeClassLoader);
+		} catch (IOException | ClassNotFoundException e) {
+			throw new RuntimeException("Could not copy the timestamp extractor for a partition.", e);
+		}
+	}
+}
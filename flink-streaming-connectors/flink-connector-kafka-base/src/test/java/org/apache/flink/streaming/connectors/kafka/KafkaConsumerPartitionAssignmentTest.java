@@ -270,4 +270,29 @@ public class KafkaConsumerPartitionAssignmentTest {
 		}
 	}
 
+	@Test
+	public void testSinglePartitionAssignmentIsBalanced() {
+		try {
+			final int numConsumers = 3;
+			final String[] topics = {"test-topic", "other-topic"};
+			final int numPartitionsPerTopic = 7;
+
+			for (String topic : topics) {
+				int[] partitionsPerConsumer = new int[numConsumers];
+				for (int p = 0; p < numPartitionsPerTopic; p++) {
+					int consumer = FlinkKafkaConsumerBase.assignPartition(new KafkaTopicPartition(topic, p), numConsumers);
+					assertTrue(consumer >= 0 && consumer < numConsumers);
+					partitionsPerConsumer[consumer]++;
+				}
+				for (int count : partitionsPerConsumer) {
+					assertTrue(count >= numPartitionsPerTopic / numConsumers);
+					assertTrue(count <= numPartitionsPerTopic / numConsumers + 1);
+				}
+			}
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
 }
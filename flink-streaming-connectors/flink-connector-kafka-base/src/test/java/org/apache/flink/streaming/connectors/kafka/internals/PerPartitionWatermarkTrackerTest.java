@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.streaming.connectors.kafka.internals;
+
+import org.apache.flink.streaming.api.functions.TimestampExtractor;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link PerPartitionWatermarkTracker}.
+ */
+public class PerPartitionWatermarkTrackerTest {
+
+	@Test
+	public void testWatermarkIsMinimumOfPartitions() {
+		PerPartitionWatermarkTracker<Long> tracker = new PerPartitionWatermarkTracker<>(
+				new AscendingLongExtractor(), 2, getClass().getClassLoader());
+
+		assertEquals(10L, tracker.extractTimestamp(0, 10L));
+		assertEquals(20L, tracker.extractTimestamp(0, 20L));
+		tracker.updateCurrentWatermark(0);
+
+		// the second partition has not received any elements yet
+		assertEquals(Long.MIN_VALUE, tracker.getCurrentWatermark());
+		assertNull(tracker.nextWatermark());
+
+		tracker.extractTimestamp(1, 5L);
+		tracker.updateCurrentWatermark(1);
+		assertEquals(new Watermark(4L), tracker.nextWatermark());
+
+		// no progress, no new watermark
+		assertNull(tracker.nextWatermark());
+
+		tracker.extractTimestamp(1, 30L);
+		tracker.updateCurrentWatermark(1);
+		assertEquals(new Watermark(19L), tracker.nextWatermark());
+	}
+
+	@Test
+	public void testExtractorIsCopiedPerPartition() {
+		PerPartitionWatermarkTracker<Long> tracker = new PerPartitionWatermarkTracker<>(
+				new AscendingLongExtractor(), 2, getClass().getClassLoader());
+
+		// a late partition must not be held back by the highest timestamp of another partition
+		tracker.extractTimestamp(0, 100L);
+		tracker.extractTimestamp(1, 3L);
+		tracker.updateCurrentWatermark(0);
+		tracker.updateCurrentWatermark(1);
+
+		assertEquals(2L, tracker.getCurrentWatermark());
+	}
+
+	@Test
+	public void testPunctuatedWatermarks() {
+		PerPartitionWatermarkTracker<Long> tracker = new PerPartitionWatermarkTracker<>(
+				new EvenLongPunctuatedExtractor(), 1, getClass().getClassLoader());
+
+		tracker.extractTimestamp(0, 3L);
+		assertNull(tracker.nextWatermark());
+
+		tracker.extractTimestamp(0, 4L);
+		assertEquals(new Watermark(4L), tracker.nextWatermark());
+	}
+
+	@Test
+	public void testAddPartition() {
+		PerPartitionWatermarkTracker<Long> tracker = new PerPartitionWatermarkTracker<>(
+				new AscendingLongExtractor(), 0, getClass().getClassLoader());
+
+		// without partitions, the watermark must not jump ahead
+		assertNull(tracker.nextWatermark());
+
+		assertEquals(0, tracker.addPartition());
+		tracker.extractTimestamp(0, 50L);
+		tracker.updateCurrentWatermark(0);
+		assertEquals(new Watermark(49L), tracker.nextWatermark());
+
+		// a new partition holds back the watermark until it caught up
+		assertEquals(1, tracker.addPartition());
+		assertEquals(2, tracker.getNumPartitions());
+		tracker.extractTimestamp(0, 60L);
+		tracker.updateCurrentWatermark(0);
+		assertNull(tracker.nextWatermark());
+
+		tracker.extractTimestamp(1, 70L);
+		tracker.updateCurrentWatermark(1);
+		assertEquals(new Watermark(59L), tracker.nextWatermark());
+	}
+
+	// ------------------------------------------------------------------------
+
+	private static class AscendingLongExtractor implements TimestampExtractor<Long> {
+		private static final long serialVersionUID = 1L;
+
+		private long maxTimestamp = Long.MIN_VALUE;
+
+		@Override
+		public long extractTimestamp(Long element, long currentTimestamp) {
+			maxTimestamp = Math.max(maxTimestamp, element);
+			return element;
+		}
+
+		@Override
+		public long extractWatermark(Long element, long currentTimestamp) {
+			return Long.MIN_VALUE;
+		}
+
+		@Override
+		public long getCurrentWatermark() {
+			return maxTimestamp == Long.MIN_VALUE ? Long.MIN_VALUE : maxTimestamp - 1;
+		}
+	}
+
+	private static class EvenLongPunctuatedExtractor implements TimestampExtractor<Long> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public long extractTimestamp(Long element, long currentTimestamp) {
+			return element;
+		}
+
+		@Override
+		public long extractWatermark(Long element, long currentTimestamp) {
+			return element % 2 == 0 ? element : Long.MIN_VALUE;
+		}
+
+		@Override
+		public long getCurrentWatermark() {
+			return Long.MIN_VALUE;
+		}
+	}
+}
@@ -75,6 +75,7 @@ import org.apache.flink.streaming.runtime.partitioner.BroadcastPartitioner;
 import org.apache.flink.streaming.runtime.partitioner.CustomPartitionerWrapper;
 import org.apache.flink.streaming.runtime.partitioner.ForwardPartitioner;
 import org.apache.flink.streaming.runtime.partitioner.RebalancePartitioner;
+import org.apache.flink.streaming.runtime.partitioner.RescalePartitioner;
 import org.apache.flink.streaming.runtime.partitioner.HashPartitioner;
 import org.apache.flink.streaming.runtime.partitioner.GlobalPartitioner;
 import org.apache.flink.streaming.runtime.partitioner.ShufflePartitioner;
@@ -442,6 +443,21 @@ public class DataStream<T> {
 		return setConnectionType(new RebalancePartitioner<T>());
 	}
 
+	/**
+	 * Sets the partitioning of the {@link DataStream} so that the output elements
+	 * are distributed evenly to a subset of instances of the next operation in a round-robin
+	 * fashion, see {@link RescalePartitioner}.
+	 *
+	 * <p>
+	 * This setting only effects the how the outputs will be distributed between
+	 * the parallel instances of the next processing operator.
+	 *
+	 * @return The DataStream with rescale partitioning set.
+	 */
+	public DataStream<T> rescale() {
+		return setConnectionType(new RescalePartitioner<T>());
+	}
+
 	/**
 	 * Sets the partitioning of the {@link DataStream} so that the output values
 	 * all go to the first instance of the next processing operator. Use this
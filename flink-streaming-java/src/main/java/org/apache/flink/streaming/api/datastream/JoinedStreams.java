@@ -25,8 +25,11 @@ import org.apache.flink.api.java.functions.KeySelector;
 import org.apache.flink.api.java.operators.translation.WrappingFunction;
 import org.apache.flink.api.java.typeutils.TypeExtractor;
 import org.apache.flink.streaming.api.datastream.CoGroupedStreams.TaggedUnion;
+import org.apache.flink.streaming.api.operators.co.IntervalJoinOperator;
+import org.apache.flink.streaming.api.transformations.TwoInputTransformation;
 import org.apache.flink.streaming.api.windowing.assigners.WindowAssigner;
 import org.apache.flink.streaming.api.windowing.evictors.Evictor;
+import org.apache.flink.streaming.api.windowing.time.Time;
 import org.apache.flink.streaming.api.windowing.triggers.Trigger;
 import org.apache.flink.streaming.api.windowing.windows.Window;
 import org.apache.flink.util.Collector;
@@ -58,6 +61,20 @@ import static java.util.Objects.requireNonNull;
  *     .window(TumblingTimeWindows.of(Time.of(5, TimeUnit.SECONDS)))
  *     .apply(new MyJoinFunction());
  * } </pre>
+ *
+ * <p>
+ * Instead of a window, the join can also be restricted to an interval around the timestamps
+ * of the elements of the first input, using {@code between(lowerBound, upperBound)}. Such an
+ * interval join keeps only the elements of the interval and emits matches as soon as both
+ * elements have arrived:
+ *
+ * <pre> {@code
+ * DataStream<T> result = one.join(two)
+ *     .where(new MyFirstKeySelector())
+ *     .equalTo(new MyFirstKeySelector())
+ *     .between(Time.seconds(-5), Time.seconds(5))
+ *     .apply(new MyJoinFunction());
+ * } </pre>
  */
 public class JoinedStreams<T1, T2> {
 
@@ -135,6 +152,17 @@ public class JoinedStreams<T1, T2> {
 			public <W extends Window> WithWindow<T1, T2, KEY, W> window(WindowAssigner<? super TaggedUnion<T1, T2>, W> assigner) {
 				return new WithWindow<>(input1, input2, keySelector1, keySelector2, keyType, assigner, null, null);
 			}
+
+			/**
+			 * Specifies the interval on which the join operation works. An element of the first
+			 * input is joined with the elements of the second input whose timestamps lie between
+			 * the element's timestamp plus {@code lowerBound} and its timestamp plus
+			 * {@code upperBound}, both inclusive.
+			 */
+			public WithInterval<T1, T2, KEY> between(Time lowerBound, Time upperBound) {
+				return new WithInterval<>(input1, input2, keySelector1, keySelector2, keyType,
+						lowerBound.toMilliseconds(), upperBound.toMilliseconds());
+			}
 		}
 	}
 	
@@ -279,6 +307,131 @@ public class JoinedStreams<T1, T2> {
 		}
 	}
 	
+	// ------------------------------------------------------------------------
+
+	/**
+	 * A join operation that has {@link KeySelector KeySelectors} defined for both inputs as
+	 * well as the interval in which matching elements of the second input must lie relative
+	 * to the elements of the first input.
+	 *
+	 * @param <T1> Type of the elements from the first input
+	 * @param <T2> Type of the elements from the second input
+	 * @param <KEY> Type of the key. This must be the same for both inputs
+	 */
+	public static class WithInterval<T1, T2, KEY> {
+
+		private final DataStream<T1> input1;
+		private final DataStream<T2> input2;
+
+		private final KeySelector<T1, KEY> keySelector1;
+		private final KeySelector<T2, KEY> keySelector2;
+
+		private final TypeInformation<KEY> keyType;
+
+		private final long lowerBound;
+		private final long upperBound;
+
+		protected WithInterval(DataStream<T1> input1,
+				DataStream<T2> input2,
+				KeySelector<T1, KEY> keySelector1,
+				KeySelector<T2, KEY> keySelector2,
+				TypeInformation<KEY> keyType,
+				long lowerBound,
+				long upperBound) {
+
+			if (lowerBound > upperBound) {
+				throw new IllegalArgumentException("The lower bound of the join interval must not be larger than the upper bound.");
+			}
+
+			this.input1 = requireNonNull(input1);
+			this.input2 = requireNonNull(input2);
+
+			this.keySelector1 = requireNonNull(keySelector1);
+			this.keySelector2 = requireNonNull(keySelector2);
+			this.keyType = requireNonNull(keyType);
+
+			this.lowerBound = lowerBound;
+			this.upperBound = upperBound;
+		}
+
+		/**
+		 * Completes the join operation with the user function that is executed
+		 * for each combination of elements with the same key in the interval.
+		 */
+		public <T> DataStream<T> apply(JoinFunction<T1, T2, T> function) {
+			TypeInformation<T> resultType = TypeExtractor.getBinaryOperatorReturnType(
+					function,
+					JoinFunction.class,
+					true,
+					true,
+					input1.getType(),
+					input2.getType(),
+					"Join",
+					false);
+
+			return apply(function, resultType);
+		}
+
+		/**
+		 * Completes the join operation with the user function that is executed
+		 * for each combination of elements with the same key in the interval.
+		 */
+		public <T> DataStream<T> apply(JoinFunction<T1, T2, T> function, TypeInformation<T> resultType) {
+			//clean the closure
+			function = input1.getExecutionEnvironment().clean(function);
+
+			return apply(new JoinFlatJoinFunction<>(function), resultType);
+		}
+
+		/**
+		 * Completes the join operation with the user function that is executed
+		 * for each combination of elements with the same key in the interval.
+		 */
+		public <T> DataStream<T> apply(FlatJoinFunction<T1, T2, T> function) {
+			TypeInformation<T> resultType = TypeExtractor.getBinaryOperatorReturnType(
+					function,
+					FlatJoinFunction.class,
+					true,
+					true,
+					input1.getType(),
+					input2.getType(),
+					"Join",
+					false);
+
+			return apply(function, resultType);
+		}
+
+		/**
+		 * Completes the join operation with the user function that is executed
+		 * for each combination of elements with the same key in the interval.
+		 */
+		public <T> DataStream<T> apply(FlatJoinFunction<T1, T2, T> function, TypeInformation<T> resultType) {
+			//clean the closure
+			function = input1.getExecutionEnvironment().clean(function);
+
+			IntervalJoinOperator<KEY, T1, T2, T> operator = new IntervalJoinOperator<>(
+					keySelector1,
+					keySelector2,
+					input1.getType().createSerializer(input1.getExecutionConfig()),
+					input2.getType().createSerializer(input2.getExecutionConfig()),
+					lowerBound,
+					upperBound,
+					function);
+
+			SingleOutputStreamOperator<T, ?> result = input1.connect(input2)
+					.keyBy(keySelector1, keySelector2)
+					.transform("Interval Join", resultType, operator);
+
+			// the operator keeps the buffered elements in key/value state
+			@SuppressWarnings("unchecked")
+			TwoInputTransformation<T1, T2, T> transform = (TwoInputTransformation<T1, T2, T>) result.getTransformation();
+			transform.setStateKeySelectors(keySelector1, keySelector2);
+			transform.setStateKeyType(keyType);
+
+			return result;
+		}
+	}
+
 	// ------------------------------------------------------------------------
 	//  Implementation of the functions
 	// ------------------------------------------------------------------------
@@ -305,6 +458,24 @@ public class JoinedStreams<T1, T2> {
 		}
 	}
 
+	/**
+	 * FlatJoin function that emits the result of a {@link JoinFunction}.
+	 */
+	private static class JoinFlatJoinFunction<T1, T2, T>
+			extends WrappingFunction<JoinFunction<T1, T2, T>>
+			implements FlatJoinFunction<T1, T2, T> {
+		private static final long serialVersionUID = 1L;
+
+		public JoinFlatJoinFunction(JoinFunction<T1, T2, T> wrappedFunction) {
+			super(wrappedFunction);
+		}
+
+		@Override
+		public void join(T1 first, T2 second, Collector<T> out) throws Exception {
+			out.collect(wrappedFunction.join(first, second));
+		}
+	}
+
 	/**
 	 * CoGroup function that does a nested-loop join to get the join result. (FlatJoin version)
 	 */
@@ -30,6 +30,7 @@ import org.apache.flink.streaming.api.functions.sink.SinkFunction;
 import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
 import org.apache.flink.streaming.api.operators.StreamGroupedFold;
 import org.apache.flink.streaming.api.operators.StreamGroupedReduce;
+import org.apache.flink.streaming.api.operators.StreamLocalReduce;
 import org.apache.flink.streaming.api.transformations.OneInputTransformation;
 import org.apache.flink.streaming.api.transformations.PartitionTransformation;
 import org.apache.flink.streaming.api.windowing.assigners.GlobalWindows;
@@ -235,8 +236,50 @@ public class KeyedStream<T, KEY> extends DataStream<T> {
 	 * @return The transformed DataStream.
 	 */
 	public SingleOutputStreamOperator<T, ?> reduce(ReduceFunction<T> reducer) {
-		return transform("Keyed Reduce", getType(), new StreamGroupedReduce<T>(
-				clean(reducer), getType().createSerializer(getExecutionConfig())));
+		StreamGroupedReduce<T> operator = new StreamGroupedReduce<T>(
+				clean(reducer), getType().createSerializer(getExecutionConfig()));
+		if (environment.getMiniBatchSize() > 0) {
+			operator.enableMiniBatch(environment.getMiniBatchSize(), environment.getMiniBatchLatency());
+		}
+		return transform("Keyed Reduce", getType(), operator);
+	}
+
+	/**
+	 * Applies a reduce transformation on the grouped data stream in two phases. Before the
+	 * elements are partitioned by key, a local reduce that is chained to the operator producing
+	 * the elements combines the elements of each key into partial results. After the
+	 * partitioning, the partial results are merged into the reduced value of the key.
+	 *
+	 * <p>
+	 * This reduces the number of elements sent over the network and the load that frequent
+	 * keys put on a single parallel instance. The local reduce emits its partial results after
+	 * combining {@code maxCombineSize} elements, after {@code maxCombineLatencyMillis}, on
+	 * watermarks, and before checkpoints. The {@link ReduceFunction} must be associative.
+	 *
+	 * @param reducer
+	 *            The {@link ReduceFunction} that is used both for the local reduce and
+	 *            for merging the partial results.
+	 * @param maxCombineSize
+	 *            The maximum number of elements that the local reduce combines before
+	 *            it emits its partial results.
+	 * @param maxCombineLatencyMillis
+	 *            The maximum time that the local reduce holds an element, 0 for no limit.
+	 * @return The transformed DataStream.
+	 */
+	public SingleOutputStreamOperator<T, ?> reduce(ReduceFunction<T> reducer, int maxCombineSize, long maxCombineLatencyMillis) {
+		reducer = clean(reducer);
+
+		// the stream before the partitioning by key
+		DataStream<T> input = new DataStream<>(environment,
+				((PartitionTransformation<T>) getTransformation()).getInput());
+
+		SingleOutputStreamOperator<T, ?> combined = input.transform("Local Reduce", getType(),
+				new StreamLocalReduce<>(reducer, keySelector,
+						getType().createSerializer(getExecutionConfig()), maxCombineSize, maxCombineLatencyMillis));
+		// run with the parallelism of the input so the local reduce is chained to it
+		combined.setParallelism(input.getParallelism());
+
+		return new KeyedStream<>(combined, keySelector, keyType).reduce(reducer);
 	}
 
 	/**
@@ -257,7 +300,11 @@ public class KeyedStream<T, KEY> extends DataStream<T> {
 		TypeInformation<R> outType = TypeExtractor.getFoldReturnTypes(
 				clean(folder), getType(), Utils.getCallLocationName(), true);
 
-		return transform("Keyed Fold", outType, new StreamGroupedFold<>(clean(folder), initialValue));
+		StreamGroupedFold<T, R, KEY> operator = new StreamGroupedFold<>(clean(folder), initialValue);
+		if (environment.getMiniBatchSize() > 0) {
+			operator.enableMiniBatch(environment.getMiniBatchSize(), environment.getMiniBatchLatency());
+		}
+		return transform("Keyed Fold", outType, operator);
 	}
 
 	/**
@@ -494,6 +541,9 @@ public class KeyedStream<T, KEY> extends DataStream<T> {
 	protected SingleOutputStreamOperator<T, ?> aggregate(AggregationFunction<T> aggregate) {
 		StreamGroupedReduce<T> operator = new StreamGroupedReduce<T>(
 				clean(aggregate), getType().createSerializer(getExecutionConfig()));
+		if (environment.getMiniBatchSize() > 0) {
+			operator.enableMiniBatch(environment.getMiniBatchSize(), environment.getMiniBatchLatency());
+		}
 		return transform("Keyed Aggregation", getType(), operator);
 	}
 }
@@ -31,6 +31,7 @@ import org.apache.flink.streaming.api.functions.aggregation.AggregationFunction;
 import org.apache.flink.streaming.api.functions.aggregation.ComparableAggregator;
 import org.apache.flink.streaming.api.functions.aggregation.SumAggregator;
 import org.apache.flink.streaming.api.functions.windowing.FoldWindowFunction;
+import org.apache.flink.streaming.api.functions.windowing.PassThroughWindowFunction;
 import org.apache.flink.streaming.api.functions.windowing.WindowFunction;
 import org.apache.flink.streaming.api.functions.windowing.ReduceWindowFunction;
 import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
@@ -38,11 +39,14 @@ import org.apache.flink.streaming.api.windowing.assigners.SlidingTimeWindows;
 import org.apache.flink.streaming.api.windowing.assigners.TumblingTimeWindows;
 import org.apache.flink.streaming.api.windowing.assigners.WindowAssigner;
 import org.apache.flink.streaming.api.windowing.evictors.Evictor;
+import org.apache.flink.streaming.api.windowing.triggers.EventTimeTrigger;
 import org.apache.flink.streaming.api.windowing.triggers.ProcessingTimeTrigger;
 import org.apache.flink.streaming.api.windowing.triggers.Trigger;
 import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
 import org.apache.flink.streaming.api.windowing.windows.Window;
+import org.apache.flink.streaming.runtime.operators.windowing.AccumulatingEventTimeWindowOperator;
 import org.apache.flink.streaming.runtime.operators.windowing.AccumulatingProcessingTimeWindowOperator;
+import org.apache.flink.streaming.runtime.operators.windowing.AggregatingEventTimeWindowOperator;
 import org.apache.flink.streaming.runtime.operators.windowing.AggregatingProcessingTimeWindowOperator;
 import org.apache.flink.streaming.runtime.operators.windowing.EvictingWindowOperator;
 import org.apache.flink.streaming.runtime.operators.windowing.WindowOperator;
@@ -328,6 +332,12 @@ public class WindowedStream<T, K, W extends Window> {
 		String callLocation = Utils.getCallLocationName();
 		String udfName = "WindowApply at " + callLocation;
 
+		if (isPanedEventTimeWindow()) {
+			@SuppressWarnings("unchecked")
+			WindowFunction<T, R, K, TimeWindow> wf = (WindowFunction<T, R, K, TimeWindow>) function;
+			return createPanedEventTimeOperator(preAggregator, wf, resultType, udfName);
+		}
+
 		String opName = "TriggerWindow(" + windowAssigner + ", " + trigger + ", " + udfName + ")";
 		KeySelector<T, K> keySel = input.getKeySelector();
 
@@ -628,11 +638,62 @@ public class WindowedStream<T, K, W extends Window> {
 						windowLength, windowSlide);
 				return input.transform(opName, resultType, op);
 			}
+		} else if (isPanedEventTimeWindow()) {
+			if (function instanceof ReduceFunction) {
+				@SuppressWarnings("unchecked")
+				ReduceFunction<T> reducer = (ReduceFunction<T>) function;
+
+				@SuppressWarnings("unchecked")
+				WindowFunction<T, R, K, TimeWindow> passThrough = (WindowFunction<T, R, K, TimeWindow>)
+						(WindowFunction<?, ?, ?, ?>) new PassThroughWindowFunction<K, TimeWindow, T>();
+
+				return createPanedEventTimeOperator(reducer, passThrough, resultType, functionName);
+			}
+			else if (function instanceof WindowFunction) {
+				@SuppressWarnings("unchecked")
+				WindowFunction<T, R, K, TimeWindow> wf = (WindowFunction<T, R, K, TimeWindow>) function;
+
+				SlidingTimeWindows timeWindows = (SlidingTimeWindows) windowAssigner;
+				String opName = "Paned " + timeWindows + " of " + functionName;
+
+				OneInputStreamOperator<T, R> op = new AccumulatingEventTimeWindowOperator<>(
+						wf, input.getKeySelector(),
+						input.getKeyType().createSerializer(getExecutionEnvironment().getConfig()),
+						input.getType().createSerializer(getExecutionEnvironment().getConfig()),
+						timeWindows.getSize(), timeWindows.getSlide());
+				return input.transform(opName, resultType, op);
+			}
 		}
 
 		return null;
 	}
 
+	/**
+	 * Checks whether the windows are sliding event time windows that can be evaluated from panes,
+	 * so that each element is stored only once rather than once per window.
+	 */
+	private boolean isPanedEventTimeWindow() {
+		return windowAssigner instanceof SlidingTimeWindows && trigger instanceof EventTimeTrigger && evictor == null &&
+				input.getExecutionEnvironment().getStreamTimeCharacteristic() != TimeCharacteristic.ProcessingTime;
+	}
+
+	private <R> SingleOutputStreamOperator<R, ?> createPanedEventTimeOperator(
+			ReduceFunction<T> preAggregator,
+			WindowFunction<T, R, K, TimeWindow> function,
+			TypeInformation<R> resultType,
+			String functionName) {
+
+		SlidingTimeWindows timeWindows = (SlidingTimeWindows) windowAssigner;
+		String opName = "Paned " + timeWindows + " of " + functionName;
+
+		OneInputStreamOperator<T, R> op = new AggregatingEventTimeWindowOperator<>(
+				preAggregator, function, input.getKeySelector(),
+				input.getKeyType().createSerializer(getExecutionEnvironment().getConfig()),
+				input.getType().createSerializer(getExecutionEnvironment().getConfig()),
+				timeWindows.getSize(), timeWindows.getSlide());
+		return input.transform(opName, resultType, op);
+	}
+
 	public StreamExecutionEnvironment getExecutionEnvironment() {
 		return input.getExecutionEnvironment();
 	}
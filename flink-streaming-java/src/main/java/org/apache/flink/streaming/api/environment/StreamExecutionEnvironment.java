@@ -120,8 +120,17 @@ public abstract class StreamExecutionEnvironment {
 	protected final List<StreamTransformation<?>> transformations = new ArrayList<>();
 	
 	private long bufferTimeout = DEFAULT_NETWORK_BUFFER_TIMEOUT;
+
+	/** The maximum number of elements in a mini-batch of keyed aggregations, 0 if disabled */
+	private int miniBatchSize;
+
+	/** The maximum time in milliseconds that keyed aggregations hold elements in a mini-batch */
+	private long miniBatchLatency;
 	
 	protected boolean isChainingEnabled = true;
+
+	/** Whether the generic types of the stream elements and keys are registered with Kryo */
+	private boolean isAutoTypeRegistrationEnabled;
 	
 	/** The state backend used for storing k/v state and state snapshots */
 	private StateBackend<?> defaultStateBackend;
@@ -212,6 +221,59 @@ public abstract class StreamExecutionEnvironment {
 		return this.bufferTimeout;
 	}
 
+	/**
+	 * Enables mini-batching for the rolling aggregations of keyed streams, that is {@code reduce},
+	 * {@code fold} and the built-in aggregations such as {@code sum}. Elements are then aggregated per key in batches before
+	 * the key/value state is accessed, so the state is accessed once per distinct key of a batch
+	 * instead of once per element. A batch is emitted when it holds {@code maxBatchSize} elements,
+	 * after {@code maxLatencyMillis}, on watermarks, and before checkpoints.
+	 *
+	 * <p>
+	 * In mini-batch mode the aggregations emit only the latest aggregate of each key in a batch,
+	 * rather than one aggregate per element.
+	 *
+	 * @param maxBatchSize The maximum number of elements in a batch.
+	 * @param maxLatencyMillis The maximum time that an element is held in a batch, 0 for no limit.
+	 */
+	public StreamExecutionEnvironment enableMiniBatch(int maxBatchSize, long maxLatencyMillis) {
+		if (maxBatchSize < 1) {
+			throw new IllegalArgumentException("The mini-batch size must be positive.");
+		}
+		if (maxLatencyMillis < 0) {
+			throw new IllegalArgumentException("The mini-batch latency must not be negative.");
+		}
+
+		this.miniBatchSize = maxBatchSize;
+		this.miniBatchLatency = maxLatencyMillis;
+		return this;
+	}
+
+	/**
+	 * Disables mini-batching for the rolling aggregations of keyed streams.
+	 *
+	 * @see #enableMiniBatch(int, long)
+	 */
+	public StreamExecutionEnvironment disableMiniBatch() {
+		this.miniBatchSize = 0;
+		this.miniBatchLatency = 0;
+		return this;
+	}
+
+	/**
+	 * Returns the maximum number of elements in a mini-batch of keyed aggregations, or 0 if
+	 * mini-batching is disabled.
+	 */
+	public int getMiniBatchSize() {
+		return miniBatchSize;
+	}
+
+	/**
+	 * Returns the maximum time in milliseconds that keyed aggregations hold elements in a mini-batch.
+	 */
+	public long getMiniBatchLatency() {
+		return miniBatchLatency;
+	}
+
 	/**
 	 * Disables operator chaining for streaming operators. Operator chaining
 	 * allows non-shuffle operations to be co-located in the same thread fully
@@ -233,6 +295,30 @@ public abstract class StreamExecutionEnvironment {
 		return isChainingEnabled;
 	}
 
+	/**
+	 * Enables the automatic registration of the generic types of the stream elements and state keys
+	 * with Kryo. Kryo then writes registration IDs instead of class names for them.
+	 *
+	 * <p>The registration IDs depend on the order in which the types are found in the topology of
+	 * the job. State that contains Kryo serialized types can hence only be restored by a job with the
+	 * same topology, which has the automatic registration enabled as well.
+	 *
+	 * @return StreamExecutionEnvironment with the automatic type registration enabled.
+	 */
+	public StreamExecutionEnvironment enableAutoTypeRegistration() {
+		this.isAutoTypeRegistrationEnabled = true;
+		return this;
+	}
+
+	/**
+	 * Returns whether the generic types of the stream elements and state keys are registered with Kryo.
+	 *
+	 * @return {@code true} if the automatic type registration is enabled, false otherwise.
+	 */
+	public boolean isAutoTypeRegistrationEnabled() {
+		return isAutoTypeRegistrationEnabled;
+	}
+
 	// ------------------------------------------------------------------------
 	//  Checkpointing Settings
 	// ------------------------------------------------------------------------
@@ -19,6 +19,7 @@ package org.apache.flink.streaming.api.graph;
 
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.typeutils.runtime.kryo.Serializers;
 import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
 import org.apache.flink.streaming.api.functions.source.FileSourceFunction;
 import org.apache.flink.streaming.api.transformations.CoFeedbackTransformation;
@@ -145,6 +146,12 @@ public class StreamGraphGenerator {
 		// call at least once to trigger exceptions about MissingTypeInfo
 		transform.getOutputType();
 
+		// register the generic types with Kryo, so that Kryo writes registration IDs
+		// instead of class names for them
+		if (env.isAutoTypeRegistrationEnabled()) {
+			Serializers.registerGenericTypes(transform.getOutputType(), env.getConfig());
+		}
+
 		Collection<Integer> transformedIds;
 		if (transform instanceof OneInputTransformation<?, ?>) {
 			transformedIds = transformOnInputTransform((OneInputTransformation<?, ?>) transform);
@@ -438,6 +445,9 @@ public class StreamGraphGenerator {
 
 
 		if (sink.getStateKeySelector() != null) {
+			if (env.isAutoTypeRegistrationEnabled()) {
+				Serializers.registerGenericTypes(sink.getStateKeyType(), env.getConfig());
+			}
 			TypeSerializer<?> keySerializer = sink.getStateKeyType().createSerializer(env.getConfig());
 			streamGraph.setKey(sink.getId(), sink.getStateKeySelector(), keySerializer);
 		}
@@ -468,6 +478,9 @@ public class StreamGraphGenerator {
 				transform.getName());
 
 		if (transform.getStateKeySelector() != null) {
+			if (env.isAutoTypeRegistrationEnabled()) {
+				Serializers.registerGenericTypes(transform.getStateKeyType(), env.getConfig());
+			}
 			TypeSerializer<?> keySerializer = transform.getStateKeyType().createSerializer(env.getConfig());
 			streamGraph.setKey(transform.getId(), transform.getStateKeySelector(), keySerializer);
 		}
@@ -509,6 +522,16 @@ public class StreamGraphGenerator {
 				transform.getOutputType(),
 				transform.getName());
 
+		// the stream graph knows only one state partitioner per node, the operator
+		// sets the key for the elements of the second input itself
+		if (transform.getStateKeySelector1() != null) {
+			if (env.isAutoTypeRegistrationEnabled()) {
+				Serializers.registerGenericTypes(transform.getStateKeyType(), env.getConfig());
+			}
+			TypeSerializer<?> keySerializer = transform.getStateKeyType().createSerializer(env.getConfig());
+			streamGraph.setKey(transform.getId(), transform.getStateKeySelector1(), keySerializer);
+		}
+
 		streamGraph.setParallelism(transform.getId(), transform.getParallelism());
 
 		for (Integer inputId: inputIds1) {
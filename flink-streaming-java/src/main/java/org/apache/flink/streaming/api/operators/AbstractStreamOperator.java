@@ -174,6 +174,13 @@ public abstract class AbstractStreamOperator<OUT>
 		return state;
 	}
 	
+	/**
+	 * Emits buffered elements before a checkpoint barrier. The default implementation does nothing,
+	 * since operators do not buffer elements unless they are explicitly written to do so.
+	 */
+	@Override
+	public void prepareSnapshotPreBarrier(long checkpointId) throws Exception {}
+
 	@Override
 	public void restoreState(StreamTaskState state, long recoveryTimestamp) throws Exception {
 		// restore the key/value state. the actual restore happens lazily, when the function requests
@@ -20,20 +20,35 @@ package org.apache.flink.streaming.api.operators;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.apache.flink.api.common.ExecutionConfig;
 import org.apache.flink.api.common.functions.FoldFunction;
 import org.apache.flink.api.common.state.OperatorState;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.functions.KeySelector;
 import org.apache.flink.core.memory.DataInputViewStreamWrapper;
 import org.apache.flink.core.memory.DataOutputViewStreamWrapper;
 import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.operators.Triggerable;
 import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
 
+/**
+ * Operator that applies a rolling {@link FoldFunction} to the elements of a keyed stream and
+ * emits the current folded value of a key.
+ *
+ * <p>
+ * In mini-batch mode (see {@link #enableMiniBatch(int, long)}) the operator folds the elements
+ * of a key in a local map and accesses the key/value state only once per distinct key and batch.
+ * A batch is emitted when it holds the maximum number of elements, when its maximum latency has
+ * passed, on watermarks, and before checkpoint barriers. Only the latest folded value of each
+ * key in the batch is emitted.
+ */
 public class StreamGroupedFold<IN, OUT, KEY>
 		extends AbstractUdfStreamOperator<OUT, FoldFunction<IN, OUT>>
-		implements OneInputStreamOperator<IN, OUT>, OutputTypeConfigurable<OUT> {
+		implements OneInputStreamOperator<IN, OUT>, OutputTypeConfigurable<OUT>, Triggerable {
 
 	private static final long serialVersionUID = 1L;
 	
@@ -48,13 +63,45 @@ public class StreamGroupedFold<IN, OUT, KEY>
 	private byte[] serializedInitialValue;
 	
 	private TypeSerializer<OUT> outTypeSerializer;
+
+	/** The maximum number of elements in a mini-batch, mini-batching is disabled if this is 0 */
+	private int maxBatchSize;
+
+	/** The maximum time in milliseconds that an element is held in a mini-batch, 0 for no limit */
+	private long maxBatchLatency;
+
+	private transient KeySelector<IN, ?> keySelector;
+
+	/** The folded values of the current mini-batch, in the order in which the keys arrived */
+	private transient LinkedHashMap<Object, StreamRecord<OUT>> batch;
+
+	private transient int numBatchElements;
+
+	private transient long batchDeadline;
 	
 	public StreamGroupedFold(FoldFunction<IN, OUT> folder, OUT initialValue) {
 		super(folder);
 		this.initialValue = initialValue;
 	}
 
+	/**
+	 * Enables mini-batching. The elements of a batch are folded per key before the key/value
+	 * state is accessed.
+	 *
+	 * @param maxBatchSize The maximum number of elements in a batch.
+	 * @param maxBatchLatency The maximum time in milliseconds before a batch is emitted, 0 for no limit.
+	 */
+	public StreamGroupedFold<IN, OUT, KEY> enableMiniBatch(int maxBatchSize, long maxBatchLatency) {
+		if (maxBatchSize < 1 || maxBatchLatency < 0) {
+			throw new IllegalArgumentException("The mini-batch size must be positive and the latency must not be negative.");
+		}
+		this.maxBatchSize = maxBatchSize;
+		this.maxBatchLatency = maxBatchLatency;
+		return this;
+	}
+
 	@Override
+	@SuppressWarnings("unchecked")
 	public void open() throws Exception {
 		super.open();
 
@@ -67,10 +114,28 @@ public class StreamGroupedFold<IN, OUT, KEY>
 		DataInputViewStreamWrapper in = new DataInputViewStreamWrapper(bais);
 		initialValue = outTypeSerializer.deserialize(in);
 		values = createKeyValueState(STATE_NAME, outTypeSerializer, null);
+
+		if (maxBatchSize > 0) {
+			keySelector = (KeySelector<IN, ?>) getOperatorConfig().getStatePartitioner(getUserCodeClassloader());
+			batch = new LinkedHashMap<>();
+		}
+	}
+
+	@Override
+	public void close() throws Exception {
+		if (batch != null) {
+			emitBatch();
+		}
+		super.close();
 	}
 
 	@Override
 	public void processElement(StreamRecord<IN> element) throws Exception {
+		if (batch != null) {
+			addToBatch(element);
+			return;
+		}
+
 		OUT value = values.value();
 
 		if (value != null) {
@@ -86,9 +151,26 @@ public class StreamGroupedFold<IN, OUT, KEY>
 
 	@Override
 	public void processWatermark(Watermark mark) throws Exception {
+		if (batch != null) {
+			emitBatch();
+		}
 		output.emitWatermark(mark);
 	}
 
+	@Override
+	public void prepareSnapshotPreBarrier(long checkpointId) throws Exception {
+		if (batch != null) {
+			emitBatch();
+		}
+	}
+
+	@Override
+	public void trigger(long timestamp) throws Exception {
+		if (batch != null && !batch.isEmpty() && timestamp >= batchDeadline) {
+			emitBatch();
+		}
+	}
+
 	@Override
 	public void setOutputType(TypeInformation<OUT> outTypeInfo, ExecutionConfig executionConfig) {
 		outTypeSerializer = outTypeInfo.createSerializer(executionConfig);
@@ -106,4 +188,41 @@ public class StreamGroupedFold<IN, OUT, KEY>
 		serializedInitialValue = baos.toByteArray();
 	}
 
+	// ------------------------------------------------------------------------
+	//  Mini-batching
+	// ------------------------------------------------------------------------
+
+	private void addToBatch(StreamRecord<IN> element) throws Exception {
+		Object key = keySelector.getKey(element.getValue());
+
+		StreamRecord<OUT> folded = batch.get(key);
+		if (folded == null) {
+			// the key context is set to the key of the element, this is the only state
+			// read for the key in this batch
+			OUT value = values.value();
+			OUT start = outTypeSerializer.copy(value != null ? value : initialValue);
+			batch.put(key, new StreamRecord<>(userFunction.fold(start, element.getValue()), element.getTimestamp()));
+		} else {
+			folded.replace(userFunction.fold(folded.getValue(), element.getValue()), element.getTimestamp());
+		}
+
+		if (numBatchElements++ == 0 && maxBatchLatency > 0) {
+			batchDeadline = System.currentTimeMillis() + maxBatchLatency;
+			registerTimer(batchDeadline, this);
+		}
+		if (numBatchElements >= maxBatchSize) {
+			emitBatch();
+		}
+	}
+
+	private void emitBatch() throws Exception {
+		for (Map.Entry<Object, StreamRecord<OUT>> entry : batch.entrySet()) {
+			setKeyContext(entry.getKey());
+			values.update(entry.getValue().getValue());
+			output.collect(entry.getValue());
+		}
+		batch.clear();
+		numBatchElements = 0;
+	}
+
 }
@@ -20,11 +20,27 @@ package org.apache.flink.streaming.api.operators;
 import org.apache.flink.api.common.functions.ReduceFunction;
 import org.apache.flink.api.common.state.OperatorState;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.functions.KeySelector;
 import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.operators.Triggerable;
 import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Operator that applies a rolling {@link ReduceFunction} to the elements of a keyed stream and
+ * emits the current reduced value of a key.
+ *
+ * <p>
+ * In mini-batch mode (see {@link #enableMiniBatch(int, long)}) the operator reduces the elements
+ * of a key in a local map and accesses the key/value state only once per distinct key and batch.
+ * A batch is emitted when it holds the maximum number of elements, when its maximum latency has
+ * passed, on watermarks, and before checkpoint barriers. Only the latest reduced value of each
+ * key in the batch is emitted.
+ */
 public class StreamGroupedReduce<IN> extends AbstractUdfStreamOperator<IN, ReduceFunction<IN>>
-		implements OneInputStreamOperator<IN, IN> {
+		implements OneInputStreamOperator<IN, IN>, Triggerable {
 
 	private static final long serialVersionUID = 1L;
 
@@ -34,20 +50,70 @@ public class StreamGroupedReduce<IN> extends AbstractUdfStreamOperator<IN, Reduc
 	
 	private TypeSerializer<IN> serializer;
 
+	/** The maximum number of elements in a mini-batch, mini-batching is disabled if this is 0 */
+	private int maxBatchSize;
+
+	/** The maximum time in milliseconds that an element is held in a mini-batch, 0 for no limit */
+	private long maxBatchLatency;
+
+	private transient KeySelector<IN, ?> keySelector;
+
+	/** The reduced values of the current mini-batch, in the order in which the keys arrived */
+	private transient LinkedHashMap<Object, StreamRecord<IN>> batch;
+
+	private transient int numBatchElements;
+
+	private transient long batchDeadline;
+
 	
 	public StreamGroupedReduce(ReduceFunction<IN> reducer, TypeSerializer<IN> serializer) {
 		super(reducer);
 		this.serializer = serializer;
 	}
 
+	/**
+	 * Enables mini-batching. The elements of a batch are reduced per key before the key/value
+	 * state is accessed.
+	 *
+	 * @param maxBatchSize The maximum number of elements in a batch.
+	 * @param maxBatchLatency The maximum time in milliseconds before a batch is emitted, 0 for no limit.
+	 */
+	public StreamGroupedReduce<IN> enableMiniBatch(int maxBatchSize, long maxBatchLatency) {
+		if (maxBatchSize < 1 || maxBatchLatency < 0) {
+			throw new IllegalArgumentException("The mini-batch size must be positive and the latency must not be negative.");
+		}
+		this.maxBatchSize = maxBatchSize;
+		this.maxBatchLatency = maxBatchLatency;
+		return this;
+	}
+
 	@Override
+	@SuppressWarnings("unchecked")
 	public void open() throws Exception {
 		super.open();
 		values = createKeyValueState(STATE_NAME, serializer, null);
+
+		if (maxBatchSize > 0) {
+			keySelector = (KeySelector<IN, ?>) getOperatorConfig().getStatePartitioner(getUserCodeClassloader());
+			batch = new LinkedHashMap<>();
+		}
+	}
+
+	@Override
+	public void close() throws Exception {
+		if (batch != null) {
+			emitBatch();
+		}
+		super.close();
 	}
 
 	@Override
 	public void processElement(StreamRecord<IN> element) throws Exception {
+		if (batch != null) {
+			addToBatch(element);
+			return;
+		}
+
 		IN value = element.getValue();
 		IN currentValue = values.value();
 		
@@ -63,8 +129,61 @@ public class StreamGroupedReduce<IN> extends AbstractUdfStreamOperator<IN, Reduc
 
 	@Override
 	public void processWatermark(Watermark mark) throws Exception {
+		if (batch != null) {
+			emitBatch();
+		}
 		output.emitWatermark(mark);
 	}
 
+	@Override
+	public void prepareSnapshotPreBarrier(long checkpointId) throws Exception {
+		if (batch != null) {
+			emitBatch();
+		}
+	}
+
+	@Override
+	public void trigger(long timestamp) throws Exception {
+		if (batch != null && !batch.isEmpty() && timestamp >= batchDeadline) {
+			emitBatch();
+		}
+	}
+
+	// ------------------------------------------------------------------------
+	//  Mini-batching
+	// ------------------------------------------------------------------------
+
+	private void addToBatch(StreamRecord<IN> element) throws Exception {
+		IN value = element.getValue();
+		Object key = keySelector.getKey(value);
+
+		StreamRecord<IN> reduced = batch.get(key);
+		if (reduced == null) {
+			// the key context is set to the key of the element, this is the only state
+			// read for the key in this batch
+			IN currentValue = values.value();
+			IN first = currentValue != null ? userFunction.reduce(currentValue, value) : value;
+			batch.put(key, new StreamRecord<>(first, element.getTimestamp()));
+		} else {
+			reduced.replace(userFunction.reduce(reduced.getValue(), value), element.getTimestamp());
+		}
+
+		if (numBatchElements++ == 0 && maxBatchLatency > 0) {
+			batchDeadline = System.currentTimeMillis() + maxBatchLatency;
+			registerTimer(batchDeadline, this);
+		}
+		if (numBatchElements >= maxBatchSize) {
+			emitBatch();
+		}
+	}
 
+	private void emitBatch() throws Exception {
+		for (Map.Entry<Object, StreamRecord<IN>> entry : batch.entrySet()) {
+			setKeyContext(entry.getKey());
+			values.update(entry.getValue().getValue());
+			output.collect(entry.getValue());
+		}
+		batch.clear();
+		numBatchElements = 0;
+	}
 }
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.flink.api.common.functions.ReduceFunction;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.operators.Triggerable;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+
+import java.util.LinkedHashMap;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Operator that pre-aggregates the elements of a stream per key before they are partitioned by
+ * key, similar to a combiner in batch programs. It runs chained to the operator that produces
+ * its input and emits partial aggregates, which a {@link StreamGroupedReduce} with the same
+ * {@link ReduceFunction} merges after the partitioning.
+ *
+ * <p>
+ * The partial aggregates are emitted when the operator has combined the maximum number of
+ * elements, when the maximum latency has passed, on watermarks, and before checkpoint barriers.
+ * The operator itself holds no checkpointed state.
+ */
+public class StreamLocalReduce<IN> extends AbstractUdfStreamOperator<IN, ReduceFunction<IN>>
+		implements OneInputStreamOperator<IN, IN>, Triggerable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final KeySelector<IN, ?> keySelector;
+
+	private final TypeSerializer<IN> serializer;
+
+	/** The maximum number of elements that are combined before the partial aggregates are emitted */
+	private final int maxCombineSize;
+
+	/** The maximum time in milliseconds that an element is held, 0 for no limit */
+	private final long maxCombineLatency;
+
+	/** The partial aggregates, in the order in which the keys arrived */
+	private transient LinkedHashMap<Object, StreamRecord<IN>> partials;
+
+	private transient int numCombinedElements;
+
+	private transient long combineDeadline;
+
+	private transient boolean objectReuse;
+
+	public StreamLocalReduce(ReduceFunction<IN> reducer, KeySelector<IN, ?> keySelector,
+			TypeSerializer<IN> serializer, int maxCombineSize, long maxCombineLatency) {
+		super(reducer);
+
+		if (maxCombineSize < 1 || maxCombineLatency < 0) {
+			throw new IllegalArgumentException("The combine size must be positive and the latency must not be negative.");
+		}
+
+		this.keySelector = requireNonNull(keySelector);
+		this.serializer = requireNonNull(serializer);
+		this.maxCombineSize = maxCombineSize;
+		this.maxCombineLatency = maxCombineLatency;
+
+		setChainingStrategy(ChainingStrategy.ALWAYS);
+	}
+
+	@Override
+	public void open() throws Exception {
+		super.open();
+		partials = new LinkedHashMap<>();
+		objectReuse = getExecutionConfig().isObjectReuseEnabled();
+	}
+
+	@Override
+	public void close() throws Exception {
+		emitPartials();
+		super.close();
+	}
+
+	@Override
+	public void processElement(StreamRecord<IN> element) throws Exception {
+		IN value = element.getValue();
+		Object key = keySelector.getKey(value);
+
+		// with object reuse, the value may be modified once this method returns
+		StreamRecord<IN> partial = partials.get(key);
+		if (partial == null) {
+			partials.put(key, new StreamRecord<>(objectReuse ? serializer.copy(value) : value, element.getTimestamp()));
+		} else {
+			IN reduced = userFunction.reduce(partial.getValue(), value);
+			partial.replace(objectReuse && reduced == value ? serializer.copy(reduced) : reduced, element.getTimestamp());
+		}
+
+		if (numCombinedElements++ == 0 && maxCombineLatency > 0) {
+			combineDeadline = System.currentTimeMillis() + maxCombineLatency;
+			registerTimer(combineDeadline, this);
+		}
+		if (numCombinedElements >= maxCombineSize) {
+			emitPartials();
+		}
+	}
+
+	@Override
+	public void processWatermark(Watermark mark) throws Exception {
+		emitPartials();
+		output.emitWatermark(mark);
+	}
+
+	@Override
+	public void prepareSnapshotPreBarrier(long checkpointId) throws Exception {
+		emitPartials();
+	}
+
+	@Override
+	public void trigger(long timestamp) throws Exception {
+		if (partials != null && !partials.isEmpty() && timestamp >= combineDeadline) {
+			emitPartials();
+		}
+	}
+
+	private void emitPartials() {
+		for (StreamRecord<IN> partial : partials.values()) {
+			output.collect(partial);
+		}
+		partials.clear();
+		numCombinedElements = 0;
+	}
+
+	// ------------------------------------------------------------------------
+	//  Getters for testing
+	// ------------------------------------------------------------------------
+
+	@VisibleForTesting
+	public int getMaxCombineSize() {
+		return maxCombineSize;
+	}
+
+	@VisibleForTesting
+	public long getMaxCombineLatency() {
+		return maxCombineLatency;
+	}
+}
@@ -101,6 +101,17 @@ public interface StreamOperator<OUT> extends Serializable {
 	 *                   and the key/value state.
 	 */
 	StreamTaskState snapshotOperatorState(long checkpointId, long timestamp) throws Exception;
+
+	/**
+	 * This method is called when the operator should emit the elements that it buffers, before
+	 * the checkpoint barrier is sent downstream and the state snapshot is drawn. Elements emitted
+	 * here are not part of the state snapshot of the operator and precede the barrier.
+	 *
+	 * @param checkpointId The ID of the checkpoint.
+	 *
+	 * @throws Exception Exceptions while emitting the buffered elements cause the checkpoint to fail.
+	 */
+	void prepareSnapshotPreBarrier(long checkpointId) throws Exception;
 	
 	/**
 	 * Restores the operator state, if this operator's execution is recovering from a checkpoint.
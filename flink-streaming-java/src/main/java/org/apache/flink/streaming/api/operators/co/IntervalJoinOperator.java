@@ -0,0 +1,565 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators.co;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.flink.api.common.functions.FlatJoinFunction;
+import org.apache.flink.api.common.state.OperatorState;
+import org.apache.flink.api.common.typeutils.CompatibilityResult;
+import org.apache.flink.api.common.typeutils.CompositeTypeSerializerConfigSnapshot;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.TypeSerializerConfigSnapshot;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+import org.apache.flink.runtime.state.StateBackend;
+import org.apache.flink.runtime.state.StateHandle;
+import org.apache.flink.streaming.api.operators.AbstractUdfStreamOperator;
+import org.apache.flink.streaming.api.operators.TimestampedCollector;
+import org.apache.flink.streaming.api.operators.TwoInputStreamOperator;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.runtime.tasks.StreamTaskState;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An operator that joins two keyed streams on the timestamps of their elements. An element
+ * {@code e1} of the first input is joined with every element {@code e2} of the second input
+ * that has the same key and satisfies
+ * {@code e1.timestamp + lowerBound <= e2.timestamp <= e1.timestamp + upperBound}.
+ *
+ * <p>
+ * Instead of buffering both inputs in a window, every side keeps its elements in key/value state,
+ * indexed by timestamp. An arriving element is immediately joined with the matching range of the
+ * other side and the results are emitted with the larger of the two timestamps. Elements are dropped
+ * once the watermark guarantees that no element of the other side can match them anymore, so
+ * the operator only holds the elements of the join interval. To find the keys with expired
+ * elements, the operator keeps the keys per timestamp, similar to the timers of the
+ * {@link org.apache.flink.streaming.runtime.operators.windowing.WindowOperator}.
+ *
+ * <p>
+ * The two-input task does not set the key of the key/value state, so the operator sets it from
+ * the key selectors for every element. The operator must be configured with the key selector and
+ * key serializer of the first input as its state partitioner.
+ *
+ * <p>
+ * Elements that arrive after the watermark are still joined with the elements that are held
+ * at that point, but matches with already dropped elements are lost.
+ *
+ * @param <KEY> The type of the key on which the inputs are joined.
+ * @param <T1> The type of the elements of the first input.
+ * @param <T2> The type of the elements of the second input.
+ * @param <OUT> The type of the join results.
+ */
+public class IntervalJoinOperator<KEY, T1, T2, OUT>
+		extends AbstractUdfStreamOperator<OUT, FlatJoinFunction<T1, T2, OUT>>
+		implements TwoInputStreamOperator<T1, T2, OUT> {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final String BUFFER1_STATE_NAME = "interval-join-buffer-1";
+	private static final String BUFFER2_STATE_NAME = "interval-join-buffer-2";
+
+	private final KeySelector<T1, KEY> keySelector1;
+	private final KeySelector<T2, KEY> keySelector2;
+
+	private final TypeSerializer<T1> serializer1;
+	private final TypeSerializer<T2> serializer2;
+
+	private final long lowerBound;
+	private final long upperBound;
+
+	/** The elements of the first input of the current key, by timestamp */
+	private transient OperatorState<TreeMap<Long, List<T1>>> buffer1;
+
+	/** The elements of the second input of the current key, by timestamp */
+	private transient OperatorState<TreeMap<Long, List<T2>>> buffer2;
+
+	/** The keys that have elements of the first input, by timestamp */
+	private transient TreeMap<Long, Set<KEY>> keysByTimestamp1;
+
+	/** The keys that have elements of the second input, by timestamp */
+	private transient TreeMap<Long, Set<KEY>> keysByTimestamp2;
+
+	private transient int numElements1;
+	private transient int numElements2;
+
+	private transient TimestampedCollector<OUT> collector;
+
+	// We keep track of watermarks from both inputs, the combined input is the minimum
+	// Once the minimum advances we emit a new watermark and drop the expired elements
+	private long combinedWatermark = Long.MIN_VALUE;
+	private long input1Watermark = Long.MIN_VALUE;
+	private long input2Watermark = Long.MIN_VALUE;
+
+	/**
+	 * Creates a new {@code IntervalJoinOperator}.
+	 *
+	 * @param keySelector1 The key selector for the elements of the first input.
+	 * @param keySelector2 The key selector for the elements of the second input.
+	 * @param serializer1 The serializer for the elements of the first input, used for the state.
+	 * @param serializer2 The serializer for the elements of the second input, used for the state.
+	 * @param lowerBound The lower bound of the offset of matching second input elements (inclusive).
+	 * @param upperBound The upper bound of the offset of matching second input elements (inclusive).
+	 * @param joinFunction The function that is called for each pair of matching elements.
+	 */
+	public IntervalJoinOperator(
+			KeySelector<T1, KEY> keySelector1,
+			KeySelector<T2, KEY> keySelector2,
+			TypeSerializer<T1> serializer1,
+			TypeSerializer<T2> serializer2,
+			long lowerBound,
+			long upperBound,
+			FlatJoinFunction<T1, T2, OUT> joinFunction) {
+
+		super(joinFunction);
+
+		if (lowerBound > upperBound) {
+			throw new IllegalArgumentException("The lower bound of the join interval must not be larger than the upper bound.");
+		}
+
+		this.keySelector1 = requireNonNull(keySelector1);
+		this.keySelector2 = requireNonNull(keySelector2);
+		this.serializer1 = requireNonNull(serializer1);
+		this.serializer2 = requireNonNull(serializer2);
+		this.lowerBound = lowerBound;
+		this.upperBound = upperBound;
+	}
+
+	@Override
+	public void open() throws Exception {
+		super.open();
+		collector = new TimestampedCollector<>(output);
+
+		// the key/value states are restored here, if there is a snapshot for them
+		buffer1 = createKeyValueState(BUFFER1_STATE_NAME, new BufferSerializer<>(serializer1), null);
+		buffer2 = createKeyValueState(BUFFER2_STATE_NAME, new BufferSerializer<>(serializer2), null);
+
+		// the timestamp indexes could already be initialized from restoreState()
+		if (keysByTimestamp1 == null) {
+			keysByTimestamp1 = new TreeMap<>();
+		}
+		if (keysByTimestamp2 == null) {
+			keysByTimestamp2 = new TreeMap<>();
+		}
+	}
+
+	@Override
+	public void dispose() {
+		super.dispose();
+
+		keysByTimestamp1 = null;
+		keysByTimestamp2 = null;
+	}
+
+	// ------------------------------------------------------------------------
+	//  Receiving elements and watermarks
+	// ------------------------------------------------------------------------
+
+	@Override
+	public void processElement1(StreamRecord<T1> element) throws Exception {
+		final T1 value = element.getValue();
+		final long timestamp = element.getTimestamp();
+		final KEY key = keySelector1.getKey(value);
+		setKeyContext(key);
+
+		TreeMap<Long, List<T2>> candidates = buffer2.value();
+		if (candidates != null) {
+			for (Map.Entry<Long, List<T2>> entry :
+					candidates.subMap(timestamp + lowerBound, true, timestamp + upperBound, true).entrySet()) {
+				collector.setTimestamp(Math.max(timestamp, entry.getKey()));
+				for (T2 other : entry.getValue()) {
+					userFunction.join(value, other, collector);
+				}
+			}
+		}
+
+		// second input elements that are not yet late can only match if this holds
+		if (timestamp + upperBound > combinedWatermark) {
+			add(buffer1, keysByTimestamp1, key, timestamp, value);
+			numElements1++;
+		}
+	}
+
+	@Override
+	public void processElement2(StreamRecord<T2> element) throws Exception {
+		final T2 value = element.getValue();
+		final long timestamp = element.getTimestamp();
+		final KEY key = keySelector2.getKey(value);
+		setKeyContext(key);
+
+		TreeMap<Long, List<T1>> candidates = buffer1.value();
+		if (candidates != null) {
+			for (Map.Entry<Long, List<T1>> entry :
+					candidates.subMap(timestamp - upperBound, true, timestamp - lowerBound, true).entrySet()) {
+				collector.setTimestamp(Math.max(timestamp, entry.getKey()));
+				for (T1 other : entry.getValue()) {
+					userFunction.join(other, value, collector);
+				}
+			}
+		}
+
+		// first input elements that are not yet late can only match if this holds
+		if (timestamp - lowerBound > combinedWatermark) {
+			add(buffer2, keysByTimestamp2, key, timestamp, value);
+			numElements2++;
+		}
+	}
+
+	@Override
+	public void processWatermark1(Watermark mark) throws Exception {
+		input1Watermark = mark.getTimestamp();
+		advanceWatermark(Math.min(input1Watermark, input2Watermark));
+	}
+
+	@Override
+	public void processWatermark2(Watermark mark) throws Exception {
+		input2Watermark = mark.getTimestamp();
+		advanceWatermark(Math.min(input1Watermark, input2Watermark));
+	}
+
+	private void advanceWatermark(long newWatermark) throws Exception {
+		if (newWatermark > combinedWatermark) {
+			combinedWatermark = newWatermark;
+
+			numElements1 -= expire(buffer1, keysByTimestamp1, newWatermark, upperBound);
+			numElements2 -= expire(buffer2, keysByTimestamp2, newWatermark, -lowerBound);
+
+			output.emitWatermark(new Watermark(newWatermark));
+		}
+	}
+
+	/**
+	 * Adds the element to the buffer of the current key.
+	 */
+	private <T> void add(
+			OperatorState<TreeMap<Long, List<T>>> buffer,
+			TreeMap<Long, Set<KEY>> keysByTimestamp,
+			KEY key,
+			long timestamp,
+			T value) throws IOException {
+
+		TreeMap<Long, List<T>> elements = buffer.value();
+		if (elements == null) {
+			elements = new TreeMap<>();
+		}
+
+		List<T> atTimestamp = elements.get(timestamp);
+		if (atTimestamp == null) {
+			atTimestamp = new ArrayList<>(2);
+			elements.put(timestamp, atTimestamp);
+
+			Set<KEY> keys = keysByTimestamp.get(timestamp);
+			if (keys == null) {
+				keys = new HashSet<>();
+				keysByTimestamp.put(timestamp, keys);
+			}
+			keys.add(key);
+		}
+		atTimestamp.add(value);
+		buffer.update(elements);
+	}
+
+	/**
+	 * Drops all elements whose timestamp plus the given offset is not after the watermark.
+	 *
+	 * @return The number of dropped elements.
+	 */
+	private <T> int expire(
+			OperatorState<TreeMap<Long, List<T>>> buffer,
+			TreeMap<Long, Set<KEY>> keysByTimestamp,
+			long watermark,
+			long offset) throws IOException {
+
+		int numExpired = 0;
+
+		Iterator<Map.Entry<Long, Set<KEY>>> it = keysByTimestamp.entrySet().iterator();
+		while (it.hasNext()) {
+			Map.Entry<Long, Set<KEY>> entry = it.next();
+			if (entry.getKey() + offset > watermark) {
+				break;
+			}
+
+			for (KEY key : entry.getValue()) {
+				setKeyContext(key);
+				TreeMap<Long, List<T>> elements = buffer.value();
+				numExpired += elements.remove(entry.getKey()).size();
+				buffer.update(elements.isEmpty() ? null : elements);
+			}
+			it.remove();
+		}
+		return numExpired;
+	}
+
+	// ------------------------------------------------------------------------
+	//  Checkpointing
+	// ------------------------------------------------------------------------
+
+	@Override
+	public StreamTaskState snapshotOperatorState(long checkpointId, long timestamp) throws Exception {
+		// the buffered elements are part of the key/value state snapshot
+		StreamTaskState taskState = super.snapshotOperatorState(checkpointId, timestamp);
+
+		TypeSerializer<KEY> keySerializer = getOperatorConfig().getStateKeySerializer(getUserCodeClassloader());
+
+		StateBackend.CheckpointStateOutputView out =
+				getStateBackend().createCheckpointStateOutputView(checkpointId, timestamp);
+
+		out.writeLong(combinedWatermark);
+		out.writeLong(input1Watermark);
+		out.writeLong(input2Watermark);
+		out.writeInt(numElements1);
+		out.writeInt(numElements2);
+		writeKeysByTimestamp(keysByTimestamp1, keySerializer, out);
+		writeKeysByTimestamp(keysByTimestamp2, keySerializer, out);
+
+		taskState.setOperatorState(out.closeAndGetHandle());
+		return taskState;
+	}
+
+	@Override
+	public void restoreState(StreamTaskState taskState, long recoveryTimestamp) throws Exception {
+		super.restoreState(taskState, recoveryTimestamp);
+
+		TypeSerializer<KEY> keySerializer = getOperatorConfig().getStateKeySerializer(getUserCodeClassloader());
+
+		@SuppressWarnings("unchecked")
+		StateHandle<DataInputView> inputState = (StateHandle<DataInputView>) taskState.getOperatorState();
+		DataInputView in = inputState.getState(getUserCodeClassloader());
+
+		combinedWatermark = in.readLong();
+		input1Watermark = in.readLong();
+		input2Watermark = in.readLong();
+		numElements1 = in.readInt();
+		numElements2 = in.readInt();
+		keysByTimestamp1 = readKeysByTimestamp(keySerializer, in);
+		keysByTimestamp2 = readKeysByTimestamp(keySerializer, in);
+	}
+
+	private static <KEY> void writeKeysByTimestamp(
+			TreeMap<Long, Set<KEY>> keysByTimestamp,
+			TypeSerializer<KEY> keySerializer,
+			DataOutputView out) throws IOException {
+
+		out.writeInt(keysByTimestamp.size());
+		for (Map.Entry<Long, Set<KEY>> entry : keysByTimestamp.entrySet()) {
+			out.writeLong(entry.getKey());
+			out.writeInt(entry.getValue().size());
+			for (KEY key : entry.getValue()) {
+				keySerializer.serialize(key, out);
+			}
+		}
+	}
+
+	private static <KEY> TreeMap<Long, Set<KEY>> readKeysByTimestamp(
+			TypeSerializer<KEY> keySerializer,
+			DataInputView in) throws IOException {
+
+		TreeMap<Long, Set<KEY>> keysByTimestamp = new TreeMap<>();
+		for (int numTimestamps = in.readInt(); numTimestamps > 0; numTimestamps--) {
+			long timestamp = in.readLong();
+			int numKeys = in.readInt();
+			Set<KEY> keys = new HashSet<>(numKeys);
+			for (int i = 0; i < numKeys; i++) {
+				keys.add(keySerializer.deserialize(in));
+			}
+			keysByTimestamp.put(timestamp, keys);
+		}
+		return keysByTimestamp;
+	}
+
+	// ------------------------------------------------------------------------
+	//  Getters for testing
+	// ------------------------------------------------------------------------
+
+	@VisibleForTesting
+	public int getNumBufferedElements1() {
+		return numElements1;
+	}
+
+	@VisibleForTesting
+	public int getNumBufferedElements2() {
+		return numElements2;
+	}
+
+	@VisibleForTesting
+	public long getLowerBound() {
+		return lowerBound;
+	}
+
+	@VisibleForTesting
+	public long getUpperBound() {
+		return upperBound;
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * The serializer for the buffered elements of one key, a map from timestamps to the elements
+	 * with that timestamp.
+	 */
+	private static final class BufferSerializer<T> extends TypeSerializer<TreeMap<Long, List<T>>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final TypeSerializer<T> elementSerializer;
+
+		BufferSerializer(TypeSerializer<T> elementSerializer) {
+			this.elementSerializer = elementSerializer;
+		}
+
+		@Override
+		public boolean isImmutableType() {
+			return false;
+		}
+
+		@Override
+		public TypeSerializer<TreeMap<Long, List<T>>> duplicate() {
+			TypeSerializer<T> duplicateElementSerializer = elementSerializer.duplicate();
+			return duplicateElementSerializer == elementSerializer ? this : new BufferSerializer<>(duplicateElementSerializer);
+		}
+
+		@Override
+		public TreeMap<Long, List<T>> createInstance() {
+			return new TreeMap<>();
+		}
+
+		@Override
+		public TreeMap<Long, List<T>> copy(TreeMap<Long, List<T>> from) {
+			TreeMap<Long, List<T>> copy = new TreeMap<>();
+			for (Map.Entry<Long, List<T>> entry : from.entrySet()) {
+				List<T> elements = new ArrayList<>(entry.getValue().size());
+				for (T element : entry.getValue()) {
+					elements.add(elementSerializer.copy(element));
+				}
+				copy.put(entry.getKey(), elements);
+			}
+			return copy;
+		}
+
+		@Override
+		public TreeMap<Long, List<T>> copy(TreeMap<Long, List<T>> from, TreeMap<Long, List<T>> reuse) {
+			return copy(from);
+		}
+
+		@Override
+		public int getLength() {
+			return -1;
+		}
+
+		@Override
+		public void serialize(TreeMap<Long, List<T>> record, DataOutputView target) throws IOException {
+			target.writeInt(record.size());
+			for (Map.Entry<Long, List<T>> entry : record.entrySet()) {
+				target.writeLong(entry.getKey());
+				target.writeInt(entry.getValue().size());
+				for (T element : entry.getValue()) {
+					elementSerializer.serialize(element, target);
+				}
+			}
+		}
+
+		@Override
+		public TreeMap<Long, List<T>> deserialize(DataInputView source) throws IOException {
+			TreeMap<Long, List<T>> record = new TreeMap<>();
+			for (int numTimestamps = source.readInt(); numTimestamps > 0; numTimestamps--) {
+				long timestamp = source.readLong();
+				int numElements = source.readInt();
+				List<T> elements = new ArrayList<>(numElements);
+				for (int i = 0; i < numElements; i++) {
+					elements.add(elementSerializer.deserialize(source));
+				}
+				record.put(timestamp, elements);
+			}
+			return record;
+		}
+
+		@Override
+		public TreeMap<Long, List<T>> deserialize(TreeMap<Long, List<T>> reuse, DataInputView source) throws IOException {
+			return deserialize(source);
+		}
+
+		@Override
+		public void copy(DataInputView source, DataOutputView target) throws IOException {
+			int numTimestamps = source.readInt();
+			target.writeInt(numTimestamps);
+			for (int t = 0; t < numTimestamps; t++) {
+				target.writeLong(source.readLong());
+				int numElements = source.readInt();
+				target.writeInt(numElements);
+				for (int i = 0; i < numElements; i++) {
+					elementSerializer.copy(source, target);
+				}
+			}
+		}
+
+		@Override
+		public TypeSerializerConfigSnapshot snapshotConfiguration() {
+			return new CompositeTypeSerializerConfigSnapshot(
+					this, TreeMap.class, new TypeSerializer<?>[] { elementSerializer });
+		}
+
+		@Override
+		public CompatibilityResult<TreeMap<Long, List<T>>> ensureCompatibility(TypeSerializerConfigSnapshot configSnapshot) {
+			if (configSnapshot instanceof CompositeTypeSerializerConfigSnapshot &&
+					getClass().getName().equals(configSnapshot.getSerializerClassName())) {
+
+				TypeSerializerConfigSnapshot[] elementConfigs =
+						((CompositeTypeSerializerConfigSnapshot) configSnapshot).getFieldSerializerConfigs();
+
+				// the elements are not migrated
+				if (elementConfigs.length == 1 &&
+						!elementSerializer.ensureCompatibility(elementConfigs[0]).isRequiresMigration()) {
+					return CompatibilityResult.compatible();
+				}
+			}
+			return CompatibilityResult.incompatible();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj instanceof BufferSerializer) {
+				BufferSerializer<?> other = (BufferSerializer<?>) obj;
+				return other.canEqual(this) && elementSerializer.equals(other.elementSerializer);
+			}
+			else {
+				return false;
+			}
+		}
+
+		@Override
+		public boolean canEqual(Object obj) {
+			return obj instanceof BufferSerializer;
+		}
+
+		@Override
+		public int hashCode() {
+			return elementSerializer.hashCode();
+		}
+	}
+}
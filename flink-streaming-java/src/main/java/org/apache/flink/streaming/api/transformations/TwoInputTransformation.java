@@ -19,6 +19,7 @@ package org.apache.flink.streaming.api.transformations;
 
 import com.google.common.collect.Lists;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.java.functions.KeySelector;
 import org.apache.flink.streaming.api.operators.ChainingStrategy;
 import org.apache.flink.streaming.api.operators.TwoInputStreamOperator;
 
@@ -41,6 +42,12 @@ public class TwoInputTransformation<IN1, IN2, OUT> extends StreamTransformation<
 
 	private final TwoInputStreamOperator<IN1, IN2, OUT> operator;
 
+	private KeySelector<IN1, ?> stateKeySelector1;
+
+	private KeySelector<IN2, ?> stateKeySelector2;
+
+	private TypeInformation<?> stateKeyType;
+
 	/**
 	 * Creates a new {@code TwoInputTransformation} from the given inputs and operator.
 	 *
@@ -99,6 +106,47 @@ public class TwoInputTransformation<IN1, IN2, OUT> extends StreamTransformation<
 		return operator;
 	}
 
+	/**
+	 * Sets the {@link KeySelector KeySelectors} that must be used for partitioning keyed state of
+	 * this operation. The task does not set the key of the keyed state for the elements of a two
+	 * input operation, so the operator has to set it itself.
+	 *
+	 * @param stateKeySelector1 The {@code KeySelector} for the elements of the first input
+	 * @param stateKeySelector2 The {@code KeySelector} for the elements of the second input
+	 */
+	public void setStateKeySelectors(KeySelector<IN1, ?> stateKeySelector1, KeySelector<IN2, ?> stateKeySelector2) {
+		this.stateKeySelector1 = stateKeySelector1;
+		this.stateKeySelector2 = stateKeySelector2;
+	}
+
+	/**
+	 * Returns the {@code KeySelector} for the elements of the first input, which is used for
+	 * partitioning keyed state in this operation.
+	 *
+	 * @see #setStateKeySelectors
+	 */
+	public KeySelector<IN1, ?> getStateKeySelector1() {
+		return stateKeySelector1;
+	}
+
+	/**
+	 * Returns the {@code KeySelector} for the elements of the second input, which is used for
+	 * partitioning keyed state in this operation.
+	 *
+	 * @see #setStateKeySelectors
+	 */
+	public KeySelector<IN2, ?> getStateKeySelector2() {
+		return stateKeySelector2;
+	}
+
+	public void setStateKeyType(TypeInformation<?> stateKeyType) {
+		this.stateKeyType = stateKeyType;
+	}
+
+	public TypeInformation<?> getStateKeyType() {
+		return stateKeyType;
+	}
+
 	@Override
 	public Collection<StreamTransformation<?>> getTransitivePredecessors() {
 		List<StreamTransformation<?>> result = Lists.newArrayList();
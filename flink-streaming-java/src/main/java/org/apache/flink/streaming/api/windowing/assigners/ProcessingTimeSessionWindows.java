@@ -0,0 +1,97 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.streaming.api.windowing.assigners;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+import org.apache.flink.streaming.api.windowing.time.Time;
+import org.apache.flink.streaming.api.windowing.triggers.ProcessingTimeTrigger;
+import org.apache.flink.streaming.api.windowing.triggers.Trigger;
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * A {@link WindowAssigner} that windows elements into sessions based on the current processing time.
+ * Windows cannot overlap: a session ends when no element arrives for the length of the
+ * session gap.
+ *
+ * <p>
+ * For example, in order to window into sessions with a gap of 15 minutes:
+ * <pre> {@code
+ * DataStream<Tuple2<String, Integer>> in = ...;
+ * KeyedStream<Tuple2<String, Integer>, String> keyed = in.keyBy(...);
+ * WindowedStream<Tuple2<String, Integer>, String, TimeWindow> windowed =
+ *   keyed.window(ProcessingTimeSessionWindows.withGap(Time.minutes(15)));
+ * } </pre>
+ */
+public class ProcessingTimeSessionWindows extends MergingWindowAssigner<Object, TimeWindow> {
+	private static final long serialVersionUID = 1L;
+
+	private final long sessionTimeout;
+
+	private ProcessingTimeSessionWindows(long sessionTimeout) {
+		if (sessionTimeout <= 0) {
+			throw new IllegalArgumentException("The session gap must be positive.");
+		}
+		this.sessionTimeout = sessionTimeout;
+	}
+
+	@Override
+	public Collection<TimeWindow> assignWindows(Object element, long timestamp) {
+		long start = System.currentTimeMillis();
+		return Collections.singletonList(new TimeWindow(start, start + sessionTimeout));
+	}
+
+	@Override
+	public void mergeWindows(Collection<TimeWindow> windows, MergeCallback<TimeWindow> callback) throws Exception {
+		TimeWindow.mergeWindows(windows, callback);
+	}
+
+	public long getSessionGap() {
+		return sessionTimeout;
+	}
+
+	@Override
+	public Trigger<Object, TimeWindow> getDefaultTrigger(StreamExecutionEnvironment env) {
+		return ProcessingTimeTrigger.create();
+	}
+
+	@Override
+	public String toString() {
+		return "ProcessingTimeSessionWindows(" + sessionTimeout + ")";
+	}
+
+	/**
+	 * Creates a new {@code ProcessingTimeSessionWindows} {@link WindowAssigner} that assigns
+	 * elements to sessions based on the current processing time.
+	 *
+	 * @param size The session gap, after which a session without new elements is closed.
+	 * @return The policy.
+	 */
+	public static ProcessingTimeSessionWindows withGap(Time size) {
+		return new ProcessingTimeSessionWindows(size.toMilliseconds());
+	}
+
+	@Override
+	public TypeSerializer<TimeWindow> getWindowSerializer(ExecutionConfig executionConfig) {
+		return new TimeWindow.Serializer();
+	}
+}
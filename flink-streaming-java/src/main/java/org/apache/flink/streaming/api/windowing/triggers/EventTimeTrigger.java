@@ -25,7 +25,7 @@ import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
  *
  * @see org.apache.flink.streaming.api.watermark.Watermark
  */
-public class EventTimeTrigger implements Trigger<Object, TimeWindow> {
+public class EventTimeTrigger implements MergingTrigger<Object, TimeWindow> {
 	private static final long serialVersionUID = 1L;
 
 	private EventTimeTrigger() {}
@@ -46,6 +46,11 @@ public class EventTimeTrigger implements Trigger<Object, TimeWindow> {
 		return TriggerResult.CONTINUE;
 	}
 
+	@Override
+	public void onMerge(TimeWindow window, TriggerContext ctx) throws Exception {
+		ctx.registerEventTimeTimer(window.maxTimestamp());
+	}
+
 	@Override
 	public String toString() {
 		return "EventTimeTrigger()";
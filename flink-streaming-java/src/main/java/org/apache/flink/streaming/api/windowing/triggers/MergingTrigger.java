@@ -0,0 +1,43 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.streaming.api.windowing.triggers;
+
+import org.apache.flink.streaming.api.windowing.windows.Window;
+
+/**
+ * A {@link Trigger} that can be used together with a
+ * {@link org.apache.flink.streaming.api.windowing.assigners.MergingWindowAssigner}.
+ *
+ * <p>
+ * When windows are merged the trigger state and timers of the merged windows are discarded.
+ * {@link #onMerge(Window, TriggerContext)} is then called for the resulting window so that
+ * the trigger can set up its state and re-register its timers.
+ *
+ * @param <T> The type of elements on which this {@code Trigger} works.
+ * @param <W> The type of {@link Window Windows} on which this {@code Trigger} can operate.
+ */
+public interface MergingTrigger<T, W extends Window> extends Trigger<T, W> {
+
+	/**
+	 * Called when several windows have been merged into one window.
+	 *
+	 * @param window The new window that results from the merge.
+	 * @param ctx A context object that can be used to register timer callbacks and access state.
+	 */
+	void onMerge(W window, TriggerContext ctx) throws Exception;
+}
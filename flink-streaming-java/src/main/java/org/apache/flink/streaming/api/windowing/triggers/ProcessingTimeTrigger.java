@@ -23,7 +23,7 @@ import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
  * A {@link Trigger} that fires once the current system time passes the end of the window
  * to which a pane belongs.
  */
-public class ProcessingTimeTrigger implements Trigger<Object, TimeWindow> {
+public class ProcessingTimeTrigger implements MergingTrigger<Object, TimeWindow> {
 	private static final long serialVersionUID = 1L;
 
 	private ProcessingTimeTrigger() {}
@@ -44,6 +44,11 @@ public class ProcessingTimeTrigger implements Trigger<Object, TimeWindow> {
 		return TriggerResult.FIRE_AND_PURGE;
 	}
 
+	@Override
+	public void onMerge(TimeWindow window, TriggerContext ctx) throws Exception {
+		ctx.registerProcessingTimeTimer(window.maxTimestamp());
+	}
+
 	@Override
 	public String toString() {
 		return "ProcessingTimeTrigger()";
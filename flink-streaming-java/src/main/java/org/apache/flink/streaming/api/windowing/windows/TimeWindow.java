@@ -18,10 +18,16 @@
 package org.apache.flink.streaming.api.windowing.windows;
 
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.streaming.api.windowing.assigners.MergingWindowAssigner;
 import org.apache.flink.core.memory.DataInputView;
 import org.apache.flink.core.memory.DataOutputView;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 
 /**
  * A {@link Window} that represents a time interval from {@code start} (inclusive) to
@@ -50,6 +56,21 @@ public class TimeWindow extends Window {
 		return end - 1;
 	}
 
+	/**
+	 * Returns {@code true} if this window intersects the given window or if the two
+	 * windows are directly adjacent.
+	 */
+	public boolean intersects(TimeWindow other) {
+		return this.start <= other.end && this.end >= other.start;
+	}
+
+	/**
+	 * Returns the minimal window that covers both this window and the given window.
+	 */
+	public TimeWindow cover(TimeWindow other) {
+		return new TimeWindow(Math.min(start, other.start), Math.max(end, other.end));
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) {
@@ -79,6 +100,54 @@ public class TimeWindow extends Window {
 				'}';
 	}
 
+	/**
+	 * Merges overlapping {@link TimeWindow TimeWindows}. For each group of more than one
+	 * overlapping window the callback is invoked with the windows of the group and the
+	 * window that covers all of them.
+	 *
+	 * @param windows The windows to merge.
+	 * @param callback The callback that is invoked for each group of merged windows.
+	 */
+	public static void mergeWindows(Collection<TimeWindow> windows,
+			MergingWindowAssigner.MergeCallback<TimeWindow> callback) throws Exception {
+
+		if (windows.size() < 2) {
+			return;
+		}
+
+		List<TimeWindow> sortedWindows = new ArrayList<>(windows);
+		Collections.sort(sortedWindows, new Comparator<TimeWindow>() {
+			@Override
+			public int compare(TimeWindow o1, TimeWindow o2) {
+				return Long.compare(o1.getStart(), o2.getStart());
+			}
+		});
+
+		List<TimeWindow> currentGroup = new ArrayList<>();
+		TimeWindow currentCover = null;
+
+		for (TimeWindow candidate : sortedWindows) {
+			if (currentCover == null) {
+				currentCover = candidate;
+				currentGroup.add(candidate);
+			} else if (currentCover.intersects(candidate)) {
+				currentCover = currentCover.cover(candidate);
+				currentGroup.add(candidate);
+			} else {
+				if (currentGroup.size() > 1) {
+					callback.merge(currentGroup, currentCover);
+				}
+				currentGroup = new ArrayList<>();
+				currentGroup.add(candidate);
+				currentCover = candidate;
+			}
+		}
+
+		if (currentGroup.size() > 1) {
+			callback.merge(currentGroup, currentCover);
+		}
+	}
+
 	public static class Serializer extends TypeSerializer<TimeWindow> {
 		private static final long serialVersionUID = 1L;
 
@@ -0,0 +1,354 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.runtime.operators.windowing;
+
+import org.apache.commons.math3.util.ArithmeticUtils;
+
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.runtime.state.StateBackend;
+import org.apache.flink.runtime.state.StateHandle;
+import org.apache.flink.streaming.api.functions.windowing.WindowFunction;
+import org.apache.flink.streaming.api.operators.AbstractUdfStreamOperator;
+import org.apache.flink.streaming.api.operators.ChainingStrategy;
+import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
+import org.apache.flink.streaming.api.operators.TimestampedCollector;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.runtime.tasks.StreamTaskState;
+import org.apache.flink.util.Collector;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Base class for operators that evaluate sliding event time windows from panes.
+ *
+ * <p>
+ * The operator slices the time into panes, whose length is the greatest common divisor of the
+ * window length and the window slide. Each element is added to exactly one pane, rather than to
+ * each of the overlapping windows it belongs to. When the watermark passes the end of a window,
+ * the window result is composed from the panes that make up the window. A pane is dropped once
+ * the last window that contains it has been evaluated.
+ *
+ * <p>
+ * The operator behaves like a {@link WindowOperator} with
+ * {@link org.apache.flink.streaming.api.windowing.assigners.SlidingTimeWindows} and an
+ * {@link org.apache.flink.streaming.api.windowing.triggers.EventTimeTrigger}. Elements that arrive
+ * after the watermark has passed the end of one of their windows immediately evaluate that window
+ * with just the late element.
+ *
+ * @param <KEY> The type of the key.
+ * @param <IN> The type of the input elements.
+ * @param <OUT> The type of the window results.
+ * @param <STATE> The type of the per-key state in a pane.
+ */
+public abstract class AbstractAlignedEventTimeWindowOperator<KEY, IN, OUT, STATE>
+		extends AbstractUdfStreamOperator<OUT, WindowFunction<IN, OUT, KEY, TimeWindow>>
+		implements OneInputStreamOperator<IN, OUT> {
+
+	private static final long serialVersionUID = 1L;
+
+	// ----- fields for operator parametrization -----
+
+	private final KeySelector<IN, KEY> keySelector;
+
+	private final TypeSerializer<KEY> keySerializer;
+	private final TypeSerializer<STATE> stateTypeSerializer;
+
+	private final long windowSize;
+	private final long windowSlide;
+	private final long paneSize;
+
+	// ----- fields for operator functionality -----
+
+	/** The panes by their start time, each one holding the state of all keys */
+	private transient TreeMap<Long, KeyMap<KEY, STATE>> panes;
+
+	/** The start of the first window whose end has not yet been passed by the watermark */
+	private transient long nextWindowStart;
+
+	/** The tag of the next traversal over the panes. Starts at one, so it is fresher than new entries */
+	private transient long evaluationPass;
+
+	private transient TimestampedCollector<OUT> out;
+
+	protected AbstractAlignedEventTimeWindowOperator(
+			WindowFunction<IN, OUT, KEY, TimeWindow> function,
+			KeySelector<IN, KEY> keySelector,
+			TypeSerializer<KEY> keySerializer,
+			TypeSerializer<STATE> stateTypeSerializer,
+			long windowLength,
+			long windowSlide)
+	{
+		super(function);
+
+		if (windowSlide <= 0) {
+			throw new IllegalArgumentException("Window slide must be positive");
+		}
+		if (windowLength < windowSlide) {
+			throw new IllegalArgumentException("The window size must be larger than the window slide");
+		}
+
+		this.keySelector = requireNonNull(keySelector);
+		this.keySerializer = requireNonNull(keySerializer);
+		this.stateTypeSerializer = requireNonNull(stateTypeSerializer);
+		this.windowSize = windowLength;
+		this.windowSlide = windowSlide;
+		this.paneSize = ArithmeticUtils.gcd(windowLength, windowSlide);
+
+		setChainingStrategy(ChainingStrategy.ALWAYS);
+	}
+
+	/**
+	 * Adds the given element to the state of its key in the given pane.
+	 */
+	protected abstract void addToPane(KeyMap<KEY, STATE> pane, KEY key, IN value) throws Exception;
+
+	/**
+	 * Creates the traversal that composes the results of the given window from the states of
+	 * its panes and emits them.
+	 */
+	protected abstract KeyMap.TraversalEvaluator<KEY, STATE> createWindowEvaluator(
+			TimeWindow window, int numPanes, Collector<OUT> out);
+
+	// ------------------------------------------------------------------------
+	//  startup and shutdown
+	// ------------------------------------------------------------------------
+
+	@Override
+	public void open() throws Exception {
+		super.open();
+
+		out = new TimestampedCollector<>(output);
+		evaluationPass = 1L;
+
+		// the panes could already be initialized from restoreState()
+		if (panes == null) {
+			panes = new TreeMap<>();
+			nextWindowStart = Long.MIN_VALUE;
+		}
+	}
+
+	@Override
+	public void close() throws Exception {
+		// emit the windows that we still keep, before the functions are closed
+		evaluateWindows(Long.MAX_VALUE);
+
+		super.close();
+	}
+
+	@Override
+	public void dispose() {
+		super.dispose();
+
+		// since all is heap data, there is no need to clean up anything
+		panes = null;
+	}
+
+	// ------------------------------------------------------------------------
+	//  Receiving elements and watermarks
+	// ------------------------------------------------------------------------
+
+	@Override
+	public void processElement(StreamRecord<IN> element) throws Exception {
+		final IN value = element.getValue();
+		final long timestamp = element.getTimestamp();
+		final KEY key = keySelector.getKey(value);
+
+		final long lastWindowStart = alignDown(timestamp, windowSlide);
+		long windowStart = getEarliestWindowStart(timestamp);
+
+		// windows whose end the watermark has already passed are evaluated right away
+		for (; windowStart <= lastWindowStart && windowStart < nextWindowStart; windowStart += windowSlide) {
+			TimeWindow window = new TimeWindow(windowStart, windowStart + windowSize);
+			out.setTimestamp(window.maxTimestamp());
+			setKeyContext(key);
+			userFunction.apply(key, window, Collections.singleton(value), out);
+		}
+
+		// all other windows pick up the element from its pane
+		if (windowStart <= lastWindowStart) {
+			final long paneStart = alignDown(timestamp, paneSize);
+			KeyMap<KEY, STATE> pane = panes.get(paneStart);
+			if (pane == null) {
+				pane = new KeyMap<>();
+				panes.put(paneStart, pane);
+			}
+			addToPane(pane, key, value);
+		}
+	}
+
+	@Override
+	public void processWatermark(Watermark mark) throws Exception {
+		evaluateWindows(mark.getTimestamp());
+		output.emitWatermark(mark);
+	}
+
+	/**
+	 * Evaluates all windows that end before or at the given watermark and drops the panes
+	 * that are not part of any later window.
+	 */
+	private void evaluateWindows(long watermark) throws Exception {
+		while (!panes.isEmpty()) {
+			final long windowStart = Math.max(getEarliestWindowStart(panes.firstKey()), nextWindowStart);
+			if (windowStart + windowSize - 1 > watermark) {
+				break;
+			}
+
+			evaluateWindow(windowStart);
+
+			nextWindowStart = windowStart + windowSlide;
+			dropPanesBefore(nextWindowStart);
+		}
+
+		// windows that the watermark passed without any contents are complete as well
+		if (watermark < Long.MAX_VALUE) {
+			nextWindowStart = Math.max(nextWindowStart, getEarliestWindowStart(watermark + 1));
+			dropPanesBefore(nextWindowStart);
+		}
+	}
+
+	private void evaluateWindow(long windowStart) throws Exception {
+		final TimeWindow window = new TimeWindow(windowStart, windowStart + windowSize);
+
+		Collection<KeyMap<KEY, STATE>> windowPanes = panes.subMap(window.getStart(), window.getEnd()).values();
+		if (windowPanes.isEmpty()) {
+			return;
+		}
+
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		KeyMap<KEY, STATE>[] paneArray = windowPanes.toArray(new KeyMap[windowPanes.size()]);
+
+		out.setTimestamp(window.maxTimestamp());
+		KeyMap.traverseMapsInOrder(paneArray, createWindowEvaluator(window, paneArray.length, out), evaluationPass++);
+	}
+
+	private void dropPanesBefore(long time) {
+		while (!panes.isEmpty() && panes.firstKey() < time) {
+			panes.pollFirstEntry();
+		}
+	}
+
+	/**
+	 * Gets the start of the earliest window that contains the given timestamp.
+	 */
+	private long getEarliestWindowStart(long timestamp) {
+		final long lastWindowStart = alignDown(timestamp, windowSlide);
+		return lastWindowStart - (lastWindowStart - timestamp + windowSize - 1) / windowSlide * windowSlide;
+	}
+
+	private static long alignDown(long timestamp, long unit) {
+		final long remainder = timestamp % unit;
+		return remainder < 0 ? timestamp - remainder - unit : timestamp - remainder;
+	}
+
+	// ------------------------------------------------------------------------
+	//  Checkpointing
+	// ------------------------------------------------------------------------
+
+	@Override
+	public StreamTaskState snapshotOperatorState(long checkpointId, long timestamp) throws Exception {
+		StreamTaskState taskState = super.snapshotOperatorState(checkpointId, timestamp);
+
+		// we write the panes with the key/value maps into the stream, as well as the first
+		// window that is still open
+		StateBackend.CheckpointStateOutputView stateOut =
+				getStateBackend().createCheckpointStateOutputView(checkpointId, timestamp);
+
+		stateOut.writeLong(nextWindowStart);
+		stateOut.writeInt(panes.size());
+
+		for (Map.Entry<Long, KeyMap<KEY, STATE>> pane : panes.entrySet()) {
+			stateOut.writeLong(pane.getKey());
+			stateOut.writeInt(pane.getValue().size());
+			for (KeyMap.Entry<KEY, STATE> entry : pane.getValue()) {
+				keySerializer.serialize(entry.getKey(), stateOut);
+				stateTypeSerializer.serialize(entry.getValue(), stateOut);
+			}
+		}
+
+		taskState.setOperatorState(stateOut.closeAndGetHandle());
+		return taskState;
+	}
+
+	@Override
+	public void restoreState(StreamTaskState taskState, long recoveryTimestamp) throws Exception {
+		super.restoreState(taskState, recoveryTimestamp);
+
+		@SuppressWarnings("unchecked")
+		StateHandle<DataInputView> inputState = (StateHandle<DataInputView>) taskState.getOperatorState();
+		DataInputView in = inputState.getState(getUserCodeClassloader());
+
+		nextWindowStart = in.readLong();
+		panes = new TreeMap<>();
+
+		for (int numPanes = in.readInt(); numPanes > 0; numPanes--) {
+			final long paneStart = in.readLong();
+			final int numElementsInPane = in.readInt();
+
+			KeyMap<KEY, STATE> pane = new KeyMap<>(numElementsInPane);
+			for (int i = 0; i < numElementsInPane; i++) {
+				KEY k = keySerializer.deserialize(in);
+				STATE s = stateTypeSerializer.deserialize(in);
+				pane.put(k, s);
+			}
+			panes.put(paneStart, pane);
+		}
+	}
+
+	// ------------------------------------------------------------------------
+	//  Property access (for testing)
+	// ------------------------------------------------------------------------
+
+	public long getWindowSize() {
+		return windowSize;
+	}
+
+	public long getWindowSlide() {
+		return windowSlide;
+	}
+
+	public long getPaneSize() {
+		return paneSize;
+	}
+
+	public int getNumPanes() {
+		return panes.size();
+	}
+
+	protected TypeSerializer<STATE> getStateTypeSerializer() {
+		return stateTypeSerializer;
+	}
+
+	// ------------------------------------------------------------------------
+	//  Utilities
+	// ------------------------------------------------------------------------
+
+	@Override
+	public String toString() {
+		return "Window (event time) (length=" + windowSize + ", slide=" + windowSlide + ')';
+	}
+}
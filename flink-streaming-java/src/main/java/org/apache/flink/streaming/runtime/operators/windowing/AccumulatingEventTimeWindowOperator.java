@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.runtime.operators.windowing;
+
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.streaming.api.functions.windowing.WindowFunction;
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
+import org.apache.flink.streaming.api.windowing.windows.Window;
+import org.apache.flink.util.Collector;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+/**
+ * An event time sliding window operator that buffers the elements of each pane. Evaluating a
+ * window hands the elements of all its panes, in the order of the panes, to the window function.
+ * Each element is stored only once, no matter how many windows it belongs to.
+ *
+ * @param <KEY> The type of the key.
+ * @param <IN> The type of the input elements.
+ * @param <OUT> The type of the window results.
+ */
+public class AccumulatingEventTimeWindowOperator<KEY, IN, OUT>
+		extends AbstractAlignedEventTimeWindowOperator<KEY, IN, OUT, ArrayList<IN>> {
+
+	private static final long serialVersionUID = 1L;
+
+	private final KeyMap.LazyFactory<ArrayList<IN>> listFactory = new ListFactory<>();
+
+	public AccumulatingEventTimeWindowOperator(
+			WindowFunction<IN, OUT, KEY, TimeWindow> function,
+			KeySelector<IN, KEY> keySelector,
+			TypeSerializer<KEY> keySerializer,
+			TypeSerializer<IN> valueSerializer,
+			long windowLength,
+			long windowSlide)
+	{
+		super(function, keySelector, keySerializer,
+				new AccumulatingProcessingTimeWindowOperator.ArrayListSerializer<IN>(valueSerializer),
+				windowLength, windowSlide);
+	}
+
+	@Override
+	protected void addToPane(KeyMap<KEY, ArrayList<IN>> pane, KEY key, IN value) {
+		pane.putIfAbsent(key, listFactory).add(value);
+	}
+
+	@Override
+	protected KeyMap.TraversalEvaluator<KEY, ArrayList<IN>> createWindowEvaluator(TimeWindow window, int numPanes, Collector<OUT> out) {
+		@SuppressWarnings("unchecked")
+		WindowFunction<IN, OUT, KEY, Window> windowFunction = (WindowFunction<IN, OUT, KEY, Window>) (WindowFunction<?, ?, ?, ?>) userFunction;
+
+		return new AccumulatingKeyedTimePanes.WindowFunctionTraversal<>(windowFunction, window, out, this);
+	}
+
+	// ------------------------------------------------------------------------
+	//  Lazy factory for lists (put if absent)
+	// ------------------------------------------------------------------------
+
+	private static final class ListFactory<V> implements KeyMap.LazyFactory<ArrayList<V>>, Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public ArrayList<V> create() {
+			return new ArrayList<>(4);
+		}
+	}
+}
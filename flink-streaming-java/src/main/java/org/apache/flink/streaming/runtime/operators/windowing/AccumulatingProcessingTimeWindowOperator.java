@@ -62,7 +62,7 @@ public class AccumulatingProcessingTimeWindowOperator<KEY, IN, OUT>
 	// ------------------------------------------------------------------------
 	
 	@SuppressWarnings("ForLoopReplaceableByForEach")
-	private static final class ArrayListSerializer<T> extends TypeSerializer<ArrayList<T>> {
+	static final class ArrayListSerializer<T> extends TypeSerializer<ArrayList<T>> {
 
 		private static final long serialVersionUID = 1119562170939152304L;
 		
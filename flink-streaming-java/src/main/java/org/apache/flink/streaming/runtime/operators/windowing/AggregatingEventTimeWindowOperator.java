@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.runtime.operators.windowing;
+
+import org.apache.flink.api.common.functions.ReduceFunction;
+import org.apache.flink.api.common.functions.util.FunctionUtils;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.streaming.api.functions.windowing.WindowFunction;
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
+import org.apache.flink.util.Collector;
+
+import java.util.Collections;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An event time sliding window operator that pre-aggregates the elements of each pane with a
+ * {@link ReduceFunction}. Evaluating a window combines the pane aggregates of each key and hands
+ * the result to the window function.
+ *
+ * @param <KEY> The type of the key.
+ * @param <IN> The type of the input elements and the aggregates.
+ * @param <OUT> The type of the window results.
+ */
+public class AggregatingEventTimeWindowOperator<KEY, IN, OUT>
+		extends AbstractAlignedEventTimeWindowOperator<KEY, IN, OUT, IN> {
+
+	private static final long serialVersionUID = 1L;
+
+	private final ReduceFunction<IN> reducer;
+
+	public AggregatingEventTimeWindowOperator(
+			ReduceFunction<IN> reducer,
+			WindowFunction<IN, OUT, KEY, TimeWindow> function,
+			KeySelector<IN, KEY> keySelector,
+			TypeSerializer<KEY> keySerializer,
+			TypeSerializer<IN> aggregateSerializer,
+			long windowLength,
+			long windowSlide)
+	{
+		super(function, keySelector, keySerializer, aggregateSerializer, windowLength, windowSlide);
+		this.reducer = requireNonNull(reducer);
+	}
+
+	@Override
+	public void open() throws Exception {
+		FunctionUtils.setFunctionRuntimeContext(reducer, getRuntimeContext());
+		FunctionUtils.openFunction(reducer, getUserFunctionParameters());
+
+		super.open();
+	}
+
+	@Override
+	public void close() throws Exception {
+		super.close();
+
+		FunctionUtils.closeFunction(reducer);
+	}
+
+	@Override
+	protected void addToPane(KeyMap<KEY, IN> pane, KEY key, IN value) throws Exception {
+		pane.putOrAggregate(key, value, reducer);
+	}
+
+	@Override
+	protected KeyMap.TraversalEvaluator<KEY, IN> createWindowEvaluator(TimeWindow window, int numPanes, Collector<OUT> out) {
+		return new AggregatingTraversal(window, numPanes > 1, out);
+	}
+
+	// ------------------------------------------------------------------------
+	//  The maps traversal that performs the final aggregation
+	// ------------------------------------------------------------------------
+
+	private final class AggregatingTraversal implements KeyMap.TraversalEvaluator<KEY, IN> {
+
+		private final TimeWindow window;
+
+		private final Collector<OUT> out;
+
+		/** The pane aggregates are shared between windows, so the reducer must not modify them */
+		private final boolean copyFirstValue;
+
+		private KEY currentKey;
+
+		private IN currentValue;
+
+		AggregatingTraversal(TimeWindow window, boolean copyFirstValue, Collector<OUT> out) {
+			this.window = window;
+			this.copyFirstValue = copyFirstValue;
+			this.out = out;
+		}
+
+		@Override
+		public void startNewKey(KEY key) {
+			currentKey = key;
+			currentValue = null;
+		}
+
+		@Override
+		public void nextValue(IN value) throws Exception {
+			if (currentValue != null) {
+				currentValue = reducer.reduce(currentValue, value);
+			}
+			else {
+				currentValue = copyFirstValue ? getStateTypeSerializer().copy(value) : value;
+			}
+		}
+
+		@Override
+		public void keyDone() throws Exception {
+			setKeyContext(currentKey);
+			userFunction.apply(currentKey, window, Collections.singleton(currentValue), out);
+		}
+	}
+}
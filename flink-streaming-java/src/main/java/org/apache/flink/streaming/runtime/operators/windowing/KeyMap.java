@@ -555,6 +555,56 @@ public class KeyMap<K, V> implements Iterable<KeyMap.Entry<K, V>> {
 		}
 	}
 	
+	/**
+	 * Performs a traversal about the logical multi-map that results from the union of the
+	 * given maps, like {@link #traverseMaps(KeyMap[], TraversalEvaluator, long)}. In contrast to
+	 * that method, the values of each key are handed to the visitor in the order in which their
+	 * maps appear in the given array. This is required when the maps hold the contents of
+	 * successive time intervals and the evaluation is sensitive to the order of the values.
+	 *
+	 * @param maps The array of maps whose union should be traversed, in the order of the values.
+	 * @param visitor The visitor that is called for each key and all values.
+	 * @param touchedTag A tag that is used to mark elements that have been touched in this specific
+	 *                   traversal. Each successive traversal should supply a larger value for this
+	 *                   tag than the previous one.
+	 *
+	 * @param <K> The type of the map's key.
+	 * @param <V> The type of the map's value.
+	 */
+	public static <K, V> void traverseMapsInOrder(
+					final KeyMap<K, V>[] maps,
+					final TraversalEvaluator<K, V> visitor,
+					final long touchedTag)
+		throws Exception
+	{
+		for (int rootTable = 0; rootTable < maps.length; rootTable++) {
+			for (Entry<K, V> chain : maps[rootTable].table) {
+				for (Entry<K, V> entry = chain; entry != null; entry = entry.next) {
+					// take only entries that have not been collected as part of earlier tables
+					if (entry.touchedTag < touchedTag) {
+						entry.touchedTag = touchedTag;
+
+						final K key = entry.key;
+						final int hashCode = entry.hashCode;
+						visitor.startNewKey(key);
+						visitor.nextValue(entry.value);
+
+						// look up the key in the following hash tables
+						for (int followupTable = rootTable + 1; followupTable < maps.length; followupTable++) {
+							KeyMap<K, V> followup = maps[followupTable];
+							Entry<K, V> followupEntry = followup.table[followup.indexOf(hashCode)];
+							if (followupEntry != null) {
+								addEntriesFromChain(followupEntry, visitor, key, touchedTag, hashCode);
+							}
+						}
+
+						visitor.keyDone();
+					}
+				}
+			}
+		}
+	}
+
 	private static <K, V> void addEntriesFromChain(
 			Entry<K, V> entry,
 			TraversalEvaluator<K, V> visitor,
@@ -32,6 +32,7 @@ import org.apache.flink.streaming.api.operators.ChainingStrategy;
 import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
 import org.apache.flink.streaming.api.operators.TimestampedCollector;
 import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.api.windowing.assigners.MergingWindowAssigner;
 import org.apache.flink.streaming.api.windowing.assigners.WindowAssigner;
 import org.apache.flink.streaming.api.windowing.triggers.Trigger;
 import org.apache.flink.streaming.api.windowing.windows.Window;
@@ -156,6 +157,10 @@ public class NonKeyedWindowOperator<IN, OUT, W extends Window>
 		this.windowBufferFactory = requireNonNull(windowBufferFactory);
 		this.trigger = requireNonNull(trigger);
 
+		if (windowAssigner instanceof MergingWindowAssigner) {
+			throw new UnsupportedOperationException("Merging window assigners are only supported on keyed streams.");
+		}
+
 		setChainingStrategy(ChainingStrategy.ALWAYS);
 	}
 
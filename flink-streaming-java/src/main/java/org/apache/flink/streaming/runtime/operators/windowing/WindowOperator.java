@@ -33,7 +33,9 @@ import org.apache.flink.streaming.api.operators.ChainingStrategy;
 import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
 import org.apache.flink.streaming.api.operators.TimestampedCollector;
 import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.api.windowing.assigners.MergingWindowAssigner;
 import org.apache.flink.streaming.api.windowing.assigners.WindowAssigner;
+import org.apache.flink.streaming.api.windowing.triggers.MergingTrigger;
 import org.apache.flink.streaming.api.windowing.triggers.Trigger;
 import org.apache.flink.streaming.api.windowing.windows.Window;
 import org.apache.flink.streaming.runtime.operators.Triggerable;
@@ -81,6 +83,12 @@ import static java.util.Objects.requireNonNull;
  * This operator also needs a {@link WindowBufferFactory} to create a buffer for storing the
  * elements of each pane.
  *
+ * <p>
+ * If the {@code WindowAssigner} is a {@link MergingWindowAssigner} the windows of a key are
+ * merged whenever a new window is added. The contents of the merged panes are added to the
+ * buffer of the resulting pane, which pre-aggregates them if the buffer is created with a
+ * {@code ReduceFunction}. The trigger must be a {@link MergingTrigger} in that case.
+ *
  * @param <K> The type of key returned by the {@code KeySelector}.
  * @param <IN> The type of the incoming elements.
  * @param <OUT> The type of elements emitted by the {@code WindowFunction}.
@@ -185,6 +193,11 @@ public class WindowOperator<K, IN, OUT, W extends Window>
 		this.windowBufferFactory = requireNonNull(windowBufferFactory);
 		this.trigger = requireNonNull(trigger);
 
+		if (windowAssigner instanceof MergingWindowAssigner && !(trigger instanceof MergingTrigger)) {
+			throw new UnsupportedOperationException("A merging window assigner requires a MergingTrigger, " +
+					trigger + " does not support merging.");
+		}
+
 		setChainingStrategy(ChainingStrategy.ALWAYS);
 	}
 
@@ -282,6 +295,10 @@ public class WindowOperator<K, IN, OUT, W extends Window>
 		}
 
 		for (W window: elementWindows) {
+			if (windowAssigner instanceof MergingWindowAssigner) {
+				window = mergeWindows(key, keyWindows, window);
+			}
+
 			Context context = keyWindows.get(window);
 			if (context == null) {
 				WindowBuffer<IN> windowBuffer = windowBufferFactory.create();
@@ -295,6 +312,26 @@ public class WindowOperator<K, IN, OUT, W extends Window>
 		}
 	}
 
+	/**
+	 * Merges the given new window with the windows of the key. The contents of merged panes are
+	 * moved to the pane of the resulting window and their timers are dropped before the trigger
+	 * is notified of the merge.
+	 *
+	 * @return The window into which the new window was merged, this is the new window itself
+	 *         if it was not merged.
+	 */
+	@SuppressWarnings("unchecked")
+	private W mergeWindows(final K key, final Map<W, Context> keyWindows, final W newWindow) throws Exception {
+		List<W> candidates = new ArrayList<>(keyWindows.keySet());
+		if (!keyWindows.containsKey(newWindow)) {
+			candidates.add(newWindow);
+		}
+
+		MergeWindowsCallback callback = new MergeWindowsCallback(key, keyWindows, newWindow);
+		((MergingWindowAssigner<? super IN, W>) windowAssigner).mergeWindows(candidates, callback);
+		return callback.actualWindow;
+	}
+
 	protected void emitWindow(Context context) throws Exception {
 		timestampedCollector.setTimestamp(context.window.maxTimestamp());
 
@@ -399,6 +436,48 @@ public class WindowOperator<K, IN, OUT, W extends Window>
 		}
 	}
 
+	/**
+	 * {@link MergingWindowAssigner.MergeCallback} that combines the panes of the merged windows
+	 * of one key and keeps track of the window into which the newly added window ended up.
+	 */
+	private class MergeWindowsCallback implements MergingWindowAssigner.MergeCallback<W> {
+
+		private final K key;
+		private final Map<W, Context> keyWindows;
+		private final W newWindow;
+
+		private W actualWindow;
+
+		MergeWindowsCallback(K key, Map<W, Context> keyWindows, W newWindow) {
+			this.key = key;
+			this.keyWindows = keyWindows;
+			this.newWindow = newWindow;
+			this.actualWindow = newWindow;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public void merge(Collection<W> toBeMerged, W mergeResult) throws Exception {
+			Context mergedContext = new Context(key, mergeResult, windowBufferFactory.create());
+
+			for (W window: toBeMerged) {
+				Context context = keyWindows.remove(window);
+				if (context != null) {
+					context.deleteTimers();
+					for (StreamRecord<IN> element: context.windowBuffer.getElements()) {
+						mergedContext.windowBuffer.storeElement(element);
+					}
+				}
+				if (window.equals(newWindow)) {
+					actualWindow = mergeResult;
+				}
+			}
+
+			keyWindows.put(mergeResult, mergedContext);
+			((MergingTrigger<? super IN, ? super W>) trigger).onMerge(mergeResult, mergedContext);
+		}
+	}
+
 	/**
 	 * The {@code Context} is responsible for keeping track of the state of one pane.
 	 *
@@ -532,6 +611,30 @@ public class WindowOperator<K, IN, OUT, W extends Window>
 			triggers.add(this);
 		}
 
+		/**
+		 * Removes the timers of this {@code Context} from the sets of in-flight timers. This is
+		 * used when the pane is merged into another pane.
+		 */
+		protected void deleteTimers() {
+			if (watermarkTimer > 0) {
+				Set<Context> triggers = watermarkTimers.get(watermarkTimer);
+				if (triggers != null) {
+					triggers.remove(this);
+					if (triggers.isEmpty()) {
+						watermarkTimers.remove(watermarkTimer);
+					}
+				}
+				watermarkTimer = -1;
+			}
+			if (processingTimeTimer > 0) {
+				Set<Context> triggers = processingTimeTimers.get(processingTimeTimer);
+				if (triggers != null) {
+					triggers.remove(this);
+				}
+				processingTimeTimer = -1;
+			}
+		}
+
 		public Trigger.TriggerResult onElement(StreamRecord<IN> element) throws Exception {
 			Trigger.TriggerResult onElementResult = trigger.onElement(element.getValue(), element.getTimestamp(), window, this);
 			if (watermarkTimer > 0 && watermarkTimer <= currentWatermark) {
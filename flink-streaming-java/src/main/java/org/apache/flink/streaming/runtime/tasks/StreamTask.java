@@ -450,6 +450,16 @@ public abstract class StreamTask<OUT, Operator extends StreamOperator<OUT>>
 		synchronized (lock) {
 			if (isRunning) {
 
+				// operators that buffer elements emit them before the barrier, head operator first,
+				// so that the elements emitted by one operator reach the chained operators after it
+				final StreamOperator<?>[] chainedOperators = operatorChain.getAllOperators();
+				for (int i = chainedOperators.length - 1; i >= 0; i--) {
+					StreamOperator<?> operator = chainedOperators[i];
+					if (operator != null) {
+						operator.prepareSnapshotPreBarrier(checkpointId);
+					}
+				}
+
 				// since both state checkpointing and downstream barrier emission occurs in this
 				// lock scope, they are an atomic operation regardless of the order in which they occur
 				// we immediately emit the checkpoint barriers, so the downstream operators can start
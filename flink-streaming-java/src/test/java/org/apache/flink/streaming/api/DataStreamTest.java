@@ -25,6 +25,7 @@ import org.apache.flink.api.common.functions.FoldFunction;
 import org.apache.flink.api.common.functions.Function;
 import org.apache.flink.api.common.functions.MapFunction;
 import org.apache.flink.api.common.functions.Partitioner;
+import org.apache.flink.api.common.functions.ReduceFunction;
 import org.apache.flink.api.java.functions.KeySelector;
 import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.api.java.typeutils.TypeExtractor;
@@ -43,7 +44,10 @@ import org.apache.flink.streaming.api.functions.sink.SinkFunction;
 import org.apache.flink.streaming.api.functions.windowing.AllWindowFunction;
 import org.apache.flink.streaming.api.graph.StreamEdge;
 import org.apache.flink.streaming.api.graph.StreamGraph;
+import org.apache.flink.streaming.api.graph.StreamNode;
 import org.apache.flink.streaming.api.operators.AbstractUdfStreamOperator;
+import org.apache.flink.streaming.api.operators.StreamGroupedReduce;
+import org.apache.flink.streaming.api.operators.StreamLocalReduce;
 import org.apache.flink.streaming.api.operators.StreamOperator;
 import org.apache.flink.streaming.api.windowing.assigners.GlobalWindows;
 import org.apache.flink.streaming.api.windowing.triggers.CountTrigger;
@@ -55,6 +59,7 @@ import org.apache.flink.streaming.runtime.partitioner.HashPartitioner;
 import org.apache.flink.streaming.runtime.partitioner.ForwardPartitioner;
 import org.apache.flink.streaming.runtime.partitioner.GlobalPartitioner;
 import org.apache.flink.streaming.runtime.partitioner.RebalancePartitioner;
+import org.apache.flink.streaming.runtime.partitioner.RescalePartitioner;
 import org.apache.flink.streaming.runtime.partitioner.ShufflePartitioner;
 import org.apache.flink.streaming.runtime.partitioner.StreamPartitioner;
 import org.apache.flink.streaming.util.NoOpSink;
@@ -725,6 +730,13 @@ public class DataStreamTest extends StreamingMultipleProgramsTestBase {
 						rebalanceSink.getTransformation().getId()).get(0).getPartitioner();
 		assertTrue(rebalancePartitioner instanceof RebalancePartitioner);
 
+		DataStream<Long> rescale = src.rescale();
+		DataStreamSink<Long> rescaleSink = rescale.print();
+		StreamPartitioner<?> rescalePartitioner =
+				env.getStreamGraph().getStreamEdges(src.getId(),
+						rescaleSink.getTransformation().getId()).get(0).getPartitioner();
+		assertTrue(rescalePartitioner instanceof RescalePartitioner);
+
 		DataStream<Long> global = src.global();
 		DataStreamSink<Long> globalSink = global.print();
 		StreamPartitioner<?> globalPartitioner =
@@ -733,6 +745,41 @@ public class DataStreamTest extends StreamingMultipleProgramsTestBase {
 		assertTrue(globalPartitioner instanceof GlobalPartitioner);
 	}
 
+	/**
+	 * Tests that the two-phase reduce adds a local reduce before the partitioning by key.
+	 */
+	@Test
+	public void testTwoPhaseReduce() {
+		StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+		env.setParallelism(4);
+
+		DataStreamSource<Long> src = env.generateSequence(0, 0);
+		DataStream<Long> reduced = src
+				.keyBy(new KeySelector<Long, Long>() {
+					@Override
+					public Long getKey(Long value) throws Exception {
+						return value % 10;
+					}
+				})
+				.reduce(new ReduceFunction<Long>() {
+					@Override
+					public Long reduce(Long value1, Long value2) throws Exception {
+						return value1 + value2;
+					}
+				}, 100, 10);
+
+		StreamGraph streamGraph = env.getStreamGraph();
+		assertTrue(streamGraph.getStreamNode(reduced.getId()).getOperator() instanceof StreamGroupedReduce);
+
+		StreamEdge globalEdge = streamGraph.getStreamNode(reduced.getId()).getInEdges().get(0);
+		assertTrue(globalEdge.getPartitioner() instanceof HashPartitioner);
+
+		StreamNode localNode = streamGraph.getStreamNode(globalEdge.getSourceId());
+		assertTrue(localNode.getOperator() instanceof StreamLocalReduce);
+		assertEquals(src.getParallelism(), localNode.getParallelism());
+		assertTrue(streamGraph.getStreamEdges(src.getId(), localNode.getId()).get(0).getPartitioner() instanceof ForwardPartitioner);
+	}
+
 	/////////////////////////////////////////////////////////////
 	// Utilities
 	/////////////////////////////////////////////////////////////
@@ -18,6 +18,7 @@
 package org.apache.flink.streaming.api.graph;
 
 import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.java.functions.KeySelector;
 import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
 import org.apache.flink.streaming.api.datastream.ConnectedStreams;
@@ -43,6 +44,7 @@ import org.apache.flink.streaming.util.StreamingMultipleProgramsTestBase;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -236,6 +238,55 @@ public class StreamGraphGeneratorTest {
 		assertEquals(BasicTypeInfo.INT_TYPE_INFO, outputTypeConfigurableOperation.getTypeInformation());
 	}
 
+	/**
+	 * Verifies that the generic types of the stream elements and keys are registered with Kryo,
+	 * if the automatic type registration is enabled, and only then.
+	 */
+	@Test
+	public void testGenericTypesAreRegistered() throws Exception {
+		StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+		createGenericTypeJob(env);
+		env.getStreamGraph();
+
+		assertFalse(env.getConfig().getRegisteredKryoTypes().contains(GenericElement.class));
+		assertFalse(env.getConfig().getRegisteredKryoTypes().contains(GenericKey.class));
+
+		StreamExecutionEnvironment registeringEnv = StreamExecutionEnvironment.getExecutionEnvironment();
+		registeringEnv.enableAutoTypeRegistration();
+		createGenericTypeJob(registeringEnv);
+		registeringEnv.getStreamGraph();
+
+		assertTrue(registeringEnv.getConfig().getRegisteredKryoTypes().contains(GenericElement.class));
+		assertTrue(registeringEnv.getConfig().getRegisteredKryoTypes().contains(GenericKey.class));
+	}
+
+	private static void createGenericTypeJob(StreamExecutionEnvironment env) {
+		env.fromElements(new GenericElement(1), new GenericElement(2))
+				.keyBy(new KeySelector<GenericElement, GenericKey>() {
+					@Override
+					public GenericKey getKey(GenericElement value) {
+						return value.key;
+					}
+				})
+				.addSink(new NoOpSink<GenericElement>());
+	}
+
+	private static class GenericKey {
+		private final int value;
+
+		GenericKey(int value) {
+			this.value = value;
+		}
+	}
+
+	private static class GenericElement {
+		private final GenericKey key;
+
+		GenericElement(int key) {
+			this.key = new GenericKey(key);
+		}
+	}
+
 	private static class OutputTypeConfigurableOperationWithTwoInputs
 			extends AbstractStreamOperator<Integer>
 			implements TwoInputStreamOperator<Integer, Integer, Integer>, OutputTypeConfigurable<Integer> {
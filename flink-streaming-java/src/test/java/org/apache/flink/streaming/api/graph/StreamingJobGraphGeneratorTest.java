@@ -18,12 +18,16 @@
 package org.apache.flink.streaming.api.graph;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Random;
 
 import org.apache.flink.api.common.ExecutionConfig;
 import org.apache.flink.api.common.functions.MapFunction;
 import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.runtime.jobgraph.DistributionPattern;
+import org.apache.flink.runtime.jobgraph.JobEdge;
 import org.apache.flink.runtime.jobgraph.JobGraph;
+import org.apache.flink.runtime.jobgraph.JobVertex;
 import org.apache.flink.streaming.api.datastream.DataStream;
 import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
 import org.apache.flink.streaming.api.functions.sink.SinkFunction;
@@ -135,4 +139,46 @@ public class StreamingJobGraphGeneratorTest {
 		assertEquals(1, jobGraph.getVerticesAsArray()[0].getParallelism());
 		assertEquals(1, jobGraph.getVerticesAsArray()[1].getParallelism());
 	}
+
+	/**
+	 * Tests that a rescale partitioning results in a pointwise connection between the
+	 * job vertices, while a rebalance keeps the all-to-all connection.
+	 */
+	@Test
+	public void testRescaleUsesPointwiseDistribution() throws Exception {
+		final StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+
+		DataStream<Long> source = env.generateSequence(1, 100).setParallelism(2);
+
+		source.rescale()
+				.map(new NoOpLongMap()).setParallelism(4)
+				.rebalance()
+				.addSink(new SinkFunction<Long>() {
+					@Override
+					public void invoke(Long value) {}
+				}).setParallelism(3);
+
+		JobGraph jobGraph = env.getStreamGraph().getJobGraph();
+		List<JobVertex> vertices = jobGraph.getVerticesSortedTopologicallyFromSources();
+
+		assertEquals(3, vertices.size());
+		assertEquals(2, vertices.get(0).getParallelism());
+		assertEquals(4, vertices.get(1).getParallelism());
+		assertEquals(3, vertices.get(2).getParallelism());
+
+		JobEdge rescaleEdge = vertices.get(1).getInputs().get(0);
+		assertEquals(DistributionPattern.POINTWISE, rescaleEdge.getDistributionPattern());
+
+		JobEdge rebalanceEdge = vertices.get(2).getInputs().get(0);
+		assertEquals(DistributionPattern.ALL_TO_ALL, rebalanceEdge.getDistributionPattern());
+	}
+
+	private static class NoOpLongMap implements MapFunction<Long, Long> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Long map(Long value) {
+			return value;
+		}
+	}
 }
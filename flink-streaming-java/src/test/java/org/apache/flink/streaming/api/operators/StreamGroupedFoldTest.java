@@ -94,6 +94,56 @@ public class StreamGroupedFoldTest {
 		TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
 	}
 
+	@Test
+	public void testMiniBatchGroupedFold() throws Exception {
+
+		KeySelector<Integer, String> keySelector = new KeySelector<Integer, String>() {
+
+			@Override
+			public String getKey(Integer value) {
+				return value.toString();
+			}
+		};
+
+		StreamGroupedFold<Integer, String, String> operator = new StreamGroupedFold<Integer, String, String>(new MyFolder(), "100")
+				.enableMiniBatch(3, 0);
+		operator.setOutputType(BasicTypeInfo.STRING_TYPE_INFO, new ExecutionConfig());
+
+		OneInputStreamOperatorTestHarness<Integer, String> testHarness = new OneInputStreamOperatorTestHarness<>(operator);
+		testHarness.configureForKeyedStream(keySelector, BasicTypeInfo.STRING_TYPE_INFO);
+
+		long initialTime = 0L;
+		ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+
+		testHarness.open();
+
+		// the third element completes the batch
+		testHarness.processElement(new StreamRecord<>(1, initialTime + 1));
+		testHarness.processElement(new StreamRecord<>(1, initialTime + 2));
+		testHarness.processElement(new StreamRecord<>(2, initialTime + 3));
+		expectedOutput.add(new StreamRecord<>("10011", initialTime + 2));
+		expectedOutput.add(new StreamRecord<>("1002", initialTime + 3));
+
+		TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
+
+		// watermarks emit the current batch first
+		testHarness.processElement(new StreamRecord<>(2, initialTime + 4));
+		testHarness.processWatermark(new Watermark(initialTime + 4));
+		expectedOutput.add(new StreamRecord<>("10022", initialTime + 4));
+		expectedOutput.add(new Watermark(initialTime + 4));
+
+		TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
+
+		// the folded values of earlier batches are kept in the state
+		testHarness.processElement(new StreamRecord<>(3, initialTime + 5));
+		testHarness.processElement(new StreamRecord<>(1, initialTime + 6));
+		testHarness.close();
+		expectedOutput.add(new StreamRecord<>("1003", initialTime + 5));
+		expectedOutput.add(new StreamRecord<>("100111", initialTime + 6));
+
+		TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
+	}
+
 	@Test
 	public void testOpenClose() throws Exception {
 		KeySelector<Integer, Integer> keySelector = new KeySelector<Integer, Integer>() {
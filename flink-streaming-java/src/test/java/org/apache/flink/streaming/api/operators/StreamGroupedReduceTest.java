@@ -77,6 +77,49 @@ public class StreamGroupedReduceTest {
 		TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
 	}
 
+	@Test
+	public void testMiniBatchGroupedReduce() throws Exception {
+
+		KeySelector<Integer, Integer> keySelector = new IntegerKeySelector();
+
+		StreamGroupedReduce<Integer> operator = new StreamGroupedReduce<>(new MyReducer(), IntSerializer.INSTANCE)
+				.enableMiniBatch(3, 0);
+
+		OneInputStreamOperatorTestHarness<Integer, Integer> testHarness = new OneInputStreamOperatorTestHarness<>(operator);
+		testHarness.configureForKeyedStream(keySelector, BasicTypeInfo.INT_TYPE_INFO);
+
+		long initialTime = 0L;
+		ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+
+		testHarness.open();
+
+		// the third element completes the batch
+		testHarness.processElement(new StreamRecord<>(1, initialTime + 1));
+		testHarness.processElement(new StreamRecord<>(1, initialTime + 2));
+		testHarness.processElement(new StreamRecord<>(2, initialTime + 3));
+		expectedOutput.add(new StreamRecord<>(2, initialTime + 2));
+		expectedOutput.add(new StreamRecord<>(2, initialTime + 3));
+
+		TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
+
+		// watermarks emit the current batch first
+		testHarness.processElement(new StreamRecord<>(2, initialTime + 4));
+		testHarness.processWatermark(new Watermark(initialTime + 4));
+		expectedOutput.add(new StreamRecord<>(4, initialTime + 4));
+		expectedOutput.add(new Watermark(initialTime + 4));
+
+		TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
+
+		// the reduced values of earlier batches are kept in the state
+		testHarness.processElement(new StreamRecord<>(3, initialTime + 5));
+		testHarness.processElement(new StreamRecord<>(1, initialTime + 6));
+		testHarness.close();
+		expectedOutput.add(new StreamRecord<>(3, initialTime + 5));
+		expectedOutput.add(new StreamRecord<>(3, initialTime + 6));
+
+		TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
+	}
+
 	@Test
 	public void testOpenClose() throws Exception {
 
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators;
+
+import org.apache.flink.api.common.functions.ReduceFunction;
+import org.apache.flink.api.common.typeutils.base.IntSerializer;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.OneInputStreamOperatorTestHarness;
+import org.apache.flink.streaming.util.TestHarnessUtil;
+import org.junit.Test;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Tests for {@link StreamLocalReduce}. These test that:
+ *
+ * <ul>
+ *     <li>Elements are combined per key into partial results</li>
+ *     <li>Partial results are emitted when the combine size is reached, on watermarks and on close</li>
+ *     <li>Partial results carry the timestamp of the latest combined element</li>
+ * </ul>
+ */
+public class StreamLocalReduceTest {
+
+	@Test
+	public void testLocalReduce() throws Exception {
+		StreamLocalReduce<Integer> operator = new StreamLocalReduce<>(
+				new MyReducer(), new ModuloKeySelector(), IntSerializer.INSTANCE, 4, 0);
+
+		OneInputStreamOperatorTestHarness<Integer, Integer> testHarness = new OneInputStreamOperatorTestHarness<>(operator);
+
+		long initialTime = 0L;
+		ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+
+		testHarness.open();
+
+		testHarness.processElement(new StreamRecord<>(1, initialTime + 1));
+		testHarness.processElement(new StreamRecord<>(2, initialTime + 2));
+		testHarness.processElement(new StreamRecord<>(3, initialTime + 3));
+		TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
+
+		// the fourth element reaches the combine size
+		testHarness.processElement(new StreamRecord<>(5, initialTime + 4));
+		expectedOutput.add(new StreamRecord<>(9, initialTime + 4));
+		expectedOutput.add(new StreamRecord<>(2, initialTime + 2));
+		TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
+
+		testHarness.processElement(new StreamRecord<>(4, initialTime + 5));
+		testHarness.processWatermark(new Watermark(initialTime + 5));
+		expectedOutput.add(new StreamRecord<>(4, initialTime + 5));
+		expectedOutput.add(new Watermark(initialTime + 5));
+		TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
+
+		testHarness.processElement(new StreamRecord<>(7, initialTime + 6));
+		testHarness.close();
+		expectedOutput.add(new StreamRecord<>(7, initialTime + 6));
+		TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidCombineSize() {
+		new StreamLocalReduce<>(new MyReducer(), new ModuloKeySelector(), IntSerializer.INSTANCE, 0, 0);
+	}
+
+	// Utilities
+
+	private static class MyReducer implements ReduceFunction<Integer> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Integer reduce(Integer value1, Integer value2) throws Exception {
+			return value1 + value2;
+		}
+	}
+
+	private static class ModuloKeySelector implements KeySelector<Integer, Integer> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Integer getKey(Integer value) throws Exception {
+			return value % 2;
+		}
+	}
+}
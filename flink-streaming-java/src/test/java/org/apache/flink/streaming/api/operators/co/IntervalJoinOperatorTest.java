@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators.co;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.functions.FlatJoinFunction;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.typeutils.TypeInfoParser;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.runtime.tasks.StreamTaskState;
+import org.apache.flink.streaming.util.TestHarnessUtil;
+import org.apache.flink.streaming.util.TwoInputStreamOperatorTestHarness;
+import org.apache.flink.util.Collector;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Tests for {@link IntervalJoinOperator}. These test that:
+ *
+ * <ul>
+ *     <li>Elements are joined with the elements of the other input in the interval</li>
+ *     <li>Results carry the larger timestamp of the joined elements</li>
+ *     <li>Elements are dropped once the watermark has passed their interval</li>
+ *     <li>The buffered elements are kept in key/value state and restored from a checkpoint</li>
+ * </ul>
+ */
+public class IntervalJoinOperatorTest {
+
+	private static final TypeSerializer<Tuple2<String, Integer>> SERIALIZER =
+			TypeInfoParser.<Tuple2<String, Integer>>parse("Tuple2<String, Integer>").createSerializer(new ExecutionConfig());
+
+	@Test
+	public void testIntervalJoin() throws Exception {
+		IntervalJoinOperator<String, Tuple2<String, Integer>, Tuple2<String, Integer>, String> operator = createOperator();
+
+		TwoInputStreamOperatorTestHarness<Tuple2<String, Integer>, Tuple2<String, Integer>, String> testHarness =
+				createTestHarness(operator);
+
+		ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+
+		testHarness.open();
+
+		testHarness.processElement1(new StreamRecord<>(new Tuple2<>("a", 1), 10));
+		testHarness.processElement2(new StreamRecord<>(new Tuple2<>("a", 100), 11));
+		expectedOutput.add(new StreamRecord<>("a:1,100", 11));
+
+		// outside of the interval of the first element
+		testHarness.processElement2(new StreamRecord<>(new Tuple2<>("a", 101), 13));
+		// different key
+		testHarness.processElement2(new StreamRecord<>(new Tuple2<>("b", 102), 10));
+
+		testHarness.processElement1(new StreamRecord<>(new Tuple2<>("a", 2), 12));
+		expectedOutput.add(new StreamRecord<>("a:2,100", 12));
+		expectedOutput.add(new StreamRecord<>("a:2,101", 13));
+
+		TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
+		Assert.assertEquals(2, operator.getNumBufferedElements1());
+		Assert.assertEquals(3, operator.getNumBufferedElements2());
+
+		// only the combined watermark is forwarded
+		testHarness.processWatermark1(new Watermark(11));
+		testHarness.processWatermark2(new Watermark(11));
+		expectedOutput.add(new Watermark(11));
+
+		TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
+		Assert.assertEquals(2, operator.getNumBufferedElements1());
+		Assert.assertEquals(2, operator.getNumBufferedElements2());
+
+		testHarness.processWatermark1(new Watermark(12));
+		testHarness.processWatermark2(new Watermark(12));
+		expectedOutput.add(new Watermark(12));
+
+		TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
+		Assert.assertEquals(1, operator.getNumBufferedElements1());
+		Assert.assertEquals(1, operator.getNumBufferedElements2());
+
+		testHarness.processWatermark1(new Watermark(Long.MAX_VALUE));
+		testHarness.processWatermark2(new Watermark(Long.MAX_VALUE));
+
+		Assert.assertEquals(0, operator.getNumBufferedElements1());
+		Assert.assertEquals(0, operator.getNumBufferedElements2());
+
+		testHarness.close();
+	}
+
+	@Test
+	public void testSnapshotAndRestore() throws Exception {
+		IntervalJoinOperator<String, Tuple2<String, Integer>, Tuple2<String, Integer>, String> operator = createOperator();
+
+		TwoInputStreamOperatorTestHarness<Tuple2<String, Integer>, Tuple2<String, Integer>, String> testHarness =
+				createTestHarness(operator);
+
+		testHarness.open();
+
+		testHarness.processElement1(new StreamRecord<>(new Tuple2<>("a", 1), 10));
+		testHarness.processElement1(new StreamRecord<>(new Tuple2<>("a", 2), 12));
+		testHarness.processElement2(new StreamRecord<>(new Tuple2<>("b", 100), 11));
+		testHarness.processWatermark1(new Watermark(11));
+		testHarness.processWatermark2(new Watermark(11));
+
+		StreamTaskState state = operator.snapshotOperatorState(1L, System.currentTimeMillis());
+		Assert.assertEquals(2, state.getKvStates().size());
+		testHarness.close();
+		operator.dispose();
+
+		IntervalJoinOperator<String, Tuple2<String, Integer>, Tuple2<String, Integer>, String> restoredOperator = createOperator();
+
+		testHarness = createTestHarness(restoredOperator);
+		restoredOperator.restoreState(state, 1L);
+		testHarness.open();
+
+		Assert.assertEquals(2, restoredOperator.getNumBufferedElements1());
+		Assert.assertEquals(1, restoredOperator.getNumBufferedElements2());
+
+		testHarness.processElement2(new StreamRecord<>(new Tuple2<>("a", 103), 12));
+		testHarness.processElement1(new StreamRecord<>(new Tuple2<>("b", 3), 12));
+
+		ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+		expectedOutput.add(new StreamRecord<>("a:1,103", 12));
+		expectedOutput.add(new StreamRecord<>("a:2,103", 12));
+		expectedOutput.add(new StreamRecord<>("b:3,100", 12));
+
+		TestHarnessUtil.assertOutputEquals("Output was not correct.", expectedOutput, testHarness.getOutput());
+
+		testHarness.close();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidBounds() {
+		new IntervalJoinOperator<>(new TupleKeySelector(), new TupleKeySelector(), SERIALIZER, SERIALIZER, 1, 0, new TupleJoin());
+	}
+
+	// ------------------------------------------------------------------------
+	//  UDFs
+	// ------------------------------------------------------------------------
+
+	private static IntervalJoinOperator<String, Tuple2<String, Integer>, Tuple2<String, Integer>, String> createOperator() {
+		return new IntervalJoinOperator<>(new TupleKeySelector(), new TupleKeySelector(), SERIALIZER, SERIALIZER, -1, 2, new TupleJoin());
+	}
+
+	private static TwoInputStreamOperatorTestHarness<Tuple2<String, Integer>, Tuple2<String, Integer>, String> createTestHarness(
+			IntervalJoinOperator<String, Tuple2<String, Integer>, Tuple2<String, Integer>, String> operator) {
+
+		TwoInputStreamOperatorTestHarness<Tuple2<String, Integer>, Tuple2<String, Integer>, String> testHarness =
+				new TwoInputStreamOperatorTestHarness<>(operator);
+		testHarness.configureForKeyedStream(new TupleKeySelector(), BasicTypeInfo.STRING_TYPE_INFO);
+		return testHarness;
+	}
+
+	private static class TupleKeySelector implements KeySelector<Tuple2<String, Integer>, String> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public String getKey(Tuple2<String, Integer> value) throws Exception {
+			return value.f0;
+		}
+	}
+
+	private static class TupleJoin implements FlatJoinFunction<Tuple2<String, Integer>, Tuple2<String, Integer>, String> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public void join(Tuple2<String, Integer> first, Tuple2<String, Integer> second, Collector<String> out) {
+			out.collect(first.f0 + ":" + first.f1 + "," + second.f1);
+		}
+	}
+}
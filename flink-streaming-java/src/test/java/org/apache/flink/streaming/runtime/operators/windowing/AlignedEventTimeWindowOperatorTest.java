@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.runtime.operators.windowing;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.typeutils.TypeInfoParser;
+import org.apache.flink.streaming.api.functions.windowing.PassThroughWindowFunction;
+import org.apache.flink.streaming.api.functions.windowing.ReduceWindowFunction;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
+import org.apache.flink.streaming.runtime.operators.windowing.WindowOperatorTest.SumReducer;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.runtime.tasks.StreamTaskState;
+import org.apache.flink.streaming.util.OneInputStreamOperatorTestHarness;
+import org.apache.flink.streaming.util.TestHarnessUtil;
+import org.junit.Test;
+
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the {@link AggregatingEventTimeWindowOperator} and the
+ * {@link AccumulatingEventTimeWindowOperator}.
+ */
+public class AlignedEventTimeWindowOperatorTest {
+
+	private static final TypeSerializer<String> KEY_SERIALIZER =
+			BasicTypeInfo.STRING_TYPE_INFO.createSerializer(new ExecutionConfig());
+
+	private static final TypeSerializer<Tuple2<String, Integer>> TUPLE_SERIALIZER =
+			TypeInfoParser.<Tuple2<String, Integer>>parse("Tuple2<String, Integer>").createSerializer(new ExecutionConfig());
+
+	@Test
+	public void testSlidingWindowsAggregating() throws Exception {
+		testSlidingWindows(createAggregatingOperator(3000, 1000));
+	}
+
+	@Test
+	public void testSlidingWindowsAccumulating() throws Exception {
+		testSlidingWindows(createAccumulatingOperator(3000, 1000));
+	}
+
+	@Test
+	public void testLateElements() throws Exception {
+		AbstractAlignedEventTimeWindowOperator<String, Tuple2<String, Integer>, Tuple2<String, Integer>, ?> operator =
+				createAggregatingOperator(3000, 1000);
+
+		OneInputStreamOperatorTestHarness<Tuple2<String, Integer>, Tuple2<String, Integer>> testHarness =
+				new OneInputStreamOperatorTestHarness<>(operator);
+
+		ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+
+		testHarness.open();
+
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key1", 1), 2000));
+		testHarness.processWatermark(new Watermark(2999));
+		expectedOutput.add(new StreamRecord<>(new Tuple2<>("key1", 1), 2999));
+		expectedOutput.add(new Watermark(2999));
+
+		// window [0, 3000) is complete, windows [1000, 4000) and [2000, 5000) are still open
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key1", 2), 2500));
+		expectedOutput.add(new StreamRecord<>(new Tuple2<>("key1", 2), 2999));
+		TestHarnessUtil.assertOutputEqualsSorted("Output was not correct.", expectedOutput, testHarness.getOutput(), new ResultSortComparator());
+
+		// all windows of this element are complete
+		testHarness.processWatermark(new Watermark(4999));
+		expectedOutput.add(new StreamRecord<>(new Tuple2<>("key1", 3), 3999));
+		expectedOutput.add(new StreamRecord<>(new Tuple2<>("key1", 3), 4999));
+		expectedOutput.add(new Watermark(4999));
+
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key1", 4), 2000));
+		expectedOutput.add(new StreamRecord<>(new Tuple2<>("key1", 4), 2999));
+		expectedOutput.add(new StreamRecord<>(new Tuple2<>("key1", 4), 3999));
+		expectedOutput.add(new StreamRecord<>(new Tuple2<>("key1", 4), 4999));
+		TestHarnessUtil.assertOutputEqualsSorted("Output was not correct.", expectedOutput, testHarness.getOutput(), new ResultSortComparator());
+
+		assertEquals(0, operator.getNumPanes());
+		testHarness.close();
+	}
+
+	@Test
+	public void testSnapshotAndRestore() throws Exception {
+		AbstractAlignedEventTimeWindowOperator<String, Tuple2<String, Integer>, Tuple2<String, Integer>, ?> operator =
+				createAccumulatingOperator(3000, 1000);
+
+		OneInputStreamOperatorTestHarness<Tuple2<String, Integer>, Tuple2<String, Integer>> testHarness =
+				new OneInputStreamOperatorTestHarness<>(operator);
+
+		testHarness.open();
+
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key1", 1), 500));
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key1", 1), 1500));
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key2", 1), 1700));
+		testHarness.processWatermark(new Watermark(999));
+
+		StreamTaskState state = operator.snapshotOperatorState(1L, 1L);
+		operator.dispose();
+
+		// restore into a new operator and continue from the snapshot
+		operator = createAccumulatingOperator(3000, 1000);
+		testHarness = new OneInputStreamOperatorTestHarness<>(operator);
+		operator.restoreState(state, 1L);
+		testHarness.open();
+
+		assertEquals(2, operator.getNumPanes());
+
+		// the window [-2000, 1000) has been evaluated before the snapshot
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key1", 1), 900));
+		testHarness.processWatermark(new Watermark(2999));
+
+		ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+		expectedOutput.add(new StreamRecord<>(new Tuple2<>("key1", 1), 999));
+		expectedOutput.add(new StreamRecord<>(new Tuple2<>("key1", 3), 1999));
+		expectedOutput.add(new StreamRecord<>(new Tuple2<>("key2", 1), 1999));
+		expectedOutput.add(new StreamRecord<>(new Tuple2<>("key1", 3), 2999));
+		expectedOutput.add(new StreamRecord<>(new Tuple2<>("key2", 1), 2999));
+		expectedOutput.add(new Watermark(2999));
+
+		TestHarnessUtil.assertOutputEqualsSorted("Output was not correct.", expectedOutput, testHarness.getOutput(), new ResultSortComparator());
+
+		testHarness.close();
+	}
+
+	// ------------------------------------------------------------------------
+
+	private static void testSlidingWindows(
+			AbstractAlignedEventTimeWindowOperator<String, Tuple2<String, Integer>, Tuple2<String, Integer>, ?> operator)
+		throws Exception
+	{
+		assertEquals(1000, operator.getPaneSize());
+
+		OneInputStreamOperatorTestHarness<Tuple2<String, Integer>, Tuple2<String, Integer>> testHarness =
+				new OneInputStreamOperatorTestHarness<>(operator);
+
+		ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+
+		testHarness.open();
+
+		// add elements out-of-order
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key2", 1), 3999));
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key2", 1), 3000));
+
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key1", 1), 20));
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key1", 1), 0));
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key1", 1), 999));
+
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key2", 1), 1998));
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key2", 1), 1999));
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key2", 1), 1000));
+
+		// each element is stored in a single pane
+		assertEquals(3, operator.getNumPanes());
+
+		testHarness.processWatermark(new Watermark(999));
+		expectedOutput.add(new StreamRecord<>(new Tuple2<>("key1", 3), 999));
+		expectedOutput.add(new Watermark(999));
+		TestHarnessUtil.assertOutputEqualsSorted("Output was not correct.", expectedOutput, testHarness.getOutput(), new ResultSortComparator());
+
+		testHarness.processWatermark(new Watermark(1999));
+		expectedOutput.add(new StreamRecord<>(new Tuple2<>("key1", 3), 1999));
+		expectedOutput.add(new StreamRecord<>(new Tuple2<>("key2", 3), 1999));
+		expectedOutput.add(new Watermark(1999));
+		TestHarnessUtil.assertOutputEqualsSorted("Output was not correct.", expectedOutput, testHarness.getOutput(), new ResultSortComparator());
+
+		testHarness.processWatermark(new Watermark(2999));
+		expectedOutput.add(new StreamRecord<>(new Tuple2<>("key1", 3), 2999));
+		expectedOutput.add(new StreamRecord<>(new Tuple2<>("key2", 3), 2999));
+		expectedOutput.add(new Watermark(2999));
+		TestHarnessUtil.assertOutputEqualsSorted("Output was not correct.", expectedOutput, testHarness.getOutput(), new ResultSortComparator());
+
+		// the pane of key1 is not part of any later window
+		assertEquals(2, operator.getNumPanes());
+
+		testHarness.processWatermark(new Watermark(3999));
+		expectedOutput.add(new StreamRecord<>(new Tuple2<>("key2", 5), 3999));
+		expectedOutput.add(new Watermark(3999));
+		TestHarnessUtil.assertOutputEqualsSorted("Output was not correct.", expectedOutput, testHarness.getOutput(), new ResultSortComparator());
+
+		testHarness.processWatermark(new Watermark(4999));
+		expectedOutput.add(new StreamRecord<>(new Tuple2<>("key2", 2), 4999));
+		expectedOutput.add(new Watermark(4999));
+		TestHarnessUtil.assertOutputEqualsSorted("Output was not correct.", expectedOutput, testHarness.getOutput(), new ResultSortComparator());
+
+		testHarness.processWatermark(new Watermark(5999));
+		expectedOutput.add(new StreamRecord<>(new Tuple2<>("key2", 2), 5999));
+		expectedOutput.add(new Watermark(5999));
+		TestHarnessUtil.assertOutputEqualsSorted("Output was not correct.", expectedOutput, testHarness.getOutput(), new ResultSortComparator());
+
+		// those don't have any effect...
+		testHarness.processWatermark(new Watermark(6999));
+		testHarness.processWatermark(new Watermark(7999));
+		expectedOutput.add(new Watermark(6999));
+		expectedOutput.add(new Watermark(7999));
+
+		TestHarnessUtil.assertOutputEqualsSorted("Output was not correct.", expectedOutput, testHarness.getOutput(), new ResultSortComparator());
+
+		assertEquals(0, operator.getNumPanes());
+		testHarness.close();
+	}
+
+	private static AggregatingEventTimeWindowOperator<String, Tuple2<String, Integer>, Tuple2<String, Integer>> createAggregatingOperator(
+			long windowSize, long windowSlide) {
+		return new AggregatingEventTimeWindowOperator<>(
+				new SumReducer(),
+				new PassThroughWindowFunction<String, TimeWindow, Tuple2<String, Integer>>(),
+				new TupleKeySelector(), KEY_SERIALIZER, TUPLE_SERIALIZER,
+				windowSize, windowSlide);
+	}
+
+	private static AccumulatingEventTimeWindowOperator<String, Tuple2<String, Integer>, Tuple2<String, Integer>> createAccumulatingOperator(
+			long windowSize, long windowSlide) {
+		return new AccumulatingEventTimeWindowOperator<>(
+				new ReduceWindowFunction<String, TimeWindow, Tuple2<String, Integer>>(new SumReducer()),
+				new TupleKeySelector(), KEY_SERIALIZER, TUPLE_SERIALIZER,
+				windowSize, windowSlide);
+	}
+
+	// ------------------------------------------------------------------------
+
+	private static class TupleKeySelector implements KeySelector<Tuple2<String, Integer>, String> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public String getKey(Tuple2<String, Integer> value) throws Exception {
+			return value.f0;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static class ResultSortComparator implements Comparator<Object> {
+		@Override
+		public int compare(Object o1, Object o2) {
+			if (o1 instanceof Watermark || o2 instanceof Watermark) {
+				return 0;
+			} else {
+				StreamRecord<Tuple2<String, Integer>> sr0 = (StreamRecord<Tuple2<String, Integer>>) o1;
+				StreamRecord<Tuple2<String, Integer>> sr1 = (StreamRecord<Tuple2<String, Integer>>) o2;
+				if (sr0.getTimestamp() != sr1.getTimestamp()) {
+					return (int) (sr0.getTimestamp() - sr1.getTimestamp());
+				}
+				int comparison = sr0.getValue().f0.compareTo(sr1.getValue().f0);
+				if (comparison != 0) {
+					return comparison;
+				} else {
+					return sr0.getValue().f1 - sr1.getValue().f1;
+				}
+			}
+		}
+	}
+}
@@ -25,6 +25,7 @@ import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.api.java.typeutils.TypeInfoParser;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.api.windowing.assigners.EventTimeSessionWindows;
 import org.apache.flink.streaming.api.windowing.assigners.GlobalWindows;
 import org.apache.flink.streaming.api.windowing.assigners.SlidingTimeWindows;
 import org.apache.flink.streaming.api.windowing.assigners.TumblingTimeWindows;
@@ -242,6 +243,67 @@ public class WindowOperatorTest {
 		}
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testSessionWindows() throws Exception {
+		closeCalled.set(0);
+
+		final int SESSION_GAP = 3;
+
+		WindowOperator<String, Tuple2<String, Integer>, Tuple2<String, Integer>, TimeWindow> operator = new WindowOperator<>(
+				EventTimeSessionWindows.withGap(Time.of(SESSION_GAP, TimeUnit.SECONDS)),
+				new TimeWindow.Serializer(),
+				new TupleKeySelector(),
+				BasicTypeInfo.STRING_TYPE_INFO.createSerializer(new ExecutionConfig()),
+				windowBufferFactory,
+				new ReduceWindowFunction<String, TimeWindow, Tuple2<String, Integer>>(new SumReducer()),
+				EventTimeTrigger.create());
+
+		operator.setInputType(TypeInfoParser.<Tuple2<String, Integer>>parse("Tuple2<String, Integer>"), new ExecutionConfig());
+
+		OneInputStreamOperatorTestHarness<Tuple2<String, Integer>, Tuple2<String, Integer>> testHarness =
+				new OneInputStreamOperatorTestHarness<>(operator);
+
+		long initialTime = 0L;
+		ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+
+		testHarness.open();
+
+		// add elements out-of-order, the windows of key2 are merged into [0, 5500)
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key2", 1), initialTime + 2500));
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key2", 1), initialTime));
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key2", 1), initialTime + 1000));
+
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key1", 1), initialTime + 10));
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key1", 1), initialTime + 5000));
+
+		testHarness.processWatermark(new Watermark(initialTime + 3999));
+		expectedOutput.add(new StreamRecord<>(new Tuple2<>("key1", 1), initialTime + 3009));
+		expectedOutput.add(new Watermark(3999));
+		TestHarnessUtil.assertOutputEqualsSorted("Output was not correct.", expectedOutput, testHarness.getOutput(), new ResultSortComparator());
+
+		// the last element closes the gap between the two sessions of key2
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key2", 1), initialTime + 6000));
+		testHarness.processElement(new StreamRecord<>(new Tuple2<>("key2", 1), initialTime + 5500));
+
+		testHarness.processWatermark(new Watermark(initialTime + 5999));
+		expectedOutput.add(new Watermark(5999));
+		TestHarnessUtil.assertOutputEqualsSorted("Output was not correct.", expectedOutput, testHarness.getOutput(), new ResultSortComparator());
+
+		testHarness.processWatermark(new Watermark(initialTime + 8999));
+		expectedOutput.add(new StreamRecord<>(new Tuple2<>("key1", 1), initialTime + 7999));
+		expectedOutput.add(new StreamRecord<>(new Tuple2<>("key2", 5), initialTime + 8999));
+		expectedOutput.add(new Watermark(8999));
+		TestHarnessUtil.assertOutputEqualsSorted("Output was not correct.", expectedOutput, testHarness.getOutput(), new ResultSortComparator());
+
+		testHarness.close();
+		if (windowBufferFactory instanceof PreAggregatingHeapWindowBuffer.Factory) {
+			Assert.assertEquals("Close was not called.", 2, closeCalled.get());
+		} else {
+			Assert.assertEquals("Close was not called.", 1, closeCalled.get());
+		}
+	}
+
 	@Test
 	@SuppressWarnings("unchecked")
 	public void testContinuousWatermarkTrigger() throws Exception {
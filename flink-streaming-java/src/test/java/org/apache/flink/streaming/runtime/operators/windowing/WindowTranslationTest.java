@@ -113,12 +113,10 @@ public class WindowTranslationTest extends StreamingMultipleProgramsTestBase {
 
 		OneInputTransformation<Tuple2<String, Integer>, Tuple2<String, Integer>> transform1 = (OneInputTransformation<Tuple2<String, Integer>, Tuple2<String, Integer>>) window1.getTransformation();
 		OneInputStreamOperator<Tuple2<String, Integer>, Tuple2<String, Integer>> operator1 = transform1.getOperator();
-		Assert.assertTrue(operator1 instanceof WindowOperator);
-		WindowOperator winOperator1 = (WindowOperator) operator1;
-		Assert.assertFalse(winOperator1.isSetProcessingTime());
-		Assert.assertTrue(winOperator1.getTrigger() instanceof EventTimeTrigger);
-		Assert.assertTrue(winOperator1.getWindowAssigner() instanceof SlidingTimeWindows);
-		Assert.assertTrue(winOperator1.getWindowBufferFactory() instanceof PreAggregatingHeapWindowBuffer.Factory);
+		Assert.assertTrue(operator1 instanceof AggregatingEventTimeWindowOperator);
+		AggregatingEventTimeWindowOperator winOperator1 = (AggregatingEventTimeWindowOperator) operator1;
+		Assert.assertEquals(1000, winOperator1.getWindowSize());
+		Assert.assertEquals(100, winOperator1.getWindowSlide());
 
 		DataStream<Tuple2<String, Integer>> window2 = source
 				.keyBy(0)
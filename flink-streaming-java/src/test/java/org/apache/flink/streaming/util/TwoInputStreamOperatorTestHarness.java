@@ -19,7 +19,10 @@
 package org.apache.flink.streaming.util;
 
 import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.ClosureCleaner;
+import org.apache.flink.api.java.functions.KeySelector;
 import org.apache.flink.api.java.typeutils.TypeExtractor;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.runtime.execution.Environment;
@@ -58,6 +61,8 @@ public class TwoInputStreamOperatorTestHarness<IN1, IN2, OUT> {
 
 	final Object checkpointLock;
 
+	final StreamConfig config;
+
 	public TwoInputStreamOperatorTestHarness(TwoInputStreamOperator<IN1, IN2, OUT> operator) {
 		this(operator, new StreamConfig(new Configuration()));
 	}
@@ -67,6 +72,7 @@ public class TwoInputStreamOperatorTestHarness<IN1, IN2, OUT> {
 		this.outputList = new ConcurrentLinkedQueue<Object>();
 		this.executionConfig = new ExecutionConfig();
 		this.checkpointLock = new Object();
+		this.config = config;
 
 		Environment env = new MockEnvironment("MockTwoInputTask", 3 * 1024 * 1024, new MockInputSplitProvider(), 1024);
 		StreamTask<?, ?> mockTask = mock(StreamTask.class);
@@ -82,7 +88,17 @@ public class TwoInputStreamOperatorTestHarness<IN1, IN2, OUT> {
 				(OngoingStubbing<StateBackend<?>>) (OngoingStubbing<?>) when(mockTask.getStateBackend());
 		stubbing.thenReturn(MemoryStateBackend.defaultInstance());
 
-		operator.setup(mockTask, new StreamConfig(new Configuration()), new MockOutput());
+		operator.setup(mockTask, config, new MockOutput());
+	}
+
+	/**
+	 * Configures the key/value state of the operator to be partitioned by the key of the
+	 * first input.
+	 */
+	public <K> void configureForKeyedStream(KeySelector<IN1, K> keySelector, TypeInformation<K> keyType) {
+		ClosureCleaner.clean(keySelector, false);
+		config.setStatePartitioner(keySelector);
+		config.setStateKeySerializer(keyType.createSerializer(executionConfig));
 	}
 
 	/**
@@ -363,6 +363,15 @@ class DataStream[T](javaStream: JavaStream[T]) {
    */
   def rebalance: DataStream[T] = javaStream.rebalance()
 
+  /**
+   * Sets the partitioning of the DataStream so that the output tuples
+   * are distributed evenly to a subset of instances of the next component.
+   * This setting only effects the how the outputs will be distributed between
+   * the parallel instances of the next processing operator.
+   *
+   */
+  def rescale: DataStream[T] = javaStream.rescale()
+
   /**
    * Initiates an iterative part of the program that creates a loop by feeding
    * back data streams. To create a streaming iteration the user needs to define
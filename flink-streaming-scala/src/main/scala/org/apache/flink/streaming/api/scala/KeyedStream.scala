@@ -144,6 +144,23 @@ class KeyedStream[T, K](javaStream: KeyedJavaStream[T, K]) extends DataStream[T]
     reduce(reducer)
   }
 
+  /**
+   * Creates a new [[DataStream]] by reducing the elements of this DataStream
+   * using an associative reduce function, in two phases. A local reduce before the
+   * partitioning by key combines up to `maxCombineSize` elements, or the elements of
+   * `maxCombineLatencyMillis`, into partial results that are merged after the partitioning.
+   */
+  def reduce(
+      reducer: ReduceFunction[T],
+      maxCombineSize: Int,
+      maxCombineLatencyMillis: Long): DataStream[T] = {
+    if (reducer == null) {
+      throw new NullPointerException("Reduce function must not be null.")
+    }
+
+    javaStream.reduce(reducer, maxCombineSize, maxCombineLatencyMillis)
+  }
+
   /**
    * Creates a new [[DataStream]] by folding the elements of this DataStream
    * using an associative fold function and an initial value. An independent 
@@ -274,7 +291,12 @@ class KeyedStream[T, K](javaStream: KeyedJavaStream[T, K]) extends DataStream[T]
 
     val invokable =  new StreamGroupedReduce[T](reducer,
       getType().createSerializer(getExecutionConfig))
-     
+
+    val env = javaStream.getExecutionEnvironment
+    if (env.getMiniBatchSize > 0) {
+      invokable.enableMiniBatch(env.getMiniBatchSize, env.getMiniBatchLatency)
+    }
+
     new DataStream[T](javaStream.transform("aggregation", javaStream.getType(),invokable))
       .asInstanceOf[DataStream[T]]
   }
@@ -82,6 +82,35 @@ class StreamExecutionEnvironment(javaEnv: JavaEnv) {
    */
   def getBufferTimeout = javaEnv.getBufferTimeout
 
+  /**
+   * Enables mini-batching for the rolling aggregations of keyed streams, that is `reduce`,
+   * `fold` and the built-in aggregations such as `sum`. Elements are then aggregated per key
+   * in batches before the key/value state is accessed. A batch is emitted when it holds
+   * `maxBatchSize` elements, after `maxLatencyMillis`, on watermarks, and before checkpoints.
+   */
+  def enableMiniBatch(maxBatchSize: Int, maxLatencyMillis: Long): StreamExecutionEnvironment = {
+    javaEnv.enableMiniBatch(maxBatchSize, maxLatencyMillis)
+    this
+  }
+
+  /**
+   * Disables mini-batching for the rolling aggregations of keyed streams.
+   */
+  def disableMiniBatch(): StreamExecutionEnvironment = {
+    javaEnv.disableMiniBatch()
+    this
+  }
+
+  /**
+   * Gets the maximum number of elements in a mini-batch, 0 if mini-batching is disabled
+   */
+  def getMiniBatchSize = javaEnv.getMiniBatchSize
+
+  /**
+   * Gets the maximum time that keyed aggregations hold elements in a mini-batch
+   */
+  def getMiniBatchLatency = javaEnv.getMiniBatchLatency
+
   /**
    * Disables operator chaining for streaming operators. Operator chaining
    * allows non-shuffle operations to be co-located in the same thread fully
@@ -93,6 +122,21 @@ class StreamExecutionEnvironment(javaEnv: JavaEnv) {
     this
   }
 
+  /**
+   * Enables the automatic registration of the generic types of the stream elements and state keys
+   * with Kryo. The registration IDs depend on the topology of the job, so state that contains Kryo
+   * serialized types can only be restored by a job with the same topology.
+   */
+  def enableAutoTypeRegistration(): StreamExecutionEnvironment = {
+    javaEnv.enableAutoTypeRegistration()
+    this
+  }
+
+  /**
+   * Returns whether the generic types of the stream elements and state keys are registered with Kryo.
+   */
+  def isAutoTypeRegistrationEnabled = javaEnv.isAutoTypeRegistrationEnabled
+
   // ------------------------------------------------------------------------
   //  Checkpointing Settings
   // ------------------------------------------------------------------------
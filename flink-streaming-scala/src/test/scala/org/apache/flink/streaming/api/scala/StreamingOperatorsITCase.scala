@@ -113,4 +113,41 @@ class StreamingOperatorsITCase extends ScalaStreamingMultipleProgramsTestBase {
 
     env.execute()
   }
+
+  /** Tests that the rolling aggregations of the Scala API use the mini-batch settings of the
+    * environment. With a batch that is larger than the input, only the final sum of each key
+    * is emitted.
+    */
+  @Test
+  def testMiniBatchAggregation(): Unit = {
+    val numElements = 10
+    val numKeys = 2
+
+    val env = StreamExecutionEnvironment.getExecutionEnvironment
+
+    env.setParallelism(1)
+    env.enableMiniBatch(2 * numElements, 0)
+
+    val sourceStream = env.addSource(new SourceFunction[(Int, Int)] {
+
+      override def run(ctx: SourceContext[(Int, Int)]): Unit = {
+        0 until numElements foreach {
+          i => ctx.collect((i % numKeys, i))
+        }
+      }
+
+      override def cancel(): Unit = {}
+    })
+
+    sourceStream
+      .keyBy(0)
+      .sum(1)
+      .map(_._2)
+      .getJavaStream
+      .writeAsText(resultPath1, FileSystem.WriteMode.OVERWRITE)
+
+    expected1 = (0 until numElements groupBy( _ % numKeys)).values.map(_.sum).mkString("\n")
+
+    env.execute()
+  }
 }